@@ -31,12 +31,22 @@ public final class TofuNomics extends JavaPlugin {
     private JobDAO jobDAO;
     private PlayerJobDAO playerJobDAO;
     private JobChangeDAO jobChangeDAO;
+    private org.tofu.tofunomics.dao.TradeHistoryDAO tradeHistoryDAO;
+    private org.tofu.tofunomics.cache.PlayerStateStore playerStateStore;
+    // オフラインプレイヤーの行のキャッシュ（PlayerDAO・PlayerJobDAOの前段）
+    private org.tofu.tofunomics.cache.CacheManager cacheManager;
+    // オンライン中のプレイヤーのセッション（ログイン前に読み込む）
+    private final org.tofu.tofunomics.players.PlayerSessionRegistry playerSessionRegistry =
+        new org.tofu.tofunomics.players.PlayerSessionRegistry();
+    private org.tofu.tofunomics.dao.PlayerSessionDAO playerSessionDAO;
+    private org.tofu.tofunomics.cache.WealthLeaderboard wealthLeaderboard;
     private ConfigManager configManager;
     private ItemManager itemManager;
     private CurrencyConverter currencyConverter;
     private BankLocationManager bankLocationManager;
     private JobManager jobManager;
     private ExperienceManager experienceManager;
+    private org.tofu.tofunomics.rewards.RewardRuleEngine rewardRuleEngine;
     
     // Phase 3 新機能マネージャー
     private JobToolManager jobToolManager;
@@ -74,6 +84,20 @@ public final class TofuNomics extends JavaPlugin {
     
     // プレイヤー参加時処理
     private org.tofu.tofunomics.players.PlayerJoinHandler playerJoinHandler;
+    
+    // プレイヤー状態ストア（ライトビハインド）
+    private org.tofu.tofunomics.batch.OptimizedBatchProcessor batchProcessor;
+    private org.tofu.tofunomics.performance.PerformanceMonitor performanceMonitor;
+    private org.tofu.tofunomics.players.PlayerStateManager playerStateManager;
+    
+    // キャッシュ・キューの統計（/tofunomics stats と stats.json）
+    private org.tofu.tofunomics.performance.StatsRegistry statsRegistry;
+    
+    // 動作トレース（/tofunomics trace）
+    private org.tofu.tofunomics.trace.Tracer tracer;
+    
+    // 設置ブロックの記録（設置したブロックの破壊で報酬を与えない）
+    private org.tofu.tofunomics.blocks.PlacedBlockListener placedBlockListener;
 
     // インベントリ管理システム
     private org.tofu.tofunomics.inventory.PlayerInventoryManager inventoryManager;
@@ -125,6 +149,9 @@ public final class TofuNomics extends JavaPlugin {
         // 設定の自動初期化を実行
         initializeAutoConfig();
         
+        // 動作トレースの初期化（各マネージャーの初期化前に行う）
+        initializeTracer();
+        
         // データベースの初期化
         if (!initializeDatabase()) {
             getLogger().severe("データベースの初期化に失敗しました。プラグインを無効化します。");
@@ -156,6 +183,12 @@ public final class TofuNomics extends JavaPlugin {
         // プレイヤー参加時処理の初期化
         initializePlayerJoinHandler();
         
+        // プレイヤー状態ストアの初期化
+        initializePlayerStateManager();
+        
+        // パフォーマンス監視の初期化
+        initializePerformanceMonitor();
+        
         // NPCシステムの初期化（新機能）
         initializeNPCSystem();
 
@@ -174,6 +207,9 @@ public final class TofuNomics extends JavaPlugin {
         // イベントリスナーの登録
         registerEventListeners();
         
+        // キャッシュ・キューの統計の登録
+        registerStatsSources();
+        
         // コマンドハンドラーの登録
         registerCommands();
         
@@ -184,6 +220,15 @@ public final class TofuNomics extends JavaPlugin {
     public void onDisable() {
         getLogger().info("TofuNomicsプラグインを無効化しています...");
 
+        // 停止直前のキャッシュ・キューの統計を書き出す（各システムのクリーンアップ前に行う）
+        if (statsRegistry != null) {
+            try {
+                statsRegistry.writeDump(getStatsDumpFile());
+            } catch (java.io.IOException e) {
+                getLogger().warning("統計ファイルの書き出しに失敗しました: " + e.getMessage());
+            }
+        }
+
         // インベントリ管理システムのクリーンアップ
         if (inventoryManager != null) {
             // 全オンラインプレイヤーのインベントリを保存
@@ -198,6 +243,11 @@ public final class TofuNomics extends JavaPlugin {
             unifiedEventHandler.cleanup();
         }
 
+        // 設置ブロックの記録の保存
+        if (placedBlockListener != null) {
+            placedBlockListener.shutdown();
+        }
+
         // スコアボードシステムのクリーンアップ
         if (scoreboardManager != null) {
             scoreboardManager.shutdown();
@@ -222,14 +272,54 @@ public final class TofuNomics extends JavaPlugin {
             clockItemManager.stopActionBarTask();
         }
 
+        // パフォーマンス監視の停止（メトリクスファイルへの書き出し）
+        if (performanceMonitor != null) {
+            performanceMonitor.shutdown();
+        }
+
+        // 集計中の職業経験値の反映（プレイヤー状態の書き出し前に行う）
+        if (jobExperienceManager != null) {
+            jobExperienceManager.flushPendingExperience();
+        }
+
+        // プレイヤー状態の書き出し（DB接続を閉じる前に行う）
+        if (playerStateManager != null) {
+            playerStateManager.shutdown();
+        }
+
+        // キャッシュの停止
+        if (cacheManager != null) {
+            cacheManager.shutdown();
+        }
+
         // データベース接続を閉じる
         if (databaseManager != null) {
             databaseManager.disconnect();
         }
 
+        // 記録済みのトレースの書き出し
+        if (tracer != null) {
+            tracer.flush();
+        }
+
         getLogger().info("TofuNomicsプラグインが無効化されました。");
     }
     
+    /**
+     * 動作トレースの初期化（/tofunomics trace で有効にするまで記録しない）
+     */
+    private void initializeTracer() {
+        tracer = new org.tofu.tofunomics.trace.Tracer(
+            new File(getDataFolder(), "trace/trace.log"),
+            configManager.getTraceBufferSize(),
+            configManager.getTraceMaxFileBytes(),
+            configManager.getTraceMaxFiles(),
+            getLogger()
+        );
+        // 記録済みのトレースを非同期でファイルへ書き出す
+        getServer().getScheduler().runTaskTimerAsynchronously(this, tracer::flush, 20L, 20L);
+    }
+    
     private boolean initializeDatabase() {
         try {
             // データベースファイルのパスを設定
@@ -241,7 +331,7 @@ public final class TofuNomics extends JavaPlugin {
             String databasePath = new File(dataFolder, "tofunomics.db").getAbsolutePath();
             
             // DatabaseManagerの初期化
-            databaseManager = new DatabaseManager(databasePath, getLogger());
+            databaseManager = new DatabaseManager(databasePath, configManager, getLogger());
             
             // データベースに接続
             if (!databaseManager.connect()) {
@@ -250,7 +340,10 @@ public final class TofuNomics extends JavaPlugin {
             
             // テーブルを作成
             databaseManager.createTables();
-            
+
+            // 非同期DB処理の結果を毎tickメインスレッドで受け渡す
+            getServer().getScheduler().runTaskTimer(this, databaseManager.getCompletionQueue()::drain, 1L, 1L);
+
             return true;
         } catch (Exception e) {
             getLogger().severe("データベース初期化中にエラーが発生しました: " + e.getMessage());
@@ -261,12 +354,52 @@ public final class TofuNomics extends JavaPlugin {
     
     private void initializeDAOs() {
         if (databaseManager != null && databaseManager.isConnected()) {
-            playerDAO = new PlayerDAO(databaseManager.getConnection());
-            jobDAO = new JobDAO(databaseManager.getConnection());
-            playerJobDAO = new PlayerJobDAO(databaseManager.getConnection());
-            jobChangeDAO = new JobChangeDAO(databaseManager.getConnection());
+            playerStateStore = new org.tofu.tofunomics.cache.PlayerStateStore();
+            wealthLeaderboard = new org.tofu.tofunomics.cache.WealthLeaderboard();
+            cacheManager = new org.tofu.tofunomics.cache.CacheManager(configManager, getLogger());
+            playerDAO = new PlayerDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor(),
+                playerStateStore, wealthLeaderboard, cacheManager);
+            jobDAO = new JobDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor());
+            playerJobDAO = new PlayerJobDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor(),
+                playerStateStore, cacheManager);
+            jobChangeDAO = new JobChangeDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor());
+            tradeHistoryDAO = new org.tofu.tofunomics.dao.TradeHistoryDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor());
+            playerSessionDAO = new org.tofu.tofunomics.dao.PlayerSessionDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor());
             
             getLogger().info("データアクセス層（DAO）を初期化しました");
+            
+            initializeWealthLeaderboard();
+            
+            // 再起動直後の再参加で単発クエリが集中しないよう、最近活動したプレイヤーを事前読み込みする
+            cacheManager.bindDataAccess(playerDAO, playerJobDAO);
+            cacheManager.warmupRecentPlayers();
+        }
+    }
+    
+    /**
+     * 総資産ランキングを起動時に1回だけ構築する
+     * プレイヤーの参加前に同期的に読み込み、以降はPlayerDAOの残高更新で差分反映する
+     */
+    private void initializeWealthLeaderboard() {
+        // 名簿にもplayers.nameにもない名前はサーバーの記録（usercache）から引く
+        playerDAO.setNameLookup(uuid -> getServer().getOfflinePlayer(uuid).getName());
+        try {
+            playerDAO.loadWealthLeaderboard();
+            for (org.bukkit.entity.Player player : getServer().getOnlinePlayers()) {
+                playerDAO.getNameDirectory().put(player.getUniqueId(), player.getName());
+            }
+            getLogger().info("総資産ランキングを構築しました: " + wealthLeaderboard.size() + "人");
+            // 名前が未記録の行（players.name追加前からのプレイヤー）はサーバーの記録から埋める
+            playerDAO.backfillPlayerNamesAsync().whenComplete((count, error) -> {
+                if (error != null) {
+                    getLogger().warning("プレイヤー名の補完に失敗しました: " + error.getMessage());
+                } else if (count > 0) {
+                    getLogger().info("プレイヤー名を補完しました: " + count + "人");
+                }
+            });
+        } catch (java.sql.SQLException e) {
+            // 構築できなかった場合、/balancetop は従来通りDBから取得する
+            getLogger().warning("総資産ランキングの構築に失敗しました: " + e.getMessage());
         }
     }
     
@@ -294,12 +427,16 @@ public final class TofuNomics extends JavaPlugin {
                 jobDAO,
                 playerDAO,
                 playerJobDAO,
-                jobChangeDAO
+                jobChangeDAO,
+                playerSessionRegistry
             );
             
             // ExperienceManagerの初期化
             experienceManager = new ExperienceManager(configManager, playerJobDAO);
             
+            // 職業活動の報酬表（職業IDで引くため、JobManagerの後に初期化）
+            rewardRuleEngine = new org.tofu.tofunomics.rewards.RewardRuleEngine(this, configManager, jobManager);
+            
             getLogger().info("マネージャーを初期化しました");
         } catch (Exception e) {
             getLogger().severe("マネージャー初期化中にエラーが発生しました: " + e.getMessage());
@@ -319,12 +456,19 @@ public final class TofuNomics extends JavaPlugin {
             jobExperienceManager = new JobExperienceManager(
                 configManager, 
                 playerJobDAO, 
-                jobDAO, 
                 jobManager, 
                 jobToolManager,
-                experienceManager
+                experienceManager,
+                rewardRuleEngine
             );
             
+            // 合算した職業経験値を集計間隔ごとに反映する
+            long accumulationWindow = jobExperienceManager.getAccumulationWindow();
+            if (accumulationWindow > 0) {
+                getServer().getScheduler().runTaskTimer(this, jobExperienceManager::flushPendingExperience,
+                    accumulationWindow, accumulationWindow);
+            }
+            
             // 収入システムは無効化: JobIncomeManagerの初期化はコメントアウト
             /*
             jobIncomeManager = new JobIncomeManager(
@@ -345,6 +489,7 @@ public final class TofuNomics extends JavaPlugin {
             jobStatsManager = new JobStatsManager(
                 configManager, 
                 playerJobDAO, 
+                playerDAO, 
                 jobManager, 
                 jobLevelRewardManager
             );
@@ -352,7 +497,8 @@ public final class TofuNomics extends JavaPlugin {
             // JobBlockPermissionManagerの初期化
             jobBlockPermissionManager = new org.tofu.tofunomics.jobs.JobBlockPermissionManager(
                 configManager,
-                jobManager
+                jobManager,
+                tracer
             );
             
             getLogger().info("Phase 3 職業特化機能を初期化しました");
@@ -371,15 +517,17 @@ public final class TofuNomics extends JavaPlugin {
             
             // TradeChestManagerの初期化
             tradeChestManager = new org.tofu.tofunomics.trade.TradeChestManager(
-                databaseManager.getConnection(),
+                databaseManager.getDataSource(),
                 configManager,
-                playerDAO
+                playerDAO,
+                tradeHistoryDAO
             );
             
             // TradePriceManagerの初期化
             tradePriceManager = new org.tofu.tofunomics.trade.TradePriceManager(
                 configManager,
-                jobManager
+                jobManager,
+                rewardRuleEngine
             );
             
             // TradeChestListenerの初期化
@@ -391,6 +539,8 @@ public final class TofuNomics extends JavaPlugin {
                 jobManager
             );
             
+            startTradeHistoryRetentionTask();
+            
             getLogger().info("Phase 4 取引システムを初期化しました");
         } catch (Exception e) {
             getLogger().severe("Phase 4 取引システム初期化中にエラーが発生しました: " + e.getMessage());
@@ -405,7 +555,8 @@ public final class TofuNomics extends JavaPlugin {
             jobCraftPermissionManager = new org.tofu.tofunomics.jobs.JobCraftPermissionManager(
                 this,
                 jobManager,
-                configManager
+                configManager,
+                tracer
             );
             
             // クラフト制限メッセージの強制初期化（緊急対応）
@@ -424,6 +575,26 @@ public final class TofuNomics extends JavaPlugin {
         }
     }
     
+    /**
+     * 取引履歴の保持期間を過ぎた月別テーブルを定期的にDROPする（DBスレッドで実行）
+     */
+    private void startTradeHistoryRetentionTask() {
+        if (!configManager.isTradeHistoryAutoCleanupEnabled()) {
+            return;
+        }
+        
+        long intervalTicks = Math.max(1, configManager.getTradeHistoryCleanupIntervalMinutes()) * 60L * 20L;
+        getServer().getScheduler().runTaskTimer(this, () ->
+            tradeHistoryDAO.applyRetentionAsync(configManager.getTradeHistoryMaxDays(), configManager.getTradeHistoryRollupMaxDays())
+                .whenComplete((dropped, throwable) -> {
+                    if (throwable != null) {
+                        getLogger().warning("取引履歴の自動削除中にエラーが発生しました: " + throwable.getMessage());
+                    } else if (dropped > 0) {
+                        getLogger().info("保持期間を過ぎた取引履歴を削除しました（" + dropped + "か月分）");
+                    }
+                }), 20L * 60L, intervalTicks);
+    }
+    
     /**
      * 設定の自動初期化処理
      */
@@ -457,6 +628,18 @@ public final class TofuNomics extends JavaPlugin {
     
     private void initializePhase5EventSystem() {
         try {
+            // 設置ブロックの記録の初期化（統合イベントシステムの有無に関わらず、経験値・クエストのマネージャーが破壊報酬の判定に使う）
+            if (configManager.isPlacedBlockTrackingEnabled()) {
+                placedBlockListener = new org.tofu.tofunomics.blocks.PlacedBlockListener(this, configManager);
+                placedBlockListener.start(configManager.getPlacedBlocksSaveInterval());
+                if (jobExperienceManager != null) {
+                    jobExperienceManager.setPlacedBlockTracker(placedBlockListener.getTracker());
+                }
+                if (jobQuestManager != null) {
+                    jobQuestManager.setPlacedBlockTracker(placedBlockListener.getTracker());
+                }
+            }
+            
             if (!configManager.isEventSystemEnabled()) {
                 getLogger().info("統合イベントシステムは無効化されています。");
                 return;
@@ -473,7 +656,10 @@ public final class TofuNomics extends JavaPlugin {
                     jobManager,
                     jobExperienceManager,
                     jobQuestManager,
-                    jobBlockPermissionManager
+                    jobBlockPermissionManager,
+                    rewardRuleEngine,
+                    tracer,
+                    placedBlockListener != null ? placedBlockListener.getTracker() : null
                 );
                 getLogger().info("UnifiedEventHandler初期化完了");
             } catch (Exception e) {
@@ -488,12 +674,67 @@ public final class TofuNomics extends JavaPlugin {
         }
     }
     
+    private void initializePlayerStateManager() {
+        if (!configManager.isPlayerStateStoreEnabled()) {
+            getLogger().info("プレイヤー状態ストアは無効化されています（DBへ直接読み書きします）");
+            return;
+        }
+        try {
+            batchProcessor = new org.tofu.tofunomics.batch.OptimizedBatchProcessor(
+                this,
+                configManager,
+                databaseManager.getConnectionPool()
+            );
+            playerJobDAO.setBatchProcessor(batchProcessor);
+            
+            playerStateManager = new org.tofu.tofunomics.players.PlayerStateManager(
+                this,
+                configManager,
+                playerStateStore,
+                playerDAO,
+                playerJobDAO,
+                playerSessionDAO,
+                playerSessionRegistry,
+                databaseManager.getDatabaseExecutor(),
+                batchProcessor
+            );
+            playerStateManager.start();
+            
+            getLogger().info("プレイヤー状態ストアを初期化しました");
+        } catch (Exception e) {
+            getLogger().severe("プレイヤー状態ストアの初期化中にエラーが発生しました: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    private void initializePerformanceMonitor() {
+        if (!configManager.isStatisticsEnabled()) {
+            return;
+        }
+        try {
+            performanceMonitor = new org.tofu.tofunomics.performance.PerformanceMonitor(
+                this,
+                configManager,
+                databaseManager.getConnectionPool(),
+                cacheManager,
+                batchProcessor
+            );
+        } catch (Exception e) {
+            getLogger().severe("パフォーマンス監視の初期化中にエラーが発生しました: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    public org.tofu.tofunomics.performance.PerformanceMonitor getPerformanceMonitor() {
+        return performanceMonitor;
+    }
+    
     private void initializePlayerJoinHandler() {
         try {
             // PlayerInventoryManagerの初期化
             inventoryManager = new org.tofu.tofunomics.inventory.PlayerInventoryManager(
                 this,
-                databaseManager.getConnection()
+                databaseManager.getDataSource()
             );
             getLogger().info("インベントリ管理システムを初期化しました");
 
@@ -504,7 +745,8 @@ public final class TofuNomics extends JavaPlugin {
                 playerDAO,
                 scoreboardManager,
                 inventoryManager,
-                rulesManager
+                rulesManager,
+                playerSessionRegistry
             );
 
             getLogger().info("プレイヤー参加時処理を初期化しました");
@@ -551,6 +793,12 @@ public final class TofuNomics extends JavaPlugin {
                 getLogger().info("既存の個別イベントリスナーを登録しました");
             }
             
+            // 設置ブロックの記録リスナーの登録
+            if (placedBlockListener != null) {
+                getServer().getPluginManager().registerEvents(placedBlockListener, this);
+                getLogger().info("設置ブロックの記録リスナーを登録しました");
+            }
+            
             // Phase 4 取引システムイベントリスナーの登録
             if (tradeChestListener != null) {
                 getServer().getPluginManager().registerEvents(tradeChestListener, this);
@@ -569,6 +817,12 @@ public final class TofuNomics extends JavaPlugin {
                 getLogger().info("プレイヤー参加時処理リスナーを登録しました");
             }
             
+            // プレイヤー状態ストアリスナーの登録
+            if (playerStateManager != null) {
+                getServer().getPluginManager().registerEvents(playerStateManager, this);
+                getLogger().info("プレイヤー状態ストアリスナーを登録しました");
+            }
+            
             // スコアボードマネージャーリスナーの登録
             if (scoreboardManager != null) {
                 getServer().getPluginManager().registerEvents(scoreboardManager, this);
@@ -614,11 +868,11 @@ public final class TofuNomics extends JavaPlugin {
         try {
             // 経済系コマンド
             getCommand("balance").setExecutor(new BalanceCommand(configManager, currencyConverter));
-            getCommand("pay").setExecutor(new PayCommand(configManager, currencyConverter));
+            getCommand("pay").setExecutor(new PayCommand(configManager, currencyConverter, databaseManager.getDatabaseExecutor()));
             getCommand("withdraw").setExecutor(new WithdrawCommand(configManager, currencyConverter, bankLocationManager));
             getCommand("deposit").setExecutor(new DepositCommand(configManager, currencyConverter, itemManager, bankLocationManager));
-            getCommand("balancetop").setExecutor(new BalanceTopCommand(configManager, currencyConverter, playerDAO));
-            getCommand("eco").setExecutor(new EcoCommand(configManager, currencyConverter, playerDAO));
+            getCommand("balancetop").setExecutor(new BalanceTopCommand(configManager, currencyConverter, playerDAO, wealthLeaderboard));
+            getCommand("eco").setExecutor(new EcoCommand(configManager, currencyConverter, playerDAO, databaseManager.getDatabaseExecutor()));
             
             // 職業系コマンド
             getCommand("jobs").setExecutor(new JobsCommand(configManager, jobManager, experienceManager));
@@ -707,14 +961,30 @@ public final class TofuNomics extends JavaPlugin {
         return jobDAO;
     }
     
+    public org.tofu.tofunomics.cache.CacheManager getCacheManager() {
+        return cacheManager;
+    }
+    
     public PlayerJobDAO getPlayerJobDAO() {
         return playerJobDAO;
     }
     
+    public org.tofu.tofunomics.players.PlayerSessionRegistry getPlayerSessionRegistry() {
+        return playerSessionRegistry;
+    }
+    
+    public org.tofu.tofunomics.players.PlayerStateManager getPlayerStateManager() {
+        return playerStateManager;
+    }
+    
     public JobChangeDAO getJobChangeDAO() {
         return jobChangeDAO;
     }
     
+    public org.tofu.tofunomics.dao.TradeHistoryDAO getTradeHistoryDAO() {
+        return tradeHistoryDAO;
+    }
+    
     public ConfigManager getConfigManager() {
         return configManager;
     }
@@ -735,6 +1005,10 @@ public final class TofuNomics extends JavaPlugin {
         return jobManager;
     }
     
+    public org.tofu.tofunomics.rewards.RewardRuleEngine getRewardRuleEngine() {
+        return rewardRuleEngine;
+    }
+    
     public ExperienceManager getExperienceManager() {
         return experienceManager;
     }
@@ -1081,6 +1355,63 @@ public final class TofuNomics extends JavaPlugin {
         }
     }
 
+    /**
+     * 初期化済みの各システムのキャッシュ・キューを統計の登録簿へ登録する
+     * 無効化されている・初期化に失敗したシステムは登録しない
+     */
+    private void registerStatsSources() {
+        statsRegistry = new org.tofu.tofunomics.performance.StatsRegistry(getLogger());
+        if (cacheManager != null) {
+            cacheManager.registerStats(statsRegistry);
+        }
+        if (playerStateStore != null) {
+            playerStateStore.registerStats(statsRegistry);
+        }
+        if (playerDAO != null) {
+            playerDAO.registerStats(statsRegistry);
+        }
+        if (jobManager != null) {
+            jobManager.getCapabilities().registerStats(statsRegistry);
+        }
+        if (jobExperienceManager != null) {
+            jobExperienceManager.registerStats(statsRegistry);
+        }
+        if (databaseManager != null && databaseManager.isConnected()) {
+            databaseManager.getDatabaseExecutor().registerStats(statsRegistry);
+            databaseManager.getConnectionPool().registerStats(statsRegistry);
+        }
+        if (batchProcessor != null) {
+            batchProcessor.registerStats(statsRegistry);
+        }
+        if (unifiedEventHandler != null) {
+            unifiedEventHandler.registerStats(statsRegistry);
+        }
+        if (tracer != null) {
+            tracer.registerStats(statsRegistry);
+        }
+        if (placedBlockListener != null) {
+            placedBlockListener.getTracker().registerStats(statsRegistry);
+        }
+        if (foodNPCManager != null) {
+            foodNPCManager.registerStats(statsRegistry);
+        }
+        if (areaManager != null) {
+            areaManager.registerStats(statsRegistry);
+        }
+    }
+    
+    public org.tofu.tofunomics.performance.StatsRegistry getStatsRegistry() {
+        return statsRegistry;
+    }
+    
+    public org.tofu.tofunomics.trace.Tracer getTracer() {
+        return tracer;
+    }
+    
+    public File getStatsDumpFile() {
+        return new File(getDataFolder(), "stats.json");
+    }
+
     /**
      * エリアシステムのクリーンアップ
      */
@@ -1257,7 +1588,8 @@ public final class TofuNomics extends JavaPlugin {
             rulesManager = new org.tofu.tofunomics.rules.RulesManager(
                 this,
                 configManager,
-                playerDAO
+                playerDAO,
+                playerSessionRegistry
             );
             
             getLogger().info("ルール確認システムの初期化が完了しました");
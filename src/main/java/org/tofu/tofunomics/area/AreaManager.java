@@ -5,6 +5,7 @@ import org.bukkit.Sound;
 import org.bukkit.configuration.ConfigurationSection;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.models.AreaZone;
+import org.tofu.tofunomics.performance.StatsRegistry;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -170,6 +171,16 @@ public class AreaManager {
                         .put(areaId, System.currentTimeMillis());
     }
 
+    /**
+     * プレイヤーのエリア進入履歴を統計の登録簿へ登録する（件数はプレイヤー数）
+     *
+     * @param registry 統計の登録簿
+     */
+    public void registerStats(StatsRegistry registry) {
+        registry.register("area.player_history", () -> StatsRegistry.Stats.collection(playerAreaHistory.size(),
+            StatsRegistry.estimateNestedMapBytes(playerAreaHistory, StatsRegistry.UUID_BYTES, StatsRegistry.BOXED_NUMBER_BYTES)));
+    }
+
     /**
      * プレイヤーの履歴をクリア（ログアウト時など）
      *
@@ -1,360 +1,419 @@
 package org.tofu.tofunomics.batch;
 
-import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.tofu.tofunomics.config.ConfigManager;
-import org.tofu.tofunomics.database.HikariDatabaseManager;
+import org.tofu.tofunomics.performance.StatsRegistry;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * 最適化されたバッチ処理システム
- * より効率的なバッチ処理とメモリ使用量削減を実現
+ * 操作を型付きでキューに積み、同じ行への操作は1ウィンドウ内で1つにまとめて書き込む（確定値は最新値のみ）
+ * 残高・経験値はプレイヤー状態ストアが合算した確定値を書き込むため、差分の操作は持たない
+ * キューが満杯の場合は呼び出し元スレッドで書き込まず、受付を拒否して呼び出し元に知らせる
+ * 状態の確定値は書き込みが確定（または新しい値に置き換え）した時点で操作ごとに完了を通知する
  */
 public class OptimizedBatchProcessor {
-    
+
     private final JavaPlugin plugin;
     private final ConfigManager configManager;
-    private final HikariDatabaseManager databaseManager;
+    private final DataSource databaseManager;
     private final Logger logger;
-    
-    // バッチ処理キュー（操作タイプ別）
-    private final Map<BatchOperationType, BlockingQueue<BatchOperation>> batchQueues;
-    
+
+    // 保留中の操作（操作タイプ別、まとめ用キー → 操作）
+    private final Map<BatchOperationType, PendingOperations> pendingOperations;
+
     // バッチ処理スケジューラ
     private final ScheduledExecutorService batchScheduler;
     private final ExecutorService batchExecutor;
-    
-    // オブジェクトプール
-    private final ObjectPool<StringBuilder> stringBuilderPool;
-    private final ObjectPool<HashMap<String, Object>> mapPool;
-    
+
     // 統計情報
     private final AtomicInteger totalBatchesProcessed = new AtomicInteger(0);
     private final AtomicInteger totalOperationsProcessed = new AtomicInteger(0);
     private final AtomicLong totalBatchTime = new AtomicLong(0);
     private final AtomicInteger failedBatches = new AtomicInteger(0);
-    
+    private final AtomicLong coalescedOperations = new AtomicLong(0);
+    private final AtomicLong rejectedOperations = new AtomicLong(0);
+    private final AtomicLong retriedOperations = new AtomicLong(0);
+    private final AtomicLong droppedOperations = new AtomicLong(0);
+    // 操作がキューに積まれてから書き込みが始まるまでの待ち時間（まとめられた操作は最初に積まれた時刻から）
+    private final AtomicLong queueLatencyNanos = new AtomicLong(0);
+    private final AtomicLong queueLatencySamples = new AtomicLong(0);
+
+    // 統計の推定サイズ用の1操作あたりの概算（操作・まとめ用キー・マップのエントリ）
+    private static final long PENDING_OPERATION_BYTES = 160L;
+
     // 設定値
     private volatile int batchSize;
     private volatile int batchTimeout;
+    private volatile int maxQueueSize;
+    private volatile int maxRetries;
     private volatile boolean batchProcessingEnabled;
-    
-    public OptimizedBatchProcessor(JavaPlugin plugin, ConfigManager configManager, 
-                                 HikariDatabaseManager databaseManager) {
+
+    public OptimizedBatchProcessor(JavaPlugin plugin, ConfigManager configManager,
+                                 DataSource databaseManager) {
         this.plugin = plugin;
         this.configManager = configManager;
         this.databaseManager = databaseManager;
         this.logger = plugin.getLogger();
-        
+
         // 設定値の初期化
         loadConfiguration();
-        
-        // バッチキューの初期化
-        this.batchQueues = new ConcurrentHashMap<>();
+
+        // 保留キューの初期化
+        this.pendingOperations = new EnumMap<>(BatchOperationType.class);
         for (BatchOperationType type : BatchOperationType.values()) {
-            this.batchQueues.put(type, new ArrayBlockingQueue<>(1000));
+            this.pendingOperations.put(type, new PendingOperations());
         }
-        
+
         // スレッドプールの初期化
-        this.batchScheduler = Executors.newScheduledThreadPool(2, r -> {
+        this.batchScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread thread = new Thread(r, "TofuNomics-BatchScheduler");
             thread.setDaemon(true);
             return thread;
         });
-        
-        this.batchExecutor = Executors.newFixedThreadPool(3, r -> {
+
+        // 同じ行への書き込み順序を保つため単一スレッドで実行する
+        this.batchExecutor = Executors.newSingleThreadExecutor(r -> {
             Thread thread = new Thread(r, "TofuNomics-BatchExecutor");
             thread.setDaemon(true);
             return thread;
         });
-        
-        // オブジェクトプールの初期化
-        this.stringBuilderPool = new ObjectPool<>(StringBuilder::new, 50);
-        this.mapPool = new ObjectPool<>(HashMap::new, 100);
-        
+
         // バッチ処理タスクの開始
         startBatchProcessing();
     }
-    
+
     /**
      * 設定値の読み込み
      */
     private void loadConfiguration() {
         this.batchProcessingEnabled = configManager.isBatchProcessingEnabled();
-        this.batchSize = configManager.getBatchSize();
+        this.batchSize = Math.max(1, configManager.getBatchSize());
         this.batchTimeout = configManager.getBatchTimeout();
+        this.maxQueueSize = Math.max(1, configManager.getBatchMaxQueueSize());
+        this.maxRetries = Math.max(0, configManager.getBatchMaxRetries());
     }
-    
+
     /**
      * バッチ処理タスクの開始
      */
     private void startBatchProcessing() {
         if (!batchProcessingEnabled) {
-            logger.info("バッチ処理が無効化されています。");
+            logger.info("バッチ処理が無効化されています。操作は1件ずつ書き込まれます。");
             return;
         }
-        
-        // 各操作タイプに対してバッチ処理タスクを開始
-        for (BatchOperationType type : BatchOperationType.values()) {
-            batchScheduler.scheduleAtFixedRate(() -> {
-                try {
-                    processBatch(type);
-                } catch (Exception e) {
-                    logger.log(Level.WARNING, "バッチ処理中にエラーが発生しました: " + type, e);
-                }
-            }, 1000, batchTimeout, TimeUnit.MILLISECONDS);
-        }
-        
+
+        batchScheduler.scheduleAtFixedRate(() -> {
+            try {
+                processAllBatches();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "バッチ処理中にエラーが発生しました", e);
+            }
+        }, 1000, batchTimeout, TimeUnit.MILLISECONDS);
+
         logger.info("最適化バッチ処理システムを開始しました。");
     }
-    
+
+    // ========== 操作の受付 ==========
+
     /**
-     * バッチ操作をキューに追加
+     * 残高の確定値を書き込む（同じプレイヤーは最新値のみ書き込まれる）
+     * @return 受け付けた場合はtrue、キューが満杯の場合はfalse
      */
-    public void queueOperation(BatchOperationType type, String playerUUID, Object... parameters) {
-        if (!batchProcessingEnabled) {
-            // バッチ処理が無効の場合は即座に実行
-            executeImmediately(type, playerUUID, parameters);
-            return;
+    public boolean queuePlayerState(String playerUUID, double balance, double bankBalance) {
+        return queuePlayerState(playerUUID, balance, bankBalance, null);
+    }
+
+    /**
+     * 残高の確定値を書き込み、書き込みの結果を通知する
+     * @param listener 書き込みが確定した・新しい値に置き換えられた場合はtrue、破棄された場合はfalseで呼ばれる
+     *                 （バッチ処理スレッドから呼ばれる。受付を拒否した場合は呼ばれない）
+     */
+    public boolean queuePlayerState(String playerUUID, double balance, double bankBalance, WriteListener listener) {
+        return offer(new PlayerStateUpdate(playerUUID, balance, bankBalance).addListener(listener));
+    }
+
+    /**
+     * レベル・経験値の確定値を書き込む（同じプレイヤー・職業は最新値のみ書き込まれる）
+     * @return 受け付けた場合はtrue、キューが満杯の場合はfalse
+     */
+    public boolean queuePlayerJobState(String playerUUID, int jobId, int level, double experience) {
+        return queuePlayerJobState(playerUUID, jobId, level, experience, null);
+    }
+
+    /**
+     * レベル・経験値の確定値を書き込み、書き込みの結果を通知する
+     * @param listener {@link #queuePlayerState(String, double, double, WriteListener)} と同じ
+     */
+    public boolean queuePlayerJobState(String playerUUID, int jobId, int level, double experience,
+                                       WriteListener listener) {
+        return offer(new PlayerJobStateUpdate(playerUUID, jobId, level, experience).addListener(listener));
+    }
+
+    /**
+     * 削除した職業の、積まれているレベル・経験値の書き込みを破棄する
+     * 削除後に同じ職業へ就き直した行を古い値で上書きしないため（書き込み中の操作が失敗しても再試行しない）
+     */
+    public void discardPlayerJobState(String playerUUID, int jobId) {
+        Object key = PlayerJobStateUpdate.coalesceKey(playerUUID, jobId);
+        discard(BatchOperationType.PLAYER_JOB_STATE, key::equals);
+    }
+
+    /**
+     * プレイヤーの全職業の、積まれているレベル・経験値の書き込みを破棄する
+     */
+    public void discardPlayerJobStates(String playerUUID) {
+        String prefix = PlayerJobStateUpdate.keyPrefix(playerUUID);
+        discard(BatchOperationType.PLAYER_JOB_STATE, key -> key.toString().startsWith(prefix));
+    }
+
+    private void discard(BatchOperationType type, Predicate<Object> matcher) {
+        for (BatchOperation operation : pendingOperations.get(type).discard(matcher)) {
+            // 行が無くなったため、書き込み待ちの通知先には置き換え済みとして完了を知らせる
+            complete(operation, true);
         }
-        
-        BlockingQueue<BatchOperation> queue = batchQueues.get(type);
-        if (queue != null) {
-            BatchOperation operation = new BatchOperation(playerUUID, parameters);
-            
-            if (!queue.offer(operation)) {
-                logger.warning("バッチキューが満杯です。操作を即座に実行します: " + type);
-                executeImmediately(type, playerUUID, parameters);
+    }
+
+    private boolean offer(BatchOperation operation) {
+        if (!batchProcessingEnabled) {
+            // バッチ処理が無効の場合も呼び出し元では書き込まず、バッチスレッドで1件ずつ実行する
+            pendingOperations.get(operation.getType()).track(operation);
+            try {
+                batchExecutor.execute(() -> executeBatch(operation.getType(), Collections.singletonList(operation)));
+                return true;
+            } catch (RejectedExecutionException e) {
+                rejectedOperations.incrementAndGet();
+                return false;
             }
         }
+
+        PendingOperations pending = pendingOperations.get(operation.getType());
+        int result = pending.offer(operation, maxQueueSize);
+        if (result == PendingOperations.MERGED) {
+            coalescedOperations.incrementAndGet();
+        } else if (result == PendingOperations.REJECTED) {
+            rejectedOperations.incrementAndGet();
+            // 満杯のキューは次の周期を待たずに書き出しを始める
+            requestEarlyFlush(operation.getType());
+            return false;
+        }
+        return true;
     }
-    
+
+    private void requestEarlyFlush(BatchOperationType type) {
+        try {
+            batchScheduler.execute(() -> processBatch(type));
+        } catch (RejectedExecutionException ignored) {
+            // シャットダウン中
+        }
+    }
+
+    // ========== 書き出し ==========
+
+    private void processAllBatches() {
+        for (BatchOperationType type : BatchOperationType.values()) {
+            processBatch(type);
+        }
+    }
+
     /**
-     * 特定タイプのバッチ処理を実行
+     * 特定タイプの保留操作をすべて取り出し、バッチサイズごとに書き込む
+     * 取り出しと投入を同期し、キューに積まれた順にバッチが実行されるようにする
      */
-    private void processBatch(BatchOperationType type) {
-        BlockingQueue<BatchOperation> queue = batchQueues.get(type);
-        if (queue.isEmpty()) {
-            return;
+    private synchronized void processBatch(BatchOperationType type) {
+        PendingOperations pending = pendingOperations.get(type);
+        List<BatchOperation> operations;
+        while (!(operations = pending.drain(batchSize)).isEmpty()) {
+            List<BatchOperation> batch = operations;
+            batchExecutor.submit(() -> executeBatch(type, batch));
         }
-        
-        List<BatchOperation> operations = new ArrayList<>();
-        
-        // バッチサイズ分の操作を収集
-        queue.drainTo(operations, batchSize);
-        
-        if (operations.isEmpty()) {
-            return;
+    }
+
+    /**
+     * キューに積まれている全操作の書き込みを開始し、完了時に完了するFutureを返す
+     */
+    public CompletableFuture<Void> flush() {
+        synchronized (this) {
+            processAllBatches();
+            // 単一スレッド実行のため、この空タスクの完了時点でそれ以前のバッチは全て完了している
+            return CompletableFuture.runAsync(() -> { }, batchExecutor);
         }
-        
-        // 非同期でバッチを実行
-        batchExecutor.submit(() -> executeBatch(type, operations));
     }
-    
+
     /**
      * バッチの実行
+     * 失敗した場合はバッチ全体を再実行せず、1件ずつ実行して失敗した操作だけを再試行に回す
      */
     private void executeBatch(BatchOperationType type, List<BatchOperation> operations) {
         long startTime = System.currentTimeMillis();
-        
-        try {
-            switch (type) {
-                case BALANCE_UPDATE:
-                    executeBatchBalanceUpdate(operations);
-                    break;
-                case EXPERIENCE_UPDATE:
-                    executeBatchExperienceUpdate(operations);
-                    break;
-                case TRADE_HISTORY:
-                    executeBatchTradeHistory(operations);
-                    break;
-                case PERFORMANCE_STATS:
-                    executeBatchPerformanceStats(operations);
-                    break;
-                default:
-                    logger.warning("未知のバッチ操作タイプ: " + type);
-                    break;
+        recordQueueLatency(operations);
+
+        try (Connection conn = databaseManager.getConnection()) {
+            writeOperations(conn, type, operations, new Timestamp(startTime));
+            for (BatchOperation operation : operations) {
+                complete(operation, true);
             }
-            
+
             // 統計更新
             totalBatchesProcessed.incrementAndGet();
             totalOperationsProcessed.addAndGet(operations.size());
             totalBatchTime.addAndGet(System.currentTimeMillis() - startTime);
-            
-        } catch (Exception e) {
+            logger.fine(String.format("バッチ書き込み完了: %s %d操作", type, operations.size()));
+
+        } catch (SQLException e) {
             failedBatches.incrementAndGet();
-            logger.log(Level.SEVERE, "バッチ実行に失敗しました: " + type, e);
-            
-            // 失敗した操作を個別に再試行
+            logger.log(Level.WARNING, "バッチ実行に失敗しました。1件ずつ再実行します: " + type, e);
+            executeIndividually(type, operations);
+        }
+    }
+
+    private void executeIndividually(BatchOperationType type, List<BatchOperation> operations) {
+        List<BatchOperation> failed = new ArrayList<>();
+
+        try (Connection conn = databaseManager.getConnection()) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
             for (BatchOperation operation : operations) {
                 try {
-                    executeImmediately(type, operation.getPlayerUUID(), operation.getParameters());
-                } catch (Exception retryException) {
-                    logger.log(Level.SEVERE, "個別実行でも失敗しました", retryException);
+                    writeOperations(conn, type, Collections.singletonList(operation), now);
+                    totalOperationsProcessed.incrementAndGet();
+                    complete(operation, true);
+                } catch (SQLException e) {
+                    logger.log(Level.FINE, "操作の書き込みに失敗しました: " + type + " " + operation.getPlayerUUID(), e);
+                    failed.add(operation);
                 }
             }
+        } catch (SQLException e) {
+            // 接続自体を取得できない場合は全件を再試行に回す
+            logger.log(Level.WARNING, "個別実行用の接続を取得できませんでした: " + type, e);
+            failed.clear();
+            failed.addAll(operations);
+        }
+
+        for (BatchOperation operation : failed) {
+            retry(operation);
         }
     }
-    
+
     /**
-     * バッチ残高更新の実行
+     * 操作をまとめて1トランザクションで書き込む
      */
-    private void executeBatchBalanceUpdate(List<BatchOperation> operations) throws SQLException {
-        try (Connection conn = databaseManager.getConnection()) {
-            conn.setAutoCommit(false);
-            
-            String updateQuery = "UPDATE players SET balance = balance + ?, updated_at = CURRENT_TIMESTAMP WHERE uuid = ?";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(updateQuery)) {
-                
-                for (BatchOperation operation : operations) {
-                    Object[] params = operation.getParameters();
-                    if (params.length >= 1) {
-                        pstmt.setDouble(1, (Double) params[0]);
-                        pstmt.setString(2, operation.getPlayerUUID());
-                        pstmt.addBatch();
-                    }
-                }
-                
-                int[] results = pstmt.executeBatch();
-                conn.commit();
-                
-                logger.fine(String.format("バッチ残高更新完了: %d操作", results.length));
+    private void writeOperations(Connection conn, BatchOperationType type, List<BatchOperation> operations,
+                                 Timestamp now) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(type.getSql())) {
+            for (BatchOperation operation : operations) {
+                operation.bind(pstmt, now);
+                pstmt.addBatch();
             }
+            pstmt.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
         }
     }
-    
+
     /**
-     * バッチ経験値更新の実行
+     * 失敗した操作を保留キューへ戻す（次の周期で再実行）
+     * 同じ行の新しい操作が既に積まれている場合はそちらとまとめ、
+     * 新しい確定値が既に受け付けられている場合は古い値で上書きしないよう破棄する
      */
-    private void executeBatchExperienceUpdate(List<BatchOperation> operations) throws SQLException {
-        try (Connection conn = databaseManager.getConnection()) {
-            conn.setAutoCommit(false);
-            
-            String updateQuery = "UPDATE player_jobs " +
-                                 "SET experience = experience + ?, last_used = CURRENT_TIMESTAMP " +
-                                 "WHERE uuid = ? AND job_id = ?";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(updateQuery)) {
-                
-                for (BatchOperation operation : operations) {
-                    Object[] params = operation.getParameters();
-                    if (params.length >= 2) {
-                        pstmt.setDouble(1, (Double) params[1]); // 経験値
-                        pstmt.setString(2, operation.getPlayerUUID());
-                        pstmt.setString(3, (String) params[0]); // 職業タイプ
-                        pstmt.addBatch();
-                    }
-                }
-                
-                int[] results = pstmt.executeBatch();
-                conn.commit();
-                
-                logger.fine(String.format("バッチ経験値更新完了: %d操作", results.length));
-            }
+    private void retry(BatchOperation operation) {
+        if (operation.incrementAttempts() > maxRetries) {
+            droppedOperations.incrementAndGet();
+            logger.severe("再試行上限に達したため操作を破棄しました: " + operation.getType() + " " + operation.getPlayerUUID());
+            complete(operation, false);
+            return;
+        }
+
+        int result = pendingOperations.get(operation.getType()).requeue(operation, maxQueueSize);
+        if (result == PendingOperations.REJECTED) {
+            droppedOperations.incrementAndGet();
+            logger.severe("キューが満杯のため再試行できず操作を破棄しました: " + operation.getType() + " " + operation.getPlayerUUID());
+            complete(operation, false);
+        } else if (result == PendingOperations.SUPERSEDED) {
+            complete(operation, true);
+        } else {
+            retriedOperations.incrementAndGet();
         }
     }
-    
+
     /**
-     * バッチ取引履歴記録の実行
+     * 操作の書き込み結果を通知する
      */
-    private void executeBatchTradeHistory(List<BatchOperation> operations) throws SQLException {
-        try (Connection conn = databaseManager.getConnection()) {
-            conn.setAutoCommit(false);
-            
-            String insertQuery = "INSERT INTO player_trade_history " +
-                                 "(player_uuid, item_type, quantity, unit_price, total_amount, job_type, job_level, price_bonus) " +
-                                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
-                
-                for (BatchOperation operation : operations) {
-                    Object[] params = operation.getParameters();
-                    if (params.length >= 7) {
-                        pstmt.setString(1, operation.getPlayerUUID());
-                        pstmt.setString(2, (String) params[0]);   // item_type
-                        pstmt.setInt(3, (Integer) params[1]);     // quantity
-                        pstmt.setDouble(4, (Double) params[2]);   // unit_price
-                        pstmt.setDouble(5, (Double) params[3]);   // total_amount
-                        pstmt.setString(6, (String) params[4]);   // job_type
-                        pstmt.setInt(7, (Integer) params[5]);     // job_level
-                        pstmt.setDouble(8, (Double) params[6]);   // price_bonus
-                        pstmt.addBatch();
-                    }
-                }
-                
-                int[] results = pstmt.executeBatch();
-                conn.commit();
-                
-                logger.fine(String.format("バッチ取引履歴記録完了: %d操作", results.length));
+    private void complete(BatchOperation operation, boolean written) {
+        pendingOperations.get(operation.getType()).forget(operation);
+        for (WriteListener listener : operation.listeners) {
+            try {
+                listener.onComplete(written);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "書き込み結果の通知中にエラーが発生しました: " + operation.getType(), e);
             }
         }
     }
-    
+
+    private void recordQueueLatency(List<BatchOperation> operations) {
+        long now = System.nanoTime();
+        long total = 0L;
+        for (BatchOperation operation : operations) {
+            total += now - operation.queuedAt;
+        }
+        queueLatencyNanos.addAndGet(total);
+        queueLatencySamples.addAndGet(operations.size());
+    }
+
     /**
-     * バッチパフォーマンス統計記録の実行
+     * キューでの平均待ち時間（ミリ秒、未計測の場合は0）
      */
-    private void executeBatchPerformanceStats(List<BatchOperation> operations) throws SQLException {
-        try (Connection conn = databaseManager.getConnection()) {
-            conn.setAutoCommit(false);
-            
-            String insertQuery = "INSERT INTO performance_stats (stat_type, stat_value) VALUES (?, ?)";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(insertQuery)) {
-                
-                for (BatchOperation operation : operations) {
-                    Object[] params = operation.getParameters();
-                    if (params.length >= 2) {
-                        pstmt.setString(1, (String) params[0]);   // stat_type
-                        pstmt.setDouble(2, (Double) params[1]);   // stat_value
-                        pstmt.addBatch();
-                    }
-                }
-                
-                int[] results = pstmt.executeBatch();
-                conn.commit();
-                
-                logger.fine(String.format("バッチ統計記録完了: %d操作", results.length));
-            }
-        }
+    public double getAverageQueueLatencyMillis() {
+        long samples = queueLatencySamples.get();
+        return samples == 0 ? 0.0 : queueLatencyNanos.get() / (samples * 1_000_000.0);
     }
-    
+
     /**
-     * 即座に操作を実行（バッチ処理無効時またはキューフル時）
+     * 保留キューを統計の登録簿へ登録する
      */
-    private void executeImmediately(BatchOperationType type, String playerUUID, Object... parameters) {
-        List<BatchOperation> singleOperation = Arrays.asList(new BatchOperation(playerUUID, parameters));
-        executeBatch(type, singleOperation);
+    public void registerStats(StatsRegistry registry) {
+        registry.register("batch.pending_operations", () -> {
+            int queued = getStatistics().getCurrentQueuedOperations();
+            return StatsRegistry.Stats.queue(queued, queued * PENDING_OPERATION_BYTES, getAverageQueueLatencyMillis());
+        });
     }
-    
+
     /**
      * 統計情報の取得
      */
     public BatchStatistics getStatistics() {
         // 各キューのサイズを取得
-        int totalQueuedOperations = batchQueues.values().stream()
-            .mapToInt(Queue::size)
+        int totalQueuedOperations = pendingOperations.values().stream()
+            .mapToInt(PendingOperations::size)
             .sum();
-        
+
         return new BatchStatistics(
             totalBatchesProcessed.get(),
             totalOperationsProcessed.get(),
             totalQueuedOperations,
             failedBatches.get(),
-            totalBatchesProcessed.get() == 0 ? 0.0 : (double) totalBatchTime.get() / totalBatchesProcessed.get()
+            totalBatchesProcessed.get() == 0 ? 0.0 : (double) totalBatchTime.get() / totalBatchesProcessed.get(),
+            coalescedOperations.get(),
+            rejectedOperations.get(),
+            retriedOperations.get(),
+            droppedOperations.get()
         );
     }
-    
+
     /**
      * 設定の再読み込み
      */
@@ -362,108 +421,304 @@ public class OptimizedBatchProcessor {
         loadConfiguration();
         logger.info("バッチ処理設定を再読み込みしました。");
     }
-    
+
     /**
      * 未処理の操作を強制処理してシャットダウン
      */
     public void shutdown() {
         logger.info("バッチ処理システムをシャットダウン中...");
-        
-        // 全ての未処理操作をフラッシュ
-        for (BatchOperationType type : BatchOperationType.values()) {
-            processBatch(type);
-        }
-        
-        // スレッドプールのシャットダウン
+
+        // 定期処理を止めてから全ての未処理操作をフラッシュ
         batchScheduler.shutdown();
-        batchExecutor.shutdown();
-        
         try {
             if (!batchScheduler.awaitTermination(10, TimeUnit.SECONDS)) {
                 batchScheduler.shutdownNow();
             }
+        } catch (InterruptedException e) {
+            batchScheduler.shutdownNow();
+        }
+
+        // 再試行で戻された操作も書き込めるよう、保留がなくなるまで繰り返す
+        try {
+            for (int round = 0; round <= maxRetries; round++) {
+                flush().get(10, TimeUnit.SECONDS);
+                if (getStatistics().getCurrentQueuedOperations() == 0) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.log(Level.WARNING, "シャットダウン時の書き出しが完了しませんでした", e);
+        }
+
+        batchExecutor.shutdown();
+        try {
             if (!batchExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
                 batchExecutor.shutdownNow();
             }
         } catch (InterruptedException e) {
-            batchScheduler.shutdownNow();
             batchExecutor.shutdownNow();
         }
-        
+
         // 最終統計を出力
         BatchStatistics finalStats = getStatistics();
-        logger.info(String.format("バッチ処理最終統計: 処理済みバッチ%d, 総操作%d, 失敗%d, 平均時間%.2fms",
+        logger.info(String.format("バッチ処理最終統計: 処理済みバッチ%d, 総操作%d, 集約%d, 失敗%d, 破棄%d, 平均時間%.2fms",
                 finalStats.getTotalBatchesProcessed(),
                 finalStats.getTotalOperationsProcessed(),
+                finalStats.getCoalescedOperations(),
                 finalStats.getFailedBatches(),
+                finalStats.getDroppedOperations(),
                 finalStats.getAverageBatchTime()));
     }
-    
+
     // ========== 内部クラス ==========
-    
+
+    /**
+     * 書き込み結果の通知先
+     */
+    @FunctionalInterface
+    public interface WriteListener {
+        /**
+         * @param written 書き込みが確定した、または同じ行の新しい値に置き換えられた場合はtrue。
+         *                再試行できずに破棄された場合はfalse
+         */
+        void onComplete(boolean written);
+    }
+
     /**
      * バッチ操作の種類
      */
     public enum BatchOperationType {
-        BALANCE_UPDATE,      // 残高更新
-        EXPERIENCE_UPDATE,   // 経験値更新
-        TRADE_HISTORY,      // 取引履歴
-        PERFORMANCE_STATS   // パフォーマンス統計
+        // プレイヤー状態（残高の確定値）
+        PLAYER_STATE("UPDATE players SET balance = ?, bank_balance = ?, updated_at = ? WHERE uuid = ?"),
+        // 職業状態（レベル・経験値の確定値）
+        PLAYER_JOB_STATE("UPDATE player_jobs SET level = ?, experience = ?, updated_at = ? WHERE uuid = ? AND job_id = ?");
+
+        private final String sql;
+
+        BatchOperationType(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
     }
-    
+
     /**
      * バッチ操作データ
      */
-    private static class BatchOperation {
+    private abstract static class BatchOperation {
         private final String playerUUID;
-        private final Object[] parameters;
-        
-        public BatchOperation(String playerUUID, Object[] parameters) {
+        private int attempts;
+        // キューに積まれた時刻（System.nanoTime）
+        private long queuedAt = System.nanoTime();
+        // 同じ操作タイプ内での受付順（古い確定値の再試行が新しい値を上書きしないよう比較する）
+        private long sequence;
+        // 書き込み結果の通知先（まとめられた操作の通知先も引き継ぐ）
+        private final List<WriteListener> listeners = new ArrayList<>(1);
+
+        protected BatchOperation(String playerUUID) {
             this.playerUUID = playerUUID;
-            this.parameters = parameters != null ? parameters : new Object[0];
         }
-        
+
         public String getPlayerUUID() { return playerUUID; }
-        public Object[] getParameters() { return parameters; }
+
+        int incrementAttempts() { return ++attempts; }
+
+        BatchOperation addListener(WriteListener listener) {
+            if (listener != null) {
+                listeners.add(listener);
+            }
+            return this;
+        }
+
+        /**
+         * まとめた結果の操作に、まとめ元のうち早い方の投入時刻と通知先を引き継ぐ
+         */
+        BatchOperation inherit(BatchOperation other) {
+            queuedAt = Math.min(queuedAt, other.queuedAt);
+            sequence = Math.max(sequence, other.sequence);
+            if (other != this) {
+                listeners.addAll(other.listeners);
+            }
+            return this;
+        }
+
+        abstract BatchOperationType getType();
+
+        /**
+         * まとめ用のキー（同じキーの操作は最新の値1つにまとめられる）
+         */
+        abstract Object getCoalesceKey();
+
+        abstract void bind(PreparedStatement pstmt, Timestamp now) throws SQLException;
+    }
+
+    private static final class PlayerStateUpdate extends BatchOperation {
+        private final double balance;
+        private final double bankBalance;
+
+        PlayerStateUpdate(String playerUUID, double balance, double bankBalance) {
+            super(playerUUID);
+            this.balance = balance;
+            this.bankBalance = bankBalance;
+        }
+
+        @Override BatchOperationType getType() { return BatchOperationType.PLAYER_STATE; }
+
+        @Override Object getCoalesceKey() { return getPlayerUUID(); }
+
+        @Override
+        void bind(PreparedStatement pstmt, Timestamp now) throws SQLException {
+            pstmt.setDouble(1, balance);
+            pstmt.setDouble(2, bankBalance);
+            pstmt.setTimestamp(3, now);
+            pstmt.setString(4, getPlayerUUID());
+        }
+    }
+
+    private static final class PlayerJobStateUpdate extends BatchOperation {
+        private final int jobId;
+        private final int level;
+        private final double experience;
+
+        PlayerJobStateUpdate(String playerUUID, int jobId, int level, double experience) {
+            super(playerUUID);
+            this.jobId = jobId;
+            this.level = level;
+            this.experience = experience;
+        }
+
+        @Override BatchOperationType getType() { return BatchOperationType.PLAYER_JOB_STATE; }
+
+        @Override Object getCoalesceKey() { return coalesceKey(getPlayerUUID(), jobId); }
+
+        static String coalesceKey(String playerUUID, int jobId) {
+            return keyPrefix(playerUUID) + jobId;
+        }
+
+        static String keyPrefix(String playerUUID) {
+            return playerUUID + ":";
+        }
+
+        @Override
+        void bind(PreparedStatement pstmt, Timestamp now) throws SQLException {
+            pstmt.setInt(1, level);
+            pstmt.setDouble(2, experience);
+            pstmt.setTimestamp(3, now);
+            pstmt.setString(4, getPlayerUUID());
+            pstmt.setInt(5, jobId);
+        }
     }
-    
+
     /**
-     * オブジェクトプール実装
+     * 1操作タイプ分の保留キュー（まとめ用キーの挿入順を保持）
      */
-    private static class ObjectPool<T> {
-        private final Queue<T> pool;
-        private final java.util.function.Supplier<T> factory;
-        private final int maxSize;
-        
-        public ObjectPool(java.util.function.Supplier<T> factory, int maxSize) {
-            this.factory = factory;
-            this.maxSize = maxSize;
-            this.pool = new ConcurrentLinkedQueue<>();
-            
-            // 初期オブジェクトを生成
-            for (int i = 0; i < Math.min(10, maxSize); i++) {
-                pool.offer(factory.get());
+    private static final class PendingOperations {
+        static final int ADDED = 0;
+        static final int MERGED = 1;
+        static final int REJECTED = 2;
+        static final int SUPERSEDED = 3;
+
+        private final LinkedHashMap<Object, BatchOperation> operations = new LinkedHashMap<>();
+        // キーごとの最新の受付順（書き込みが終わるまで保持する）
+        private final Map<Object, Long> latestSequences = new HashMap<>();
+        private long nextSequence;
+
+        synchronized int offer(BatchOperation operation, int capacity) {
+            Object key = operation.getCoalesceKey();
+            BatchOperation existing = operations.get(key);
+            if (existing == null && operations.size() >= capacity) {
+                return REJECTED;
             }
+            track(operation);
+            if (existing != null) {
+                operations.put(key, operation.inherit(existing));
+                return MERGED;
+            }
+            operations.put(key, operation);
+            return ADDED;
+        }
+
+        /**
+         * 受付順を振り、キーごとの最新として記録する
+         */
+        synchronized void track(BatchOperation operation) {
+            operation.sequence = ++nextSequence;
+            latestSequences.put(operation.getCoalesceKey(), operation.sequence);
         }
-        
-        public T borrow() {
-            T object = pool.poll();
-            return object != null ? object : factory.get();
-        }
-        
-        public void returnObject(T object) {
-            if (pool.size() < maxSize) {
-                // オブジェクトのリセット
-                if (object instanceof StringBuilder) {
-                    ((StringBuilder) object).setLength(0);
-                } else if (object instanceof Map) {
-                    ((Map<?, ?>) object).clear();
+
+        /**
+         * 書き込みが終わった（または破棄した）操作が最新だった場合は記録を外す
+         */
+        synchronized void forget(BatchOperation operation) {
+            latestSequences.remove(operation.getCoalesceKey(), operation.sequence);
+        }
+
+        /**
+         * 失敗した操作を戻す。既に積まれている同じキーの操作の方が新しい
+         * より新しい値を受け付けている場合は戻さない（古い値で上書きしないため）
+         */
+        synchronized int requeue(BatchOperation failed, int capacity) {
+            Object key = failed.getCoalesceKey();
+            Long latest = latestSequences.get(key);
+            if (latest != null && latest > failed.sequence) {
+                return SUPERSEDED;
+            }
+            BatchOperation newer = operations.get(key);
+            if (newer != null) {
+                operations.put(key, newer.inherit(failed));
+                return MERGED;
+            }
+            if (operations.size() >= capacity) {
+                return REJECTED;
+            }
+            operations.put(key, failed);
+            return ADDED;
+        }
+
+        /**
+         * 条件に合うキーの積まれている操作を取り除く
+         * 書き込み中の同じキーの操作が失敗しても戻されないよう、キーごとの最新の受付順を進める
+         */
+        synchronized List<BatchOperation> discard(Predicate<Object> matcher) {
+            List<BatchOperation> discarded = new ArrayList<>();
+            Iterator<Map.Entry<Object, BatchOperation>> iterator = operations.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Object, BatchOperation> entry = iterator.next();
+                if (matcher.test(entry.getKey())) {
+                    discarded.add(entry.getValue());
+                    iterator.remove();
+                }
+            }
+            for (Map.Entry<Object, Long> entry : latestSequences.entrySet()) {
+                if (matcher.test(entry.getKey())) {
+                    entry.setValue(++nextSequence);
                 }
-                pool.offer(object);
             }
+            return discarded;
+        }
+
+        synchronized List<BatchOperation> drain(int max) {
+            if (operations.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<BatchOperation> drained = new ArrayList<>(Math.min(max, operations.size()));
+            Iterator<BatchOperation> iterator = operations.values().iterator();
+            while (iterator.hasNext() && drained.size() < max) {
+                drained.add(iterator.next());
+                iterator.remove();
+            }
+            return drained;
+        }
+
+        synchronized int size() {
+            return operations.size();
         }
     }
-    
+
     /**
      * バッチ処理統計情報
      */
@@ -473,29 +728,51 @@ public class OptimizedBatchProcessor {
         private final int currentQueuedOperations;
         private final int failedBatches;
         private final double averageBatchTime;
-        
+        private final long coalescedOperations;
+        private final long rejectedOperations;
+        private final long retriedOperations;
+        private final long droppedOperations;
+
         public BatchStatistics(int totalBatchesProcessed, int totalOperationsProcessed,
-                             int currentQueuedOperations, int failedBatches, double averageBatchTime) {
+                             int currentQueuedOperations, int failedBatches, double averageBatchTime,
+                             long coalescedOperations, long rejectedOperations,
+                             long retriedOperations, long droppedOperations) {
             this.totalBatchesProcessed = totalBatchesProcessed;
             this.totalOperationsProcessed = totalOperationsProcessed;
             this.currentQueuedOperations = currentQueuedOperations;
             this.failedBatches = failedBatches;
             this.averageBatchTime = averageBatchTime;
+            this.coalescedOperations = coalescedOperations;
+            this.rejectedOperations = rejectedOperations;
+            this.retriedOperations = retriedOperations;
+            this.droppedOperations = droppedOperations;
         }
-        
+
         public double getBatchSuccessRate() {
             return totalBatchesProcessed == 0 ? 1.0 : 1.0 - ((double) failedBatches / totalBatchesProcessed);
         }
-        
+
         public double getAverageOperationsPerBatch() {
             return totalBatchesProcessed == 0 ? 0.0 : (double) totalOperationsProcessed / totalBatchesProcessed;
         }
-        
+
+        /**
+         * 書き込み削減率（受け付けた操作のうち、まとめられて書き込みが不要になった割合）
+         */
+        public double getCoalesceRate() {
+            long accepted = totalOperationsProcessed + coalescedOperations;
+            return accepted == 0 ? 0.0 : (double) coalescedOperations / accepted;
+        }
+
         // Getters
         public int getTotalBatchesProcessed() { return totalBatchesProcessed; }
         public int getTotalOperationsProcessed() { return totalOperationsProcessed; }
         public int getCurrentQueuedOperations() { return currentQueuedOperations; }
         public int getFailedBatches() { return failedBatches; }
         public double getAverageBatchTime() { return averageBatchTime; }
+        public long getCoalescedOperations() { return coalescedOperations; }
+        public long getRejectedOperations() { return rejectedOperations; }
+        public long getRetriedOperations() { return retriedOperations; }
+        public long getDroppedOperations() { return droppedOperations; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,175 @@
+package org.tofu.tofunomics.blocks;
+
+import java.util.Arrays;
+
+/**
+ * longをボクシングせずに保持するハッシュ集合（オープンアドレス法・線形探索）
+ * 0を空きスロットの印に使うため、0は別のフラグで保持する
+ */
+public class LongHashSet {
+
+    private static final int MIN_CAPACITY = 8;
+    // 使用率がこれを超えたら倍に広げる
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private int size;
+    private boolean containsZero;
+    private int resizeThreshold;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(1, expectedSize) / LOAD_FACTOR);
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * @return 追加した場合true（既に含まれていた場合false）
+     */
+    public boolean add(long value) {
+        if (value == 0L) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != 0L) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0L) {
+            return containsZero;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        long slot;
+        while ((slot = slots[index]) != 0L) {
+            if (slot == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return 削除した場合true
+     */
+    public boolean remove(long value) {
+        if (value == 0L) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != value) {
+            if (slots[index] == 0L) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = 0L;
+        size--;
+        // 後続の要素を詰め直し、探索が途中の空きで止まらないようにする
+        int next = (index + 1) & mask;
+        while (slots[next] != 0L) {
+            long moved = slots[next];
+            slots[next] = 0L;
+            reinsert(moved);
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    private void reinsert(long value) {
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != 0L) {
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+    }
+
+    private void rehash(int capacity) {
+        long[] previous = slots;
+        allocate(capacity);
+        for (long value : previous) {
+            if (value != 0L) {
+                reinsert(value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return 全要素のコピー（順序は不定）
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int count = 0;
+        if (containsZero) {
+            values[count++] = 0L;
+        }
+        for (long value : slots) {
+            if (value != 0L) {
+                values[count++] = value;
+            }
+        }
+        return values;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0L);
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * @return 推定使用メモリ（バイト）
+     */
+    public long estimateBytes() {
+        return 32L + 16L + slots.length * 8L;
+    }
+}
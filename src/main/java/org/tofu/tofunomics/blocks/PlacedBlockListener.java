@@ -0,0 +1,279 @@
+package org.tofu.tofunomics.blocks;
+
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.entity.FallingBlock;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.tofu.tofunomics.config.ConfigManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * プレイヤーが設置したブロックを {@link PlacedBlockTracker} に記録するリスナー
+ * 報酬の判定（優先度HIGH）の後で記録を外すため、破壊はMONITORで処理する
+ */
+public class PlacedBlockListener implements Listener {
+
+    private final JavaPlugin plugin;
+    private final ExecutorService ioExecutor;
+    private final PlacedBlockTracker tracker;
+    // 設置したブロックが落下中であることを落下ブロックのエンティティに記録するキー
+    private final NamespacedKey fallingPlacedKey;
+    private BukkitTask saveTask;
+
+    public PlacedBlockListener(JavaPlugin plugin, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.fallingPlacedKey = new NamespacedKey(plugin, "placed_block");
+        // 同じ領域ファイルの読み書きの順序を保つため単一スレッドで実行する
+        this.ioExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "TofuNomics-PlacedBlocks");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.tracker = new PlacedBlockTracker(
+            new File(plugin.getDataFolder(), "placed_blocks"),
+            configManager.getPlacedBlocksMaxPerChunk(),
+            ioExecutor,
+            task -> {
+                // 停止後に読み込みが終わった領域は反映しない
+                if (plugin.isEnabled()) {
+                    plugin.getServer().getScheduler().runTask(plugin, task);
+                }
+            },
+            plugin.getLogger()
+        );
+    }
+
+    /**
+     * 読み込み済みのチャンクを登録し、定期保存を開始する
+     * @param saveInterval 保存間隔（tick）
+     */
+    public void start(long saveInterval) {
+        for (World world : plugin.getServer().getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                tracker.onChunkLoad(world.getName(), chunk.getX(), chunk.getZ());
+            }
+        }
+        if (saveInterval > 0) {
+            saveTask = plugin.getServer().getScheduler().runTaskTimer(plugin, tracker::saveDirty,
+                saveInterval, saveInterval);
+        }
+    }
+
+    public PlacedBlockTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * プレイヤーが設置したブロックか
+     */
+    public boolean isPlaced(Block block) {
+        return tracker.isPlaced(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+    }
+
+    // ========== チャンク ==========
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        tracker.onChunkLoad(event.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        tracker.onChunkUnload(event.getWorld().getName(), chunk.getX(), chunk.getZ());
+    }
+
+    // ========== 設置・破壊 ==========
+
+    /**
+     * 設置したブロックを記録する（植えた作物は成長後の収穫で報酬を得られるよう記録しない）
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        Block block = event.getBlockPlaced();
+        if (block.getBlockData() instanceof Ageable) {
+            return;
+        }
+        mark(block);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        unmark(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            unmark(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            unmark(block);
+        }
+    }
+
+    // ========== プレイヤー以外による変化 ==========
+    // 燃える・溶ける・流される・腐るなどで消えた位置に記録が残らないよう外す
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        unmark(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        unmark(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLeavesDecay(LeavesDecayEvent event) {
+        unmark(event.getBlock());
+    }
+
+    /**
+     * 液体に流されたブロックの記録を外す（ドラゴンの卵のテレポートは記録を移動先へ移す）
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        Block from = event.getBlock();
+        Block to = event.getToBlock();
+        if (from.getType() == Material.DRAGON_EGG) {
+            if (isPlaced(from)) {
+                unmark(from);
+                mark(to);
+            }
+            return;
+        }
+        unmark(to);
+    }
+
+    /**
+     * 苗木・キノコなどから育った構造物は自然のブロックとして扱う（苗木の位置も原木になるため記録を外す）
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onStructureGrow(StructureGrowEvent event) {
+        unmark(event.getLocation().getBlock());
+        for (BlockState state : event.getBlocks()) {
+            unmark(state.getBlock());
+        }
+    }
+
+    /**
+     * エンティティによる変化（エンダーマン・ラヴェジャー・ウィザーなど）で消えたブロックの記録を外す
+     * 設置した砂・砂利などが落下した場合は落下ブロックに記録を移し、着地した位置を記録する
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        Block block = event.getBlock();
+        if (!(event.getEntity() instanceof FallingBlock)) {
+            unmark(block);
+            return;
+        }
+        FallingBlock fallingBlock = (FallingBlock) event.getEntity();
+        if (event.getTo() == Material.AIR) {
+            // 落下の開始
+            if (isPlaced(block)) {
+                unmark(block);
+                fallingBlock.getPersistentDataContainer().set(fallingPlacedKey, PersistentDataType.BYTE, (byte) 1);
+            }
+            return;
+        }
+        // 着地
+        if (fallingBlock.getPersistentDataContainer().has(fallingPlacedKey, PersistentDataType.BYTE)) {
+            mark(block);
+        } else {
+            unmark(block);
+        }
+    }
+
+    // ========== ピストン ==========
+    // 設置したブロックをピストンで動かして記録を外れないよう、記録を移動先へ移す
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        movePlaced(event.getBlocks(), event.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        movePlaced(event.getBlocks(), event.getDirection());
+    }
+
+    private void movePlaced(List<Block> blocks, BlockFace direction) {
+        // 移動元をすべて外してから移動先を記録する（隣り合うブロックの記録を上書きしないため）
+        List<Block> moved = new ArrayList<>();
+        for (Block block : blocks) {
+            if (isPlaced(block)) {
+                unmark(block);
+                moved.add(block);
+            }
+        }
+        for (Block block : moved) {
+            mark(block.getRelative(direction));
+        }
+    }
+
+    private void mark(Block block) {
+        tracker.markPlaced(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+    }
+
+    private void unmark(Block block) {
+        tracker.unmark(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+    }
+
+    // ========== 停止 ==========
+
+    /**
+     * 書き込み待ちの保存を終えてから、すべての領域を保存する
+     */
+    public void shutdown() {
+        if (saveTask != null) {
+            saveTask.cancel();
+        }
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+        }
+        tracker.saveAll();
+    }
+}
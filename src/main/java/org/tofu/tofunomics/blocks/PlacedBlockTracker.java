@@ -0,0 +1,496 @@
+package org.tofu.tofunomics.blocks;
+
+import org.tofu.tofunomics.performance.StatsRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+/**
+ * プレイヤーが設置したブロックの座標を記録し、破壊時に報酬を与えるかの判定に使う
+ * 座標はチャンクごとのlongのハッシュ集合に保持し、32x32チャンクの領域単位で読み込み・保存する。
+ * 領域はその中のチャンクが1つでも読み込まれている間だけメモリに置くため、
+ * 記録の総数が多くても使用メモリは読み込まれているチャンクの分に限られる
+ *
+ * 記録・判定・チャンクの読み込み通知はメインスレッドから呼ぶ。
+ * ファイルの読み書きは順序を保つ単一スレッドの ioExecutor で行い、読み込み結果は mainThread で反映する
+ */
+public class PlacedBlockTracker {
+
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_CHUNKS = 1 << REGION_SHIFT;
+    private static final int FILE_MAGIC = 0x54504231; // "TPB1"
+
+    /**
+     * 1つの領域（32x32チャンク）の記録
+     */
+    private static final class Region {
+        private final String world;
+        private final int regionX;
+        private final int regionZ;
+        // 領域内のチャンク番号（z * 32 + x）を添字とする記録（記録のないチャンクはnull）
+        private final LongHashSet[] chunks = new LongHashSet[REGION_CHUNKS * REGION_CHUNKS];
+        // 読み込まれているチャンク数（0になったら保存してメモリから外す）
+        private int loadedChunks;
+        // ファイルの読み込み中（読み込み中に壊されたブロックは読み込み結果から除く）
+        private boolean loading = true;
+        private LongHashSet removedWhileLoading;
+        private boolean dirty;
+
+        private Region(String world, int regionX, int regionZ) {
+            this.world = world;
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+        }
+
+        private long regionKey() {
+            return packXZ(regionX, regionZ);
+        }
+    }
+
+    private final File directory;
+    private final int maxBlocksPerChunk;
+    private final Executor ioExecutor;
+    private final Executor mainThread;
+    private final Logger logger;
+    // ワールド名 → 領域座標 → 領域
+    private final Map<String, Map<Long, Region>> regions = new HashMap<>();
+    // 直前に参照した領域（連続した破壊・設置はほとんど同じ領域で起きる）
+    private Region lastRegion;
+    private long skippedPlacements;
+
+    /**
+     * @param directory 領域ファイルの保存先（ワールドごとのフォルダを作る）
+     * @param maxBlocksPerChunk 1チャンクで記録する上限（超えた設置は記録しない）
+     */
+    public PlacedBlockTracker(File directory, int maxBlocksPerChunk, Executor ioExecutor, Executor mainThread,
+                              Logger logger) {
+        this.directory = directory;
+        this.maxBlocksPerChunk = Math.max(1, maxBlocksPerChunk);
+        this.ioExecutor = ioExecutor;
+        this.mainThread = mainThread;
+        this.logger = logger;
+    }
+
+    // ========== 座標の変換 ==========
+
+    /**
+     * ブロック座標を1つのlongにまとめる（x・zは26ビット、yは12ビット）
+     */
+    public static long packBlock(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private static long packXZ(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static int chunkIndex(int chunkX, int chunkZ) {
+        return ((chunkZ & (REGION_CHUNKS - 1)) << REGION_SHIFT) | (chunkX & (REGION_CHUNKS - 1));
+    }
+
+    // ========== チャンクの読み込み・解放 ==========
+
+    /**
+     * チャンクの読み込みを通知する（領域が未読み込みならファイルを非同期で読む）
+     */
+    public void onChunkLoad(String world, int chunkX, int chunkZ) {
+        int regionX = chunkX >> REGION_SHIFT;
+        int regionZ = chunkZ >> REGION_SHIFT;
+        Map<Long, Region> worldRegions = regions.computeIfAbsent(world, key -> new HashMap<>());
+        Region region = worldRegions.get(packXZ(regionX, regionZ));
+        if (region == null) {
+            region = new Region(world, regionX, regionZ);
+            worldRegions.put(region.regionKey(), region);
+            Region loadingRegion = region;
+            File file = regionFile(world, regionX, regionZ);
+            ioExecutor.execute(() -> {
+                long[][] data;
+                try {
+                    data = readRegion(file, loadingRegion.regionX, loadingRegion.regionZ);
+                } catch (IOException e) {
+                    logger.warning("設置ブロックの記録の読み込みに失敗しました: " + file.getName() + " - " + e.getMessage());
+                    data = new long[0][];
+                }
+                long[][] loaded = data;
+                mainThread.execute(() -> completeLoad(loadingRegion, loaded));
+            });
+        }
+        region.loadedChunks++;
+    }
+
+    /**
+     * チャンクの解放を通知する（領域内のチャンクがすべて解放されたら保存してメモリから外す）
+     */
+    public void onChunkUnload(String world, int chunkX, int chunkZ) {
+        Region region = findRegion(world, chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        if (region == null || region.loadedChunks <= 0) {
+            return;
+        }
+        region.loadedChunks--;
+        // 読み込み中の領域は、読み込み結果を反映した後で外す
+        if (region.loadedChunks == 0 && !region.loading) {
+            evict(region);
+        }
+    }
+
+    private void completeLoad(Region region, long[][] data) {
+        for (int index = 0; index < data.length; index++) {
+            long[] blocks = data[index];
+            if (blocks == null) {
+                continue;
+            }
+            for (long block : blocks) {
+                if (region.removedWhileLoading != null && region.removedWhileLoading.contains(block)) {
+                    continue;
+                }
+                addToChunk(region, index, block);
+            }
+        }
+        region.loading = false;
+        region.removedWhileLoading = null;
+        if (region.loadedChunks == 0) {
+            evict(region);
+        }
+    }
+
+    private void evict(Region region) {
+        Map<Long, Region> worldRegions = regions.get(region.world);
+        if (worldRegions != null) {
+            worldRegions.remove(region.regionKey());
+            if (worldRegions.isEmpty()) {
+                regions.remove(region.world);
+            }
+        }
+        if (lastRegion == region) {
+            lastRegion = null;
+        }
+        if (region.dirty) {
+            scheduleWrite(region);
+        }
+    }
+
+    // ========== 記録・判定 ==========
+
+    /**
+     * プレイヤーが設置したブロックを記録する
+     */
+    public void markPlaced(String world, int x, int y, int z) {
+        Region region = findRegion(world, x >> 4 >> REGION_SHIFT, z >> 4 >> REGION_SHIFT);
+        if (region == null) {
+            return;
+        }
+        long block = packBlock(x, y, z);
+        if (addToChunk(region, chunkIndex(x >> 4, z >> 4), block)) {
+            region.dirty = true;
+            if (region.removedWhileLoading != null) {
+                region.removedWhileLoading.remove(block);
+            }
+        }
+    }
+
+    private boolean addToChunk(Region region, int index, long block) {
+        LongHashSet blocks = region.chunks[index];
+        if (blocks == null) {
+            blocks = new LongHashSet();
+            region.chunks[index] = blocks;
+        }
+        if (blocks.size() >= maxBlocksPerChunk && !blocks.contains(block)) {
+            skippedPlacements++;
+            return false;
+        }
+        return blocks.add(block);
+    }
+
+    /**
+     * ブロックの記録を外す（破壊・爆発・ピストンでの移動時）
+     */
+    public void unmark(String world, int x, int y, int z) {
+        Region region = findRegion(world, x >> 4 >> REGION_SHIFT, z >> 4 >> REGION_SHIFT);
+        if (region == null) {
+            return;
+        }
+        long block = packBlock(x, y, z);
+        int index = chunkIndex(x >> 4, z >> 4);
+        LongHashSet blocks = region.chunks[index];
+        if (blocks != null && blocks.remove(block)) {
+            region.dirty = true;
+            if (blocks.isEmpty()) {
+                region.chunks[index] = null;
+            }
+        }
+        if (region.loading) {
+            if (region.removedWhileLoading == null) {
+                region.removedWhileLoading = new LongHashSet();
+            }
+            region.removedWhileLoading.add(block);
+            region.dirty = true;
+        }
+    }
+
+    /**
+     * プレイヤーが設置したブロックか（読み込まれていないチャンクはfalse）
+     * 領域のファイルを読み込み中は記録が揃っていないため、読み込み中に壊したことが分かっている位置以外はtrueを返す
+     * （読み込みが終わるまでの間に設置済みのブロックを壊して報酬を得られないようにするため）
+     */
+    public boolean isPlaced(String world, int x, int y, int z) {
+        Region region = findRegion(world, x >> 4 >> REGION_SHIFT, z >> 4 >> REGION_SHIFT);
+        if (region == null) {
+            return false;
+        }
+        long block = packBlock(x, y, z);
+        LongHashSet blocks = region.chunks[chunkIndex(x >> 4, z >> 4)];
+        if (blocks != null && blocks.contains(block)) {
+            return true;
+        }
+        return region.loading && (region.removedWhileLoading == null || !region.removedWhileLoading.contains(block));
+    }
+
+    private Region findRegion(String world, int regionX, int regionZ) {
+        Region cached = lastRegion;
+        if (cached != null && cached.regionX == regionX && cached.regionZ == regionZ && cached.world.equals(world)) {
+            return cached;
+        }
+        Map<Long, Region> worldRegions = regions.get(world);
+        if (worldRegions == null) {
+            return null;
+        }
+        Region region = worldRegions.get(packXZ(regionX, regionZ));
+        if (region != null) {
+            lastRegion = region;
+        }
+        return region;
+    }
+
+    // ========== 保存 ==========
+
+    /**
+     * 変更のある領域を非同期で保存する（定期的に呼ぶ）
+     */
+    public void saveDirty() {
+        for (Map<Long, Region> worldRegions : regions.values()) {
+            for (Region region : worldRegions.values()) {
+                if (region.dirty && !region.loading) {
+                    scheduleWrite(region);
+                }
+            }
+        }
+    }
+
+    /**
+     * 変更のある領域をこのスレッドで保存し、すべての領域をメモリから外す（停止時、ioExecutorの停止後に呼ぶ）
+     * 読み込みが終わっていない領域は、ファイルの内容を失わないよう保存しない
+     */
+    public void saveAll() {
+        for (Map<Long, Region> worldRegions : regions.values()) {
+            for (Region region : worldRegions.values()) {
+                if (region.dirty && !region.loading) {
+                    File file = regionFile(region.world, region.regionX, region.regionZ);
+                    try {
+                        writeRegion(file, snapshot(region));
+                    } catch (IOException e) {
+                        logger.warning("設置ブロックの記録の保存に失敗しました: " + file.getName() + " - " + e.getMessage());
+                    }
+                }
+            }
+        }
+        regions.clear();
+        lastRegion = null;
+    }
+
+    private void scheduleWrite(Region region) {
+        long[][] data = snapshot(region);
+        region.dirty = false;
+        File file = regionFile(region.world, region.regionX, region.regionZ);
+        ioExecutor.execute(() -> {
+            try {
+                writeRegion(file, data);
+            } catch (IOException e) {
+                logger.warning("設置ブロックの記録の保存に失敗しました: " + file.getName() + " - " + e.getMessage());
+            }
+        });
+    }
+
+    private static long[][] snapshot(Region region) {
+        long[][] data = new long[region.chunks.length][];
+        for (int index = 0; index < data.length; index++) {
+            LongHashSet blocks = region.chunks[index];
+            if (blocks != null && !blocks.isEmpty()) {
+                data[index] = blocks.toArray();
+            }
+        }
+        return data;
+    }
+
+    File regionFile(String world, int regionX, int regionZ) {
+        return new File(new File(directory, world), "r." + regionX + "." + regionZ + ".bin");
+    }
+
+    // ========== ファイル形式 ==========
+    // [magic:int][チャンク数:int] に続けて、チャンクごとに
+    // [チャンク番号:short][件数:int][チャンク内位置の差分:varint × 件数]
+    // チャンク内位置は (y & 0xFFF) << 8 | (z & 15) << 4 | (x & 15) を昇順に並べたもの
+
+    static void writeRegion(File file, long[][] data) throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        for (int index = 0; index < data.length; index++) {
+            if (data[index] != null && data[index].length > 0) {
+                indexes.add(index);
+            }
+        }
+        if (indexes.isEmpty()) {
+            Files.deleteIfExists(file.toPath());
+            return;
+        }
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("出力先のフォルダを作成できません: " + parent);
+        }
+        File temporary = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary.toPath())))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(indexes.size());
+            for (int index : indexes) {
+                long[] blocks = data[index];
+                int[] local = new int[blocks.length];
+                for (int i = 0; i < blocks.length; i++) {
+                    long block = blocks[i];
+                    int x = (int) (block >>> 38) & 15;
+                    int z = (int) (block >>> 12) & 15;
+                    int y = (int) block & 0xFFF;
+                    local[i] = (y << 8) | (z << 4) | x;
+                }
+                Arrays.sort(local);
+                out.writeShort(index);
+                out.writeInt(local.length);
+                int previous = 0;
+                for (int position : local) {
+                    writeVarInt(out, position - previous);
+                    previous = position;
+                }
+            }
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static long[][] readRegion(File file, int regionX, int regionZ) throws IOException {
+        long[][] data = new long[REGION_CHUNKS * REGION_CHUNKS][];
+        if (!file.exists()) {
+            return data;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("設置ブロックの記録ファイルではありません");
+            }
+            int chunkCount = in.readInt();
+            for (int c = 0; c < chunkCount; c++) {
+                int index = in.readShort() & 0xFFFF;
+                int count = in.readInt();
+                if (index >= data.length || count < 0) {
+                    throw new IOException("記録ファイルが壊れています");
+                }
+                int baseX = ((regionX << REGION_SHIFT) + (index & (REGION_CHUNKS - 1))) << 4;
+                int baseZ = ((regionZ << REGION_SHIFT) + (index >> REGION_SHIFT)) << 4;
+                long[] blocks = new long[count];
+                int position = 0;
+                for (int i = 0; i < count; i++) {
+                    position += readVarInt(in);
+                    int y = (position >> 8) << 20 >> 20; // 12ビットの符号を戻す
+                    blocks[i] = packBlock(baseX + (position & 15), y, baseZ + ((position >> 4) & 15));
+                }
+                data[index] = blocks;
+            }
+        }
+        return data;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("記録ファイルが壊れています");
+    }
+
+    // ========== 統計 ==========
+
+    /**
+     * @return メモリ上の記録数
+     */
+    public long getTrackedCount() {
+        long count = 0;
+        for (Map<Long, Region> worldRegions : regions.values()) {
+            for (Region region : worldRegions.values()) {
+                for (LongHashSet blocks : region.chunks) {
+                    if (blocks != null) {
+                        count += blocks.size();
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return メモリ上の領域数
+     */
+    public int getRegionCount() {
+        int count = 0;
+        for (Map<Long, Region> worldRegions : regions.values()) {
+            count += worldRegions.size();
+        }
+        return count;
+    }
+
+    /**
+     * @return 上限を超えたため記録しなかった設置の数
+     */
+    public long getSkippedPlacements() {
+        return skippedPlacements;
+    }
+
+    public void registerStats(StatsRegistry registry) {
+        registry.register("blocks.placed_tracker", () -> {
+            long bytes = 0;
+            long count = 0;
+            for (Map<Long, Region> worldRegions : regions.values()) {
+                for (Region region : worldRegions.values()) {
+                    bytes += StatsRegistry.MAP_ENTRY_BYTES + 16L + region.chunks.length * 4L;
+                    for (LongHashSet blocks : region.chunks) {
+                        if (blocks != null) {
+                            count += blocks.size();
+                            bytes += blocks.estimateBytes();
+                        }
+                    }
+                }
+            }
+            return StatsRegistry.Stats.collection(count, bytes);
+        });
+    }
+}
@@ -1,9 +1,13 @@
 package org.tofu.tofunomics.cache;
 
 import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.dao.PlayerJobDAO;
 import org.tofu.tofunomics.models.Player;
 import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.performance.StatsRegistry;
 
+import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
@@ -12,26 +16,20 @@ import java.lang.ref.WeakReference;
 
 /**
  * プレイヤーデータキャッシュ管理システム
- * メモリキャッシュによるデータベースアクセス最適化
+ * PlayerDAO・PlayerJobDAOの前段に置く読み込みスルー／書き込みスルーのキャッシュ。
+ * 状態ストアに載っていない（オフラインの）プレイヤーの行だけを保持し、
+ * 追い出しは分割LRUにより定数時間で行う
  */
 public class CacheManager {
     
     private final ConfigManager configManager;
     private final Logger logger;
     
-    // プレイヤーデータキャッシュ
-    private final Map<String, CachedPlayer> playerCache;
-    private final Map<String, Long> playerAccessTimes;
+    // プレイヤーデータキャッシュ（無効化されている場合はnull）
+    private final SegmentedLruCache<UUID, Player> playerCache;
     
-    // 職業データキャッシュ
-    private final Map<String, CachedPlayerJob> jobCache;
-    private final Map<String, Long> jobAccessTimes;
-    
-    // 統計情報
-    private final AtomicLong playerCacheHits;
-    private final AtomicLong playerCacheMisses;
-    private final AtomicLong jobCacheHits;
-    private final AtomicLong jobCacheMisses;
+    // 職業データキャッシュ（プレイヤーごとに全職業を保持、無効化されている場合はnull）
+    private final SegmentedLruCache<UUID, List<PlayerJob>> jobCache;
     
     // キャッシュクリーンアップ用スケジューラ
     private final ScheduledExecutorService cleanupScheduler;
@@ -50,34 +48,69 @@ public class CacheManager {
     private final AtomicLong gcSuggestionCount = new AtomicLong(0);
     private final Map<String, Long> performanceMetrics = new ConcurrentHashMap<>();
     
+    // 統計の推定サイズ用の1件あたりの概算（値・キー・LRUのノードを含む）
+    private static final long PLAYER_ENTRY_BYTES = 240L;
+    private static final long PLAYER_JOBS_ENTRY_BYTES = 280L;
+    
+    // 事前読み込み（ウォームアップ）用
+    private static final int DEFAULT_WARMUP_CHUNK_SIZE = 200;
+    private volatile PlayerDAO playerDAO;
+    private volatile PlayerJobDAO playerJobDAO;
+    private final Object warmupLock = new Object();
+    private volatile WarmupStatus warmupStatus = WarmupStatus.idle();
+    // 読み込み中のチャンクの開始後に破棄されたプレイヤー（読み込み中以外はnull）
+    private volatile Set<UUID> warmupInvalidations;
+    private volatile long warmupEpoch;
+    private final AtomicLong invalidateAllCount = new AtomicLong(0);
+    
     public CacheManager(ConfigManager configManager, Logger logger) {
+        this(configManager, logger,
+            configManager.isPlayerCacheEnabled() ? configManager.getPlayerCacheMaxSize() : 0,
+            configManager.getPlayerCacheExpireAfterWrite() * 1000L,
+            configManager.isJobCacheEnabled() ? configManager.getJobCacheMaxSize() : 0,
+            configManager.getJobCacheExpireAfterWrite() * 1000L);
+        
+        // 定期的なキャッシュクリーンアップとメモリ監視を開始
+        startCleanupTask();
+        startMemoryMonitoring();
+        startAsyncTaskProcessor();
+    }
+    
+    /**
+     * サイズ・期限を直接指定して作成する（定期タスクは開始しない）
+     * 最大サイズが0以下のキャッシュは無効になる
+     */
+    public CacheManager(int playerCacheMaxSize, long playerExpireAfterWriteMillis,
+                        int jobCacheMaxSize, long jobExpireAfterWriteMillis, Logger logger) {
+        this(null, logger, playerCacheMaxSize, playerExpireAfterWriteMillis,
+            jobCacheMaxSize, jobExpireAfterWriteMillis);
+    }
+    
+    private CacheManager(ConfigManager configManager, Logger logger,
+                         int playerCacheMaxSize, long playerExpireAfterWriteMillis,
+                         int jobCacheMaxSize, long jobExpireAfterWriteMillis) {
         this.configManager = configManager;
         this.logger = logger;
         
-        // キャッシュマップの初期化
-        this.playerCache = new ConcurrentHashMap<>();
-        this.playerAccessTimes = new ConcurrentHashMap<>();
-        this.jobCache = new ConcurrentHashMap<>();
-        this.jobAccessTimes = new ConcurrentHashMap<>();
-        
-        // 統計情報の初期化
-        this.playerCacheHits = new AtomicLong(0);
-        this.playerCacheMisses = new AtomicLong(0);
-        this.jobCacheHits = new AtomicLong(0);
-        this.jobCacheMisses = new AtomicLong(0);
+        this.playerCache = playerCacheMaxSize > 0
+            ? new SegmentedLruCache<>(playerCacheMaxSize, playerExpireAfterWriteMillis) : null;
+        this.jobCache = jobCacheMaxSize > 0
+            ? new SegmentedLruCache<>(jobCacheMaxSize, jobExpireAfterWriteMillis) : null;
         
-        // スケジューラとエグゼキューターの初期化
+        // スケジューラとエグゼキューターの初期化（スレッドはタスク投入時に作られる）
         this.cleanupScheduler = Executors.newScheduledThreadPool(1);
         this.asyncExecutor = Executors.newFixedThreadPool(2);
         this.asyncTaskQueue = new LinkedBlockingQueue<>();
         
         // オブジェクトプールの初期化
         initializeObjectPool();
-        
-        // 定期的なキャッシュクリーンアップとメモリ監視を開始
-        startCleanupTask();
-        startMemoryMonitoring();
-        startAsyncTaskProcessor();
+    }
+    
+    /**
+     * キャッシュを使わない（DAOの既定値用）
+     */
+    public static CacheManager disabled() {
+        return new CacheManager(0, 0L, 0, 0L, Logger.getLogger(CacheManager.class.getName()));
     }
     
     /**
@@ -135,10 +168,10 @@ public class CacheManager {
         // パフォーマンス指標を記録
         performanceMetrics.put("memory_usage_ratio", (long) (memoryUsageRatio * 100));
         performanceMetrics.put("cache_hit_rate", (long) (getCombinedCacheHitRate() * 100));
-        performanceMetrics.put("player_cache_size", (long) playerCache.size());
-        performanceMetrics.put("job_cache_size", (long) jobCache.size());
+        performanceMetrics.put("player_cache_size", (long) sizeOf(playerCache));
+        performanceMetrics.put("job_cache_size", (long) sizeOf(jobCache));
         
-        if (configManager.isMemoryMonitoringEnabled()) {
+        if (configManager != null && configManager.isMemoryMonitoringEnabled()) {
             double warningThreshold = configManager.getMemoryWarningThreshold();
             double gcThreshold = 0.85; // GC提案閾値
             
@@ -194,157 +227,91 @@ public class CacheManager {
     
     /**
      * プレイヤーデータをキャッシュから取得
+     * @return キャッシュ済みの行のコピー（未登録・期限切れ・無効の場合はnull）
      */
-    public Player getCachedPlayer(String playerUUID) {
-        if (!configManager.isPlayerCacheEnabled()) {
-            playerCacheMisses.incrementAndGet();
+    public Player getCachedPlayer(UUID uuid) {
+        if (playerCache == null) {
             return null;
         }
-        
-        CachedPlayer cachedPlayer = playerCache.get(playerUUID);
-        
-        if (cachedPlayer != null && !isExpired(cachedPlayer)) {
-            // アクセス時間を更新
-            playerAccessTimes.put(playerUUID, System.currentTimeMillis());
-            playerCacheHits.incrementAndGet();
-            return cachedPlayer.getPlayer();
-        }
-        
-        // キャッシュミスまたは期限切れ
-        if (cachedPlayer != null) {
-            playerCache.remove(playerUUID);
-            playerAccessTimes.remove(playerUUID);
-        }
-        
-        playerCacheMisses.incrementAndGet();
-        return null;
+        return PlayerStateStore.copyOf(playerCache.get(uuid));
     }
     
     /**
-     * プレイヤーデータをキャッシュに保存
+     * DBから読み込んだプレイヤーデータをキャッシュに保存
      */
-    public void cachePlayer(String playerUUID, Player player) {
-        if (!configManager.isPlayerCacheEnabled()) {
-            return;
+    public void cachePlayer(Player player) {
+        if (playerCache != null && player != null) {
+            playerCache.put(player.getUuid(), PlayerStateStore.copyOf(player));
         }
-        
-        // キャッシュサイズ制限をチェック
-        if (playerCache.size() >= configManager.getPlayerCacheMaxSize()) {
-            evictOldestPlayerEntry();
-        }
-        
-        long currentTime = System.currentTimeMillis();
-        CachedPlayer cachedPlayer = new CachedPlayer(player, currentTime);
-        
-        playerCache.put(playerUUID, cachedPlayer);
-        playerAccessTimes.put(playerUUID, currentTime);
     }
     
-    // ========== 職業キャッシュ ==========
-    
     /**
-     * 職業データをキャッシュから取得
+     * DBへ書き込んだ行でキャッシュ済みのエントリを置き換える（未登録なら何もしない）
      */
-    public PlayerJob getCachedPlayerJob(String playerUUID, String jobType) {
-        if (!configManager.isJobCacheEnabled()) {
-            jobCacheMisses.incrementAndGet();
-            return null;
+    public void updateCachedPlayer(Player player) {
+        recordInvalidation(player.getUuid());
+        if (playerCache != null) {
+            playerCache.replace(player.getUuid(), PlayerStateStore.copyOf(player));
         }
-        
-        String cacheKey = playerUUID + ":" + jobType;
-        CachedPlayerJob cachedJob = jobCache.get(cacheKey);
-        
-        if (cachedJob != null && !isExpired(cachedJob)) {
-            // アクセス時間を更新
-            jobAccessTimes.put(cacheKey, System.currentTimeMillis());
-            jobCacheHits.incrementAndGet();
-            return cachedJob.getPlayerJob();
-        }
-        
-        // キャッシュミスまたは期限切れ
-        if (cachedJob != null) {
-            jobCache.remove(cacheKey);
-            jobAccessTimes.remove(cacheKey);
+    }
+    
+    public void invalidatePlayer(UUID uuid) {
+        recordInvalidation(uuid);
+        if (playerCache != null) {
+            playerCache.invalidate(uuid);
         }
-        
-        jobCacheMisses.incrementAndGet();
-        return null;
     }
     
+    // ========== 職業キャッシュ ==========
+    
     /**
-     * 職業データをキャッシュに保存
+     * プレイヤーの全職業をキャッシュから取得
+     * @return キャッシュ済みの行のコピー（未登録・期限切れ・無効の場合はnull、無職なら空リスト）
      */
-    public void cachePlayerJob(String playerUUID, String jobType, PlayerJob playerJob) {
-        if (!configManager.isJobCacheEnabled()) {
-            return;
-        }
-        
-        String cacheKey = playerUUID + ":" + jobType;
-        
-        // キャッシュサイズ制限をチェック
-        if (jobCache.size() >= 500) {
-            evictOldestJobEntry();
+    public List<PlayerJob> getCachedPlayerJobs(UUID uuid) {
+        if (jobCache == null) {
+            return null;
         }
-        
-        long currentTime = System.currentTimeMillis();
-        CachedPlayerJob cachedJob = new CachedPlayerJob(playerJob, currentTime);
-        
-        jobCache.put(cacheKey, cachedJob);
-        jobAccessTimes.put(cacheKey, currentTime);
+        List<PlayerJob> cachedJobs = jobCache.get(uuid);
+        return cachedJobs != null ? copyOf(cachedJobs) : null;
     }
     
-    // ========== キャッシュ管理 ==========
-    
     /**
-     * キャッシュエントリが期限切れかチェック
+     * DBから読み込んだプレイヤーの全職業をキャッシュに保存
      */
-    private boolean isExpired(CachedPlayer cachedPlayer) {
-        long expireTime = configManager.getPlayerCacheExpireAfterWrite() * 1000; // 秒をミリ秒に変換
-        return System.currentTimeMillis() - cachedPlayer.getCacheTime() > expireTime;
+    public void cachePlayerJobs(UUID uuid, List<PlayerJob> playerJobs) {
+        if (jobCache != null && playerJobs != null) {
+            jobCache.put(uuid, Collections.unmodifiableList(copyOf(playerJobs)));
+        }
     }
     
-    private boolean isExpired(CachedPlayerJob cachedJob) {
-        long expireTime = 7200 * 1000; // 2時間
-        return System.currentTimeMillis() - cachedJob.getCacheTime() > expireTime;
+    public void invalidatePlayerJobs(UUID uuid) {
+        recordInvalidation(uuid);
+        if (jobCache != null) {
+            jobCache.invalidate(uuid);
+        }
     }
     
-    /**
-     * 最も古いプレイヤーエントリを削除
-     */
-    private void evictOldestPlayerEntry() {
-        String oldestKey = null;
-        long oldestTime = Long.MAX_VALUE;
-        
-        for (Map.Entry<String, Long> entry : playerAccessTimes.entrySet()) {
-            if (entry.getValue() < oldestTime) {
-                oldestTime = entry.getValue();
-                oldestKey = entry.getKey();
-            }
-        }
-        
-        if (oldestKey != null) {
-            playerCache.remove(oldestKey);
-            playerAccessTimes.remove(oldestKey);
+    private static List<PlayerJob> copyOf(List<PlayerJob> playerJobs) {
+        List<PlayerJob> copies = new ArrayList<>(playerJobs.size());
+        for (PlayerJob playerJob : playerJobs) {
+            copies.add(PlayerStateStore.copyOf(playerJob));
         }
+        return copies;
     }
     
+    // ========== キャッシュ管理 ==========
+    
     /**
-     * 最も古い職業エントリを削除
+     * 全キャッシュを破棄する
      */
-    private void evictOldestJobEntry() {
-        String oldestKey = null;
-        long oldestTime = Long.MAX_VALUE;
-        
-        for (Map.Entry<String, Long> entry : jobAccessTimes.entrySet()) {
-            if (entry.getValue() < oldestTime) {
-                oldestTime = entry.getValue();
-                oldestKey = entry.getKey();
-            }
+    public void invalidateAll() {
+        invalidateAllCount.incrementAndGet();
+        if (playerCache != null) {
+            playerCache.invalidateAll();
         }
-        
-        if (oldestKey != null) {
-            jobCache.remove(oldestKey);
-            jobAccessTimes.remove(oldestKey);
+        if (jobCache != null) {
+            jobCache.invalidateAll();
         }
     }
     
@@ -365,23 +332,16 @@ public class CacheManager {
      * 期限切れのキャッシュエントリを削除
      */
     private void cleanupExpiredEntries() {
-        // プレイヤーキャッシュのクリーンアップ
-        playerCache.entrySet().removeIf(entry -> {
-            if (isExpired(entry.getValue())) {
-                playerAccessTimes.remove(entry.getKey());
-                return true;
-            }
-            return false;
-        });
-        
-        // 職業キャッシュのクリーンアップ
-        jobCache.entrySet().removeIf(entry -> {
-            if (isExpired(entry.getValue())) {
-                jobAccessTimes.remove(entry.getKey());
-                return true;
-            }
-            return false;
-        });
+        if (playerCache != null) {
+            playerCache.cleanupExpired();
+        }
+        if (jobCache != null) {
+            jobCache.cleanupExpired();
+        }
+    }
+    
+    private static int sizeOf(SegmentedLruCache<?, ?> cache) {
+        return cache != null ? cache.size() : 0;
     }
     
     /**
@@ -389,12 +349,12 @@ public class CacheManager {
      */
     public CacheStatistics getStatistics() {
         return new CacheStatistics(
-            playerCache.size(),
-            playerCacheHits.get(),
-            playerCacheMisses.get(),
-            jobCache.size(),
-            jobCacheHits.get(),
-            jobCacheMisses.get(),
+            sizeOf(playerCache),
+            playerCache != null ? playerCache.getHits() : 0L,
+            playerCache != null ? playerCache.getMisses() : 0L,
+            sizeOf(jobCache),
+            jobCache != null ? jobCache.getHits() : 0L,
+            jobCache != null ? jobCache.getMisses() : 0L,
             0, // configCacheSize（簡略化）
             0L, // configCacheHits（簡略化）
             0L  // configCacheMisses（簡略化）
@@ -426,10 +386,7 @@ public class CacheManager {
         }
         
         // 全キャッシュのクリア
-        playerCache.clear();
-        playerAccessTimes.clear();
-        jobCache.clear();
-        jobAccessTimes.clear();
+        invalidateAll();
         objectPool.clear();
         weakReferenceCache.clear();
         performanceMetrics.clear();
@@ -499,9 +456,9 @@ public class CacheManager {
      * 統合キャッシュヒット率を計算
      */
     private double getCombinedCacheHitRate() {
-        long totalHits = playerCacheHits.get() + jobCacheHits.get();
-        long totalMisses = playerCacheMisses.get() + jobCacheMisses.get();
-        long total = totalHits + totalMisses;
+        CacheStatistics statistics = getStatistics();
+        long totalHits = statistics.getPlayerCacheHits() + statistics.getJobCacheHits();
+        long total = totalHits + statistics.getPlayerCacheMisses() + statistics.getJobCacheMisses();
         return total == 0 ? 0.0 : (double) totalHits / total;
     }
     
@@ -515,116 +472,249 @@ public class CacheManager {
         metrics.put("weak_reference_cache_size", (long) weakReferenceCache.size());
         metrics.put("string_builder_pool_size", (long) stringBuilderPool.size());
         metrics.put("async_task_queue_size", (long) asyncTaskQueue.size());
+        WarmupStatus warmup = warmupStatus;
+        metrics.put("warmup_processed_players", (long) warmup.getProcessedPlayers());
+        metrics.put("warmup_cached_players", (long) warmup.getCachedPlayers());
+        metrics.put("warmup_duration_ms", warmup.getDurationMillis());
         return metrics;
     }
     
     /**
-     * キャッシュウォームアップ（事前読み込み）
+     * キャッシュと非同期タスクのキューを統計の登録簿へ登録する
+     */
+    public void registerStats(StatsRegistry registry) {
+        if (playerCache != null) {
+            registry.register("cache.players", () -> lruStats(playerCache, PLAYER_ENTRY_BYTES));
+        }
+        if (jobCache != null) {
+            registry.register("cache.player_jobs", () -> lruStats(jobCache, PLAYER_JOBS_ENTRY_BYTES));
+        }
+        registry.register("cache.async_tasks", () ->
+            StatsRegistry.Stats.queue(asyncTaskQueue.size(), StatsRegistry.UNKNOWN, StatsRegistry.UNKNOWN));
+    }
+    
+    private static StatsRegistry.Stats lruStats(SegmentedLruCache<?, ?> cache, long bytesPerEntry) {
+        int size = cache.size();
+        return StatsRegistry.Stats.cache(size, cache.getHits(), cache.getMisses(), cache.getEvictions(),
+            size * bytesPerEntry);
+    }
+    
+    // ========== 事前読み込み（ウォームアップ） ==========
+    
+    /**
+     * 事前読み込みに使うDAOを登録する（DAOはこのCacheManagerを参照して作るため、作成後に登録する）
+     */
+    public void bindDataAccess(PlayerDAO playerDAO, PlayerJobDAO playerJobDAO) {
+        this.playerDAO = playerDAO;
+        this.playerJobDAO = playerJobDAO;
+    }
+    
+    /**
+     * 最近活動したプレイヤー（players.updated_at の新しい順）を非同期で事前読み込みする
+     * 起動直後とリロード後に呼び、全員の再参加時に単発クエリが集中しないようにする
+     */
+    public void warmupRecentPlayers() {
+        if (configManager == null || !configManager.isCacheWarmupEnabled() || playerDAO == null
+                || (playerCache == null && jobCache == null)) {
+            return;
+        }
+        int limit = Math.min(configManager.getCacheWarmupMaxPlayers(),
+            Math.max(playerCache != null ? playerCache.getMaxSize() : 0, jobCache != null ? jobCache.getMaxSize() : 0));
+        if (limit <= 0) {
+            return;
+        }
+        submitAsyncTask(() -> {
+            try {
+                warmup(playerDAO.getRecentlyActivePlayerUuids(limit));
+            } catch (Exception e) {
+                logger.warning("キャッシュウォームアップ中にエラー: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * 指定プレイヤーを非同期で事前読み込みする
      */
     public void warmupCache(List<String> playerUUIDs) {
         if (playerUUIDs == null || playerUUIDs.isEmpty()) {
             return;
         }
-        
+        List<UUID> uuids = new ArrayList<>(playerUUIDs.size());
+        for (String playerUUID : playerUUIDs) {
+            try {
+                uuids.add(UUID.fromString(playerUUID));
+            } catch (IllegalArgumentException e) {
+                logger.warning("キャッシュウォームアップ対象のUUIDが不正です: " + playerUUID);
+            }
+        }
         submitAsyncTask(() -> {
-            logger.info("キャッシュウォームアップを開始します。対象: " + playerUUIDs.size() + "人のプレイヤー");
-            
-            for (String playerUUID : playerUUIDs) {
-                try {
-                    // ここでデータベースから事前にデータを読み込む処理を実行
-                    // 実装は DAO クラスとの連携が必要
-                    
-                    Thread.sleep(10); // CPU負荷軽減のための短い待機
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    logger.warning("キャッシュウォームアップ中にエラー: " + e.getMessage());
-                }
+            try {
+                warmup(uuids);
+            } catch (Exception e) {
+                logger.warning("キャッシュウォームアップ中にエラー: " + e.getMessage());
             }
-            
-            logger.info("キャッシュウォームアップが完了しました。");
         });
     }
     
     /**
-     * キャッシュの整合性チェック
+     * 1人分のプレイヤーデータと全職業を非同期で事前読み込みする
      */
-    public boolean checkCacheIntegrity() {
-        try {
-            // プレイヤーキャッシュの整合性チェック
-            int inconsistentEntries = 0;
-            for (Map.Entry<String, CachedPlayer> entry : playerCache.entrySet()) {
-                if (!playerAccessTimes.containsKey(entry.getKey())) {
-                    inconsistentEntries++;
-                }
-            }
-            
-            // 職業キャッシュの整合性チェック
-            for (Map.Entry<String, CachedPlayerJob> entry : jobCache.entrySet()) {
-                if (!jobAccessTimes.containsKey(entry.getKey())) {
-                    inconsistentEntries++;
+    public void preloadCache(String playerUUID) {
+        warmupCache(Collections.singletonList(playerUUID));
+    }
+    
+    /**
+     * 指定プレイヤーを一定数ずつIN句でまとめて読み込み、キャッシュへ事前登録する（呼び出し元スレッドで実行）
+     * 読み込み済み（オンライン）・キャッシュ済みのプレイヤーは登録せず、空きがない場合も既存エントリを追い出さない
+     * @return 完了時の進捗
+     */
+    public WarmupStatus warmup(List<UUID> uuids) throws SQLException {
+        PlayerDAO players = playerDAO;
+        PlayerJobDAO playerJobs = playerJobDAO;
+        if (players == null || playerJobs == null) {
+            return warmupStatus;
+        }
+        int chunkSize = configManager != null ? Math.max(1, configManager.getCacheWarmupChunkSize())
+            : DEFAULT_WARMUP_CHUNK_SIZE;
+        
+        synchronized (warmupLock) {
+            long startedAt = System.currentTimeMillis();
+            int warmedPlayers = 0;
+            int warmedPlayerJobs = 0;
+            warmupStatus = new WarmupStatus(WarmupStatus.State.RUNNING, uuids.size(), 0, 0, 0, startedAt, 0L);
+            logger.info("キャッシュウォームアップを開始します。対象: " + uuids.size() + "人のプレイヤー");
+            try {
+                for (int from = 0; from < uuids.size(); from += chunkSize) {
+                    List<UUID> chunk = uuids.subList(from, Math.min(from + chunkSize, uuids.size()));
+                    // 読み込み開始後に書き込まれたプレイヤーは古い行を登録しないよう記録する
+                    warmupInvalidations = ConcurrentHashMap.newKeySet();
+                    warmupEpoch = invalidateAllCount.get();
+                    try {
+                        if (playerCache != null) {
+                            warmedPlayers += players.preloadPlayers(chunk);
+                        }
+                        if (jobCache != null) {
+                            warmedPlayerJobs += playerJobs.preloadPlayerJobs(chunk);
+                        }
+                    } finally {
+                        warmupInvalidations = null;
+                    }
+                    warmupStatus = new WarmupStatus(WarmupStatus.State.RUNNING, uuids.size(), from + chunk.size(),
+                        warmedPlayers, warmedPlayerJobs, startedAt, System.currentTimeMillis() - startedAt);
                 }
+            } catch (SQLException e) {
+                warmupStatus = new WarmupStatus(WarmupStatus.State.FAILED, uuids.size(), warmupStatus.getProcessedPlayers(),
+                    warmedPlayers, warmedPlayerJobs, startedAt, System.currentTimeMillis() - startedAt);
+                throw e;
             }
-            
-            if (inconsistentEntries > 0) {
-                logger.warning("キャッシュの整合性に問題があります。不整合エントリ数: " + inconsistentEntries);
-                return false;
-            }
-            
-            return true;
-        } catch (Exception e) {
-            logger.severe("キャッシュ整合性チェック中にエラーが発生: " + e.getMessage());
+            warmupStatus = new WarmupStatus(WarmupStatus.State.COMPLETED, uuids.size(), uuids.size(),
+                warmedPlayers, warmedPlayerJobs, startedAt, System.currentTimeMillis() - startedAt);
+            logger.info("キャッシュウォームアップが完了しました。プレイヤー: " + warmedPlayers + "人, 職業: "
+                + warmedPlayerJobs + "人 (" + warmupStatus.getDurationMillis() + "ms)");
+            return warmupStatus;
+        }
+    }
+    
+    /**
+     * 事前読み込みした行を、未登録かつ空きがある場合だけキャッシュへ登録する（PlayerDAOがプレイヤーのロック内で呼ぶ）
+     * @return 登録した場合はtrue
+     */
+    public boolean offerPreloadedPlayer(Player player) {
+        if (playerCache == null || wasInvalidatedDuringWarmup(player.getUuid())) {
             return false;
         }
+        return playerCache.offer(player.getUuid(), PlayerStateStore.copyOf(player));
     }
     
     /**
-     * キャッシュのプリロード（将来的にアクセスされる可能性の高いデータを事前読み込み）
+     * 事前読み込みした全職業を、未登録かつ空きがある場合だけキャッシュへ登録する（PlayerJobDAOがプレイヤーのロック内で呼ぶ）
+     * @return 登録した場合はtrue
      */
-    public void preloadCache(String playerUUID, Set<String> jobTypes) {
-        submitAsyncTask(() -> {
-            try {
-                // ここで DAO を使用してデータベースからデータを読み込み、キャッシュに保存
-                logger.info("プリロード完了: " + playerUUID + " (" + jobTypes.size() + " jobs)");
-            } catch (Exception e) {
-                logger.warning("キャッシュプリロード中にエラー: " + e.getMessage());
-            }
-        });
+    public boolean offerPreloadedPlayerJobs(UUID uuid, List<PlayerJob> playerJobs) {
+        if (jobCache == null || wasInvalidatedDuringWarmup(uuid)) {
+            return false;
+        }
+        return jobCache.offer(uuid, Collections.unmodifiableList(copyOf(playerJobs)));
     }
     
-    // ========== 内部クラス ==========
+    private boolean wasInvalidatedDuringWarmup(UUID uuid) {
+        Set<UUID> invalidations = warmupInvalidations;
+        return invalidations != null && (invalidations.contains(uuid) || invalidateAllCount.get() != warmupEpoch);
+    }
+    
+    private void recordInvalidation(UUID uuid) {
+        Set<UUID> invalidations = warmupInvalidations;
+        if (invalidations != null) {
+            invalidations.add(uuid);
+        }
+    }
     
     /**
-     * キャッシュされたプレイヤーデータ
+     * 事前読み込みの進捗を取得
      */
-    private static class CachedPlayer {
-        private final Player player;
-        private final long cacheTime;
-        
-        public CachedPlayer(Player player, long cacheTime) {
-            this.player = player;
-            this.cacheTime = cacheTime;
-        }
-        
-        public Player getPlayer() { return player; }
-        public long getCacheTime() { return cacheTime; }
+    public WarmupStatus getWarmupStatus() {
+        return warmupStatus;
     }
     
     /**
-     * キャッシュされた職業データ
+     * キャッシュの整合性チェック（各キャッシュが最大サイズを超えていないか）
      */
-    private static class CachedPlayerJob {
-        private final PlayerJob playerJob;
-        private final long cacheTime;
-        
-        public CachedPlayerJob(PlayerJob playerJob, long cacheTime) {
-            this.playerJob = playerJob;
-            this.cacheTime = cacheTime;
+    public boolean checkCacheIntegrity() {
+        boolean playerCacheValid = playerCache == null || playerCache.size() <= playerCache.getMaxSize();
+        boolean jobCacheValid = jobCache == null || jobCache.size() <= jobCache.getMaxSize();
+        if (!playerCacheValid || !jobCacheValid) {
+            logger.warning("キャッシュの整合性に問題があります。プレイヤー: " + sizeOf(playerCache)
+                + ", 職業: " + sizeOf(jobCache));
+            return false;
         }
-        
-        public PlayerJob getPlayerJob() { return playerJob; }
-        public long getCacheTime() { return cacheTime; }
+        return true;
+    }
+    
+    // ========== 内部クラス ==========
+    
+    /**
+     * 事前読み込みの進捗（チャンクごとに作り直して公開する不変オブジェクト）
+     */
+    public static final class WarmupStatus {
+        public enum State { IDLE, RUNNING, COMPLETED, FAILED }
+        
+        private final State state;
+        private final int targetPlayers;
+        private final int processedPlayers;
+        private final int cachedPlayers;
+        private final int cachedPlayerJobs;
+        private final long startedAt;
+        private final long durationMillis;
+        
+        public WarmupStatus(State state, int targetPlayers, int processedPlayers, int cachedPlayers,
+                            int cachedPlayerJobs, long startedAt, long durationMillis) {
+            this.state = state;
+            this.targetPlayers = targetPlayers;
+            this.processedPlayers = processedPlayers;
+            this.cachedPlayers = cachedPlayers;
+            this.cachedPlayerJobs = cachedPlayerJobs;
+            this.startedAt = startedAt;
+            this.durationMillis = durationMillis;
+        }
+        
+        static WarmupStatus idle() {
+            return new WarmupStatus(State.IDLE, 0, 0, 0, 0, 0L, 0L);
+        }
+        
+        /**
+         * @return 進捗率（0.0-1.0、対象がいない場合は1.0）
+         */
+        public double getProgress() {
+            return targetPlayers == 0 ? 1.0 : (double) processedPlayers / targetPlayers;
+        }
+        
+        public State getState() { return state; }
+        public int getTargetPlayers() { return targetPlayers; }
+        public int getProcessedPlayers() { return processedPlayers; }
+        public int getCachedPlayers() { return cachedPlayers; }
+        public int getCachedPlayerJobs() { return cachedPlayerJobs; }
+        public long getStartedAt() { return startedAt; }
+        public long getDurationMillis() { return durationMillis; }
     }
     
     /**
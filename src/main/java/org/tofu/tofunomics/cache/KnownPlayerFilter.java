@@ -0,0 +1,160 @@
+package org.tofu.tofunomics.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * players行が存在するUUIDのブルームフィルタ
+ * 「存在しない」と判定したUUIDは確実にplayers行がないため、DBへの問い合わせを省略できる
+ * （「存在するかもしれない」場合は従来通りDBを読む）。
+ * 起動時に全UUIDを読み込むまでは常に「存在するかもしれない」を返す。
+ * 行の削除は反映しない（偽陽性が増えるだけで誤判定にはならない）。
+ * 見込んだ容量を超えて追加された場合は、全UUIDを読み直して大きなビット配列で作り直す
+ */
+public class KnownPlayerFilter {
+
+    // 1件あたり10ビット・ハッシュ7個で偽陽性率は約1%
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASH_COUNT = 7;
+    private static final int MIN_CAPACITY = 1024;
+
+    // 読み込み前はnull（判定は常にtrue）
+    private volatile AtomicLongArray bits;
+    private volatile long bitCount;
+    private int capacity;
+    private int size;
+    // 前回の構築以降に追加されたUUID（読み込み結果に含まれない可能性があるため、構築時にまとめて反映する）
+    private final Set<UUID> pending = new HashSet<>();
+    // 作り直しのための読み直し中
+    private boolean rebuilding;
+
+    /**
+     * 全プレイヤーのUUIDからフィルタを構築する（作り直しも同じ）
+     * 前回の構築以降に追加されたUUIDも含め、以降の追加分を見込んだ容量を確保する
+     */
+    public synchronized void load(Collection<UUID> uuids) {
+        int expected = Math.max(MIN_CAPACITY, (uuids.size() + pending.size()) * 2);
+        long words = ((long) expected * BITS_PER_ENTRY + 63) / 64;
+        AtomicLongArray newBits = new AtomicLongArray((int) Math.min(words, Integer.MAX_VALUE));
+        long newBitCount = (long) newBits.length() * 64;
+        size = 0;
+        for (UUID uuid : uuids) {
+            set(newBits, newBitCount, uuid);
+            size++;
+        }
+        for (UUID uuid : pending) {
+            set(newBits, newBitCount, uuid);
+            size++;
+        }
+        pending.clear();
+        rebuilding = false;
+        capacity = expected;
+        bitCount = newBitCount;
+        bits = newBits;
+    }
+
+    /**
+     * players行を作成したUUIDを登録する（作成と同じプレイヤーのロック内で呼ぶこと）
+     */
+    public synchronized void add(UUID uuid) {
+        pending.add(uuid);
+        AtomicLongArray current = bits;
+        if (current == null) {
+            return;
+        }
+        set(current, bitCount, uuid);
+        size++;
+    }
+
+    /**
+     * 容量を超えていれば作り直しを開始する
+     * trueを返した場合、呼び出し側は全UUIDを読み直して {@link #load(Collection)} を呼ぶ（失敗したら {@link #cancelRebuild()}）
+     * 読み直しの間も判定は現在のビット配列で行い、追加されたUUIDは構築時に反映する
+     */
+    public synchronized boolean beginRebuildIfSaturated() {
+        if (rebuilding || !isSaturated()) {
+            return false;
+        }
+        rebuilding = true;
+        return true;
+    }
+
+    /**
+     * 読み直しに失敗した場合に作り直しを取りやめる（次の追加で再び開始する）
+     */
+    public synchronized void cancelRebuild() {
+        rebuilding = false;
+    }
+
+    /**
+     * @return players行が存在するかもしれない場合はtrue（falseなら確実に存在しない）
+     */
+    public boolean mightExist(UUID uuid) {
+        AtomicLongArray current = bits;
+        if (current == null) {
+            return true;
+        }
+        long count = bitCount;
+        long h1 = mix(uuid.getMostSignificantBits());
+        long h2 = mix(uuid.getLeastSignificantBits()) | 1L;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long index = Math.floorMod(h1 + i * h2, count);
+            if ((current.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void set(AtomicLongArray target, long count, UUID uuid) {
+        long h1 = mix(uuid.getMostSignificantBits());
+        long h2 = mix(uuid.getLeastSignificantBits()) | 1L;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long index = Math.floorMod(h1 + i * h2, count);
+            int word = (int) (index >>> 6);
+            // 書き込みはこのクラスのロック内だけで行うため、読み出しと書き戻しで足りる
+            target.set(word, target.get(word) | (1L << index));
+        }
+    }
+
+    /**
+     * 64ビットの値を攪拌する（MurmurHash3の最終処理）
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    public boolean isLoaded() {
+        return bits != null;
+    }
+
+    /**
+     * @return 登録済みのUUID数（重複して追加された分も含む）
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return 構築時に見込んだ容量を超えて追加され、偽陽性率が上がっている場合はtrue
+     */
+    public synchronized boolean isSaturated() {
+        return bits != null && size > capacity;
+    }
+
+    /**
+     * @return ビット配列の大きさ（読み込み前は0）
+     */
+    public long getSizeInBytes() {
+        AtomicLongArray current = bits;
+        return current != null ? current.length() * 8L : 0L;
+    }
+}
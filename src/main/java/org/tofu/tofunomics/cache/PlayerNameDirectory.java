@@ -0,0 +1,85 @@
+package org.tofu.tofunomics.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UUIDから表示名を引くためのメモリ上の名簿
+ * 起動時にplayers.nameを全件読み込み、参加時の名前更新で差し替える。
+ * ランキング表示などで Bukkit.getOfflinePlayer() を行ごとに呼ばずに済むようにする。
+ * DBにもサーバーの記録にも名前がなかったUUIDは、参加して名前が分かるまで再び問い合わせない
+ */
+public class PlayerNameDirectory {
+
+    private final Map<UUID, String> names = new ConcurrentHashMap<>();
+    // 名前が見つからなかったUUID
+    private final Set<UUID> unknown = ConcurrentHashMap.newKeySet();
+
+    /**
+     * DBから読み込んだ名前をまとめて登録する（読み込み中に参加したプレイヤーの名前は上書きしない）
+     */
+    public void load(Map<UUID, String> loadedNames) {
+        for (Map.Entry<UUID, String> entry : loadedNames.entrySet()) {
+            if (entry.getValue() != null) {
+                names.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public void put(UUID uuid, String name) {
+        if (name != null) {
+            names.put(uuid, name);
+            unknown.remove(uuid);
+        }
+    }
+
+    /**
+     * 名前が見つからなかったことを記録する（次に名前が登録されるまで問い合わせを省く）
+     */
+    public void markUnknown(UUID uuid) {
+        if (!names.containsKey(uuid)) {
+            unknown.add(uuid);
+        }
+    }
+
+    /**
+     * @return 名前が未登録で、見つからなかった記録もない場合はtrue
+     */
+    public boolean needsLookup(UUID uuid) {
+        return !names.containsKey(uuid) && !unknown.contains(uuid);
+    }
+
+    /**
+     * 登録済みの名前（未登録ならnull）
+     */
+    public String get(UUID uuid) {
+        return names.get(uuid);
+    }
+
+    /**
+     * 複数のUUIDの名前をまとめて引く
+     * @return 名前が登録されているUUIDだけを含むマップ（引数の順序を保持）
+     */
+    public Map<UUID, String> resolve(Collection<UUID> uuids) {
+        Map<UUID, String> resolved = new LinkedHashMap<>();
+        for (UUID uuid : uuids) {
+            String name = names.get(uuid);
+            if (name != null) {
+                resolved.put(uuid, name);
+            }
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public int getUnknownCount() {
+        return unknown.size();
+    }
+}
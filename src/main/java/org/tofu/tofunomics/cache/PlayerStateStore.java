@@ -0,0 +1,647 @@
+package org.tofu.tofunomics.cache;
+
+import org.tofu.tofunomics.models.Player;
+import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.performance.StatsRegistry;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * オンラインプレイヤーの状態ストア（ライトビハインド）
+ * 読み込み済みプレイヤーの players / player_jobs 行はこのストアが正となり、
+ * 変更はdirtyとして記録されて定期的にまとめてDBへ書き出される
+ *
+ * 同一プレイヤーに対する操作はすべて {@link #lockFor(UUID)} のロック下で行う。
+ * DAOは「読み込み済みかの判定 → メモリ更新 or DB更新」をこのロック内で行うため、
+ * 読み込み・退避と書き込みが入れ違うことはない
+ * 取得系メソッドはすべてコピーを返す（変更は更新系メソッドを通すまで反映されない）
+ *
+ * 書き出しに渡した変更は書き込みが確定するまで退避しない。
+ * 退避後にDBへ直接書いた値や再ログインで読み込んだ値が、遅れて書き込まれた古い値で上書きされないようにするため
+ */
+public class PlayerStateStore {
+
+    private static final int LOCK_STRIPES = 64;
+    // 統計の推定サイズ用の1人あたりの概算（状態・Player・職業マップを含む）
+    private static final long PLAYER_STATE_BYTES = 640L;
+
+    /**
+     * 1プレイヤー分の状態
+     */
+    private static final class PlayerState {
+        private Player player;  // players行が存在しない場合はnull
+        private final Map<Integer, PlayerJob> jobs = new LinkedHashMap<>();
+        // 就いている職業IDのビット（ID 0-63、ロックなしで参照する。範囲外のIDはjobsを参照）
+        private volatile long jobMask;
+        private boolean playerDirty;
+        private final Set<Integer> dirtyJobIds = new HashSet<>();
+        // 書き出しに渡して、まだ書き込みが確定していない行の数
+        private int pendingWrites;
+        private boolean online = true;
+
+        private boolean isDirty() {
+            return playerDirty || !dirtyJobIds.isEmpty();
+        }
+
+        private boolean isEvictable() {
+            return !online && !isDirty() && pendingWrites == 0;
+        }
+
+        /**
+         * jobsの変更後に呼び、職業IDのビットを作り直す
+         */
+        private void updateJobMask() {
+            long mask = 0L;
+            for (int jobId : jobs.keySet()) {
+                if (jobId >= 0 && jobId < Long.SIZE) {
+                    mask |= 1L << jobId;
+                }
+            }
+            jobMask = mask;
+        }
+    }
+
+    /**
+     * DBへ書き出す変更のスナップショット
+     */
+    public static final class DirtySnapshot {
+        private final List<Player> players;
+        private final List<PlayerJob> playerJobs;
+
+        private DirtySnapshot(List<Player> players, List<PlayerJob> playerJobs) {
+            this.players = players;
+            this.playerJobs = playerJobs;
+        }
+
+        public List<Player> getPlayers() { return players; }
+        public List<PlayerJob> getPlayerJobs() { return playerJobs; }
+        public boolean isEmpty() { return players.isEmpty() && playerJobs.isEmpty(); }
+    }
+
+    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final Object[] locks;
+
+    public PlayerStateStore() {
+        this.locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * プレイヤー単位のロックを取得
+     */
+    public Object lockFor(UUID uuid) {
+        return locks[stripeOf(uuid)];
+    }
+
+    /**
+     * 2人分のロックを取得すべき順に並べて返す（送金などでのデッドロック回避用）
+     * 同じストライプの場合は同じロックが2つ並ぶ
+     */
+    public Object[] locksFor(UUID first, UUID second) {
+        int firstStripe = stripeOf(first);
+        int secondStripe = stripeOf(second);
+        return firstStripe <= secondStripe
+            ? new Object[] { locks[firstStripe], locks[secondStripe] }
+            : new Object[] { locks[secondStripe], locks[firstStripe] };
+    }
+
+    private int stripeOf(UUID uuid) {
+        return (uuid.hashCode() & 0x7fffffff) % locks.length;
+    }
+
+    // ========== 読み込み・退避 ==========
+
+    /**
+     * DBから読み込んだ状態を登録する（呼び出し側で lockFor(uuid) を保持してDBを読むこと）
+     * 既に登録済みの場合は何もしない
+     */
+    public void load(UUID uuid, Player player, List<PlayerJob> playerJobs) {
+        synchronized (lockFor(uuid)) {
+            if (states.containsKey(uuid)) {
+                return;
+            }
+            PlayerState state = new PlayerState();
+            state.player = copyOf(player);
+            for (PlayerJob playerJob : playerJobs) {
+                state.jobs.put(playerJob.getJobId(), copyOf(playerJob));
+            }
+            state.updateJobMask();
+            states.put(uuid, state);
+        }
+    }
+
+    /**
+     * 退避前に再ログインした場合の復帰
+     * @return 状態が残っていた場合はtrue（DBからの再読み込み不要）
+     */
+    public boolean markOnline(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return false;
+            }
+            state.online = true;
+            return true;
+        }
+    }
+
+    public void markOffline(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state != null) {
+                state.online = false;
+            }
+        }
+    }
+
+    public void markAllOffline() {
+        for (UUID uuid : states.keySet()) {
+            markOffline(uuid);
+        }
+    }
+
+    public boolean isLoaded(UUID uuid) {
+        return states.containsKey(uuid);
+    }
+
+    /**
+     * オフラインかつ未書き出しの変更も書き込み待ちもないプレイヤーを退避する
+     * @return 退避した場合はtrue
+     */
+    public boolean evictIfOfflineClean(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null || !state.isEvictable()) {
+                return false;
+            }
+            states.remove(uuid);
+            return true;
+        }
+    }
+
+    /**
+     * オフラインかつ書き出し済みのプレイヤーをすべて退避する
+     * @return 退避した人数
+     */
+    public int evictOfflineClean() {
+        int evicted = 0;
+        for (UUID uuid : states.keySet()) {
+            if (evictIfOfflineClean(uuid)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    // ========== players ==========
+
+    /**
+     * @return 読み込み済みの場合はplayers行のコピー（行が存在しない場合はnull）。
+     *         未読み込みの場合もnullを返すため、事前に {@link #isLoaded(UUID)} で判定すること
+     */
+    public Player getPlayer(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            return state != null ? copyOf(state.player) : null;
+        }
+    }
+
+    /**
+     * 残高を書き換える（UPDATE players SET balance, bank_balance 相当）
+     * @return 読み込み済みでメモリ上で処理した場合はtrue
+     */
+    public boolean updatePlayer(Player player) {
+        UUID uuid = player.getUuid();
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return false;
+            }
+            if (state.player != null) {
+                state.player.setBalance(player.getBalance());
+                state.player.setBankBalance(player.getBankBalance());
+                markPlayerDirty(uuid, state);
+            }
+            return true;
+        }
+    }
+
+    public boolean setBalance(UUID uuid, double balance) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return false;
+            }
+            if (state.player != null) {
+                state.player.setBalance(balance);
+                markPlayerDirty(uuid, state);
+            }
+            return true;
+        }
+    }
+
+    public boolean setBankBalance(UUID uuid, double bankBalance) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return false;
+            }
+            if (state.player != null) {
+                state.player.setBankBalance(bankBalance);
+                markPlayerDirty(uuid, state);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 読み込み済みプレイヤーの銀行預金を増減する
+     * 呼び出し側で lockFor(uuid) を保持し、読み込み済みであることを確認してから呼ぶこと
+     * @return 行が存在し、減算の場合は残高が足りた場合にtrue
+     */
+    public boolean adjustBankBalance(UUID uuid, double delta) {
+        return adjustBalances(uuid, 0.0, delta);
+    }
+
+    /**
+     * 読み込み済みプレイヤーの所持金と銀行預金を増減する（どちらかが足りない場合はどちらも変更しない）
+     * 呼び出し側で lockFor(uuid) を保持し、読み込み済みであることを確認してから呼ぶこと
+     * @return 行が存在し、減算の場合は残高が足りた場合にtrue
+     */
+    public boolean adjustBalances(UUID uuid, double balanceDelta, double bankDelta) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null || state.player == null) {
+                return false;
+            }
+            if (balanceDelta < 0 && state.player.getBalance() < -balanceDelta) {
+                return false;
+            }
+            if (bankDelta < 0 && state.player.getBankBalance() < -bankDelta) {
+                return false;
+            }
+            state.player.addBalance(balanceDelta);
+            state.player.addBankBalance(bankDelta);
+            markPlayerDirty(uuid, state);
+            return true;
+        }
+    }
+
+    /**
+     * DBに作成した行を反映する（作成は即時にDBへ書き込むためdirtyにはしない）
+     */
+    public void onPlayerCreated(Player player) {
+        UUID uuid = player.getUuid();
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state != null && state.player == null) {
+                state.player = copyOf(player);
+            }
+        }
+    }
+
+    public void onPlayerDeleted(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state != null) {
+                state.player = null;
+                state.playerDirty = false;
+            }
+        }
+    }
+
+    // ========== player_jobs ==========
+
+    /**
+     * @return 読み込み済みの場合は就職順の職業一覧のコピー、未読み込みの場合はnull
+     */
+    public List<PlayerJob> getPlayerJobs(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return null;
+            }
+            List<PlayerJob> playerJobs = new ArrayList<>(state.jobs.size());
+            for (PlayerJob playerJob : state.jobs.values()) {
+                playerJobs.add(copyOf(playerJob));
+            }
+            return playerJobs;
+        }
+    }
+
+    /**
+     * @return 読み込み済みかつ就いている場合はコピー、それ以外はnull
+     */
+    public PlayerJob getPlayerJob(UUID uuid, int jobId) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            return state != null ? copyOf(state.jobs.get(jobId)) : null;
+        }
+    }
+
+    /**
+     * 職業に就いているかをロックも行のコピーもなしで判定する（ブロック破壊ごとの職業判定用）
+     * @return 読み込み済みの場合は就いているか、未読み込みの場合はnull
+     */
+    public Boolean hasPlayerJob(UUID uuid, int jobId) {
+        PlayerState state = states.get(uuid);
+        if (state == null) {
+            return null;
+        }
+        if (jobId >= 0 && jobId < Long.SIZE) {
+            return (state.jobMask & (1L << jobId)) != 0;
+        }
+        synchronized (lockFor(uuid)) {
+            return state.jobs.containsKey(jobId);
+        }
+    }
+
+    /**
+     * @return 読み込み済みの場合は最後に更新された職業のコピー（無職ならnull）。
+     *         未読み込みの場合もnullを返すため、事前に {@link #isLoaded(UUID)} で判定すること
+     */
+    public PlayerJob getCurrentPlayerJob(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return null;
+            }
+            PlayerJob current = null;
+            for (PlayerJob playerJob : state.jobs.values()) {
+                if (current == null || isNewer(playerJob.getUpdatedAt(), current.getUpdatedAt())) {
+                    current = playerJob;
+                }
+            }
+            return copyOf(current);
+        }
+    }
+
+    private static boolean isNewer(Timestamp candidate, Timestamp current) {
+        return candidate != null && (current == null || candidate.after(current));
+    }
+
+    /**
+     * レベルと経験値を書き換える（UPDATE player_jobs SET level, experience 相当）
+     * @return 読み込み済みでメモリ上で処理した場合はtrue
+     */
+    public boolean updatePlayerJob(PlayerJob playerJob) {
+        UUID uuid = playerJob.getUuid();
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return false;
+            }
+            PlayerJob current = state.jobs.get(playerJob.getJobId());
+            if (current != null) {
+                current.setLevel(playerJob.getLevel());
+                current.setExperience(playerJob.getExperience());
+                markJobDirty(uuid, state, playerJob.getJobId());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 経験値を加算する
+     * @return 読み込み済みかつ就いている職業の場合にtrue
+     */
+    public boolean addExperience(UUID uuid, int jobId, double experience) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            PlayerJob current = state != null ? state.jobs.get(jobId) : null;
+            if (current == null) {
+                return false;
+            }
+            current.addExperience(experience);
+            markJobDirty(uuid, state, jobId);
+            return true;
+        }
+    }
+
+    /**
+     * @return 読み込み済みでメモリ上で処理した場合はtrue
+     */
+    public boolean setLevel(UUID uuid, int jobId, int level) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return false;
+            }
+            PlayerJob current = state.jobs.get(jobId);
+            if (current != null) {
+                current.setLevel(level);
+                markJobDirty(uuid, state, jobId);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * DBに作成した行を反映する（作成は即時にDBへ書き込むためdirtyにはしない）
+     */
+    public void onPlayerJobCreated(PlayerJob playerJob) {
+        UUID uuid = playerJob.getUuid();
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state != null) {
+                state.jobs.putIfAbsent(playerJob.getJobId(), copyOf(playerJob));
+                state.updateJobMask();
+            }
+        }
+    }
+
+    public void onPlayerJobDeleted(UUID uuid, int jobId) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state != null) {
+                state.jobs.remove(jobId);
+                state.dirtyJobIds.remove(jobId);
+                state.updateJobMask();
+            }
+        }
+    }
+
+    public void onAllPlayerJobsDeleted(UUID uuid) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state != null) {
+                state.jobs.clear();
+                state.dirtyJobIds.clear();
+                state.updateJobMask();
+            }
+        }
+    }
+
+    // ========== 書き出し ==========
+
+    /**
+     * 未書き出しの変更をすべて取り出す（取り出した時点でdirtyは解除される）
+     * 取り出した行はそれぞれ {@link #completePlayerWrite(UUID, boolean)} または
+     * {@link #completePlayerJobWrite(UUID, int, boolean)} で書き込み結果を通知するまで退避しない
+     */
+    public DirtySnapshot drainDirty() {
+        List<Player> players = new ArrayList<>();
+        List<PlayerJob> playerJobs = new ArrayList<>();
+        for (UUID uuid : dirtyPlayers) {
+            drainInto(uuid, players, playerJobs);
+        }
+        return new DirtySnapshot(players, playerJobs);
+    }
+
+    /**
+     * 指定プレイヤーの未書き出しの変更を取り出す（退出時用）
+     */
+    public DirtySnapshot drainDirty(UUID uuid) {
+        List<Player> players = new ArrayList<>(1);
+        List<PlayerJob> playerJobs = new ArrayList<>();
+        drainInto(uuid, players, playerJobs);
+        return new DirtySnapshot(players, playerJobs);
+    }
+
+    private void drainInto(UUID uuid, List<Player> players, List<PlayerJob> playerJobs) {
+        synchronized (lockFor(uuid)) {
+            dirtyPlayers.remove(uuid);
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return;
+            }
+            if (state.playerDirty && state.player != null) {
+                players.add(copyOf(state.player));
+                state.pendingWrites++;
+            }
+            state.playerDirty = false;
+            for (Integer jobId : state.dirtyJobIds) {
+                PlayerJob playerJob = state.jobs.get(jobId);
+                if (playerJob != null) {
+                    playerJobs.add(copyOf(playerJob));
+                    state.pendingWrites++;
+                }
+            }
+            state.dirtyJobIds.clear();
+        }
+    }
+
+    /**
+     * 取り出したplayers行の書き込み結果を反映する（バッチ処理スレッドから呼ばれる）
+     * 書き込めなかった場合は再びdirtyにし、次回の書き出しで最新値を再送する。
+     * 書き込み待ちがなくなったオフラインのプレイヤーはここで退避する
+     * @param written 書き込みが確定した場合はtrue、書き出しに渡せなかった・破棄された場合はfalse
+     */
+    public void completePlayerWrite(UUID uuid, boolean written) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return;
+            }
+            if (!written && state.player != null) {
+                markPlayerDirty(uuid, state);
+            }
+            completeWrite(uuid, state);
+        }
+    }
+
+    /**
+     * 取り出したplayer_jobs行の書き込み結果を反映する（{@link #completePlayerWrite(UUID, boolean)} と同じ）
+     */
+    public void completePlayerJobWrite(UUID uuid, int jobId, boolean written) {
+        synchronized (lockFor(uuid)) {
+            PlayerState state = states.get(uuid);
+            if (state == null) {
+                return;
+            }
+            if (!written && state.jobs.containsKey(jobId)) {
+                markJobDirty(uuid, state, jobId);
+            }
+            completeWrite(uuid, state);
+        }
+    }
+
+    private void completeWrite(UUID uuid, PlayerState state) {
+        if (state.pendingWrites > 0) {
+            state.pendingWrites--;
+        }
+        if (state.isEvictable()) {
+            states.remove(uuid);
+        }
+    }
+
+    private void markPlayerDirty(UUID uuid, PlayerState state) {
+        state.playerDirty = true;
+        dirtyPlayers.add(uuid);
+    }
+
+    private void markJobDirty(UUID uuid, PlayerState state, int jobId) {
+        state.dirtyJobIds.add(jobId);
+        dirtyPlayers.add(uuid);
+    }
+
+    // ========== 統計 ==========
+
+    public int getLoadedCount() {
+        return states.size();
+    }
+
+    public int getDirtyCount() {
+        return dirtyPlayers.size();
+    }
+
+    public Set<UUID> getLoadedPlayers() {
+        return Collections.unmodifiableSet(states.keySet());
+    }
+
+    /**
+     * 読み込み済みプレイヤー数と未書き出しのプレイヤー数を統計の登録簿へ登録する
+     */
+    public void registerStats(StatsRegistry registry) {
+        registry.register("state.players", () ->
+            StatsRegistry.Stats.collection(states.size(), states.size() * PLAYER_STATE_BYTES));
+        registry.register("state.dirty_players", () ->
+            StatsRegistry.Stats.queue(dirtyPlayers.size(),
+                dirtyPlayers.size() * (StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.UUID_BYTES), StatsRegistry.UNKNOWN));
+    }
+
+    // ========== コピー ==========
+
+    static Player copyOf(Player player) {
+        if (player == null) {
+            return null;
+        }
+        Player copy = new Player();
+        copy.setUuid(player.getUuid());
+        copy.setBalance(player.getBalance());
+        copy.setBankBalance(player.getBankBalance());
+        copy.setCreatedAt(copyOf(player.getCreatedAt()));
+        copy.setUpdatedAt(copyOf(player.getUpdatedAt()));
+        return copy;
+    }
+
+    static PlayerJob copyOf(PlayerJob playerJob) {
+        if (playerJob == null) {
+            return null;
+        }
+        PlayerJob copy = new PlayerJob();
+        copy.setUuid(playerJob.getUuid());
+        copy.setJobId(playerJob.getJobId());
+        copy.setLevel(playerJob.getLevel());
+        copy.setExperience(playerJob.getExperience());
+        copy.setJoinedAt(copyOf(playerJob.getJoinedAt()));
+        copy.setUpdatedAt(copyOf(playerJob.getUpdatedAt()));
+        return copy;
+    }
+
+    private static Timestamp copyOf(Timestamp timestamp) {
+        return timestamp != null ? new Timestamp(timestamp.getTime()) : null;
+    }
+}
@@ -0,0 +1,256 @@
+package org.tofu.tofunomics.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 分割LRU（Segmented LRU）キャッシュ
+ * 初回アクセスのエントリは試用領域に入り、2回目のアクセスで保護領域へ昇格する。
+ * 1回しか読まれないエントリが繰り返し読まれるエントリを追い出さないようにする。
+ * 取得・追加・削除・追い出しはすべて定数時間（HashMap＋侵入型の双方向リスト）
+ */
+public class SegmentedLruCache<K, V> {
+
+    // 保護領域に割り当てる容量の割合
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final Map<K, Node<K, V>> entries;
+    private final Segment<K, V> probation = new Segment<>();
+    private final Segment<K, V> protectedSegment = new Segment<>();
+    private final int maxSize;
+    private final int protectedMaxSize;
+    private final long expireAfterWriteMillis;
+    private final LongSupplier clock;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SegmentedLruCache(int maxSize, long expireAfterWriteMillis) {
+        this(maxSize, expireAfterWriteMillis, System::currentTimeMillis);
+    }
+
+    SegmentedLruCache(int maxSize, long expireAfterWriteMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.protectedMaxSize = Math.max(1, (int) (maxSize * PROTECTED_RATIO));
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.clock = clock;
+        this.entries = new HashMap<>(Math.min(maxSize, 1 << 16) * 4 / 3 + 1);
+    }
+
+    /**
+     * エントリを取得し、ヒットしたエントリを保護領域の先頭へ移す
+     * @return 未登録または期限切れの場合はnull
+     */
+    public synchronized V get(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        if (isExpired(node)) {
+            removeNode(node);
+            misses++;
+            return null;
+        }
+        hits++;
+        if (node.segment == protectedSegment) {
+            protectedSegment.moveToHead(node);
+        } else {
+            probation.unlink(node);
+            protectedSegment.addToHead(node);
+            node.segment = protectedSegment;
+            // 保護領域から溢れたエントリは試用領域へ戻し、もう一度機会を与える
+            if (protectedSegment.size > protectedMaxSize) {
+                Node<K, V> demoted = protectedSegment.tail;
+                protectedSegment.unlink(demoted);
+                probation.addToHead(demoted);
+                demoted.segment = probation;
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * エントリを登録する（既存エントリは値と書き込み時刻を置き換え、領域はそのまま）
+     */
+    public synchronized void put(K key, V value) {
+        long now = clock.getAsLong();
+        Node<K, V> node = entries.get(key);
+        if (node != null) {
+            node.value = value;
+            node.writtenAt = now;
+            node.segment.moveToHead(node);
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictOne();
+        }
+        node = new Node<>(key, value, now);
+        node.segment = probation;
+        probation.addToHead(node);
+        entries.put(key, node);
+    }
+
+    /**
+     * 既に登録されている場合だけ値を置き換える（書き込みスルー用、未登録のキーは追加しない）
+     * @return 置き換えた場合はtrue
+     */
+    public synchronized boolean replace(K key, V value) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) {
+            return false;
+        }
+        node.value = value;
+        node.writtenAt = clock.getAsLong();
+        return true;
+    }
+
+    /**
+     * 未登録かつ空きがある場合だけ試用領域へ登録する（事前読み込み用、既存エントリを追い出さない）
+     * @return 登録した場合はtrue
+     */
+    public synchronized boolean offer(K key, V value) {
+        if (entries.containsKey(key) || entries.size() >= maxSize) {
+            return false;
+        }
+        Node<K, V> node = new Node<>(key, value, clock.getAsLong());
+        node.segment = probation;
+        probation.addToHead(node);
+        entries.put(key, node);
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node != null) {
+            removeNode(node);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    /**
+     * 書き込み後の期限を過ぎたエントリを削除する（定期クリーンアップ用）
+     * @return 削除した件数
+     */
+    public synchronized int cleanupExpired() {
+        if (expireAfterWriteMillis <= 0) {
+            return 0;
+        }
+        List<Node<K, V>> expired = new ArrayList<>();
+        for (Node<K, V> node : entries.values()) {
+            if (isExpired(node)) {
+                expired.add(node);
+            }
+        }
+        for (Node<K, V> node : expired) {
+            removeNode(node);
+        }
+        return expired.size();
+    }
+
+    /**
+     * 試用領域の末尾から追い出す（試用領域が空なら保護領域の末尾）
+     */
+    private void evictOne() {
+        Node<K, V> victim = probation.tail != null ? probation.tail : protectedSegment.tail;
+        if (victim != null) {
+            removeNode(victim);
+            evictions++;
+        }
+    }
+
+    private void removeNode(Node<K, V> node) {
+        node.segment.unlink(node);
+        entries.remove(node.key);
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return expireAfterWriteMillis > 0 && clock.getAsLong() - node.writtenAt > expireAfterWriteMillis;
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public int getMaxSize() { return maxSize; }
+
+    // ========== 内部クラス ==========
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private long writtenAt;
+        private Segment<K, V> segment;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long writtenAt) {
+            this.key = key;
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    /**
+     * 先頭が最近使われた順の双方向リスト
+     */
+    private static final class Segment<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private int size;
+
+        private void addToHead(Node<K, V> node) {
+            node.prev = null;
+            node.next = head;
+            if (head != null) {
+                head.prev = node;
+            }
+            head = node;
+            if (tail == null) {
+                tail = node;
+            }
+            size++;
+        }
+
+        private void unlink(Node<K, V> node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                head = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            } else {
+                tail = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        private void moveToHead(Node<K, V> node) {
+            if (head != node) {
+                unlink(node);
+                addToHead(node);
+            }
+        }
+
+        private void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.tofu.tofunomics.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 総資産（所持金 + 銀行預金）ランキングのメモリ上インデックス
+ * 起動時に一度だけDBから読み込み、以降はPlayerDAOの残高更新ごとに差分で反映する
+ * 部分木サイズ付きのtreapで保持し、順位は O(log n)、上位N件は O(log n + N) で返す（テーブルを走査しない）
+ */
+public class WealthLeaderboard {
+
+    /**
+     * ランキングの1行（不変）
+     */
+    public static final class Entry {
+        private final UUID uuid;
+        private final double balance;
+        private final double bankBalance;
+
+        public Entry(UUID uuid, double balance, double bankBalance) {
+            this.uuid = uuid;
+            this.balance = balance;
+            this.bankBalance = bankBalance;
+        }
+
+        public UUID getUuid() { return uuid; }
+        public double getBalance() { return balance; }
+        public double getBankBalance() { return bankBalance; }
+        public double getTotal() { return balance + bankBalance; }
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        private final double total;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Entry entry) {
+            this.entry = entry;
+            this.total = entry.getTotal();
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private Node root;
+    private volatile boolean loaded;
+
+    /**
+     * 全プレイヤーの残高でインデックスを作り直す（起動時に1回）
+     */
+    public synchronized void load(Collection<Entry> allEntries) {
+        entries.clear();
+        root = null;
+        for (Entry entry : allEntries) {
+            put(entry);
+        }
+        loaded = true;
+    }
+
+    /**
+     * 読み込み済みでなければランキングには使えない（DAOはDBへフォールバックする）
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 所持金と銀行預金を書き換える（存在しない場合は追加する）
+     */
+    public synchronized void update(UUID uuid, double balance, double bankBalance) {
+        put(new Entry(uuid, balance, bankBalance));
+    }
+
+    /**
+     * 所持金のみを書き換える（インデックスにないプレイヤーは無視する）
+     */
+    public synchronized void updateBalance(UUID uuid, double balance) {
+        Entry current = entries.get(uuid);
+        if (current != null) {
+            put(new Entry(uuid, balance, current.getBankBalance()));
+        }
+    }
+
+    /**
+     * 銀行預金のみを書き換える（インデックスにないプレイヤーは無視する）
+     */
+    public synchronized void updateBankBalance(UUID uuid, double bankBalance) {
+        Entry current = entries.get(uuid);
+        if (current != null) {
+            put(new Entry(uuid, current.getBalance(), bankBalance));
+        }
+    }
+
+    /**
+     * 所持金と銀行預金を増減する（インデックスにないプレイヤーは無視する）
+     */
+    public synchronized void adjust(UUID uuid, double balanceDelta, double bankDelta) {
+        Entry current = entries.get(uuid);
+        if (current != null) {
+            put(new Entry(uuid, current.getBalance() + balanceDelta, current.getBankBalance() + bankDelta));
+        }
+    }
+
+    public synchronized void remove(UUID uuid) {
+        Entry current = entries.remove(uuid);
+        if (current != null) {
+            root = erase(root, current.getTotal(), uuid);
+        }
+    }
+
+    /**
+     * 総資産の多い順に上位N件を返す
+     */
+    public synchronized List<Entry> getTop(int limit) {
+        List<Entry> result = new ArrayList<>(Math.min(Math.max(limit, 0), entries.size()));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && result.size() < limit) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.add(node.entry);
+            node = node.right;
+        }
+        return result;
+    }
+
+    /**
+     * 総資産の順位（1位から、インデックスにない場合は0）
+     */
+    public synchronized int getRank(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null) {
+            return 0;
+        }
+        double total = entry.getTotal();
+        int rank = 1;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(total, uuid, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left);
+                if (cmp == 0) {
+                    return rank;
+                }
+                rank++;
+                node = node.right;
+            }
+        }
+        return 0;
+    }
+
+    public synchronized Entry getEntry(UUID uuid) {
+        return entries.get(uuid);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // ========== treap操作 ==========
+
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.getUuid(), entry);
+        if (previous != null) {
+            root = erase(root, previous.getTotal(), previous.getUuid());
+        }
+        Node[] parts = split(root, entry.getTotal(), entry.getUuid());
+        root = merge(merge(parts[0], new Node(entry)), parts[1]);
+    }
+
+    /**
+     * 総資産の降順、同額ならUUIDの昇順
+     */
+    private static int compare(double total, UUID uuid, Node node) {
+        int cmp = Double.compare(node.total, total);
+        return cmp != 0 ? cmp : uuid.compareTo(node.entry.getUuid());
+    }
+
+    /**
+     * キーより前のノードと、キー以降のノードに分割する
+     */
+    private static Node[] split(Node node, double total, UUID uuid) {
+        if (node == null) {
+            return new Node[] { null, null };
+        }
+        if (compare(total, uuid, node) > 0) {
+            Node[] parts = split(node.right, total, uuid);
+            node.right = parts[0];
+            update(node);
+            return new Node[] { node, parts[1] };
+        }
+        Node[] parts = split(node.left, total, uuid);
+        node.left = parts[1];
+        update(node);
+        return new Node[] { parts[0], node };
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node erase(Node node, double total, UUID uuid) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(total, uuid, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = erase(node.left, total, uuid);
+        } else {
+            node.right = erase(node.right, total, uuid);
+        }
+        update(node);
+        return node;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
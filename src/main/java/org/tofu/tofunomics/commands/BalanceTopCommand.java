@@ -1,16 +1,18 @@
 package org.tofu.tofunomics.commands;
 
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.tofu.tofunomics.cache.WealthLeaderboard;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.economy.CurrencyConverter;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class BalanceTopCommand implements CommandExecutor {
@@ -18,11 +20,14 @@ public class BalanceTopCommand implements CommandExecutor {
     private final ConfigManager configManager;
     private final CurrencyConverter currencyConverter;
     private final PlayerDAO playerDAO;
+    private final WealthLeaderboard wealthLeaderboard;
     
-    public BalanceTopCommand(ConfigManager configManager, CurrencyConverter currencyConverter, PlayerDAO playerDAO) {
+    public BalanceTopCommand(ConfigManager configManager, CurrencyConverter currencyConverter, PlayerDAO playerDAO,
+                             WealthLeaderboard wealthLeaderboard) {
         this.configManager = configManager;
         this.currencyConverter = currencyConverter;
         this.playerDAO = playerDAO;
+        this.wealthLeaderboard = wealthLeaderboard;
     }
     
     @Override
@@ -47,13 +52,50 @@ public class BalanceTopCommand implements CommandExecutor {
             return true;
         }
         
-        List<org.tofu.tofunomics.models.Player> topPlayers = playerDAO.getTopPlayersByBalance(limit);
+        // ランキングが読み込み済みならメモリ上のインデックスからそのまま表示する
+        if (wealthLeaderboard.isLoaded()) {
+            try {
+                sendRanking(sender, playerDAO.getTopPlayers(limit), limit);
+            } catch (java.sql.SQLException e) {
+                sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+            }
+            return true;
+        }
+        
+        // 未読み込みの場合はDBスレッドで取得し、表示はメインスレッドで行う
+        final int displayLimit = limit;
+        playerDAO.getTopPlayersAsync(displayLimit).whenComplete((topPlayers, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+                return;
+            }
+            sendRanking(sender, topPlayers, displayLimit);
+        });
         
+        return true;
+    }
+    
+    private void sendRanking(CommandSender sender, List<org.tofu.tofunomics.models.Player> topPlayers, int limit) {
         if (topPlayers.isEmpty()) {
             sender.sendMessage(ChatColor.YELLOW + "残高データが見つかりませんでした。");
-            return true;
+            return;
         }
         
+        // 名簿にない名前はDBスレッドで補い、表示はメインスレッドで行う
+        List<UUID> uuids = new ArrayList<>(topPlayers.size());
+        for (org.tofu.tofunomics.models.Player tofuPlayer : topPlayers) {
+            uuids.add(tofuPlayer.getUuid());
+        }
+        playerDAO.resolvePlayerNamesAsync(uuids).whenComplete((playerNames, error) -> {
+            if (error != null) {
+                playerNames = playerDAO.getNameDirectory().resolve(uuids);
+            }
+            sendRanking(sender, topPlayers, limit, playerNames);
+        });
+    }
+    
+    private void sendRanking(CommandSender sender, List<org.tofu.tofunomics.models.Player> topPlayers, int limit,
+                             Map<UUID, String> playerNames) {
         String currencySymbol = configManager.getCurrencySymbol();
         
         sender.sendMessage(ChatColor.GOLD + "==================== 残高ランキング TOP " + limit + " ====================");
@@ -62,7 +104,7 @@ public class BalanceTopCommand implements CommandExecutor {
             org.tofu.tofunomics.models.Player tofuPlayer = topPlayers.get(i);
             int rank = i + 1;
             
-            String playerName = getPlayerName(tofuPlayer.getUuid().toString());
+            String playerName = playerNames.getOrDefault(tofuPlayer.getUuid(), "Unknown");
             String formattedBalance = currencyConverter.formatCurrency(tofuPlayer.getBalance());
             
             ChatColor rankColor = getRankColor(rank);
@@ -75,20 +117,14 @@ public class BalanceTopCommand implements CommandExecutor {
                 ChatColor.GREEN, formattedBalance, currencySymbol));
         }
         
-        sender.sendMessage(ChatColor.GOLD + "================================================================");
-        
-        return true;
-    }
-    
-    private String getPlayerName(String uuidString) {
-        try {
-            UUID uuid = UUID.fromString(uuidString);
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(uuid);
-            String name = offlinePlayer.getName();
-            return name != null ? name : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
+        if (sender instanceof Player) {
+            int ownRank = playerDAO.getWealthRank(((Player) sender).getUniqueId());
+            if (ownRank > 0) {
+                sender.sendMessage(ChatColor.AQUA + "あなたの順位: " + ownRank + "位 / " + wealthLeaderboard.size() + "人");
+            }
         }
+        
+        sender.sendMessage(ChatColor.GOLD + "================================================================");
     }
     
     private ChatColor getRankColor(int rank) {
@@ -87,15 +87,12 @@ public class ClockCommand implements CommandExecutor, TabCompleter {
                 return true;
             }
             
-            double balance = playerData.getBalance();
-            if (balance < price) {
+            // 残高の確認と購入価格の差し引きをDAOのロック内でまとめて行う
+            if (!playerDAO.adjustBalance(player.getUniqueId(), -price)) {
                 player.sendMessage(configManager.getClockItemInsufficientFundsMessage(price));
                 return true;
             }
             
-            // 残高から購入価格を差し引く
-            playerDAO.updateBalance(player.getUniqueId(), balance - price);
-            
             // 時計アイテムを付与
             clockItemManager.giveClockItem(player);
             
@@ -8,18 +8,28 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.database.DatabaseExecutor;
 import org.tofu.tofunomics.economy.CurrencyConverter;
 
+import java.util.UUID;
+
 public class EcoCommand implements CommandExecutor {
     
     private final ConfigManager configManager;
     private final CurrencyConverter currencyConverter;
     private final PlayerDAO playerDAO;
+    private final DatabaseExecutor databaseExecutor;
     
     public EcoCommand(ConfigManager configManager, CurrencyConverter currencyConverter, PlayerDAO playerDAO) {
+        this(configManager, currencyConverter, playerDAO, DatabaseExecutor.inline());
+    }
+    
+    public EcoCommand(ConfigManager configManager, CurrencyConverter currencyConverter, PlayerDAO playerDAO,
+                      DatabaseExecutor databaseExecutor) {
         this.configManager = configManager;
         this.currencyConverter = currencyConverter;
         this.playerDAO = playerDAO;
+        this.databaseExecutor = databaseExecutor;
     }
     
     @Override
@@ -85,43 +95,28 @@ public class EcoCommand implements CommandExecutor {
             return true;
         }
         
-        String uuid = targetPlayer.getUniqueId().toString();
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(uuid);
-            tofuPlayer.setBalance(0.0); // 持ち歩き現金は0に設定
-            tofuPlayer.setBankBalance(amount); // 銀行預金を設定
-            
-            if (playerDAO.insertPlayer(tofuPlayer)) {
-                String formattedAmount = currencyConverter.formatCurrency(amount);
-                String currencySymbol = configManager.getCurrencySymbol();
-                
-                sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " に " + 
-                    formattedAmount + " " + currencySymbol + " を付与しました。");
-                    
-                targetPlayer.sendMessage(ChatColor.GREEN + "管理者により " + 
-                    formattedAmount + " " + currencySymbol + " が付与されました。");
-            } else {
+        UUID uuid = targetPlayer.getUniqueId();
+        databaseExecutor.run(uuid, () -> {
+            // 銀行預金に追加（残高の読み取りと書き込みはDAOのロック内で行う）
+            if (!playerDAO.adjustBankBalance(uuid, amount)) {
+                // 行がない場合は持ち歩き現金0・付与額の預金で作成
+                playerDAO.createPlayer(new org.tofu.tofunomics.models.Player(uuid, 0.0, amount));
+            }
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
                 sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+                return;
             }
-        } else {
-            tofuPlayer.addBankBalance(amount); // 銀行預金に追加
             
-            if (playerDAO.updatePlayerData(tofuPlayer)) {
-                String formattedAmount = currencyConverter.formatCurrency(amount);
-                String currencySymbol = configManager.getCurrencySymbol();
+            String formattedAmount = currencyConverter.formatCurrency(amount);
+            String currencySymbol = configManager.getCurrencySymbol();
+            
+            sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " に " + 
+                formattedAmount + " " + currencySymbol + " を付与しました。");
                 
-                sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " に " + 
-                    formattedAmount + " " + currencySymbol + " を付与しました。");
-                    
-                targetPlayer.sendMessage(ChatColor.GREEN + "管理者により " + 
-                    formattedAmount + " " + currencySymbol + " が付与されました。");
-            } else {
-                sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
-            }
-        }
+            targetPlayer.sendMessage(ChatColor.GREEN + "管理者により " + 
+                formattedAmount + " " + currencySymbol + " が付与されました。");
+        });
         
         return true;
     }
@@ -157,17 +152,29 @@ public class EcoCommand implements CommandExecutor {
             return true;
         }
         
-        String uuid = targetPlayer.getUniqueId().toString();
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        
-        if (tofuPlayer == null) {
-            sender.sendMessage(ChatColor.RED + "対象プレイヤーのデータが見つかりません。");
-            return true;
-        }
-        
-        tofuPlayer.removeBankBalance(amount); // 銀行預金から減算
-        
-        if (playerDAO.updatePlayerData(tofuPlayer)) {
+        UUID uuid = targetPlayer.getUniqueId();
+        // 戻り値: null=データなし, true/false=減算できたか
+        databaseExecutor.supply(uuid, () -> {
+            if (playerDAO.getPlayer(uuid) == null) {
+                return null;
+            }
+            
+            // 銀行預金から減算（足りない場合は変更しない）
+            return playerDAO.adjustBankBalance(uuid, -amount);
+        }).whenComplete((taken, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+                return;
+            }
+            if (taken == null) {
+                sender.sendMessage(ChatColor.RED + "対象プレイヤーのデータが見つかりません。");
+                return;
+            }
+            if (!taken) {
+                sender.sendMessage(ChatColor.RED + targetPlayer.getName() + " の銀行預金が不足しています。");
+                return;
+            }
+            
             String formattedAmount = currencyConverter.formatCurrency(amount);
             String currencySymbol = configManager.getCurrencySymbol();
             
@@ -176,9 +183,7 @@ public class EcoCommand implements CommandExecutor {
                 
             targetPlayer.sendMessage(ChatColor.YELLOW + "管理者により " + 
                 formattedAmount + " " + currencySymbol + " が取り上げられました。");
-        } else {
-            sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
-        }
+        });
         
         return true;
     }
@@ -213,37 +218,28 @@ public class EcoCommand implements CommandExecutor {
             return true;
         }
         
-        String uuid = targetPlayer.getUniqueId().toString();
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(uuid);
-            tofuPlayer.setBalance(0.0); // 持ち歩き現金は0に設定
-            tofuPlayer.setBankBalance(amount); // 銀行預金を設定
-            
-            if (playerDAO.insertPlayer(tofuPlayer)) {
-                String formattedAmount = currencyConverter.formatCurrency(amount);
-                String currencySymbol = configManager.getCurrencySymbol();
-                
-                sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " の残高を " + 
-                    formattedAmount + " " + currencySymbol + " に設定しました。");
-            } else {
-                sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+        UUID uuid = targetPlayer.getUniqueId();
+        databaseExecutor.run(uuid, () -> {
+            if (playerDAO.getPlayer(uuid) == null) {
+                // 持ち歩き現金は0、銀行預金を設定額で作成
+                playerDAO.createPlayer(new org.tofu.tofunomics.models.Player(uuid, 0.0, amount));
+                return;
             }
-        } else {
-            tofuPlayer.setBankBalance(amount); // 銀行預金を設定
             
-            if (playerDAO.updatePlayerData(tofuPlayer)) {
-                String formattedAmount = currencyConverter.formatCurrency(amount);
-                String currencySymbol = configManager.getCurrencySymbol();
-                
-                sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " の残高を " + 
-                    formattedAmount + " " + currencySymbol + " に設定しました。");
-            } else {
+            // 銀行預金のみを書き換える（所持金は読み直さない）
+            playerDAO.updateBankBalance(uuid, amount);
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
                 sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+                return;
             }
-        }
+            
+            String formattedAmount = currencyConverter.formatCurrency(amount);
+            String currencySymbol = configManager.getCurrencySymbol();
+            
+            sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " の残高を " + 
+                formattedAmount + " " + currencySymbol + " に設定しました。");
+        });
         
         return true;
     }
@@ -263,34 +259,24 @@ public class EcoCommand implements CommandExecutor {
             return true;
         }
         
-        String uuid = targetPlayer.getUniqueId().toString();
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(uuid);
-            tofuPlayer.setBalance(0.0);
-            tofuPlayer.setBankBalance(0.0);
-            
-            if (playerDAO.insertPlayer(tofuPlayer)) {
-                String currencySymbol = configManager.getCurrencySymbol();
-                sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " の所持金と預金をリセットしました。（残高: 0.0 " + currencySymbol + "）");
-                targetPlayer.sendMessage(ChatColor.YELLOW + "管理者により所持金と預金がリセットされました。");
+        UUID uuid = targetPlayer.getUniqueId();
+        databaseExecutor.run(uuid, () -> {
+            org.tofu.tofunomics.models.Player emptyPlayer = new org.tofu.tofunomics.models.Player(uuid, 0.0, 0.0);
+            if (playerDAO.getPlayer(uuid) == null) {
+                playerDAO.createPlayer(emptyPlayer);
             } else {
-                sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+                playerDAO.updatePlayer(emptyPlayer);
             }
-        } else {
-            tofuPlayer.setBalance(0.0);
-            tofuPlayer.setBankBalance(0.0);
-            
-            if (playerDAO.updatePlayerData(tofuPlayer)) {
-                String currencySymbol = configManager.getCurrencySymbol();
-                sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " の所持金と預金をリセットしました。（残高: 0.0 " + currencySymbol + "）");
-                targetPlayer.sendMessage(ChatColor.YELLOW + "管理者により所持金と預金がリセットされました。");
-            } else {
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
                 sender.sendMessage(ChatColor.RED + "データベースエラーが発生しました。");
+                return;
             }
-        }
+            
+            String currencySymbol = configManager.getCurrencySymbol();
+            sender.sendMessage(ChatColor.GREEN + targetPlayer.getName() + " の所持金と預金をリセットしました。（残高: 0.0 " + currencySymbol + "）");
+            targetPlayer.sendMessage(ChatColor.YELLOW + "管理者により所持金と預金がリセットされました。");
+        });
         
         return true;
     }
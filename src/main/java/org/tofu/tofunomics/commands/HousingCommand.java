@@ -182,15 +182,10 @@ public class HousingCommand implements CommandExecutor, TabCompleter {
                 units = Integer.parseInt(periodInput);
             }
 
-            HousingRentalManager.RentalResult result = rentalManager.rentProperty(
+            // 結果はメインスレッドで通知
+            rentalManager.rentProperty(
                 player.getUniqueId(), propertyId, period, units
-            );
-
-            if (result.isSuccess()) {
-                player.sendMessage("§a" + result.getMessage());
-            } else {
-                player.sendMessage("§c" + result.getMessage());
-            }
+            ).thenAccept(result -> sendRentalResult(player, result));
             
         } catch (NumberFormatException e) {
             player.sendMessage("§c数値の形式が正しくありません");
@@ -199,6 +194,17 @@ public class HousingCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    /**
+     * 賃貸処理の結果をプレイヤーに通知
+     */
+    private void sendRentalResult(Player player, HousingRentalManager.RentalResult result) {
+        if (result.isSuccess()) {
+            player.sendMessage("§a" + result.getMessage());
+        } else {
+            player.sendMessage("§c" + result.getMessage());
+        }
+    }
+
     /**
      * 自分の賃貸契約一覧
      */
@@ -257,15 +263,10 @@ public class HousingCommand implements CommandExecutor, TabCompleter {
             int propertyId = Integer.parseInt(args[1]);
             int additionalDays = Integer.parseInt(args[2]);
 
-            HousingRentalManager.RentalResult result = rentalManager.extendRental(
+            // 結果はメインスレッドで通知
+            rentalManager.extendRental(
                 player.getUniqueId(), propertyId, additionalDays
-            );
-
-            if (result.isSuccess()) {
-                player.sendMessage("§a" + result.getMessage());
-            } else {
-                player.sendMessage("§c" + result.getMessage());
-            }
+            ).thenAccept(result -> sendRentalResult(player, result));
             
         } catch (NumberFormatException e) {
             player.sendMessage("§c数値の形式が正しくありません");
@@ -286,15 +287,10 @@ public class HousingCommand implements CommandExecutor, TabCompleter {
         try {
             int propertyId = Integer.parseInt(args[1]);
 
-            HousingRentalManager.RentalResult result = rentalManager.cancelRental(
+            // 結果はメインスレッドで通知
+            rentalManager.cancelRental(
                 player.getUniqueId(), propertyId
-            );
-
-            if (result.isSuccess()) {
-                player.sendMessage("§a" + result.getMessage());
-            } else {
-                player.sendMessage("§c" + result.getMessage());
-            }
+            ).thenAccept(result -> sendRentalResult(player, result));
             
         } catch (NumberFormatException e) {
             player.sendMessage("§c物件IDは数字で指定してください");
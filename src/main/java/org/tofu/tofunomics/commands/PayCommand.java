@@ -7,16 +7,29 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.database.DatabaseExecutor;
 import org.tofu.tofunomics.economy.CurrencyConverter;
 
 public class PayCommand implements CommandExecutor {
     
     private final ConfigManager configManager;
     private final CurrencyConverter currencyConverter;
+    private final DatabaseExecutor databaseExecutor;
+    
+    private enum PayResult {
+        SUCCESS,
+        INSUFFICIENT_BALANCE,
+        FAILED
+    }
     
     public PayCommand(ConfigManager configManager, CurrencyConverter currencyConverter) {
+        this(configManager, currencyConverter, DatabaseExecutor.inline());
+    }
+    
+    public PayCommand(ConfigManager configManager, CurrencyConverter currencyConverter, DatabaseExecutor databaseExecutor) {
         this.configManager = configManager;
         this.currencyConverter = currencyConverter;
+        this.databaseExecutor = databaseExecutor;
     }
     
     @Override
@@ -75,47 +88,55 @@ public class PayCommand implements CommandExecutor {
         double fee = amount * (configManager.getPayFeePercentage() / 100.0);
         double totalCost = amount + fee;
         
-        if (!currencyConverter.canAfford(fromPlayer, totalCost)) {
-            sender.sendMessage(ChatColor.translateAlternateColorCodes('&', 
-                configManager.getMessagePrefix() + configManager.getMessage("insufficient_balance")));
-            return true;
-        }
-        
-        // 送金額のみを受取人に送金し、手数料は送金者から差し引く
-        if (currencyConverter.transfer(fromPlayer, targetPlayer, amount)) {
-            // 手数料がある場合は送金者から追加で差し引く
-            if (fee > 0) {
-                currencyConverter.subtractBalance(fromPlayer.getUniqueId(), fee);
+        // 残高確認・送金・手数料徴収はDAOの1回のロック内で行い、結果だけメインスレッドで通知
+        databaseExecutor.supply(fromPlayer.getUniqueId(), () -> {
+            if (!currencyConverter.canAfford(fromPlayer, totalCost)) {
+                return PayResult.INSUFFICIENT_BALANCE;
             }
             
-            String formattedAmount = currencyConverter.formatCurrency(amount);
-            String currencySymbol = configManager.getCurrencySymbol();
-            
-            String senderMessage = configManager.getMessage("economy.pay_sent",
-                "player", targetPlayer.getName(),
-                "amount", formattedAmount,
-                "currency", currencySymbol);
-            
-            String receiverMessage = configManager.getMessage("economy.pay_received",
-                "player", fromPlayer.getName(),
-                "amount", formattedAmount,
-                "currency", currencySymbol);
-            
-            fromPlayer.sendMessage(ChatColor.translateAlternateColorCodes('&', 
-                configManager.getMessagePrefix() + senderMessage));
-            
-            targetPlayer.sendMessage(ChatColor.translateAlternateColorCodes('&', 
-                configManager.getMessagePrefix() + receiverMessage));
-            
-            if (fee > 0) {
-                fromPlayer.sendMessage(ChatColor.YELLOW + "送金手数料: " + 
-                    currencyConverter.formatCurrency(fee) + " " + currencySymbol);
+            // 送金額のみを受取人に送金し、手数料は同じ操作で送金者から差し引く
+            if (!currencyConverter.transfer(fromPlayer, targetPlayer, amount, fee)) {
+                // 事前確認の後に残高が減った場合は残高不足として扱う
+                return currencyConverter.canAfford(fromPlayer, totalCost) ? PayResult.FAILED : PayResult.INSUFFICIENT_BALANCE;
             }
-            
-        } else {
-            sender.sendMessage(ChatColor.RED + "送金に失敗しました。しばらくしてから再度お試しください。");
-        }
+            return PayResult.SUCCESS;
+        }).whenComplete((result, error) -> {
+            if (error != null || result == PayResult.FAILED) {
+                sender.sendMessage(ChatColor.RED + "送金に失敗しました。しばらくしてから再度お試しください。");
+            } else if (result == PayResult.INSUFFICIENT_BALANCE) {
+                sender.sendMessage(ChatColor.translateAlternateColorCodes('&', 
+                    configManager.getMessagePrefix() + configManager.getMessage("insufficient_balance")));
+            } else {
+                sendPaySuccessMessages(fromPlayer, targetPlayer, amount, fee);
+            }
+        });
         
         return true;
     }
+    
+    private void sendPaySuccessMessages(Player fromPlayer, Player targetPlayer, double amount, double fee) {
+        String formattedAmount = currencyConverter.formatCurrency(amount);
+        String currencySymbol = configManager.getCurrencySymbol();
+        
+        String senderMessage = configManager.getMessage("economy.pay_sent",
+            "player", targetPlayer.getName(),
+            "amount", formattedAmount,
+            "currency", currencySymbol);
+        
+        String receiverMessage = configManager.getMessage("economy.pay_received",
+            "player", fromPlayer.getName(),
+            "amount", formattedAmount,
+            "currency", currencySymbol);
+        
+        fromPlayer.sendMessage(ChatColor.translateAlternateColorCodes('&', 
+            configManager.getMessagePrefix() + senderMessage));
+        
+        targetPlayer.sendMessage(ChatColor.translateAlternateColorCodes('&', 
+            configManager.getMessagePrefix() + receiverMessage));
+        
+        if (fee > 0) {
+            fromPlayer.sendMessage(ChatColor.YELLOW + "送金手数料: " + 
+                currencyConverter.formatCurrency(fee) + " " + currencySymbol);
+        }
+    }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package org.tofu.tofunomics.commands;
 
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
 import org.tofu.tofunomics.TofuNomics;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.npc.BankNPCManager;
@@ -11,10 +13,24 @@ import org.tofu.tofunomics.npc.NPCManager;
 import org.tofu.tofunomics.npc.TradingNPCManager;
 import org.tofu.tofunomics.npc.FoodNPCManager;
 import org.tofu.tofunomics.npc.ProcessingNPCManager;
+import org.tofu.tofunomics.cache.CacheManager;
+import org.tofu.tofunomics.cache.PlayerNameDirectory;
+import org.tofu.tofunomics.performance.MetricsStore;
+import org.tofu.tofunomics.performance.PerformanceMonitor;
+import org.tofu.tofunomics.performance.StatsRegistry;
+import org.tofu.tofunomics.trace.Tracer;
 
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 public class TofuNomicsCommand implements CommandExecutor, TabCompleter {
     
@@ -43,6 +59,12 @@ public class TofuNomicsCommand implements CommandExecutor, TabCompleter {
                 return handleStatusCommand(sender);
             case "version":
                 return handleVersionCommand(sender);
+            case "perf":
+                return handlePerfCommand(sender, args);
+            case "stats":
+                return handleStatsCommand(sender, args);
+            case "trace":
+                return handleTraceCommand(sender, args);
             case "config":
                 // configサブコマンドに処理を委譲
                 return handleConfigCommand(sender, args);
@@ -68,7 +90,22 @@ public class TofuNomicsCommand implements CommandExecutor, TabCompleter {
         try {
             // 設定リロード
             plugin.reloadConfig();
-            
+
+            // 職業データのスナップショットを再構築
+            if (plugin.getJobManager() != null && !plugin.getJobManager().reloadJobRegistry()) {
+                sender.sendMessage("§c職業データの再読み込みに失敗しました。以前のデータを使用します。");
+            }
+
+            // 報酬ルールを新しい設定と職業データで作り直す
+            if (plugin.getRewardRuleEngine() != null) {
+                plugin.getRewardRuleEngine().reload();
+            }
+
+            // 最近活動したプレイヤーをキャッシュへ事前読み込み（キャッシュ済みのプレイヤーはそのまま）
+            if (plugin.getCacheManager() != null) {
+                plugin.getCacheManager().warmupRecentPlayers();
+            }
+
             sender.sendMessage("§aTofuNomicsプラグインのリロードが完了しました。");
             sender.sendMessage("§e注意: 完全なリロードにはプラグインの再起動が推奨されます。");
             plugin.getLogger().info("プラグインがリロードされました（実行者: " + sender.getName() + "）");
@@ -95,9 +132,251 @@ public class TofuNomicsCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage("§e管理NPC数: §f" + plugin.getNPCManager().getAllNPCs().size() + " 個");
         }
         
+        if (plugin.getCacheManager() != null) {
+            CacheManager.WarmupStatus warmup = plugin.getCacheManager().getWarmupStatus();
+            sender.sendMessage(String.format("§eキャッシュ事前読み込み: §f%s %d/%d人 (%.0f%%, プレイヤー %d人・職業 %d人, %dms)",
+                warmup.getState(), warmup.getProcessedPlayers(), warmup.getTargetPlayers(), warmup.getProgress() * 100,
+                warmup.getCachedPlayers(), warmup.getCachedPlayerJobs(), warmup.getDurationMillis()));
+        }
+        
+        return true;
+    }
+    
+    /**
+     * パフォーマンスメトリクスの表示
+     * /tofunomics perf                 - 記録中のメトリクスと最新値
+     * /tofunomics perf <メトリクス> [期間] - 期間内の推移（期間: 30s, 10m, 6h, 7d など。既定は1h）
+     */
+    private boolean handlePerfCommand(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("tofunomics.admin")) {
+            sender.sendMessage(configManager.getMessage("no_permission"));
+            return true;
+        }
+        
+        PerformanceMonitor monitor = plugin.getPerformanceMonitor();
+        if (monitor == null) {
+            sender.sendMessage("§cパフォーマンス統計は無効化されています。");
+            return true;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage("§6=== パフォーマンスメトリクス（最新値） ===");
+            for (String name : monitor.getMetricNames()) {
+                PerformanceMonitor.PerformanceMetric metric = monitor.getLatestMetric(name);
+                if (metric != null) {
+                    sender.sendMessage(String.format("§e%s: §f%.2f", name, metric.getValue()));
+                }
+            }
+            sender.sendMessage("§7/tofunomics perf <メトリクス> [期間] で推移を表示します");
+            return true;
+        }
+        
+        String name = args[1];
+        String rangeLabel = args.length >= 3 ? args[2] : "1h";
+        long rangeMillis = parseDuration(rangeLabel);
+        if (rangeMillis <= 0) {
+            sender.sendMessage("§c無効な期間です。例: 30s, 10m, 6h, 7d");
+            return true;
+        }
+        
+        long now = System.currentTimeMillis();
+        List<MetricsStore.MetricPoint> points = monitor.queryMetric(name, now - rangeMillis, now, 12);
+        if (points.isEmpty()) {
+            sender.sendMessage("§eメトリクス " + name + " の記録はありません。");
+            return true;
+        }
+        
+        SimpleDateFormat format = new SimpleDateFormat(rangeMillis > 86_400_000L ? "MM/dd HH:mm" : "HH:mm:ss");
+        sender.sendMessage("§6=== " + name + "（直近" + rangeLabel + "） ===");
+        for (MetricsStore.MetricPoint point : points) {
+            sender.sendMessage(String.format("§7%s §f平均 %.2f §7(最小 %.2f / 最大 %.2f)",
+                format.format(new Date(point.getTimestamp())), point.getAverage(), point.getMin(), point.getMax()));
+        }
+        return true;
+    }
+    
+    /**
+     * キャッシュ・キューの統計の表示
+     * /tofunomics stats      - 登録されている全キャッシュ・キューの現在値
+     * /tofunomics stats dump - 現在値を stats.json へ書き出す
+     */
+    private boolean handleStatsCommand(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("tofunomics.admin")) {
+            sender.sendMessage(configManager.getMessage("no_permission"));
+            return true;
+        }
+        
+        StatsRegistry registry = plugin.getStatsRegistry();
+        if (registry == null) {
+            sender.sendMessage("§c統計はまだ初期化されていません。");
+            return true;
+        }
+        
+        if (args.length >= 2 && "dump".equalsIgnoreCase(args[1])) {
+            File dumpFile = plugin.getStatsDumpFile();
+            try {
+                Map<String, StatsRegistry.Stats> snapshots = registry.writeDump(dumpFile);
+                sender.sendMessage("§a統計を書き出しました: §f" + dumpFile.getPath() + " §7(" + snapshots.size() + "件)");
+            } catch (IOException e) {
+                sender.sendMessage("§c統計の書き出しに失敗しました: " + e.getMessage());
+            }
+            return true;
+        }
+        
+        Map<String, StatsRegistry.Stats> snapshots = registry.snapshotAll();
+        Runtime runtime = Runtime.getRuntime();
+        sender.sendMessage("§6=== キャッシュ・キュー統計 ===");
+        for (Map.Entry<String, StatsRegistry.Stats> entry : snapshots.entrySet()) {
+            sender.sendMessage("§e" + entry.getKey() + ": §f" + formatStats(entry.getValue()));
+        }
+        sender.sendMessage(String.format("§e推定合計: §f%s §7(ヒープ使用 %s / 最大 %s)",
+            formatBytes(StatsRegistry.getTotalEstimatedBytes(snapshots)),
+            formatBytes(runtime.totalMemory() - runtime.freeMemory()), formatBytes(runtime.maxMemory())));
+        sender.sendMessage("§7/tofunomics stats dump で stats.json へ書き出します");
+        return true;
+    }
+    
+    /**
+     * 動作トレースの切り替え（記録は trace/trace.log へ書き出す）
+     * /tofunomics trace                      - カテゴリごとの状態
+     * /tofunomics trace <カテゴリ|all> [プレイヤー] - 全員またはプレイヤー単位で切り替え
+     * /tofunomics trace off                  - すべて無効
+     */
+    private boolean handleTraceCommand(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("tofunomics.admin")) {
+            sender.sendMessage(configManager.getMessage("no_permission"));
+            return true;
+        }
+        
+        Tracer tracer = plugin.getTracer();
+        if (tracer == null) {
+            sender.sendMessage("§cトレースはまだ初期化されていません。");
+            return true;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage("§6=== 動作トレース ===");
+            for (Tracer.Category category : Tracer.Category.values()) {
+                sender.sendMessage("§e" + category.getKey() + ": §f" + describeTraceTarget(tracer, category));
+            }
+            sender.sendMessage("§7出力先: " + tracer.getLogFile().getPath());
+            sender.sendMessage("§7/tofunomics trace <" + String.join("|", getTraceCategoryKeys()) + "|all|off> [プレイヤー]");
+            return true;
+        }
+        
+        if ("off".equalsIgnoreCase(args[1])) {
+            tracer.disableAll();
+            sender.sendMessage("§aすべてのトレースを無効にしました");
+            return true;
+        }
+        
+        List<Tracer.Category> categories = new ArrayList<>();
+        if ("all".equalsIgnoreCase(args[1])) {
+            categories.addAll(Arrays.asList(Tracer.Category.values()));
+        } else {
+            Tracer.Category category = Tracer.Category.fromKey(args[1]);
+            if (category == null) {
+                sender.sendMessage("§c不明なカテゴリです: " + args[1] + " §7(" + String.join(", ", getTraceCategoryKeys()) + ")");
+                return true;
+            }
+            categories.add(category);
+        }
+        
+        UUID target = null;
+        if (args.length >= 3) {
+            Player player = Bukkit.getPlayerExact(args[2]);
+            if (player == null) {
+                sender.sendMessage("§cオンラインのプレイヤーが見つかりません: " + args[2]);
+                return true;
+            }
+            target = player.getUniqueId();
+        }
+        
+        for (Tracer.Category category : categories) {
+            boolean enabled = tracer.toggle(category, target);
+            sender.sendMessage("§e" + category.getKey() + ": " + (enabled ? "§a有効" : "§c無効")
+                + (target != null ? " §7(" + args[2] + ")" : "") + " §7- 対象: " + describeTraceTarget(tracer, category));
+        }
         return true;
     }
     
+    private String describeTraceTarget(Tracer tracer, Tracer.Category category) {
+        if (!tracer.isCategoryEnabled(category)) {
+            return "無効";
+        }
+        Set<UUID> players = tracer.getPlayers(category);
+        if (players.isEmpty()) {
+            return "全員";
+        }
+        List<String> names = new ArrayList<>();
+        // 退出したプレイヤーも名簿から名前を引く
+        PlayerNameDirectory directory = plugin.getPlayerDAO().getNameDirectory();
+        for (UUID uuid : players) {
+            String name = directory.get(uuid);
+            names.add(name != null ? name : uuid.toString());
+        }
+        return String.join(", ", names);
+    }
+    
+    private static List<String> getTraceCategoryKeys() {
+        List<String> keys = new ArrayList<>();
+        for (Tracer.Category category : Tracer.Category.values()) {
+            keys.add(category.getKey());
+        }
+        return keys;
+    }
+    
+    private static String formatStats(StatsRegistry.Stats stats) {
+        StringBuilder line = new StringBuilder(stats.getSize() >= 0 ? stats.getSize() + "件" : "-");
+        if (stats.getHitRate() >= 0) {
+            line.append(String.format(Locale.ROOT, " §7ヒット§f %.1f%% §7(%d/%d)", stats.getHitRate() * 100,
+                stats.getHits(), stats.getHits() + stats.getMisses()));
+        }
+        if (stats.getEvictions() >= 0) {
+            line.append(" §7追い出し§f ").append(stats.getEvictions());
+        }
+        if (stats.getEstimatedBytes() >= 0) {
+            line.append(" §7約§f ").append(formatBytes(stats.getEstimatedBytes()));
+        }
+        if (stats.getQueueLatencyMillis() >= 0) {
+            line.append(String.format(Locale.ROOT, " §7待ち§f %.2fms", stats.getQueueLatencyMillis()));
+        }
+        return line.toString();
+    }
+    
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + "B";
+        }
+        if (bytes < 1024L * 1024) {
+            return String.format(Locale.ROOT, "%.1fKB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1fMB", bytes / (1024.0 * 1024));
+    }
+    
+    /**
+     * 30s, 10m, 6h, 7d 形式の期間をミリ秒に変換する（不正な場合は-1）
+     */
+    private static long parseDuration(String text) {
+        if (text.length() < 2) {
+            return -1;
+        }
+        long unit;
+        switch (Character.toLowerCase(text.charAt(text.length() - 1))) {
+            case 's': unit = 1000L; break;
+            case 'm': unit = 60_000L; break;
+            case 'h': unit = 3_600_000L; break;
+            case 'd': unit = 86_400_000L; break;
+            default: return -1;
+        }
+        try {
+            long amount = Long.parseLong(text.substring(0, text.length() - 1));
+            return amount > 0 ? amount * unit : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
     private boolean handleVersionCommand(CommandSender sender) {
         sender.sendMessage("§6=== TofuNomics 情報 ===");
         sender.sendMessage("§eプラグイン名: §f" + plugin.getDescription().getName());
@@ -353,6 +632,9 @@ public class TofuNomicsCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§f/tofunomics reload §7- プラグイン設定をリロード");
         sender.sendMessage("§f/tofunomics status §7- プラグイン状態を表示");
         sender.sendMessage("§f/tofunomics version §7- バージョン情報を表示");
+        sender.sendMessage("§f/tofunomics perf [メトリクス] [期間] §7- パフォーマンス統計を表示");
+        sender.sendMessage("§f/tofunomics stats [dump] §7- キャッシュ・キューの統計を表示");
+        sender.sendMessage("§f/tofunomics trace [カテゴリ|all|off] [プレイヤー] §7- 動作トレースを切り替え");
         sender.sendMessage("§f/tofunomics config <サブコマンド> §7- 設定管理機能");
         sender.sendMessage("§f/tofunomics npc <サブコマンド> §7- NPC管理機能");
         sender.sendMessage("§7使用可能なconfigサブコマンド:");
@@ -364,14 +646,30 @@ public class TofuNomicsCommand implements CommandExecutor, TabCompleter {
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            return Arrays.asList("reload", "status", "version", "config", "npc");
+            return Arrays.asList("reload", "status", "version", "perf", "stats", "trace", "config", "npc");
         } else if (args.length == 2) {
             if ("config".equals(args[0].toLowerCase())) {
                 return Arrays.asList("generate", "fix", "validate", "backup", "messages");
             } else if ("npc".equals(args[0].toLowerCase())) {
                 return npcCommand.onTabComplete(sender, command, alias, new String[]{args[1]});
+            } else if ("stats".equals(args[0].toLowerCase())) {
+                return Arrays.asList("dump");
+            } else if ("trace".equals(args[0].toLowerCase())) {
+                List<String> options = getTraceCategoryKeys();
+                options.add("all");
+                options.add("off");
+                return options;
+            } else if ("perf".equals(args[0].toLowerCase()) && plugin.getPerformanceMonitor() != null) {
+                return plugin.getPerformanceMonitor().getMetricNames();
             }
         } else if (args.length == 3) {
+            if ("trace".equals(args[0].toLowerCase()) && !"off".equals(args[1].toLowerCase())) {
+                List<String> names = new ArrayList<>();
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    names.add(player.getName());
+                }
+                return names;
+            }
             if ("config".equals(args[0].toLowerCase()) && "messages".equals(args[1].toLowerCase())) {
                 return Arrays.asList("reload", "validate", "test");
             }
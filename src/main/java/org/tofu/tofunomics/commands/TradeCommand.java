@@ -8,10 +8,12 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.models.PlayerTradeHistory;
+import org.tofu.tofunomics.models.TradeSummary;
 import org.tofu.tofunomics.npc.TradingNPCManager;
 import org.tofu.tofunomics.trade.TradeChestManager;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -56,6 +58,8 @@ public class TradeCommand implements CommandExecutor, TabCompleter {
         switch (subCommand) {
             case "history":
                 return handleHistoryCommand(player, args);
+            case "stats":
+                return handleStatsCommand(player, args);
             case "reload":
                 return handleReloadCommand(player, args);
             default:
@@ -129,6 +133,62 @@ public class TradeCommand implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    /**
+     * 取引集計表示コマンド（日次集計テーブルから取得し、履歴は走査しない）
+     */
+    private boolean handleStatsCommand(Player player, String[] args) {
+        if (!player.hasPermission("tofunomics.trade.history.self")) {
+            player.sendMessage(ChatColor.RED + "このコマンドを実行する権限がありません。");
+            return true;
+        }
+        
+        int days = 7;
+        if (args.length >= 2) {
+            try {
+                days = Integer.parseInt(args[1]);
+                days = Math.max(1, Math.min(days, configManager.getTradeHistoryRollupMaxDays()));
+            } catch (NumberFormatException e) {
+                player.sendMessage(ChatColor.RED + "無効な日数です。数値を入力してください。");
+                return true;
+            }
+        }
+        
+        int period = days;
+        LocalDate from = LocalDate.now().minusDays(days - 1);
+        String uuid = player.getUniqueId().toString();
+        tradeChestManager.getTradeHistoryDAO().getPlayerSummaryAsync(uuid, from)
+            .thenCombine(tradeChestManager.getTradeHistoryDAO().getTopItemsAsync(from, 5),
+                (summary, topItems) -> {
+                    showTradeStats(player, period, summary, topItems);
+                    return null;
+                })
+            .exceptionally(throwable -> {
+                player.sendMessage(ChatColor.RED + "取引集計の取得に失敗しました。");
+                return null;
+            });
+        return true;
+    }
+    
+    private void showTradeStats(Player player, int days, TradeSummary summary, List<TradeSummary> topItems) {
+        if (!player.isOnline()) {
+            return;
+        }
+        player.sendMessage(ChatColor.GOLD + "=== NPC取引集計（直近" + days + "日） ===");
+        player.sendMessage(String.format("%s取引回数: §f%d回 %s売却数: §f%d個",
+            ChatColor.YELLOW, summary.getTradeCount(), ChatColor.YELLOW, summary.getItemAmount()));
+        player.sendMessage(String.format("%s売却金額: §a%.2f金塊 %s(ボーナス: +%.2f金塊)",
+            ChatColor.YELLOW, summary.getTotalEarnings(), ChatColor.GRAY, summary.getBonusTotal()));
+        
+        if (!topItems.isEmpty()) {
+            player.sendMessage(ChatColor.GOLD + "サーバー全体の売却上位アイテム:");
+            int rank = 1;
+            for (TradeSummary item : topItems) {
+                player.sendMessage(String.format("%s%d. %s §fx%d §f→ §a%.2f金塊",
+                    ChatColor.YELLOW, rank++, formatItemName(item.getKey()), item.getItemAmount(), item.getTotalEarnings()));
+            }
+        }
+    }
+    
     /**
      * 設定リロードコマンド
      */
@@ -151,6 +211,7 @@ public class TradeCommand implements CommandExecutor, TabCompleter {
     private void showTradeHelp(Player player) {
         player.sendMessage(ChatColor.GOLD + "=== TofuNomics NPC取引システム ===");
         player.sendMessage(ChatColor.YELLOW + "/trade history [プレイヤー名] [件数] " + ChatColor.GRAY + "- NPC取引履歴表示");
+        player.sendMessage(ChatColor.YELLOW + "/trade stats [日数] " + ChatColor.GRAY + "- NPC取引集計表示");
         player.sendMessage(ChatColor.YELLOW + "/trade reload " + ChatColor.GRAY + "- 設定再読み込み");
         player.sendMessage(ChatColor.GRAY + "取引はNPCを右クリックして行います。");
         player.sendMessage(ChatColor.GRAY + "職業: " + String.join(", ", VALID_JOBS));
@@ -169,7 +230,7 @@ public class TradeCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
         
         if (args.length == 1) {
-            String[] subCommands = {"history", "reload"};
+            String[] subCommands = {"history", "stats", "reload"};
             for (String subCommand : subCommands) {
                 if (subCommand.startsWith(args[0].toLowerCase())) {
                     completions.add(subCommand);
@@ -19,7 +19,8 @@ import java.util.logging.Level;
 public class ConfigManager {
     
     private final JavaPlugin plugin;
-    private FileConfiguration config;
+    // 主要セクションの型付きスナップショット（読み込み元の設定も含めて、読み込み・リロード時に丸ごと差し替える）
+    private volatile ConfigSnapshot snapshot;
     private final Map<String, Object> configCache = new ConcurrentHashMap<>();
     private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
     private final Set<String> validationErrors = new HashSet<>();
@@ -34,7 +35,7 @@ public class ConfigManager {
         reloadConfig();
     }
     
-    public void reloadConfig() {
+    public synchronized void reloadConfig() {
         try {
             plugin.reloadConfig();
             
@@ -42,12 +43,13 @@ public class ConfigManager {
             updateConfigWithDefaults();
             
             FileConfiguration newConfig = plugin.getConfig();
+            ConfigSnapshot newSnapshot = ConfigSnapshot.compile(newConfig);
             
             Map<String, Object> oldValues = new HashMap<>(configCache);
             configCache.clear();
             validationErrors.clear();
             
-            config = newConfig;
+            snapshot = newSnapshot;
             lastReloadTime = System.currentTimeMillis();
             
             validateConfig();
@@ -70,9 +72,28 @@ public class ConfigManager {
         } catch (Exception e) {
             plugin.getLogger().severe("設定ファイルのリロード中にエラーが発生しました: " + e.getMessage());
             e.printStackTrace();
+            if (snapshot == null) {
+                // 初回読み込みに失敗した場合は既定値で動作させる
+                snapshot = ConfigSnapshot.compile(new YamlConfiguration());
+            }
         }
     }
     
+    /**
+     * 型付きにしていない値の読み取り元（スナップショットと同じ時点の設定）
+     */
+    private ConfigurationSection config() {
+        return snapshot.config();
+    }
+    
+    /**
+     * 現在の設定スナップショットを取得
+     * 複数の値を同じ時点の設定で読みたい場合は、このインスタンスから続けて読むこと
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
     public void addConfigChangeListener(ConfigChangeListener listener) {
         listeners.add(listener);
     }
@@ -260,7 +281,7 @@ public class ConfigManager {
     }
     
     private Object getCachedValue(String path, Object defaultValue) {
-        return configCache.computeIfAbsent(path, k -> config.get(path, defaultValue));
+        return configCache.computeIfAbsent(path, k -> config().get(path, defaultValue));
     }
     
     // データベース設定
@@ -278,32 +299,32 @@ public class ConfigManager {
     
     // 通貨設定
     public String getCurrencyName() {
-        return (String) getCachedValue("economy.currency.name", "金塊");
+        return snapshot.economy().getCurrencyName();
     }
     
     public String getCurrencySymbol() {
-        return (String) getCachedValue("economy.currency.symbol", "G");
+        return snapshot.economy().getCurrencySymbol();
     }
     
     public int getCurrencyDecimalPlaces() {
-        return (Integer) getCachedValue("economy.currency.decimal_places", 2);
+        return snapshot.economy().getCurrencyDecimalPlaces();
     }
 
     
     public double getCoinValue() {
-        return (Double) getCachedValue("economy.currency.coin_value", 10.0);
+        return snapshot.economy().getCoinValue();
     }
     
     public boolean isDynamicValueEnabled() {
-        return (Boolean) getCachedValue("economy.currency.dynamic_value", true);
+        return snapshot.economy().isDynamicValue();
     }
     
     public double getMinCoinValue() {
-        return (Double) getCachedValue("economy.currency.min_value", 0.1);
+        return snapshot.economy().getMinCoinValue();
     }
     
     public double getMaxCoinValue() {
-        return (Double) getCachedValue("economy.currency.max_value", 1000.0);
+        return snapshot.economy().getMaxCoinValue();
     }
     
     public void setCoinValue(double value) {
@@ -314,42 +335,42 @@ public class ConfigManager {
     }
     
     public double getStartingBalance() {
-        return (Double) getCachedValue("economy.starting_balance", 100.0);
+        return snapshot.economy().getStartingBalance();
     }
     
     // 送金設定
     public double getMinimumPayAmount() {
-        return config.getDouble("economy.pay.minimum_amount", 1.0);
+        return snapshot.economy().getMinimumPayAmount();
     }
     
     public double getMaximumPayAmount() {
-        return config.getDouble("economy.pay.maximum_amount", 0);
+        return snapshot.economy().getMaximumPayAmount();
     }
     
     public double getPayFeePercentage() {
-        return config.getDouble("economy.pay.fee_percentage", 0.0);
+        return snapshot.economy().getPayFeePercentage();
     }
     
     // 引き出し・預け入れ設定
     public double getMaxWithdraw() {
-        return config.getDouble("economy.withdraw_deposit.max_withdraw", 10000.0);
+        return snapshot.economy().getMaxWithdraw();
     }
     
     public double getMaxDeposit() {
-        return config.getDouble("economy.withdraw_deposit.max_deposit", 10000.0);
+        return snapshot.economy().getMaxDeposit();
     }
     
     // 職業設定
     public int getMaxJobsPerPlayer() {
-        return config.getInt("jobs.general.max_jobs_per_player", 1);
+        return snapshot.jobs().getMaxJobsPerPlayer();
     }
     
     public boolean isKeepLevelOnJobChange() {
-        return config.getBoolean("jobs.general.keep_level_on_change", true);
+        return snapshot.jobs().isKeepLevelOnJobChange();
     }
     
     public int getJobChangeCooldown() {
-        return config.getInt("jobs.general.job_change_cooldown", 86400);
+        return snapshot.jobs().getJobChangeCooldown();
     }
     
     // ========== 職業ブロック制限システム設定 ==========
@@ -358,14 +379,14 @@ public class ConfigManager {
      * 職業ブロック制限システムが有効かどうか
      */
     public boolean isJobBlockRestrictionEnabled() {
-        return (Boolean) getCachedValue("jobs.block_restrictions.enabled", true);
+        return snapshot.jobs().isBlockRestrictionEnabled();
     }
     
     /**
      * 基本ブロック（全職業で採掘可能）のリストを取得
      */
     public List<String> getBasicBlocks() {
-        return config.getStringList("jobs.block_restrictions.basic_blocks");
+        return snapshot.jobs().getBasicBlocks();
     }
     
     /**
@@ -375,8 +396,7 @@ public class ConfigManager {
      * @return 制限ブロックのリスト
      */
     public List<String> getJobRestrictedBlocks(String jobName) {
-        String path = "jobs.block_restrictions.job_restricted_blocks." + jobName;
-        return config.getStringList(path);
+        return snapshot.jobs().getRestrictedBlocks(jobName);
     }
     
     /**
@@ -384,7 +404,7 @@ public class ConfigManager {
      */
     private void validateJobBlockRestrictionSettings() {
         // 基本設定の存在確認
-        if (!config.contains("jobs.block_restrictions")) {
+        if (!config().contains("jobs.block_restrictions")) {
             validationErrors.add("職業ブロック制限システムの設定が見つかりません");
             return;
         }
@@ -398,7 +418,7 @@ public class ConfigManager {
         // 職業専用ブロックの検証
         String[] jobs = {"miner", "woodcutter", "farmer", "fisherman", "blacksmith", "alchemist", "enchanter", "architect"};
         for (String job : jobs) {
-            if (!config.contains("jobs.block_restrictions.job_restricted_blocks." + job)) {
+            if (!config().contains("jobs.block_restrictions.job_restricted_blocks." + job)) {
                 validationErrors.add("職業 " + job + " の制限ブロック設定が見つかりません");
             }
         }
@@ -406,40 +426,59 @@ public class ConfigManager {
     
     // 職業別設定
     public String getJobDisplayName(String jobName) {
-        return config.getString("jobs.job_settings." + jobName + ".display_name", jobName);
+        ConfigSnapshot.JobSettings settings = snapshot.jobs().getJobSettings(jobName);
+        return settings != null ? settings.getDisplayName() : jobName;
     }
     
     public String getJobDescription(String jobName) {
-        return config.getString("jobs.job_settings." + jobName + ".description", "");
+        ConfigSnapshot.JobSettings settings = snapshot.jobs().getJobSettings(jobName);
+        return settings != null ? settings.getDescription() : "";
     }
     
     public int getJobMaxLevel(String jobName) {
-        return config.getInt("jobs.job_settings." + jobName + ".max_level", 75);
+        ConfigSnapshot.JobSettings settings = snapshot.jobs().getJobSettings(jobName);
+        return settings != null ? settings.getMaxLevel() : 75;
     }
     
     public double getJobIncomeMultiplier(String jobName) {
-        return config.getDouble("jobs.job_settings." + jobName + ".base_income_multiplier", 1.0);
+        ConfigSnapshot.JobSettings settings = snapshot.jobs().getJobSettings(jobName);
+        return settings != null ? settings.getIncomeMultiplier() : 1.0;
     }
     
     // イベントシステム設定
     public boolean isEventSystemEnabled() {
-        return config.getBoolean("events.enabled", true);
+        return config().getBoolean("events.enabled", true);
     }
     
     public java.util.List<String> getExcludedWorlds() {
-        return config.getStringList("events.excluded_worlds");
+        return config().getStringList("events.excluded_worlds");
     }
     
     public java.util.List<String> getExcludedGameModes() {
-        return config.getStringList("events.excluded_game_modes");
+        return config().getStringList("events.excluded_game_modes");
     }
     
     public boolean isEventCachingEnabled() {
-        return config.getBoolean("events.caching.enabled", true);
+        return config().getBoolean("events.caching.enabled", true);
     }
     
     public long getEventCacheExpiry() {
-        return config.getLong("events.caching.expiry_time", 300000); // 5分
+        return config().getLong("events.caching.expiry_time", 300000); // 5分
+    }
+    
+    /**
+     * 設置ブロックの記録（設置したブロックの破壊で報酬を与えない）が有効か
+     */
+    public boolean isPlacedBlockTrackingEnabled() {
+        return config().getBoolean("events.placed_blocks.enabled", true);
+    }
+    
+    public int getPlacedBlocksMaxPerChunk() {
+        return config().getInt("events.placed_blocks.max_blocks_per_chunk", 16384);
+    }
+    
+    public long getPlacedBlocksSaveInterval() {
+        return config().getLong("events.placed_blocks.save_interval", 6000L); // 5分
     }
     
     public JavaPlugin getPlugin() {
@@ -447,63 +486,84 @@ public class ConfigManager {
     }
     
     public double getJobExpMultiplier(String jobName) {
-        return config.getDouble("jobs.job_settings." + jobName + ".exp_multiplier", 1.0);
+        ConfigSnapshot.JobSettings settings = snapshot.jobs().getJobSettings(jobName);
+        return settings != null ? settings.getExpMultiplier() : 1.0;
     }
     
     public double getJobBaseSellBonus(String jobName) {
-        return config.getDouble("jobs.job_settings." + jobName + ".base_sell_bonus", 0.05);
+        ConfigSnapshot.JobSettings settings = snapshot.jobs().getJobSettings(jobName);
+        return settings != null ? settings.getBaseSellBonus() : 0.05;
     }
     
     
     // 土地保護設定
     public boolean isWorldGuardIntegration() {
-        return config.getBoolean("land_protection.worldguard_integration", true);
+        return config().getBoolean("land_protection.worldguard_integration", true);
     }
     
     public double getUrbanLandPrice() {
-        return config.getDouble("land_protection.urban_land_price", 100.0);
+        return config().getDouble("land_protection.urban_land_price", 100.0);
     }
     
     public int getMaxLandsPerPlayer() {
-        return config.getInt("land_protection.max_lands_per_player", 5);
+        return config().getInt("land_protection.max_lands_per_player", 5);
+    }
+    
+    // 住居賃貸設定
+    public boolean isHousingCityProtectionEnabled() {
+        return snapshot.housing().isCityProtectionEnabled();
+    }
+    
+    public String getHousingCityProtectionRegionName() {
+        return snapshot.housing().getCityProtectionRegionName();
+    }
+    
+    public int getHousingMaxRentalsPerPlayer() {
+        return snapshot.housing().getMaxRentalsPerPlayer();
+    }
+    
+    public String getHousingWorldName() {
+        return snapshot.housing().getWorldName();
     }
     
     // メッセージ設定
     public String getMessagePrefix() {
-        return config.getString("messages.prefix", "&6[TofuNomics] &f");
+        return config().getString("messages.prefix", "&6[TofuNomics] &f");
     }
     
-    public String getMessage(String key) {
-    String fullKey = "messages." + key;
-    String message = config.getString(fullKey, "メッセージが見つかりません: " + key);
-    
-    // デバッグ情報をログに出力
-    if (plugin.getConfig().getBoolean("debug.enabled", false)) {
-        plugin.getLogger().info("getMessage(): key=" + key + ", fullKey=" + fullKey + ", message=" + message);
-        if (message.startsWith("メッセージが見つかりません:")) {
-            plugin.getLogger().warning("メッセージが見つかりません。設定ファイルを確認してください。");
-            plugin.getLogger().info("利用可能なメッセージキー一覧:");
-            if (config.getConfigurationSection("messages") != null) {
-                for (String availableKey : config.getConfigurationSection("messages").getKeys(true)) {
+    /**
+     * 読み込み時に分解済みのメッセージテンプレートを取得
+     * 繰り返し送信するメッセージは、このテンプレートを保持して render/format すること
+     */
+    public MessageTemplate getMessageTemplate(String key) {
+        ConfigSnapshot.Messages messages = snapshot.messages();
+        MessageTemplate template = messages.get(key);
+        
+        // デバッグ情報をログに出力
+        if (messages.isDebug()) {
+            String fullKey = "messages." + key;
+            plugin.getLogger().info("getMessage(): key=" + key + ", fullKey=" + fullKey + ", message=" + template);
+            if (template == null) {
+                plugin.getLogger().warning("メッセージが見つかりません。設定ファイルを確認してください。");
+                plugin.getLogger().info("利用可能なメッセージキー一覧:");
+                for (String availableKey : messages.getKeys()) {
                     plugin.getLogger().info("  - " + availableKey);
                 }
             }
         }
+        
+        if (template == null) {
+            return MessageTemplate.compile("メッセージが見つかりません: " + key);
+        }
+        return template;
     }
     
-    return org.bukkit.ChatColor.translateAlternateColorCodes('&', message);
-}
+    public String getMessage(String key) {
+        return getMessageTemplate(key).render();
+    }
     
     public String getMessage(String key, Object... replacements) {
-        String message = getMessage(key);
-        if (replacements != null) {
-            for (int i = 0; i < replacements.length; i += 2) {
-                if (i + 1 < replacements.length) {
-                    message = message.replace("%" + replacements[i] + "%", String.valueOf(replacements[i + 1]));
-                }
-            }
-        }
-        return message;
+        return getMessageTemplate(key).render(replacements);
     }
     
     /**
@@ -512,12 +572,12 @@ public class ConfigManager {
     public java.util.List<String> getMessageList(String key) {
         String fullPath = "messages." + key;
         
-        if (config.isList(fullPath)) {
-            java.util.List<String> messages = config.getStringList(fullPath);
+        if (config().isList(fullPath)) {
+            java.util.List<String> messages = config().getStringList(fullPath);
             if (messages != null && !messages.isEmpty()) {
                 return messages;
             }
-        } else if (config.contains(fullPath)) {
+        } else if (config().contains(fullPath)) {
             // 単一文字列の場合は1行のリストとして返す
             String singleMessage = getMessage(key);
             if (singleMessage != null && !singleMessage.contains("メッセージが見つかりません")) {
@@ -564,8 +624,8 @@ public class ConfigManager {
             plugin.getLogger().info("検索パス: " + specificPath);
         }
         
-        if (config.isList(specificPath)) {
-            java.util.List<String> messages = config.getStringList(specificPath);
+        if (config().isList(specificPath)) {
+            java.util.List<String> messages = config().getStringList(specificPath);
             if (messages != null && !messages.isEmpty()) {
                 if (isDebugEnabled()) {
                     plugin.getLogger().info("NPC固有メッセージを取得: " + messages.size() + "行");
@@ -603,8 +663,8 @@ public class ConfigManager {
             
             // 単一メッセージを確認
             String path = "messages.npc.trading.npc_specific." + npcType + "." + messageType;
-            if (config.contains(path)) {
-                String message = config.getString(path);
+            if (config().contains(path)) {
+                String message = config().getString(path);
                 if (message != null) {
                     return message.replace("%player%", playerName);
                 }
@@ -612,8 +672,8 @@ public class ConfigManager {
             
             // デフォルトメッセージを返す
             String defaultPath = "npc_system.trading_npcs.default_messages." + messageType;
-            if (config.contains(defaultPath)) {
-                String message = config.getString(defaultPath);
+            if (config().contains(defaultPath)) {
+                String message = config().getString(defaultPath);
                 if (message != null) {
                     return message.replace("%player%", playerName).replace("%npc_name%", npcType);
                 }
@@ -682,8 +742,8 @@ public class ConfigManager {
         try {
             String welcomePath = "messages.npc_specific." + npcType + ".welcome";
             
-            if (config.contains(welcomePath)) {
-                String welcomeMessage = config.getString(welcomePath, "§6「いらっしゃいませ、%player%さん！」");
+            if (config().contains(welcomePath)) {
+                String welcomeMessage = config().getString(welcomePath, "§6「いらっしゃいませ、%player%さん！」");
                 
                 // プレイヤー名の置換
                 String processedMessage = welcomeMessage.replace("%player%", player.getName());
@@ -716,11 +776,32 @@ public class ConfigManager {
     
     // デバッグ設定
     public boolean isDebugEnabled() {
-        return config.getBoolean("debug.enabled", false);
+        return config().getBoolean("debug.enabled", false);
     }
     
     public boolean isVerboseEnabled() {
-        return config.getBoolean("debug.verbose", false);
+        return config().getBoolean("debug.verbose", false);
+    }
+    
+    /**
+     * トレースの書き出し待ちの上限件数を取得
+     */
+    public int getTraceBufferSize() {
+        return Math.max(16, config().getInt("debug.trace.buffer_size", 8192));
+    }
+    
+    /**
+     * トレースファイル1つの上限サイズを取得（バイト）
+     */
+    public long getTraceMaxFileBytes() {
+        return Math.max(1L, config().getLong("debug.trace.max_file_size_kb", 4096L)) * 1024L;
+    }
+    
+    /**
+     * 退避分を含めて残すトレースファイル数を取得
+     */
+    public int getTraceMaxFiles() {
+        return Math.max(1, config().getInt("debug.trace.max_files", 3));
     }
     
     // 職業変更制限の日付チェック用メソッド
@@ -730,15 +811,15 @@ public class ConfigManager {
     
     // 取引システム設定（フェーズ4）
     public boolean isTradeSystemEnabled() {
-        return config.getBoolean("trade_system.enabled", true);
+        return config().getBoolean("trade_system.enabled", true);
     }
     
     public boolean isTradeConfirmationRequired() {
-        return config.getBoolean("trade_system.confirmation_required", true);
+        return config().getBoolean("trade_system.confirmation_required", true);
     }
     
     public double getTradePriceMultiplier() {
-        return config.getDouble("trade_system.global_price_multiplier", 1.0);
+        return snapshot.economy().getTradePriceMultiplier();
     }
     
     public double getJobPriceMultiplier(String jobType) {
@@ -746,47 +827,55 @@ public class ConfigManager {
         if (jobType == null) {
             return 1.0;
         }
-        return config.getDouble("trade_system.job_price_multipliers." + jobType.toLowerCase(), 1.0);
+        return snapshot.economy().getJobPriceMultiplier(jobType.toLowerCase());
     }
     
     public int getTradeHistoryMaxDays() {
-        return config.getInt("trade_system.history.max_days", 30);
+        return config().getInt("trade_system.history.max_days", 30);
     }
     
     public int getTradeHistoryMaxRecordsPerPlayer() {
-        return config.getInt("trade_system.history.max_records_per_player", 1000);
+        return config().getInt("trade_system.history.max_records_per_player", 1000);
     }
     
     public boolean isTradeHistoryAutoCleanupEnabled() {
-        return config.getBoolean("trade_system.history.auto_cleanup", true);
+        return config().getBoolean("trade_system.history.auto_cleanup", true);
+    }
+    
+    public int getTradeHistoryRollupMaxDays() {
+        return config().getInt("trade_system.history.rollup_max_days", 365);
+    }
+    
+    public int getTradeHistoryCleanupIntervalMinutes() {
+        return config().getInt("trade_system.history.cleanup_interval_minutes", 60);
     }
     
     public int getMaxTradesPerDay() {
-        return config.getInt("trade_system.limits.max_trades_per_day", 0);
+        return config().getInt("trade_system.limits.max_trades_per_day", 0);
     }
     
     public int getMaxItemsPerTrade() {
-        return config.getInt("trade_system.limits.max_items_per_trade", 2304);
+        return config().getInt("trade_system.limits.max_items_per_trade", 2304);
     }
     
     public double getMaxEarningsPerDay() {
-        return config.getDouble("trade_system.limits.max_earnings_per_day", 0.0);
+        return config().getDouble("trade_system.limits.max_earnings_per_day", 0.0);
     }
     
     public int getMaxChestsPerJob() {
-        return config.getInt("trade_system.chest_settings.max_chests_per_job", 10);
+        return config().getInt("trade_system.chest_settings.max_chests_per_job", 10);
     }
     
     public boolean isPreventDuplicateLocationEnabled() {
-        return config.getBoolean("trade_system.chest_settings.prevent_duplicate_location", true);
+        return config().getBoolean("trade_system.chest_settings.prevent_duplicate_location", true);
     }
     
     public boolean isRequireConfirmationOnRemove() {
-        return config.getBoolean("trade_system.chest_settings.require_confirmation_on_remove", true);
+        return config().getBoolean("trade_system.chest_settings.require_confirmation_on_remove", true);
     }
     
     public String getTradeMessage(String key) {
-        return config.getString("trade_system.messages." + key, "メッセージが見つかりません: " + key);
+        return config().getString("trade_system.messages." + key, "メッセージが見つかりません: " + key);
     }
     
     public String getTradeMessage(String key, Object... replacements) {
@@ -807,56 +896,56 @@ public class ConfigManager {
      * 職業別スキルの基本発動確率を取得
      */
     public double getJobSkillBaseProbability(String jobName, String skillName) {
-        return config.getDouble("job_skills." + jobName + "." + skillName + ".base_probability", 0.0);
+        return config().getDouble("job_skills." + jobName + "." + skillName + ".base_probability", 0.0);
     }
     
     /**
      * 職業別スキルのレベルボーナスを取得
      */
     public double getJobSkillLevelBonus(String jobName, String skillName) {
-        return config.getDouble("job_skills." + jobName + "." + skillName + ".level_bonus", 0.0);
+        return config().getDouble("job_skills." + jobName + "." + skillName + ".level_bonus", 0.0);
     }
     
     /**
      * 職業別スキルの最大発動確率を取得
      */
     public double getJobSkillMaxProbability(String jobName, String skillName) {
-        return config.getDouble("job_skills." + jobName + "." + skillName + ".max_probability", 1.0);
+        return config().getDouble("job_skills." + jobName + "." + skillName + ".max_probability", 1.0);
     }
     
     /**
      * 職業別スキルのクールダウン時間を取得
      */
     public int getJobSkillCooldown(String jobName, String skillName) {
-        return config.getInt("job_skills." + jobName + "." + skillName + ".cooldown_seconds", 0);
+        return config().getInt("job_skills." + jobName + "." + skillName + ".cooldown_seconds", 0);
     }
     
     /**
      * 職業別スキルの効果倍率を取得
      */
     public double getJobSkillEffectMultiplier(String jobName, String skillName) {
-        return config.getDouble("job_skills." + jobName + "." + skillName + ".effect_multiplier", 1.0);
+        return config().getDouble("job_skills." + jobName + "." + skillName + ".effect_multiplier", 1.0);
     }
     
     /**
      * 職業別スキルの効果範囲を取得
      */
     public int getJobSkillEffectRange(String jobName, String skillName) {
-        return config.getInt("job_skills." + jobName + "." + skillName + ".effect_range", 1);
+        return config().getInt("job_skills." + jobName + "." + skillName + ".effect_range", 1);
     }
     
     /**
      * 職業別スキルの節約率を取得
      */
     public double getJobSkillSaveRate(String jobName, String skillName) {
-        return config.getDouble("job_skills." + jobName + "." + skillName + ".save_rate", 0.0);
+        return config().getDouble("job_skills." + jobName + "." + skillName + ".save_rate", 0.0);
     }
     
     /**
      * 職業別スキルの最大ブロック数を取得
      */
     public int getJobSkillMaxBlocks(String jobName, String skillName) {
-        return config.getInt("job_skills." + jobName + "." + skillName + ".max_blocks", 64);
+        return config().getInt("job_skills." + jobName + "." + skillName + ".max_blocks", 64);
     }
     
     /**
@@ -877,58 +966,49 @@ public class ConfigManager {
      * 基本経験値倍率を取得
      */
     public int getExperienceBaseMultiplier() {
-        return config.getInt("leveling.experience.base_multiplier", 100);
+        return snapshot.jobs().getExperienceBaseMultiplier();
     }
     
     /**
      * 経験値計算指数を取得
      */
     public double getExperienceExponent() {
-        return config.getDouble("leveling.experience.exponent", 2.0);
+        return snapshot.jobs().getExperienceExponent();
     }
     
     /**
      * レベル範囲別倍率を取得
      */
     public double getLevelScalingMultiplier(int level) {
-        if (level >= 1 && level <= 10) {
-            return config.getDouble("leveling.experience.level_scaling.early_levels.multiplier", 1.0);
-        } else if (level >= 11 && level <= 25) {
-            return config.getDouble("leveling.experience.level_scaling.mid_levels.multiplier", 0.9);
-        } else if (level >= 26 && level <= 50) {
-            return config.getDouble("leveling.experience.level_scaling.advanced_levels.multiplier", 1.0);
-        } else if (level >= 51 && level <= 75) {
-            return config.getDouble("leveling.experience.level_scaling.master_levels.multiplier", 1.5);
-        }
-        return 1.0;
+        return snapshot.jobs().getLevelScalingMultiplier(level);
     }
     
     /**
      * レベルアップ報酬（金塊）の基本額を取得
      */
     public double getLevelRewardBaseAmount() {
-        return config.getDouble("leveling.rewards.base_rewards.money.base_amount", 50.0);
+        return snapshot.jobs().getLevelRewardBaseAmount();
     }
     
     /**
      * レベルアップ報酬（金塊）のレベル倍率を取得
      */
     public double getLevelRewardLevelMultiplier() {
-        return config.getDouble("leveling.rewards.base_rewards.money.level_multiplier", 2.5);
+        return snapshot.jobs().getLevelRewardLevelMultiplier();
     }
     
     /**
      * レベルアップ報酬（金塊）の最大額を取得
      */
     public double getLevelRewardMaxAmount() {
-        return config.getDouble("leveling.rewards.base_rewards.money.max_amount", 500.0);
+        return snapshot.jobs().getLevelRewardMaxAmount();
     }
     
     /**
      * スキルポイント付与レベルを取得
      */
     public java.util.List<Integer> getSkillPointLevels() {
-        return config.getIntegerList("leveling.rewards.base_rewards.skill_points.levels");
+        return snapshot.jobs().getSkillPointLevels();
     }
     
     // ========== イベント報酬バランス設定 ==========
@@ -937,63 +1017,63 @@ public class ConfigManager {
      * 全体経験値倍率を取得
      */
     public double getGlobalExperienceMultiplier() {
-        return config.getDouble("event_rewards.global_multipliers.experience_multiplier", 1.0);
+        return snapshot.jobs().getGlobalExperienceMultiplier();
     }
     
     /**
      * 全体収入倍率を取得
      */
     public double getGlobalIncomeMultiplier() {
-        return config.getDouble("event_rewards.global_multipliers.income_multiplier", 1.0);
+        return snapshot.jobs().getGlobalIncomeMultiplier();
     }
     
     /**
      * スキル発動確率倍率を取得
      */
     public double getGlobalSkillProbabilityMultiplier() {
-        return config.getDouble("event_rewards.global_multipliers.skill_probability_multiplier", 1.0);
+        return snapshot.jobs().getGlobalSkillProbabilityMultiplier();
     }
     
     /**
      * 時間帯別ボーナスを取得
      */
     public double getTimeBonus(String timeOfDay, String bonusType) {
-        return config.getDouble("event_rewards.global_multipliers.time_bonuses." + timeOfDay + "." + bonusType, 0.0);
+        return config().getDouble("event_rewards.global_multipliers.time_bonuses." + timeOfDay + "." + bonusType, 0.0);
     }
     
     /**
      * 天候ボーナスを取得
      */
     public double getWeatherBonus(String weather, String bonusType) {
-        return config.getDouble("event_rewards.global_multipliers.weather_bonuses." + weather + "." + bonusType, 0.0);
+        return config().getDouble("event_rewards.global_multipliers.weather_bonuses." + weather + "." + bonusType, 0.0);
     }
     
     /**
      * 個別イベントの基本経験値を取得
      */
     public double getIndividualEventBaseExperience(String eventType) {
-        return config.getDouble("event_rewards.individual_events." + eventType + ".base_experience", 1.0);
+        return config().getDouble("event_rewards.individual_events." + eventType + ".base_experience", 1.0);
     }
     
     /**
      * 個別イベントの基本収入を取得
      */
     public double getIndividualEventBaseIncome(String eventType) {
-        return config.getDouble("event_rewards.individual_events." + eventType + ".base_income", 1.0);
+        return config().getDouble("event_rewards.individual_events." + eventType + ".base_income", 1.0);
     }
     
     /**
      * 個別イベントのレベル経験値ボーナスを取得
      */
     public double getIndividualEventLevelExperienceBonus(String eventType) {
-        return config.getDouble("event_rewards.individual_events." + eventType + ".level_experience_bonus", 0.0);
+        return config().getDouble("event_rewards.individual_events." + eventType + ".level_experience_bonus", 0.0);
     }
     
     /**
      * 個別イベントのレベル収入ボーナスを取得
      */
     public double getIndividualEventLevelIncomeBonus(String eventType) {
-        return config.getDouble("event_rewards.individual_events." + eventType + ".level_income_bonus", 0.0);
+        return config().getDouble("event_rewards.individual_events." + eventType + ".level_income_bonus", 0.0);
     }
     
     // ========== パフォーマンス最適化設定 ==========
@@ -1002,119 +1082,280 @@ public class ConfigManager {
      * コネクションプール有効化状態を取得
      */
     public boolean isConnectionPoolEnabled() {
-        return config.getBoolean("performance.database.connection_pool.enabled", true);
+        return config().getBoolean("performance.database.connection_pool.enabled", true);
     }
     
     /**
      * 最大コネクションプールサイズを取得
      */
     public int getMaximumPoolSize() {
-        return config.getInt("performance.database.connection_pool.maximum_pool_size", 15);
+        return config().getInt("performance.database.connection_pool.maximum_pool_size", 15);
     }
     
     /**
      * 最小アイドル接続数を取得
      */
     public int getMinimumIdle() {
-        return config.getInt("performance.database.connection_pool.minimum_idle", 3);
+        return config().getInt("performance.database.connection_pool.minimum_idle", 3);
     }
     
     /**
      * 接続タイムアウト時間を取得
      */
     public long getConnectionTimeout() {
-        return config.getLong("performance.database.connection_pool.connection_timeout", 30000);
+        return config().getLong("performance.database.connection_pool.connection_timeout", 30000);
     }
-    
+
+    /**
+     * SQLiteジャーナルモードを取得
+     */
+    public String getSqliteJournalMode() {
+        return config().getString("performance.database.sqlite.journal_mode", "WAL");
+    }
+
+    /**
+     * SQLite同期モードを取得
+     */
+    public String getSqliteSynchronous() {
+        return config().getString("performance.database.sqlite.synchronous", "NORMAL");
+    }
+
+    /**
+     * SQLiteロック待機時間を取得（ミリ秒）
+     */
+    public int getSqliteBusyTimeout() {
+        return config().getInt("performance.database.sqlite.busy_timeout", 5000);
+    }
+
+    /**
+     * SQLiteメモリマップサイズを取得（バイト）
+     */
+    public long getSqliteMmapSize() {
+        return config().getLong("performance.database.sqlite.mmap_size", 268435456L);
+    }
+
+    /**
+     * SQLite接続ごとのページキャッシュサイズを取得（負値はKiB指定）
+     */
+    public int getSqliteCacheSize() {
+        return config().getInt("performance.database.sqlite.cache_size", -8000);
+    }
+
+    /**
+     * 接続ごとのPreparedStatementキャッシュ上限を取得（0で無効）
+     */
+    public int getStatementCacheSize() {
+        return config().getInt("performance.database.statement_cache_size", 64);
+    }
+
+    /**
+     * 非同期DB処理のスレッド数を取得
+     */
+    public int getDatabaseAsyncThreads() {
+        return config().getInt("performance.database.async.threads", 2);
+    }
+
+    /**
+     * 非同期DB処理の待機キュー上限を取得
+     */
+    public int getDatabaseAsyncQueueCapacity() {
+        return config().getInt("performance.database.async.queue_capacity", 1000);
+    }
+
+    /**
+     * 1tickでメインスレッドへ返すDB結果の上限を取得
+     */
+    public int getDatabaseMaxCompletionsPerTick() {
+        return config().getInt("performance.database.async.max_completions_per_tick", 200);
+    }
+
     /**
      * プレイヤーキャッシュ有効化状態を取得
      */
     public boolean isPlayerCacheEnabled() {
-        return config.getBoolean("performance.caching.player_cache.enabled", true);
+        return config().getBoolean("performance.caching.player_cache.enabled", true);
     }
     
     /**
      * プレイヤーキャッシュ最大サイズを取得
      */
     public int getPlayerCacheMaxSize() {
-        return config.getInt("performance.caching.player_cache.max_size", 1000);
+        return config().getInt("performance.caching.player_cache.max_size", 1000);
     }
     
     /**
      * プレイヤーキャッシュアクセス後期限を取得（秒）
      */
     public long getPlayerCacheExpireAfterAccess() {
-        return config.getLong("performance.caching.player_cache.expire_after_access", 1800);
+        return config().getLong("performance.caching.player_cache.expire_after_access", 1800);
     }
     
     /**
      * プレイヤーキャッシュ書き込み後期限を取得（秒）
      */
     public long getPlayerCacheExpireAfterWrite() {
-        return config.getLong("performance.caching.player_cache.expire_after_write", 3600);
+        return config().getLong("performance.caching.player_cache.expire_after_write", 3600);
+    }
+    
+    /**
+     * プレイヤー状態ストア有効化状態を取得
+     */
+    public boolean isPlayerStateStoreEnabled() {
+        return config().getBoolean("performance.caching.player_state.enabled", true);
+    }
+    
+    /**
+     * プレイヤー状態のDB書き出し間隔を取得（tick）
+     */
+    public long getPlayerStateFlushInterval() {
+        return config().getLong("performance.caching.player_state.flush_interval", 100L);
+    }
+    
+    /**
+     * 職業経験値を合算してから反映するまでの間隔を取得（tick、0以下は即時反映）
+     */
+    public long getExperienceAccumulationWindow() {
+        return config().getLong("performance.experience_accumulation.window_ticks", 10L);
     }
     
     /**
      * 職業キャッシュ有効化状態を取得
      */
     public boolean isJobCacheEnabled() {
-        return config.getBoolean("performance.caching.job_cache.enabled", true);
+        return config().getBoolean("performance.caching.job_cache.enabled", true);
+    }
+    
+    /**
+     * 職業キャッシュ最大サイズを取得（プレイヤー数）
+     */
+    public int getJobCacheMaxSize() {
+        return config().getInt("performance.caching.job_cache.max_size", 500);
+    }
+    
+    /**
+     * 職業キャッシュ書き込み後期限を取得（秒）
+     */
+    public long getJobCacheExpireAfterWrite() {
+        return config().getLong("performance.caching.job_cache.expire_after_write", 7200);
+    }
+    
+    /**
+     * 起動時・リロード時のキャッシュ事前読み込み有効化状態を取得
+     */
+    public boolean isCacheWarmupEnabled() {
+        return config().getBoolean("performance.caching.warmup.enabled", true);
+    }
+    
+    /**
+     * 事前読み込みするプレイヤー数の上限を取得（キャッシュの最大サイズでも制限される）
+     */
+    public int getCacheWarmupMaxPlayers() {
+        return config().getInt("performance.caching.warmup.max_players", 500);
+    }
+    
+    /**
+     * 事前読み込みで1回のクエリにまとめるプレイヤー数を取得
+     */
+    public int getCacheWarmupChunkSize() {
+        return config().getInt("performance.caching.warmup.chunk_size", 200);
     }
     
     /**
      * バッチ処理有効化状態を取得
      */
     public boolean isBatchProcessingEnabled() {
-        return config.getBoolean("performance.database.batch_processing.enabled", true);
+        return config().getBoolean("performance.database.batch_processing.enabled", true);
     }
     
     /**
      * バッチサイズを取得
      */
     public int getBatchSize() {
-        return config.getInt("performance.database.batch_processing.batch_size", 100);
+        return config().getInt("performance.database.batch_processing.batch_size", 100);
     }
     
     /**
      * バッチタイムアウトを取得
      */
     public int getBatchTimeout() {
-        return config.getInt("performance.database.batch_processing.batch_timeout", 5000);
+        return config().getInt("performance.database.batch_processing.batch_timeout", 5000);
+    }
+    
+    /**
+     * 操作タイプごとの保留キュー上限を取得（まとめられた操作は1件として数える）
+     */
+    public int getBatchMaxQueueSize() {
+        return config().getInt("performance.database.batch_processing.max_queue_size", 1000);
+    }
+    
+    /**
+     * 書き込みに失敗した操作の再試行回数を取得
+     */
+    public int getBatchMaxRetries() {
+        return config().getInt("performance.database.batch_processing.max_retries", 3);
     }
     
     /**
      * メモリ監視有効化状態を取得
      */
     public boolean isMemoryMonitoringEnabled() {
-        return config.getBoolean("performance.memory_management.memory_monitoring.enabled", true);
+        return config().getBoolean("performance.memory_management.memory_monitoring.enabled", true);
     }
     
     /**
      * メモリ警告閾値を取得
      */
     public double getMemoryWarningThreshold() {
-        return config.getDouble("performance.memory_management.memory_monitoring.warning_threshold", 0.8);
+        return config().getDouble("performance.memory_management.memory_monitoring.warning_threshold", 0.8);
     }
     
     /**
      * パフォーマンス統計収集有効化状態を取得
      */
     public boolean isStatisticsEnabled() {
-        return config.getBoolean("performance.monitoring.statistics.enabled", true);
+        return config().getBoolean("performance.monitoring.statistics.enabled", true);
     }
     
     /**
      * 統計収集間隔を取得（秒）
      */
     public int getStatisticsCollectionInterval() {
-        return config.getInt("performance.monitoring.statistics.collection_interval", 300);
+        return config().getInt("performance.monitoring.statistics.collection_interval", 300);
+    }
+    
+    /**
+     * 統計保持日数を取得（1時間単位の集計を保持する日数）
+     */
+    public int getStatisticsRetentionDays() {
+        return config().getInt("performance.monitoring.statistics.retention_days", 7);
+    }
+    
+    /**
+     * 1秒単位の集計の保持件数を取得
+     */
+    public int getMetricsSecondSamples() {
+        return config().getInt("performance.monitoring.statistics.second_samples", 600);
+    }
+    
+    /**
+     * 1分単位の集計の保持件数を取得
+     */
+    public int getMetricsMinuteSamples() {
+        return config().getInt("performance.monitoring.statistics.minute_samples", 1440);
+    }
+    
+    /**
+     * メトリクスファイルの上限サイズを取得（MB、超えたら保持分だけで書き直す）
+     */
+    public int getMetricsFileMaxSizeMb() {
+        return config().getInt("performance.monitoring.statistics.max_file_size_mb", 16);
     }
     
     /**
      * TPS警告閾値を取得
      */
     public double getTpsWarningThreshold() {
-        return config.getDouble("performance.monitoring.realtime_monitoring.tps_threshold", 18.0);
+        return config().getDouble("performance.monitoring.realtime_monitoring.tps_threshold", 18.0);
     }
     
     // ========== 設定値検証メソッド ==========
@@ -1219,7 +1460,7 @@ public class ConfigManager {
      * 特定設定パスの値の型チェック
      */
     public boolean isConfigPathOfType(String path, Class<?> expectedType) {
-        Object value = config.get(path);
+        Object value = config().get(path);
         return value != null && expectedType.isInstance(value);
     }
     
@@ -1252,10 +1493,12 @@ public class ConfigManager {
     /**
      * 設定値の動的更新（runtime中の一時的変更）
      */
-    public void updateConfigValue(String path, Object value) {
-        if (config != null) {
-            config.set(path, value);
+    public synchronized void updateConfigValue(String path, Object value) {
+        ConfigSnapshot current = snapshot;
+        if (current != null) {
+            current.config().set(path, value);
             configCache.put(path, value);
+            snapshot = ConfigSnapshot.compile(current.config());
             
             String section = path.contains(".") ? path.substring(0, path.indexOf('.')) : path;
             notifyListeners(section);
@@ -1322,10 +1565,11 @@ public class ConfigManager {
     /**
      * 設定のホットリロード（一部設定のみ）
      */
-    public void hotReloadSection(String section) {
+    public synchronized void hotReloadSection(String section) {
         try {
             plugin.reloadConfig();
             FileConfiguration newConfig = plugin.getConfig();
+            ConfigSnapshot newSnapshot = ConfigSnapshot.compile(newConfig);
             
             Set<String> sectionKeys = new HashSet<>();
             for (String key : configCache.keySet()) {
@@ -1344,7 +1588,7 @@ public class ConfigManager {
                 }
             }
             
-            config = newConfig;
+            snapshot = newSnapshot;
             notifyListeners(section);
             
             plugin.getLogger().info("設定セクション '" + section + "' をホットリロードしました。");
@@ -1360,105 +1604,105 @@ public class ConfigManager {
      * ウェルカムメッセージ一覧を取得
      */
     public java.util.List<String> getWelcomeMessages() {
-        return config.getStringList("player_join.welcome_messages");
+        return config().getStringList("player_join.welcome_messages");
     }
     
     /**
      * ウェルカムタイトルを取得
      */
     public String getWelcomeTitle() {
-        return config.getString("player_join.welcome_title", "&6&lTofuNomicsへようこそ!");
+        return config().getString("player_join.welcome_title", "&6&lTofuNomicsへようこそ!");
     }
     
     /**
      * ウェルカムサブタイトルを取得
      */
     public String getWelcomeSubtitle() {
-        return config.getString("player_join.welcome_subtitle", "&e%player%さん、お帰りなさい!");
+        return config().getString("player_join.welcome_subtitle", "&e%player%さん、お帰りなさい!");
     }
     
     /**
      * 新規プレイヤーボーナスの有効化状態を取得
      */
     public boolean isNewPlayerBonusEnabled() {
-        return config.getBoolean("player_join.new_player_bonus.enabled", true);
+        return config().getBoolean("player_join.new_player_bonus.enabled", true);
     }
     
     /**
      * 新規プレイヤーボーナス金額を取得
      */
     public double getNewPlayerBonusAmount() {
-        return config.getDouble("player_join.new_player_bonus.amount", 100.0);
+        return config().getDouble("player_join.new_player_bonus.amount", 100.0);
     }
     
     /**
      * 新規プレイヤーメッセージを取得
      */
     public java.util.List<String> getNewPlayerMessages() {
-        return config.getStringList("player_join.new_player_bonus.messages");
+        return config().getStringList("player_join.new_player_bonus.messages");
     }
     
     /**
      * 復帰プレイヤーメッセージの有効化状態を取得
      */
     public boolean isWelcomeBackMessageEnabled() {
-        return config.getBoolean("player_join.welcome_back_message.enabled", true);
+        return config().getBoolean("player_join.welcome_back_message.enabled", true);
     }
     
     /**
      * 復帰プレイヤーメッセージを取得
      */
     public String getWelcomeBackMessage() {
-        return config.getString("player_join.welcome_back_message.message", "&aおかえりなさい、%player%さん!");
+        return config().getString("player_join.welcome_back_message.message", "&aおかえりなさい、%player%さん!");
     }
     
     /**
      * 復帰判定日数を取得（この日数以上離れていたら復帰扱い）
      */
     public int getWelcomeBackDays() {
-        return config.getInt("player_join.welcome_back_message.days_threshold", 7);
+        return config().getInt("player_join.welcome_back_message.days_threshold", 7);
     }
     
     /**
      * スポーン座標機能の有効化状態を取得
      */
     public boolean isSpawnLocationEnabled() {
-        return config.getBoolean("player_join.spawn_location.enabled", false);
+        return config().getBoolean("player_join.spawn_location.enabled", false);
     }
     
     /**
      * スポーン座標のワールド名を取得
      */
     public String getSpawnWorldName() {
-        return config.getString("player_join.spawn_location.world", "world");
+        return config().getString("player_join.spawn_location.world", "world");
     }
     
     /**
      * スポーン座標のX座標を取得
      */
     public int getSpawnX() {
-        return config.getInt("player_join.spawn_location.x", 0);
+        return config().getInt("player_join.spawn_location.x", 0);
     }
     
     /**
      * スポーン座標のY座標を取得
      */
     public int getSpawnY() {
-        return config.getInt("player_join.spawn_location.y", 64);
+        return config().getInt("player_join.spawn_location.y", 64);
     }
     
     /**
      * スポーン座標のZ座標を取得
      */
     public int getSpawnZ() {
-        return config.getInt("player_join.spawn_location.z", 0);
+        return config().getInt("player_join.spawn_location.z", 0);
     }
     
     /**
      * スポーン座標テレポートの遅延時間を取得（tick）
      */
     public int getSpawnTeleportDelay() {
-        return config.getInt("player_join.spawn_location.teleport_delay", 60);
+        return config().getInt("player_join.spawn_location.teleport_delay", 60);
     }
     
     // ==================== スコアボード設定関連メソッド ====================
@@ -1467,84 +1711,84 @@ public class ConfigManager {
      * スコアボード機能が有効かどうかを取得
      */
     public boolean isScoreboardEnabled() {
-        return (Boolean) getCachedValue("scoreboard.enabled", true);
+        return snapshot.scoreboard().isEnabled();
     }
     
     /**
      * スコアボードのデフォルト表示設定を取得
      */
     public boolean isScoreboardDefaultEnabled() {
-        return (Boolean) getCachedValue("scoreboard.default_enabled", true);
+        return snapshot.scoreboard().isDefaultEnabled();
     }
     
     /**
      * スコアボードタイトルを取得
      */
     public String getScoreboardTitle() {
-        return (String) getCachedValue("scoreboard.title", "&6&l★ &eTofuNomics &6&l★");
+        return snapshot.scoreboard().getTitle();
     }
     
     /**
      * スコアボード更新間隔を取得（秒）
      */
     public int getScoreboardUpdateInterval() {
-        return (Integer) getCachedValue("scoreboard.update_interval", 1);
+        return snapshot.scoreboard().getUpdateInterval();
     }
     
     /**
      * スコアボードでプレイヤー名を表示するかどうか
      */
     public boolean isScoreboardShowPlayerName() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_player_name", true);
+        return snapshot.scoreboard().isShowPlayerName();
     }
     
     /**
      * スコアボードで残高を表示するかどうか
      */
     public boolean isScoreboardShowBalance() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_balance", true);
+        return snapshot.scoreboard().isShowBalance();
     }
     
     /**
      * スコアボードで職業を表示するかどうか
      */
     public boolean isScoreboardShowJob() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_job", true);
+        return snapshot.scoreboard().isShowJob();
     }
     
     /**
      * スコアボードで職業レベルを表示するかどうか
      */
     public boolean isScoreboardShowJobLevel() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_job_level", true);
+        return snapshot.scoreboard().isShowJobLevel();
     }
     
     /**
      * スコアボードで経験値を表示するかどうか
      */
     public boolean isScoreboardShowExperience() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_experience", true);
+        return snapshot.scoreboard().isShowExperience();
     }
     
     /**
      * スコアボードでオンライン時間を表示するかどうか
      */
     public boolean isScoreboardShowOnlineTime() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_online_time", true);
+        return snapshot.scoreboard().isShowOnlineTime();
     }
     
     /**
      * スコアボードで現在時刻を表示するかどうか
      */
     public boolean isScoreboardShowCurrentTime() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_current_time", true);
+        return snapshot.scoreboard().isShowCurrentTime();
     }
     
     /**
      * スコアボードで取引時間を表示するかどうか
      */
     public boolean isScoreboardShowTradingHours() {
-        return (Boolean) getCachedValue("scoreboard.display_settings.show_trading_hours", true);
+        return snapshot.scoreboard().isShowTradingHours();
     }
     
     // ==================== 時刻放送システム設定 ====================
@@ -1575,7 +1819,7 @@ public class ConfigManager {
      */
     public String getTimeAnnouncementRegularMessage() {
         return ChatColor.translateAlternateColorCodes('&', 
-            config.getString("time_announcement.messages.regular", "&e[時報] &f現在時刻：%time% &7- 取引所：%trading_status%"));
+            config().getString("time_announcement.messages.regular", "&e[時報] &f現在時刻：%time% &7- 取引所：%trading_status%"));
     }
     
     /**
@@ -1583,7 +1827,7 @@ public class ConfigManager {
      */
     public String getTimeAnnouncementTradingOpenMessage() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("time_announcement.messages.trading_open", "&a🌅 &6[お知らせ] &aおはようございます！取引所が開店しました"));
+            config().getString("time_announcement.messages.trading_open", "&a🌅 &6[お知らせ] &aおはようございます！取引所が開店しました"));
     }
     
     /**
@@ -1591,7 +1835,7 @@ public class ConfigManager {
      */
     public String getTimeAnnouncementTradingCloseMessage() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("time_announcement.messages.trading_close", "&c🌙 &6[お知らせ] &c取引所は閉店しました"));
+            config().getString("time_announcement.messages.trading_close", "&c🌙 &6[お知らせ] &c取引所は閉店しました"));
     }
     
     /**
@@ -1599,7 +1843,7 @@ public class ConfigManager {
      */
     public String getTimeAnnouncementTradingCloseWarningMessage() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("time_announcement.messages.trading_close_warning", "&e⚠ &6[お知らせ] &e取引所は1時間後に閉店します"));
+            config().getString("time_announcement.messages.trading_close_warning", "&e⚠ &6[お知らせ] &e取引所は1時間後に閉店します"));
     }
     
     /**
@@ -1607,7 +1851,7 @@ public class ConfigManager {
      */
     public String getTimeAnnouncementStatusOpen() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("time_announcement.messages.status_open", "&a営業中"));
+            config().getString("time_announcement.messages.status_open", "&a営業中"));
     }
     
     /**
@@ -1615,7 +1859,7 @@ public class ConfigManager {
      */
     public String getTimeAnnouncementStatusClosed() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("time_announcement.messages.status_closed", "&c閉店中"));
+            config().getString("time_announcement.messages.status_closed", "&c閉店中"));
     }
     
     // ==================== 時計アイテムシステム設定 ====================
@@ -1631,7 +1875,7 @@ public class ConfigManager {
      * 時計の購入価格
      */
     public double getClockItemPurchasePrice() {
-        return config.getDouble("clock_item.purchase_price", 500.0);
+        return config().getDouble("clock_item.purchase_price", 500.0);
     }
     
     /**
@@ -1653,7 +1897,7 @@ public class ConfigManager {
      */
     public String getClockItemActionBarFormat() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.action_bar.format", "&e⏰ %time% &7| %trading_status% %time_until%"));
+            config().getString("clock_item.action_bar.format", "&e⏰ %time% &7| %trading_status% %time_until%"));
     }
     
     /**
@@ -1661,7 +1905,7 @@ public class ConfigManager {
      */
     public String getClockItemActionBarStatusOpen() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.action_bar.status_open", "&a💼 営業中"));
+            config().getString("clock_item.action_bar.status_open", "&a💼 営業中"));
     }
     
     /**
@@ -1669,7 +1913,7 @@ public class ConfigManager {
      */
     public String getClockItemActionBarStatusClosed() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.action_bar.status_closed", "&c💼 閉店中"));
+            config().getString("clock_item.action_bar.status_closed", "&c💼 閉店中"));
     }
     
     /**
@@ -1677,14 +1921,14 @@ public class ConfigManager {
      */
     public String getClockItemDetailsTitle() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.details.title", "&6&l=== TofuNomics時計 ==="));
+            config().getString("clock_item.details.title", "&6&l=== TofuNomics時計 ==="));
     }
     
     /**
      * 時計詳細情報の内容
      */
     public java.util.List<String> getClockItemDetailsContent() {
-        java.util.List<String> content = config.getStringList("clock_item.details.content");
+        java.util.List<String> content = config().getStringList("clock_item.details.content");
         java.util.List<String> translated = new java.util.ArrayList<>();
         for (String line : content) {
             translated.add(ChatColor.translateAlternateColorCodes('&', line));
@@ -1697,7 +1941,7 @@ public class ConfigManager {
      */
     public String getClockItemDetailsFooter() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.details.footer", "&6&l====================="));
+            config().getString("clock_item.details.footer", "&6&l====================="));
     }
     
     /**
@@ -1705,14 +1949,14 @@ public class ConfigManager {
      */
     public String getClockItemName() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.item.name", "&6&lTofuNomics時計"));
+            config().getString("clock_item.item.name", "&6&lTofuNomics時計"));
     }
     
     /**
      * 時計アイテムのLore
      */
     public java.util.List<String> getClockItemLore() {
-        java.util.List<String> lore = config.getStringList("clock_item.item.lore");
+        java.util.List<String> lore = config().getStringList("clock_item.item.lore");
         java.util.List<String> translated = new java.util.ArrayList<>();
         for (String line : lore) {
             translated.add(ChatColor.translateAlternateColorCodes('&', line));
@@ -1732,7 +1976,7 @@ public class ConfigManager {
      */
     public String getClockItemPurchaseSuccessMessage() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.messages.purchase_success", "&a時計を購入しました！"));
+            config().getString("clock_item.messages.purchase_success", "&a時計を購入しました！"));
     }
     
     /**
@@ -1740,7 +1984,7 @@ public class ConfigManager {
      */
     public String getClockItemPurchaseFailedMessage(String reason) {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.messages.purchase_failed", "&c時計の購入に失敗しました"))
+            config().getString("clock_item.messages.purchase_failed", "&c時計の購入に失敗しました"))
             .replace("%reason%", reason);
     }
     
@@ -1749,7 +1993,7 @@ public class ConfigManager {
      */
     public String getClockItemInsufficientFundsMessage(double amount) {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.messages.insufficient_funds", "&c残高が不足しています"))
+            config().getString("clock_item.messages.insufficient_funds", "&c残高が不足しています"))
             .replace("%amount%", String.valueOf(amount));
     }
     
@@ -1758,22 +2002,21 @@ public class ConfigManager {
      */
     public String getClockItemAlreadyOwnedMessage() {
         return ChatColor.translateAlternateColorCodes('&',
-            config.getString("clock_item.messages.already_owned", "&e既に時計を所持しています。"));
+            config().getString("clock_item.messages.already_owned", "&e既に時計を所持しています。"));
     }
     
     /**
      * スコアボード表示対象ワールド一覧を取得
      */
     public java.util.List<String> getScoreboardEnabledWorlds() {
-        return config.getStringList("scoreboard.enabled_worlds");
+        return snapshot.scoreboard().getEnabledWorlds();
     }
     
     /**
      * 指定されたワールドでスコアボードを表示するかどうか
      */
     public boolean isScoreboardEnabledInWorld(String worldName) {
-        java.util.List<String> enabledWorlds = getScoreboardEnabledWorlds();
-        return enabledWorlds.contains(worldName);
+        return snapshot.scoreboard().isEnabledInWorld(worldName);
     }
     
     /**
@@ -1790,28 +2033,28 @@ public class ConfigManager {
      * 場所制限機能の有効/無効
      */
     public boolean isLocationRestrictionsEnabled() {
-        return config.getBoolean("economy.location_restrictions.enabled", true);
+        return config().getBoolean("economy.location_restrictions.enabled", true);
     }
     
     /**
      * 銀行・ATMアクセス可能範囲
      */
     public int getBankAccessRange() {
-        return config.getInt("economy.location_restrictions.access_range", 5);
+        return config().getInt("economy.location_restrictions.access_range", 5);
     }
     
     /**
      * 銀行の場所一覧
      */
     public List<Map<?, ?>> getBankLocations() {
-        return config.getMapList("npc_system.bank_npc.locations");
+        return config().getMapList("npc_system.bank_npc.locations");
     }
     
     /**
      * ATMの場所一覧
      */
     public List<Map<?, ?>> getAtmLocations() {
-        return config.getMapList("economy.location_restrictions.atms");
+        return config().getMapList("economy.location_restrictions.atms");
     }
     
     // ========== NPCシステム設定 ==========
@@ -1820,28 +2063,28 @@ public class ConfigManager {
      * NPCシステムの有効化状態を取得
      */
     public boolean isNPCSystemEnabled() {
-        return config.getBoolean("npc_system.enabled", true);
+        return snapshot.npc().isEnabled();
     }
     
     /**
      * NPCとの相互作用クールダウンを取得（ミリ秒）
      */
     public long getNPCInteractionCooldownMs() {
-        return config.getLong("npc_system.interaction.cooldown_ms", 1000);
+        return snapshot.npc().getInteractionCooldownMs();
     }
     
     /**
      * NPCセッションのタイムアウトを取得（ミリ秒）
      */
     public long getNPCInteractionTimeoutMs() {
-        return config.getLong("npc_system.interaction.session_timeout_ms", 300000);
+        return snapshot.npc().getInteractionTimeoutMs();
     }
     
     /**
      * NPCへのアクセス範囲を取得
      */
     public int getNPCAccessRange() {
-        return config.getInt("npc_system.interaction.access_range", 5);
+        return snapshot.npc().getAccessRange();
     }
     
     /**
@@ -1849,11 +2092,11 @@ public class ConfigManager {
      * @return GUI表示遅延時間（ticks）デフォルト: 40 ticks (2秒)
      */
     public int getNPCGUIDelayTicks() {
-        return config.getInt("npc_system.interaction.gui_delay_ticks", 40);
+        return snapshot.npc().getGuiDelayTicks();
     }
     
     public boolean isLookAtPlayerEnabled() {
-        return config.getBoolean("npc_system.interaction.look_at_player", true);
+        return snapshot.npc().isLookAtPlayer();
     }
     
     // ========== 銀行NPC設定 ==========
@@ -1862,14 +2105,14 @@ public class ConfigManager {
      * 銀行NPCシステムの有効化状態を取得
      */
     public boolean isBankNPCEnabled() {
-        return config.getBoolean("npc_system.bank_npcs.enabled", true);
+        return config().getBoolean("npc_system.bank_npcs.enabled", true);
     }
     
     /**
      * 銀行NPCの場所一覧を取得
      */
     public List<Map<?, ?>> getBankNPCs() {
-        return config.getMapList("npc_system.bank_npc.locations");
+        return config().getMapList("npc_system.bank_npc.locations");
     }
     
     /**
@@ -1880,11 +2123,11 @@ public class ConfigManager {
         if (locationType != null) {
             switch (locationType.toLowerCase()) {
                 case "main_bank":
-                    return config.getString("npc_system.bank_npcs.locations.0.name", "§6中央銀行員");
+                    return config().getString("npc_system.bank_npcs.locations.0.name", "§6中央銀行員");
                 case "branch_bank":
-                    return config.getString("npc_system.bank_npcs.locations.1.name", "§e支店銀行員");
+                    return config().getString("npc_system.bank_npcs.locations.1.name", "§e支店銀行員");
                 case "atm_assistant":
-                    return config.getString("npc_system.bank_npcs.locations.2.name", "§bATM案内係");
+                    return config().getString("npc_system.bank_npcs.locations.2.name", "§bATM案内係");
                 default:
                     return defaultName;
             }
@@ -1896,14 +2139,14 @@ public class ConfigManager {
      * ATM NPCの名前を取得
      */
     public String getATMNPCName(String locationName) {
-        return config.getString("npc_system.bank_npcs.messages.atm_greeting", "§bATM案内係");
+        return config().getString("npc_system.bank_npcs.messages.atm_greeting", "§bATM案内係");
     }
     
     /**
      * 銀行NPCの挨拶メッセージを取得
      */
     public String getBankNPCGreeting(String npcName, String playerName) {
-        String greeting = config.getString("npc_system.bank_npcs.messages.greeting", 
+        String greeting = config().getString("npc_system.bank_npcs.messages.greeting", 
             "§6こんにちは、%player%さん！%npc_name%へようこそ。");
         return greeting.replace("%player%", playerName).replace("%npc_name%", npcName);
     }
@@ -1914,35 +2157,35 @@ public class ConfigManager {
      * 取引NPCシステムの有効化状態を取得
      */
     public boolean isTradingNPCEnabled() {
-        return config.getBoolean("npc_system.trading_npcs.enabled", true);
+        return snapshot.npc().isTradingNpcEnabled();
     }
     
     /**
      * 取引時間制限の有効化状態を取得
      */
     public boolean isTradingHoursEnabled() {
-        return config.getBoolean("npc_system.trading_npcs.trading_hours.enabled", true);
+        return snapshot.npc().isTradingHoursEnabled();
     }
     
     /**
      * 取引開始時刻を取得
      */
     public int getTradingStartHour() {
-        return config.getInt("npc_system.trading_npcs.trading_hours.start", 6);
+        return snapshot.npc().getTradingStartHour();
     }
     
     /**
      * 取引終了時刻を取得
      */
     public int getTradingEndHour() {
-        return config.getInt("npc_system.trading_npcs.trading_hours.end", 22);
+        return snapshot.npc().getTradingEndHour();
     }
     
     /**
      * 取引所の設定一覧を取得
      */
     public List<Map<?, ?>> getTradingPostConfigs() {
-        return config.getMapList("npc_system.trading_posts");
+        return config().getMapList("npc_system.trading_posts");
     }
     
     /**
@@ -1952,7 +2195,7 @@ public class ConfigManager {
         try {
             // 既存の取引所リスト取得
             java.util.List<java.util.Map<String, Object>> tradingPosts = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<?, ?>> existingPosts = config.getMapList("npc_system.trading_posts");
+            java.util.List<java.util.Map<?, ?>> existingPosts = config().getMapList("npc_system.trading_posts");
             for (java.util.Map<?, ?> post : existingPosts) {
                 @SuppressWarnings("unchecked")
                 java.util.Map<String, Object> castedPost = (java.util.Map<String, Object>) post;
@@ -1993,7 +2236,7 @@ public class ConfigManager {
         try {
             // 既存の銀行NPCリスト取得
             java.util.List<java.util.Map<String, Object>> bankNPCs = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<?, ?>> existingNPCs = config.getMapList("npc_system.bank_npc.locations");
+            java.util.List<java.util.Map<?, ?>> existingNPCs = config().getMapList("npc_system.bank_npc.locations");
             
             // 新しい銀行NPCデータ作成
             java.util.Map<String, Object> newNPC = new java.util.HashMap<>();
@@ -2065,7 +2308,7 @@ public class ConfigManager {
      * config.ymlから銀行NPCの位置情報を取得
      */
     public java.util.List<java.util.Map<?, ?>> getBankNPCLocations() {
-        return config.getMapList("npc_system.bank_npc.locations");
+        return config().getMapList("npc_system.bank_npc.locations");
     }
 
     /**
@@ -2075,7 +2318,7 @@ public class ConfigManager {
         try {
             // 既存の食料NPCリスト取得
             java.util.List<java.util.Map<String, Object>> foodNPCs = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<?, ?>> existingNPCs = config.getMapList("npc_system.food_npc.locations");
+            java.util.List<java.util.Map<?, ?>> existingNPCs = config().getMapList("npc_system.food_npc.locations");
             
             // 新しい食料NPCデータ作成
             java.util.Map<String, Object> newNPC = new java.util.HashMap<>();
@@ -2193,7 +2436,7 @@ public class ConfigManager {
      * 指定されたパスに文字列メッセージが存在しない場合は追加
      */
     private void ensureMessagePath(String path, String defaultMessage) {
-        if (!config.contains(path)) {
+        if (!config().contains(path)) {
             updateConfigValue(path, defaultMessage);
             plugin.getLogger().info("メッセージを追加しました: " + path);
         }
@@ -2203,7 +2446,7 @@ public class ConfigManager {
      * 指定されたパスにリストメッセージが存在しない場合は追加
      */
     private void ensureMessageListPath(String path, java.util.List<String> defaultMessages) {
-        if (!config.contains(path)) {
+        if (!config().contains(path)) {
             updateConfigValue(path, defaultMessages);
             plugin.getLogger().info("メッセージリストを追加しました: " + path + " (" + defaultMessages.size() + "行)");
         }
@@ -2291,7 +2534,7 @@ public class ConfigManager {
      * 指定されたパスに設定が存在しない場合は追加
      */
     private void ensureConfigPath(String path, Object defaultValue) {
-        if (!config.contains(path)) {
+        if (!config().contains(path)) {
             updateConfigValue(path, defaultValue);
             plugin.getLogger().info("設定を追加しました: " + path + " = " + defaultValue);
         }
@@ -2301,7 +2544,7 @@ public class ConfigManager {
      * 指定されたパスにリスト設定が存在しない場合は追加
      */
     private void ensureConfigListPath(String path, java.util.List<?> defaultList) {
-        if (!config.contains(path)) {
+        if (!config().contains(path)) {
             updateConfigValue(path, defaultList);
             plugin.getLogger().info("リスト設定を追加しました: " + path + " (" + defaultList.size() + "項目)");
         }
@@ -2315,7 +2558,7 @@ public class ConfigManager {
             plugin.getLogger().info("取引所データ削除を開始: " + npcName);
             
             java.util.List<java.util.Map<String, Object>> tradingPosts = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<?, ?>> existingPosts = config.getMapList("npc_system.trading_posts");
+            java.util.List<java.util.Map<?, ?>> existingPosts = config().getMapList("npc_system.trading_posts");
             
             boolean removed = false;
             for (java.util.Map<?, ?> post : existingPosts) {
@@ -2353,7 +2596,7 @@ public class ConfigManager {
             plugin.getLogger().info("銀行NPCデータ削除を開始: " + npcName);
             
             java.util.List<java.util.Map<String, Object>> bankNPCs = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<?, ?>> existingNPCs = config.getMapList("npc_system.bank_npc.locations");
+            java.util.List<java.util.Map<?, ?>> existingNPCs = config().getMapList("npc_system.bank_npc.locations");
             
             plugin.getLogger().info("DEBUG: config.ymlから読み込んだ銀行NPC数: " + existingNPCs.size());
             for (int i = 0; i < existingNPCs.size(); i++) {
@@ -2408,7 +2651,7 @@ public class ConfigManager {
             plugin.getLogger().info("食料NPCデータ削除を開始: " + npcName);
             
             java.util.List<java.util.Map<String, Object>> foodNPCs = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<?, ?>> existingNPCs = config.getMapList("npc_system.food_npc.locations");
+            java.util.List<java.util.Map<?, ?>> existingNPCs = config().getMapList("npc_system.food_npc.locations");
             
             plugin.getLogger().info("DEBUG: config.ymlから読み込んだ食料NPC数: " + existingNPCs.size());
             for (int i = 0; i < existingNPCs.size(); i++) {
@@ -2537,7 +2780,7 @@ public class ConfigManager {
      */
     public boolean hasTradingPostWithName(String npcName) {
         try {
-            java.util.List<java.util.Map<?, ?>> existingPosts = config.getMapList("npc_system.trading_posts");
+            java.util.List<java.util.Map<?, ?>> existingPosts = config().getMapList("npc_system.trading_posts");
             for (java.util.Map<?, ?> post : existingPosts) {
                 String postName = (String) post.get("name");
                 if (npcName.equals(postName)) {
@@ -2555,7 +2798,7 @@ public class ConfigManager {
      * 取引NPCの挨拶メッセージを取得
      */
     public String getTradingNPCGreeting(String npcName, String playerName) {
-        String greeting = config.getString("npc_system.trading_npcs.messages.greeting",
+        String greeting = config().getString("npc_system.trading_npcs.messages.greeting",
             "§6いらっしゃいませ、%player%さん！%npc_name%へようこそ。");
         return greeting.replace("%player%", playerName).replace("%npc_name%", npcName);
     }
@@ -2564,27 +2807,21 @@ public class ConfigManager {
      * 取引詳細情報の表示設定を取得
      */
     public boolean showDetailedTradeInfo() {
-        return config.getBoolean("npc_system.trading_npcs.messages.detailed_trade_info", true);
+        return config().getBoolean("npc_system.trading_npcs.messages.detailed_trade_info", true);
     }
     
     /**
      * アイテムの基本価格一覧を取得
      */
     public Map<String, Double> getItemBasePrices() {
-        Map<String, Double> prices = new HashMap<>();
-        if (config.getConfigurationSection("npc_system.item_prices") != null) {
-            for (String key : config.getConfigurationSection("npc_system.item_prices").getKeys(false)) {
-                prices.put(key, config.getDouble("npc_system.item_prices." + key));
-            }
-        }
-        return prices;
+        return snapshot.npc().getItemBasePrices();
     }
     
     /**
      * 特定アイテムの基本価格を取得
      */
     public double getItemBasePrice(String itemName) {
-        return config.getDouble("npc_system.item_prices." + itemName.toLowerCase(), 0.0);
+        return snapshot.npc().getItemBasePrice(itemName.toLowerCase());
     }
     
     /**
@@ -2600,56 +2837,56 @@ public class ConfigManager {
      * NPCバンクでの1回あたりの最大引き出し金額を取得
      */
     public double getMaxWithdrawAmount() {
-        return config.getDouble("npc_system.bank_npcs.limits.max_withdraw_amount", 10000.0);
+        return snapshot.npc().getMaxWithdrawAmount();
     }
     
     /**
      * NPCバンクでの1回あたりの最大預金金額を取得
      */
     public double getMaxDepositAmount() {
-        return config.getDouble("npc_system.bank_npcs.limits.max_deposit_amount", 10000.0);
+        return snapshot.npc().getMaxDepositAmount();
     }
     
     /**
      * 食料NPCシステムが有効かどうか
      */
     public boolean isFoodNPCEnabled() {
-        return config.getBoolean("npc_system.food_npc.enabled", false);
+        return config().getBoolean("npc_system.food_npc.enabled", false);
     }
     
     /**
      * 食料NPCの営業時間制限が有効かどうか
      */
     public boolean isFoodNPCOperatingHoursEnabled() {
-        return config.getBoolean("npc_system.food_npc.operating_hours.enabled", false);
+        return config().getBoolean("npc_system.food_npc.operating_hours.enabled", false);
     }
     
     /**
      * 食料NPCの営業開始時間を取得
      */
     public int getFoodNPCStartHour() {
-        return config.getInt("food_npc.operating_hours.start_hour", 6);
+        return config().getInt("food_npc.operating_hours.start_hour", 6);
     }
     
     /**
      * 食料NPCの営業終了時間を取得
      */
     public int getFoodNPCEndHour() {
-        return config.getInt("food_npc.operating_hours.end_hour", 22);
+        return config().getInt("food_npc.operating_hours.end_hour", 22);
     }
     
     /**
      * 食料NPCの1日あたりアイテム購入上限を取得
      */
     public int getFoodNPCDailyLimitPerItem() {
-        return config.getInt("npc_system.food_npc.purchase_limits.daily_limit_per_item", 32);
+        return config().getInt("npc_system.food_npc.purchase_limits.daily_limit_per_item", 32);
     }
     
     /**
      * 食料NPCの1日あたり在庫上限を取得
      */
     public int getFoodNPCDailyStockLimit() {
-        return config.getInt("npc_system.food_npc.inventory_system.daily_stock_limit", 64);
+        return config().getInt("npc_system.food_npc.inventory_system.daily_stock_limit", 64);
     }
     
     /**
@@ -2657,34 +2894,21 @@ public class ConfigManager {
      */
     @SuppressWarnings("unchecked")
     public List<Map<?, ?>> getFoodNPCConfigs() {
-        return (List<Map<?, ?>>) config.getList("npc_system.food_npc.locations", new ArrayList<>());
+        return (List<Map<?, ?>>) config().getList("npc_system.food_npc.locations", new ArrayList<>());
     }
     
     /**
      * 食料アイテムの価格マップを取得
      */
-    @SuppressWarnings("unchecked")
     public Map<String, Double> getFoodItemPrices() {
-        ConfigurationSection section = config.getConfigurationSection("npc_system.food_npc.food_items");
-        Map<String, Double> prices = new HashMap<>();
-        
-        if (section != null) {
-            for (String key : section.getKeys(false)) {
-                Object value = section.get(key);
-                if (value instanceof Number) {
-                    prices.put(key, ((Number) value).doubleValue());
-                }
-            }
-        }
-        
-        return prices;
+        return snapshot.npc().getFoodItemPrices();
     }
     
     /**
      * 利用可能なNPCタイプ一覧を取得
      */
     public Set<String> getFoodNPCTypes() {
-        ConfigurationSection section = config.getConfigurationSection("npc_system.food_npc.npc_types");
+        ConfigurationSection section = config().getConfigurationSection("npc_system.food_npc.npc_types");
         if (section != null) {
             return section.getKeys(false);
         }
@@ -2696,7 +2920,7 @@ public class ConfigManager {
      */
     public ConfigurationSection getFoodNPCTypeConfig(String npcType) {
         String path = "npc_system.food_npc.npc_types." + npcType;
-        return config.getConfigurationSection(path);
+        return config().getConfigurationSection(path);
     }
     
     /**
@@ -3423,7 +3647,7 @@ public class ConfigManager {
      * 加工NPCシステムが有効かどうか
      */
     public boolean isProcessingNPCEnabled() {
-        return config.getBoolean("npc_system.processing_npc.enabled", true);
+        return config().getBoolean("npc_system.processing_npc.enabled", true);
     }
     
     /**
@@ -3431,28 +3655,28 @@ public class ConfigManager {
      */
     @SuppressWarnings("unchecked")
     public List<Map<?, ?>> getProcessingNPCConfigs() {
-        return (List<Map<?, ?>>) config.getList("npc_system.processing_npc.locations", new ArrayList<>());
+        return (List<Map<?, ?>>) config().getList("npc_system.processing_npc.locations", new ArrayList<>());
     }
     
     /**
      * 加工の基本料金を取得（一般プレイヤー）
      */
     public double getProcessingBaseFee() {
-        return config.getDouble("npc_system.processing_npc.fees.base_fee_per_log", 1.0);
+        return config().getDouble("npc_system.processing_npc.fees.base_fee_per_log", 1.0);
     }
     
     /**
      * 木こりの加工料金を取得
      */
     public double getProcessingWoodcutterFee() {
-        return config.getDouble("npc_system.processing_npc.fees.woodcutter_fee", 0.0);
+        return config().getDouble("npc_system.processing_npc.fees.woodcutter_fee", 0.0);
     }
     
     /**
      * 一度に加工可能な最大原木数を取得
      */
     public int getProcessingMaxLogsPerProcess() {
-        return config.getInt("npc_system.processing_npc.pricing.max_logs_per_process", 64);
+        return config().getInt("npc_system.processing_npc.pricing.max_logs_per_process", 64);
     }
     
     /**
@@ -3460,7 +3684,7 @@ public class ConfigManager {
      */
     public String getProcessingNPCMessage(String messageKey) {
         String path = "npc_system.processing_npc.messages." + messageKey;
-        String message = config.getString(path, null);
+        String message = config().getString(path, null);
         
         if (message == null) {
             // フォールバックメッセージ
@@ -3496,7 +3720,7 @@ public class ConfigManager {
         try {
             // 既存の加工NPCリスト取得
             java.util.List<java.util.Map<String, Object>> processingNPCs = new java.util.ArrayList<>();
-            java.util.List<java.util.Map<?, ?>> existingNPCs = config.getMapList("npc_system.processing_npc.locations");
+            java.util.List<java.util.Map<?, ?>> existingNPCs = config().getMapList("npc_system.processing_npc.locations");
             
             // 新しい加工NPCデータ作成
             java.util.Map<String, Object> newNPC = new java.util.HashMap<>();
@@ -3544,7 +3768,7 @@ public class ConfigManager {
             }
             
             // config.ymlに保存
-            config.set("npc_system.processing_npc.locations", processingNPCs);
+            config().set("npc_system.processing_npc.locations", processingNPCs);
             plugin.saveConfig();
             
             plugin.getLogger().info("加工NPC「" + npcName + "」をconfig.ymlに追加しました");
@@ -3574,7 +3798,7 @@ public class ConfigManager {
             return name != null && name.equals(npcName);
         });
         
-        config.set("npc_system.processing_npc.locations", processingNPCs);
+        config().set("npc_system.processing_npc.locations", processingNPCs);
         plugin.saveConfig();
         
         plugin.getLogger().info("加工NPC「" + npcName + "」のデータを削除しました");
@@ -3589,6 +3813,7 @@ public class ConfigManager {
             plugin.getLogger().info("設定ファイルのマイグレーションチェックを開始します...");
             
             // 既存のconfig.ymlのバージョンを取得
+            FileConfiguration config = plugin.getConfig();
             String currentVersion = config.getString("config_version", "1.0");
             
             // resources/config.yml（テンプレート）を読み込み
@@ -0,0 +1,449 @@
+package org.tofu.tofunomics.config;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * config.yml の主要セクションを型付きの値へ変換した不変スナップショット
+ * 読み込み時・ホットリロード時に新しいインスタンスを作り、ConfigManagerが参照を1回で差し替える。
+ * イベント処理や価格計算から呼ばれるgetterは、YAMLのパス検索ではなくフィールドの読み取りになる。
+ * 型付きにしていない値は、同じ時点の読み込み元 {@link #config()} から読む
+ */
+public final class ConfigSnapshot {
+
+    private final Economy economy;
+    private final Jobs jobs;
+    private final Npc npc;
+    private final Scoreboard scoreboard;
+    private final Housing housing;
+    private final Messages messages;
+    private final ConfigurationSection config;
+
+    private ConfigSnapshot(ConfigurationSection root) {
+        this.config = root;
+        this.economy = new Economy(root);
+        this.jobs = new Jobs(root);
+        this.npc = new Npc(root);
+        this.scoreboard = new Scoreboard(root);
+        this.housing = new Housing(root);
+        this.messages = new Messages(root);
+    }
+
+    /**
+     * 設定を読み取ってスナップショットを作成する
+     */
+    public static ConfigSnapshot compile(ConfigurationSection root) {
+        return new ConfigSnapshot(root);
+    }
+
+    public Economy economy() { return economy; }
+    public Jobs jobs() { return jobs; }
+    public Npc npc() { return npc; }
+    public Scoreboard scoreboard() { return scoreboard; }
+    public Housing housing() { return housing; }
+    public Messages messages() { return messages; }
+    public ConfigurationSection config() { return config; }
+
+    // ========== 経済設定（economy・trade_system） ==========
+
+    public static final class Economy {
+        private final String currencyName;
+        private final String currencySymbol;
+        private final int currencyDecimalPlaces;
+        private final double coinValue;
+        private final boolean dynamicValue;
+        private final double minCoinValue;
+        private final double maxCoinValue;
+        private final double startingBalance;
+        private final double minimumPayAmount;
+        private final double maximumPayAmount;
+        private final double payFeePercentage;
+        private final double maxWithdraw;
+        private final double maxDeposit;
+        private final double tradePriceMultiplier;
+        private final Map<String, Double> jobPriceMultipliers;
+
+        private Economy(ConfigurationSection root) {
+            this.currencyName = root.getString("economy.currency.name", "金塊");
+            this.currencySymbol = root.getString("economy.currency.symbol", "G");
+            this.currencyDecimalPlaces = root.getInt("economy.currency.decimal_places", 2);
+            this.coinValue = root.getDouble("economy.currency.coin_value", 10.0);
+            this.dynamicValue = root.getBoolean("economy.currency.dynamic_value", true);
+            this.minCoinValue = root.getDouble("economy.currency.min_value", 0.1);
+            this.maxCoinValue = root.getDouble("economy.currency.max_value", 1000.0);
+            this.startingBalance = root.getDouble("economy.starting_balance", 100.0);
+            this.minimumPayAmount = root.getDouble("economy.pay.minimum_amount", 1.0);
+            this.maximumPayAmount = root.getDouble("economy.pay.maximum_amount", 0);
+            this.payFeePercentage = root.getDouble("economy.pay.fee_percentage", 0.0);
+            this.maxWithdraw = root.getDouble("economy.withdraw_deposit.max_withdraw", 10000.0);
+            this.maxDeposit = root.getDouble("economy.withdraw_deposit.max_deposit", 10000.0);
+            this.tradePriceMultiplier = root.getDouble("trade_system.global_price_multiplier", 1.0);
+            this.jobPriceMultipliers = readDoubles(root, "trade_system.job_price_multipliers");
+        }
+
+        public String getCurrencyName() { return currencyName; }
+        public String getCurrencySymbol() { return currencySymbol; }
+        public int getCurrencyDecimalPlaces() { return currencyDecimalPlaces; }
+        public double getCoinValue() { return coinValue; }
+        public boolean isDynamicValue() { return dynamicValue; }
+        public double getMinCoinValue() { return minCoinValue; }
+        public double getMaxCoinValue() { return maxCoinValue; }
+        public double getStartingBalance() { return startingBalance; }
+        public double getMinimumPayAmount() { return minimumPayAmount; }
+        public double getMaximumPayAmount() { return maximumPayAmount; }
+        public double getPayFeePercentage() { return payFeePercentage; }
+        public double getMaxWithdraw() { return maxWithdraw; }
+        public double getMaxDeposit() { return maxDeposit; }
+        public double getTradePriceMultiplier() { return tradePriceMultiplier; }
+
+        /**
+         * @param jobType 小文字の職業名
+         */
+        public double getJobPriceMultiplier(String jobType) {
+            Double multiplier = jobPriceMultipliers.get(jobType);
+            return multiplier != null ? multiplier : 1.0;
+        }
+    }
+
+    // ========== 職業設定（jobs・leveling・event_rewards） ==========
+
+    public static final class Jobs {
+        private final int maxJobsPerPlayer;
+        private final boolean keepLevelOnJobChange;
+        private final int jobChangeCooldown;
+        private final boolean blockRestrictionEnabled;
+        private final List<String> basicBlocks;
+        private final Map<String, List<String>> restrictedBlocks;
+        private final Map<String, JobSettings> jobSettings;
+        private final int experienceBaseMultiplier;
+        private final double experienceExponent;
+        // 1-10, 11-25, 26-50, 51-75 レベル帯の倍率
+        private final double[] levelScaling;
+        private final double levelRewardBaseAmount;
+        private final double levelRewardLevelMultiplier;
+        private final double levelRewardMaxAmount;
+        private final List<Integer> skillPointLevels;
+        private final double globalExperienceMultiplier;
+        private final double globalIncomeMultiplier;
+        private final double globalSkillProbabilityMultiplier;
+
+        private Jobs(ConfigurationSection root) {
+            this.maxJobsPerPlayer = root.getInt("jobs.general.max_jobs_per_player", 1);
+            this.keepLevelOnJobChange = root.getBoolean("jobs.general.keep_level_on_change", true);
+            this.jobChangeCooldown = root.getInt("jobs.general.job_change_cooldown", 86400);
+            this.blockRestrictionEnabled = root.getBoolean("jobs.block_restrictions.enabled", true);
+            this.basicBlocks = Collections.unmodifiableList(root.getStringList("jobs.block_restrictions.basic_blocks"));
+
+            Map<String, List<String>> restricted = new HashMap<>();
+            ConfigurationSection restrictedSection = root.getConfigurationSection("jobs.block_restrictions.job_restricted_blocks");
+            if (restrictedSection != null) {
+                for (String job : restrictedSection.getKeys(false)) {
+                    restricted.put(job, Collections.unmodifiableList(restrictedSection.getStringList(job)));
+                }
+            }
+            this.restrictedBlocks = Collections.unmodifiableMap(restricted);
+
+            Map<String, JobSettings> settings = new HashMap<>();
+            ConfigurationSection settingsSection = root.getConfigurationSection("jobs.job_settings");
+            if (settingsSection != null) {
+                for (String job : settingsSection.getKeys(false)) {
+                    ConfigurationSection jobSection = settingsSection.getConfigurationSection(job);
+                    if (jobSection != null) {
+                        settings.put(job, new JobSettings(job, jobSection));
+                    }
+                }
+            }
+            this.jobSettings = Collections.unmodifiableMap(settings);
+
+            this.experienceBaseMultiplier = root.getInt("leveling.experience.base_multiplier", 100);
+            this.experienceExponent = root.getDouble("leveling.experience.exponent", 2.0);
+            this.levelScaling = new double[] {
+                root.getDouble("leveling.experience.level_scaling.early_levels.multiplier", 1.0),
+                root.getDouble("leveling.experience.level_scaling.mid_levels.multiplier", 0.9),
+                root.getDouble("leveling.experience.level_scaling.advanced_levels.multiplier", 1.0),
+                root.getDouble("leveling.experience.level_scaling.master_levels.multiplier", 1.5)
+            };
+            this.levelRewardBaseAmount = root.getDouble("leveling.rewards.base_rewards.money.base_amount", 50.0);
+            this.levelRewardLevelMultiplier = root.getDouble("leveling.rewards.base_rewards.money.level_multiplier", 2.5);
+            this.levelRewardMaxAmount = root.getDouble("leveling.rewards.base_rewards.money.max_amount", 500.0);
+            this.skillPointLevels = Collections.unmodifiableList(root.getIntegerList("leveling.rewards.base_rewards.skill_points.levels"));
+            this.globalExperienceMultiplier = root.getDouble("event_rewards.global_multipliers.experience_multiplier", 1.0);
+            this.globalIncomeMultiplier = root.getDouble("event_rewards.global_multipliers.income_multiplier", 1.0);
+            this.globalSkillProbabilityMultiplier = root.getDouble("event_rewards.global_multipliers.skill_probability_multiplier", 1.0);
+        }
+
+        public int getMaxJobsPerPlayer() { return maxJobsPerPlayer; }
+        public boolean isKeepLevelOnJobChange() { return keepLevelOnJobChange; }
+        public int getJobChangeCooldown() { return jobChangeCooldown; }
+        public boolean isBlockRestrictionEnabled() { return blockRestrictionEnabled; }
+        public List<String> getBasicBlocks() { return basicBlocks; }
+
+        public List<String> getRestrictedBlocks(String jobName) {
+            List<String> blocks = restrictedBlocks.get(jobName);
+            return blocks != null ? blocks : Collections.emptyList();
+        }
+
+        /**
+         * @return 設定がない職業の場合はnull（呼び出し側で既定値を使う）
+         */
+        public JobSettings getJobSettings(String jobName) {
+            return jobSettings.get(jobName);
+        }
+
+        public int getExperienceBaseMultiplier() { return experienceBaseMultiplier; }
+        public double getExperienceExponent() { return experienceExponent; }
+
+        public double getLevelScalingMultiplier(int level) {
+            if (level >= 1 && level <= 10) {
+                return levelScaling[0];
+            } else if (level >= 11 && level <= 25) {
+                return levelScaling[1];
+            } else if (level >= 26 && level <= 50) {
+                return levelScaling[2];
+            } else if (level >= 51 && level <= 75) {
+                return levelScaling[3];
+            }
+            return 1.0;
+        }
+
+        public double getLevelRewardBaseAmount() { return levelRewardBaseAmount; }
+        public double getLevelRewardLevelMultiplier() { return levelRewardLevelMultiplier; }
+        public double getLevelRewardMaxAmount() { return levelRewardMaxAmount; }
+        public List<Integer> getSkillPointLevels() { return skillPointLevels; }
+        public double getGlobalExperienceMultiplier() { return globalExperienceMultiplier; }
+        public double getGlobalIncomeMultiplier() { return globalIncomeMultiplier; }
+        public double getGlobalSkillProbabilityMultiplier() { return globalSkillProbabilityMultiplier; }
+    }
+
+    /**
+     * jobs.job_settings.&lt;職業名&gt; の値
+     */
+    public static final class JobSettings {
+        private final String displayName;
+        private final String description;
+        private final int maxLevel;
+        private final double incomeMultiplier;
+        private final double expMultiplier;
+        private final double baseSellBonus;
+
+        private JobSettings(String jobName, ConfigurationSection section) {
+            this.displayName = section.getString("display_name", jobName);
+            this.description = section.getString("description", "");
+            this.maxLevel = section.getInt("max_level", 75);
+            this.incomeMultiplier = section.getDouble("base_income_multiplier", 1.0);
+            this.expMultiplier = section.getDouble("exp_multiplier", 1.0);
+            this.baseSellBonus = section.getDouble("base_sell_bonus", 0.05);
+        }
+
+        public String getDisplayName() { return displayName; }
+        public String getDescription() { return description; }
+        public int getMaxLevel() { return maxLevel; }
+        public double getIncomeMultiplier() { return incomeMultiplier; }
+        public double getExpMultiplier() { return expMultiplier; }
+        public double getBaseSellBonus() { return baseSellBonus; }
+    }
+
+    // ========== NPC設定（npc_system） ==========
+
+    public static final class Npc {
+        private final boolean enabled;
+        private final long interactionCooldownMs;
+        private final long interactionTimeoutMs;
+        private final int accessRange;
+        private final int guiDelayTicks;
+        private final boolean lookAtPlayer;
+        private final boolean tradingNpcEnabled;
+        private final boolean tradingHoursEnabled;
+        private final int tradingStartHour;
+        private final int tradingEndHour;
+        private final double maxWithdrawAmount;
+        private final double maxDepositAmount;
+        private final Map<String, Double> itemBasePrices;
+        private final Map<String, Double> foodItemPrices;
+
+        private Npc(ConfigurationSection root) {
+            this.enabled = root.getBoolean("npc_system.enabled", true);
+            this.interactionCooldownMs = root.getLong("npc_system.interaction.cooldown_ms", 1000);
+            this.interactionTimeoutMs = root.getLong("npc_system.interaction.session_timeout_ms", 300000);
+            this.accessRange = root.getInt("npc_system.interaction.access_range", 5);
+            this.guiDelayTicks = root.getInt("npc_system.interaction.gui_delay_ticks", 40);
+            this.lookAtPlayer = root.getBoolean("npc_system.interaction.look_at_player", true);
+            this.tradingNpcEnabled = root.getBoolean("npc_system.trading_npcs.enabled", true);
+            this.tradingHoursEnabled = root.getBoolean("npc_system.trading_npcs.trading_hours.enabled", true);
+            this.tradingStartHour = root.getInt("npc_system.trading_npcs.trading_hours.start", 6);
+            this.tradingEndHour = root.getInt("npc_system.trading_npcs.trading_hours.end", 22);
+            this.maxWithdrawAmount = root.getDouble("npc_system.bank_npcs.limits.max_withdraw_amount", 10000.0);
+            this.maxDepositAmount = root.getDouble("npc_system.bank_npcs.limits.max_deposit_amount", 10000.0);
+            this.itemBasePrices = readDoubles(root, "npc_system.item_prices");
+            this.foodItemPrices = readNumbers(root, "npc_system.food_npc.food_items");
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public long getInteractionCooldownMs() { return interactionCooldownMs; }
+        public long getInteractionTimeoutMs() { return interactionTimeoutMs; }
+        public int getAccessRange() { return accessRange; }
+        public int getGuiDelayTicks() { return guiDelayTicks; }
+        public boolean isLookAtPlayer() { return lookAtPlayer; }
+        public boolean isTradingNpcEnabled() { return tradingNpcEnabled; }
+        public boolean isTradingHoursEnabled() { return tradingHoursEnabled; }
+        public int getTradingStartHour() { return tradingStartHour; }
+        public int getTradingEndHour() { return tradingEndHour; }
+        public double getMaxWithdrawAmount() { return maxWithdrawAmount; }
+        public double getMaxDepositAmount() { return maxDepositAmount; }
+        public Map<String, Double> getItemBasePrices() { return itemBasePrices; }
+        public Map<String, Double> getFoodItemPrices() { return foodItemPrices; }
+
+        public double getItemBasePrice(String itemName) {
+            Double price = itemBasePrices.get(itemName);
+            return price != null ? price : 0.0;
+        }
+    }
+
+    // ========== スコアボード設定（scoreboard） ==========
+
+    public static final class Scoreboard {
+        private final boolean enabled;
+        private final boolean defaultEnabled;
+        private final String title;
+        private final int updateInterval;
+        private final boolean showPlayerName;
+        private final boolean showBalance;
+        private final boolean showJob;
+        private final boolean showJobLevel;
+        private final boolean showExperience;
+        private final boolean showOnlineTime;
+        private final boolean showCurrentTime;
+        private final boolean showTradingHours;
+        private final List<String> enabledWorldList;
+        private final Set<String> enabledWorlds;
+
+        private Scoreboard(ConfigurationSection root) {
+            this.enabled = root.getBoolean("scoreboard.enabled", true);
+            this.defaultEnabled = root.getBoolean("scoreboard.default_enabled", true);
+            this.title = root.getString("scoreboard.title", "&6&l★ &eTofuNomics &6&l★");
+            this.updateInterval = root.getInt("scoreboard.update_interval", 1);
+            this.showPlayerName = root.getBoolean("scoreboard.display_settings.show_player_name", true);
+            this.showBalance = root.getBoolean("scoreboard.display_settings.show_balance", true);
+            this.showJob = root.getBoolean("scoreboard.display_settings.show_job", true);
+            this.showJobLevel = root.getBoolean("scoreboard.display_settings.show_job_level", true);
+            this.showExperience = root.getBoolean("scoreboard.display_settings.show_experience", true);
+            this.showOnlineTime = root.getBoolean("scoreboard.display_settings.show_online_time", true);
+            this.showCurrentTime = root.getBoolean("scoreboard.display_settings.show_current_time", true);
+            this.showTradingHours = root.getBoolean("scoreboard.display_settings.show_trading_hours", true);
+            this.enabledWorldList = Collections.unmodifiableList(root.getStringList("scoreboard.enabled_worlds"));
+            this.enabledWorlds = Collections.unmodifiableSet(new HashSet<>(enabledWorldList));
+        }
+
+        public boolean isEnabled() { return enabled; }
+        public boolean isDefaultEnabled() { return defaultEnabled; }
+        public String getTitle() { return title; }
+        public int getUpdateInterval() { return updateInterval; }
+        public boolean isShowPlayerName() { return showPlayerName; }
+        public boolean isShowBalance() { return showBalance; }
+        public boolean isShowJob() { return showJob; }
+        public boolean isShowJobLevel() { return showJobLevel; }
+        public boolean isShowExperience() { return showExperience; }
+        public boolean isShowOnlineTime() { return showOnlineTime; }
+        public boolean isShowCurrentTime() { return showCurrentTime; }
+        public boolean isShowTradingHours() { return showTradingHours; }
+        public List<String> getEnabledWorlds() { return enabledWorldList; }
+        public boolean isEnabledInWorld(String worldName) { return enabledWorlds.contains(worldName); }
+    }
+
+    // ========== 住居賃貸設定（housing_rental） ==========
+
+    public static final class Housing {
+        private final boolean cityProtectionEnabled;
+        private final String cityProtectionRegionName;
+        private final int maxRentalsPerPlayer;
+        private final String worldName;
+
+        private Housing(ConfigurationSection root) {
+            this.cityProtectionEnabled = root.getBoolean("housing_rental.city_protection.enabled", false);
+            this.cityProtectionRegionName = root.getString("housing_rental.city_protection.region_name", "");
+            this.maxRentalsPerPlayer = root.getInt("housing_rental.max_rentals_per_player", 3);
+            this.worldName = root.getString("housing_rental.world_name", "world");
+        }
+
+        public boolean isCityProtectionEnabled() { return cityProtectionEnabled; }
+        public String getCityProtectionRegionName() { return cityProtectionRegionName; }
+        public int getMaxRentalsPerPlayer() { return maxRentalsPerPlayer; }
+        public String getWorldName() { return worldName; }
+    }
+
+    // ========== メッセージ（messages） ==========
+
+    public static final class Messages {
+        private final Map<String, MessageTemplate> templates;
+        private final boolean debug;
+
+        private Messages(ConfigurationSection root) {
+            Map<String, MessageTemplate> compiled = new HashMap<>();
+            ConfigurationSection section = root.getConfigurationSection("messages");
+            if (section != null) {
+                for (String key : section.getKeys(true)) {
+                    if (section.isConfigurationSection(key)) {
+                        continue;
+                    }
+                    String text = section.getString(key);
+                    if (text != null) {
+                        compiled.put(key, MessageTemplate.compile(ChatColor.translateAlternateColorCodes('&', text)));
+                    }
+                }
+            }
+            this.templates = Collections.unmodifiableMap(compiled);
+            this.debug = root.getBoolean("debug.enabled", false);
+        }
+
+        /**
+         * @param key messages. 以下のキー
+         * @return 該当するメッセージがない場合はnull
+         */
+        public MessageTemplate get(String key) {
+            return templates.get(key);
+        }
+
+        public Set<String> getKeys() { return templates.keySet(); }
+        public boolean isDebug() { return debug; }
+    }
+
+    // ========== 読み取り補助 ==========
+
+    /**
+     * セクション直下のキーをすべて数値として読む（数値でない値は0.0）
+     */
+    private static Map<String, Double> readDoubles(ConfigurationSection root, String path) {
+        Map<String, Double> values = new HashMap<>();
+        ConfigurationSection section = root.getConfigurationSection(path);
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                values.put(key, section.getDouble(key));
+            }
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * セクション直下のキーのうち数値の値だけを読む
+     */
+    private static Map<String, Double> readNumbers(ConfigurationSection root, String path) {
+        Map<String, Double> values = new HashMap<>();
+        ConfigurationSection section = root.getConfigurationSection(path);
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                Object value = section.get(key);
+                if (value instanceof Number) {
+                    values.put(key, ((Number) value).doubleValue());
+                }
+            }
+        }
+        return Collections.unmodifiableMap(values);
+    }
+}
@@ -0,0 +1,186 @@
+package org.tofu.tofunomics.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 設定メッセージのテンプレート
+ * 読み込み時に1回だけ「固定文字列」と「%name% プレースホルダ」の並びへ分解しておき、
+ * 送信時は再利用するバッファへ順に書き出すだけにする（色コードは分解前に変換済みの文字列を渡す）。
+ * 置換しなかったプレースホルダは従来通り %name% のまま残る
+ */
+public final class MessageTemplate {
+
+    // スレッドごとに再利用する出力バッファ
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String source;
+    // literals[i] の後に slots[i] のプレースホルダが続く（literals は slots より1つ多い）
+    private final String[] literals;
+    private final int[] slots;
+    // 初出順のプレースホルダ名（重複なし）
+    private final String[] names;
+
+    private MessageTemplate(String source, String[] literals, int[] slots, String[] names) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        this.names = names;
+    }
+
+    /**
+     * メッセージを分解してテンプレートを作成する
+     * プレースホルダは % で囲まれた英数字・_・. からなる名前（"50% off" のような文字列は対象外）
+     */
+    public static MessageTemplate compile(String text) {
+        List<String> literalList = new ArrayList<>();
+        List<Integer> slotList = new ArrayList<>();
+        List<String> nameList = new ArrayList<>();
+
+        int literalStart = 0;
+        int i = 0;
+        while (i < text.length()) {
+            if (text.charAt(i) == '%') {
+                int end = i + 1;
+                while (end < text.length() && isNameChar(text.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1 && end < text.length() && text.charAt(end) == '%') {
+                    String name = text.substring(i + 1, end);
+                    int index = nameList.indexOf(name);
+                    if (index < 0) {
+                        index = nameList.size();
+                        nameList.add(name);
+                    }
+                    literalList.add(text.substring(literalStart, i));
+                    slotList.add(index);
+                    i = end + 1;
+                    literalStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+        literalList.add(text.substring(literalStart));
+
+        int[] slots = new int[slotList.size()];
+        for (int s = 0; s < slots.length; s++) {
+            slots[s] = slotList.get(s);
+        }
+        return new MessageTemplate(text, literalList.toArray(new String[0]), slots, nameList.toArray(new String[0]));
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.';
+    }
+
+    /**
+     * プレースホルダを置換せずに返す（分解済みの文字列をそのまま返すため割り当てなし）
+     */
+    public String render() {
+        return source;
+    }
+
+    /**
+     * 名前付きで置換する
+     * @param replacements "名前", 値, "名前", 値 ... の並び（従来の getMessage と同じ形式）
+     */
+    public String render(Object... replacements) {
+        if (slots.length == 0 || replacements == null || replacements.length < 2) {
+            return source;
+        }
+        StringBuilder buffer = BUFFER.get();
+        int start = buffer.length();
+        appendTo(buffer, replacements);
+        String result = buffer.substring(start);
+        buffer.setLength(start);
+        return result;
+    }
+
+    /**
+     * 位置指定で置換する（args[i] が {@link #getPlaceholderNames()} の i 番目に対応）
+     */
+    public String format(Object... args) {
+        if (slots.length == 0 || args == null || args.length == 0) {
+            return source;
+        }
+        StringBuilder buffer = BUFFER.get();
+        int start = buffer.length();
+        for (int s = 0; s < slots.length; s++) {
+            buffer.append(literals[s]);
+            int index = slots[s];
+            if (index < args.length) {
+                appendValue(buffer, args[index]);
+            } else {
+                appendPlaceholder(buffer, index);
+            }
+        }
+        buffer.append(literals[slots.length]);
+        String result = buffer.substring(start);
+        buffer.setLength(start);
+        return result;
+    }
+
+    /**
+     * 名前付きで置換した結果を指定のバッファへ追記する
+     */
+    public void appendTo(StringBuilder out, Object... replacements) {
+        for (int s = 0; s < slots.length; s++) {
+            out.append(literals[s]);
+            String name = names[slots[s]];
+            int valueIndex = findValue(name, replacements);
+            if (valueIndex >= 0) {
+                appendValue(out, replacements[valueIndex]);
+            } else {
+                appendPlaceholder(out, slots[s]);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    /**
+     * @return 名前に対応する値の添字（見つからない場合は-1）
+     */
+    private static int findValue(String name, Object[] replacements) {
+        if (replacements == null) {
+            return -1;
+        }
+        for (int i = 0; i + 1 < replacements.length; i += 2) {
+            Object key = replacements[i];
+            if (key instanceof String ? name.equals(key) : name.equals(String.valueOf(key))) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendValue(StringBuilder out, Object value) {
+        if (value instanceof String) {
+            out.append((String) value);
+        } else {
+            out.append(value);
+        }
+    }
+
+    private void appendPlaceholder(StringBuilder out, int index) {
+        out.append('%').append(names[index]).append('%');
+    }
+
+    /**
+     * @return 初出順のプレースホルダ名
+     */
+    public List<String> getPlaceholderNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    public boolean hasPlaceholders() {
+        return slots.length > 0;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
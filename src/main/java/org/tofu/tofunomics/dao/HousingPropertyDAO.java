@@ -1,20 +1,67 @@
 package org.tofu.tofunomics.dao;
 
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.HousingProperty;
 
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 住居物件のデータアクセスオブジェクト
  */
 public class HousingPropertyDAO {
-    private final Connection connection;
+    private static final RowMapper<HousingProperty> PROPERTY_MAPPER = new RowMapper<>(
+        "id, property_name, world_name, x1, y1, z1, x2, y2, z2, worldguard_region_id, description, " +
+        "daily_rent, weekly_rent, monthly_rent, is_available, owner_uuid, created_at, updated_at",
+        rs -> {
+            HousingProperty property = new HousingProperty();
+            property.setId(rs.getInt(1));
+            property.setPropertyName(rs.getString(2));
+            property.setWorldName(rs.getString(3));
+            
+            // 座標は未設定（NULL）の場合がある
+            property.setX1(RowMapper.getNullableInt(rs, 4));
+            property.setY1(RowMapper.getNullableInt(rs, 5));
+            property.setZ1(RowMapper.getNullableInt(rs, 6));
+            property.setX2(RowMapper.getNullableInt(rs, 7));
+            property.setY2(RowMapper.getNullableInt(rs, 8));
+            property.setZ2(RowMapper.getNullableInt(rs, 9));
+            
+            property.setWorldguardRegionId(rs.getString(10));
+            property.setDescription(rs.getString(11));
+            property.setDailyRent(rs.getDouble(12));
+            property.setWeeklyRent(RowMapper.getNullableDouble(rs, 13));
+            property.setMonthlyRent(RowMapper.getNullableDouble(rs, 14));
+            property.setAvailable(rs.getBoolean(15));
+            
+            String ownerUuidStr = rs.getString(16);
+            if (ownerUuidStr != null) {
+                property.setOwnerUuid(UUID.fromString(ownerUuidStr));
+            }
+            
+            property.setCreatedAt(rs.getTimestamp(17));
+            property.setUpdatedAt(rs.getTimestamp(18));
+            return property;
+        });
+
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+
+    public HousingPropertyDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+
+    public HousingPropertyDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+    }
 
     public HousingPropertyDAO(Connection connection) {
-        this.connection = connection;
+        this(new SingleConnectionDataSource(connection));
     }
 
     /**
@@ -27,7 +74,8 @@ public class HousingPropertyDAO {
                       "is_available, owner_uuid, created_at, updated_at) " +
                       "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, property.getPropertyName());
             statement.setString(2, property.getWorldName());
             
@@ -74,85 +122,57 @@ public class HousingPropertyDAO {
      * IDで物件を取得
      */
     public HousingProperty getProperty(int id) throws SQLException {
-        String query = "SELECT * FROM housing_properties WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = PROPERTY_MAPPER.selectFrom("housing_properties") + " WHERE id = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, id);
-            ResultSet rs = statement.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToProperty(rs);
-            }
+            return PROPERTY_MAPPER.mapFirst(statement.executeQuery());
         }
-        return null;
     }
 
     /**
      * 全物件を取得
      */
     public List<HousingProperty> getAllProperties() throws SQLException {
-        String query = "SELECT * FROM housing_properties ORDER BY id";
-        List<HousingProperty> properties = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                properties.add(mapResultSetToProperty(rs));
-            }
+        String query = PROPERTY_MAPPER.selectFrom("housing_properties") + " ORDER BY id";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            return PROPERTY_MAPPER.mapAll(statement.executeQuery());
         }
-        return properties;
     }
 
     /**
      * 賃貸可能な物件一覧を取得
      */
     public List<HousingProperty> getAvailableProperties() throws SQLException {
-        String query = "SELECT * FROM housing_properties WHERE is_available = TRUE ORDER BY id";
-        List<HousingProperty> properties = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                properties.add(mapResultSetToProperty(rs));
-            }
+        String query = PROPERTY_MAPPER.selectFrom("housing_properties") + " WHERE is_available = TRUE ORDER BY id";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            return PROPERTY_MAPPER.mapAll(statement.executeQuery());
         }
-        return properties;
     }
 
     /**
      * 運営所有物件を取得
      */
     public List<HousingProperty> getSystemOwnedProperties() throws SQLException {
-        String query = "SELECT * FROM housing_properties WHERE owner_uuid IS NULL ORDER BY id";
-        List<HousingProperty> properties = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                properties.add(mapResultSetToProperty(rs));
-            }
+        String query = PROPERTY_MAPPER.selectFrom("housing_properties") + " WHERE owner_uuid IS NULL ORDER BY id";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            return PROPERTY_MAPPER.mapAll(statement.executeQuery());
         }
-        return properties;
     }
 
     /**
      * プレイヤー所有物件を取得（将来用）
      */
     public List<HousingProperty> getPlayerOwnedProperties(UUID ownerUuid) throws SQLException {
-        String query = "SELECT * FROM housing_properties WHERE owner_uuid = ? ORDER BY id";
-        List<HousingProperty> properties = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = PROPERTY_MAPPER.selectFrom("housing_properties") + " WHERE owner_uuid = ? ORDER BY id";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, ownerUuid.toString());
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                properties.add(mapResultSetToProperty(rs));
-            }
+            return PROPERTY_MAPPER.mapAll(statement.executeQuery());
         }
-        return properties;
     }
 
     /**
@@ -167,7 +187,8 @@ public class HousingPropertyDAO {
                       "is_available = ?, owner_uuid = ?, updated_at = ? " +
                       "WHERE id = ?";
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, property.getPropertyName());
             statement.setString(2, property.getWorldName());
             
@@ -205,7 +226,8 @@ public class HousingPropertyDAO {
      */
     public void updateAvailability(int propertyId, boolean isAvailable) throws SQLException {
         String query = "UPDATE housing_properties SET is_available = ?, updated_at = ? WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setBoolean(1, isAvailable);
             statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
             statement.setInt(3, propertyId);
@@ -218,49 +240,13 @@ public class HousingPropertyDAO {
      */
     public void deleteProperty(int id) throws SQLException {
         String query = "DELETE FROM housing_properties WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, id);
             statement.executeUpdate();
         }
     }
 
-    /**
-     * ResultSetからHousingPropertyオブジェクトにマッピング
-     */
-    private HousingProperty mapResultSetToProperty(ResultSet rs) throws SQLException {
-        HousingProperty property = new HousingProperty();
-        property.setId(rs.getInt("id"));
-        property.setPropertyName(rs.getString("property_name"));
-        property.setWorldName(rs.getString("world_name"));
-        
-        // NULLチェック付きで座標を設定
-        property.setX1(getIntegerOrNull(rs, "x1"));
-        property.setY1(getIntegerOrNull(rs, "y1"));
-        property.setZ1(getIntegerOrNull(rs, "z1"));
-        property.setX2(getIntegerOrNull(rs, "x2"));
-        property.setY2(getIntegerOrNull(rs, "y2"));
-        property.setZ2(getIntegerOrNull(rs, "z2"));
-        
-        property.setWorldguardRegionId(rs.getString("worldguard_region_id"));
-        property.setDescription(rs.getString("description"));
-        property.setDailyRent(rs.getDouble("daily_rent"));
-        
-        property.setWeeklyRent(getDoubleOrNull(rs, "weekly_rent"));
-        property.setMonthlyRent(getDoubleOrNull(rs, "monthly_rent"));
-        
-        property.setAvailable(rs.getBoolean("is_available"));
-        
-        String ownerUuidStr = rs.getString("owner_uuid");
-        if (ownerUuidStr != null) {
-            property.setOwnerUuid(UUID.fromString(ownerUuidStr));
-        }
-        
-        property.setCreatedAt(rs.getTimestamp("created_at"));
-        property.setUpdatedAt(rs.getTimestamp("updated_at"));
-        
-        return property;
-    }
-
     /**
      * PreparedStatementにIntegerまたはNULLを設定
      */
@@ -283,19 +269,69 @@ public class HousingPropertyDAO {
         }
     }
 
+    // ========== 非同期API ==========
+    // DB専用スレッドで実行し、後続処理はメインスレッドの完了キューで実行される
+
+    /**
+     * {@link #createProperty(HousingProperty)} の非同期版
+     */
+    public CompletableFuture<Integer> createPropertyAsync(HousingProperty property) {
+        return databaseExecutor.supply(() -> createProperty(property));
+    }
+
+    /**
+     * {@link #getProperty(int)} の非同期版
+     */
+    public CompletableFuture<HousingProperty> getPropertyAsync(int id) {
+        return databaseExecutor.supply(() -> getProperty(id));
+    }
+
+    /**
+     * {@link #getAllProperties()} の非同期版
+     */
+    public CompletableFuture<List<HousingProperty>> getAllPropertiesAsync() {
+        return databaseExecutor.supply(() -> getAllProperties());
+    }
+
+    /**
+     * {@link #getAvailableProperties()} の非同期版
+     */
+    public CompletableFuture<List<HousingProperty>> getAvailablePropertiesAsync() {
+        return databaseExecutor.supply(() -> getAvailableProperties());
+    }
+
+    /**
+     * {@link #getSystemOwnedProperties()} の非同期版
+     */
+    public CompletableFuture<List<HousingProperty>> getSystemOwnedPropertiesAsync() {
+        return databaseExecutor.supply(() -> getSystemOwnedProperties());
+    }
+
+    /**
+     * {@link #getPlayerOwnedProperties(UUID)} の非同期版
+     */
+    public CompletableFuture<List<HousingProperty>> getPlayerOwnedPropertiesAsync(UUID ownerUuid) {
+        return databaseExecutor.supply(() -> getPlayerOwnedProperties(ownerUuid));
+    }
+
+    /**
+     * {@link #updateProperty(HousingProperty)} の非同期版
+     */
+    public CompletableFuture<Void> updatePropertyAsync(HousingProperty property) {
+        return databaseExecutor.run(() -> updateProperty(property));
+    }
+
     /**
-     * ResultSetからIntegerまたはNULLを取得
+     * {@link #updateAvailability(int, boolean)} の非同期版
      */
-    private Integer getIntegerOrNull(ResultSet rs, String columnName) throws SQLException {
-        int value = rs.getInt(columnName);
-        return rs.wasNull() ? null : value;
+    public CompletableFuture<Void> updateAvailabilityAsync(int propertyId, boolean isAvailable) {
+        return databaseExecutor.run(() -> updateAvailability(propertyId, isAvailable));
     }
 
     /**
-     * ResultSetからDoubleまたはNULLを取得
+     * {@link #deleteProperty(int)} の非同期版
      */
-    private Double getDoubleOrNull(ResultSet rs, String columnName) throws SQLException {
-        double value = rs.getDouble(columnName);
-        return rs.wasNull() ? null : value;
+    public CompletableFuture<Void> deletePropertyAsync(int id) {
+        return databaseExecutor.run(() -> deleteProperty(id));
     }
 }
@@ -1,21 +1,69 @@
 package org.tofu.tofunomics.dao;
 
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.HousingRental;
 import org.tofu.tofunomics.models.HousingRentalHistory;
 
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 住居賃貸契約のデータアクセスオブジェクト
  */
 public class HousingRentalDAO {
-    private final Connection connection;
+    static final RowMapper<HousingRental> RENTAL_MAPPER = new RowMapper<>(
+        "id, property_id, tenant_uuid, rental_period, rental_days, total_cost, " +
+        "start_date, end_date, start_tick, end_tick, status, auto_renew, created_at",
+        rs -> {
+            HousingRental rental = new HousingRental();
+            rental.setId(rs.getInt(1));
+            rental.setPropertyId(rs.getInt(2));
+            rental.setTenantUuid(UUID.fromString(rs.getString(3)));
+            rental.setRentalPeriod(rs.getString(4));
+            rental.setRentalDays(rs.getInt(5));
+            rental.setTotalCost(rs.getDouble(6));
+            rental.setStartDate(rs.getTimestamp(7));
+            rental.setEndDate(rs.getTimestamp(8));
+            rental.setStartTick(rs.getLong(9));
+            rental.setEndTick(rs.getLong(10));
+            rental.setStatus(rs.getString(11));
+            rental.setAutoRenew(rs.getBoolean(12));
+            rental.setCreatedAt(rs.getTimestamp(13));
+            return rental;
+        });
+
+    private static final RowMapper<HousingRentalHistory> HISTORY_MAPPER = new RowMapper<>(
+        "id, rental_id, property_id, tenant_uuid, action_type, amount, action_date",
+        rs -> {
+            HousingRentalHistory history = new HousingRentalHistory();
+            history.setId(rs.getInt(1));
+            history.setRentalId(rs.getInt(2));
+            history.setPropertyId(rs.getInt(3));
+            history.setTenantUuid(UUID.fromString(rs.getString(4)));
+            history.setActionType(rs.getString(5));
+            history.setAmount(RowMapper.getNullableDouble(rs, 6));
+            history.setActionDate(rs.getTimestamp(7));
+            return history;
+        });
+
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+
+    public HousingRentalDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+
+    public HousingRentalDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+    }
 
     public HousingRentalDAO(Connection connection) {
-        this.connection = connection;
+        this(new SingleConnectionDataSource(connection));
     }
 
     /**
@@ -27,7 +75,8 @@ public class HousingRentalDAO {
                       "start_date, end_date, start_tick, end_tick, status, auto_renew, created_at) " +
                       "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             statement.setInt(1, rental.getPropertyId());
             statement.setString(2, rental.getTenantUuid().toString());
             statement.setString(3, rental.getRentalPeriod());
@@ -58,85 +107,59 @@ public class HousingRentalDAO {
      * IDで賃貸契約を取得
      */
     public HousingRental getRental(int id) throws SQLException {
-        String query = "SELECT * FROM housing_rentals WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = RENTAL_MAPPER.selectFrom("housing_rentals") + " WHERE id = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, id);
-            ResultSet rs = statement.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToRental(rs);
-            }
+            return RENTAL_MAPPER.mapFirst(statement.executeQuery());
         }
-        return null;
     }
 
     /**
      * プレイヤーの有効な賃貸契約一覧を取得
      */
     public List<HousingRental> getActiveRentalsByTenant(UUID tenantUuid) throws SQLException {
-        String query = "SELECT * FROM housing_rentals WHERE tenant_uuid = ? AND status = 'active' ORDER BY end_date";
-        List<HousingRental> rentals = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = RENTAL_MAPPER.selectFrom("housing_rentals") + " WHERE tenant_uuid = ? AND status = 'active' ORDER BY end_date";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, tenantUuid.toString());
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                rentals.add(mapResultSetToRental(rs));
-            }
+            return RENTAL_MAPPER.mapAll(statement.executeQuery());
         }
-        return rentals;
     }
 
     /**
      * プレイヤーの全賃貸契約一覧を取得
      */
     public List<HousingRental> getAllRentalsByTenant(UUID tenantUuid) throws SQLException {
-        String query = "SELECT * FROM housing_rentals WHERE tenant_uuid = ? ORDER BY created_at DESC";
-        List<HousingRental> rentals = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = RENTAL_MAPPER.selectFrom("housing_rentals") + " WHERE tenant_uuid = ? ORDER BY created_at DESC";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, tenantUuid.toString());
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                rentals.add(mapResultSetToRental(rs));
-            }
+            return RENTAL_MAPPER.mapAll(statement.executeQuery());
         }
-        return rentals;
     }
 
     /**
      * 物件の有効な賃貸契約を取得
      */
     public HousingRental getActiveRentalByProperty(int propertyId) throws SQLException {
-        String query = "SELECT * FROM housing_rentals WHERE property_id = ? AND status = 'active' LIMIT 1";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = RENTAL_MAPPER.selectFrom("housing_rentals") + " WHERE property_id = ? AND status = 'active' LIMIT 1";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, propertyId);
-            ResultSet rs = statement.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToRental(rs);
-            }
+            return RENTAL_MAPPER.mapFirst(statement.executeQuery());
         }
-        return null;
     }
 
     /**
      * 全ての有効な賃貸契約を取得（期限チェック用）
      */
     public List<HousingRental> getAllActiveRentals() throws SQLException {
-        String query = "SELECT * FROM housing_rentals WHERE status = 'active' ORDER BY end_date";
-        List<HousingRental> rentals = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                rentals.add(mapResultSetToRental(rs));
-            }
+        String query = RENTAL_MAPPER.selectFrom("housing_rentals") + " WHERE status = 'active' ORDER BY end_date";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            return RENTAL_MAPPER.mapAll(statement.executeQuery());
         }
-        return rentals;
     }
 
     /**
@@ -144,18 +167,12 @@ public class HousingRentalDAO {
      * @param currentTick 現在のゲーム内時間（tick数）
      */
     public List<HousingRental> getExpiredRentals(long currentTick) throws SQLException {
-        String query = "SELECT * FROM housing_rentals WHERE status = 'active' AND end_tick <= ?";
-        List<HousingRental> rentals = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = RENTAL_MAPPER.selectFrom("housing_rentals") + " WHERE status = 'active' AND end_tick <= ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setLong(1, currentTick);
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                rentals.add(mapResultSetToRental(rs));
-            }
+            return RENTAL_MAPPER.mapAll(statement.executeQuery());
         }
-        return rentals;
     }
 
     /**
@@ -168,7 +185,8 @@ public class HousingRentalDAO {
                       "status = ?, auto_renew = ? " +
                       "WHERE id = ?";
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, rental.getRentalPeriod());
             statement.setInt(2, rental.getRentalDays());
             statement.setDouble(3, rental.getTotalCost());
@@ -189,7 +207,8 @@ public class HousingRentalDAO {
      */
     public void updateRentalStatus(int rentalId, String status) throws SQLException {
         String query = "UPDATE housing_rentals SET status = ? WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, status);
             statement.setInt(2, rentalId);
             statement.executeUpdate();
@@ -201,7 +220,8 @@ public class HousingRentalDAO {
      */
     public void deleteRental(int id) throws SQLException {
         String query = "DELETE FROM housing_rentals WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, id);
             statement.executeUpdate();
         }
@@ -215,7 +235,8 @@ public class HousingRentalDAO {
                       "(rental_id, property_id, tenant_uuid, action_type, amount, action_date) " +
                       "VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, history.getRentalId());
             statement.setInt(2, history.getPropertyId());
             statement.setString(3, history.getTenantUuid().toString());
@@ -236,71 +257,100 @@ public class HousingRentalDAO {
      * プレイヤーの賃貸履歴を取得
      */
     public List<HousingRentalHistory> getRentalHistoryByTenant(UUID tenantUuid, int limit) throws SQLException {
-        String query = "SELECT * FROM housing_rental_history WHERE tenant_uuid = ? " +
+        String query = HISTORY_MAPPER.selectFrom("housing_rental_history") + " WHERE tenant_uuid = ? " +
                       "ORDER BY action_date DESC LIMIT ?";
-        List<HousingRentalHistory> histories = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, tenantUuid.toString());
             statement.setInt(2, limit);
-            ResultSet rs = statement.executeQuery();
-            
-            while (rs.next()) {
-                histories.add(mapResultSetToHistory(rs));
-            }
+            return HISTORY_MAPPER.mapAll(statement.executeQuery());
         }
-        return histories;
     }
 
+    // ========== 非同期API ==========
+    // DB専用スレッドで実行し、後続処理はメインスレッドの完了キューで実行される
+
     /**
-     * ResultSetからHousingRentalオブジェクトにマッピング
+     * {@link #createRental(HousingRental)} の非同期版
      */
-    private HousingRental mapResultSetToRental(ResultSet rs) throws SQLException {
-        HousingRental rental = new HousingRental();
-        rental.setId(rs.getInt("id"));
-        rental.setPropertyId(rs.getInt("property_id"));
-        rental.setTenantUuid(UUID.fromString(rs.getString("tenant_uuid")));
-        rental.setRentalPeriod(rs.getString("rental_period"));
-        rental.setRentalDays(rs.getInt("rental_days"));
-        rental.setTotalCost(rs.getDouble("total_cost"));
-        rental.setStartDate(rs.getTimestamp("start_date"));
-        rental.setEndDate(rs.getTimestamp("end_date"));
-        
-        // tick数を読み込み（存在する場合）
-        try {
-            rental.setStartTick(rs.getLong("start_tick"));
-            rental.setEndTick(rs.getLong("end_tick"));
-        } catch (SQLException e) {
-            // カラムが存在しない場合（後方互換性のため）
-            rental.setStartTick(0);
-            rental.setEndTick(0);
-        }
-        
-        rental.setStatus(rs.getString("status"));
-        rental.setAutoRenew(rs.getBoolean("auto_renew"));
-        rental.setCreatedAt(rs.getTimestamp("created_at"));
-        
-        return rental;
+    public CompletableFuture<Integer> createRentalAsync(HousingRental rental) {
+        return databaseExecutor.supply(() -> createRental(rental));
     }
 
     /**
-     * ResultSetからHousingRentalHistoryオブジェクトにマッピング
+     * {@link #getRental(int)} の非同期版
      */
-    private HousingRentalHistory mapResultSetToHistory(ResultSet rs) throws SQLException {
-        HousingRentalHistory history = new HousingRentalHistory();
-        history.setId(rs.getInt("id"));
-        history.setRentalId(rs.getInt("rental_id"));
-        history.setPropertyId(rs.getInt("property_id"));
-        history.setTenantUuid(UUID.fromString(rs.getString("tenant_uuid")));
-        history.setActionType(rs.getString("action_type"));
-        
-        double amount = rs.getDouble("amount");
-        if (!rs.wasNull()) {
-            history.setAmount(amount);
-        }
-        
-        history.setActionDate(rs.getTimestamp("action_date"));
-        
-        return history;
+    public CompletableFuture<HousingRental> getRentalAsync(int id) {
+        return databaseExecutor.supply(() -> getRental(id));
+    }
+
+    /**
+     * {@link #getActiveRentalsByTenant(UUID)} の非同期版
+     */
+    public CompletableFuture<List<HousingRental>> getActiveRentalsByTenantAsync(UUID tenantUuid) {
+        return databaseExecutor.supply(() -> getActiveRentalsByTenant(tenantUuid));
+    }
+
+    /**
+     * {@link #getAllRentalsByTenant(UUID)} の非同期版
+     */
+    public CompletableFuture<List<HousingRental>> getAllRentalsByTenantAsync(UUID tenantUuid) {
+        return databaseExecutor.supply(() -> getAllRentalsByTenant(tenantUuid));
+    }
+
+    /**
+     * {@link #getActiveRentalByProperty(int)} の非同期版
+     */
+    public CompletableFuture<HousingRental> getActiveRentalByPropertyAsync(int propertyId) {
+        return databaseExecutor.supply(() -> getActiveRentalByProperty(propertyId));
+    }
+
+    /**
+     * {@link #getAllActiveRentals()} の非同期版
+     */
+    public CompletableFuture<List<HousingRental>> getAllActiveRentalsAsync() {
+        return databaseExecutor.supply(() -> getAllActiveRentals());
+    }
+
+    /**
+     * {@link #getExpiredRentals(long)} の非同期版
+     */
+    public CompletableFuture<List<HousingRental>> getExpiredRentalsAsync(long currentTick) {
+        return databaseExecutor.supply(() -> getExpiredRentals(currentTick));
+    }
+
+    /**
+     * {@link #updateRental(HousingRental)} の非同期版
+     */
+    public CompletableFuture<Void> updateRentalAsync(HousingRental rental) {
+        return databaseExecutor.run(() -> updateRental(rental));
+    }
+
+    /**
+     * {@link #updateRentalStatus(int, String)} の非同期版
+     */
+    public CompletableFuture<Void> updateRentalStatusAsync(int rentalId, String status) {
+        return databaseExecutor.run(() -> updateRentalStatus(rentalId, status));
+    }
+
+    /**
+     * {@link #deleteRental(int)} の非同期版
+     */
+    public CompletableFuture<Void> deleteRentalAsync(int id) {
+        return databaseExecutor.run(() -> deleteRental(id));
+    }
+
+    /**
+     * {@link #addRentalHistory(HousingRentalHistory)} の非同期版
+     */
+    public CompletableFuture<Void> addRentalHistoryAsync(HousingRentalHistory history) {
+        return databaseExecutor.run(() -> addRentalHistory(history));
+    }
+
+    /**
+     * {@link #getRentalHistoryByTenant(UUID, int)} の非同期版
+     */
+    public CompletableFuture<List<HousingRentalHistory>> getRentalHistoryByTenantAsync(UUID tenantUuid, int limit) {
+        return databaseExecutor.supply(() -> getRentalHistoryByTenant(tenantUuid, limit));
     }
 }
@@ -1,33 +1,48 @@
 package org.tofu.tofunomics.dao;
 
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.JobChange;
 
+import javax.sql.DataSource;
 import java.sql.*;
+import java.util.concurrent.CompletableFuture;
 
 public class JobChangeDAO {
+    static final RowMapper<JobChange> JOB_CHANGE_MAPPER = new RowMapper<>(
+        "uuid, last_change_date, created_at, updated_at",
+        resultSet -> {
+            JobChange jobChange = new JobChange();
+            jobChange.setUuid(resultSet.getString(1));
+            jobChange.setLastChangeDate(resultSet.getString(2));
+            jobChange.setCreatedAt(resultSet.getTimestamp(3));
+            jobChange.setUpdatedAt(resultSet.getTimestamp(4));
+            return jobChange;
+        });
     
-    private final Connection connection;
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+    
+    public JobChangeDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+    
+    public JobChangeDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+    }
     
     public JobChangeDAO(Connection connection) {
-        this.connection = connection;
+        this(new SingleConnectionDataSource(connection));
     }
     
     public JobChange getJobChangeByUUID(String uuid) {
-        String query = "SELECT uuid, last_change_date, created_at, updated_at FROM job_changes WHERE uuid = ?";
+        String query = JOB_CHANGE_MAPPER.selectFrom("job_changes") + " WHERE uuid = ?";
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, uuid);
-            
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    JobChange jobChange = new JobChange();
-                    jobChange.setUuid(resultSet.getString("uuid"));
-                    jobChange.setLastChangeDate(resultSet.getString("last_change_date"));
-                    jobChange.setCreatedAt(resultSet.getTimestamp("created_at"));
-                    jobChange.setUpdatedAt(resultSet.getTimestamp("updated_at"));
-                    return jobChange;
-                }
-            }
+            return JOB_CHANGE_MAPPER.mapFirst(statement.executeQuery());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -38,7 +53,8 @@ public class JobChangeDAO {
     public boolean insertJobChange(JobChange jobChange) {
         String query = "INSERT INTO job_changes (uuid, last_change_date, created_at, updated_at) VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, jobChange.getUuid());
             statement.setString(2, jobChange.getLastChangeDate());
             
@@ -52,7 +68,8 @@ public class JobChangeDAO {
     public boolean updateJobChange(JobChange jobChange) {
         String query = "UPDATE job_changes SET last_change_date = ?, updated_at = CURRENT_TIMESTAMP WHERE uuid = ?";
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, jobChange.getLastChangeDate());
             statement.setString(2, jobChange.getUuid());
             
@@ -85,7 +102,8 @@ public class JobChangeDAO {
     public boolean deleteJobChange(String uuid) {
         String query = "DELETE FROM job_changes WHERE uuid = ?";
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, uuid);
             return statement.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -93,4 +111,42 @@ public class JobChangeDAO {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // ========== 非同期API ==========
+    // DB専用スレッドで実行し、後続処理はメインスレッドの完了キューで実行される
+
+    /**
+     * {@link #getJobChangeByUUID(String)} の非同期版
+     */
+    public CompletableFuture<JobChange> getJobChangeByUUIDAsync(String uuid) {
+        return databaseExecutor.supply(() -> getJobChangeByUUID(uuid));
+    }
+
+    /**
+     * {@link #upsertJobChange(JobChange)} の非同期版
+     */
+    public CompletableFuture<Boolean> upsertJobChangeAsync(JobChange jobChange) {
+        return databaseExecutor.supply(jobChange.getUuid(), () -> upsertJobChange(jobChange));
+    }
+
+    /**
+     * {@link #canPlayerChangeJobToday(String)} の非同期版
+     */
+    public CompletableFuture<Boolean> canPlayerChangeJobTodayAsync(String uuid) {
+        return databaseExecutor.supply(() -> canPlayerChangeJobToday(uuid));
+    }
+
+    /**
+     * {@link #recordJobChangeToday(String)} の非同期版
+     */
+    public CompletableFuture<Boolean> recordJobChangeTodayAsync(String uuid) {
+        return databaseExecutor.supply(uuid, () -> recordJobChangeToday(uuid));
+    }
+
+    /**
+     * {@link #deleteJobChange(String)} の非同期版
+     */
+    public CompletableFuture<Boolean> deleteJobChangeAsync(String uuid) {
+        return databaseExecutor.supply(uuid, () -> deleteJobChange(uuid));
+    }
+}
@@ -1,8 +1,11 @@
 package org.tofu.tofunomics.dao;
 
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.Job;
 import org.tofu.tofunomics.TofuNomics;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -14,17 +17,33 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.logging.Logger;
+import java.util.concurrent.CompletableFuture;
 
 public class JobDAO {
-    private final Connection connection;
+    private static final RowMapper<Job> JOB_MAPPER = new RowMapper<>(
+        "id, name, display_name, max_level, base_income, created_at",
+        JobDAO::mapResultSetToJob);
+
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+
+    public JobDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+
+    public JobDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+    }
 
     public JobDAO(Connection connection) {
-        this.connection = connection;
+        this(new SingleConnectionDataSource(connection));
     }
 
     public void createJob(Job job) throws SQLException {
         String query = "INSERT INTO jobs (name, display_name, max_level, base_income, created_at) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, job.getName());
             statement.setString(2, job.getDisplayName());
             statement.setInt(3, job.getMaxLevel());
@@ -35,48 +54,35 @@ public class JobDAO {
     }
 
     public Job getJobById(int id) throws SQLException {
-        String query = "SELECT * FROM jobs WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = JOB_MAPPER.selectFrom("jobs") + " WHERE id = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
-            
-            if (resultSet.next()) {
-                return mapResultSetToJob(resultSet);
-            }
+            return JOB_MAPPER.mapFirst(statement.executeQuery());
         }
-        return null;
     }
 
     public Job getJobByName(String name) throws SQLException {
-        String query = "SELECT * FROM jobs WHERE name = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = JOB_MAPPER.selectFrom("jobs") + " WHERE name = ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, name);
-            ResultSet resultSet = statement.executeQuery();
-            
-            if (resultSet.next()) {
-                return mapResultSetToJob(resultSet);
-            }
+            return JOB_MAPPER.mapFirst(statement.executeQuery());
         }
-        return null;
     }
 
     public List<Job> getAllJobs() throws SQLException {
-        String query = "SELECT * FROM jobs ORDER BY id";
-        List<Job> jobs = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            ResultSet resultSet = statement.executeQuery();
-            
-            while (resultSet.next()) {
-                jobs.add(mapResultSetToJob(resultSet));
-            }
+        String query = JOB_MAPPER.selectFrom("jobs") + " ORDER BY id";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            return JOB_MAPPER.mapAll(statement.executeQuery());
         }
-        return jobs;
     }
 
     public void updateJob(Job job) throws SQLException {
         String query = "UPDATE jobs SET name = ?, display_name = ?, max_level = ?, base_income = ? WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, job.getName());
             statement.setString(2, job.getDisplayName());
             statement.setInt(3, job.getMaxLevel());
@@ -88,7 +94,8 @@ public class JobDAO {
 
     public void deleteJob(int id) throws SQLException {
         String query = "DELETE FROM jobs WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, id);
             statement.executeUpdate();
         }
@@ -96,7 +103,8 @@ public class JobDAO {
 
     public boolean jobExists(String name) throws SQLException {
         String query = "SELECT COUNT(*) FROM jobs WHERE name = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, name);
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
@@ -110,11 +118,12 @@ public class JobDAO {
         String query = "SELECT name FROM jobs ORDER BY id";
         List<String> jobNames = new ArrayList<>();
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             ResultSet resultSet = statement.executeQuery();
             
             while (resultSet.next()) {
-                jobNames.add(resultSet.getString("name"));
+                jobNames.add(resultSet.getString(1));
             }
         }
         return jobNames;
@@ -124,31 +133,32 @@ public class JobDAO {
         String query = "SELECT display_name FROM jobs ORDER BY id";
         List<String> displayNames = new ArrayList<>();
         
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             ResultSet resultSet = statement.executeQuery();
             
             while (resultSet.next()) {
-                displayNames.add(resultSet.getString("display_name"));
+                displayNames.add(resultSet.getString(1));
             }
         }
         return displayNames;
     }
 
-    private Job mapResultSetToJob(ResultSet resultSet) throws SQLException {
+    private static Job mapResultSetToJob(ResultSet resultSet) throws SQLException {
         Job job = new Job();
-        job.setId(resultSet.getInt("id"));
-        job.setName(resultSet.getString("name"));
-        job.setDisplayName(resultSet.getString("display_name"));
-        job.setMaxLevel(resultSet.getInt("max_level"));
-        job.setBaseIncome(resultSet.getDouble("base_income"));
+        job.setId(resultSet.getInt(1));
+        job.setName(resultSet.getString(2));
+        job.setDisplayName(resultSet.getString(3));
+        job.setMaxLevel(resultSet.getInt(4));
+        job.setBaseIncome(resultSet.getDouble(5));
         
         // タイムスタンプの安全な取得
         try {
             // まず通常のgetTimestamp()を試す
-            job.setCreatedAt(resultSet.getTimestamp("created_at"));
+            job.setCreatedAt(resultSet.getTimestamp(6));
         } catch (SQLException e) {
             // エラーが発生した場合、文字列として取得してパース
-            String dateStr = resultSet.getString("created_at");
+            String dateStr = resultSet.getString(6);
             if (dateStr != null && !dateStr.isEmpty()) {
                 try {
                     // 複数のフォーマットに対応
@@ -171,7 +181,7 @@ public class JobDAO {
         return job;
     }
     
-    private Timestamp parseTimestamp(String dateStr) throws ParseException {
+    private static Timestamp parseTimestamp(String dateStr) throws ParseException {
         // 複数の日付フォーマットを試す
         String[] patterns = {
             "yyyy-MM-dd HH:mm:ss.SSS",
@@ -262,4 +272,70 @@ public class JobDAO {
             return new ArrayList<>();
         }
     }
-}
\ No newline at end of file
+
+    // ========== 非同期API ==========
+    // DB専用スレッドで実行し、後続処理はメインスレッドの完了キューで実行される
+
+    /**
+     * {@link #createJob(Job)} の非同期版
+     */
+    public CompletableFuture<Void> createJobAsync(Job job) {
+        return databaseExecutor.run(() -> createJob(job));
+    }
+
+    /**
+     * {@link #getJobById(int)} の非同期版
+     */
+    public CompletableFuture<Job> getJobByIdAsync(int id) {
+        return databaseExecutor.supply(() -> getJobById(id));
+    }
+
+    /**
+     * {@link #getJobByName(String)} の非同期版
+     */
+    public CompletableFuture<Job> getJobByNameAsync(String name) {
+        return databaseExecutor.supply(() -> getJobByName(name));
+    }
+
+    /**
+     * {@link #getAllJobs()} の非同期版
+     */
+    public CompletableFuture<List<Job>> getAllJobsAsync() {
+        return databaseExecutor.supply(() -> getAllJobs());
+    }
+
+    /**
+     * {@link #updateJob(Job)} の非同期版
+     */
+    public CompletableFuture<Void> updateJobAsync(Job job) {
+        return databaseExecutor.run(() -> updateJob(job));
+    }
+
+    /**
+     * {@link #deleteJob(int)} の非同期版
+     */
+    public CompletableFuture<Void> deleteJobAsync(int id) {
+        return databaseExecutor.run(() -> deleteJob(id));
+    }
+
+    /**
+     * {@link #jobExists(String)} の非同期版
+     */
+    public CompletableFuture<Boolean> jobExistsAsync(String name) {
+        return databaseExecutor.supply(() -> jobExists(name));
+    }
+
+    /**
+     * {@link #getJobNames()} の非同期版
+     */
+    public CompletableFuture<List<String>> getJobNamesAsync() {
+        return databaseExecutor.supply(() -> getJobNames());
+    }
+
+    /**
+     * {@link #getJobDisplayNames()} の非同期版
+     */
+    public CompletableFuture<List<String>> getJobDisplayNamesAsync() {
+        return databaseExecutor.supply(() -> getJobDisplayNames());
+    }
+}
@@ -1,24 +1,110 @@
 package org.tofu.tofunomics.dao;
 
+import org.tofu.tofunomics.cache.CacheManager;
+import org.tofu.tofunomics.cache.KnownPlayerFilter;
+import org.tofu.tofunomics.cache.PlayerNameDirectory;
+import org.tofu.tofunomics.cache.PlayerStateStore;
+import org.tofu.tofunomics.cache.WealthLeaderboard;
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.Player;
+import org.tofu.tofunomics.performance.StatsRegistry;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public class PlayerDAO {
-    private final Connection connection;
+    static final RowMapper<Player> PLAYER_MAPPER = new RowMapper<>(
+        "uuid, balance, bank_balance, created_at, updated_at",
+        resultSet -> {
+            Player player = new Player();
+            player.setUuid(UUID.fromString(resultSet.getString(1)));
+            player.setBalance(resultSet.getDouble(2));
+            player.setBankBalance(resultSet.getDouble(3));
+            player.setCreatedAt(resultSet.getTimestamp(4));
+            player.setUpdatedAt(resultSet.getTimestamp(5));
+            return player;
+        });
+    // 名前が記録されている行だけを読む（nameはv11のマイグレーションで追加）
+    private static final RowMapper<Map.Entry<UUID, String>> NAME_MAPPER = new RowMapper<>(
+        "uuid, name",
+        resultSet -> Map.entry(UUID.fromString(resultSet.getString(1)), resultSet.getString(2)));
+    // 統計の推定サイズ用の概算（ランキングのエントリとtreapのノード、名前の文字列）
+    private static final long WEALTH_ENTRY_BYTES = 96L;
+    private static final long NAME_BYTES = 56L;
 
-    public PlayerDAO(Connection connection) {
-        this.connection = connection;
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+    // 読み込み済み（オンライン）プレイヤーの行はストアが正となり、更新はメモリ上で行う
+    private final PlayerStateStore stateStore;
+    // 総資産ランキング（残高を変更するたびに同じロック内で反映する）
+    private final WealthLeaderboard wealthLeaderboard;
+    // 未読み込み（オフライン）プレイヤーの行のキャッシュ（DBへ書き込んだら置き換えるか破棄する）
+    private final CacheManager cacheManager;
+    // players行が存在するUUIDのブルームフィルタ（存在しない行への問い合わせを省く）
+    private final KnownPlayerFilter knownPlayers = new KnownPlayerFilter();
+    // UUIDから表示名を引く名簿（起動時に全件読み込み、参加時の名前更新で差し替える）
+    private final PlayerNameDirectory nameDirectory = new PlayerNameDirectory();
+    // players.nameが未記録のプレイヤーの名前をサーバーの記録（usercache）から引く（既定では引かない）
+    private volatile Function<UUID, String> nameLookup = uuid -> null;
+
+    // ストア・ランキング・キャッシュを新しく作るコンストラクタはテスト用
+    // （プラグイン本体では同じ行を別々のストアで扱わないよう、TofuNomics#getPlayerDAO() を共有する）
+    PlayerDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+
+    PlayerDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this(dataSource, databaseExecutor, new PlayerStateStore());
+    }
+
+    PlayerDAO(DataSource dataSource, DatabaseExecutor databaseExecutor, PlayerStateStore stateStore) {
+        this(dataSource, databaseExecutor, stateStore, new WealthLeaderboard());
+    }
+
+    PlayerDAO(DataSource dataSource, DatabaseExecutor databaseExecutor, PlayerStateStore stateStore,
+              WealthLeaderboard wealthLeaderboard) {
+        this(dataSource, databaseExecutor, stateStore, wealthLeaderboard, CacheManager.disabled());
+    }
+
+    public PlayerDAO(DataSource dataSource, DatabaseExecutor databaseExecutor, PlayerStateStore stateStore,
+                     WealthLeaderboard wealthLeaderboard, CacheManager cacheManager) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+        this.stateStore = stateStore;
+        this.wealthLeaderboard = wealthLeaderboard;
+        this.cacheManager = cacheManager;
+    }
+
+    PlayerDAO(Connection connection) {
+        this(new SingleConnectionDataSource(connection));
     }
 
     public void createPlayer(Player player) throws SQLException {
+        synchronized (stateStore.lockFor(player.getUuid())) {
+            try (Connection connection = dataSource.getConnection()) {
+                createPlayer(connection, player);
+            }
+            stateStore.onPlayerCreated(player);
+            if (!stateStore.isLoaded(player.getUuid())) {
+                cacheManager.cachePlayer(player);
+            }
+            wealthLeaderboard.update(player.getUuid(), player.getBalance(), player.getBankBalance());
+        }
+    }
+
+    private void createPlayer(Connection connection, Player player) throws SQLException {
         String query = "INSERT INTO players (uuid, balance, bank_balance, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
         try (PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, player.getUuid().toString());
@@ -28,152 +114,601 @@ public class PlayerDAO {
             statement.setTimestamp(5, player.getUpdatedAt());
             statement.executeUpdate();
         }
+        knownPlayers.add(player.getUuid());
+        if (knownPlayers.beginRebuildIfSaturated()) {
+            rebuildKnownPlayers();
+        }
     }
 
+    /**
+     * 見込んだ容量を超えた既知プレイヤーのフィルタを、全UUIDを読み直して作り直す（DBスレッドで実行）
+     */
+    private void rebuildKnownPlayers() {
+        databaseExecutor.run(() -> {
+            List<UUID> uuids = new ArrayList<>();
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT uuid FROM players");
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    uuids.add(UUID.fromString(resultSet.getString(1)));
+                }
+            }
+            knownPlayers.load(uuids);
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                knownPlayers.cancelRebuild();
+            }
+        });
+    }
+
+    /**
+     * 読み込み済みならストアから、未読み込みならキャッシュから返し、どちらにもなければDBから読んでキャッシュする
+     * DBの読み込みとキャッシュへの登録は書き込みと同じロック内で行い、古い行がキャッシュに残らないようにする
+     * 存在しないことが確実なUUIDはDBを読まずにnullを返す
+     */
     public Player getPlayer(UUID uuid) throws SQLException {
-        String query = "SELECT * FROM players WHERE uuid = ?";
+        synchronized (stateStore.lockFor(uuid)) {
+            if (stateStore.isLoaded(uuid)) {
+                return stateStore.getPlayer(uuid);
+            }
+            Player cachedPlayer = cacheManager.getCachedPlayer(uuid);
+            if (cachedPlayer != null) {
+                return cachedPlayer;
+            }
+            if (!knownPlayers.mightExist(uuid)) {
+                return null;
+            }
+            Player player;
+            try (Connection connection = dataSource.getConnection()) {
+                player = getPlayer(connection, uuid);
+            }
+            cacheManager.cachePlayer(player);
+            return player;
+        }
+    }
+
+    private Player getPlayer(Connection connection, UUID uuid) throws SQLException {
+        String query = PLAYER_MAPPER.selectFrom("players") + " WHERE uuid = ?";
         try (PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, uuid.toString());
-            ResultSet resultSet = statement.executeQuery();
-            
-            if (resultSet.next()) {
-                Player player = new Player();
-                player.setUuid(UUID.fromString(resultSet.getString("uuid")));
-                player.setBalance(resultSet.getDouble("balance"));
-                // bank_balanceカラムの存在チェック（マイグレーション対応）
-                try {
-                    player.setBankBalance(resultSet.getDouble("bank_balance"));
-                } catch (SQLException e) {
-                    player.setBankBalance(0.0);
-                }
-                try {
-                    player.setCreatedAt(resultSet.getTimestamp("created_at"));
-                } catch (SQLException e) {
-                    player.setCreatedAt(null);
-                }
-                try {
-                    player.setUpdatedAt(resultSet.getTimestamp("updated_at"));
-                } catch (SQLException e) {
-                    player.setUpdatedAt(null);
-                }
-                return player;
-            }
+            return PLAYER_MAPPER.mapFirst(statement.executeQuery());
         }
-        return null;
     }
 
     public Player getOrCreatePlayer(UUID uuid) throws SQLException {
-        Player player = getPlayer(uuid);
-        if (player == null) {
-            player = new Player(uuid, 0.0);
-            createPlayer(player);
+        synchronized (stateStore.lockFor(uuid)) {
+            Player player = getPlayer(uuid);
+            if (player == null) {
+                player = new Player(uuid, 0.0);
+                createPlayer(player);
+            }
+            return player;
         }
-        return player;
     }
 
     public void updatePlayer(Player player) throws SQLException {
+        synchronized (stateStore.lockFor(player.getUuid())) {
+            if (!stateStore.updatePlayer(player)) {
+                Timestamp updatedAt = new Timestamp(System.currentTimeMillis());
+                try (Connection connection = dataSource.getConnection()) {
+                    updatePlayer(connection, player, updatedAt);
+                }
+                updateCachedPlayer(player, updatedAt);
+            }
+            wealthLeaderboard.update(player.getUuid(), player.getBalance(), player.getBankBalance());
+        }
+    }
+
+    private void updatePlayer(Connection connection, Player player, Timestamp updatedAt) throws SQLException {
         String query = "UPDATE players SET balance = ?, bank_balance = ?, updated_at = ? WHERE uuid = ?";
         try (PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setDouble(1, player.getBalance());
             statement.setDouble(2, player.getBankBalance());
-            statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            statement.setTimestamp(3, updatedAt);
             statement.setString(4, player.getUuid().toString());
             statement.executeUpdate();
         }
     }
 
+    /**
+     * DBへ書き込んだ残高でキャッシュ済みの行を置き換える（作成日時はキャッシュ済みの値を保つ）
+     */
+    private void updateCachedPlayer(Player player, Timestamp updatedAt) {
+        Player cachedPlayer = cacheManager.getCachedPlayer(player.getUuid());
+        if (cachedPlayer == null) {
+            return;
+        }
+        cachedPlayer.setBalance(player.getBalance());
+        cachedPlayer.setBankBalance(player.getBankBalance());
+        cachedPlayer.setUpdatedAt(updatedAt);
+        cacheManager.updateCachedPlayer(cachedPlayer);
+    }
+
     public void updateBalance(UUID uuid, double newBalance) throws SQLException {
-        String query = "UPDATE players SET balance = ?, updated_at = ? WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setDouble(1, newBalance);
-            statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
-            statement.setString(3, uuid.toString());
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(uuid)) {
+            if (!stateStore.setBalance(uuid, newBalance)) {
+                String query = "UPDATE players SET balance = ?, updated_at = ? WHERE uuid = ?";
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(query)) {
+                    statement.setDouble(1, newBalance);
+                    statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                    statement.setString(3, uuid.toString());
+                    statement.executeUpdate();
+                }
+                cacheManager.invalidatePlayer(uuid);
+            }
+            wealthLeaderboard.updateBalance(uuid, newBalance);
         }
     }
 
     public void updateBankBalance(UUID uuid, double newBankBalance) throws SQLException {
-        String query = "UPDATE players SET bank_balance = ?, updated_at = ? WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setDouble(1, newBankBalance);
-            statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
-            statement.setString(3, uuid.toString());
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(uuid)) {
+            if (!stateStore.setBankBalance(uuid, newBankBalance)) {
+                String query = "UPDATE players SET bank_balance = ?, updated_at = ? WHERE uuid = ?";
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(query)) {
+                    statement.setDouble(1, newBankBalance);
+                    statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                    statement.setString(3, uuid.toString());
+                    statement.executeUpdate();
+                }
+                cacheManager.invalidatePlayer(uuid);
+            }
+            wealthLeaderboard.updateBankBalance(uuid, newBankBalance);
+        }
+    }
+
+    /**
+     * 所持金を増減する（残高の読み取りと書き込みを同じロック内で行い、並行する増減を失わない）
+     * @return 行が存在し、減算の場合は所持金が足りた場合にtrue
+     */
+    public boolean adjustBalance(UUID uuid, double delta) throws SQLException {
+        synchronized (stateStore.lockFor(uuid)) {
+            return adjustBalances(uuid, delta, 0.0);
+        }
+    }
+
+    /**
+     * 銀行預金を増減する（残高の読み取りと書き込みを同じロック内で行い、並行する増減を失わない）
+     * @return 行が存在し、減算の場合は銀行預金が足りた場合にtrue
+     */
+    public boolean adjustBankBalance(UUID uuid, double delta) throws SQLException {
+        synchronized (stateStore.lockFor(uuid)) {
+            return adjustBalances(uuid, 0.0, delta);
+        }
+    }
+
+    /**
+     * 所持金に加算する（行がない場合は初期残高に加算した額で作成する）
+     */
+    public void creditBalance(UUID uuid, double amount, double startingBalance) throws SQLException {
+        synchronized (stateStore.lockFor(uuid)) {
+            if (!adjustBalances(uuid, amount, 0.0)) {
+                createPlayer(new Player(uuid, startingBalance + amount));
+            }
+        }
+    }
+
+    /**
+     * 所持金から銀行預金へ移す（負の額は銀行預金から所持金へ移す）
+     * @return 行が存在し、移す側の残高が足りた場合にtrue
+     */
+    public boolean moveToBank(UUID uuid, double amount) throws SQLException {
+        synchronized (stateStore.lockFor(uuid)) {
+            return adjustBalances(uuid, -amount, amount);
         }
     }
 
+    /**
+     * 銀行預金から最大 maxAmount まで引き落とす（足りない場合は預金の全額）
+     * @return 引き落とした額（行がない場合や預金がない場合は0）
+     */
+    public double withdrawBankBalanceUpTo(UUID uuid, double maxAmount) throws SQLException {
+        synchronized (stateStore.lockFor(uuid)) {
+            Player player = getPlayer(uuid);
+            if (player == null) {
+                return 0.0;
+            }
+            double amount = Math.min(maxAmount, player.getBankBalance());
+            if (amount <= 0 || !adjustBalances(uuid, 0.0, -amount)) {
+                return 0.0;
+            }
+            return amount;
+        }
+    }
+
+    /**
+     * 所持金と銀行預金を増減する（呼び出し側で lockFor(uuid) を保持すること）
+     * 読み込み済みならメモリ上で、未読み込みなら条件付きのUPDATE 1文で増減し、どちらかが負になる場合は変更しない
+     */
+    private boolean adjustBalances(UUID uuid, double balanceDelta, double bankDelta) throws SQLException {
+        boolean adjusted;
+        if (stateStore.isLoaded(uuid)) {
+            adjusted = stateStore.adjustBalances(uuid, balanceDelta, bankDelta);
+        } else {
+            String query = "UPDATE players SET balance = balance + ?, bank_balance = bank_balance + ?, updated_at = ?"
+                + " WHERE uuid = ? AND balance + ? >= 0 AND bank_balance + ? >= 0";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setDouble(1, balanceDelta);
+                statement.setDouble(2, bankDelta);
+                statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                statement.setString(4, uuid.toString());
+                statement.setDouble(5, Math.min(balanceDelta, 0.0));
+                statement.setDouble(6, Math.min(bankDelta, 0.0));
+                adjusted = statement.executeUpdate() > 0;
+            }
+            cacheManager.invalidatePlayer(uuid);
+        }
+        if (adjusted) {
+            wealthLeaderboard.adjust(uuid, balanceDelta, bankDelta);
+        }
+        return adjusted;
+    }
+
     public void deletePlayer(UUID uuid) throws SQLException {
-        String query = "DELETE FROM players WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, uuid.toString());
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(uuid)) {
+            String query = "DELETE FROM players WHERE uuid = ?";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, uuid.toString());
+                statement.executeUpdate();
+            }
+            stateStore.onPlayerDeleted(uuid);
+            cacheManager.invalidatePlayer(uuid);
+            wealthLeaderboard.remove(uuid);
         }
     }
 
+    /**
+     * 総資産の多い順に上位のプレイヤーを返す
+     * ランキングが読み込み済みならメモリ上のインデックスから返し、DBには問い合わせない
+     */
     public List<Player> getTopPlayers(int limit) throws SQLException {
-        String query = "SELECT * FROM players ORDER BY (balance + bank_balance) DESC LIMIT ?";
-        List<Player> players = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        if (wealthLeaderboard.isLoaded()) {
+            List<Player> players = new ArrayList<>();
+            for (WealthLeaderboard.Entry entry : wealthLeaderboard.getTop(limit)) {
+                Player player = new Player(entry.getUuid(), entry.getBalance());
+                player.setBankBalance(entry.getBankBalance());
+                players.add(player);
+            }
+            return players;
+        }
+        String query = PLAYER_MAPPER.selectFrom("players") + " ORDER BY (balance + bank_balance) DESC LIMIT ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, limit);
-            ResultSet resultSet = statement.executeQuery();
-            
+            return PLAYER_MAPPER.mapAll(statement.executeQuery());
+        }
+    }
+
+    /**
+     * 総資産の順位（1位から、ランキング未読み込みまたは該当なしの場合は0）
+     */
+    public int getWealthRank(UUID uuid) {
+        return wealthLeaderboard.getRank(uuid);
+    }
+
+    /**
+     * 全プレイヤーの残高と名前を読み込み、総資産ランキングと既知プレイヤーのフィルタを構築する（起動時に1回）
+     */
+    public void loadWealthLeaderboard() throws SQLException {
+        List<WealthLeaderboard.Entry> entries = new ArrayList<>();
+        List<UUID> uuids = new ArrayList<>();
+        Map<UUID, String> names = new HashMap<>();
+        String query = "SELECT uuid, balance, bank_balance, name FROM players";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
-                Player player = new Player();
-                player.setUuid(UUID.fromString(resultSet.getString("uuid")));
-                player.setBalance(resultSet.getDouble("balance"));
-                // bank_balanceカラムの存在チェック（マイグレーション対応）
-                try {
-                    player.setBankBalance(resultSet.getDouble("bank_balance"));
-                } catch (SQLException e) {
-                    player.setBankBalance(0.0);
+                UUID uuid = UUID.fromString(resultSet.getString(1));
+                entries.add(new WealthLeaderboard.Entry(uuid, resultSet.getDouble(2), resultSet.getDouble(3)));
+                uuids.add(uuid);
+                String name = resultSet.getString(4);
+                if (name != null) {
+                    names.put(uuid, name);
                 }
-                try {
-                    player.setCreatedAt(resultSet.getTimestamp("created_at"));
-                } catch (SQLException e) {
-                    player.setCreatedAt(null);
-                }
-                try {
-                    player.setUpdatedAt(resultSet.getTimestamp("updated_at"));
-                } catch (SQLException e) {
-                    player.setUpdatedAt(null);
+            }
+        }
+        wealthLeaderboard.load(entries);
+        knownPlayers.load(uuids);
+        nameDirectory.load(names);
+    }
+
+    public PlayerNameDirectory getNameDirectory() {
+        return nameDirectory;
+    }
+
+    /**
+     * players.nameが未記録のプレイヤーの名前の引き方を設定する（DBスレッドから呼ばれる）
+     */
+    public void setNameLookup(Function<UUID, String> nameLookup) {
+        this.nameLookup = nameLookup;
+    }
+
+    /**
+     * players.nameが未記録の行を、サーバーの記録から引いた名前で埋める（起動時に1回）
+     * 名前が見つからなかったUUIDは名簿に記録し、参加するまで問い合わせない
+     * @return 書き込んだ名前の数
+     */
+    public int backfillPlayerNames() throws SQLException {
+        List<UUID> unnamed = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT uuid FROM players WHERE name IS NULL");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                unnamed.add(UUID.fromString(resultSet.getString(1)));
+            }
+        }
+        return lookupAndWriteBack(unnamed).size();
+    }
+
+    /**
+     * {@link #backfillPlayerNames()} の非同期版
+     */
+    public CompletableFuture<Integer> backfillPlayerNamesAsync() {
+        return databaseExecutor.supply(this::backfillPlayerNames);
+    }
+
+    /**
+     * 総資産ランキング・名簿・既知プレイヤーのフィルタを統計の登録簿へ登録する
+     */
+    public void registerStats(StatsRegistry registry) {
+        registry.register("players.wealth_leaderboard", () -> {
+            int size = wealthLeaderboard.size();
+            return StatsRegistry.Stats.collection(size, size * (WEALTH_ENTRY_BYTES + StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.UUID_BYTES));
+        });
+        registry.register("players.name_directory", () -> {
+            int size = nameDirectory.size() + nameDirectory.getUnknownCount();
+            return StatsRegistry.Stats.collection(size, size * (NAME_BYTES + StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.UUID_BYTES));
+        });
+        registry.register("players.known_filter", () ->
+            StatsRegistry.Stats.collection(knownPlayers.size(), knownPlayers.getSizeInBytes()));
+    }
+
+    /**
+     * 複数プレイヤーの表示名をまとめて解決する
+     * 名簿にないUUIDだけを1回のIN句で読み、DBにもない名前はサーバーの記録から引いてplayers.nameへ書き戻す。
+     * どちらにもなかったUUIDは名簿に記録し、以降は問い合わせない
+     * @return 名前が分かったUUIDだけを含むマップ（引数の順序を保持、名前が見つからないプレイヤーは含まない）
+     */
+    public Map<UUID, String> resolvePlayerNames(List<UUID> uuids) throws SQLException {
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            if (nameDirectory.needsLookup(uuid) && !missing.contains(uuid)) {
+                missing.add(uuid);
+            }
+        }
+        if (missing.isEmpty()) {
+            return nameDirectory.resolve(uuids);
+        }
+        List<UUID> stored = new ArrayList<>();
+        for (UUID uuid : missing) {
+            if (knownPlayers.mightExist(uuid)) {
+                stored.add(uuid);
+            }
+        }
+        if (!stored.isEmpty()) {
+            List<Map.Entry<UUID, String>> rows;
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(
+                     NAME_MAPPER.selectWhereIn("players", "uuid", stored.size()) + " AND name IS NOT NULL")) {
+                for (int i = 0; i < stored.size(); i++) {
+                    statement.setString(i + 1, stored.get(i).toString());
                 }
-                players.add(player);
+                rows = NAME_MAPPER.mapAll(statement.executeQuery());
+            }
+            for (Map.Entry<UUID, String> row : rows) {
+                nameDirectory.put(row.getKey(), row.getValue());
+            }
+        }
+        List<UUID> unnamed = new ArrayList<>();
+        for (UUID uuid : missing) {
+            if (nameDirectory.needsLookup(uuid)) {
+                unnamed.add(uuid);
             }
         }
-        return players;
+        lookupAndWriteBack(unnamed);
+        return nameDirectory.resolve(uuids);
     }
 
-    public boolean transferBalance(UUID fromUuid, UUID toUuid, double amount) throws SQLException {
-        connection.setAutoCommit(false);
-        try {
-            Player fromPlayer = getPlayer(fromUuid);
-            Player toPlayer = getOrCreatePlayer(toUuid);
+    /**
+     * {@link #resolvePlayerNames(List)} の非同期版（すべて名簿にある場合はDBスレッドを経由せずに返す）
+     */
+    public CompletableFuture<Map<UUID, String>> resolvePlayerNamesAsync(List<UUID> uuids) {
+        for (UUID uuid : uuids) {
+            if (nameDirectory.needsLookup(uuid)) {
+                return databaseExecutor.supply(() -> resolvePlayerNames(uuids));
+            }
+        }
+        return CompletableFuture.completedFuture(nameDirectory.resolve(uuids));
+    }
 
-            if (fromPlayer == null || fromPlayer.getBankBalance() < amount) {
-                connection.rollback();
-                return false;
+    /**
+     * players.nameが未記録のUUIDの名前をサーバーの記録から引き、名簿へ登録してplayers.nameへ書き戻す
+     * （参加時に書き込まれた名前は上書きしない）
+     * @return 名前が見つかったUUIDと名前
+     */
+    private Map<UUID, String> lookupAndWriteBack(List<UUID> unnamed) throws SQLException {
+        Map<UUID, String> found = new HashMap<>();
+        Function<UUID, String> lookup = nameLookup;
+        for (UUID uuid : unnamed) {
+            String name = lookup.apply(uuid);
+            if (name != null) {
+                found.put(uuid, name);
+                nameDirectory.put(uuid, name);
+            } else {
+                nameDirectory.markUnknown(uuid);
             }
+        }
+        if (found.isEmpty()) {
+            return found;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "UPDATE players SET name = ? WHERE uuid = ? AND name IS NULL")) {
+            for (Map.Entry<UUID, String> entry : found.entrySet()) {
+                statement.setString(1, entry.getValue());
+                statement.setString(2, entry.getKey().toString());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        return found;
+    }
 
-            fromPlayer.removeBankBalance(amount);
-            toPlayer.addBankBalance(amount);
+    /**
+     * @return players行が存在するかもしれない場合はtrue（falseならDBを読まなくても存在しないことが確実）
+     */
+    public boolean mightExist(UUID uuid) {
+        return knownPlayers.mightExist(uuid);
+    }
 
-            updatePlayer(fromPlayer);
-            updatePlayer(toPlayer);
+    /**
+     * 銀行預金を送金する
+     * 双方が読み込み済みならメモリ上で、どちらも未読み込みならDBトランザクションで処理する
+     */
+    public boolean transferBalance(UUID fromUuid, UUID toUuid, double amount) throws SQLException {
+        return transferBalance(fromUuid, toUuid, amount, 0.0);
+    }
 
-            connection.commit();
-            return true;
+    /**
+     * 銀行預金を送金し、送金者から手数料も差し引く
+     * 残高確認・送金・手数料の徴収は双方のロック内でまとめて行い、送金額と手数料の合計が足りない場合は何もしない
+     */
+    public boolean transferBalance(UUID fromUuid, UUID toUuid, double amount, double fee) throws SQLException {
+        Object[] locks = stateStore.locksFor(fromUuid, toUuid);
+        synchronized (locks[0]) {
+            synchronized (locks[1]) {
+                if (!stateStore.isLoaded(fromUuid) && !stateStore.isLoaded(toUuid)) {
+                    return transferBalanceInDatabase(fromUuid, toUuid, amount, fee);
+                }
+                return transferBalanceWithStore(fromUuid, toUuid, amount, fee);
+            }
+        }
+    }
+
+    /**
+     * 片方以上が読み込み済みの場合の送金
+     * 読み込み済みの側はメモリ上で、未読み込みの側はDBで増減し、入金に失敗した場合は出金を戻す
+     */
+    private boolean transferBalanceWithStore(UUID fromUuid, UUID toUuid, double amount, double fee) throws SQLException {
+        double debit = amount + fee;
+        Player fromPlayer = getPlayer(fromUuid);
+        if (fromPlayer == null || fromPlayer.getBankBalance() < debit) {
+            return false;
+        }
+        if (getPlayer(toUuid) == null) {
+            createPlayer(new Player(toUuid, 0.0));
+        }
+
+        if (!adjustBalances(fromUuid, 0.0, -debit)) {
+            return false;
+        }
+        try {
+            if (adjustBalances(toUuid, 0.0, amount)) {
+                return true;
+            }
         } catch (SQLException e) {
-            connection.rollback();
+            adjustBalances(fromUuid, 0.0, debit);
             throw e;
-        } finally {
-            connection.setAutoCommit(true);
         }
+        adjustBalances(fromUuid, 0.0, debit);
+        return false;
+    }
+
+    /**
+     * 専用の接続を借用し、その接続上だけでトランザクションを張る（他スレッドの操作と混ざらない）
+     */
+    private boolean transferBalanceInDatabase(UUID fromUuid, UUID toUuid, double amount, double fee) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Player fromPlayer = getPlayer(connection, fromUuid);
+                Player toPlayer = getPlayer(connection, toUuid);
+                if (toPlayer == null) {
+                    toPlayer = new Player(toUuid, 0.0);
+                    createPlayer(connection, toPlayer);
+                }
+
+                if (fromPlayer == null || fromPlayer.getBankBalance() < amount + fee) {
+                    connection.rollback();
+                    return false;
+                }
+
+                fromPlayer.removeBankBalance(amount + fee);
+                toPlayer.addBankBalance(amount);
+
+                Timestamp updatedAt = new Timestamp(System.currentTimeMillis());
+                updatePlayer(connection, fromPlayer, updatedAt);
+                updatePlayer(connection, toPlayer, updatedAt);
+
+                connection.commit();
+                cacheManager.invalidatePlayer(fromUuid);
+                cacheManager.invalidatePlayer(toUuid);
+                wealthLeaderboard.update(fromUuid, fromPlayer.getBalance(), fromPlayer.getBankBalance());
+                wealthLeaderboard.update(toUuid, toPlayer.getBalance(), toPlayer.getBankBalance());
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * 最近更新された順にプレイヤーのUUIDを返す（キャッシュの事前読み込み対象の選定用）
+     */
+    public List<UUID> getRecentlyActivePlayerUuids(int limit) throws SQLException {
+        List<UUID> uuids = new ArrayList<>();
+        String query = "SELECT uuid FROM players ORDER BY updated_at DESC LIMIT ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    uuids.add(UUID.fromString(resultSet.getString(1)));
+                }
+            }
+        }
+        return uuids;
+    }
+
+    /**
+     * 指定プレイヤーの行を1回のIN句でまとめて読み込み、未読み込み（オフライン）のものをキャッシュへ事前登録する
+     * 登録は各プレイヤーのロック内で行い、読み込み後に書き込まれた行はCacheManager側で登録を見送る
+     * @return キャッシュへ登録した件数
+     */
+    public int preloadPlayers(List<UUID> uuids) throws SQLException {
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+        List<Player> players;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 PLAYER_MAPPER.selectWhereIn("players", "uuid", uuids.size()))) {
+            for (int i = 0; i < uuids.size(); i++) {
+                statement.setString(i + 1, uuids.get(i).toString());
+            }
+            players = PLAYER_MAPPER.mapAll(statement.executeQuery());
+        }
+        int cached = 0;
+        for (Player player : players) {
+            synchronized (stateStore.lockFor(player.getUuid())) {
+                if (!stateStore.isLoaded(player.getUuid()) && cacheManager.offerPreloadedPlayer(player)) {
+                    cached++;
+                }
+            }
+        }
+        return cached;
     }
 
     public int getTotalPlayerCount() throws SQLException {
         String query = "SELECT COUNT(*) FROM players";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             ResultSet resultSet = statement.executeQuery();
             if (resultSet.next()) {
                 return resultSet.getInt(1);
@@ -204,15 +739,8 @@ public class PlayerDAO {
     // 戻り値がbooleanのupdatePlayerメソッド
     public boolean updatePlayerData(Player player) {
         try {
-            String query = "UPDATE players SET balance = ?, bank_balance = ?, updated_at = ? WHERE uuid = ?";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setDouble(1, player.getBalance());
-                statement.setDouble(2, player.getBankBalance());
-                statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
-                statement.setString(4, player.getUuid().toString());
-                statement.executeUpdate();
-                return true;
-            }
+            updatePlayer(player);
+            return true;
         } catch (SQLException e) {
             return false;
         }
@@ -244,24 +772,30 @@ public class PlayerDAO {
      */
     public void updateLastLogin(UUID uuid) throws SQLException {
         String query = "UPDATE players SET updated_at = ? WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
             statement.setString(2, uuid.toString());
             statement.executeUpdate();
         }
+        cacheManager.invalidatePlayer(uuid);
     }
     
     /**
      * プレイヤーの最終ログイン時間をチェック（復帰プレイヤー判定用）
      */
     public boolean isReturningPlayer(UUID uuid, int daysThreshold) throws SQLException {
+        if (!knownPlayers.mightExist(uuid)) {
+            return false;
+        }
         String query = "SELECT updated_at FROM players WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, uuid.toString());
             ResultSet resultSet = statement.executeQuery();
             
             if (resultSet.next()) {
-                Timestamp lastLogin = resultSet.getTimestamp("updated_at");
+                Timestamp lastLogin = resultSet.getTimestamp(1);
                 if (lastLogin != null) {
                     long daysBetween = (System.currentTimeMillis() - lastLogin.getTime()) / (24 * 60 * 60 * 1000);
                     return daysBetween >= daysThreshold;
@@ -272,29 +806,36 @@ public class PlayerDAO {
     }
     
     /**
-     * プレイヤー名の取得と更新
-     * プレイヤーのテーブルにnameカラムがあることを前提とする
+     * プレイヤー名を更新する（参加時）
+     * 名簿へ即座に反映し、players.name へも書き込む
      */
     public void updatePlayerName(UUID uuid, String name) throws SQLException {
+        nameDirectory.put(uuid, name);
         String query = "UPDATE players SET name = ?, updated_at = ? WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, name);
             statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
             statement.setString(3, uuid.toString());
             statement.executeUpdate();
         }
+        cacheManager.invalidatePlayer(uuid);
     }
     
     /**
      * プレイヤーがルールに同意しているか確認
      */
     public boolean hasAgreedToRules(UUID uuid) {
+        if (!knownPlayers.mightExist(uuid)) {
+            return false;
+        }
         String query = "SELECT rules_agreed FROM players WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, uuid.toString());
             ResultSet result = statement.executeQuery();
             if (result.next()) {
-                return result.getBoolean("rules_agreed");
+                return result.getBoolean(1);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -307,12 +848,171 @@ public class PlayerDAO {
      */
     public void setRulesAgreed(UUID uuid, boolean agreed) {
         String query = "UPDATE players SET rules_agreed = ?, rules_agreed_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setBoolean(1, agreed);
             statement.setString(2, uuid.toString());
             statement.executeUpdate();
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        cacheManager.invalidatePlayer(uuid);
+    }
+
+    /**
+     * キャッシュ済みの行を破棄する（状態ストアへ読み込んだとき、以降はストアが正となるため）
+     */
+    public void invalidateCache(UUID uuid) {
+        cacheManager.invalidatePlayer(uuid);
+    }
+
+    // ========== 非同期API ==========
+    // DB専用スレッドで実行し、後続処理はメインスレッドの完了キューで実行される
+
+    /**
+     * {@link #createPlayer(Player)} の非同期版
+     */
+    public CompletableFuture<Void> createPlayerAsync(Player player) {
+        return databaseExecutor.run(player.getUuid(), () -> createPlayer(player));
+    }
+
+    /**
+     * {@link #getPlayer(UUID)} の非同期版
+     */
+    public CompletableFuture<Player> getPlayerAsync(UUID uuid) {
+        return databaseExecutor.supply(() -> getPlayer(uuid));
+    }
+
+    /**
+     * {@link #getOrCreatePlayer(UUID)} の非同期版
+     */
+    public CompletableFuture<Player> getOrCreatePlayerAsync(UUID uuid) {
+        return databaseExecutor.supply(uuid, () -> getOrCreatePlayer(uuid));
+    }
+
+    /**
+     * {@link #updatePlayer(Player)} の非同期版
+     */
+    public CompletableFuture<Void> updatePlayerAsync(Player player) {
+        return databaseExecutor.run(player.getUuid(), () -> updatePlayer(player));
+    }
+
+    /**
+     * {@link #updateBalance(UUID, double)} の非同期版
+     */
+    public CompletableFuture<Void> updateBalanceAsync(UUID uuid, double newBalance) {
+        return databaseExecutor.run(uuid, () -> updateBalance(uuid, newBalance));
+    }
+
+    /**
+     * {@link #updateBankBalance(UUID, double)} の非同期版
+     */
+    public CompletableFuture<Void> updateBankBalanceAsync(UUID uuid, double newBankBalance) {
+        return databaseExecutor.run(uuid, () -> updateBankBalance(uuid, newBankBalance));
+    }
+
+    /**
+     * {@link #deletePlayer(UUID)} の非同期版
+     */
+    public CompletableFuture<Void> deletePlayerAsync(UUID uuid) {
+        return databaseExecutor.run(uuid, () -> deletePlayer(uuid));
+    }
+
+    /**
+     * {@link #getTopPlayers(int)} の非同期版
+     */
+    public CompletableFuture<List<Player>> getTopPlayersAsync(int limit) {
+        return databaseExecutor.supply(() -> getTopPlayers(limit));
+    }
+
+    /**
+     * {@link #transferBalance(UUID, UUID, double)} の非同期版
+     */
+    public CompletableFuture<Boolean> transferBalanceAsync(UUID fromUuid, UUID toUuid, double amount) {
+        return databaseExecutor.supply(fromUuid, () -> transferBalance(fromUuid, toUuid, amount));
+    }
+
+    /**
+     * {@link #transferBalance(UUID, UUID, double, double)} の非同期版
+     */
+    public CompletableFuture<Boolean> transferBalanceAsync(UUID fromUuid, UUID toUuid, double amount, double fee) {
+        return databaseExecutor.supply(fromUuid, () -> transferBalance(fromUuid, toUuid, amount, fee));
+    }
+
+    /**
+     * {@link #adjustBalance(UUID, double)} の非同期版
+     */
+    public CompletableFuture<Boolean> adjustBalanceAsync(UUID uuid, double delta) {
+        return databaseExecutor.supply(uuid, () -> adjustBalance(uuid, delta));
+    }
+
+    /**
+     * {@link #adjustBankBalance(UUID, double)} の非同期版
+     */
+    public CompletableFuture<Boolean> adjustBankBalanceAsync(UUID uuid, double delta) {
+        return databaseExecutor.supply(uuid, () -> adjustBankBalance(uuid, delta));
+    }
+
+    /**
+     * {@link #creditBalance(UUID, double, double)} の非同期版
+     */
+    public CompletableFuture<Void> creditBalanceAsync(UUID uuid, double amount, double startingBalance) {
+        return databaseExecutor.run(uuid, () -> creditBalance(uuid, amount, startingBalance));
+    }
+
+    /**
+     * {@link #moveToBank(UUID, double)} の非同期版
+     */
+    public CompletableFuture<Boolean> moveToBankAsync(UUID uuid, double amount) {
+        return databaseExecutor.supply(uuid, () -> moveToBank(uuid, amount));
+    }
+
+    /**
+     * {@link #withdrawBankBalanceUpTo(UUID, double)} の非同期版
+     */
+    public CompletableFuture<Double> withdrawBankBalanceUpToAsync(UUID uuid, double maxAmount) {
+        return databaseExecutor.supply(uuid, () -> withdrawBankBalanceUpTo(uuid, maxAmount));
+    }
+
+    /**
+     * {@link #getTotalPlayerCount()} の非同期版
+     */
+    public CompletableFuture<Integer> getTotalPlayerCountAsync() {
+        return databaseExecutor.supply(() -> getTotalPlayerCount());
+    }
+
+    /**
+     * {@link #updateLastLogin(UUID)} の非同期版
+     */
+    public CompletableFuture<Void> updateLastLoginAsync(UUID uuid) {
+        return databaseExecutor.run(uuid, () -> updateLastLogin(uuid));
+    }
+
+    /**
+     * {@link #isReturningPlayer(UUID, int)} の非同期版
+     */
+    public CompletableFuture<Boolean> isReturningPlayerAsync(UUID uuid, int daysThreshold) {
+        return databaseExecutor.supply(() -> isReturningPlayer(uuid, daysThreshold));
+    }
+
+    /**
+     * {@link #updatePlayerName(UUID, String)} の非同期版
+     */
+    public CompletableFuture<Void> updatePlayerNameAsync(UUID uuid, String name) {
+        return databaseExecutor.run(uuid, () -> updatePlayerName(uuid, name));
+    }
+
+    /**
+     * {@link #hasAgreedToRules(UUID)} の非同期版
+     */
+    public CompletableFuture<Boolean> hasAgreedToRulesAsync(UUID uuid) {
+        return databaseExecutor.supply(() -> hasAgreedToRules(uuid));
+    }
+
+    /**
+     * {@link #setRulesAgreed(UUID, boolean)} の非同期版
+     */
+    public CompletableFuture<Void> setRulesAgreedAsync(UUID uuid, boolean agreed) {
+        return databaseExecutor.run(uuid, () -> setRulesAgreed(uuid, agreed));
     }
-}
\ No newline at end of file
+}
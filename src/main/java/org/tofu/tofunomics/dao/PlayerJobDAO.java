@@ -1,99 +1,234 @@
 package org.tofu.tofunomics.dao;
 
+import org.tofu.tofunomics.batch.OptimizedBatchProcessor;
+import org.tofu.tofunomics.cache.CacheManager;
+import org.tofu.tofunomics.cache.PlayerStateStore;
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.PlayerJob;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class PlayerJobDAO {
-    private final Connection connection;
+    static final RowMapper<PlayerJob> PLAYER_JOB_MAPPER = new RowMapper<>(
+        "uuid, job_id, level, experience, joined_at, updated_at",
+        resultSet -> {
+            PlayerJob playerJob = new PlayerJob();
+            playerJob.setUuid(UUID.fromString(resultSet.getString(1)));
+            playerJob.setJobId(resultSet.getInt(2));
+            playerJob.setLevel(resultSet.getInt(3));
+            playerJob.setExperience(resultSet.getDouble(4));
+            playerJob.setJoinedAt(resultSet.getTimestamp(5));
+            playerJob.setUpdatedAt(resultSet.getTimestamp(6));
+            return playerJob;
+        });
+
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+    // 読み込み済み（オンライン）プレイヤーの行はストアが正となり、更新はメモリ上で行う
+    private final PlayerStateStore stateStore;
+    // 未読み込み（オフライン）プレイヤーの全職業のキャッシュ（DBへ書き込んだら破棄する）
+    private final CacheManager cacheManager;
+    // ストアから書き出し待ちの確定値（削除時に破棄する。ストア無効時はnull）
+    private volatile OptimizedBatchProcessor batchProcessor;
+
+    public PlayerJobDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+
+    public PlayerJobDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this(dataSource, databaseExecutor, new PlayerStateStore());
+    }
+
+    public PlayerJobDAO(DataSource dataSource, DatabaseExecutor databaseExecutor, PlayerStateStore stateStore) {
+        this(dataSource, databaseExecutor, stateStore, CacheManager.disabled());
+    }
+
+    public PlayerJobDAO(DataSource dataSource, DatabaseExecutor databaseExecutor, PlayerStateStore stateStore,
+                        CacheManager cacheManager) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+        this.stateStore = stateStore;
+        this.cacheManager = cacheManager;
+    }
 
     public PlayerJobDAO(Connection connection) {
-        this.connection = connection;
+        this(new SingleConnectionDataSource(connection));
+    }
+
+    /**
+     * 削除した職業の書き出し待ちのレベル・経験値を破棄するバッチ処理を設定する
+     */
+    public void setBatchProcessor(OptimizedBatchProcessor batchProcessor) {
+        this.batchProcessor = batchProcessor;
     }
 
     public void createPlayerJob(PlayerJob playerJob) throws SQLException {
-        String query = "INSERT INTO player_jobs (uuid, job_id, level, experience, joined_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, playerJob.getUuid().toString());
-            statement.setInt(2, playerJob.getJobId());
-            statement.setInt(3, playerJob.getLevel());
-            statement.setDouble(4, playerJob.getExperience());
-            statement.setTimestamp(5, playerJob.getJoinedAt());
-            statement.setTimestamp(6, playerJob.getUpdatedAt());
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(playerJob.getUuid())) {
+            String query = "INSERT INTO player_jobs (uuid, job_id, level, experience, joined_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, playerJob.getUuid().toString());
+                statement.setInt(2, playerJob.getJobId());
+                statement.setInt(3, playerJob.getLevel());
+                statement.setDouble(4, playerJob.getExperience());
+                statement.setTimestamp(5, playerJob.getJoinedAt());
+                statement.setTimestamp(6, playerJob.getUpdatedAt());
+                statement.executeUpdate();
+            }
+            stateStore.onPlayerJobCreated(playerJob);
+            cacheManager.invalidatePlayerJobs(playerJob.getUuid());
         }
     }
 
     public PlayerJob getPlayerJob(UUID uuid, int jobId) throws SQLException {
-        String query = "SELECT * FROM player_jobs WHERE uuid = ? AND job_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, uuid.toString());
-            statement.setInt(2, jobId);
-            ResultSet resultSet = statement.executeQuery();
-            
-            if (resultSet.next()) {
-                return mapResultSetToPlayerJob(resultSet);
+        synchronized (stateStore.lockFor(uuid)) {
+            if (stateStore.isLoaded(uuid)) {
+                return stateStore.getPlayerJob(uuid, jobId);
+            }
+            for (PlayerJob playerJob : loadPlayerJobs(uuid)) {
+                if (playerJob.getJobId() == jobId) {
+                    return playerJob;
+                }
             }
+            return null;
         }
-        return null;
     }
 
     public PlayerJob getCurrentPlayerJob(UUID uuid) throws SQLException {
-        String query = "SELECT * FROM player_jobs WHERE uuid = ? ORDER BY updated_at DESC LIMIT 1";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, uuid.toString());
-            ResultSet resultSet = statement.executeQuery();
-            
-            if (resultSet.next()) {
-                return mapResultSetToPlayerJob(resultSet);
+        synchronized (stateStore.lockFor(uuid)) {
+            if (stateStore.isLoaded(uuid)) {
+                return stateStore.getCurrentPlayerJob(uuid);
             }
+            PlayerJob current = null;
+            for (PlayerJob playerJob : loadPlayerJobs(uuid)) {
+                if (current == null || isNewer(playerJob.getUpdatedAt(), current.getUpdatedAt())) {
+                    current = playerJob;
+                }
+            }
+            return current;
         }
-        return null;
+    }
+
+    private static boolean isNewer(Timestamp candidate, Timestamp current) {
+        return candidate != null && (current == null || candidate.after(current));
     }
 
     public List<PlayerJob> getPlayerJobs(UUID uuid) throws SQLException {
-        String query = "SELECT * FROM player_jobs WHERE uuid = ? ORDER BY joined_at";
-        List<PlayerJob> playerJobs = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, uuid.toString());
-            ResultSet resultSet = statement.executeQuery();
-            
-            while (resultSet.next()) {
-                playerJobs.add(mapResultSetToPlayerJob(resultSet));
+        synchronized (stateStore.lockFor(uuid)) {
+            List<PlayerJob> loadedJobs = stateStore.getPlayerJobs(uuid);
+            if (loadedJobs != null) {
+                return loadedJobs;
             }
+            return loadPlayerJobs(uuid);
+        }
+    }
+
+    /**
+     * 未読み込みプレイヤーの全職業をキャッシュから、なければDBから読んでキャッシュする
+     * （呼び出し側で lockFor(uuid) を保持し、書き込みによる破棄と競合しないようにすること）
+     */
+    private List<PlayerJob> loadPlayerJobs(UUID uuid) throws SQLException {
+        List<PlayerJob> cachedJobs = cacheManager.getCachedPlayerJobs(uuid);
+        if (cachedJobs != null) {
+            return cachedJobs;
+        }
+        String query = PLAYER_JOB_MAPPER.selectFrom("player_jobs") + " WHERE uuid = ? ORDER BY joined_at";
+        List<PlayerJob> playerJobs;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, uuid.toString());
+            playerJobs = PLAYER_JOB_MAPPER.mapAll(statement.executeQuery());
         }
+        cacheManager.cachePlayerJobs(uuid, playerJobs);
         return playerJobs;
     }
 
+    /**
+     * 指定プレイヤーの全職業を1回のIN句でまとめて読み込み、未読み込み（オフライン）のものをキャッシュへ事前登録する
+     * 職業を持たないプレイヤーも空リストとして登録し、参加時の単発クエリを省く
+     * @return キャッシュへ登録したプレイヤー数
+     */
+    public int preloadPlayerJobs(List<UUID> uuids) throws SQLException {
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, List<PlayerJob>> jobsByPlayer = new HashMap<>(uuids.size() * 4 / 3 + 1);
+        for (UUID uuid : uuids) {
+            jobsByPlayer.put(uuid, new ArrayList<>(2));
+        }
+        String query = PLAYER_JOB_MAPPER.selectWhereIn("player_jobs", "uuid", uuids.size()) + " ORDER BY joined_at";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < uuids.size(); i++) {
+                statement.setString(i + 1, uuids.get(i).toString());
+            }
+            for (PlayerJob playerJob : PLAYER_JOB_MAPPER.mapAll(statement.executeQuery())) {
+                List<PlayerJob> playerJobs = jobsByPlayer.get(playerJob.getUuid());
+                if (playerJobs != null) {
+                    playerJobs.add(playerJob);
+                }
+            }
+        }
+        int cached = 0;
+        for (Map.Entry<UUID, List<PlayerJob>> entry : jobsByPlayer.entrySet()) {
+            synchronized (stateStore.lockFor(entry.getKey())) {
+                if (!stateStore.isLoaded(entry.getKey())
+                        && cacheManager.offerPreloadedPlayerJobs(entry.getKey(), entry.getValue())) {
+                    cached++;
+                }
+            }
+        }
+        return cached;
+    }
+
     public void updatePlayerJob(PlayerJob playerJob) throws SQLException {
-        String query = "UPDATE player_jobs SET level = ?, experience = ?, updated_at = ? WHERE uuid = ? AND job_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, playerJob.getLevel());
-            statement.setDouble(2, playerJob.getExperience());
-            statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
-            statement.setString(4, playerJob.getUuid().toString());
-            statement.setInt(5, playerJob.getJobId());
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(playerJob.getUuid())) {
+            if (stateStore.updatePlayerJob(playerJob)) {
+                return;
+            }
+            String query = "UPDATE player_jobs SET level = ?, experience = ?, updated_at = ? WHERE uuid = ? AND job_id = ?";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setInt(1, playerJob.getLevel());
+                statement.setDouble(2, playerJob.getExperience());
+                statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                statement.setString(4, playerJob.getUuid().toString());
+                statement.setInt(5, playerJob.getJobId());
+                statement.executeUpdate();
+            }
+            cacheManager.invalidatePlayerJobs(playerJob.getUuid());
         }
     }
 
     public void addExperience(UUID uuid, int jobId, double experience) throws SQLException {
-        String query = "UPDATE player_jobs SET experience = experience + ?, updated_at = ? WHERE uuid = ? AND job_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setDouble(1, experience);
-            statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
-            statement.setString(3, uuid.toString());
-            statement.setInt(4, jobId);
-            int rowsAffected = statement.executeUpdate();
-            
+        synchronized (stateStore.lockFor(uuid)) {
+            int rowsAffected;
+            if (stateStore.isLoaded(uuid)) {
+                rowsAffected = stateStore.addExperience(uuid, jobId, experience) ? 1 : 0;
+            } else {
+                String query = "UPDATE player_jobs SET experience = experience + ?, updated_at = ? WHERE uuid = ? AND job_id = ?";
+                try (Connection connection = dataSource.getConnection();
+                     PreparedStatement statement = connection.prepareStatement(query)) {
+                    statement.setDouble(1, experience);
+                    statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                    statement.setString(3, uuid.toString());
+                    statement.setInt(4, jobId);
+                    rowsAffected = statement.executeUpdate();
+                }
+                cacheManager.invalidatePlayerJobs(uuid);
+            }
+
             if (rowsAffected == 0) {
                 PlayerJob newPlayerJob = new PlayerJob(uuid, jobId);
                 newPlayerJob.addExperience(experience);
@@ -103,71 +238,96 @@ public class PlayerJobDAO {
     }
 
     public void levelUp(UUID uuid, int jobId, int newLevel) throws SQLException {
-        String query = "UPDATE player_jobs SET level = ?, updated_at = ? WHERE uuid = ? AND job_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, newLevel);
-            statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
-            statement.setString(3, uuid.toString());
-            statement.setInt(4, jobId);
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(uuid)) {
+            if (stateStore.setLevel(uuid, jobId, newLevel)) {
+                return;
+            }
+            String query = "UPDATE player_jobs SET level = ?, updated_at = ? WHERE uuid = ? AND job_id = ?";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setInt(1, newLevel);
+                statement.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+                statement.setString(3, uuid.toString());
+                statement.setInt(4, jobId);
+                statement.executeUpdate();
+            }
+            cacheManager.invalidatePlayerJobs(uuid);
         }
     }
 
     public void deletePlayerJob(UUID uuid, int jobId) throws SQLException {
-        String query = "DELETE FROM player_jobs WHERE uuid = ? AND job_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, uuid.toString());
-            statement.setInt(2, jobId);
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(uuid)) {
+            String query = "DELETE FROM player_jobs WHERE uuid = ? AND job_id = ?";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, uuid.toString());
+                statement.setInt(2, jobId);
+                statement.executeUpdate();
+            }
+            stateStore.onPlayerJobDeleted(uuid, jobId);
+            OptimizedBatchProcessor processor = batchProcessor;
+            if (processor != null) {
+                processor.discardPlayerJobState(uuid.toString(), jobId);
+            }
+            cacheManager.invalidatePlayerJobs(uuid);
         }
     }
 
     public void deleteAllPlayerJobs(UUID uuid) throws SQLException {
-        String query = "DELETE FROM player_jobs WHERE uuid = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, uuid.toString());
-            statement.executeUpdate();
+        synchronized (stateStore.lockFor(uuid)) {
+            String query = "DELETE FROM player_jobs WHERE uuid = ?";
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, uuid.toString());
+                statement.executeUpdate();
+            }
+            stateStore.onAllPlayerJobsDeleted(uuid);
+            OptimizedBatchProcessor processor = batchProcessor;
+            if (processor != null) {
+                processor.discardPlayerJobStates(uuid.toString());
+            }
+            cacheManager.invalidatePlayerJobs(uuid);
         }
     }
 
+    /**
+     * 読み込み済みならストアの職業IDのビットで、未読み込みならキャッシュ済みの全職業（無職なら空リスト）で判定する
+     * どちらにもない場合だけDBを読み、結果は就いていない職業も含めてキャッシュされる
+     */
     public boolean hasPlayerJob(UUID uuid, int jobId) throws SQLException {
-        String query = "SELECT COUNT(*) FROM player_jobs WHERE uuid = ? AND job_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, uuid.toString());
-            statement.setInt(2, jobId);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getInt(1) > 0;
+        Boolean loaded = stateStore.hasPlayerJob(uuid, jobId);
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (stateStore.lockFor(uuid)) {
+            loaded = stateStore.hasPlayerJob(uuid, jobId);
+            if (loaded != null) {
+                return loaded;
             }
+            for (PlayerJob playerJob : loadPlayerJobs(uuid)) {
+                if (playerJob.getJobId() == jobId) {
+                    return true;
+                }
+            }
+            return false;
         }
-        return false;
+    }
+
+    /**
+     * キャッシュ済みの職業を破棄する（状態ストアへ読み込んだとき、以降はストアが正となるため）
+     */
+    public void invalidateCache(UUID uuid) {
+        cacheManager.invalidatePlayerJobs(uuid);
     }
 
     public List<PlayerJob> getTopPlayersByJobLevel(int jobId, int limit) throws SQLException {
-        String query = "SELECT * FROM player_jobs WHERE job_id = ? ORDER BY level DESC, experience DESC LIMIT ?";
-        List<PlayerJob> topPlayers = new ArrayList<>();
-        
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        String query = PLAYER_JOB_MAPPER.selectFrom("player_jobs") + " WHERE job_id = ? ORDER BY level DESC, experience DESC LIMIT ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, jobId);
             statement.setInt(2, limit);
-            ResultSet resultSet = statement.executeQuery();
-            
-            while (resultSet.next()) {
-                topPlayers.add(mapResultSetToPlayerJob(resultSet));
-            }
+            return PLAYER_JOB_MAPPER.mapAll(statement.executeQuery());
         }
-        return topPlayers;
-    }
-
-    private PlayerJob mapResultSetToPlayerJob(ResultSet resultSet) throws SQLException {
-        PlayerJob playerJob = new PlayerJob();
-        playerJob.setUuid(UUID.fromString(resultSet.getString("uuid")));
-        playerJob.setJobId(resultSet.getInt("job_id"));
-        playerJob.setLevel(resultSet.getInt("level"));
-        playerJob.setExperience(resultSet.getDouble("experience"));
-        playerJob.setJoinedAt(resultSet.getTimestamp("joined_at"));
-        playerJob.setUpdatedAt(resultSet.getTimestamp("updated_at"));
-        return playerJob;
     }
     
     // StringのUUIDを受け取るメソッド（互換性のため）
@@ -192,16 +352,8 @@ public class PlayerJobDAO {
     // 戻り値がbooleanのupdatePlayerJobメソッド
     public boolean updatePlayerJobData(PlayerJob playerJob) {
         try {
-            String query = "UPDATE player_jobs SET level = ?, experience = ?, updated_at = ? WHERE uuid = ? AND job_id = ?";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setInt(1, playerJob.getLevel());
-                statement.setDouble(2, playerJob.getExperience());
-                statement.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
-                statement.setString(4, playerJob.getUuid().toString());
-                statement.setInt(5, playerJob.getJobId());
-                statement.executeUpdate();
-                return true;
-            }
+            updatePlayerJob(playerJob);
+            return true;
         } catch (SQLException e) {
             return false;
         }
@@ -217,6 +369,15 @@ public class PlayerJobDAO {
         }
     }
     
+    // StringのUUIDを受け取るhasPlayerJobメソッド
+    public boolean hasPlayerJob(String uuidString, int jobId) {
+        try {
+            return hasPlayerJob(UUID.fromString(uuidString), jobId);
+        } catch (SQLException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
     // StringのUUIDを受け取るgetPlayerJobメソッド
     public PlayerJob getPlayerJob(String uuidString, int jobId) {
         try {
@@ -225,4 +386,84 @@ public class PlayerJobDAO {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    // ========== 非同期API ==========
+    // DB専用スレッドで実行し、後続処理はメインスレッドの完了キューで実行される
+
+    /**
+     * {@link #createPlayerJob(PlayerJob)} の非同期版
+     */
+    public CompletableFuture<Void> createPlayerJobAsync(PlayerJob playerJob) {
+        return databaseExecutor.run(playerJob.getUuid(), () -> createPlayerJob(playerJob));
+    }
+
+    /**
+     * {@link #getPlayerJob(UUID, int)} の非同期版
+     */
+    public CompletableFuture<PlayerJob> getPlayerJobAsync(UUID uuid, int jobId) {
+        return databaseExecutor.supply(() -> getPlayerJob(uuid, jobId));
+    }
+
+    /**
+     * {@link #getCurrentPlayerJob(UUID)} の非同期版
+     */
+    public CompletableFuture<PlayerJob> getCurrentPlayerJobAsync(UUID uuid) {
+        return databaseExecutor.supply(() -> getCurrentPlayerJob(uuid));
+    }
+
+    /**
+     * {@link #getPlayerJobs(UUID)} の非同期版
+     */
+    public CompletableFuture<List<PlayerJob>> getPlayerJobsAsync(UUID uuid) {
+        return databaseExecutor.supply(() -> getPlayerJobs(uuid));
+    }
+
+    /**
+     * {@link #updatePlayerJob(PlayerJob)} の非同期版
+     */
+    public CompletableFuture<Void> updatePlayerJobAsync(PlayerJob playerJob) {
+        return databaseExecutor.run(playerJob.getUuid(), () -> updatePlayerJob(playerJob));
+    }
+
+    /**
+     * {@link #addExperience(UUID, int, double)} の非同期版
+     */
+    public CompletableFuture<Void> addExperienceAsync(UUID uuid, int jobId, double experience) {
+        return databaseExecutor.run(uuid, () -> addExperience(uuid, jobId, experience));
+    }
+
+    /**
+     * {@link #levelUp(UUID, int, int)} の非同期版
+     */
+    public CompletableFuture<Void> levelUpAsync(UUID uuid, int jobId, int newLevel) {
+        return databaseExecutor.run(uuid, () -> levelUp(uuid, jobId, newLevel));
+    }
+
+    /**
+     * {@link #deletePlayerJob(UUID, int)} の非同期版
+     */
+    public CompletableFuture<Void> deletePlayerJobAsync(UUID uuid, int jobId) {
+        return databaseExecutor.run(uuid, () -> deletePlayerJob(uuid, jobId));
+    }
+
+    /**
+     * {@link #deleteAllPlayerJobs(UUID)} の非同期版
+     */
+    public CompletableFuture<Void> deleteAllPlayerJobsAsync(UUID uuid) {
+        return databaseExecutor.run(uuid, () -> deleteAllPlayerJobs(uuid));
+    }
+
+    /**
+     * {@link #hasPlayerJob(UUID, int)} の非同期版
+     */
+    public CompletableFuture<Boolean> hasPlayerJobAsync(UUID uuid, int jobId) {
+        return databaseExecutor.supply(() -> hasPlayerJob(uuid, jobId));
+    }
+
+    /**
+     * {@link #getTopPlayersByJobLevel(int, int)} の非同期版
+     */
+    public CompletableFuture<List<PlayerJob>> getTopPlayersByJobLevelAsync(int jobId, int limit) {
+        return databaseExecutor.supply(() -> getTopPlayersByJobLevel(jobId, limit));
+    }
+}
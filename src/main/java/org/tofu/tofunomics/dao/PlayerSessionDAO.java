@@ -0,0 +1,133 @@
+package org.tofu.tofunomics.dao;
+
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
+import org.tofu.tofunomics.models.HousingRental;
+import org.tofu.tofunomics.models.JobChange;
+import org.tofu.tofunomics.models.Player;
+import org.tofu.tofunomics.models.PlayerJob;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ログイン時に必要なプレイヤーのデータをまとめて読み込むDAO
+ * players・player_jobs・job_changes・housing_rentals を1本の接続・1トランザクションで読み、
+ * 参加処理や各機能が個別にDBへ問い合わせないようにする
+ */
+public class PlayerSessionDAO {
+
+    /**
+     * 読み込み結果（playerは行が存在しない場合null）
+     */
+    public static final class SessionData {
+        private final Player player;
+        private final boolean rulesAgreed;
+        private final List<PlayerJob> playerJobs;
+        private final JobChange jobChange;
+        private final List<HousingRental> activeRentals;
+
+        private SessionData(Player player, boolean rulesAgreed, List<PlayerJob> playerJobs,
+                            JobChange jobChange, List<HousingRental> activeRentals) {
+            this.player = player;
+            this.rulesAgreed = rulesAgreed;
+            this.playerJobs = playerJobs;
+            this.jobChange = jobChange;
+            this.activeRentals = activeRentals;
+        }
+
+        public Player getPlayer() { return player; }
+        public boolean hasAgreedToRules() { return rulesAgreed; }
+        public List<PlayerJob> getPlayerJobs() { return playerJobs; }
+        public JobChange getJobChange() { return jobChange; }
+        public List<HousingRental> getActiveRentals() { return activeRentals; }
+    }
+
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+
+    public PlayerSessionDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+
+    public PlayerSessionDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+    }
+
+    public PlayerSessionDAO(Connection connection) {
+        this(new SingleConnectionDataSource(connection));
+    }
+
+    /**
+     * プレイヤーのセッションに必要な行をすべて読み込む
+     * 読み取り専用のトランザクション内で読み、テーブル間で時点がずれないようにする
+     */
+    public SessionData loadSession(UUID uuid) throws SQLException {
+        String key = uuid.toString();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                Player player = null;
+                boolean rulesAgreed = false;
+                String playerQuery = "SELECT " + PlayerDAO.PLAYER_MAPPER.getColumns() + ", rules_agreed FROM players WHERE uuid = ?";
+                try (PreparedStatement statement = connection.prepareStatement(playerQuery)) {
+                    statement.setString(1, key);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (resultSet.next()) {
+                            player = PlayerDAO.PLAYER_MAPPER.map(resultSet);
+                            rulesAgreed = resultSet.getBoolean(6);
+                        }
+                    }
+                }
+
+                List<PlayerJob> playerJobs;
+                String jobsQuery = PlayerJobDAO.PLAYER_JOB_MAPPER.selectFrom("player_jobs") + " WHERE uuid = ? ORDER BY joined_at";
+                try (PreparedStatement statement = connection.prepareStatement(jobsQuery)) {
+                    statement.setString(1, key);
+                    playerJobs = PlayerJobDAO.PLAYER_JOB_MAPPER.mapAll(statement.executeQuery());
+                }
+
+                JobChange jobChange;
+                String jobChangeQuery = JobChangeDAO.JOB_CHANGE_MAPPER.selectFrom("job_changes") + " WHERE uuid = ?";
+                try (PreparedStatement statement = connection.prepareStatement(jobChangeQuery)) {
+                    statement.setString(1, key);
+                    jobChange = JobChangeDAO.JOB_CHANGE_MAPPER.mapFirst(statement.executeQuery());
+                }
+
+                List<HousingRental> activeRentals;
+                String rentalsQuery = HousingRentalDAO.RENTAL_MAPPER.selectFrom("housing_rentals") +
+                    " WHERE tenant_uuid = ? AND status = 'active' ORDER BY end_date";
+                try (PreparedStatement statement = connection.prepareStatement(rentalsQuery)) {
+                    statement.setString(1, key);
+                    activeRentals = HousingRentalDAO.RENTAL_MAPPER.mapAll(statement.executeQuery());
+                }
+
+                connection.commit();
+                return new SessionData(player, rulesAgreed, playerJobs, jobChange, activeRentals);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    // ========== 非同期API ==========
+    // DB専用スレッドで実行し、後続処理はメインスレッドの完了キューで実行される
+
+    /**
+     * {@link #loadSession(UUID)} の非同期版
+     */
+    public CompletableFuture<SessionData> loadSessionAsync(UUID uuid) {
+        return databaseExecutor.supply(uuid, () -> loadSession(uuid));
+    }
+}
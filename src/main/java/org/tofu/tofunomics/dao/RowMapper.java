@@ -0,0 +1,96 @@
+package org.tofu.tofunomics.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 明示した列リストと、その列順どおりに列インデックスで1行を読み出す処理の組
+ * 列名の検索や列の存在確認（try/catch）を行ごとに行わないため、一覧取得でも分岐と割り当てが少ない
+ * 列の存在はSchemaMigratorが保証する
+ */
+public final class RowMapper<T> {
+
+    /**
+     * 列リストの順（1始まり）に値を読み出す処理
+     */
+    @FunctionalInterface
+    public interface RowReader<T> {
+        T read(ResultSet resultSet) throws SQLException;
+    }
+
+    private final String columns;
+    private final RowReader<T> reader;
+
+    /**
+     * @param columns カンマ区切りの列リスト（readerはこの順のインデックスで読み出すこと）
+     */
+    public RowMapper(String columns, RowReader<T> reader) {
+        this.columns = columns;
+        this.reader = reader;
+    }
+
+    public String getColumns() {
+        return columns;
+    }
+
+    /**
+     * "SELECT 列リスト FROM テーブル" を返す（WHERE句などは呼び出し側で続ける）
+     */
+    public String selectFrom(String table) {
+        return "SELECT " + columns + " FROM " + table;
+    }
+
+    /**
+     * "SELECT 列リスト FROM テーブル WHERE 列 IN (?, ?, ...)" を返す（プレースホルダはcount個）
+     */
+    public String selectWhereIn(String table, String column, int count) {
+        StringBuilder query = new StringBuilder(selectFrom(table)).append(" WHERE ").append(column).append(" IN (");
+        for (int i = 0; i < count; i++) {
+            query.append(i == 0 ? "?" : ", ?");
+        }
+        return query.append(')').toString();
+    }
+
+    /**
+     * 現在行を読み出す
+     */
+    public T map(ResultSet resultSet) throws SQLException {
+        return reader.read(resultSet);
+    }
+
+    /**
+     * 先頭行を読み出す（行がなければnull）
+     */
+    public T mapFirst(ResultSet resultSet) throws SQLException {
+        return resultSet.next() ? reader.read(resultSet) : null;
+    }
+
+    /**
+     * 全行を読み出す
+     */
+    public List<T> mapAll(ResultSet resultSet) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        while (resultSet.next()) {
+            rows.add(reader.read(resultSet));
+        }
+        return rows;
+    }
+
+    /**
+     * NULL可能なINTEGER列を読み出す
+     */
+    public static Integer getNullableInt(ResultSet resultSet, int columnIndex) throws SQLException {
+        int value = resultSet.getInt(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    /**
+     * NULL可能なREAL列を読み出す
+     */
+    public static Double getNullableDouble(ResultSet resultSet, int columnIndex) throws SQLException {
+        double value = resultSet.getDouble(columnIndex);
+        return resultSet.wasNull() ? null : value;
+    }
+}
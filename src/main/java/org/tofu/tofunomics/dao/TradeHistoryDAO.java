@@ -0,0 +1,424 @@
+package org.tofu.tofunomics.dao;
+
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SchemaMigrator;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
+import org.tofu.tofunomics.models.PlayerTradeHistory;
+import org.tofu.tofunomics.models.TradeSummary;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * NPC取引履歴のDAO
+ * 履歴は取引月ごとのパーティションテーブル（player_trade_history_yyyyMM）へ書き込み、
+ * 同じトランザクションでプレイヤー別・アイテム別の日次集計を加算する
+ * 集計系の参照は日次集計テーブルだけを読み、古い履歴は月単位でテーブルごとDROPする（DELETEしない）
+ */
+public class TradeHistoryDAO {
+    private static final RowMapper<PlayerTradeHistory> TRADE_HISTORY_MAPPER = new RowMapper<>(
+        "id, uuid, trade_chest_id, item_type, item_amount, sale_price, job_bonus, player_job, player_job_level, traded_at",
+        rs -> {
+            PlayerTradeHistory history = new PlayerTradeHistory();
+            history.setId(rs.getInt(1));
+            history.setUuid(rs.getString(2));
+            history.setTradeChestId(rs.getInt(3));
+            history.setItemType(rs.getString(4));
+            history.setItemAmount(rs.getInt(5));
+            history.setSalePrice(rs.getDouble(6));
+            history.setJobBonus(rs.getDouble(7));
+            history.setPlayerJob(rs.getString(8));
+            history.setPlayerJobLevel(rs.getInt(9));
+            history.setTradedAt(new Timestamp(rs.getLong(10)));
+            return history;
+        });
+
+    private static final RowMapper<TradeSummary> SUMMARY_MAPPER = new RowMapper<>(
+        "SUM(trade_count), SUM(item_amount), SUM(sale_total), SUM(bonus_total)",
+        rs -> new TradeSummary(rs.getString(5), rs.getInt(1), rs.getLong(2), rs.getDouble(3), rs.getDouble(4)));
+
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String UPSERT_PLAYER_STATS =
+        "INSERT INTO trade_daily_player_stats (trade_date, uuid, trade_count, item_amount, sale_total, bonus_total) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT(trade_date, uuid) DO UPDATE SET " +
+        "trade_count = trade_count + excluded.trade_count, item_amount = item_amount + excluded.item_amount, " +
+        "sale_total = sale_total + excluded.sale_total, bonus_total = bonus_total + excluded.bonus_total";
+
+    private static final String UPSERT_ITEM_STATS =
+        "INSERT INTO trade_daily_item_stats (trade_date, item_type, trade_count, item_amount, sale_total, bonus_total) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT(trade_date, item_type) DO UPDATE SET " +
+        "trade_count = trade_count + excluded.trade_count, item_amount = item_amount + excluded.item_amount, " +
+        "sale_total = sale_total + excluded.sale_total, bonus_total = bonus_total + excluded.bonus_total";
+
+    /**
+     * 日次集計1行分の加算値（書き込み前にJava側でまとめる）
+     */
+    private static final class DailyRollup {
+        private final String tradeDate;
+        private final String key;
+        private int tradeCount;
+        private long itemAmount;
+        private double saleTotal;
+        private double bonusTotal;
+
+        private DailyRollup(String tradeDate, String key) {
+            this.tradeDate = tradeDate;
+            this.key = key;
+        }
+
+        private void add(PlayerTradeHistory history) {
+            tradeCount++;
+            itemAmount += history.getItemAmount();
+            saleTotal += history.getSalePrice();
+            bonusTotal += history.getJobBonus();
+        }
+    }
+
+    private final DataSource dataSource;
+    private final DatabaseExecutor databaseExecutor;
+    private final ZoneId zone;
+    // 作成済みのパーティション（毎回 CREATE TABLE IF NOT EXISTS を実行しないため）
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    public TradeHistoryDAO(DataSource dataSource) {
+        this(dataSource, DatabaseExecutor.inline());
+    }
+
+    public TradeHistoryDAO(DataSource dataSource, DatabaseExecutor databaseExecutor) {
+        this(dataSource, databaseExecutor, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param zone 取引月・取引日の区切りに使うタイムゾーン
+     */
+    public TradeHistoryDAO(DataSource dataSource, DatabaseExecutor databaseExecutor, ZoneId zone) {
+        this.dataSource = dataSource;
+        this.databaseExecutor = databaseExecutor;
+        this.zone = zone;
+    }
+
+    public TradeHistoryDAO(Connection connection) {
+        this(new SingleConnectionDataSource(connection));
+    }
+
+    // ========== 書き込み ==========
+
+    /**
+     * 取引履歴を1件保存する（採番したIDを設定する）
+     */
+    public void insertTradeHistory(PlayerTradeHistory history) throws SQLException {
+        insertTradeHistories(Collections.singletonList(history));
+    }
+
+    /**
+     * 取引履歴をまとめて1トランザクションで保存する
+     */
+    public void insertTradeHistories(List<PlayerTradeHistory> histories) throws SQLException {
+        if (histories.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                insertTradeHistories(connection, histories);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 呼び出し側のトランザクション内で取引履歴と日次集計を書き込む
+     * 失敗した場合、呼び出し側はトランザクションをロールバックすること
+     */
+    private void insertTradeHistories(Connection connection, List<PlayerTradeHistory> histories) throws SQLException {
+        Map<YearMonth, List<PlayerTradeHistory>> byMonth = new LinkedHashMap<>();
+        Map<String, DailyRollup> playerRollups = new LinkedHashMap<>();
+        Map<String, DailyRollup> itemRollups = new LinkedHashMap<>();
+        for (PlayerTradeHistory history : histories) {
+            if (history.getTradedAt() == null) {
+                history.setTradedAt(new Timestamp(System.currentTimeMillis()));
+            }
+            LocalDate tradeDate = toLocalDate(history.getTradedAt());
+            String date = tradeDate.toString();
+            byMonth.computeIfAbsent(YearMonth.from(tradeDate), month -> new ArrayList<>()).add(history);
+            playerRollups.computeIfAbsent(date + '\0' + history.getUuid(),
+                key -> new DailyRollup(date, history.getUuid())).add(history);
+            itemRollups.computeIfAbsent(date + '\0' + history.getItemType(),
+                key -> new DailyRollup(date, history.getItemType())).add(history);
+        }
+
+        try {
+            for (Map.Entry<YearMonth, List<PlayerTradeHistory>> entry : byMonth.entrySet()) {
+                insertIntoPartition(connection, entry.getKey(), entry.getValue());
+            }
+            upsertRollups(connection, UPSERT_PLAYER_STATS, playerRollups.values());
+            upsertRollups(connection, UPSERT_ITEM_STATS, itemRollups.values());
+        } catch (SQLException e) {
+            // ロールバックでパーティションの作成も取り消されるため、次回は作成からやり直す
+            knownPartitions.removeAll(byMonth.keySet());
+            throw e;
+        }
+    }
+
+    private void insertIntoPartition(Connection connection, YearMonth month, List<PlayerTradeHistory> histories) throws SQLException {
+        String table = getPartitionTable(month);
+        if (!knownPartitions.contains(month)) {
+            SchemaMigrator.createTradeHistoryPartition(connection, table);
+            knownPartitions.add(month);
+        }
+
+        String query = "INSERT INTO " + table + " (uuid, trade_chest_id, item_type, item_amount, sale_price, job_bonus, " +
+            "player_job, player_job_level, traded_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            for (PlayerTradeHistory history : histories) {
+                statement.setString(1, history.getUuid());
+                statement.setInt(2, history.getTradeChestId());
+                statement.setString(3, history.getItemType());
+                statement.setInt(4, history.getItemAmount());
+                statement.setDouble(5, history.getSalePrice());
+                statement.setDouble(6, history.getJobBonus());
+                statement.setString(7, history.getPlayerJob());
+                statement.setInt(8, history.getPlayerJobLevel());
+                statement.setLong(9, history.getTradedAt().getTime());
+                statement.executeUpdate();
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        history.setId(generatedKeys.getInt(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void upsertRollups(Connection connection, String query, Iterable<DailyRollup> rollups) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (DailyRollup rollup : rollups) {
+                statement.setString(1, rollup.tradeDate);
+                statement.setString(2, rollup.key);
+                statement.setInt(3, rollup.tradeCount);
+                statement.setLong(4, rollup.itemAmount);
+                statement.setDouble(5, rollup.saleTotal);
+                statement.setDouble(6, rollup.bonusTotal);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // ========== 履歴の参照 ==========
+
+    /**
+     * プレイヤーの取引履歴を新しい順に取得する
+     * 新しい月のパーティションから順に読み、件数に達した時点で打ち切る
+     */
+    public List<PlayerTradeHistory> getPlayerTradeHistory(String uuid, int limit) throws SQLException {
+        List<PlayerTradeHistory> histories = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            for (YearMonth month : getPartitionMonths(connection)) {
+                if (histories.size() >= limit) {
+                    break;
+                }
+                String query = TRADE_HISTORY_MAPPER.selectFrom(getPartitionTable(month)) +
+                    " WHERE uuid = ? ORDER BY traded_at DESC LIMIT ?";
+                try (PreparedStatement statement = connection.prepareStatement(query)) {
+                    statement.setString(1, uuid);
+                    statement.setInt(2, limit - histories.size());
+                    histories.addAll(TRADE_HISTORY_MAPPER.mapAll(statement.executeQuery()));
+                }
+            }
+        }
+        return histories;
+    }
+
+    /**
+     * 存在するパーティションの月（新しい順）
+     */
+    public List<YearMonth> getPartitionMonths() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return getPartitionMonths(connection);
+        }
+    }
+
+    private static List<YearMonth> getPartitionMonths(Connection connection) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        String query = "SELECT name FROM sqlite_master WHERE type = 'table' AND name LIKE ?";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, SchemaMigrator.TRADE_HISTORY_PARTITION_PREFIX + "%");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    YearMonth month = parsePartitionMonth(resultSet.getString(1));
+                    if (month != null) {
+                        months.add(month);
+                    }
+                }
+            }
+        }
+        months.sort(Collections.reverseOrder());
+        return months;
+    }
+
+    // ========== 集計の参照（日次集計テーブルのみを読む） ==========
+
+    /**
+     * 指定日以降のプレイヤーの取引集計（取引がなければ件数0の集計）
+     */
+    public TradeSummary getPlayerSummary(String uuid, LocalDate from) throws SQLException {
+        String query = "SELECT " + SUMMARY_MAPPER.getColumns() + ", uuid FROM trade_daily_player_stats " +
+            "WHERE uuid = ? AND trade_date >= ? GROUP BY uuid";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, uuid);
+            statement.setString(2, from.toString());
+            TradeSummary summary = SUMMARY_MAPPER.mapFirst(statement.executeQuery());
+            return summary != null ? summary : new TradeSummary(uuid, 0, 0, 0.0, 0.0);
+        }
+    }
+
+    /**
+     * 指定日以降の売却金額の多いアイテム
+     */
+    public List<TradeSummary> getTopItems(LocalDate from, int limit) throws SQLException {
+        String query = "SELECT " + SUMMARY_MAPPER.getColumns() + ", item_type FROM trade_daily_item_stats " +
+            "WHERE trade_date >= ? GROUP BY item_type ORDER BY SUM(sale_total + bonus_total) DESC LIMIT ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, from.toString());
+            statement.setInt(2, limit);
+            return SUMMARY_MAPPER.mapAll(statement.executeQuery());
+        }
+    }
+
+    /**
+     * 指定日以降の売却金額の多いプレイヤー
+     */
+    public List<TradeSummary> getTopTraders(LocalDate from, int limit) throws SQLException {
+        String query = "SELECT " + SUMMARY_MAPPER.getColumns() + ", uuid FROM trade_daily_player_stats " +
+            "WHERE trade_date >= ? GROUP BY uuid ORDER BY SUM(sale_total + bonus_total) DESC LIMIT ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, from.toString());
+            statement.setInt(2, limit);
+            return SUMMARY_MAPPER.mapAll(statement.executeQuery());
+        }
+    }
+
+    // ========== 保持期間 ==========
+
+    /**
+     * 指定月より前のパーティションをDROPする（行単位のDELETEを行わない）
+     * @return 削除したパーティション数
+     */
+    public int dropPartitionsBefore(YearMonth month) throws SQLException {
+        int dropped = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            for (YearMonth partition : getPartitionMonths(connection)) {
+                if (!partition.isBefore(month)) {
+                    continue;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("DROP TABLE IF EXISTS " + getPartitionTable(partition));
+                }
+                knownPartitions.remove(partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * 指定日より前の日次集計を削除する（主キーの先頭列による範囲削除）
+     * @return 削除した行数
+     */
+    public int deleteRollupsBefore(LocalDate date) throws SQLException {
+        int deleted = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            for (String table : new String[] { "trade_daily_player_stats", "trade_daily_item_stats" }) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "DELETE FROM " + table + " WHERE trade_date < ?")) {
+                    statement.setString(1, date.toString());
+                    deleted += statement.executeUpdate();
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 保持期間を過ぎた履歴と日次集計を削除する
+     * 履歴は月単位で削除するため、保持期間の境界を含む月のパーティションは次の月まで残る
+     * @return 削除したパーティション数
+     */
+    public int applyRetention(int historyMaxDays, int rollupMaxDays) throws SQLException {
+        LocalDate today = LocalDate.now(zone);
+        int dropped = dropPartitionsBefore(YearMonth.from(today.minusDays(Math.max(0, historyMaxDays))));
+        deleteRollupsBefore(today.minusDays(Math.max(0, rollupMaxDays)));
+        return dropped;
+    }
+
+    // ========== ユーティリティ ==========
+
+    public static String getPartitionTable(YearMonth month) {
+        return SchemaMigrator.TRADE_HISTORY_PARTITION_PREFIX + month.format(PARTITION_FORMAT);
+    }
+
+    private static YearMonth parsePartitionMonth(String table) {
+        String suffix = table.substring(SchemaMigrator.TRADE_HISTORY_PARTITION_PREFIX.length());
+        if (suffix.length() != 6 || !suffix.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return YearMonth.parse(suffix, PARTITION_FORMAT);
+    }
+
+    private LocalDate toLocalDate(Timestamp timestamp) {
+        return Instant.ofEpochMilli(timestamp.getTime()).atZone(zone).toLocalDate();
+    }
+
+    // ========== 非同期API（DBスレッドで実行し、結果はメインスレッドで受け取る） ==========
+
+    public CompletableFuture<Void> insertTradeHistoriesAsync(List<PlayerTradeHistory> histories) {
+        return databaseExecutor.run(() -> insertTradeHistories(histories));
+    }
+
+    public CompletableFuture<List<PlayerTradeHistory>> getPlayerTradeHistoryAsync(String uuid, int limit) {
+        return databaseExecutor.supply(() -> getPlayerTradeHistory(uuid, limit));
+    }
+
+    public CompletableFuture<TradeSummary> getPlayerSummaryAsync(String uuid, LocalDate from) {
+        return databaseExecutor.supply(() -> getPlayerSummary(uuid, from));
+    }
+
+    public CompletableFuture<List<TradeSummary>> getTopItemsAsync(LocalDate from, int limit) {
+        return databaseExecutor.supply(() -> getTopItems(from, limit));
+    }
+
+    public CompletableFuture<Integer> applyRetentionAsync(int historyMaxDays, int rollupMaxDays) {
+        return databaseExecutor.supply(() -> applyRetention(historyMaxDays, rollupMaxDays));
+    }
+}
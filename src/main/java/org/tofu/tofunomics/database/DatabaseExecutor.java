@@ -0,0 +1,233 @@
+package org.tofu.tofunomics.database;
+
+import org.tofu.tofunomics.performance.StatsRegistry;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * データベース専用の非同期実行基盤
+ * JDBC処理を上限付きの専用スレッドプールで実行し、結果は完了キュー経由でメインスレッドへ返す
+ */
+public class DatabaseExecutor {
+
+    /**
+     * 値を返すDB処理
+     */
+    @FunctionalInterface
+    public interface SqlTask<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * 値を返さないDB処理
+     */
+    @FunctionalInterface
+    public interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    private static final int KEY_LOCK_STRIPES = 64;
+
+    private final ThreadPoolExecutor executorService;
+    private final Executor completionExecutor;
+    private final Logger logger;
+
+    // 同一キー（プレイヤーUUIDなど）の読み取り→更新を直列化するためのロック
+    private final Object[] keyLocks;
+
+    // 統計情報
+    private final AtomicLong submittedTasks = new AtomicLong(0);
+    private final AtomicLong completedTasks = new AtomicLong(0);
+    private final AtomicLong failedTasks = new AtomicLong(0);
+    private final AtomicLong rejectedTasks = new AtomicLong(0);
+    // キューに投入してからDBスレッドで実行が始まるまでの待ち時間
+    private final AtomicLong queueWaitNanos = new AtomicLong(0);
+    private final AtomicLong queueWaitSamples = new AtomicLong(0);
+
+    /**
+     * @param threads DBスレッド数
+     * @param queueCapacity 待機できるタスク数の上限
+     * @param completionExecutor 結果を受け渡す実行先（通常はMainThreadCompletionQueue）
+     */
+    public DatabaseExecutor(int threads, int queueCapacity, Executor completionExecutor, Logger logger) {
+        int poolSize = Math.max(1, threads);
+        AtomicInteger threadIndex = new AtomicInteger(1);
+        this.executorService = new ThreadPoolExecutor(
+            poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "TofuNomics-DB-" + threadIndex.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.completionExecutor = completionExecutor;
+        this.logger = logger;
+        this.keyLocks = createKeyLocks();
+    }
+
+    private DatabaseExecutor() {
+        this.executorService = null;
+        this.completionExecutor = Runnable::run;
+        this.logger = null;
+        this.keyLocks = createKeyLocks();
+    }
+
+    /**
+     * 呼び出し元スレッドでそのまま実行するインスタンス（テストや同期前提の旧コンストラクタ用）
+     */
+    public static DatabaseExecutor inline() {
+        return new DatabaseExecutor();
+    }
+
+    private static Object[] createKeyLocks() {
+        Object[] locks = new Object[KEY_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    /**
+     * DB処理を非同期実行し、結果を完了キュー経由で返す
+     * 返されたFutureへの後続処理はメインスレッドで実行される
+     */
+    public <T> CompletableFuture<T> supply(SqlTask<T> task) {
+        return submit(null, task);
+    }
+
+    /**
+     * 同一キーの処理と重ならないようにDB処理を非同期実行する
+     */
+    public <T> CompletableFuture<T> supply(Object key, SqlTask<T> task) {
+        return submit(key, task);
+    }
+
+    public CompletableFuture<Void> run(SqlAction action) {
+        return submit(null, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> run(Object key, SqlAction action) {
+        return submit(key, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Object key, SqlTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submittedTasks.incrementAndGet();
+
+        if (executorService == null) {
+            complete(future, key, task);
+            return future;
+        }
+
+        long enqueuedAt = System.nanoTime();
+        try {
+            executorService.execute(() -> {
+                queueWaitNanos.addAndGet(System.nanoTime() - enqueuedAt);
+                queueWaitSamples.incrementAndGet();
+                complete(future, key, task);
+            });
+        } catch (RejectedExecutionException e) {
+            // キューが満杯：メインスレッドで実行せず呼び出し元に失敗を返す
+            rejectedTasks.incrementAndGet();
+            logger.warning("DBキューが満杯のためタスクを拒否しました (待機: " + executorService.getQueue().size() + ")");
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void complete(CompletableFuture<T> future, Object key, SqlTask<T> task) {
+        T result;
+        try {
+            if (key != null) {
+                synchronized (keyLocks[(key.hashCode() & 0x7fffffff) % keyLocks.length]) {
+                    result = task.call();
+                }
+            } else {
+                result = task.call();
+            }
+        } catch (Throwable t) {
+            failedTasks.incrementAndGet();
+            completionExecutor.execute(() -> future.completeExceptionally(t));
+            return;
+        }
+        completedTasks.incrementAndGet();
+        completionExecutor.execute(() -> future.complete(result));
+    }
+
+    /**
+     * 新規受付を停止し、実行中・待機中のタスクの完了を待つ
+     */
+    public void shutdown(long timeoutMillis) {
+        if (executorService == null) {
+            return;
+        }
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warning("DBタスクがタイムアウト内に完了しませんでした。残り: " + executorService.getQueue().size());
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            logger.log(Level.WARNING, "DBタスクの完了待機中に割り込みが発生しました", e);
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueuedTaskCount() {
+        return executorService != null ? executorService.getQueue().size() : 0;
+    }
+
+    public int getActiveThreadCount() {
+        return executorService != null ? executorService.getActiveCount() : 0;
+    }
+
+    public long getSubmittedTasks() {
+        return submittedTasks.get();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    public long getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks.get();
+    }
+
+    /**
+     * キューでの平均待ち時間（ミリ秒、未計測の場合は0）
+     */
+    public double getAverageQueueWaitMillis() {
+        long samples = queueWaitSamples.get();
+        return samples == 0 ? 0.0 : queueWaitNanos.get() / (samples * 1_000_000.0);
+    }
+
+    /**
+     * DBタスクのキューを統計の登録簿へ登録する
+     */
+    public void registerStats(StatsRegistry registry) {
+        registry.register("database.executor_queue", () ->
+            StatsRegistry.Stats.queue(getQueuedTaskCount(), StatsRegistry.UNKNOWN, getAverageQueueWaitMillis()));
+    }
+}
@@ -1,42 +1,59 @@
 package org.tofu.tofunomics.database;
 
+import org.tofu.tofunomics.config.ConfigManager;
+
+import javax.sql.DataSource;
+import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.logging.Logger;
 
+/**
+ * SQLiteストレージエンジン
+ * WALモードのコネクションプール（HikariDatabaseManager）を保持し、スキーマを管理する
+ * DAOは getDataSource() から操作ごとに接続を借用し、非同期APIは getDatabaseExecutor() で実行する
+ */
 public class DatabaseManager {
     private final String databasePath;
+    private final ConfigManager configManager;
     private final Logger logger;
-    private Connection connection;
+    private final MainThreadCompletionQueue completionQueue;
+    private HikariDatabaseManager connectionPool;
+    private DatabaseExecutor databaseExecutor;
 
-    public DatabaseManager(String databasePath, Logger logger) {
+    public DatabaseManager(String databasePath, ConfigManager configManager, Logger logger) {
         this.databasePath = databasePath;
+        this.configManager = configManager;
         this.logger = logger;
+        this.completionQueue = new MainThreadCompletionQueue(configManager.getDatabaseMaxCompletionsPerTick(), logger);
     }
 
     public boolean connect() {
-        try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + databasePath);
-            logger.info("SQLiteデータベースに接続しました");
-            return true;
-        } catch (ClassNotFoundException | SQLException e) {
-            logger.severe("データベース接続に失敗しました: " + e.getMessage());
+        connectionPool = new HikariDatabaseManager(new File(databasePath), configManager, logger);
+        if (!connectionPool.initialize()) {
+            logger.severe("データベース接続に失敗しました: " + databasePath);
             return false;
         }
+        databaseExecutor = new DatabaseExecutor(
+            configManager.getDatabaseAsyncThreads(),
+            configManager.getDatabaseAsyncQueueCapacity(),
+            completionQueue,
+            logger);
+        logger.info("SQLiteデータベースに接続しました");
+        return true;
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                logger.info("データベース接続を閉じました");
-            }
-        } catch (SQLException e) {
-            logger.warning("データベース接続の切断に失敗しました: " + e.getMessage());
+        if (databaseExecutor != null) {
+            // 未処理の非同期書き込みを終えてから結果を受け渡し、プールを閉じる
+            databaseExecutor.shutdown(10000L);
+            completionQueue.drainAll();
+        }
+        if (connectionPool != null && connectionPool.isInitialized()) {
+            connectionPool.close();
+            logger.info("データベース接続を閉じました");
         }
     }
 
@@ -217,104 +234,41 @@ public class DatabaseManager {
             "    last_saved TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
             "    FOREIGN KEY (player_uuid) REFERENCES players(uuid) ON DELETE CASCADE" +
             ");"
+
+            // パフォーマンス統計はSQLiteではなくMetricsStore（metrics.bin）へ記録する
         };
 
-        try (Statement statement = connection.createStatement()) {
+        try (Connection connection = connectionPool.getConnection();
+             Statement statement = connection.createStatement()) {
             for (String query : tableCreationQueries) {
                 statement.execute(query);
             }
             logger.info("データベーステーブルを作成しました");
             
             // マイグレーション処理を実行
-            performMigrations();
+            performMigrations(connection);
             
-            initializeDefaultJobs();
+            initializeDefaultJobs(connection);
         } catch (SQLException e) {
             logger.severe("テーブル作成に失敗しました: " + e.getMessage());
         }
     }
 
-    private void performMigrations() {
-        try (Statement statement = connection.createStatement()) {
-            // bank_balanceカラムが存在するかチェック
-            try {
-                statement.executeQuery("SELECT bank_balance FROM players LIMIT 1");
-            } catch (SQLException e) {
-                // カラムが存在しない場合、追加する
-                logger.info("bank_balanceカラムを追加しています...");
-                statement.executeUpdate("ALTER TABLE players ADD COLUMN bank_balance REAL NOT NULL DEFAULT 0.0");
-                
-                // 既存のbalanceをbank_balanceに移行
-                statement.executeUpdate("UPDATE players SET bank_balance = balance WHERE bank_balance = 0.0");
-                statement.executeUpdate("UPDATE players SET balance = 0.0");
-                
-                logger.info("既存データをマイグレーションしました: balance → bank_balance");
-            }
-            
-            // jobs テーブルの created_at カラムが存在するかチェック
-            try {
-                statement.executeQuery("SELECT created_at FROM jobs LIMIT 1");
-                
-                // カラムが存在する場合、タイムスタンプ形式を修正
-                logger.info("jobsテーブルのタイムスタンプ形式を確認・修正しています...");
-                
-                // SQLiteでミリ秒なしのタイムスタンプをミリ秒付きに変換
-                // まず現在のデータ形式を確認
-                try {
-                    // タイムスタンプ形式を統一（ミリ秒なし -> ミリ秒付き）
-                    statement.executeUpdate(
-                        "UPDATE jobs SET created_at = " +
-                        "CASE " +
-                        "  WHEN created_at LIKE '____-__-__ __:__:__' THEN created_at || '.000' " +
-                        "  WHEN created_at LIKE '____-__-__T__:__:__' THEN REPLACE(created_at, 'T', ' ') || '.000' " +
-                        "  ELSE created_at " +
-                        "END " +
-                        "WHERE created_at NOT LIKE '%.___'"
-                    );
-                    logger.info("jobsテーブルのタイムスタンプ形式を修正しました");
-                } catch (SQLException updateEx) {
-                    // 更新に失敗した場合はログに記録のみ
-                    logger.warning("タイムスタンプ形式の修正に失敗しました（処理は継続）: " + updateEx.getMessage());
-                }
-                
-            } catch (SQLException e) {
-                // カラムが存在しない場合、追加する
-                logger.info("jobs テーブルに created_at カラムを追加しています...");
-                statement.executeUpdate("ALTER TABLE jobs ADD COLUMN created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
-                
-                // 既存データに created_at を設定
-                statement.executeUpdate("UPDATE jobs SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL");
-                
-                logger.info("jobs テーブルのマイグレーションが完了しました");
-            }
-            
-            // rules_agreed カラムが存在するかチェック
-            try {
-                statement.executeQuery("SELECT rules_agreed FROM players LIMIT 1");
-            } catch (SQLException e) {
-                // カラムが存在しない場合、追加する
-                logger.info("players テーブルに rules_agreed カラムを追加しています...");
-                statement.executeUpdate("ALTER TABLE players ADD COLUMN rules_agreed BOOLEAN DEFAULT FALSE");
-                
-                logger.info("players テーブルに rules_agreed カラムを追加しました");
-            }
-            
-            // rules_agreed_at カラムが存在するかチェック
-            try {
-                statement.executeQuery("SELECT rules_agreed_at FROM players LIMIT 1");
-            } catch (SQLException e) {
-                // カラムが存在しない場合、追加する
-                logger.info("players テーブルに rules_agreed_at カラムを追加しています...");
-                statement.executeUpdate("ALTER TABLE players ADD COLUMN rules_agreed_at TIMESTAMP");
-                
-                logger.info("players テーブルに rules_agreed_at カラムを追加しました");
+    /**
+     * バージョン管理されたマイグレーションを適用する（適用済みのものは再実行しない）
+     */
+    private void performMigrations(Connection connection) {
+        try {
+            SchemaMigrator migrator = new SchemaMigrator(logger);
+            if (migrator.migrate(connection) == 0) {
+                logger.info("スキーマは最新です (v" + migrator.getLatestVersion() + ")");
             }
         } catch (SQLException e) {
-            logger.warning("マイグレーション処理に失敗しました: " + e.getMessage());
+            logger.severe("マイグレーション処理に失敗しました: " + e.getMessage());
         }
     }
 
-    private void initializeDefaultJobs() {
+    private void initializeDefaultJobs(Connection connection) {
         // SQLiteで適切なタイムスタンプ形式を使用
         String timestamp = "strftime('%Y-%m-%d %H:%M:%S.000', 'now')";
         
@@ -340,15 +294,35 @@ public class DatabaseManager {
         }
     }
 
-    public Connection getConnection() {
-        return connection;
+    /**
+     * DAOが操作ごとに接続を借用するためのDataSource
+     */
+    public DataSource getDataSource() {
+        return connectionPool;
+    }
+
+    /**
+     * 統計情報付きのコネクションプール
+     */
+    public HikariDatabaseManager getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * DAOの非同期APIが使用するDB専用エグゼキュータ
+     */
+    public DatabaseExecutor getDatabaseExecutor() {
+        return databaseExecutor;
+    }
+
+    /**
+     * DB結果をメインスレッドへ返す完了キュー（毎tick drain() する）
+     */
+    public MainThreadCompletionQueue getCompletionQueue() {
+        return completionQueue;
     }
 
     public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed();
-        } catch (SQLException e) {
-            return false;
-        }
+        return connectionPool != null && connectionPool.isInitialized();
     }
-}
\ No newline at end of file
+}
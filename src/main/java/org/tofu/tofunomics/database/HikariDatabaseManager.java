@@ -2,14 +2,19 @@ package org.tofu.tofunomics.database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import org.bukkit.plugin.java.JavaPlugin;
 import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.performance.StatsRegistry;
 
+import javax.sql.DataSource;
 import java.io.File;
+import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -18,10 +23,11 @@ import java.util.logging.Logger;
 /**
  * HikariCP を使用した高性能データベース管理システム
  * コネクションプールによる最適化とパフォーマンス監視機能
+ * SQLiteはWALモードで開き、読み取りが書き込みにブロックされないようにする
  */
-public class HikariDatabaseManager {
+public class HikariDatabaseManager implements DataSource {
     
-    private final JavaPlugin plugin;
+    private final File databaseFile;
     private final ConfigManager configManager;
     private final Logger logger;
     
@@ -35,35 +41,36 @@ public class HikariDatabaseManager {
     private final AtomicLong failedQueries = new AtomicLong(0);
     private final AtomicLong totalQueryTime = new AtomicLong(0);
     
-    public HikariDatabaseManager(JavaPlugin plugin, ConfigManager configManager) {
-        this.plugin = plugin;
+    // 物理接続ごとのPreparedStatementキャッシュ（プールが破棄した接続の分は新しい接続の作成時に取り除く）
+    private final Map<Connection, PreparedStatementCache> statementCaches = new IdentityHashMap<>();
+    private final AtomicLong statementCacheHits = new AtomicLong(0);
+    private final AtomicLong statementCacheMisses = new AtomicLong(0);
+    private int statementCacheSize;
+    
+    public HikariDatabaseManager(File databaseFile, ConfigManager configManager, Logger logger) {
+        this.databaseFile = databaseFile;
         this.configManager = configManager;
-        this.logger = plugin.getLogger();
+        this.logger = logger;
     }
     
     /**
-     * データベース接続とテーブルの初期化
+     * コネクションプールの初期化
+     * テーブル定義はDatabaseManagerが管理する
      */
     public boolean initialize() {
         try {
             // データフォルダの作成
-            if (!plugin.getDataFolder().exists()) {
-                plugin.getDataFolder().mkdirs();
+            File parent = databaseFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
             }
             
-            // データベースファイルパスの決定
-            File databaseFile = new File(plugin.getDataFolder(), configManager.getDatabaseFilename());
             String jdbcUrl = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
+            statementCacheSize = configManager.getStatementCacheSize();
             
             // HikariCP設定
             setupHikariConfig(jdbcUrl);
             
-            // テーブル作成
-            createTables();
-            
-            // デフォルトデータの挿入
-            insertDefaultData();
-            
             isInitialized = true;
             logger.info("HikariCP データベース接続を初期化しました。");
             logger.info("データベースファイル: " + databaseFile.getAbsolutePath());
@@ -103,11 +110,18 @@ public class HikariDatabaseManager {
             config.setConnectionTimeout(30000);
         }
         
-        // SQLite固有の設定
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-        config.addDataSourceProperty("useServerPrepStmts", "true");
+        // SQLite固有の設定（sqlite-jdbcは接続プロパティをPRAGMAとして適用する）
+        // WAL: 読み取りは書き込み中でも並行して進められる
+        config.addDataSourceProperty("journal_mode", configManager.getSqliteJournalMode());
+        // WAL時はNORMALでもクラッシュ耐性は保たれ、コミット毎のfsyncを省ける
+        config.addDataSourceProperty("synchronous", configManager.getSqliteSynchronous());
+        // 書き込みロック競合時はSQLITE_BUSYを即時返さず待機する
+        config.addDataSourceProperty("busy_timeout", String.valueOf(configManager.getSqliteBusyTimeout()));
+        config.addDataSourceProperty("mmap_size", String.valueOf(configManager.getSqliteMmapSize()));
+        config.addDataSourceProperty("cache_size", String.valueOf(configManager.getSqliteCacheSize()));
+        config.addDataSourceProperty("temp_store", "MEMORY");
+        // 読み取り後に書き込むトランザクションが途中でSQLITE_BUSYにならないよう、開始時に書き込みロックを取る
+        config.addDataSourceProperty("transaction_mode", "IMMEDIATE");
         
         // 接続プール名
         config.setPoolName("TofuNomics-HikariCP");
@@ -115,264 +129,15 @@ public class HikariDatabaseManager {
         // データソースの作成
         dataSource = new HikariDataSource(config);
         
-        logger.info("HikariCP設定を完了しました。");
-    }
-    
-    /**
-     * データベーステーブルの作成
-     */
-    private void createTables() throws SQLException {
-        try (Connection conn = getConnection()) {
-            // プレイヤーテーブル
-            String createPlayersTable = "CREATE TABLE IF NOT EXISTS players (" +
-                "uuid TEXT PRIMARY KEY," +
-                "balance REAL DEFAULT 100.0," +
-                "created_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "updated_at DATETIME DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-            
-            // 職業テーブル
-            String createJobsTable = "CREATE TABLE IF NOT EXISTS jobs (" +
-                "job_id TEXT PRIMARY KEY," +
-                "job_name TEXT NOT NULL," +
-                "max_level INTEGER DEFAULT 75," +
-                "base_income REAL DEFAULT 1.0," +
-                "description TEXT" +
-                ")";
-            
-            // プレイヤー職業テーブル
-            String createPlayerJobsTable = "CREATE TABLE IF NOT EXISTS player_jobs (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "uuid TEXT NOT NULL," +
-                "job_id TEXT NOT NULL," +
-                "level INTEGER DEFAULT 1," +
-                "experience REAL DEFAULT 0.0," +
-                "is_active BOOLEAN DEFAULT 1," +
-                "joined_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "last_used DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "FOREIGN KEY (uuid) REFERENCES players(uuid)," +
-                "FOREIGN KEY (job_id) REFERENCES jobs(job_id)" +
-                ")";
-            
-            // 職業スキルテーブル
-            String createJobSkillsTable = "CREATE TABLE IF NOT EXISTS job_skills (" +
-                "skill_id TEXT PRIMARY KEY," +
-                "job_id TEXT NOT NULL," +
-                "skill_name TEXT NOT NULL," +
-                "unlock_level INTEGER DEFAULT 1," +
-                "skill_type TEXT NOT NULL," +
-                "effect_description TEXT," +
-                "FOREIGN KEY (job_id) REFERENCES jobs(job_id)" +
-                ")";
-            
-            // プレイヤースキルテーブル
-            String createPlayerSkillsTable = "CREATE TABLE IF NOT EXISTS player_skills (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "uuid TEXT NOT NULL," +
-                "skill_id TEXT NOT NULL," +
-                "acquired_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "skill_level INTEGER DEFAULT 1," +
-                "usage_count INTEGER DEFAULT 0," +
-                "last_used DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "FOREIGN KEY (uuid) REFERENCES players(uuid)," +
-                "FOREIGN KEY (skill_id) REFERENCES job_skills(skill_id)" +
-                ")";
-            
-            // 土地所有テーブル
-            String createLandOwnershipTable = "CREATE TABLE IF NOT EXISTS land_ownership (" +
-                "land_id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "owner_uuid TEXT NOT NULL," +
-                "world_name TEXT NOT NULL," +
-                "x INTEGER NOT NULL," +
-                "z INTEGER NOT NULL," +
-                "size INTEGER DEFAULT 16," +
-                "purchase_price REAL NOT NULL," +
-                "purchased_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "FOREIGN KEY (owner_uuid) REFERENCES players(uuid)" +
-                ")";
-            
-            // 取引チェストテーブル（フェーズ4）
-            String createTradeChestsTable = "CREATE TABLE IF NOT EXISTS trade_chests (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "owner_uuid TEXT NOT NULL," +
-                "job_type TEXT NOT NULL," +
-                "world_name TEXT NOT NULL," +
-                "x INTEGER NOT NULL," +
-                "y INTEGER NOT NULL," +
-                "z INTEGER NOT NULL," +
-                "created_at DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "last_used DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "FOREIGN KEY (owner_uuid) REFERENCES players(uuid)" +
-                ")";
-            
-            // プレイヤー取引履歴テーブル（フェーズ4）
-            String createPlayerTradeHistoryTable = "CREATE TABLE IF NOT EXISTS player_trade_history (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "player_uuid TEXT NOT NULL," +
-                "item_type TEXT NOT NULL," +
-                "quantity INTEGER NOT NULL," +
-                "unit_price REAL NOT NULL," +
-                "total_amount REAL NOT NULL," +
-                "job_type TEXT NOT NULL," +
-                "job_level INTEGER NOT NULL," +
-                "price_bonus REAL DEFAULT 0.0," +
-                "trade_date DATETIME DEFAULT CURRENT_TIMESTAMP," +
-                "FOREIGN KEY (player_uuid) REFERENCES players(uuid)" +
-                ")";
-            
-            // パフォーマンス統計テーブル（フェーズ6）
-            String createPerformanceStatsTable = "CREATE TABLE IF NOT EXISTS performance_stats (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "stat_type TEXT NOT NULL," +
-                "stat_value REAL NOT NULL," +
-                "recorded_at DATETIME DEFAULT CURRENT_TIMESTAMP" +
-                ")";
-            
-            // インデックスの作成
-            String[] indexes = {
-                "CREATE INDEX IF NOT EXISTS idx_player_jobs_uuid ON player_jobs(uuid)",
-                "CREATE INDEX IF NOT EXISTS idx_player_jobs_job_id ON player_jobs(job_id)",
-                "CREATE INDEX IF NOT EXISTS idx_player_skills_uuid ON player_skills(uuid)",
-                "CREATE INDEX IF NOT EXISTS idx_trade_chests_location ON trade_chests(world_name, x, y, z)",
-                "CREATE INDEX IF NOT EXISTS idx_trade_history_player ON player_trade_history(player_uuid)",
-                "CREATE INDEX IF NOT EXISTS idx_trade_history_date ON player_trade_history(trade_date)",
-                "CREATE INDEX IF NOT EXISTS idx_performance_stats_type ON performance_stats(stat_type, recorded_at)"
-            };
-            
-            // テーブル作成実行
-            try (Statement stmt = conn.createStatement()) {
-                stmt.execute(createPlayersTable);
-                stmt.execute(createJobsTable);
-                stmt.execute(createPlayerJobsTable);
-                stmt.execute(createJobSkillsTable);
-                stmt.execute(createPlayerSkillsTable);
-                stmt.execute(createLandOwnershipTable);
-                stmt.execute(createTradeChestsTable);
-                stmt.execute(createPlayerTradeHistoryTable);
-                stmt.execute(createPerformanceStatsTable);
-                
-                // インデックス作成
-                for (String indexSql : indexes) {
-                    stmt.execute(indexSql);
-                }
-                
-                logger.info("データベーステーブルとインデックスを作成しました。");
-            }
-        }
-    }
-    
-    /**
-     * デフォルトデータの挿入
-     */
-    private void insertDefaultData() throws SQLException {
-        insertDefaultJobs();
-        insertDefaultJobSkills();
-    }
-    
-    /**
-     * デフォルト職業データの挿入
-     */
-    private void insertDefaultJobs() throws SQLException {
-        String insertJobQuery = "INSERT OR IGNORE INTO jobs (job_id, job_name, max_level, base_income, description) " +
-            "VALUES (?, ?, ?, ?, ?)";
-        
-        Object[][] jobData = {
-            {"miner", "鉱夫", 75, 1.0, "鉱物資源と石材の供給を担当"},
-            {"woodcutter", "木こり", 75, 1.0, "木材の供給を担当"},
-            {"farmer", "農家", 75, 1.0, "農作物・畜産物の供給を担当"},
-            {"fisherman", "釣り人", 75, 1.0, "魚と宝の供給を担当"},
-            {"blacksmith", "鍛冶屋", 75, 1.0, "ツール、武器、防具の生産と修理を担当"},
-            {"alchemist", "ポーション屋", 75, 1.0, "ポーションの生産を担当"},
-            {"enchanter", "エンチャンター", 75, 1.0, "エンチャントサービスを担当"},
-            {"architect", "建築家", 75, 1.0, "建築と装飾を担当"}
-        };
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(insertJobQuery)) {
-            
-            for (Object[] job : jobData) {
-                pstmt.setString(1, (String) job[0]);
-                pstmt.setString(2, (String) job[1]);
-                pstmt.setInt(3, (Integer) job[2]);
-                pstmt.setDouble(4, (Double) job[3]);
-                pstmt.setString(5, (String) job[4]);
-                pstmt.executeUpdate();
-            }
-            
-            logger.info("デフォルト職業データを挿入しました。");
-        }
-    }
-    
-    /**
-     * デフォルト職業スキルデータの挿入
-     */
-    private void insertDefaultJobSkills() throws SQLException {
-        String insertSkillQuery = "INSERT OR IGNORE INTO job_skills (skill_id, job_id, skill_name, unlock_level, skill_type, effect_description) " +
-            "VALUES (?, ?, ?, ?, ?, ?)";
-        
-        Object[][] skillData = {
-            // 鉱夫スキル
-            {"miner_fortune_strike", "miner", "幸運の一撃", 10, "passive", "追加ドロップ確率向上"},
-            {"miner_vein_discovery", "miner", "鉱脈発見", 25, "active", "連続採掘ボーナス"},
-            {"miner_mining_mastery", "miner", "採掘の極意", 50, "passive", "ツール耐久度節約"},
-            
-            // 木こりスキル
-            {"woodcutter_tree_feller", "woodcutter", "一斉伐採", 15, "active", "木全体を一度に伐採"},
-            {"woodcutter_sapling_blessing", "woodcutter", "苗木の恵み", 30, "passive", "苗木ドロップボーナス"},
-            {"woodcutter_forest_guardian", "woodcutter", "森の番人", 45, "passive", "木材品質向上"},
-            
-            // 農家スキル
-            {"farmer_harvest_blessing", "farmer", "豊穣の恵み", 10, "passive", "作物追加ドロップ"},
-            {"farmer_twin_miracle", "farmer", "双子の奇跡", 15, "passive", "動物繁殖時双子確率"},
-            {"farmer_growth_acceleration", "farmer", "成長促進", 30, "passive", "作物・動物成長加速"},
-            {"farmer_selective_breeding", "farmer", "品種改良", 50, "passive", "高品質作物・動物"},
-            
-            // 漁師スキル
-            {"fisherman_big_catch", "fisherman", "大物釣り", 20, "passive", "大型魚釣り確率向上"},
-            {"fisherman_treasure_hunter", "fisherman", "宝探し", 35, "passive", "宝物釣り確率向上"},
-            {"fisherman_sea_blessing", "fisherman", "海の加護", 50, "passive", "天候無視釣り"},
-            
-            // 鍛冶屋スキル
-            {"blacksmith_perfect_repair", "blacksmith", "完璧な修理", 10, "active", "修理時耐久度ボーナス"},
-            {"blacksmith_master_craftsmanship", "blacksmith", "名工の技", 25, "passive", "製作時品質向上"},
-            {"blacksmith_artifact_creation", "blacksmith", "神器創造", 60, "active", "特別エンチャント付与"},
-            
-            // 錬金術師スキル
-            {"alchemist_ingredient_conservation", "alchemist", "材料節約", 15, "passive", "醸造材料消費削減"},
-            {"alchemist_double_brewing", "alchemist", "二重醸造", 30, "passive", "ポーション2個作成"},
-            {"alchemist_alchemy_mastery", "alchemist", "錬金の極意", 50, "passive", "効果時間延長"},
-            
-            // 魔術師スキル
-            {"enchanter_experience_conservation", "enchanter", "経験値節約", 10, "passive", "エンチャント経験値コスト削減"},
-            {"enchanter_bonus_enchantment", "enchanter", "ボーナスエンチャント", 25, "passive", "追加エンチャント付与"},
-            {"enchanter_mystical_arts", "enchanter", "魔術の神秘", 45, "passive", "希少エンチャント確率向上"},
-            
-            // 建築家スキル
-            {"architect_material_efficiency", "architect", "材料節約", 10, "passive", "建築材料消費削減"},
-            {"architect_architectural_aesthetics", "architect", "建築の美学", 30, "passive", "装飾ブロックボーナス"},
-            {"architect_master_architect", "architect", "巨匠の設計", 50, "passive", "大規模建築ボーナス"}
-        };
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(insertSkillQuery)) {
-            
-            for (Object[] skill : skillData) {
-                pstmt.setString(1, (String) skill[0]);
-                pstmt.setString(2, (String) skill[1]);
-                pstmt.setString(3, (String) skill[2]);
-                pstmt.setInt(4, (Integer) skill[3]);
-                pstmt.setString(5, (String) skill[4]);
-                pstmt.setString(6, (String) skill[5]);
-                pstmt.executeUpdate();
-            }
-            
-            logger.info("デフォルト職業スキルデータを挿入しました。");
-        }
+        logger.info("HikariCP設定を完了しました。（journal_mode=" + configManager.getSqliteJournalMode() +
+                   ", synchronous=" + configManager.getSqliteSynchronous() + "）");
     }
     
     /**
      * データベース接続の取得（統計情報付き）
+     * 借用した接続は使用後すぐにcloseしてプールへ返却すること
      */
+    @Override
     public Connection getConnection() throws SQLException {
         if (!isInitialized || dataSource.isClosed()) {
             throw new SQLException("データベースが初期化されていないか、既に閉じられています。");
@@ -404,6 +169,49 @@ public class HikariDatabaseManager {
         activeConnections.decrementAndGet();
     }
     
+    /**
+     * 借用した接続の物理接続に対応する文キャッシュを取得する（無効時はnull）
+     */
+    PreparedStatementCache getStatementCache(Connection pooledConnection) throws SQLException {
+        if (statementCacheSize <= 0) {
+            return null;
+        }
+        // プロキシ経由で準備した文は返却時にHikariCPが閉じるため、物理接続に対して準備する
+        Connection physicalConnection = pooledConnection.unwrap(Connection.class);
+        synchronized (statementCaches) {
+            PreparedStatementCache cache = statementCaches.get(physicalConnection);
+            if (cache == null) {
+                statementCaches.values().removeIf(existing -> {
+                    if (existing.isConnectionClosed()) {
+                        existing.close();
+                        return true;
+                    }
+                    return false;
+                });
+                cache = new PreparedStatementCache(physicalConnection, statementCacheSize,
+                    statementCacheHits, statementCacheMisses);
+                statementCaches.put(physicalConnection, cache);
+            }
+            return cache;
+        }
+    }
+    
+    /**
+     * 接続ごとの文キャッシュを統計の登録簿へ登録する（件数は全接続の合計）
+     */
+    public void registerStats(StatsRegistry registry) {
+        registry.register("database.statement_cache", () -> {
+            int size = 0;
+            synchronized (statementCaches) {
+                for (PreparedStatementCache cache : statementCaches.values()) {
+                    size += cache.size();
+                }
+            }
+            return StatsRegistry.Stats.cache(size, statementCacheHits.get(), statementCacheMisses.get(),
+                StatsRegistry.UNKNOWN, StatsRegistry.UNKNOWN);
+        });
+    }
+    
     /**
      * データベース統計情報の取得
      */
@@ -415,47 +223,23 @@ public class HikariDatabaseManager {
             failedQueries.get(),
             totalQueries.get() == 0 ? 0.0 : (double) totalQueryTime.get() / totalQueries.get(),
             dataSource != null ? dataSource.getMaximumPoolSize() : 0,
-            dataSource != null ? dataSource.getMinimumIdle() : 0
+            dataSource != null ? dataSource.getMinimumIdle() : 0,
+            statementCacheHits.get(),
+            statementCacheMisses.get()
         );
     }
     
-    /**
-     * パフォーマンス統計をデータベースに記録
-     */
-    public void recordPerformanceStats() {
-        try (Connection conn = getConnection()) {
-            String insertStatQuery = "INSERT INTO performance_stats (stat_type, stat_value) " +
-                                     "VALUES (?, ?)";
-            
-            try (PreparedStatement pstmt = conn.prepareStatement(insertStatQuery)) {
-                DatabaseStatistics stats = getStatistics();
-                
-                // 各統計をレコードとして挿入
-                pstmt.setString(1, "active_connections");
-                pstmt.setDouble(2, stats.getActiveConnections());
-                pstmt.executeUpdate();
-                
-                pstmt.setString(1, "total_queries");
-                pstmt.setDouble(2, stats.getTotalQueries());
-                pstmt.executeUpdate();
-                
-                pstmt.setString(1, "average_query_time");
-                pstmt.setDouble(2, stats.getAverageQueryTime());
-                pstmt.executeUpdate();
-                
-                pstmt.setString(1, "failed_queries");
-                pstmt.setDouble(2, stats.getFailedQueries());
-                pstmt.executeUpdate();
-            }
-        } catch (SQLException e) {
-            logger.warning("パフォーマンス統計の記録に失敗しました: " + e.getMessage());
-        }
-    }
-    
     /**
      * データベース接続のクローズとリソースの解放
      */
     public void close() {
+        synchronized (statementCaches) {
+            for (PreparedStatementCache cache : statementCaches.values()) {
+                cache.close();
+            }
+            statementCaches.clear();
+        }
+        
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             logger.info("HikariCP データソースをクローズしました。");
@@ -477,7 +261,56 @@ public class HikariDatabaseManager {
     public boolean isInitialized() {
         return isInitialized && dataSource != null && !dataSource.isClosed();
     }
-    
+
+    // ========== DataSource 実装（DAOは操作ごとに接続を借用する） ==========
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource != null ? dataSource.getLogWriter() : null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        if (dataSource != null) {
+            dataSource.setLogWriter(out);
+        }
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        if (dataSource != null) {
+            dataSource.setLoginTimeout(seconds);
+        }
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource != null ? dataSource.getLoginTimeout() : 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || (dataSource != null && dataSource.isWrapperFor(iface));
+    }
+
     /**
      * データベース統計情報クラス
      */
@@ -489,9 +322,12 @@ public class HikariDatabaseManager {
         private final double averageQueryTime;
         private final int maxPoolSize;
         private final int minPoolSize;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
         
         public DatabaseStatistics(int activeConnections, long totalConnections, long totalQueries,
-                                long failedQueries, double averageQueryTime, int maxPoolSize, int minPoolSize) {
+                                long failedQueries, double averageQueryTime, int maxPoolSize, int minPoolSize,
+                                long statementCacheHits, long statementCacheMisses) {
             this.activeConnections = activeConnections;
             this.totalConnections = totalConnections;
             this.totalQueries = totalQueries;
@@ -499,12 +335,19 @@ public class HikariDatabaseManager {
             this.averageQueryTime = averageQueryTime;
             this.maxPoolSize = maxPoolSize;
             this.minPoolSize = minPoolSize;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
         }
         
         public double getSuccessRate() {
             return totalQueries == 0 ? 1.0 : 1.0 - ((double) failedQueries / totalQueries);
         }
         
+        public double getStatementCacheHitRate() {
+            long total = statementCacheHits + statementCacheMisses;
+            return total == 0 ? 0.0 : (double) statementCacheHits / total;
+        }
+        
         // Getters
         public int getActiveConnections() { return activeConnections; }
         public long getTotalConnections() { return totalConnections; }
@@ -513,6 +356,8 @@ public class HikariDatabaseManager {
         public double getAverageQueryTime() { return averageQueryTime; }
         public int getMaxPoolSize() { return maxPoolSize; }
         public int getMinPoolSize() { return minPoolSize; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
     }
     
     /**
@@ -521,6 +366,7 @@ public class HikariDatabaseManager {
     private static class ConnectionWrapper implements Connection {
         private final Connection delegate;
         private final HikariDatabaseManager manager;
+        private PreparedStatementCache statementCache;
         private boolean closed = false;
         
         public ConnectionWrapper(Connection delegate, HikariDatabaseManager manager) {
@@ -531,6 +377,9 @@ public class HikariDatabaseManager {
         @Override
         public void close() throws SQLException {
             if (!closed) {
+                if (statementCache != null) {
+                    statementCache.releaseAll();
+                }
                 delegate.close();
                 manager.onConnectionClosed();
                 closed = true;
@@ -542,7 +391,15 @@ public class HikariDatabaseManager {
         public Statement createStatement() throws SQLException { return delegate.createStatement(); }
         
         @Override
-        public PreparedStatement prepareStatement(String sql) throws SQLException { return delegate.prepareStatement(sql); }
+        public PreparedStatement prepareStatement(String sql) throws SQLException {
+            if (statementCache == null) {
+                statementCache = manager.getStatementCache(delegate);
+                if (statementCache == null) {
+                    return delegate.prepareStatement(sql);
+                }
+            }
+            return statementCache.prepare(sql);
+        }
         
         @Override
         public void setAutoCommit(boolean autoCommit) throws SQLException { delegate.setAutoCommit(autoCommit); }
@@ -0,0 +1,69 @@
+package org.tofu.tofunomics.database;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * メインスレッド完了キュー
+ * DBスレッドで得た結果の受け渡し処理を溜めておき、メインスレッドが毎tickまとめて実行する
+ * （結果ごとにBukkitのタスクを登録しないためのハンドオフ）
+ */
+public class MainThreadCompletionQueue implements Executor {
+
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger(0);
+    private final int maxCompletionsPerTick;
+    private final Logger logger;
+
+    public MainThreadCompletionQueue(int maxCompletionsPerTick, Logger logger) {
+        this.maxCompletionsPerTick = Math.max(1, maxCompletionsPerTick);
+        this.logger = logger;
+    }
+
+    /**
+     * 完了処理をキューに積む（任意のスレッドから呼び出し可能）
+     */
+    @Override
+    public void execute(Runnable completion) {
+        completions.offer(completion);
+        pendingCount.incrementAndGet();
+    }
+
+    /**
+     * 1tick分の完了処理を実行（メインスレッドから毎tick呼び出す）
+     * @return 実行した件数
+     */
+    public int drain() {
+        return drain(maxCompletionsPerTick);
+    }
+
+    /**
+     * 残っている完了処理をすべて実行（シャットダウン時用）
+     */
+    public int drainAll() {
+        return drain(Integer.MAX_VALUE);
+    }
+
+    private int drain(int limit) {
+        int processed = 0;
+        Runnable completion;
+        while (processed < limit && (completion = completions.poll()) != null) {
+            pendingCount.decrementAndGet();
+            processed++;
+            try {
+                completion.run();
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "DB完了処理の実行中にエラーが発生しました", t);
+            }
+        }
+        return processed;
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+}
@@ -0,0 +1,200 @@
+package org.tofu.tofunomics.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 物理接続1本ごとのPreparedStatementキャッシュ
+ * 同じSQLの文を使い回し、sqlite-jdbcが呼び出しのたびにSQLを解析し直すのを避ける
+ * 借用側のcloseでは文を閉じずに結果セットとパラメータだけを片付けてキャッシュへ戻す
+ * 接続を借用しているスレッドだけが操作する前提のため同期しない
+ */
+public class PreparedStatementCache {
+
+    private static final class CachedStatement {
+        private final String sql;
+        private final PreparedStatement statement;
+        private ResultSet resultSet;
+        // 借用ごとに増やし、返却済みのハンドルが次の借用者の文を戻さないようにする
+        private long borrowId;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+    }
+
+    private final Connection connection;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    // アクセス順（先頭が最も長く使われていない文）
+    private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<CachedStatement> borrowed = new ArrayList<>();
+
+    /**
+     * @param connection プールのプロキシではなく物理接続（プロキシ経由の文は返却時に閉じられるため）
+     */
+    public PreparedStatementCache(Connection connection, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * キャッシュ済みの文を借用する（なければ準備してキャッシュする）
+     * 同じSQLの文が借用中の場合はキャッシュしない文を返す
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.statement.isClosed()) {
+            statements.remove(sql);
+            cached = null;
+        }
+        if (cached != null && cached.inUse) {
+            misses.incrementAndGet();
+            return connection.prepareStatement(sql);
+        }
+
+        if (cached == null) {
+            misses.incrementAndGet();
+            cached = new CachedStatement(sql, connection.prepareStatement(sql));
+            statements.put(sql, cached);
+            evictOverflow();
+        } else {
+            hits.incrementAndGet();
+        }
+        cached.inUse = true;
+        cached.borrowId++;
+        borrowed.add(cached);
+        return createHandle(cached, cached.borrowId);
+    }
+
+    /**
+     * 借用中の文をすべてキャッシュへ戻す（接続の返却時）
+     */
+    public void releaseAll() {
+        for (CachedStatement cached : new ArrayList<>(borrowed)) {
+            release(cached, cached.borrowId);
+        }
+    }
+
+    /**
+     * キャッシュした文をすべて閉じる
+     */
+    public void close() {
+        releaseAll();
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+    }
+
+    public boolean isConnectionClosed() {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    /**
+     * 上限を超えた分を古い順に追い出す（借用中の文は返却時に閉じる）
+     */
+    private void evictOverflow() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (statements.size() > maxSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next();
+            iterator.remove();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private void release(CachedStatement cached, long borrowId) {
+        if (!cached.inUse || cached.borrowId != borrowId) {
+            return;
+        }
+        cached.inUse = false;
+        borrowed.remove(cached);
+        try {
+            // 結果セットを開いたままにするとWALの読み取りスナップショットが残り続ける
+            if (cached.resultSet != null) {
+                cached.resultSet.close();
+            }
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+        } catch (SQLException e) {
+            cached.evicted = true;
+        } finally {
+            cached.resultSet = null;
+        }
+        if (cached.evicted) {
+            statements.remove(cached.sql, cached);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    /**
+     * 借用側に渡す文（closeでキャッシュへ戻り、以降の呼び出しは失敗する）
+     */
+    private PreparedStatement createHandle(CachedStatement cached, long borrowId) {
+        boolean[] closed = { false };
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if ("close".equals(name) && method.getParameterCount() == 0) {
+                    if (!closed[0]) {
+                        closed[0] = true;
+                        release(cached, borrowId);
+                    }
+                    return null;
+                }
+                if ("isClosed".equals(name) && method.getParameterCount() == 0) {
+                    return closed[0];
+                }
+                if (closed[0] || !cached.inUse || cached.borrowId != borrowId) {
+                    throw new SQLException("Statement is closed");
+                }
+                try {
+                    Object result = method.invoke(cached.statement, args);
+                    if (result instanceof ResultSet) {
+                        cached.resultSet = (ResultSet) result;
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // 接続ごと閉じられている場合は何もしない
+        }
+    }
+}
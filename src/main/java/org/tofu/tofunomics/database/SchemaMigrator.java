@@ -0,0 +1,333 @@
+package org.tofu.tofunomics.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * バージョン管理されたスキーママイグレーション
+ * schema_version テーブルに適用済みのバージョンを記録し、未適用のマイグレーションだけを順に1回ずつ実行する
+ * 各マイグレーションは1トランザクションで適用され、失敗した場合はそれ以降を実行しない
+ */
+public class SchemaMigrator {
+
+    /**
+     * 取引履歴の月別パーティションテーブル名の接頭辞（後ろに yyyyMM が付く）
+     */
+    public static final String TRADE_HISTORY_PARTITION_PREFIX = "player_trade_history_";
+
+    // 旧テーブルの traded_at（CURRENT_TIMESTAMP の文字列、またはエポックミリ秒）をエポックミリ秒へ変換する式
+    private static final String LEGACY_TRADED_AT_MILLIS =
+        "COALESCE(CASE typeof(traded_at) WHEN 'integer' THEN traded_at " +
+        "ELSE CAST(strftime('%s', traded_at) AS INTEGER) * 1000 END, CAST(strftime('%s', 'now') AS INTEGER) * 1000)";
+
+    /**
+     * 1つのマイグレーション処理
+     */
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * バージョン付きのマイグレーション
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+    }
+
+    private final Logger logger;
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator(Logger logger) {
+        this.logger = logger;
+
+        // バージョン番号は追加のみ（既存の番号・内容は変更しないこと）
+        register(1, "players.bank_balance カラムの追加と残高の移行", SchemaMigrator::addBankBalance);
+        register(2, "jobs.created_at カラムの追加とタイムスタンプ形式の統一", SchemaMigrator::normalizeJobsCreatedAt);
+        register(3, "players.rules_agreed / rules_agreed_at カラムの追加", connection -> {
+            addColumnIfMissing(connection, "players", "rules_agreed", "BOOLEAN DEFAULT FALSE");
+            addColumnIfMissing(connection, "players", "rules_agreed_at", "TIMESTAMP");
+        });
+        register(4, "housing_rentals のゲーム内時間（tick）カラムの追加", connection -> {
+            addColumnIfMissing(connection, "housing_rentals", "start_tick", "INTEGER DEFAULT 0");
+            addColumnIfMissing(connection, "housing_rentals", "end_tick", "INTEGER DEFAULT 0");
+        });
+        register(5, "player_jobs(uuid, job_id) の一意インデックス", SchemaMigrator::createPlayerJobsUniqueIndex);
+        register(6, "housing_rentals の期限切れ検索・契約者検索用インデックス", connection -> {
+            execute(connection, "CREATE INDEX IF NOT EXISTS idx_housing_rentals_status_end_tick ON housing_rentals(status, end_tick)");
+            execute(connection, "CREATE INDEX IF NOT EXISTS idx_housing_rentals_tenant_status ON housing_rentals(tenant_uuid, status)");
+        });
+        register(7, "player_trade_history(uuid, traded_at) インデックス", connection ->
+            execute(connection, "CREATE INDEX IF NOT EXISTS idx_player_trade_history_uuid_traded_at ON player_trade_history(uuid, traded_at)"));
+        register(8, "総資産ランキング用インデックス", connection ->
+            // PlayerDAO.getTopPlayers の ORDER BY (balance + bank_balance) DESC と同じ式で作成する
+            execute(connection, "CREATE INDEX IF NOT EXISTS idx_players_wealth ON players((balance + bank_balance) DESC)"));
+        register(9, "取引履歴の月別パーティション化と日次集計テーブル", SchemaMigrator::partitionTradeHistory);
+        register(10, "performance_stats テーブルの廃止（メトリクスは metrics.bin へ記録）", connection ->
+            execute(connection, "DROP TABLE IF EXISTS performance_stats"));
+        register(11, "players.name カラムの追加（オフラインプレイヤーの表示名）", connection ->
+            addColumnIfMissing(connection, "players", "name", "TEXT"));
+    }
+
+    private void register(int version, String description, MigrationStep step) {
+        if (!migrations.isEmpty() && migrations.get(migrations.size() - 1).getVersion() >= version) {
+            throw new IllegalStateException("マイグレーションのバージョンは昇順で登録してください: " + version);
+        }
+        migrations.add(new Migration(version, description, step));
+    }
+
+    /**
+     * 未適用のマイグレーションを実行する
+     * @return 適用したマイグレーション数
+     */
+    public int migrate(Connection connection) throws SQLException {
+        execute(connection,
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "    version INTEGER PRIMARY KEY," +
+            "    description TEXT NOT NULL," +
+            "    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")");
+
+        int currentVersion = getCurrentVersion(connection);
+        int applied = 0;
+        for (Migration migration : migrations) {
+            if (migration.getVersion() <= currentVersion) {
+                continue;
+            }
+            apply(connection, migration);
+            applied++;
+        }
+
+        if (applied > 0) {
+            logger.info("スキーママイグレーションを適用しました: v" + currentVersion + " → v" + getLatestVersion());
+        }
+        return applied;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        logger.info("マイグレーション v" + migration.getVersion() + " を適用しています: " + migration.getDescription());
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            migration.step.apply(connection);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                statement.setInt(1, migration.getVersion());
+                statement.setString(2, migration.getDescription());
+                statement.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("マイグレーション v" + migration.getVersion() + " に失敗しました: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 適用済みの最新バージョン（未適用なら0）
+     */
+    public static int getCurrentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    public List<Migration> getMigrations() {
+        return Collections.unmodifiableList(migrations);
+    }
+
+    // ========== マイグレーション処理 ==========
+
+    private static void addBankBalance(Connection connection) throws SQLException {
+        if (addColumnIfMissing(connection, "players", "bank_balance", "REAL NOT NULL DEFAULT 0.0")) {
+            // 既存のbalanceをbank_balanceに移行
+            execute(connection, "UPDATE players SET bank_balance = balance WHERE bank_balance = 0.0");
+            execute(connection, "UPDATE players SET balance = 0.0");
+        }
+    }
+
+    private static void normalizeJobsCreatedAt(Connection connection) throws SQLException {
+        if (addColumnIfMissing(connection, "jobs", "created_at", "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")) {
+            execute(connection, "UPDATE jobs SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL");
+        }
+        // ミリ秒なしのタイムスタンプをミリ秒付きに統一（以降の挿入はミリ秒付きで行われる）
+        execute(connection,
+            "UPDATE jobs SET created_at = " +
+            "CASE " +
+            "  WHEN created_at LIKE '____-__-__ __:__:__' THEN created_at || '.000' " +
+            "  WHEN created_at LIKE '____-__-__T__:__:__' THEN REPLACE(created_at, 'T', ' ') || '.000' " +
+            "  ELSE created_at " +
+            "END " +
+            "WHERE created_at NOT LIKE '%.___'");
+    }
+
+    private static void createPlayerJobsUniqueIndex(Connection connection) throws SQLException {
+        // 主キーのない旧スキーマで重複行がある場合は最後に書き込まれた行を残す
+        execute(connection,
+            "DELETE FROM player_jobs WHERE rowid NOT IN (" +
+            "    SELECT MAX(rowid) FROM player_jobs GROUP BY uuid, job_id" +
+            ")");
+        execute(connection, "CREATE UNIQUE INDEX IF NOT EXISTS idx_player_jobs_uuid_job_id ON player_jobs(uuid, job_id)");
+    }
+
+    private static void partitionTradeHistory(Connection connection) throws SQLException {
+        createTradeRollupTables(connection);
+
+        if (!hasTable(connection, "player_trade_history")) {
+            return;
+        }
+
+        // 既存の履歴を取引月ごとのパーティションへ移し、日次集計を作り直す
+        String legacyRows = "(SELECT uuid, trade_chest_id, item_type, item_amount, sale_price, job_bonus, " +
+            "player_job, player_job_level, " + LEGACY_TRADED_AT_MILLIS + " AS traded_ms FROM player_trade_history)";
+        String monthExpr = "strftime('%Y%m', traded_ms / 1000, 'unixepoch', 'localtime')";
+        String dateExpr = "date(traded_ms / 1000, 'unixepoch', 'localtime')";
+
+        List<String> months = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT DISTINCT " + monthExpr + " FROM " + legacyRows)) {
+            while (resultSet.next()) {
+                months.add(resultSet.getString(1));
+            }
+        }
+        for (String month : months) {
+            String table = TRADE_HISTORY_PARTITION_PREFIX + month;
+            createTradeHistoryPartition(connection, table);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO " + table + " (uuid, trade_chest_id, item_type, item_amount, sale_price, job_bonus, " +
+                    "player_job, player_job_level, traded_at) " +
+                    "SELECT uuid, trade_chest_id, item_type, item_amount, sale_price, job_bonus, " +
+                    "player_job, player_job_level, traded_ms FROM " + legacyRows + " WHERE " + monthExpr + " = ? " +
+                    "ORDER BY traded_ms")) {
+                statement.setString(1, month);
+                statement.executeUpdate();
+            }
+        }
+
+        execute(connection,
+            "INSERT INTO trade_daily_player_stats (trade_date, uuid, trade_count, item_amount, sale_total, bonus_total) " +
+            "SELECT " + dateExpr + ", uuid, COUNT(*), SUM(item_amount), SUM(sale_price), SUM(COALESCE(job_bonus, 0.0)) " +
+            "FROM " + legacyRows + " GROUP BY 1, 2");
+        execute(connection,
+            "INSERT INTO trade_daily_item_stats (trade_date, item_type, trade_count, item_amount, sale_total, bonus_total) " +
+            "SELECT " + dateExpr + ", item_type, COUNT(*), SUM(item_amount), SUM(sale_price), SUM(COALESCE(job_bonus, 0.0)) " +
+            "FROM " + legacyRows + " GROUP BY 1, 2");
+
+        // 旧テーブルは空のまま残す（以降の書き込みはパーティションへ行う）
+        execute(connection, "DELETE FROM player_trade_history");
+    }
+
+    /**
+     * 取引のプレイヤー別・アイテム別の日次集計テーブルを作成する（存在する場合は何もしない）
+     */
+    public static void createTradeRollupTables(Connection connection) throws SQLException {
+        execute(connection,
+            "CREATE TABLE IF NOT EXISTS trade_daily_player_stats (" +
+            "    trade_date TEXT NOT NULL," +
+            "    uuid TEXT NOT NULL," +
+            "    trade_count INTEGER NOT NULL DEFAULT 0," +
+            "    item_amount INTEGER NOT NULL DEFAULT 0," +
+            "    sale_total REAL NOT NULL DEFAULT 0.0," +
+            "    bonus_total REAL NOT NULL DEFAULT 0.0," +
+            "    PRIMARY KEY (trade_date, uuid)" +
+            ")");
+        execute(connection, "CREATE INDEX IF NOT EXISTS idx_trade_daily_player_stats_uuid ON trade_daily_player_stats(uuid, trade_date)");
+        execute(connection,
+            "CREATE TABLE IF NOT EXISTS trade_daily_item_stats (" +
+            "    trade_date TEXT NOT NULL," +
+            "    item_type TEXT NOT NULL," +
+            "    trade_count INTEGER NOT NULL DEFAULT 0," +
+            "    item_amount INTEGER NOT NULL DEFAULT 0," +
+            "    sale_total REAL NOT NULL DEFAULT 0.0," +
+            "    bonus_total REAL NOT NULL DEFAULT 0.0," +
+            "    PRIMARY KEY (trade_date, item_type)" +
+            ")");
+    }
+
+    /**
+     * 取引履歴の月別パーティションを作成する（存在する場合は何もしない）
+     * パーティションは月単位でDROPするため外部キーを持たせない
+     * traded_at はエポックミリ秒で保持する
+     */
+    public static void createTradeHistoryPartition(Connection connection, String table) throws SQLException {
+        execute(connection,
+            "CREATE TABLE IF NOT EXISTS " + table + " (" +
+            "    id INTEGER PRIMARY KEY AUTOINCREMENT," +
+            "    uuid TEXT NOT NULL," +
+            "    trade_chest_id INTEGER NOT NULL," +
+            "    item_type TEXT NOT NULL," +
+            "    item_amount INTEGER NOT NULL," +
+            "    sale_price REAL NOT NULL," +
+            "    job_bonus REAL DEFAULT 0.0," +
+            "    player_job TEXT," +
+            "    player_job_level INTEGER DEFAULT 1," +
+            "    traded_at INTEGER NOT NULL" +
+            ")");
+        execute(connection, "CREATE INDEX IF NOT EXISTS idx_" + table + "_uuid_traded_at ON " + table + "(uuid, traded_at)");
+    }
+
+    static boolean hasTable(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    /**
+     * カラムが存在しない場合のみ追加する
+     * @return 追加した場合はtrue
+     */
+    static boolean addColumnIfMissing(Connection connection, String table, String column, String definition) throws SQLException {
+        if (hasColumn(connection, table, column)) {
+            return false;
+        }
+        execute(connection, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        return true;
+    }
+
+    static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (resultSet.next()) {
+                if (column.equalsIgnoreCase(resultSet.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+}
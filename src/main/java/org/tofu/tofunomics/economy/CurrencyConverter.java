@@ -3,6 +3,7 @@ package org.tofu.tofunomics.economy;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.dao.PlayerDAO;
 
+import java.sql.SQLException;
 import java.text.DecimalFormat;
 
 public class CurrencyConverter {
@@ -56,16 +57,14 @@ public class CurrencyConverter {
         
         double bankAmount = convertNuggetsToBalance(nuggetAmount);
         
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(player.getUniqueId().toString());
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(player.getUniqueId().toString());
-            tofuPlayer.setBalance(0.0); // 現金は0
-            tofuPlayer.setBankBalance(bankAmount); // 銀行預金に追加
-            return playerDAO.insertPlayer(tofuPlayer);
-        } else {
-            tofuPlayer.addBankBalance(bankAmount); // 銀行預金に追加
-            return playerDAO.updatePlayerData(tofuPlayer);
+        try {
+            // 銀行預金に追加（行がない場合は現金0・預け入れ額の預金で作成）
+            if (!playerDAO.adjustBankBalance(player.getUniqueId(), bankAmount)) {
+                playerDAO.createPlayer(new org.tofu.tofunomics.models.Player(player.getUniqueId(), 0.0, bankAmount));
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
         }
     }
     
@@ -99,17 +98,20 @@ public class CurrencyConverter {
             return WithdrawResult.INSUFFICIENT_INVENTORY_SPACE;
         }
         
-        tofuPlayer.removeBankBalance(exactAmount); // 銀行預金から引き出し
-        if (!playerDAO.updatePlayerData(tofuPlayer)) {
+        try {
+            // 銀行預金から引き出し（確認後に減っていた場合は残高不足）
+            if (!playerDAO.adjustBankBalance(player.getUniqueId(), -exactAmount)) {
+                return WithdrawResult.INSUFFICIENT_BALANCE;
+            }
+            
+            if (!itemManager.addGoldNuggetsToInventory(player, nuggetAmount)) {
+                playerDAO.adjustBankBalance(player.getUniqueId(), exactAmount); // ロールバック
+                return WithdrawResult.INSUFFICIENT_INVENTORY_SPACE;
+            }
+        } catch (SQLException e) {
             return WithdrawResult.DATABASE_ERROR;
         }
         
-        if (!itemManager.addGoldNuggetsToInventory(player, nuggetAmount)) {
-            tofuPlayer.addBankBalance(exactAmount); // ロールバック
-            playerDAO.updatePlayerData(tofuPlayer);
-            return WithdrawResult.INSUFFICIENT_INVENTORY_SPACE;
-        }
-        
         return WithdrawResult.SUCCESS;
     }
     
@@ -182,14 +184,22 @@ public class CurrencyConverter {
     }
     
     public boolean transfer(Player fromPlayer, Player toPlayer, double amount) {
-        if (amount <= 0) {
+        return transfer(fromPlayer, toPlayer, amount, 0.0);
+    }
+    
+    /**
+     * 送金額を受取人へ送金し、手数料を送金者から差し引く（残高確認から手数料の徴収まで1回の操作で行う）
+     */
+    public boolean transfer(Player fromPlayer, Player toPlayer, double amount, double fee) {
+        if (amount <= 0 || fee < 0) {
             return false;
         }
         
-        String fromUuid = fromPlayer.getUniqueId().toString();
-        String toUuid = toPlayer.getUniqueId().toString();
-        
-        return playerDAO.transferBalance(fromUuid, toUuid, amount);
+        try {
+            return playerDAO.transferBalance(fromPlayer.getUniqueId(), toPlayer.getUniqueId(), amount, fee);
+        } catch (SQLException e) {
+            return false;
+        }
     }
     
     public boolean hasEnoughGoldNuggets(Player player, int requiredAmount) {
@@ -215,14 +225,11 @@ public class CurrencyConverter {
             return false;
         }
         
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid.toString());
-        if (tofuPlayer == null) {
+        try {
+            return playerDAO.adjustBankBalance(uuid, amount);
+        } catch (SQLException e) {
             return false;
         }
-        
-        double newBalance = tofuPlayer.getBankBalance() + amount;
-        tofuPlayer.setBankBalance(newBalance);
-        return playerDAO.updatePlayerData(tofuPlayer);
     }
     
     public boolean subtractBalance(java.util.UUID uuid, double amount) {
@@ -230,14 +237,11 @@ public class CurrencyConverter {
             return false;
         }
         
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid.toString());
-        if (tofuPlayer == null || tofuPlayer.getBankBalance() < amount) {
+        try {
+            return playerDAO.adjustBankBalance(uuid, -amount);
+        } catch (SQLException e) {
             return false;
         }
-        
-        double newBalance = tofuPlayer.getBankBalance() - amount;
-        tofuPlayer.setBankBalance(newBalance);
-        return playerDAO.updatePlayerData(tofuPlayer);
     }
     
     // 所持金での支払い処理（金塊をインベントリから削除）
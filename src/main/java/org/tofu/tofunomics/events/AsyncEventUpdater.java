@@ -6,6 +6,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.dao.PlayerJobDAO;
+import org.tofu.tofunomics.jobs.JobManager;
 import org.tofu.tofunomics.models.PlayerJob;
 
 import java.sql.SQLException;
@@ -27,6 +28,7 @@ public class AsyncEventUpdater {
     private final JavaPlugin plugin;
     private final PlayerDAO playerDAO;
     private final PlayerJobDAO playerJobDAO;
+    private final JobManager jobManager;
     private final Logger logger;
     
     // 非同期処理用のExecutorService
@@ -48,10 +50,11 @@ public class AsyncEventUpdater {
     private static final long BATCH_INTERVAL = 100L; // 5秒（100 ticks）
     private static final int MAX_BATCH_SIZE = 50;
     
-    public AsyncEventUpdater(JavaPlugin plugin, PlayerDAO playerDAO, PlayerJobDAO playerJobDAO) {
+    public AsyncEventUpdater(JavaPlugin plugin, PlayerDAO playerDAO, PlayerJobDAO playerJobDAO, JobManager jobManager) {
         this.plugin = plugin;
         this.playerDAO = playerDAO;
         this.playerJobDAO = playerJobDAO;
+        this.jobManager = jobManager;
         this.logger = plugin.getLogger();
         
         this.executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
@@ -134,11 +137,8 @@ public class AsyncEventUpdater {
         UpdateTask task = new UpdateTask("Update balance for " + playerUUID) {
             @Override
             public void execute() throws SQLException {
-                org.tofu.tofunomics.models.Player player = playerDAO.getPlayerByUUID(playerUUID);
-                if (player != null) {
-                    player.addBankBalance(amount); // 銀行預金に加算
-                    playerDAO.updatePlayerData(player);
-                }
+                // 銀行預金に差分で加算（行がない場合は何もしない）
+                playerDAO.adjustBankBalance(java.util.UUID.fromString(playerUUID), amount);
             }
         };
         
@@ -152,8 +152,8 @@ public class AsyncEventUpdater {
         UpdateTask task = new UpdateTask("Update job experience for " + playerUUID) {
             @Override
             public void execute() throws SQLException {
-                // JobTypeから職業IDに変換（簡易実装）
-                int jobId = convertJobTypeToId(jobType);
+                // 職業名から職業IDに変換
+                int jobId = jobManager.getJobRegistry().getJobId(jobType.toLowerCase());
                 if (jobId == -1) {
                     logger.warning("不明な職業タイプ: " + jobType);
                     return;
@@ -201,11 +201,8 @@ public class AsyncEventUpdater {
             @Override
             public void execute() throws SQLException {
                 for (java.util.Map.Entry<String, Double> entry : balanceUpdates.entrySet()) {
-                    org.tofu.tofunomics.models.Player player = playerDAO.getPlayerByUUID(entry.getKey());
-                    if (player != null) {
-                        player.addBankBalance(entry.getValue()); // 銀行預金に加算
-                        playerDAO.updatePlayerData(player);
-                    }
+                    // 銀行預金に差分で加算（行がない場合は何もしない）
+                    playerDAO.adjustBankBalance(java.util.UUID.fromString(entry.getKey()), entry.getValue());
                 }
             }
         };
@@ -235,24 +232,6 @@ public class AsyncEventUpdater {
         return level * level * 100;
     }
     
-    /**
-     * 職業タイプから職業IDに変換
-     * 実際の実装では、JobManagerまたは設定ファイルから取得すべき
-     */
-    private int convertJobTypeToId(String jobType) {
-        switch (jobType.toLowerCase()) {
-            case "farmer": return 1;
-            case "miner": return 2;
-            case "builder": return 3;
-            case "hunter": return 4;
-            case "fisher": return 5;
-            case "trader": return 6;
-            case "brewer": return 7;
-            case "enchanter": return 8;
-            default: return -1; // 不明な職業タイプ
-        }
-    }
-    
     /**
      * シャットダウン処理
      */
@@ -7,6 +7,7 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.CraftItemEvent;
 import org.tofu.tofunomics.TofuNomics;
+import org.tofu.tofunomics.trace.Tracer;
 
 /**
  * 専用のクラフト制限イベントハンドラー
@@ -22,28 +23,20 @@ public class CraftRestrictionEventHandler implements Listener {
     
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onCraftItem(CraftItemEvent event) {
-        plugin.getLogger().info("=== CraftRestrictionEventHandler 開始 ===");
-        
         if (!(event.getWhoClicked() instanceof Player)) {
-            plugin.getLogger().info("プレイヤー以外のクリック - 処理スキップ");
             return;
         }
         
         Player player = (Player) event.getWhoClicked();
         Material craftedItem = event.getRecipe().getResult().getType();
         
-        plugin.getLogger().info("プレイヤー: " + player.getName());
-        plugin.getLogger().info("クラフト対象: " + craftedItem.name());
-        
         // JobCraftPermissionManagerの取得
         if (plugin.getJobCraftPermissionManager() == null) {
             plugin.getLogger().warning("JobCraftPermissionManager が null - 制限をスキップ");
             return;
         }
         
-        plugin.getLogger().info("JobCraftPermissionManager 確認完了");
-        
-        // クラフト制限チェック
+        // クラフト制限チェック（判定結果は permissions カテゴリのトレースに記録される）
         if (!plugin.getJobCraftPermissionManager().canPlayerCraftItem(player, craftedItem)) {
             // クラフトを禁止
             event.setCancelled(true);
@@ -52,10 +45,10 @@ public class CraftRestrictionEventHandler implements Listener {
             String message = plugin.getJobCraftPermissionManager().getCraftDeniedMessage(player, craftedItem);
             player.sendMessage(message);
             
-            plugin.getLogger().info("クラフト制限実行: " + player.getName() + " が " + craftedItem.name() + " のクラフトを禁止");
-            return;
+            Tracer tracer = plugin.getTracer();
+            if (tracer.isEnabled(Tracer.Category.CRAFT, player.getUniqueId())) {
+                tracer.trace(Tracer.Category.CRAFT, player.getName(), craftedItem.name() + " のクラフトを取り消しました（クラフト制限ハンドラー）");
+            }
         }
-        
-        plugin.getLogger().info("クラフト許可: " + player.getName() + " が " + craftedItem.name() + " のクラフトを許可");
     }
 }
\ No newline at end of file
@@ -1,44 +1,56 @@
 package org.tofu.tofunomics.events;
 
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.tofu.tofunomics.performance.StatsRegistry;
 
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * イベントキャッシュシステム
  * 重複イベント処理を防ぎ、パフォーマンスを最適化
+ * プレイヤーごとにイベントタイプの序数で引く最終処理時刻の配列を持ち、参加時に作成・退出時に破棄する。
+ * 判定と記録は配列の読み書きだけで割り当てがなく、定期的な掃除も不要
  */
 public class EventCache {
     
-    private final JavaPlugin plugin;
+    /**
+     * クールダウンを管理するイベントタイプ（序数が時刻配列の添字になる）
+     */
+    public enum EventType {
+        BLOCK_BREAK,
+        BLOCK_PLACE,
+        CRAFT_ITEM,
+        ENCHANT_ITEM,
+        ENTITY_DEATH,
+        ENTITY_BREED,
+        PLAYER_FISH
+    }
     
-    // プレイヤーごとの最終イベント処理時刻を記録
-    private final Map<String, Map<String, Long>> playerEventTimestamps;
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    
+    // プレイヤーごとの最終イベント処理時刻（添字はEventTypeの序数、0は未処理）
+    private final Map<UUID, long[]> playerEventTimestamps;
     
     // 統計情報
     private final AtomicLong totalProcessedEvents;
     private final AtomicLong cacheHits;
     private final AtomicLong cacheMisses;
     
-    // キャッシュクリーンアップタスク
-    private BukkitRunnable cleanupTask;
-    
-    // キャッシュ有効期限（ミリ秒）
-    private static final long CACHE_CLEANUP_INTERVAL = 60000; // 1分
-    private static final long CACHE_EXPIRY_TIME = 300000; // 5分
-    
-    public EventCache(JavaPlugin plugin) {
-        this.plugin = plugin;
+    public EventCache() {
         this.playerEventTimestamps = new ConcurrentHashMap<>();
         this.totalProcessedEvents = new AtomicLong(0);
         this.cacheHits = new AtomicLong(0);
         this.cacheMisses = new AtomicLong(0);
-        
-        startCleanupTask();
+    }
+    
+    /**
+     * プレイヤーの時刻配列を用意する（参加時）
+     */
+    public void registerPlayer(Player player) {
+        playerEventTimestamps.computeIfAbsent(player.getUniqueId(), uuid -> new long[EVENT_TYPES.length]);
     }
     
     /**
@@ -48,23 +60,15 @@ public class EventCache {
      * @param cooldownMs クールダウン時間（ミリ秒）
      * @return 最近処理された場合true
      */
-    public boolean isRecentlyProcessed(Player player, String eventType, long cooldownMs) {
-        String playerUUID = player.getUniqueId().toString();
-        Map<String, Long> eventTimes = playerEventTimestamps.get(playerUUID);
-        
+    public boolean isRecentlyProcessed(Player player, EventType eventType, long cooldownMs) {
+        long[] eventTimes = playerEventTimestamps.get(player.getUniqueId());
         if (eventTimes == null) {
             cacheMisses.incrementAndGet();
             return false;
         }
         
-        Long lastProcessedTime = eventTimes.get(eventType);
-        if (lastProcessedTime == null) {
-            cacheMisses.incrementAndGet();
-            return false;
-        }
-        
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastProcessedTime < cooldownMs) {
+        long lastProcessedTime = eventTimes[eventType.ordinal()];
+        if (lastProcessedTime != 0L && System.currentTimeMillis() - lastProcessedTime < cooldownMs) {
             cacheHits.incrementAndGet();
             return true;
         }
@@ -78,32 +82,32 @@ public class EventCache {
      * @param player プレイヤー
      * @param eventType イベントタイプ
      */
-    public void markAsProcessed(Player player, String eventType) {
-        String playerUUID = player.getUniqueId().toString();
-        long currentTime = System.currentTimeMillis();
-        
-        playerEventTimestamps.computeIfAbsent(playerUUID, k -> new ConcurrentHashMap<>())
-                            .put(eventType, currentTime);
+    public void markAsProcessed(Player player, EventType eventType) {
+        long[] eventTimes = playerEventTimestamps.get(player.getUniqueId());
+        if (eventTimes == null) {
+            // 参加イベントより前に発生した場合（リロード直後など）
+            eventTimes = playerEventTimestamps.computeIfAbsent(player.getUniqueId(), uuid -> new long[EVENT_TYPES.length]);
+        }
+        eventTimes[eventType.ordinal()] = System.currentTimeMillis();
         
         totalProcessedEvents.incrementAndGet();
     }
     
     /**
-     * 特定のプレイヤーのキャッシュをクリア
+     * 特定のプレイヤーのキャッシュを破棄（退出時）
      * @param player プレイヤー
      */
     public void clearPlayerCache(Player player) {
-        String playerUUID = player.getUniqueId().toString();
-        playerEventTimestamps.remove(playerUUID);
+        playerEventTimestamps.remove(player.getUniqueId());
     }
     
     /**
      * 特定のイベントタイプのキャッシュをクリア
      * @param eventType イベントタイプ
      */
-    public void clearEventTypeCache(String eventType) {
-        for (Map<String, Long> eventTimes : playerEventTimestamps.values()) {
-            eventTimes.remove(eventType);
+    public void clearEventTypeCache(EventType eventType) {
+        for (long[] eventTimes : playerEventTimestamps.values()) {
+            eventTimes[eventType.ordinal()] = 0L;
         }
     }
     
@@ -114,63 +118,10 @@ public class EventCache {
         playerEventTimestamps.clear();
     }
     
-    /**
-     * キャッシュクリーンアップタスクを開始
-     */
-    private void startCleanupTask() {
-        cleanupTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                cleanupExpiredCache();
-            }
-        };
-        
-        // 1分ごとにクリーンアップを実行
-        cleanupTask.runTaskTimerAsynchronously(plugin, 
-            CACHE_CLEANUP_INTERVAL / 50, // 初回実行までの遅延（tick）
-            CACHE_CLEANUP_INTERVAL / 50  // 実行間隔（tick）
-        );
-    }
-    
-    /**
-     * 期限切れのキャッシュエントリを削除
-     */
-    private void cleanupExpiredCache() {
-        long currentTime = System.currentTimeMillis();
-        int removedEntries = 0;
-        
-        // 各プレイヤーのキャッシュをチェック
-        for (Map.Entry<String, Map<String, Long>> playerEntry : playerEventTimestamps.entrySet()) {
-            Map<String, Long> eventTimes = playerEntry.getValue();
-            
-            // 期限切れのイベントエントリを削除
-            eventTimes.entrySet().removeIf(entry -> {
-                boolean expired = currentTime - entry.getValue() > CACHE_EXPIRY_TIME;
-                if (expired) {
-                    return true;
-                }
-                return false;
-            });
-            
-            // イベントエントリが空になったプレイヤーエントリを削除
-            if (eventTimes.isEmpty()) {
-                playerEventTimestamps.remove(playerEntry.getKey());
-                removedEntries++;
-            }
-        }
-        
-        if (removedEntries > 0) {
-            plugin.getLogger().fine("EventCache cleanup: removed " + removedEntries + " expired entries");
-        }
-    }
-    
     /**
      * クリーンアップ処理
      */
     public void cleanup() {
-        if (cleanupTask != null) {
-            cleanupTask.cancel();
-        }
         clearAllCache();
     }
     
@@ -213,12 +164,16 @@ public class EventCache {
     }
     
     /**
-     * 現在のキャッシュエントリ数を取得
+     * 現在のキャッシュエントリ数（記録済みのイベント時刻の数）を取得
      */
     public int getCacheSize() {
         int totalEntries = 0;
-        for (Map<String, Long> eventTimes : playerEventTimestamps.values()) {
-            totalEntries += eventTimes.size();
+        for (long[] eventTimes : playerEventTimestamps.values()) {
+            for (long eventTime : eventTimes) {
+                if (eventTime != 0L) {
+                    totalEntries++;
+                }
+            }
         }
         return totalEntries;
     }
@@ -230,6 +185,19 @@ public class EventCache {
         return playerEventTimestamps.size();
     }
     
+    /**
+     * プレイヤーごとの時刻配列を統計の登録簿へ登録する
+     */
+    public void registerStats(StatsRegistry registry) {
+        // 1人あたり: マップのエントリ・UUID・long配列（ヘッダ16バイト＋要素）
+        long bytesPerPlayer = StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.UUID_BYTES + 16L + 8L * EVENT_TYPES.length;
+        registry.register("events.cooldowns", () -> {
+            int players = getActivePlayerCount();
+            return StatsRegistry.Stats.cache(players, getCacheHits(), getCacheMisses(), StatsRegistry.UNKNOWN,
+                players * bytesPerPlayer);
+        });
+    }
+    
     /**
      * キャッシュ統計を文字列で取得
      */
@@ -246,4 +214,4 @@ public class EventCache {
             getActivePlayerCount()
         );
     }
-}
\ No newline at end of file
+}
@@ -13,6 +13,7 @@ import org.bukkit.event.player.PlayerEvent;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.jobs.JobManager;
 import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.trace.Tracer;
 
 import java.util.HashSet;
 import java.util.List;
@@ -26,6 +27,7 @@ public class EventProcessor {
     
     private final ConfigManager configManager;
     private final JobManager jobManager;
+    private final Tracer tracer;
     
     // 除外ワールドのキャッシュ
     private final Set<String> excludedWorlds;
@@ -33,9 +35,10 @@ public class EventProcessor {
     // 除外ゲームモード
     private final Set<GameMode> excludedGameModes;
     
-    public EventProcessor(ConfigManager configManager, JobManager jobManager) {
+    public EventProcessor(ConfigManager configManager, JobManager jobManager, Tracer tracer) {
         this.configManager = configManager;
         this.jobManager = jobManager;
+        this.tracer = tracer;
         this.excludedWorlds = new HashSet<>();
         this.excludedGameModes = new HashSet<>();
         
@@ -82,32 +85,42 @@ public class EventProcessor {
         
         // プレイヤーの基本チェック
         if (!isValidPlayer(player)) {
-            return false;
+            return reject(player, event, "無効なプレイヤー");
         }
         
         // ワールドチェック
         if (!isValidWorld(player.getWorld())) {
-            return false;
+            return reject(player, event, "除外ワールド");
         }
         
         // ゲームモードチェック
         if (!isValidGameMode(player.getGameMode())) {
-            return false;
+            return reject(player, event, "除外ゲームモード");
         }
         
         // 権限チェック
         if (!hasRequiredPermission(player, event)) {
-            return false;
+            return reject(player, event, "権限なし");
         }
         
         // 職業チェック
         if (!hasValidJob(player, event)) {
-            return false;
+            return reject(player, event, "有効な職業なし");
         }
         
         return true;
     }
     
+    /**
+     * 処理しない理由をトレースに記録する
+     */
+    private boolean reject(Player player, Event event, String reason) {
+        if (tracer.isEnabled(Tracer.Category.EVENTS, player.getUniqueId())) {
+            tracer.trace(Tracer.Category.EVENTS, player.getName(), event.getEventName() + " を処理しません: " + reason);
+        }
+        return false;
+    }
+    
     /**
      * イベントからプレイヤーを抽出
      */
@@ -248,35 +261,30 @@ public class EventProcessor {
      * 有効な職業を持っているかチェック
      */
     private boolean hasValidJob(Player player, Event event) {
-        System.out.println("=== hasValidJob デバッグ開始 ===");
-        System.out.println("プレイヤー: " + player.getName());
-        System.out.println("イベント: " + event.getClass().getSimpleName());
-        
         // 特定のイベントは職業なしでも処理可能
         if (isJobOptionalEvent(event)) {
-            System.out.println("職業不要イベントのため許可");
             return true;
         }
         
         // プレイヤーが少なくとも1つの職業を持っているかチェック
         List<PlayerJob> jobs = jobManager.getPlayerJobs(player);
-        System.out.println("取得した職業リスト: " + (jobs != null ? jobs.size() + "個" : "null"));
-        
         if (jobs == null || jobs.isEmpty()) {
-            System.out.println("判定結果: 職業なしのため拒否");
             return false;
         }
         
         // アクティブな職業があるかチェック
         for (PlayerJob job : jobs) {
-            System.out.println("職業チェック: JobID=" + job.getJobId() + ", レベル=" + job.getLevel() + ", アクティブ: " + job.isActive());
             if (job.isActive()) {
-                System.out.println("判定結果: アクティブな職業があるため許可");
                 return true;
             }
         }
         
-        System.out.println("判定結果: アクティブな職業がないため拒否");
+        if (tracer.isEnabled(Tracer.Category.JOBS, player.getUniqueId())) {
+            for (PlayerJob job : jobs) {
+                tracer.trace(Tracer.Category.JOBS, player.getName(),
+                    "職業ID " + job.getJobId() + " (レベル " + job.getLevel() + ") は有効ではありません");
+            }
+        }
         return false;
     }
     
@@ -1,6 +1,7 @@
 package org.tofu.tofunomics.events;
 
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventHandler;
@@ -15,6 +16,8 @@ import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.inventory.BrewEvent;
 import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.player.PlayerFishEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
@@ -22,7 +25,12 @@ import org.tofu.tofunomics.dao.PlayerJobDAO;
 import java.util.List;
 import org.tofu.tofunomics.models.PlayerJob;
 import org.tofu.tofunomics.TofuNomics;
+import org.tofu.tofunomics.blocks.PlacedBlockTracker;
 import org.tofu.tofunomics.jobs.JobManager;
+import org.tofu.tofunomics.performance.StatsRegistry;
+import org.tofu.tofunomics.rewards.RewardRuleEngine;
+import org.tofu.tofunomics.rewards.RewardRules;
+import org.tofu.tofunomics.trace.Tracer;
 
 import java.util.logging.Logger;
 
@@ -59,12 +67,24 @@ public class UnifiedEventHandler implements Listener {
     // 職業ブロック制限システム
     private final org.tofu.tofunomics.jobs.JobBlockPermissionManager blockPermissionManager;
     
+    // 職業活動の報酬表
+    private final RewardRuleEngine rewardRuleEngine;
+    
+    // 動作トレース
+    private final Tracer tracer;
+    
+    // 設置ブロックの記録（無効の場合はnull）
+    private final PlacedBlockTracker placedBlockTracker;
+    
     public UnifiedEventHandler(JavaPlugin plugin, ConfigManager configManager,
                               PlayerDAO playerDAO, PlayerJobDAO playerJobDAO,
                               JobManager jobManager,
                               org.tofu.tofunomics.experience.JobExperienceManager experienceManager,
                               org.tofu.tofunomics.quests.JobQuestManager questManager,
-                              org.tofu.tofunomics.jobs.JobBlockPermissionManager blockPermissionManager) {
+                              org.tofu.tofunomics.jobs.JobBlockPermissionManager blockPermissionManager,
+                              RewardRuleEngine rewardRuleEngine,
+                              Tracer tracer,
+                              PlacedBlockTracker placedBlockTracker) {
         this.plugin = plugin;
         this.configManager = configManager;
         this.playerDAO = playerDAO;
@@ -75,11 +95,17 @@ public class UnifiedEventHandler implements Listener {
         // 収入システムは無効化: incomeManager は削除されました
         this.questManager = questManager;
         this.blockPermissionManager = blockPermissionManager;
+        this.rewardRuleEngine = rewardRuleEngine;
+        this.tracer = tracer;
+        this.placedBlockTracker = placedBlockTracker;
         
         // サブシステムの初期化
-        this.eventCache = new EventCache(plugin);
-        this.eventProcessor = new EventProcessor(configManager, jobManager);
-        this.asyncUpdater = new AsyncEventUpdater(plugin, playerDAO, playerJobDAO);
+        this.eventCache = new EventCache();
+        for (Player onlinePlayer : plugin.getServer().getOnlinePlayers()) {
+            eventCache.registerPlayer(onlinePlayer);
+        }
+        this.eventProcessor = new EventProcessor(configManager, jobManager, tracer);
+        this.asyncUpdater = new AsyncEventUpdater(plugin, playerDAO, playerJobDAO, jobManager);
         
         // 個別ハンドラの初期化
         this.brewingHandler = new org.tofu.tofunomics.events.handlers.BrewingEventHandler(
@@ -92,48 +118,69 @@ public class UnifiedEventHandler implements Listener {
             configManager, playerDAO, jobManager, asyncUpdater
         );
         this.growthHandler = new org.tofu.tofunomics.events.handlers.GrowthEventHandler(
-            configManager, playerDAO, jobManager, asyncUpdater
+            configManager, playerDAO, jobManager, asyncUpdater, rewardRuleEngine
         );
         this.buildingHandler = new org.tofu.tofunomics.events.handlers.BuildingEventHandler(
-            configManager, playerDAO, jobManager, asyncUpdater
+            configManager, playerDAO, jobManager, asyncUpdater, rewardRuleEngine
         );
     }
     
+    // ========== 参加・退出 ==========
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        eventCache.registerPlayer(event.getPlayer());
+    }
+    
+    /**
+     * 集計中の職業経験値を反映する（プレイヤー状態の書き出しより前に行うため、MONITORより前の優先度で処理）
+     */
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPlayerQuitFlushExperience(PlayerQuitEvent event) {
+        experienceManager.onPlayerQuit(event);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        eventCache.clearPlayerCache(event.getPlayer());
+        jobManager.getCapabilities().invalidate(event.getPlayer().getUniqueId());
+    }
+    
     // ========== ブロック関連イベント ==========
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        System.out.println("=== UnifiedEventHandler.onBlockBreak デバッグ開始 ===");
-        System.out.println("イベント: " + event.getClass().getSimpleName());
-        
         // 基本的なイベント処理チェック
         if (!shouldProcessEvent(event)) {
-            System.out.println("shouldProcessEventでfalse、処理をスキップ");
             return;
         }
         
         Player player = event.getPlayer();
         Material blockType = event.getBlock().getType();
         
-        System.out.println("プレイヤー: " + player.getName());
-        System.out.println("ブロック: " + blockType.name());
-        
-        
-        
         // 職業ブロック制限チェック（優先度HIGHで早期チェック）
         if (!blockPermissionManager.canPlayerBreakBlock(player, blockType)) {
-            System.out.println("blockPermissionManagerで拒否されました");
             event.setCancelled(true);
             String message = blockPermissionManager.getDeniedMessage(player, blockType);
             player.sendMessage(message);
             return;
         }
         
-        System.out.println("ブロック破壊許可 - 通常処理を継続");
+        // プレイヤーが設置したブロックは報酬・クエスト進行の対象外
+        Block block = event.getBlock();
+        if (placedBlockTracker != null
+                && placedBlockTracker.isPlaced(block.getWorld().getName(), block.getX(), block.getY(), block.getZ())) {
+            if (tracer.isEnabled(Tracer.Category.EVENTS, player.getUniqueId())) {
+                tracer.trace(Tracer.Category.EVENTS, player.getName(), blockType.name() + " は設置されたブロックのため報酬なし");
+            }
+            return;
+        }
         
         // キャッシュチェック
-        if (eventCache.isRecentlyProcessed(player, "block_break", 50)) {
-            System.out.println("重複イベントのためスキップ");
+        if (eventCache.isRecentlyProcessed(player, EventCache.EventType.BLOCK_BREAK, 50)) {
+            if (tracer.isEnabled(Tracer.Category.EVENTS, player.getUniqueId())) {
+                tracer.trace(Tracer.Category.EVENTS, player.getName(), blockType.name() + " の破壊: 50ms以内の重複のためスキップ");
+            }
             return; // 50ms以内の重複イベントは無視
         }
         
@@ -142,9 +189,11 @@ public class UnifiedEventHandler implements Listener {
         questManager.onBlockBreak(event);
         
         // キャッシュに記録
-        eventCache.markAsProcessed(player, "block_break");
+        eventCache.markAsProcessed(player, EventCache.EventType.BLOCK_BREAK);
         
-        System.out.println("=== ブロック破壊イベント処理完了 ===");
+        if (tracer.isEnabled(Tracer.Category.EVENTS, player.getUniqueId())) {
+            tracer.trace(Tracer.Category.EVENTS, player.getName(), blockType.name() + " の破壊を処理しました");
+        }
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -154,7 +203,7 @@ public class UnifiedEventHandler implements Listener {
         Player player = event.getPlayer();
         
         // キャッシュチェック
-        if (eventCache.isRecentlyProcessed(player, "block_place", 50)) {
+        if (eventCache.isRecentlyProcessed(player, EventCache.EventType.BLOCK_PLACE, 50)) {
             return;
         }
         
@@ -162,7 +211,7 @@ public class UnifiedEventHandler implements Listener {
         buildingHandler.handleBlockPlace(event);
         
         // キャッシュに記録
-        eventCache.markAsProcessed(player, "block_place");
+        eventCache.markAsProcessed(player, EventCache.EventType.BLOCK_PLACE);
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -177,7 +226,6 @@ public class UnifiedEventHandler implements Listener {
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onCraftItem(CraftItemEvent event) {
-        plugin.getLogger().info("=== onCraftItem メソッド開始 ===");
         if (!shouldProcessEvent(event)) return;
         if (!(event.getWhoClicked() instanceof Player)) return;
         
@@ -186,12 +234,7 @@ public class UnifiedEventHandler implements Listener {
         
         // クラフト制限チェック（優先度HIGH で先にチェック）
         TofuNomics tofuPlugin = (TofuNomics) plugin;
-        plugin.getLogger().info("=== CraftItemEvent処理開始 ===");
-        plugin.getLogger().info("プレイヤー: " + player.getName() + ", アイテム: " + craftedItem.name());
-        
         if (tofuPlugin.getJobCraftPermissionManager() != null) {
-            plugin.getLogger().info("JobCraftPermissionManager: 初期化済み");
-            
             if (!tofuPlugin.getJobCraftPermissionManager().canPlayerCraftItem(player, craftedItem)) {
                 // クラフトを禁止
                 event.setCancelled(true);
@@ -200,17 +243,17 @@ public class UnifiedEventHandler implements Listener {
                 String message = tofuPlugin.getJobCraftPermissionManager().getCraftDeniedMessage(player, craftedItem);
                 player.sendMessage(message);
                 
-                plugin.getLogger().info("クラフト制限: " + player.getName() + " が " + craftedItem.name() + " のクラフトを禁止されました");
+                if (tracer.isEnabled(Tracer.Category.CRAFT, player.getUniqueId())) {
+                    tracer.trace(Tracer.Category.CRAFT, player.getName(), craftedItem.name() + " のクラフトを取り消しました");
+                }
                 return;
-            } else {
-                plugin.getLogger().info("クラフト許可: " + player.getName() + " が " + craftedItem.name() + " のクラフトを許可");
             }
         } else {
             plugin.getLogger().warning("JobCraftPermissionManager: 未初期化のため制限チェックをスキップ");
         }
         
         // キャッシュチェック
-        if (eventCache.isRecentlyProcessed(player, "craft_item", 100)) {
+        if (eventCache.isRecentlyProcessed(player, EventCache.EventType.CRAFT_ITEM, 100)) {
             return;
         }
         
@@ -219,7 +262,7 @@ public class UnifiedEventHandler implements Listener {
         questManager.onCraftItem(event);
         
         // キャッシュに記録
-        eventCache.markAsProcessed(player, "craft_item");
+        eventCache.markAsProcessed(player, EventCache.EventType.CRAFT_ITEM);
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -237,7 +280,7 @@ public class UnifiedEventHandler implements Listener {
         Player player = event.getEnchanter();
         
         // キャッシュチェック
-        if (eventCache.isRecentlyProcessed(player, "enchant_item", 500)) {
+        if (eventCache.isRecentlyProcessed(player, EventCache.EventType.ENCHANT_ITEM, 500)) {
             return;
         }
         
@@ -248,7 +291,7 @@ public class UnifiedEventHandler implements Listener {
         enchantmentHandler.handleEnchantment(event);
         
         // キャッシュに記録
-        eventCache.markAsProcessed(player, "enchant_item");
+        eventCache.markAsProcessed(player, EventCache.EventType.ENCHANT_ITEM);
     }
     
     // ========== エンティティ関連イベント ==========
@@ -261,7 +304,7 @@ public class UnifiedEventHandler implements Listener {
         Player player = event.getEntity().getKiller();
         
         // キャッシュチェック
-        if (eventCache.isRecentlyProcessed(player, "entity_death", 100)) {
+        if (eventCache.isRecentlyProcessed(player, EventCache.EventType.ENTITY_DEATH, 100)) {
             return;
         }
         
@@ -269,7 +312,7 @@ public class UnifiedEventHandler implements Listener {
         // handleEntityDeathRewards(event, player);
         
         // キャッシュに記録
-        eventCache.markAsProcessed(player, "entity_death");
+        eventCache.markAsProcessed(player, EventCache.EventType.ENTITY_DEATH);
     }
     
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -280,7 +323,7 @@ public class UnifiedEventHandler implements Listener {
         Player player = (Player) event.getBreeder();
         
         // キャッシュチェック
-        if (eventCache.isRecentlyProcessed(player, "entity_breed", 1000)) {
+        if (eventCache.isRecentlyProcessed(player, EventCache.EventType.ENTITY_BREED, 1000)) {
             return;
         }
         
@@ -288,7 +331,7 @@ public class UnifiedEventHandler implements Listener {
         breedingHandler.handleBreeding(event);
         
         // キャッシュに記録
-        eventCache.markAsProcessed(player, "entity_breed");
+        eventCache.markAsProcessed(player, EventCache.EventType.ENTITY_BREED);
     }
     
     // ========== プレイヤーアクション関連イベント ==========
@@ -301,7 +344,7 @@ public class UnifiedEventHandler implements Listener {
         Player player = event.getPlayer();
         
         // キャッシュチェック
-        if (eventCache.isRecentlyProcessed(player, "player_fish", 500)) {
+        if (eventCache.isRecentlyProcessed(player, EventCache.EventType.PLAYER_FISH, 500)) {
             return;
         }
         
@@ -310,7 +353,7 @@ public class UnifiedEventHandler implements Listener {
         questManager.onPlayerFish(event);
         
         // キャッシュに記録
-        eventCache.markAsProcessed(player, "player_fish");
+        eventCache.markAsProcessed(player, EventCache.EventType.PLAYER_FISH);
     }
     
     // ========== ユーティリティメソッド ==========
@@ -319,27 +362,13 @@ public class UnifiedEventHandler implements Listener {
      * イベント処理を行うべきかチェック
      */
     private boolean shouldProcessEvent(Event event) {
-        plugin.getLogger().info("=== shouldProcessEvent 診断開始 ===");
-        plugin.getLogger().info("イベントタイプ: " + event.getClass().getSimpleName());
-        
         // 設定でイベントシステムが無効化されている場合
-        boolean isEventSystemEnabled = configManager.isEventSystemEnabled();
-        plugin.getLogger().info("イベントシステム有効: " + isEventSystemEnabled);
-        if (!isEventSystemEnabled) {
-            plugin.getLogger().info("判定結果: イベントシステムが無効のため処理スキップ");
+        if (!configManager.isEventSystemEnabled()) {
             return false;
         }
         
-        // イベント処理プロセッサでの判定
-        boolean shouldProcessByProcessor = eventProcessor.shouldProcessEvent(event);
-        plugin.getLogger().info("イベントプロセッサ判定: " + shouldProcessByProcessor);
-        if (!shouldProcessByProcessor) {
-            plugin.getLogger().info("判定結果: イベントプロセッサが処理を拒否");
-            return false;
-        }
-        
-        plugin.getLogger().info("判定結果: イベント処理を実行");
-        return true;
+        // イベント処理プロセッサでの判定（処理しない理由はトレースに記録される）
+        return eventProcessor.shouldProcessEvent(event);
     }
     
     /**
@@ -351,6 +380,16 @@ public class UnifiedEventHandler implements Listener {
         logger.info("UnifiedEventHandler cleaned up successfully");
     }
     
+    /**
+     * イベントのクールダウン・作物の所有者・非同期更新の待ち件数を統計の登録簿へ登録する
+     */
+    public void registerStats(StatsRegistry registry) {
+        eventCache.registerStats(registry);
+        growthHandler.registerStats(registry);
+        registry.register("events.async_updates", () ->
+            StatsRegistry.Stats.queue(asyncUpdater.getPendingUpdates(), StatsRegistry.UNKNOWN, StatsRegistry.UNKNOWN));
+    }
+    
     /**
      * 統計情報の取得
      */
@@ -370,6 +409,12 @@ public class UnifiedEventHandler implements Listener {
             return;
         }
         
+        RewardRules rules = rewardRuleEngine.getRules();
+        int entityOrdinal = event.getEntity().getType().ordinal();
+        if (!rules.isRewarded(RewardRules.Activity.ENTITY_KILL, entityOrdinal)) {
+            return; // 報酬のないエンティティは職業を読まずに終了
+        }
+        
         // プレイヤーの職業を取得
         List<org.tofu.tofunomics.models.PlayerJob> playerJobs = jobManager.getPlayerJobs(player);
         if (playerJobs == null || playerJobs.isEmpty()) {
@@ -383,96 +428,18 @@ public class UnifiedEventHandler implements Listener {
             return; // 有効な職業が見つからない場合は処理しない
         }
         String jobName = job.getName();
-        int jobLevel = primaryJob.getLevel();
         
-        // エンティティタイプに応じた基本経験値と報酬を設定
-        double baseExperience = getBaseExperienceForEntity(event.getEntity());
-        double baseIncome = getBaseIncomeForEntity(event.getEntity());
+        // 職業倍率とレベル補正は報酬表で適用済み（収入システムは無効化のため経験値のみ付与）
+        double finalExperience = rules.getExperience(
+            RewardRules.Activity.ENTITY_KILL, primaryJob.getJobId(), entityOrdinal, primaryJob.getLevel());
         
-        if (baseExperience > 0 || baseIncome > 0) {
-            // レベル補正を適用
-            double levelMultiplier = 1.0 + (jobLevel * 0.01); // レベル1毎に1%増加
-            
-            double finalExperience = baseExperience * levelMultiplier;
-            double finalIncome = baseIncome * levelMultiplier;
-            
+        if (finalExperience > 0) {
             // 経験値付与（既存システムを利用）
-            if (finalExperience > 0) {
-                experienceManager.giveExperienceManual(player, jobName, finalExperience);
-            }
+            experienceManager.giveExperienceManual(player, jobName, finalExperience);
             
-            // 収入システムは無効化：収入付与は削除されました
             // プレイヤーに経験値獲得通知のみ（金塊は表示しない）
-            if (finalExperience > 0) {
-                player.sendMessage(String.format("§7[%s] §e+%.1f経験値",
-                    configManager.getJobDisplayName(jobName), finalExperience));
-            }
-        }
-    }
-    
-    /**
-     * エンティティタイプに応じた基本経験値を取得
-     */
-    private double getBaseExperienceForEntity(org.bukkit.entity.Entity entity) {
-        switch (entity.getType()) {
-            // 敵対的モブ
-            case ZOMBIE:
-            case SKELETON:
-            case SPIDER:
-            case CREEPER:
-                return 2.0;
-            case ENDERMAN:
-            case WITCH:
-                return 5.0;
-            case BLAZE:
-            case GHAST:
-                return 8.0;
-            // ボス系
-            case ENDER_DRAGON:
-                return 100.0;
-            case WITHER:
-                return 80.0;
-            // 動物（農家の畜産業）
-            case COW:
-            case PIG:
-            case CHICKEN:
-            case SHEEP:
-                return 1.0;
-            default:
-                return 0.0;
-        }
-    }
-    
-    /**
-     * エンティティタイプに応じた基本収入を取得
-     */
-    private double getBaseIncomeForEntity(org.bukkit.entity.Entity entity) {
-        switch (entity.getType()) {
-            // 敵対的モブ
-            case ZOMBIE:
-            case SKELETON:
-            case SPIDER:
-            case CREEPER:
-                return 1.5;
-            case ENDERMAN:
-            case WITCH:
-                return 3.0;
-            case BLAZE:
-            case GHAST:
-                return 5.0;
-            // ボス系
-            case ENDER_DRAGON:
-                return 500.0;
-            case WITHER:
-                return 300.0;
-            // 動物（農家の畜産業）
-            case COW:
-            case PIG:
-            case CHICKEN:
-            case SHEEP:
-                return 0.8;
-            default:
-                return 0.0;
+            player.sendMessage(String.format("§7[%s] §e+%.1f経験値",
+                configManager.getJobDisplayName(jobName), finalExperience));
         }
     }
     
@@ -12,6 +12,8 @@ import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.events.AsyncEventUpdater;
 import org.tofu.tofunomics.jobs.JobManager;
 import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.rewards.RewardRuleEngine;
+import org.tofu.tofunomics.rewards.RewardRules;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,8 +31,8 @@ public class BuildingEventHandler {
     private final JobManager jobManager;
     private final AsyncEventUpdater asyncUpdater;
     
-    // 建築材料による報酬
-    private final Map<Material, BuildingReward> buildingRewards;
+    // 建築材料による報酬（config.yml の reward_rules.building）
+    private final RewardRuleEngine rewardRuleEngine;
     
     // 建築家専用装飾ブロック
     private final Set<Material> decorativeBlocks;
@@ -39,68 +41,19 @@ public class BuildingEventHandler {
     private final Map<String, BuildingProject> activeProjects;
     
     public BuildingEventHandler(ConfigManager configManager, PlayerDAO playerDAO,
-                               JobManager jobManager, AsyncEventUpdater asyncUpdater) {
+                               JobManager jobManager, AsyncEventUpdater asyncUpdater,
+                               RewardRuleEngine rewardRuleEngine) {
         this.configManager = configManager;
         this.playerDAO = playerDAO;
         this.jobManager = jobManager;
         this.asyncUpdater = asyncUpdater;
-        this.buildingRewards = new HashMap<>();
+        this.rewardRuleEngine = rewardRuleEngine;
         this.decorativeBlocks = new HashSet<>();
         this.activeProjects = new HashMap<>();
         
-        initializeBuildingRewards();
         initializeDecorativeBlocks();
     }
     
-    /**
-     * 建築報酬テーブルの初期化
-     */
-    private void initializeBuildingRewards() {
-        // 基本建築材料
-        buildingRewards.put(Material.STONE, new BuildingReward(0.5, 1.0, "石"));
-        buildingRewards.put(Material.COBBLESTONE, new BuildingReward(0.3, 0.8, "丸石"));
-        buildingRewards.put(Material.STONE_BRICKS, new BuildingReward(1.0, 2.0, "石レンガ"));
-        
-        // 木材系
-        buildingRewards.put(Material.OAK_PLANKS, new BuildingReward(0.8, 1.5, "オークの板材"));
-        buildingRewards.put(Material.BIRCH_PLANKS, new BuildingReward(0.8, 1.5, "シラカバの板材"));
-        buildingRewards.put(Material.SPRUCE_PLANKS, new BuildingReward(0.8, 1.5, "トウヒの板材"));
-        buildingRewards.put(Material.JUNGLE_PLANKS, new BuildingReward(1.0, 2.0, "ジャングルの板材"));
-        buildingRewards.put(Material.ACACIA_PLANKS, new BuildingReward(1.0, 2.0, "アカシアの板材"));
-        buildingRewards.put(Material.DARK_OAK_PLANKS, new BuildingReward(1.0, 2.0, "ダークオークの板材"));
-        
-        // レンガ系
-        buildingRewards.put(Material.BRICKS, new BuildingReward(2.0, 4.0, "レンガ"));
-        buildingRewards.put(Material.NETHER_BRICKS, new BuildingReward(3.0, 6.0, "ネザーレンガ"));
-        buildingRewards.put(Material.RED_NETHER_BRICKS, new BuildingReward(3.5, 7.0, "赤いネザーレンガ"));
-        
-        // 高級建築材料
-        buildingRewards.put(Material.QUARTZ_BLOCK, new BuildingReward(5.0, 10.0, "クォーツブロック"));
-        buildingRewards.put(Material.CHISELED_QUARTZ_BLOCK, new BuildingReward(6.0, 12.0, "模様入りクォーツ"));
-        buildingRewards.put(Material.QUARTZ_PILLAR, new BuildingReward(6.0, 12.0, "クォーツの柱"));
-        
-        // 特殊ブロック
-        buildingRewards.put(Material.OBSIDIAN, new BuildingReward(10.0, 20.0, "黒曜石"));
-        buildingRewards.put(Material.END_STONE, new BuildingReward(8.0, 15.0, "エンドストーン"));
-        buildingRewards.put(Material.PURPUR_BLOCK, new BuildingReward(7.0, 14.0, "プルプァブロック"));
-        
-        // 装飾ブロック
-        buildingRewards.put(Material.CHISELED_STONE_BRICKS, new BuildingReward(3.0, 6.0, "模様入り石レンガ"));
-        buildingRewards.put(Material.MOSSY_STONE_BRICKS, new BuildingReward(2.5, 5.0, "苔石レンガ"));
-        buildingRewards.put(Material.CRACKED_STONE_BRICKS, new BuildingReward(2.0, 4.0, "ひび入り石レンガ"));
-        
-        // ガラス系
-        buildingRewards.put(Material.GLASS, new BuildingReward(1.5, 3.0, "ガラス"));
-        buildingRewards.put(Material.WHITE_STAINED_GLASS, new BuildingReward(2.0, 4.0, "白色のガラス"));
-        buildingRewards.put(Material.BLUE_STAINED_GLASS, new BuildingReward(2.0, 4.0, "青色のガラス"));
-        // 他の色ガラスも同様に設定...
-        
-        // 1.16以降のブロック
-        buildingRewards.put(Material.BLACKSTONE, new BuildingReward(1.0, 2.0, "ブラックストーン"));
-        buildingRewards.put(Material.POLISHED_BLACKSTONE, new BuildingReward(2.0, 4.0, "磨かれたブラックストーン"));
-        buildingRewards.put(Material.CHISELED_POLISHED_BLACKSTONE, new BuildingReward(3.0, 6.0, "模様入り磨かれたブラックストーン"));
-    }
-    
     /**
      * 建築家専用装飾ブロックの初期化
      */
@@ -162,17 +115,12 @@ public class BuildingEventHandler {
      */
     private void processBuildingReward(Player player, PlayerJob builderJob, 
                                       Material material, Location location) {
-        BuildingReward reward = buildingRewards.get(material);
-        if (reward == null) {
-            // 未定義のブロックは基本報酬
-            reward = new BuildingReward(0.1, 0.2, material.name().toLowerCase());
-        }
-        
-        // レベルボーナスを適用
-        double levelMultiplier = 1.0 + (builderJob.getLevel() * 0.025); // レベル毎に2.5%ボーナス
-        
-        double finalExperience = reward.getExperience() * levelMultiplier;
-        double finalIncome = reward.getIncome() * levelMultiplier;
+        // 未定義のブロックは基本報酬（reward_rules.building の default）、レベルボーナス（レベル毎に2.5%）は報酬表で適用済み
+        RewardRules rules = rewardRuleEngine.getRules();
+        int jobId = builderJob.getJobId();
+        int level = builderJob.getLevel();
+        double finalExperience = rules.getExperience(RewardRules.Activity.BUILDING, jobId, material.ordinal(), level);
+        double finalIncome = rules.getIncome(RewardRules.Activity.BUILDING, jobId, material.ordinal(), level);
         
         // 建築プロジェクトボーナスをチェック
         double projectBonus = checkBuildingProjectBonus(player, location, material);
@@ -187,11 +135,11 @@ public class BuildingEventHandler {
         checkBuildingSkills(player, builderJob, material, location);
         
         // 大規模建築の場合のみメッセージ表示
-        if (reward.getExperience() >= 2.0) {
+        if (finalExperience >= 2.0) {
             String message = String.format(
                 "%s%sを設置！ §a+%.1f経験値 §6+%.1f金塊",
                 ChatColor.GRAY,
-                reward.getDisplayName(),
+                getDisplayName(rules, material),
                 finalExperience,
                 finalIncome
             );
@@ -199,6 +147,14 @@ public class BuildingEventHandler {
         }
     }
     
+    /**
+     * 報酬表の表示名（未設定の場合は素材名）
+     */
+    private String getDisplayName(RewardRules rules, Material material) {
+        String displayName = rules.getDisplayName(RewardRules.Activity.BUILDING, material.ordinal());
+        return displayName != null ? displayName : material.name().toLowerCase();
+    }
+    
     /**
      * 建築プロジェクトボーナスをチェック
      */
@@ -383,25 +339,6 @@ public class BuildingEventHandler {
         }
     }
     
-    /**
-     * 建築報酬クラス
-     */
-    private static class BuildingReward {
-        private final double experience;
-        private final double income;
-        private final String displayName;
-        
-        public BuildingReward(double experience, double income, String displayName) {
-            this.experience = experience;
-            this.income = income;
-            this.displayName = displayName;
-        }
-        
-        public double getExperience() { return experience; }
-        public double getIncome() { return income; }
-        public String getDisplayName() { return displayName; }
-    }
-    
     /**
      * 建築プロジェクトクラス
      */
@@ -12,6 +12,9 @@ import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.events.AsyncEventUpdater;
 import org.tofu.tofunomics.jobs.JobManager;
 import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.performance.StatsRegistry;
+import org.tofu.tofunomics.rewards.RewardRuleEngine;
+import org.tofu.tofunomics.rewards.RewardRules;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,56 +34,18 @@ public class GrowthEventHandler {
     // 作物の所有者を追跡（位置 -> プレイヤーUUID）
     private final Map<Location, UUID> cropOwners;
     
-    // 作物種別による報酬
-    private final Map<Material, GrowthReward> growthRewards;
+    // 作物種別による報酬（config.yml の reward_rules.crop_growth）
+    private final RewardRuleEngine rewardRuleEngine;
     
     public GrowthEventHandler(ConfigManager configManager, PlayerDAO playerDAO,
-                             JobManager jobManager, AsyncEventUpdater asyncUpdater) {
+                             JobManager jobManager, AsyncEventUpdater asyncUpdater,
+                             RewardRuleEngine rewardRuleEngine) {
         this.configManager = configManager;
         this.playerDAO = playerDAO;
         this.jobManager = jobManager;
         this.asyncUpdater = asyncUpdater;
+        this.rewardRuleEngine = rewardRuleEngine;
         this.cropOwners = new HashMap<>();
-        this.growthRewards = new HashMap<>();
-        
-        initializeGrowthRewards();
-    }
-    
-    /**
-     * 成長報酬テーブルの初期化
-     */
-    private void initializeGrowthRewards() {
-        // 基本作物
-        growthRewards.put(Material.WHEAT, new GrowthReward(1.0, 1.5, "小麦"));
-        growthRewards.put(Material.CARROTS, new GrowthReward(1.0, 1.5, "ニンジン"));
-        growthRewards.put(Material.POTATOES, new GrowthReward(1.0, 1.5, "ジャガイモ"));
-        growthRewards.put(Material.BEETROOTS, new GrowthReward(1.2, 2.0, "ビートルート"));
-        
-        // 特殊作物
-        growthRewards.put(Material.PUMPKIN, new GrowthReward(3.0, 5.0, "カボチャ"));
-        growthRewards.put(Material.MELON, new GrowthReward(2.5, 4.0, "スイカ"));
-        growthRewards.put(Material.SUGAR_CANE, new GrowthReward(0.5, 1.0, "サトウキビ"));
-        growthRewards.put(Material.CACTUS, new GrowthReward(0.8, 1.5, "サボテン"));
-        
-        // 樹木
-        growthRewards.put(Material.OAK_SAPLING, new GrowthReward(5.0, 8.0, "オークの苗木"));
-        growthRewards.put(Material.BIRCH_SAPLING, new GrowthReward(5.0, 8.0, "シラカバの苗木"));
-        growthRewards.put(Material.SPRUCE_SAPLING, new GrowthReward(5.0, 8.0, "トウヒの苗木"));
-        growthRewards.put(Material.JUNGLE_SAPLING, new GrowthReward(8.0, 12.0, "ジャングルの苗木"));
-        growthRewards.put(Material.ACACIA_SAPLING, new GrowthReward(6.0, 10.0, "アカシアの苗木"));
-        growthRewards.put(Material.DARK_OAK_SAPLING, new GrowthReward(7.0, 11.0, "ダークオークの苗木"));
-        
-        // ネザー関連
-        growthRewards.put(Material.NETHER_WART, new GrowthReward(4.0, 6.0, "ネザーウォート"));
-        growthRewards.put(Material.WARPED_FUNGUS, new GrowthReward(10.0, 15.0, "歪んだキノコ"));
-        growthRewards.put(Material.CRIMSON_FUNGUS, new GrowthReward(10.0, 15.0, "真紅のキノコ"));
-        
-        // キノコ
-        growthRewards.put(Material.BROWN_MUSHROOM, new GrowthReward(2.0, 3.0, "茶キノコ"));
-        growthRewards.put(Material.RED_MUSHROOM, new GrowthReward(2.0, 3.0, "赤キノコ"));
-        
-        // 1.17以降の作物（1.16.5では利用不可）
-        // growthRewards.put(Material.SWEET_BERRIES, new GrowthReward(1.5, 2.5, "スイートベリー"));
     }
     
     /**
@@ -92,12 +57,12 @@ public class GrowthEventHandler {
         Location location = block.getLocation();
         
         // 報酬対象の作物かチェック
-        GrowthReward reward = growthRewards.get(material);
-        if (reward == null) {
+        RewardRules rules = rewardRuleEngine.getRules();
+        Material rewardMaterial = material;
+        if (!rules.isRewarded(RewardRules.Activity.CROP_GROWTH, rewardMaterial.ordinal())) {
             // 新しく成長したブロックの種類をチェック
-            Material newMaterial = event.getNewState().getType();
-            reward = growthRewards.get(newMaterial);
-            if (reward == null) {
+            rewardMaterial = event.getNewState().getType();
+            if (!rules.isRewarded(RewardRules.Activity.CROP_GROWTH, rewardMaterial.ordinal())) {
                 return;
             }
         }
@@ -126,18 +91,19 @@ public class GrowthEventHandler {
         }
         
         // 報酬を処理
-        processGrowthReward(player, farmerJob, reward, location);
+        processGrowthReward(player, farmerJob, rules, rewardMaterial, location);
     }
     
     /**
      * 成長報酬の処理
      */
-    private void processGrowthReward(Player player, PlayerJob farmerJob, 
-                                    GrowthReward reward, Location location) {
-        // レベルボーナスを適用
-        double levelMultiplier = 1.0 + (farmerJob.getLevel() * 0.02); // レベル毎に2%ボーナス
-        
-        double finalExperience = reward.getExperience() * levelMultiplier;
+    private void processGrowthReward(Player player, PlayerJob farmerJob, RewardRules rules,
+                                    Material material, Location location) {
+        // レベルボーナス（レベル毎に2%）は報酬表で適用済み
+        int jobId = farmerJob.getJobId();
+        int level = farmerJob.getLevel();
+        double finalExperience = rules.getExperience(RewardRules.Activity.CROP_GROWTH, jobId, material.ordinal(), level);
+        double income = rules.getIncome(RewardRules.Activity.CROP_GROWTH, jobId, material.ordinal(), level);
         
         // 環境ボーナスをチェック
         double bonusMultiplier = checkEnvironmentalBonuses(player, location);
@@ -152,14 +118,22 @@ public class GrowthEventHandler {
             String message = String.format(
                 "%s%sが成長しました！ §a+%.1f経験値",
                 ChatColor.GREEN,
-                reward.getDisplayName(),
+                getDisplayName(rules, material),
                 finalExperience
             );
             player.sendMessage(message);
         }
         
         // 農家スキル発動チェック
-        checkFarmerGrowthSkills(player, farmerJob, location, reward);
+        checkFarmerGrowthSkills(player, farmerJob, location, income);
+    }
+    
+    /**
+     * 報酬表の表示名（未設定の場合は素材名）
+     */
+    private String getDisplayName(RewardRules rules, Material material) {
+        String displayName = rules.getDisplayName(RewardRules.Activity.CROP_GROWTH, material.ordinal());
+        return displayName != null ? displayName : material.name().toLowerCase();
     }
     
     /**
@@ -199,12 +173,12 @@ public class GrowthEventHandler {
      * 農家の成長スキル発動チェック
      */
     private void checkFarmerGrowthSkills(Player player, PlayerJob job, 
-                                        Location location, GrowthReward reward) {
+                                        Location location, double income) {
         int level = job.getLevel();
         
         // レベル20以上：連鎖成長
         if (level >= 20 && Math.random() < 0.15) { // 15%の確率
-            triggerChainGrowth(location, reward);
+            triggerChainGrowth(location);
             player.sendMessage(ChatColor.GOLD + "✦ 連鎖成長！周囲の作物も成長しました！");
         }
         
@@ -214,7 +188,7 @@ public class GrowthEventHandler {
         if (level >= 35 && Math.random() < 0.1) { // 10%の確率
             // 追加報酬を付与
             asyncUpdater.updatePlayerBalance(player.getUniqueId().toString(), 
-                                           reward.getIncome() * 0.5, "豊作ボーナス");
+                                           income * 0.5, "豊作ボーナス");
             player.sendMessage(ChatColor.GOLD + "✦ 豊作の恵み！追加収入を獲得しました！");
         }
         */
@@ -230,7 +204,7 @@ public class GrowthEventHandler {
     /**
      * 連鎖成長を発動
      */
-    private void triggerChainGrowth(Location centerLocation, GrowthReward reward) {
+    private void triggerChainGrowth(Location centerLocation) {
         // 周囲3x3の範囲で同じ作物を成長させる
         for (int x = -1; x <= 1; x++) {
             for (int z = -1; z <= 1; z++) {
@@ -260,7 +234,7 @@ public class GrowthEventHandler {
                 Block nearbyBlock = nearbyLocation.getBlock();
                 
                 // 成長可能な作物があれば成長ステージを進める
-                if (growthRewards.containsKey(nearbyBlock.getType())) {
+                if (rewardRuleEngine.getRules().isRewarded(RewardRules.Activity.CROP_GROWTH, nearbyBlock.getType().ordinal())) {
                     // 実際の成長処理は複雑なため簡略化
                     // ボーンミールを使用したような効果を模擬
                 }
@@ -316,21 +290,12 @@ public class GrowthEventHandler {
     }
     
     /**
-     * 成長報酬クラス
+     * 作物の所有者マップを統計の登録簿へ登録する（参照はメインスレッドから行うこと）
      */
-    private static class GrowthReward {
-        private final double experience;
-        private final double income;
-        private final String displayName;
-        
-        public GrowthReward(double experience, double income, String displayName) {
-            this.experience = experience;
-            this.income = income;
-            this.displayName = displayName;
-        }
-        
-        public double getExperience() { return experience; }
-        public double getIncome() { return income; }
-        public String getDisplayName() { return displayName; }
+    public void registerStats(StatsRegistry registry) {
+        // 1件あたり: マップのエントリ・Location（座標3つと向き）・UUID
+        long bytesPerCrop = StatsRegistry.MAP_ENTRY_BYTES + 56L + StatsRegistry.UUID_BYTES;
+        registry.register("growth.crop_owners", () ->
+            StatsRegistry.Stats.collection(cropOwners.size(), cropOwners.size() * bytesPerCrop));
     }
 }
\ No newline at end of file
@@ -0,0 +1,157 @@
+package org.tofu.tofunomics.experience;
+
+import org.tofu.tofunomics.performance.StatsRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 集計期間中に獲得した職業経験値をプレイヤー・職業IDごとに合算する
+ * 連続採掘・一括伐採などで1ブロックごとに届く経験値を、期間の終わりにまとめて1回だけ反映させるために使う。
+ * メインスレッドからのみ使用する（統計スレッドへは集計中のプレイヤー数だけを公開する）
+ */
+public class ExperienceAccumulator {
+
+    // 合算値の配列の初期長（職業IDの上限の目安）
+    private static final int INITIAL_JOB_SLOTS = 16;
+
+    /**
+     * 合算した経験値の反映先
+     */
+    public interface Sink {
+        void apply(UUID uuid, int jobId, double experience);
+    }
+
+    // プレイヤーごとの職業IDを添字とする合算値
+    private Map<UUID, double[]> pending = new LinkedHashMap<>();
+    // 反映中に使う入れ替え用のマップ（反映のたびにマップを作らない）
+    private Map<UUID, double[]> draining = new LinkedHashMap<>();
+    // 統計スレッドから読む集計中のプレイヤー数（マップ自体は他スレッドから読まない）
+    private volatile int pendingSize;
+    private long eventCount;
+    private long appliedCount;
+
+    /**
+     * 経験値を合算する
+     */
+    public void add(UUID uuid, int jobId, double experience) {
+        if (jobId < 0 || experience == 0.0) {
+            return;
+        }
+        double[] totals = pending.get(uuid);
+        if (totals == null || totals.length <= jobId) {
+            double[] grown = new double[Math.max(jobId + 1, INITIAL_JOB_SLOTS)];
+            if (totals != null) {
+                System.arraycopy(totals, 0, grown, 0, totals.length);
+            }
+            pending.put(uuid, grown);
+            pendingSize = pending.size();
+            totals = grown;
+        }
+        totals[jobId] += experience;
+        eventCount++;
+    }
+
+    /**
+     * 合算した経験値をすべて反映し、集計をやり直す
+     * 反映先が例外を投げた場合、まだ反映していない分は次の集計期間へ戻す
+     */
+    public void drain(Sink sink) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<UUID, double[]> drained = pending;
+        pending = draining;
+        draining = drained;
+        try {
+            Iterator<Map.Entry<UUID, double[]>> iterator = drained.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, double[]> entry = iterator.next();
+                apply(entry.getKey(), entry.getValue(), sink);
+                iterator.remove();
+            }
+        } finally {
+            for (Map.Entry<UUID, double[]> entry : drained.entrySet()) {
+                restore(entry.getKey(), entry.getValue());
+            }
+            drained.clear();
+            pendingSize = pending.size();
+        }
+    }
+
+    /**
+     * 1人分の合算した経験値を反映する（退出時）
+     */
+    public void drain(UUID uuid, Sink sink) {
+        double[] totals = pending.remove(uuid);
+        if (totals == null) {
+            return;
+        }
+        pendingSize = pending.size();
+        boolean applied = false;
+        try {
+            apply(uuid, totals, sink);
+            applied = true;
+        } finally {
+            if (!applied) {
+                restore(uuid, totals);
+            }
+        }
+    }
+
+    /**
+     * 職業ごとに反映し、反映できた分だけ合算値から外す（途中で失敗しても二重に反映しない）
+     */
+    private void apply(UUID uuid, double[] totals, Sink sink) {
+        for (int jobId = 0; jobId < totals.length; jobId++) {
+            if (totals[jobId] != 0.0) {
+                sink.apply(uuid, jobId, totals[jobId]);
+                totals[jobId] = 0.0;
+                appliedCount++;
+            }
+        }
+    }
+
+    /**
+     * 反映できなかった合算値を集計中の値へ戻す
+     */
+    private void restore(UUID uuid, double[] totals) {
+        for (int jobId = 0; jobId < totals.length; jobId++) {
+            if (totals[jobId] != 0.0) {
+                add(uuid, jobId, totals[jobId]);
+                eventCount--;
+            }
+        }
+    }
+
+    /**
+     * @return 集計中のプレイヤー数
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * @return 合算した経験値の件数
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return 反映した件数（プレイヤー・職業・集計期間ごとに1件）
+     */
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+
+    public void registerStats(StatsRegistry registry) {
+        registry.register("experience.pending", () -> {
+            int size = pendingSize;
+            return StatsRegistry.Stats.collection(size,
+                size * (StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.UUID_BYTES + 16L + INITIAL_JOB_SLOTS * 8L));
+        });
+    }
+}
@@ -1,30 +1,38 @@
 package org.tofu.tofunomics.experience;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.player.PlayerFishEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.inventory.BrewEvent;
 import org.bukkit.event.enchantment.EnchantItemEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.ChatColor;
+import org.tofu.tofunomics.blocks.PlacedBlockTracker;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerJobDAO;
-import org.tofu.tofunomics.dao.JobDAO;
 import org.tofu.tofunomics.jobs.JobManager;
 import org.tofu.tofunomics.jobs.ExperienceManager;
+import org.tofu.tofunomics.performance.StatsRegistry;
 import org.tofu.tofunomics.models.PlayerJob;
 import org.tofu.tofunomics.models.Job;
+import org.tofu.tofunomics.rewards.RewardRuleEngine;
+import org.tofu.tofunomics.rewards.RewardRules;
 import org.tofu.tofunomics.tools.JobToolManager;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * 職業別経験値獲得システム
@@ -33,95 +41,46 @@ public class JobExperienceManager implements Listener {
     
     private final ConfigManager configManager;
     private final PlayerJobDAO playerJobDAO;
-    private final JobDAO jobDAO;
     private final JobManager jobManager;
     private final JobToolManager jobToolManager;
     private final ExperienceManager experienceManager;
+    // 採掘・伐採・収穫・クラフト・設置の経験値（config.yml の reward_rules）
+    private final RewardRuleEngine rewardRuleEngine;
+    // 集計期間中の経験値（0以下の場合は合算せず即時反映）
+    private final ExperienceAccumulator accumulator = new ExperienceAccumulator();
+    private final long accumulationWindow;
+    // プレイヤーが設置したブロックの記録（無効な場合はnull）
+    private volatile PlacedBlockTracker placedBlockTracker;
     
-    // 経験値テーブル
-    private final Map<Material, Double> miningExperience;
-    private final Map<Material, Double> loggingExperience;
-    private final Map<Material, Double> farmingExperience;
+    // 経験値テーブル（素材単位ではない活動）
     private final Map<PlayerFishEvent.State, Double> fishingExperience;
-    private final Map<Material, Double> craftingExperience;
     private final Map<Material, Double> brewingExperience;
     private final Map<Integer, Double> enchantingExperience;
-    private final Map<Material, Double> buildingExperience;
     
     public JobExperienceManager(ConfigManager configManager, PlayerJobDAO playerJobDAO, 
-                               JobDAO jobDAO, JobManager jobManager, JobToolManager jobToolManager,
-                               ExperienceManager experienceManager) {
+                               JobManager jobManager, JobToolManager jobToolManager,
+                               ExperienceManager experienceManager, RewardRuleEngine rewardRuleEngine) {
         this.configManager = configManager;
         this.playerJobDAO = playerJobDAO;
-        this.jobDAO = jobDAO;
         this.jobManager = jobManager;
         this.jobToolManager = jobToolManager;
         this.experienceManager = experienceManager;
+        this.rewardRuleEngine = rewardRuleEngine;
+        this.accumulationWindow = configManager.getExperienceAccumulationWindow();
         
-        this.miningExperience = new HashMap<>();
-        this.loggingExperience = new HashMap<>();
-        this.farmingExperience = new HashMap<>();
         this.fishingExperience = new HashMap<>();
-        this.craftingExperience = new HashMap<>();
         this.brewingExperience = new HashMap<>();
         this.enchantingExperience = new HashMap<>();
-        this.buildingExperience = new HashMap<>();
         
         initializeExperienceTables();
     }
     
     private void initializeExperienceTables() {
-        // 採掘経験値テーブル
-        miningExperience.put(Material.COAL_ORE, 2.0);
-        miningExperience.put(Material.IRON_ORE, 5.0);
-        miningExperience.put(Material.GOLD_ORE, 8.0);
-        miningExperience.put(Material.DIAMOND_ORE, 25.0);
-        miningExperience.put(Material.EMERALD_ORE, 20.0);
-        miningExperience.put(Material.LAPIS_ORE, 4.0);
-        miningExperience.put(Material.REDSTONE_ORE, 3.0);
-        miningExperience.put(Material.NETHER_QUARTZ_ORE, 6.0);
-        miningExperience.put(Material.ANCIENT_DEBRIS, 50.0);
-        miningExperience.put(Material.STONE, 0.5);
-        miningExperience.put(Material.COBBLESTONE, 0.3);
-        
-        // 伐採経験値テーブル
-        loggingExperience.put(Material.OAK_LOG, 2.0);
-        loggingExperience.put(Material.BIRCH_LOG, 2.0);
-        loggingExperience.put(Material.SPRUCE_LOG, 2.0);
-        loggingExperience.put(Material.JUNGLE_LOG, 3.0);
-        loggingExperience.put(Material.ACACIA_LOG, 3.0);
-        loggingExperience.put(Material.DARK_OAK_LOG, 3.0);
-        loggingExperience.put(Material.WARPED_STEM, 4.0);
-        loggingExperience.put(Material.CRIMSON_STEM, 4.0);
-        
-        // 農業経験値テーブル
-        farmingExperience.put(Material.WHEAT, 1.5);
-        farmingExperience.put(Material.POTATO, 1.2);
-        farmingExperience.put(Material.CARROT, 1.2);
-        farmingExperience.put(Material.BEETROOT, 2.0);
-        farmingExperience.put(Material.PUMPKIN, 3.0);
-        farmingExperience.put(Material.MELON, 2.5);
-        farmingExperience.put(Material.SUGAR_CANE, 1.0);
-        farmingExperience.put(Material.COCOA_BEANS, 2.5);
-        farmingExperience.put(Material.NETHER_WART, 3.0);
-        
         // 釣り経験値テーブル
         fishingExperience.put(PlayerFishEvent.State.CAUGHT_FISH, 5.0);
         fishingExperience.put(PlayerFishEvent.State.CAUGHT_ENTITY, 8.0);
         fishingExperience.put(PlayerFishEvent.State.IN_GROUND, 1.0);
         
-        // 製作経験値テーブル（鍛冶屋）
-        craftingExperience.put(Material.IRON_INGOT, 3.0);
-        craftingExperience.put(Material.GOLD_INGOT, 5.0);
-        craftingExperience.put(Material.IRON_SWORD, 8.0);
-        craftingExperience.put(Material.IRON_PICKAXE, 10.0);
-        craftingExperience.put(Material.IRON_AXE, 10.0);
-        craftingExperience.put(Material.IRON_SHOVEL, 6.0);
-        craftingExperience.put(Material.DIAMOND_SWORD, 20.0);
-        craftingExperience.put(Material.DIAMOND_PICKAXE, 25.0);
-        craftingExperience.put(Material.DIAMOND_AXE, 25.0);
-        craftingExperience.put(Material.NETHERITE_INGOT, 50.0);
-        
         // 醸造経験値テーブル
         brewingExperience.put(Material.POTION, 5.0);
         brewingExperience.put(Material.SPLASH_POTION, 8.0);
@@ -133,42 +92,25 @@ public class JobExperienceManager implements Listener {
         enchantingExperience.put(3, 25.0);
         enchantingExperience.put(4, 35.0);
         enchantingExperience.put(5, 50.0);
-        
-        // 建築経験値テーブル
-        buildingExperience.put(Material.STONE, 0.2);
-        buildingExperience.put(Material.COBBLESTONE, 0.1);
-        buildingExperience.put(Material.STONE_BRICKS, 0.5);
-        buildingExperience.put(Material.QUARTZ_BLOCK, 1.0);
-        buildingExperience.put(Material.PRISMARINE, 1.5);
-        buildingExperience.put(Material.PURPUR_BLOCK, 2.0);
-        buildingExperience.put(Material.END_STONE_BRICKS, 2.5);
+    }
+    
+    /**
+     * 設置ブロックの記録を設定する（統合イベントハンドラーを経由しない登録でも設置ブロックを報酬の対象外にするため）
+     */
+    public void setPlacedBlockTracker(PlacedBlockTracker placedBlockTracker) {
+        this.placedBlockTracker = placedBlockTracker;
     }
     
     @EventHandler
     public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
-        Material blockType = event.getBlock().getType();
-        
-        // 鉱夫の採掘経験値
-        if (jobManager.hasJob(player, "miner") && miningExperience.containsKey(blockType)) {
-            double baseExp = miningExperience.get(blockType);
-            double multipliedExp = applyJobMultiplier(player, "miner", baseExp);
-            giveJobExperience(player, "miner", multipliedExp);
-        }
-        
-        // 木こりの伐採経験値
-        if (jobManager.hasJob(player, "woodcutter") && loggingExperience.containsKey(blockType)) {
-            double baseExp = loggingExperience.get(blockType);
-            double multipliedExp = applyJobMultiplier(player, "woodcutter", baseExp);
-            giveJobExperience(player, "woodcutter", multipliedExp);
-        }
-        
-        // 農家の収穫経験値
-        if (jobManager.hasJob(player, "farmer") && farmingExperience.containsKey(blockType)) {
-            double baseExp = farmingExperience.get(blockType);
-            double multipliedExp = applyJobMultiplier(player, "farmer", baseExp);
-            giveJobExperience(player, "farmer", multipliedExp);
+        // プレイヤーが設置したブロックは経験値の対象外
+        PlacedBlockTracker tracker = placedBlockTracker;
+        Block block = event.getBlock();
+        if (tracker != null && tracker.isPlaced(block.getWorld().getName(), block.getX(), block.getY(), block.getZ())) {
+            return;
         }
+        // 鉱夫の採掘・木こりの伐採・農家の収穫経験値
+        giveActivityExperience(event.getPlayer(), RewardRules.Activity.BLOCK_BREAK, event.getBlock().getType());
     }
     
     @EventHandler
@@ -190,13 +132,7 @@ public class JobExperienceManager implements Listener {
         if (!(event.getWhoClicked() instanceof Player)) return;
         
         Player player = (Player) event.getWhoClicked();
-        Material craftedItem = event.getRecipe().getResult().getType();
-        
-        if (jobManager.hasJob(player, "blacksmith") && craftingExperience.containsKey(craftedItem)) {
-            double baseExp = craftingExperience.get(craftedItem);
-            double multipliedExp = applyJobMultiplier(player, "blacksmith", baseExp);
-            giveJobExperience(player, "blacksmith", multipliedExp);
-        }
+        giveActivityExperience(player, RewardRules.Activity.CRAFT, event.getRecipe().getResult().getType());
     }
     
     @EventHandler
@@ -228,63 +164,123 @@ public class JobExperienceManager implements Listener {
     
     @EventHandler
     public void onBlockPlace(BlockPlaceEvent event) {
-        Player player = event.getPlayer();
-        Material blockType = event.getBlock().getType();
+        giveActivityExperience(event.getPlayer(), RewardRules.Activity.BLOCK_PLACE, event.getBlock().getType());
+    }
+    
+    /**
+     * 報酬表に従って、就いている職業ごとに活動の経験値を付与
+     * 報酬のない素材はプレイヤーの職業を読まずに終了する
+     */
+    private void giveActivityExperience(Player player, RewardRules.Activity activity, Material material) {
+        RewardRules rules = rewardRuleEngine.getRules();
+        int ordinal = material.ordinal();
+        if (!rules.isRewarded(activity, ordinal)) {
+            return;
+        }
         
-        if (jobManager.hasJob(player, "architect") && buildingExperience.containsKey(blockType)) {
-            double baseExp = buildingExperience.get(blockType);
-            double multipliedExp = applyJobMultiplier(player, "architect", baseExp);
-            giveJobExperience(player, "architect", multipliedExp);
+        for (PlayerJob playerJob : jobManager.getPlayerJobs(player)) {
+            if (!rules.hasReward(activity, playerJob.getJobId(), ordinal)) {
+                continue;
+            }
+            Job job = jobManager.getJobById(playerJob.getJobId());
+            if (job == null) {
+                continue;
+            }
+            // 職業倍率とレベル補正は報酬表で適用済み
+            double experience = rules.getExperience(activity, playerJob.getJobId(), ordinal, playerJob.getLevel());
+            giveJobExperience(player, job.getName(), experience);
         }
     }
     
     /**
      * プレイヤーに職業経験値を付与
+     * 集計期間中は合算するだけで、レベル判定・保存・通知は {@link #flushPendingExperience()} でまとめて行う
      */
     private void giveJobExperience(Player player, String jobName, double experience) {
-        PlayerJob playerJob = jobManager.getPlayerJob(player, jobName);
-        if (playerJob == null) return;
+        Job job = jobManager.getJobByName(jobName);
+        if (job == null) return;
+        
+        if (accumulationWindow <= 0) {
+            applyExperience(player.getUniqueId(), job.getId(), experience);
+            return;
+        }
+        accumulator.add(player.getUniqueId(), job.getId(), experience);
+    }
+    
+    /**
+     * 集計期間を締め、合算した経験値を反映する（集計間隔ごとにメインスレッドで呼ぶ）
+     */
+    public void flushPendingExperience() {
+        accumulator.drain(this::applyExperience);
+    }
+    
+    /**
+     * 退出するプレイヤーの集計中の経験値を反映する（プレイヤー状態の書き出しより前に呼ぶ）
+     */
+    @EventHandler(priority = EventPriority.LOW)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        accumulator.drain(event.getPlayer().getUniqueId(), this::applyExperience);
+    }
+    
+    /**
+     * 合算した経験値を反映し、レベル判定・保存・通知を1回ずつ行う
+     */
+    private void applyExperience(UUID uuid, int jobId, double experience) {
+        Job job = jobManager.getJobById(jobId);
+        if (job == null) return;
         
-        double currentExp = playerJob.getExperience();
-        int currentLevel = playerJob.getLevel();
+        // 集計期間中に離職した場合は行がない
+        PlayerJob playerJob = playerJobDAO.getPlayerJob(uuid.toString(), jobId);
+        if (playerJob == null) return;
         
+        String jobName = job.getName();
+        int previousLevel = playerJob.getLevel();
         playerJob.addExperience(experience);
         
-        // レベルアップチェック
-        checkLevelUp(player, playerJob, jobName, currentLevel);
+        // レベルアップ判定（必要経験値は事前計算済みの表から引く）
+        int newLevel = previousLevel;
+        while (newLevel < job.getMaxLevel()
+                && playerJob.getExperience() >= experienceManager.calculateRequiredExperience(newLevel + 1)) {
+            newLevel++;
+        }
+        if (newLevel != previousLevel) {
+            playerJob.setLevel(newLevel);
+        }
         
         // データベース更新
         playerJobDAO.updatePlayerJobData(playerJob);
         
-        // 経験値獲得メッセージ（5経験値以上の場合のみ表示）
+        Player player = Bukkit.getPlayer(uuid);
+        if (player == null) return;
+        
+        // 経験値獲得メッセージ（集計期間の合計が5経験値以上の場合のみ表示）
         if (experience >= 5.0) {
             player.sendMessage(ChatColor.GREEN + String.format("+ %.1f %s経験値", 
                 experience, configManager.getJobDisplayName(jobName)));
         }
+        
+        if (newLevel > previousLevel) {
+            notifyLevelUp(player, job, previousLevel, newLevel);
+        }
     }
     
     /**
-     * レベルアップチェックと処理
+     * レベルアップの通知（複数レベル上がった場合も1回）と到達したレベルごとのツール付与
      */
-    private void checkLevelUp(Player player, PlayerJob playerJob, String jobName, int previousLevel) {
-        while (canPlayerLevelUp(playerJob)) {
-            playerJob.levelUp();
-            int newLevel = playerJob.getLevel();
-            
-            // レベルアップメッセージ
-            player.sendMessage(ChatColor.GOLD + "★ レベルアップ！ " + 
-                configManager.getJobDisplayName(jobName) + " レベル " + newLevel + " に到達！");
-            
-            // 新しいツールの付与チェック
-            jobToolManager.checkAndGiveNewTools(player, jobName, newLevel);
-            
-            // 職業レベル最大値チェック
-            Job job = jobDAO.getJobByNameSafe(jobName);
-            if (job != null && newLevel >= job.getMaxLevel()) {
-                player.sendMessage(ChatColor.LIGHT_PURPLE + "★ おめでとうございます！ " + 
-                    configManager.getJobDisplayName(jobName) + " の最大レベルに到達しました！");
-                break;
-            }
+    private void notifyLevelUp(Player player, Job job, int previousLevel, int newLevel) {
+        String jobName = job.getName();
+        player.sendMessage(ChatColor.GOLD + "★ レベルアップ！ " + 
+            configManager.getJobDisplayName(jobName) + " レベル " + newLevel + " に到達！");
+        
+        // 新しいツールの付与チェック
+        for (int level = previousLevel + 1; level <= newLevel; level++) {
+            jobToolManager.checkAndGiveNewTools(player, jobName, level);
+        }
+        
+        // 職業レベル最大値チェック
+        if (newLevel >= job.getMaxLevel()) {
+            player.sendMessage(ChatColor.LIGHT_PURPLE + "★ おめでとうございます！ " + 
+                configManager.getJobDisplayName(jobName) + " の最大レベルに到達しました！");
         }
     }
     
@@ -299,22 +295,13 @@ public class JobExperienceManager implements Listener {
         double levelPenalty = Math.max(0.1, 1.0 - (playerJob.getLevel() * 0.01));
         
         // 設定ファイルの経験値倍率を適用
-        Job job = jobDAO.getJobByNameSafe(jobName);
+        Job job = jobManager.getJobByName(jobName);
         double configMultiplier = job != null ? 
             configManager.getJobExpMultiplier(jobName) : 1.0;
         
         return baseExperience * levelPenalty * configMultiplier;
     }
     
-    /**
-     * プレイヤーがレベルアップ可能かチェック
-     */
-    private boolean canPlayerLevelUp(PlayerJob playerJob) {
-        double currentExp = playerJob.getExperience();
-        double requiredExp = experienceManager.calculateRequiredExperience(playerJob.getLevel() + 1);
-        return currentExp >= requiredExp;
-    }
-    
     /**
      * 手動で経験値を付与（管理者用）
      */
@@ -326,4 +313,15 @@ public class JobExperienceManager implements Listener {
         giveJobExperience(player, jobName, amount);
         return true;
     }
+    
+    /**
+     * @return 合算してから反映するまでの間隔（tick、0以下は即時反映）
+     */
+    public long getAccumulationWindow() {
+        return accumulationWindow;
+    }
+    
+    public void registerStats(StatsRegistry registry) {
+        accumulator.registerStats(registry);
+    }
 }
\ No newline at end of file
@@ -7,17 +7,21 @@ import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.HousingPropertyDAO;
 import org.tofu.tofunomics.dao.HousingRentalDAO;
 import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.database.DatabaseExecutor;
 import org.tofu.tofunomics.database.DatabaseManager;
 import org.tofu.tofunomics.models.HousingProperty;
 import org.tofu.tofunomics.models.HousingRental;
 import org.tofu.tofunomics.models.HousingRentalHistory;
+import org.tofu.tofunomics.models.PlayerSession;
 import org.tofu.tofunomics.integration.WorldGuardIntegration;
 import org.bukkit.World;
 import org.bukkit.Location;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -27,6 +31,7 @@ public class HousingRentalManager {
     private final TofuNomics plugin;
     private final ConfigManager configManager;
     private final DatabaseManager databaseManager;
+    private final DatabaseExecutor databaseExecutor;
     private final Logger logger;
     private final WorldGuardIntegration worldGuardIntegration;
     private final org.tofu.tofunomics.economy.CurrencyConverter currencyConverter;
@@ -39,6 +44,7 @@ public class HousingRentalManager {
         this.plugin = plugin;
         this.configManager = configManager;
         this.databaseManager = databaseManager;
+        this.databaseExecutor = databaseManager.getDatabaseExecutor();
         this.logger = plugin.getLogger();
         this.worldGuardIntegration = worldGuardIntegration;
         this.currencyConverter = plugin.getCurrencyConverter();
@@ -48,9 +54,10 @@ public class HousingRentalManager {
 
     private void initializeDAOs() {
         if (databaseManager.isConnected()) {
-            this.propertyDAO = new HousingPropertyDAO(databaseManager.getConnection());
-            this.rentalDAO = new HousingRentalDAO(databaseManager.getConnection());
-            this.playerDAO = new PlayerDAO(databaseManager.getConnection());
+            this.propertyDAO = new HousingPropertyDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor());
+            this.rentalDAO = new HousingRentalDAO(databaseManager.getDataSource(), databaseManager.getDatabaseExecutor());
+            // 残高はプレイヤー状態のストアを共有するDAOで扱う（別のDAOでは書き出し待ちの状態に上書きされる）
+            this.playerDAO = plugin.getPlayerDAO();
         }
     }
 
@@ -94,8 +101,8 @@ public class HousingRentalManager {
         }
         
         // config.ymlから親リージョン設定を確認
-        boolean cityProtectionEnabled = plugin.getConfig().getBoolean("housing_rental.city_protection.enabled", false);
-        String parentRegionName = plugin.getConfig().getString("housing_rental.city_protection.region_name", "");
+        boolean cityProtectionEnabled = configManager.isHousingCityProtectionEnabled();
+        String parentRegionName = configManager.getHousingCityProtectionRegionName();
         
         if (cityProtectionEnabled && !parentRegionName.isEmpty()) {
             // 親リージョンを設定
@@ -114,241 +121,223 @@ public class HousingRentalManager {
 
     /**
      * 賃貸契約を締結
+     * 物件・契約の確認と銀行残高からの引き落としはDBスレッドで行い、現金での支払いと領域への反映はメインスレッドで行う
      */
-    public RentalResult rentProperty(UUID tenantUuid, int propertyId, String period, int units) {
-        try {
+    public CompletableFuture<RentalResult> rentProperty(UUID tenantUuid, int propertyId, String period, int units) {
+        // オンラインプレイヤーを取得（インベントリアクセスのため）
+        org.bukkit.entity.Player onlinePlayer = Bukkit.getPlayer(tenantUuid);
+        if (onlinePlayer == null) {
+            return CompletableFuture.completedFuture(new RentalResult(false, "オンライン状態で契約してください"));
+        }
+        
+        // TofuNomicsワールドの時間を取得
+        String worldName = configManager.getHousingWorldName();
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            return CompletableFuture.completedFuture(new RentalResult(false, "TofuNomicsワールドが見つかりません"));
+        }
+        long startTick = world.getFullTime();
+        double cashBalance = currencyConverter.getCashBalance(onlinePlayer);
+        
+        // 同じ物件への契約が重ならないよう物件単位で直列実行
+        return databaseExecutor.supply(propertyKey(propertyId), () -> {
             // 物件の確認
             HousingProperty property = propertyDAO.getProperty(propertyId);
             if (property == null) {
-                return new RentalResult(false, "物件が見つかりません");
+                return RentalPayment.failed("物件が見つかりません");
             }
             
             if (!property.isAvailable()) {
-                return new RentalResult(false, "この物件は現在利用できません");
+                return RentalPayment.failed("この物件は現在利用できません");
             }
             
             // 既存の契約確認
             HousingRental existingRental = rentalDAO.getActiveRentalByProperty(propertyId);
             if (existingRental != null) {
-                return new RentalResult(false, "この物件は既に賃貸中です");
+                return RentalPayment.failed("この物件は既に賃貸中です");
             }
             
             // 最大契約数チェック
-            int maxRentals = plugin.getConfig().getInt("housing_rental.max_rentals_per_player", 3);
-            List<HousingRental> activeRentals = rentalDAO.getActiveRentalsByTenant(tenantUuid);
+            int maxRentals = configManager.getHousingMaxRentalsPerPlayer();
+            List<HousingRental> activeRentals = getActiveRentals(tenantUuid);
             if (activeRentals.size() >= maxRentals) {
-                return new RentalResult(false, "賃貸契約の上限数(" + maxRentals + ")に達しています");
+                return RentalPayment.failed("賃貸契約の上限数(" + maxRentals + ")に達しています");
             }
             
             // 賃料計算
             int rentalDays = calculateDays(period, units);
             double totalCost = calculateTotalCost(property, period, units);
             
-            // オンラインプレイヤーを取得（インベントリアクセスのため）
-            org.bukkit.entity.Player onlinePlayer = Bukkit.getPlayer(tenantUuid);
-            if (onlinePlayer == null) {
-                return new RentalResult(false, "オンライン状態で契約してください");
-            }
-            
-            // 総資産（銀行残高+現金）をチェック
-            double totalBalance = currencyConverter.getTotalBalance(onlinePlayer);
-            if (totalBalance < totalCost) {
-                return new RentalResult(false, "残高が不足しています (必要: " + 
+            // 銀行残高から優先して引き落とし、足りない分は現金で払えるかを確認
+            double bankPaid = playerDAO.withdrawBankBalanceUpTo(tenantUuid, totalCost);
+            if (bankPaid + cashBalance < totalCost) {
+                refundBank(tenantUuid, bankPaid);
+                return RentalPayment.failed("残高が不足しています (必要: " + 
                     currencyConverter.formatCurrency(totalCost) + ", 所持: " + 
-                    currencyConverter.formatCurrency(totalBalance) + ")");
-            }
-            
-            // TofuNomicsワールドの時間を取得
-            String worldName = plugin.getConfig().getString("housing_rental.world_name", "world");
-            World world = Bukkit.getWorld(worldName);
-            if (world == null) {
-                return new RentalResult(false, "TofuNomicsワールドが見つかりません");
+                    currencyConverter.formatCurrency(bankPaid + cashBalance) + ")");
             }
-            long startTick = world.getFullTime();
             
             // 契約作成
             HousingRental rental = new HousingRental(propertyId, tenantUuid, period, rentalDays, totalCost, startTick);
             int rentalId = rentalDAO.createRental(rental);
+            if (rentalId <= 0) {
+                refundBank(tenantUuid, bankPaid);
+                return RentalPayment.failed("賃貸契約の締結に失敗しました");
+            }
+            return new RentalPayment(property, rental, totalCost, bankPaid);
+        }).thenCompose(payment -> {
+            if (payment.failure != null) {
+                return CompletableFuture.completedFuture(payment.failure);
+            }
             
-            if (rentalId > 0) {
-                // 支払い処理（銀行残高優先、足りない分を現金から）
-                org.tofu.tofunomics.models.Player player = playerDAO.getOrCreatePlayer(tenantUuid);
-                double bankBalance = player.getBankBalance();
-                
-                if (bankBalance >= totalCost) {
-                    // 銀行残高のみで支払い可能
-                    player.removeBankBalance(totalCost);
-                    playerDAO.updatePlayer(player);
-                } else {
-                    // 銀行残高+現金で支払い
-                    double remainingCost = totalCost;
-                    
-                    if (bankBalance > 0) {
-                        // 銀行残高を全額使用
-                        player.removeBankBalance(bankBalance);
-                        playerDAO.updatePlayer(player);
-                        remainingCost -= bankBalance;
-                    }
-                    
-                    // 残りを現金から支払い
-                    if (!currencyConverter.payWithCash(onlinePlayer, remainingCost)) {
-                        // 支払い失敗時はロールバック（銀行残高を戻す）
-                        if (bankBalance > 0) {
-                            player.addBankBalance(bankBalance);
-                            playerDAO.updatePlayer(player);
-                        }
-                        return new RentalResult(false, "支払い処理に失敗しました");
+            HousingRental rental = payment.rental;
+            if (!payRemainderWithCash(onlinePlayer, payment)) {
+                // 支払い失敗時はロールバック（銀行残高を戻し、作成した契約を取り消す）
+                return databaseExecutor.supply(propertyKey(propertyId), () -> {
+                    refundBank(tenantUuid, payment.bankPaid);
+                    rental.cancel();
+                    rentalDAO.updateRental(rental);
+                    return new RentalResult(false, "支払い処理に失敗しました");
+                });
+            }
+            
+            // 契約の保存と支払いが済んでからセッションへ反映する
+            syncSession(rental);
+            
+            // WorldGuard領域が設定されている場合、プレイヤーをメンバーに追加
+            HousingProperty property = payment.property;
+            if (property.hasWorldGuardRegion() && worldGuardIntegration != null && worldGuardIntegration.isEnabled()) {
+                World propertyWorld = Bukkit.getWorld(property.getWorldName());
+                if (propertyWorld != null) {
+                    boolean memberAdded = worldGuardIntegration.addMember(
+                        property.getWorldguardRegionId(), 
+                        propertyWorld, 
+                        tenantUuid
+                    );
+                    if (memberAdded) {
+                        logger.info("プレイヤー " + tenantUuid + " をWorldGuard領域 " + property.getWorldguardRegionId() + " に追加しました");
                     }
                 }
-                
+            }
+            
+            logger.info("賃貸契約を締結しました: " + tenantUuid + " -> 物件ID: " + propertyId);
+            
+            // プレイヤーに通知（ゲーム内時間表示）
+            long realMinutes = rental.getRentalDays() * 20; // 1ゲーム内日 = 20分
+            onlinePlayer.sendMessage("§a" + property.getPropertyName() + "の賃貸契約を締結しました");
+            onlinePlayer.sendMessage("§e期間: " + rental.getRentalDays() + "日(" + realMinutes + "分) | 費用: " + payment.cost);
+            
+            return databaseExecutor.supply(propertyKey(propertyId), () -> {
                 // 物件を利用不可に
                 propertyDAO.updateAvailability(propertyId, false);
                 
                 // 履歴追加
                 HousingRentalHistory history = new HousingRentalHistory(
-                    rentalId, propertyId, tenantUuid, "rent", totalCost
+                    rental.getId(), propertyId, tenantUuid, "rent", payment.cost
                 );
                 rentalDAO.addRentalHistory(history);
                 
-                // WorldGuard領域が設定されている場合、プレイヤーをメンバーに追加
-                if (property.hasWorldGuardRegion() && worldGuardIntegration != null && worldGuardIntegration.isEnabled()) {
-                    World propertyWorld = Bukkit.getWorld(property.getWorldName());
-                    if (propertyWorld != null) {
-                        boolean memberAdded = worldGuardIntegration.addMember(
-                            property.getWorldguardRegionId(), 
-                            propertyWorld, 
-                            tenantUuid
-                        );
-                        if (memberAdded) {
-                            logger.info("プレイヤー " + tenantUuid + " をWorldGuard領域 " + property.getWorldguardRegionId() + " に追加しました");
-                        }
-                    }
-                }
-                
-                logger.info("賃貸契約を締結しました: " + player.getUuid() + " -> 物件ID: " + propertyId);
-                
-                // プレイヤーに通知（ゲーム内時間表示）
-                if (onlinePlayer != null) {
-                    long realMinutes = rentalDays * 20; // 1ゲーム内日 = 20分
-                    onlinePlayer.sendMessage("§a" + property.getPropertyName() + "の賃貸契約を締結しました");
-                    onlinePlayer.sendMessage("§e期間: " + rentalDays + "日(" + realMinutes + "分) | 費用: " + totalCost);
-                }
-                
-                return new RentalResult(true, "賃貸契約を締結しました (契約ID: " + rentalId + ")");
-            }
-        } catch (SQLException e) {
-            logger.severe("賃貸契約の締結に失敗しました: " + e.getMessage());
+                return new RentalResult(true, "賃貸契約を締結しました (契約ID: " + rental.getId() + ")");
+            });
+        }).exceptionally(error -> {
+            logger.severe("賃貸契約の締結に失敗しました: " + error.getMessage());
             return new RentalResult(false, "データベースエラーが発生しました");
-        }
-        
-        return new RentalResult(false, "賃貸契約の締結に失敗しました");
+        });
     }
 
     /**
      * 契約を延長
      */
-    public RentalResult extendRental(UUID tenantUuid, int propertyId, int additionalDays) {
-        try {
+    public CompletableFuture<RentalResult> extendRental(UUID tenantUuid, int propertyId, int additionalDays) {
+        // オンラインプレイヤーを取得（インベントリアクセスのため）
+        org.bukkit.entity.Player onlinePlayer = Bukkit.getPlayer(tenantUuid);
+        if (onlinePlayer == null) {
+            return CompletableFuture.completedFuture(new RentalResult(false, "オンライン状態で契約延長してください"));
+        }
+        double cashBalance = currencyConverter.getCashBalance(onlinePlayer);
+        
+        return databaseExecutor.supply(propertyKey(propertyId), () -> {
             HousingRental rental = rentalDAO.getActiveRentalByProperty(propertyId);
             
             if (rental == null) {
-                return new RentalResult(false, "有効な契約が見つかりません");
+                return RentalPayment.failed("有効な契約が見つかりません");
             }
             
             if (!rental.getTenantUuid().equals(tenantUuid)) {
-                return new RentalResult(false, "この物件の契約者ではありません");
+                return RentalPayment.failed("この物件の契約者ではありません");
             }
             
             // 物件情報取得
             HousingProperty property = propertyDAO.getProperty(propertyId);
             if (property == null) {
-                return new RentalResult(false, "物件が見つかりません");
+                return RentalPayment.failed("物件が見つかりません");
             }
             
             // 追加料金計算
             double additionalCost = property.getDailyRent() * additionalDays;
             
-            // オンラインプレイヤーを取得（インベントリアクセスのため）
-            org.bukkit.entity.Player onlinePlayer = Bukkit.getPlayer(tenantUuid);
-            if (onlinePlayer == null) {
-                return new RentalResult(false, "オンライン状態で契約延長してください");
-            }
-            
-            // 総資産（銀行残高+現金）をチェック
-            double totalBalance = currencyConverter.getTotalBalance(onlinePlayer);
-            if (totalBalance < additionalCost) {
-                return new RentalResult(false, "残高が不足しています (必要: " + 
+            // 銀行残高から優先して引き落とし、足りない分は現金で払えるかを確認
+            double bankPaid = playerDAO.withdrawBankBalanceUpTo(tenantUuid, additionalCost);
+            if (bankPaid + cashBalance < additionalCost) {
+                refundBank(tenantUuid, bankPaid);
+                return RentalPayment.failed("残高が不足しています (必要: " + 
                     currencyConverter.formatCurrency(additionalCost) + ", 所持: " + 
-                    currencyConverter.formatCurrency(totalBalance) + ")");
+                    currencyConverter.formatCurrency(bankPaid + cashBalance) + ")");
             }
             
             // 契約延長
             rental.extend(additionalDays, additionalCost);
             rentalDAO.updateRental(rental);
+            return new RentalPayment(property, rental, additionalCost, bankPaid);
+        }).thenCompose(payment -> {
+            if (payment.failure != null) {
+                return CompletableFuture.completedFuture(payment.failure);
+            }
             
-            // 支払い処理（銀行残高優先、足りない分を現金から）
-            org.tofu.tofunomics.models.Player player = playerDAO.getOrCreatePlayer(tenantUuid);
-            double bankBalance = player.getBankBalance();
-            
-            if (bankBalance >= additionalCost) {
-                // 銀行残高のみで支払い可能
-                player.removeBankBalance(additionalCost);
-                playerDAO.updatePlayer(player);
-            } else {
-                // 銀行残高+現金で支払い
-                double remainingCost = additionalCost;
-                
-                if (bankBalance > 0) {
-                    // 銀行残高を全額使用
-                    player.removeBankBalance(bankBalance);
-                    playerDAO.updatePlayer(player);
-                    remainingCost -= bankBalance;
-                }
-                
-                // 残りを現金から支払い
-                if (!currencyConverter.payWithCash(onlinePlayer, remainingCost)) {
-                    // 支払い失敗時はロールバック（銀行残高と契約状態を戻す）
-                    if (bankBalance > 0) {
-                        player.addBankBalance(bankBalance);
-                        playerDAO.updatePlayer(player);
-                    }
-                    // 契約延長を元に戻す
-                    rental.extend(-additionalDays, -additionalCost);
+            HousingRental rental = payment.rental;
+            if (!payRemainderWithCash(onlinePlayer, payment)) {
+                // 支払い失敗時はロールバック（銀行残高と契約状態を戻す）
+                return databaseExecutor.supply(propertyKey(propertyId), () -> {
+                    refundBank(tenantUuid, payment.bankPaid);
+                    rental.extend(-additionalDays, -payment.cost);
                     rentalDAO.updateRental(rental);
                     return new RentalResult(false, "支払い処理に失敗しました");
-                }
+                });
             }
             
-            // 履歴追加
-            HousingRentalHistory history = new HousingRentalHistory(
-                rental.getId(), propertyId, tenantUuid, "extend", additionalCost
-            );
-            rentalDAO.addRentalHistory(history);
+            syncSession(rental);
             
-            logger.info("契約を延長しました: 契約ID " + rental.getId() + " -> +" + additionalDays + "日");
-            
-            long realMinutes = additionalDays * 20; // 1ゲーム内日 = 20分
-            return new RentalResult(true, "契約を" + additionalDays + "日(" + realMinutes + "分)延長しました (費用: " + additionalCost + ")");
-            
-        } catch (SQLException e) {
-            logger.severe("契約延長に失敗しました: " + e.getMessage());
+            return databaseExecutor.supply(propertyKey(propertyId), () -> {
+                // 履歴追加
+                HousingRentalHistory history = new HousingRentalHistory(
+                    rental.getId(), propertyId, tenantUuid, "extend", payment.cost
+                );
+                rentalDAO.addRentalHistory(history);
+                
+                logger.info("契約を延長しました: 契約ID " + rental.getId() + " -> +" + additionalDays + "日");
+                
+                long realMinutes = additionalDays * 20; // 1ゲーム内日 = 20分
+                return new RentalResult(true, "契約を" + additionalDays + "日(" + realMinutes + "分)延長しました (費用: " + payment.cost + ")");
+            });
+        }).exceptionally(error -> {
+            logger.severe("契約延長に失敗しました: " + error.getMessage());
             return new RentalResult(false, "データベースエラーが発生しました");
-        }
+        });
     }
 
     /**
      * 契約をキャンセル
      */
-    public RentalResult cancelRental(UUID tenantUuid, int propertyId) {
-        try {
+    public CompletableFuture<RentalResult> cancelRental(UUID tenantUuid, int propertyId) {
+        return databaseExecutor.supply(propertyKey(propertyId), () -> {
             HousingRental rental = rentalDAO.getActiveRentalByProperty(propertyId);
             
             if (rental == null) {
-                return new RentalResult(false, "有効な契約が見つかりません");
+                return RentalPayment.failed("有効な契約が見つかりません");
             }
             
             if (!rental.getTenantUuid().equals(tenantUuid)) {
-                return new RentalResult(false, "この物件の契約者ではありません");
+                return RentalPayment.failed("この物件の契約者ではありません");
             }
             
             // 契約をキャンセル
@@ -358,83 +347,77 @@ public class HousingRentalManager {
             // 物件を利用可能に
             propertyDAO.updateAvailability(propertyId, true);
             
-            // WorldGuard領域からプレイヤーを削除
-            HousingProperty property = propertyDAO.getProperty(propertyId);
-            if (property != null && property.hasWorldGuardRegion() && worldGuardIntegration != null && worldGuardIntegration.isEnabled()) {
-                World world = Bukkit.getWorld(property.getWorldName());
-                if (world != null) {
-                    boolean memberRemoved = worldGuardIntegration.removeMember(
-                        property.getWorldguardRegionId(), 
-                        world, 
-                        tenantUuid
-                    );
-                    if (memberRemoved) {
-                        logger.info("プレイヤー " + tenantUuid + " をWorldGuard領域 " + property.getWorldguardRegionId() + " から削除しました");
-                    }
-                }
-            }
-            
             // 履歴追加
             HousingRentalHistory history = new HousingRentalHistory(
                 rental.getId(), propertyId, tenantUuid, "cancel", null
             );
             rentalDAO.addRentalHistory(history);
             
-            logger.info("契約をキャンセルしました: 契約ID " + rental.getId());
+            return new RentalPayment(propertyDAO.getProperty(propertyId), rental, 0.0, 0.0);
+        }).thenApply(payment -> {
+            if (payment.failure != null) {
+                return payment.failure;
+            }
+            
+            syncSession(payment.rental);
             
-            return new RentalResult(true, "契約をキャンセルしました");
+            // WorldGuard領域からプレイヤーを削除
+            removeWorldGuardMember(payment.property, tenantUuid);
             
-        } catch (SQLException e) {
-            logger.severe("契約キャンセルに失敗しました: " + e.getMessage());
+            logger.info("契約をキャンセルしました: 契約ID " + payment.rental.getId());
+            
+            return new RentalResult(true, "契約をキャンセルしました");
+        }).exceptionally(error -> {
+            logger.severe("契約キャンセルに失敗しました: " + error.getMessage());
             return new RentalResult(false, "データベースエラーが発生しました");
-        }
+        });
     }
 
     /**
      * 期限切れ契約の自動終了
+     * 契約と物件の更新はDBスレッドで行い、セッション・WorldGuard・通知への反映はメインスレッドで行う
      */
     public void processExpiredRentals() {
-        try {
-            // TofuNomicsワールドを取得
-            String worldName = plugin.getConfig().getString("housing_rental.world_name", "world");
-            World world = Bukkit.getWorld(worldName);
-            if (world == null) {
-                logger.warning("TofuNomicsワールドが見つかりません: " + worldName);
-                return;
-            }
-            
-            long currentTick = world.getFullTime();
-            List<HousingRental> expiredRentals = rentalDAO.getExpiredRentals(currentTick);
-            
-            for (HousingRental rental : expiredRentals) {
+        // TofuNomicsワールドを取得
+        String worldName = configManager.getHousingWorldName();
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            logger.warning("TofuNomicsワールドが見つかりません: " + worldName);
+            return;
+        }
+        
+        long currentTick = world.getFullTime();
+        databaseExecutor.supply(() -> {
+            List<RentalPayment> expired = new ArrayList<>();
+            for (HousingRental rental : rentalDAO.getExpiredRentals(currentTick)) {
                 rental.expire();
                 rentalDAO.updateRental(rental);
                 
                 // 物件を利用可能に
                 propertyDAO.updateAvailability(rental.getPropertyId(), true);
                 
-                // WorldGuard領域からプレイヤーを削除
-                HousingProperty property = propertyDAO.getProperty(rental.getPropertyId());
-                if (property != null && property.hasWorldGuardRegion() && worldGuardIntegration != null && worldGuardIntegration.isEnabled()) {
-                    World propertyWorld = Bukkit.getWorld(property.getWorldName());
-                    if (propertyWorld != null) {
-                        boolean memberRemoved = worldGuardIntegration.removeMember(
-                            property.getWorldguardRegionId(), 
-                            propertyWorld, 
-                            rental.getTenantUuid()
-                        );
-                        if (memberRemoved) {
-                            logger.info("プレイヤー " + rental.getTenantUuid() + " をWorldGuard領域 " + property.getWorldguardRegionId() + " から削除しました");
-                        }
-                    }
-                }
-                
                 // 履歴追加
                 HousingRentalHistory history = new HousingRentalHistory(
                     rental.getId(), rental.getPropertyId(), rental.getTenantUuid(), "expire", null
                 );
                 rentalDAO.addRentalHistory(history);
                 
+                expired.add(new RentalPayment(propertyDAO.getProperty(rental.getPropertyId()), rental, 0.0, 0.0));
+            }
+            return expired;
+        }).whenComplete((expired, error) -> {
+            if (error != null) {
+                logger.severe("期限切れ契約の処理に失敗しました: " + error.getMessage());
+                return;
+            }
+            
+            for (RentalPayment entry : expired) {
+                HousingRental rental = entry.rental;
+                syncSession(rental);
+                
+                // WorldGuard領域からプレイヤーを削除
+                removeWorldGuardMember(entry.property, rental.getTenantUuid());
+                
                 // プレイヤーに通知
                 org.bukkit.entity.Player player = Bukkit.getPlayer(rental.getTenantUuid());
                 if (player != null) {
@@ -443,24 +426,91 @@ public class HousingRentalManager {
                 
                 logger.info("契約が期限切れになりました: 契約ID " + rental.getId());
             }
-            
-        } catch (SQLException e) {
-            logger.severe("期限切れ契約の処理に失敗しました: " + e.getMessage());
+        });
+    }
+
+    /**
+     * 物件のWorldGuard領域から契約者を外す（メインスレッドで呼ぶこと）
+     */
+    private void removeWorldGuardMember(HousingProperty property, UUID tenantUuid) {
+        if (property == null || !property.hasWorldGuardRegion() || worldGuardIntegration == null || !worldGuardIntegration.isEnabled()) {
+            return;
+        }
+        World propertyWorld = Bukkit.getWorld(property.getWorldName());
+        if (propertyWorld != null) {
+            boolean memberRemoved = worldGuardIntegration.removeMember(
+                property.getWorldguardRegionId(), 
+                propertyWorld, 
+                tenantUuid
+            );
+            if (memberRemoved) {
+                logger.info("プレイヤー " + tenantUuid + " をWorldGuard領域 " + property.getWorldguardRegionId() + " から削除しました");
+            }
+        }
+    }
+
+    /**
+     * 銀行残高で払いきれなかった分を現金（金塊）で支払う（メインスレッドで呼ぶこと）
+     */
+    private boolean payRemainderWithCash(org.bukkit.entity.Player player, RentalPayment payment) {
+        double remainingCost = payment.cost - payment.bankPaid;
+        return remainingCost <= 0 || currencyConverter.payWithCash(player, remainingCost);
+    }
+
+    /**
+     * 引き落とした銀行残高を戻す
+     */
+    private void refundBank(UUID tenantUuid, double amount) throws SQLException {
+        if (amount > 0) {
+            playerDAO.adjustBankBalance(tenantUuid, amount);
         }
     }
 
+    /**
+     * 物件単位で処理を直列化するためのキー
+     */
+    private static String propertyKey(int propertyId) {
+        return "housing-property:" + propertyId;
+    }
+
     /**
      * プレイヤーの有効な契約一覧を取得
      */
     public List<HousingRental> getPlayerRentals(UUID uuid) {
         try {
-            return rentalDAO.getActiveRentalsByTenant(uuid);
+            return getActiveRentals(uuid);
         } catch (SQLException e) {
             logger.severe("契約一覧の取得に失敗しました: " + e.getMessage());
             return List.of();
         }
     }
 
+    /**
+     * 有効な契約一覧（オンライン中のプレイヤーはセッションから、それ以外はDBから）
+     */
+    private List<HousingRental> getActiveRentals(UUID tenantUuid) throws SQLException {
+        PlayerSession session = plugin.getPlayerSessionRegistry().get(tenantUuid);
+        if (session != null) {
+            return session.getActiveRentals();
+        }
+        return rentalDAO.getActiveRentalsByTenant(tenantUuid);
+    }
+
+    /**
+     * DBへ書き込んだ契約の状態を契約者のセッションへ反映する
+     */
+    private void syncSession(HousingRental rental) {
+        PlayerSession session = plugin.getPlayerSessionRegistry().get(rental.getTenantUuid());
+        if (session == null) {
+            return;
+        }
+        if ("active".equals(rental.getStatus())) {
+            session.putRental(rental);
+        } else {
+            session.removeRental(rental.getId());
+        }
+    }
+
     /**
      * 賃貸可能な物件一覧を取得
      */
@@ -561,6 +611,37 @@ public class HousingRentalManager {
         }
     }
 
+    /**
+     * DBスレッドでの確認・引き落としの結果（失敗時はfailureのみ設定）
+     */
+    private static class RentalPayment {
+        private final HousingProperty property;
+        private final HousingRental rental;
+        private final double cost;
+        private final double bankPaid;
+        private final RentalResult failure;
+
+        private RentalPayment(HousingProperty property, HousingRental rental, double cost, double bankPaid) {
+            this.property = property;
+            this.rental = rental;
+            this.cost = cost;
+            this.bankPaid = bankPaid;
+            this.failure = null;
+        }
+
+        private RentalPayment(RentalResult failure) {
+            this.property = null;
+            this.rental = null;
+            this.cost = 0.0;
+            this.bankPaid = 0.0;
+            this.failure = failure;
+        }
+
+        private static RentalPayment failed(String message) {
+            return new RentalPayment(new RentalResult(false, message));
+        }
+    }
+
     /**
      * 賃貸処理結果
      */
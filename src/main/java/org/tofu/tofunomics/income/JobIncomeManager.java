@@ -210,27 +210,17 @@ public class JobIncomeManager implements Listener {
      * プレイヤーに収入を付与
      */
     private void givePlayerIncome(org.bukkit.entity.Player player, double income, String jobName, Material material) {
-        String uuid = player.getUniqueId().toString();
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(uuid);
-            tofuPlayer.setBalance(configManager.getStartingBalance());
-            playerDAO.insertPlayer(tofuPlayer);
-        }
-        
-        tofuPlayer.addBalance(income);
-        
-        if (playerDAO.updatePlayerData(tofuPlayer)) {
-            // 5金塊以上の場合のみ収入メッセージを表示
-            if (income >= 5.0) {
-                String materialName = getMaterialDisplayName(material);
-                player.sendMessage(ChatColor.YELLOW + String.format("+ %.1f %s (%s - %s)", 
-                    income, configManager.getCurrencySymbol(), 
-                    configManager.getJobDisplayName(jobName), materialName));
-            }
-        }
+        // DBスレッドで残高に加算し、行がなければ初期残高で作成
+        playerDAO.creditBalanceAsync(player.getUniqueId(), income, configManager.getStartingBalance())
+            .whenComplete((ignored, error) -> {
+                // 5金塊以上の場合のみ収入メッセージを表示
+                if (error == null && income >= 5.0) {
+                    String materialName = getMaterialDisplayName(material);
+                    player.sendMessage(ChatColor.YELLOW + String.format("+ %.1f %s (%s - %s)", 
+                        income, configManager.getCurrencySymbol(), 
+                        configManager.getJobDisplayName(jobName), materialName));
+                }
+            });
     }
     
     /**
@@ -266,18 +256,12 @@ public class JobIncomeManager implements Listener {
             return false;
         }
         
-        String uuid = player.getUniqueId().toString();
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(uuid);
-            tofuPlayer.setBalance(configManager.getStartingBalance());
-            playerDAO.insertPlayer(tofuPlayer);
+        try {
+            playerDAO.creditBalance(player.getUniqueId(), amount, configManager.getStartingBalance());
+            return true;
+        } catch (java.sql.SQLException e) {
+            return false;
         }
-        
-        tofuPlayer.addBalance(amount);
-        return playerDAO.updatePlayerData(tofuPlayer);
     }
     
     /**
@@ -8,6 +8,7 @@ import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.io.BukkitObjectInputStream;
 import org.bukkit.util.io.BukkitObjectOutputStream;
 
+import javax.sql.DataSource;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.sql.Connection;
@@ -25,13 +26,13 @@ import java.util.logging.Logger;
 public class PlayerInventoryManager {
 
     private final JavaPlugin plugin;
-    private final Connection connection;
+    private final DataSource dataSource;
     private final Logger logger;
     private BukkitTask autoSaveTask;
 
-    public PlayerInventoryManager(JavaPlugin plugin, Connection connection) {
+    public PlayerInventoryManager(JavaPlugin plugin, DataSource dataSource) {
         this.plugin = plugin;
-        this.connection = connection;
+        this.dataSource = dataSource;
         this.logger = plugin.getLogger();
 
         // 自動保存タスクを開始（5分ごと）
@@ -58,7 +59,8 @@ public class PlayerInventoryManager {
             // データベースに保存（REPLACE INTOで既存データを上書き）
             String sql = "REPLACE INTO player_inventories (player_uuid, inventory_data, armor_data, offhand_data, last_saved) VALUES (?, ?, ?, ?, datetime('now'))";
 
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, playerUuid.toString());
                 stmt.setString(2, inventoryData);
                 stmt.setString(3, armorData);
@@ -86,7 +88,8 @@ public class PlayerInventoryManager {
             // データベースから取得
             String sql = "SELECT inventory_data, armor_data, offhand_data FROM player_inventories WHERE player_uuid = ?";
 
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, playerUuid.toString());
                 ResultSet rs = stmt.executeQuery();
 
@@ -135,7 +138,8 @@ public class PlayerInventoryManager {
         try {
             String sql = "DELETE FROM player_inventories WHERE player_uuid = ?";
 
-            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
                 stmt.setString(1, playerUuid.toString());
                 stmt.executeUpdate();
             }
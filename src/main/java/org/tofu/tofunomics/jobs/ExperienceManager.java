@@ -7,15 +7,31 @@ import org.tofu.tofunomics.models.PlayerJob;
 
 public class ExperienceManager {
     
+    // 事前計算する必要経験値のレベル数（これを超えるレベルは都度計算する）
+    private static final int CURVE_LEVELS = 256;
+    
     private final ConfigManager configManager;
     private final PlayerJobDAO playerJobDAO;
+    // レベルを添字とする必要経験値（レベルアップ判定のたびにMath.powを呼ばない）
+    private final double[] requiredExperienceCurve;
     
     public ExperienceManager(ConfigManager configManager, PlayerJobDAO playerJobDAO) {
         this.configManager = configManager;
         this.playerJobDAO = playerJobDAO;
+        this.requiredExperienceCurve = new double[CURVE_LEVELS];
+        for (int level = 0; level < CURVE_LEVELS; level++) {
+            requiredExperienceCurve[level] = computeRequiredExperience(level);
+        }
     }
     
     public double calculateRequiredExperience(int level) {
+        if (level >= 0 && level < requiredExperienceCurve.length) {
+            return requiredExperienceCurve[level];
+        }
+        return computeRequiredExperience(level);
+    }
+    
+    private static double computeRequiredExperience(int level) {
         if (level <= 1) {
             return 0.0;
         }
@@ -3,7 +3,7 @@ package org.tofu.tofunomics.jobs;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.config.ConfigManager;
-import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.trace.Tracer;
 
 import java.util.*;
 
@@ -15,6 +15,7 @@ public class JobBlockPermissionManager {
     
     private final ConfigManager configManager;
     private final JobManager jobManager;
+    private final Tracer tracer;
     
     // 基本ブロック（全職業で採掘可能）
     private final Set<Material> basicBlocks;
@@ -22,14 +23,19 @@ public class JobBlockPermissionManager {
     // 職業専用ブロック
     private final Map<String, Set<Material>> jobRestrictedBlocks;
     
-    public JobBlockPermissionManager(ConfigManager configManager, JobManager jobManager) {
+    // Materialの序数から専用ブロックの職業名を引く表（制限のない素材はnull）
+    private final String[] requiredJobByMaterial = new String[Material.values().length];
+    
+    public JobBlockPermissionManager(ConfigManager configManager, JobManager jobManager, Tracer tracer) {
         this.configManager = configManager;
         this.jobManager = jobManager;
+        this.tracer = tracer;
         this.basicBlocks = new HashSet<>();
         this.jobRestrictedBlocks = new HashMap<>();
         
         initializeBasicBlocks();
         initializeJobRestrictedBlocks();
+        defineCapabilities();
     }
     
     /**
@@ -129,48 +135,24 @@ public class JobBlockPermissionManager {
      * @return 採掘可能な場合true
      */
     public boolean canPlayerBreakBlock(Player player, Material blockType) {
-        System.out.println("=== canPlayerBreakBlock デバッグ開始 ===");
-        System.out.println("プレイヤー: " + player.getName());
-        System.out.println("ブロックタイプ: " + blockType.name());
-        
         // 職業制限システムが無効の場合は常に許可
-        boolean isRestrictionEnabled = configManager.isJobBlockRestrictionEnabled();
-        System.out.println("ブロック制限システム有効: " + isRestrictionEnabled);
-        if (!isRestrictionEnabled) {
-            System.out.println("判定結果: ブロック制限システムが無効のため許可");
+        if (!configManager.isJobBlockRestrictionEnabled()) {
             return true;
         }
         
         // 管理者権限を持つ場合は常に許可
-        boolean hasAdminPermission = player.hasPermission("tofunomics.admin.break");
-        System.out.println("管理者権限: " + hasAdminPermission);
-        if (hasAdminPermission) {
-            System.out.println("判定結果: 管理者権限のため許可");
+        if (player.hasPermission("tofunomics.admin.break")) {
             return true;
         }
         
-        // 基本ブロックの場合は常に許可
-        boolean isBasicBlock = basicBlocks.contains(blockType);
-        System.out.println("基本ブロック: " + isBasicBlock);
-        if (isBasicBlock) {
-            System.out.println("判定結果: 基本ブロックのため許可");
-            return true;
+        // 基本ブロック・制限のないブロック・就いている職業の専用ブロックはビット集合にまとめて判定する
+        boolean allowed = jobManager.getCapabilities().isAllowed(player.getUniqueId(), PlayerCapabilities.Kind.BREAK, blockType);
+        if (tracer.isEnabled(Tracer.Category.PERMISSIONS, player.getUniqueId())) {
+            tracer.trace(Tracer.Category.PERMISSIONS, player.getName(), allowed
+                ? blockType.name() + " の採掘を許可"
+                : blockType.name() + " の採掘を拒否（必要な職業: " + getRequiredJobForBlock(blockType) + "）");
         }
-        
-        // 制限ブロックかチェック
-        String requiredJob = getRequiredJobForBlock(blockType);
-        System.out.println("必要な職業: " + (requiredJob != null ? requiredJob : "なし"));
-        if (requiredJob == null) {
-            // 制限されていないブロックは誰でも採掘可能
-            System.out.println("判定結果: 制限されていないブロックのため許可");
-            return true;
-        }
-        
-        // プレイヤーが必要な職業を持っているかチェック
-        boolean hasRequiredJob = jobManager.hasJob(player, requiredJob);
-        System.out.println("必要職業の保有: " + hasRequiredJob);
-        System.out.println("判定結果: " + (hasRequiredJob ? "必要職業保有のため許可" : "必要職業なしのため拒否"));
-        return hasRequiredJob;
+        return allowed;
     }
     
     /**
@@ -180,12 +162,36 @@ public class JobBlockPermissionManager {
      * @return 必要な職業名、制限がない場合はnull
      */
     private String getRequiredJobForBlock(Material blockType) {
+        if (basicBlocks.contains(blockType)) {
+            return null;
+        }
+        return requiredJobByMaterial[blockType.ordinal()];
+    }
+    
+    /**
+     * 専用ブロックの逆引き表を作り、職業ごとの採掘許可をプレイヤー単位の判定へ登録する
+     * 基本ブロックと、どの職業の専用ブロックでもないブロックは職業を問わず許可する
+     */
+    private void defineCapabilities() {
+        Arrays.fill(requiredJobByMaterial, null);
+        Map<String, BitSet> grantsByJob = new HashMap<>();
         for (Map.Entry<String, Set<Material>> entry : jobRestrictedBlocks.entrySet()) {
-            if (entry.getValue().contains(blockType)) {
-                return entry.getKey();
+            for (Material material : entry.getValue()) {
+                if (requiredJobByMaterial[material.ordinal()] == null) {
+                    requiredJobByMaterial[material.ordinal()] = entry.getKey();
+                }
+            }
+            grantsByJob.put(entry.getKey(), PlayerCapabilities.toBits(entry.getValue()));
+        }
+        
+        BitSet alwaysAllowed = new BitSet(requiredJobByMaterial.length);
+        for (int i = 0; i < requiredJobByMaterial.length; i++) {
+            if (requiredJobByMaterial[i] == null) {
+                alwaysAllowed.set(i);
             }
         }
-        return null;
+        alwaysAllowed.or(PlayerCapabilities.toBits(basicBlocks));
+        jobManager.getCapabilities().define(PlayerCapabilities.Kind.BREAK, alwaysAllowed, grantsByJob);
     }
     
     /**
@@ -237,7 +243,7 @@ public class JobBlockPermissionManager {
      * システムのリロード（設定変更時に呼び出し）
      */
     public void reload() {
-        // 必要に応じて設定ファイルから動的読み込み
-        // 現在は静的定義のため処理なし
+        // 現在は静的定義のため、プレイヤーごとの判定結果を作り直すだけ
+        defineCapabilities();
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.trace.Tracer;
 
 import java.util.*;
 
@@ -15,18 +16,21 @@ public class JobCraftPermissionManager {
     private final JavaPlugin plugin;
     private final JobManager jobManager;
     private final ConfigManager configManager;
+    private final Tracer tracer;
     private final Map<String, Set<Material>> jobCraftableItems;
     private final Set<Material> publicCraftableItems;
     
-    public JobCraftPermissionManager(JavaPlugin plugin, JobManager jobManager, ConfigManager configManager) {
+    public JobCraftPermissionManager(JavaPlugin plugin, JobManager jobManager, ConfigManager configManager, Tracer tracer) {
         this.plugin = plugin;
         this.jobManager = jobManager;
         this.configManager = configManager;
+        this.tracer = tracer;
         this.jobCraftableItems = new HashMap<>();
         this.publicCraftableItems = new HashSet<>();
         
         initializeJobCraftableItems();
         initializePublicCraftableItems();
+        defineCapabilities();
     }
     
     /**
@@ -200,40 +204,34 @@ public class JobCraftPermissionManager {
             return false;
         }
         
-        // publicCraftableItems の null チェック
-        if (publicCraftableItems == null) {
-            plugin.getLogger().warning("publicCraftableItems が初期化されていません");
-            return false;
-        }
-        
-        // パブリック（誰でもクラフト可能）アイテムはチェック不要
-        if (publicCraftableItems.contains(material)) {
-            return true;
-        }
-        
         // jobManager の null チェック
         if (jobManager == null) {
             plugin.getLogger().warning("jobManager が初期化されていません");
             return false;
         }
         
-        // プレイヤーの職業を取得
-        String playerJob = jobManager.getPlayerJob(player.getUniqueId());
-        
-        // 無職の場合はパブリックアイテムのみ
-        if (playerJob == null) {
-            return false;
+        // パブリックアイテムと就いている職業のアイテムはビット集合にまとめて判定する（無職の場合はパブリックアイテムのみ）
+        boolean allowed = jobManager.getCapabilities().isAllowed(player.getUniqueId(), PlayerCapabilities.Kind.CRAFT, material);
+        if (tracer.isEnabled(Tracer.Category.PERMISSIONS, player.getUniqueId())) {
+            tracer.trace(Tracer.Category.PERMISSIONS, player.getName(),
+                material.name() + " のクラフトを" + (allowed ? "許可" : "拒否"));
         }
-        
-        // jobCraftableItems の null チェック
-        if (jobCraftableItems == null) {
-            plugin.getLogger().warning("jobCraftableItems が初期化されていません");
-            return false;
+        return allowed;
+    }
+    
+    /**
+     * 職業ごとのクラフト許可をプレイヤー単位の判定へ登録する
+     */
+    private void defineCapabilities() {
+        if (jobManager == null) {
+            return;
         }
-        
-        // 該当職業でクラフト可能かチェック
-        Set<Material> jobItems = jobCraftableItems.get(playerJob);
-        return jobItems != null && jobItems.contains(material);
+        Map<String, BitSet> grantsByJob = new HashMap<>();
+        for (Map.Entry<String, Set<Material>> entry : jobCraftableItems.entrySet()) {
+            grantsByJob.put(entry.getKey(), PlayerCapabilities.toBits(entry.getValue()));
+        }
+        jobManager.getCapabilities().define(PlayerCapabilities.Kind.CRAFT,
+            PlayerCapabilities.toBits(publicCraftableItems), grantsByJob);
     }
     
     /**
@@ -277,16 +275,12 @@ public class JobCraftPermissionManager {
             }
         }
         
-        plugin.getLogger().info("必要職業: " + (requiredJob != null ? requiredJob : "なし"));
-        
         if (requiredJob != null) {
             String message = configManager.getMessage("messages.craft.wrong_job_required")
                 .replace("{item}", material.name().toLowerCase())
                 .replace("{required_job}", configManager.getJobDisplayName(requiredJob))
                 .replace("{current_job}", configManager.getJobDisplayName(playerJob));
             
-            plugin.getLogger().info("職業違いメッセージ: " + message);
-            
             // フォールバック処理
             if (message.startsWith("メッセージが見つかりません:")) {
                 String fallbackMessage = "§c" + material.name().toLowerCase() + "をクラフトするには" + 
@@ -299,7 +293,6 @@ public class JobCraftPermissionManager {
         }
         
         String message = configManager.getMessage("messages.craft.item_not_craftable");
-        plugin.getLogger().info("クラフト不可メッセージ: " + message);
         
         // フォールバック処理
         if (message.startsWith("メッセージが見つかりません:")) {
@@ -6,11 +6,15 @@ import org.tofu.tofunomics.dao.JobDAO;
 import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.dao.PlayerJobDAO;
 import org.tofu.tofunomics.dao.JobChangeDAO;
+import org.tofu.tofunomics.models.PlayerSession;
+import org.tofu.tofunomics.players.PlayerSessionRegistry;
 import org.tofu.tofunomics.models.Job;
 import org.tofu.tofunomics.models.PlayerJob;
 import org.tofu.tofunomics.TofuNomics;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 public class JobManager {
@@ -20,14 +24,80 @@ public class JobManager {
     private final PlayerDAO playerDAO;
     private final PlayerJobDAO playerJobDAO;
     private final JobChangeDAO jobChangeDAO;
+    // オンライン中のプレイヤーの職業変更日はセッションから読む
+    private final PlayerSessionRegistry sessions;
+    // jobsテーブルのスナップショット（リロード時に差し替える）
+    private volatile JobRegistry jobRegistry = JobRegistry.empty();
+    // 職業ごとの採掘・クラフト許可をプレイヤー単位で合成したもの（職業の変更・再読み込みで破棄する）
+    private final PlayerCapabilities capabilities = new PlayerCapabilities(this::loadJobNames);
     
     public JobManager(ConfigManager configManager, JobDAO jobDAO, PlayerDAO playerDAO, 
                      PlayerJobDAO playerJobDAO, JobChangeDAO jobChangeDAO) {
+        this(configManager, jobDAO, playerDAO, playerJobDAO, jobChangeDAO, new PlayerSessionRegistry());
+    }
+    
+    public JobManager(ConfigManager configManager, JobDAO jobDAO, PlayerDAO playerDAO, 
+                     PlayerJobDAO playerJobDAO, JobChangeDAO jobChangeDAO, PlayerSessionRegistry sessions) {
         this.configManager = configManager;
         this.jobDAO = jobDAO;
         this.playerDAO = playerDAO;
         this.playerJobDAO = playerJobDAO;
         this.jobChangeDAO = jobChangeDAO;
+        this.sessions = sessions;
+        reloadJobRegistry();
+    }
+    
+    /**
+     * jobsテーブルを読み直してスナップショットを差し替える
+     * 読み込みに失敗した場合は現在のスナップショットを維持する
+     * @return 読み込みに成功した場合はtrue
+     */
+    public boolean reloadJobRegistry() {
+        try {
+            jobRegistry = JobRegistry.load(jobDAO);
+            capabilities.invalidateAll();
+            return true;
+        } catch (java.sql.SQLException e) {
+            Logger logger = getLogger();
+            if (logger != null) {
+                logger.severe("職業データの読み込みに失敗しました: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+    
+    public JobRegistry getJobRegistry() {
+        return jobRegistry;
+    }
+    
+    public PlayerCapabilities getCapabilities() {
+        return capabilities;
+    }
+    
+    /**
+     * 許可素材の合成に使うプレイヤーの職業名（読み込みに失敗した場合はnull）
+     */
+    private List<String> loadJobNames(UUID uuid) {
+        List<PlayerJob> playerJobs;
+        try {
+            playerJobs = playerJobDAO.getPlayerJobs(uuid);
+        } catch (java.sql.SQLException e) {
+            return null;
+        }
+        JobRegistry registry = jobRegistry;
+        List<String> jobNames = new ArrayList<>(playerJobs.size());
+        for (PlayerJob playerJob : playerJobs) {
+            Job job = registry.getById(playerJob.getJobId());
+            if (job != null) {
+                jobNames.add(job.getName());
+            }
+        }
+        return jobNames;
+    }
+    
+    private static Logger getLogger() {
+        TofuNomics plugin = TofuNomics.getInstance();
+        return plugin != null ? plugin.getLogger() : null;
     }
     
     public enum JobJoinResult {
@@ -42,7 +112,7 @@ public class JobManager {
     public JobJoinResult joinJob(Player player, String jobName) {
         String uuid = player.getUniqueId().toString();
         
-        Job job = jobDAO.getJobByNameSafe(jobName);
+        Job job = jobRegistry.getByName(jobName);
         if (job == null) {
             return JobJoinResult.JOB_NOT_FOUND;
         }
@@ -85,6 +155,7 @@ public class JobManager {
         if (!playerJobDAO.insertPlayerJob(playerJob)) {
             return JobJoinResult.DATABASE_ERROR;
         }
+        capabilities.invalidate(player.getUniqueId());
         
         return JobJoinResult.SUCCESS;
     }
@@ -100,11 +171,11 @@ public class JobManager {
         String uuid = player.getUniqueId().toString();
         
         if (configManager.isDailyJobChangeLimitEnabled() && 
-            !jobChangeDAO.canPlayerChangeJobToday(uuid)) {
+            !canPlayerChangeJobToday(player)) {
             return JobLeaveResult.DAILY_LIMIT_EXCEEDED;
         }
         
-        Job job = jobDAO.getJobByNameSafe(jobName);
+        Job job = jobRegistry.getByName(jobName);
         if (job == null) {
             return JobLeaveResult.NO_SUCH_JOB;
         }
@@ -117,9 +188,14 @@ public class JobManager {
         if (!playerJobDAO.deletePlayerJob(uuid, job.getId())) {
             return JobLeaveResult.DATABASE_ERROR;
         }
+        capabilities.invalidate(player.getUniqueId());
         
         if (configManager.isDailyJobChangeLimitEnabled()) {
             jobChangeDAO.recordJobChangeToday(uuid);
+            PlayerSession session = sessions.get(player.getUniqueId());
+            if (session != null) {
+                session.recordJobChangeToday();
+            }
         }
         
         return JobLeaveResult.SUCCESS;
@@ -130,7 +206,7 @@ public class JobManager {
     }
     
     public PlayerJob getPlayerJob(Player player, String jobName) {
-        Job job = jobDAO.getJobByNameSafe(jobName);
+        Job job = jobRegistry.getByName(jobName);
         if (job == null) {
             return null;
         }
@@ -138,27 +214,28 @@ public class JobManager {
         return playerJobDAO.getPlayerJob(player.getUniqueId().toString(), job.getId());
     }
     
+    /**
+     * 職業に就いているか（ブロックごとに複数回呼ばれるため、行のコピーを作らない判定を使う）
+     */
     public boolean hasJob(Player player, String jobName) {
-        PlayerJob playerJob = getPlayerJob(player, jobName);
-        return playerJob != null;
+        Job job = jobRegistry.getByName(jobName);
+        if (job == null) {
+            return false;
+        }
+        
+        return playerJobDAO.hasPlayerJob(player.getUniqueId().toString(), job.getId());
     }
     
     public List<Job> getAllJobs() {
-        return jobDAO.getAllJobsSafe();
+        return jobRegistry.getAllJobs();
     }
     
     public Job getJobByName(String jobName) {
-        return jobDAO.getJobByNameSafe(jobName);
+        return jobRegistry.getByName(jobName);
     }
     
     public Job getJobById(int jobId) {
-        try {
-            return jobDAO.getJobById(jobId);
-        } catch (java.sql.SQLException e) {
-            // エラーログを出力してnullを返す
-            System.err.println("Failed to get job by id: " + jobId + " - " + e.getMessage());
-            return null;
-        }
+        return jobRegistry.getById(jobId);
     }
     
     public PlayerJob getCurrentJob(java.util.UUID uuid) {
@@ -179,7 +256,7 @@ public class JobManager {
             return null;
         }
         
-        Job job = jobDAO.getJobByIdSafe(currentJob.getJobId());
+        Job job = jobRegistry.getById(currentJob.getJobId());
         return job != null ? job.getName() : null;
     }
     
@@ -188,6 +265,14 @@ public class JobManager {
             return true;
         }
         
+        return canPlayerChangeJobToday(player);
+    }
+    
+    private boolean canPlayerChangeJobToday(Player player) {
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session != null) {
+            return session.canChangeJobToday();
+        }
         return jobChangeDAO.canPlayerChangeJobToday(player.getUniqueId().toString());
     }
     
@@ -216,7 +301,7 @@ public class JobManager {
     }
     
     public boolean isValidJobName(String jobName) {
-        return jobDAO.getJobByNameSafe(jobName) != null;
+        return jobRegistry.getByName(jobName) != null;
     }
     
     public String[] getJobNames() {
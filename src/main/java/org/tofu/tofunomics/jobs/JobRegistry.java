@@ -0,0 +1,129 @@
+package org.tofu.tofunomics.jobs;
+
+import org.tofu.tofunomics.dao.JobDAO;
+import org.tofu.tofunomics.models.Job;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * jobsテーブルの不変スナップショット
+ * 起動時とリロード時に1回だけ読み込み、職業ID・職業名・職業タイプからの参照をDBへ問い合わせずに返す。
+ * 再読み込み時は新しいインスタンスを作って差し替えるため、参照側はロックなしで使える。
+ * 返すJobは全スレッドで共有するインスタンスのため変更しないこと
+ */
+public final class JobRegistry {
+
+    private static final JobRegistry EMPTY = new JobRegistry(Collections.emptyList());
+
+    // 職業IDを添字とする配列（欠番はnull）
+    private final Job[] byId;
+    private final Map<String, Job> byName;
+    // JobTypeの序数を添字とする配列（jobsテーブルにない職業はnull）
+    private final Job[] byType;
+    private final JobType[] typeById;
+    private final List<Job> jobs;
+
+    JobRegistry(List<Job> source) {
+        int maxId = 0;
+        for (Job job : source) {
+            maxId = Math.max(maxId, job.getId());
+        }
+        this.byId = new Job[maxId + 1];
+        this.typeById = new JobType[maxId + 1];
+        this.byName = new HashMap<>(source.size() * 4 / 3 + 1);
+        this.byType = new Job[JobType.values().length];
+
+        List<Job> copies = new ArrayList<>(source.size());
+        for (Job job : source) {
+            Job copy = copyOf(job);
+            copies.add(copy);
+            if (copy.getId() >= 0) {
+                byId[copy.getId()] = copy;
+            }
+            byName.put(copy.getName(), copy);
+            JobType type = JobType.fromName(copy.getName());
+            if (type != null) {
+                byType[type.ordinal()] = copy;
+                if (copy.getId() >= 0) {
+                    typeById[copy.getId()] = type;
+                }
+            }
+        }
+        this.jobs = Collections.unmodifiableList(copies);
+    }
+
+    /**
+     * jobsテーブルを読み込んでスナップショットを作成する
+     */
+    public static JobRegistry load(JobDAO jobDAO) throws SQLException {
+        return new JobRegistry(jobDAO.getAllJobs());
+    }
+
+    public static JobRegistry empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return 該当する職業がない場合はnull
+     */
+    public Job getById(int jobId) {
+        return jobId >= 0 && jobId < byId.length ? byId[jobId] : null;
+    }
+
+    /**
+     * @return 該当する職業がない場合はnull
+     */
+    public Job getByName(String jobName) {
+        return jobName != null ? byName.get(jobName) : null;
+    }
+
+    /**
+     * @return jobsテーブルにない職業タイプの場合はnull
+     */
+    public Job getByType(JobType type) {
+        return type != null ? byType[type.ordinal()] : null;
+    }
+
+    /**
+     * 職業名から職業IDを取得する
+     * @return 該当する職業がない場合は-1
+     */
+    public int getJobId(String jobName) {
+        Job job = getByName(jobName);
+        return job != null ? job.getId() : -1;
+    }
+
+    /**
+     * @return 職業IDに対応する職業タイプ（該当しない場合はnull）
+     */
+    public JobType getType(int jobId) {
+        return jobId >= 0 && jobId < typeById.length ? typeById[jobId] : null;
+    }
+
+    /**
+     * @return 職業ID順の全職業（変更不可）
+     */
+    public List<Job> getAllJobs() {
+        return jobs;
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    private static Job copyOf(Job source) {
+        Job copy = new Job();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDisplayName(source.getDisplayName());
+        copy.setMaxLevel(source.getMaxLevel());
+        copy.setBaseIncome(source.getBaseIncome());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
+    }
+}
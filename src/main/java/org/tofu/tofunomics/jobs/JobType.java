@@ -0,0 +1,53 @@
+package org.tofu.tofunomics.jobs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 職業タイプの定義（jobsテーブルの name と対応する）
+ * 文字列の職業名を毎回比較せず、序数で配列を引けるようにする
+ */
+public enum JobType {
+
+    MINER("miner"),
+    WOODCUTTER("woodcutter"),
+    FARMER("farmer"),
+    FISHERMAN("fisherman"),
+    BLACKSMITH("blacksmith"),
+    ALCHEMIST("alchemist"),
+    ENCHANTER("enchanter"),
+    ARCHITECT("architect");
+
+    private static final Map<String, JobType> BY_NAME = new HashMap<>();
+
+    static {
+        for (JobType type : values()) {
+            BY_NAME.put(type.name, type);
+        }
+    }
+
+    private final String name;
+
+    JobType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * jobsテーブル上の職業名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 職業名から職業タイプを取得する（大文字小文字は区別しない）
+     * @return 該当する職業タイプがない場合はnull
+     */
+    public static JobType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        JobType type = BY_NAME.get(name);
+        return type != null ? type : BY_NAME.get(name.toLowerCase());
+    }
+}
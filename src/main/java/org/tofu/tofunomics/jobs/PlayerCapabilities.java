@@ -0,0 +1,153 @@
+package org.tofu.tofunomics.jobs;
+
+import org.bukkit.Material;
+import org.tofu.tofunomics.performance.StatsRegistry;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * プレイヤーごとの採掘・クラフト可能な素材をMaterialの序数のビット集合で保持する
+ * 職業ごとの許可素材を合成した結果をキャッシュし、ブロック破壊・クラフトのたびの判定をビット1つの参照で済ませる。
+ * 就職・離職、職業データの再読み込み、退出で破棄し、次の判定時に作り直す
+ */
+public class PlayerCapabilities {
+
+    /**
+     * 判定の種類
+     */
+    public enum Kind {
+        BREAK,
+        CRAFT
+    }
+
+    private static final int KINDS = Kind.values().length;
+    private static final int MATERIAL_COUNT = Material.values().length;
+    private static final BitSet EMPTY = new BitSet(0);
+    // 1ビット集合あたりの概算（配列ヘッダ + Material数分のlong）
+    private static final long BIT_SET_BYTES = 40L + ((MATERIAL_COUNT + 63) / 64) * 8L;
+
+    /**
+     * 職業を問わず許可する素材と、職業ごとに追加で許可する素材（定義し直すときは丸ごと差し替える）
+     */
+    private static final class Rules {
+        private final BitSet[] base = new BitSet[KINDS];
+        private final List<Map<String, BitSet>> byJob = new ArrayList<>(KINDS);
+
+        private Rules(Rules previous) {
+            for (int i = 0; i < KINDS; i++) {
+                base[i] = previous != null ? previous.base[i] : EMPTY;
+                byJob.add(previous != null ? previous.byJob.get(i) : new HashMap<>());
+            }
+        }
+    }
+
+    // プレイヤーの職業名の読み込み（読み込みに失敗した場合はnullを返し、結果をキャッシュしない）
+    private final Function<UUID, List<String>> jobNamesLoader;
+    private final Map<UUID, BitSet[]> byPlayer = new ConcurrentHashMap<>();
+    private volatile Rules rules = new Rules(null);
+
+    public PlayerCapabilities(Function<UUID, List<String>> jobNamesLoader) {
+        this.jobNamesLoader = jobNamesLoader;
+    }
+
+    /**
+     * 判定の種類ごとの許可素材を定義する（定義済みの内容は置き換え、全プレイヤーの結果を破棄する）
+     * @param base 職業を問わず許可する素材
+     * @param byJob 職業名ごとに追加で許可する素材
+     */
+    public synchronized void define(Kind kind, BitSet base, Map<String, BitSet> byJob) {
+        Rules updated = new Rules(rules);
+        updated.base[kind.ordinal()] = (BitSet) base.clone();
+        Map<String, BitSet> jobs = new HashMap<>();
+        for (Map.Entry<String, BitSet> entry : byJob.entrySet()) {
+            jobs.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        updated.byJob.set(kind.ordinal(), jobs);
+        rules = updated;
+        invalidateAll();
+    }
+
+    /**
+     * 素材の集合をMaterialの序数のビット集合へ変換する
+     */
+    public static BitSet toBits(Collection<Material> materials) {
+        BitSet bits = new BitSet(MATERIAL_COUNT);
+        for (Material material : materials) {
+            bits.set(material.ordinal());
+        }
+        return bits;
+    }
+
+    /**
+     * 指定の素材が許可されているか
+     */
+    public boolean isAllowed(UUID uuid, Kind kind, Material material) {
+        return get(uuid)[kind.ordinal()].get(material.ordinal());
+    }
+
+    private BitSet[] get(UUID uuid) {
+        BitSet[] capabilities = byPlayer.computeIfAbsent(uuid, this::build);
+        if (capabilities != null) {
+            return capabilities;
+        }
+        // 職業を読み込めなかった場合は、職業を問わない許可だけで判定する
+        return rules.base;
+    }
+
+    private BitSet[] build(UUID uuid) {
+        Rules current = rules;
+        List<String> jobNames = jobNamesLoader.apply(uuid);
+        if (jobNames == null) {
+            return null;
+        }
+
+        BitSet[] capabilities = new BitSet[KINDS];
+        for (int i = 0; i < KINDS; i++) {
+            BitSet merged = current.base[i];
+            for (String jobName : jobNames) {
+                BitSet granted = current.byJob.get(i).get(jobName);
+                if (granted == null || granted.isEmpty()) {
+                    continue;
+                }
+                // 無職・追加許可のない職業のプレイヤーは共通のビット集合を共有する
+                if (merged == current.base[i]) {
+                    merged = (BitSet) merged.clone();
+                }
+                merged.or(granted);
+            }
+            capabilities[i] = merged;
+        }
+        return capabilities;
+    }
+
+    /**
+     * プレイヤーの結果を破棄する（職業の変更時・退出時）
+     */
+    public void invalidate(UUID uuid) {
+        byPlayer.remove(uuid);
+    }
+
+    /**
+     * 全プレイヤーの結果を破棄する（職業データ・許可素材の再読み込み時）
+     */
+    public void invalidateAll() {
+        byPlayer.clear();
+    }
+
+    public int size() {
+        return byPlayer.size();
+    }
+
+    public void registerStats(StatsRegistry registry) {
+        registry.register("jobs.player_capabilities", () -> StatsRegistry.Stats.collection(byPlayer.size(),
+            byPlayer.size() * (StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.UUID_BYTES + KINDS * BIT_SET_BYTES)));
+    }
+}
@@ -0,0 +1,107 @@
+package org.tofu.tofunomics.models;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * オンライン中のプレイヤーのセッションデータモデル
+ * ログイン前（AsyncPlayerPreLoginEvent）に1回だけDBから読み込み、退出するまでメモリ上に保持する。
+ * 残高と職業の行はPlayerStateStoreが正となるため、ここではそれ以外の
+ * ルール同意・職業変更日・有効な賃貸契約・ログイン情報を保持する
+ */
+public class PlayerSession {
+
+    private final UUID uuid;
+    private final boolean newPlayer;
+    private final Timestamp previousLoginAt;
+    private volatile boolean rulesAgreed;
+    private volatile JobChange jobChange;
+    // 変更時は新しいリストに置き換える（読み出し側はロックなしで参照できる）
+    private volatile List<HousingRental> activeRentals;
+
+    public PlayerSession(UUID uuid, boolean newPlayer, Timestamp previousLoginAt, boolean rulesAgreed,
+                         JobChange jobChange, List<HousingRental> activeRentals) {
+        this.uuid = uuid;
+        this.newPlayer = newPlayer;
+        this.previousLoginAt = previousLoginAt;
+        this.rulesAgreed = rulesAgreed;
+        this.jobChange = jobChange;
+        this.activeRentals = Collections.unmodifiableList(new ArrayList<>(activeRentals));
+    }
+
+    public UUID getUuid() { return uuid; }
+
+    /**
+     * 今回のログインでplayers行を作成したか
+     */
+    public boolean isNewPlayer() { return newPlayer; }
+
+    /**
+     * 前回のログイン日時（新規プレイヤーの場合はnull）
+     */
+    public Timestamp getPreviousLoginAt() { return previousLoginAt; }
+
+    /**
+     * 前回のログインから指定日数以上経過しているか（復帰プレイヤー判定用）
+     */
+    public boolean isReturning(int daysThreshold, long now) {
+        if (previousLoginAt == null) {
+            return false;
+        }
+        long daysBetween = (now - previousLoginAt.getTime()) / (24 * 60 * 60 * 1000);
+        return daysBetween >= daysThreshold;
+    }
+
+    // ========== ルール同意 ==========
+
+    public boolean hasAgreedToRules() { return rulesAgreed; }
+    public void setRulesAgreed(boolean rulesAgreed) { this.rulesAgreed = rulesAgreed; }
+
+    // ========== 職業変更 ==========
+
+    public boolean canChangeJobToday() {
+        JobChange current = jobChange;
+        return current == null || current.canChangeJobToday();
+    }
+
+    /**
+     * 今日職業を変更したことを記録する（DBへの記録は呼び出し側で行う）
+     */
+    public void recordJobChangeToday() {
+        jobChange = new JobChange(uuid.toString(), JobChange.getTodayDateString());
+    }
+
+    // ========== 賃貸契約 ==========
+
+    public List<HousingRental> getActiveRentals() { return activeRentals; }
+
+    /**
+     * 契約を追加または置き換える（同じ契約IDがあれば置き換える）
+     */
+    public synchronized void putRental(HousingRental rental) {
+        List<HousingRental> rentals = new ArrayList<>(activeRentals);
+        rentals.removeIf(existing -> existing.getId() == rental.getId());
+        rentals.add(rental);
+        activeRentals = Collections.unmodifiableList(rentals);
+    }
+
+    public synchronized void removeRental(int rentalId) {
+        List<HousingRental> rentals = new ArrayList<>(activeRentals);
+        if (rentals.removeIf(existing -> existing.getId() == rentalId)) {
+            activeRentals = Collections.unmodifiableList(rentals);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerSession{" +
+                "uuid=" + uuid +
+                ", newPlayer=" + newPlayer +
+                ", rulesAgreed=" + rulesAgreed +
+                ", activeRentals=" + activeRentals.size() +
+                '}';
+    }
+}
@@ -0,0 +1,41 @@
+package org.tofu.tofunomics.models;
+
+/**
+ * 取引の集計結果データモデル（日次集計テーブルから読み出す）
+ * keyは集計の単位（プレイヤー別ならUUID、アイテム別ならアイテム種別）
+ */
+public class TradeSummary {
+
+    private final String key;
+    private final int tradeCount;
+    private final long itemAmount;
+    private final double saleTotal;
+    private final double bonusTotal;
+
+    public TradeSummary(String key, int tradeCount, long itemAmount, double saleTotal, double bonusTotal) {
+        this.key = key;
+        this.tradeCount = tradeCount;
+        this.itemAmount = itemAmount;
+        this.saleTotal = saleTotal;
+        this.bonusTotal = bonusTotal;
+    }
+
+    public String getKey() { return key; }
+    public int getTradeCount() { return tradeCount; }
+    public long getItemAmount() { return itemAmount; }
+    public double getSaleTotal() { return saleTotal; }
+    public double getBonusTotal() { return bonusTotal; }
+
+    /**
+     * 合計売却金額を取得（基本価格＋職業ボーナス）
+     */
+    public double getTotalEarnings() {
+        return saleTotal + bonusTotal;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TradeSummary{key='%s', trades=%d, amount=%d, total=%.2f}",
+                           key, tradeCount, itemAmount, getTotalEarnings());
+    }
+}
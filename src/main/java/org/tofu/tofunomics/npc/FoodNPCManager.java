@@ -10,6 +10,7 @@ import org.tofu.tofunomics.TofuNomics;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.economy.CurrencyConverter;
 import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.performance.StatsRegistry;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -573,6 +574,26 @@ public class FoodNPCManager {
         return foodStores.get(npcId);
     }
 
+    /**
+     * 食料店・日次購入履歴・在庫のマップを統計の登録簿へ登録する
+     */
+    public void registerStats(StatsRegistry registry) {
+        registry.register("npc.food_stores", () -> {
+            long priceEntries = 0L;
+            for (FoodStore store : foodStores.values()) {
+                priceEntries += store.getItemPrices().size();
+            }
+            // 1店あたり: マップのエントリ・UUID・店データ（名前・Location・価格マップ本体）
+            long bytes = foodStores.size() * (StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.UUID_BYTES + 200L)
+                + priceEntries * (StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.BOXED_NUMBER_BYTES);
+            return StatsRegistry.Stats.collection(foodStores.size(), bytes);
+        });
+        registry.register("npc.food_daily_purchases", () -> StatsRegistry.Stats.collection(dailyPurchases.size(),
+            StatsRegistry.estimateNestedMapBytes(dailyPurchases, StatsRegistry.UUID_BYTES, StatsRegistry.BOXED_NUMBER_BYTES)));
+        registry.register("npc.food_store_inventories", () -> StatsRegistry.Stats.collection(storeInventories.size(),
+            StatsRegistry.estimateNestedMapBytes(storeInventories, StatsRegistry.UUID_BYTES, StatsRegistry.BOXED_NUMBER_BYTES)));
+    }
+
     /**
      * 手動スポーンされたNPCをFoodNPCManagerに登録
      */
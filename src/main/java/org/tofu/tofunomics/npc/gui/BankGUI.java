@@ -12,6 +12,7 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.tofu.tofunomics.TofuNomics;
 import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.database.DatabaseExecutor;
 import org.tofu.tofunomics.economy.CurrencyConverter;
 import org.tofu.tofunomics.economy.ItemManager;
 import org.tofu.tofunomics.npc.NPCManager;
@@ -25,6 +26,7 @@ public class BankGUI implements Listener {
     private final ConfigManager configManager;
     private final CurrencyConverter currencyConverter;
     private final ItemManager itemManager;
+    private final DatabaseExecutor databaseExecutor;
     
     private final Map<UUID, BankGUISession> activeSessions = new ConcurrentHashMap<>();
     
@@ -34,6 +36,24 @@ public class BankGUI implements Listener {
         this.configManager = configManager;
         this.currencyConverter = currencyConverter;
         this.itemManager = itemManager;
+        this.databaseExecutor = plugin.getDatabaseManager().getDatabaseExecutor();
+    }
+    
+    /**
+     * 引き出し処理の結果（DBスレッドで判定し、メインスレッドでアイテムを渡す）
+     */
+    private static class WithdrawOutcome {
+        private enum Status { SUCCESS, INSUFFICIENT_BALANCE, EXCEEDS_MAX, FAILED }
+        
+        private final Status status;
+        private final double amount;
+        private final double remainingBalance;
+        
+        private WithdrawOutcome(Status status, double amount, double remainingBalance) {
+            this.status = status;
+            this.amount = amount;
+            this.remainingBalance = remainingBalance;
+        }
     }
     
     private static class BankGUISession {
@@ -85,19 +105,17 @@ public class BankGUI implements Listener {
     }
     
     private void setupBankGUIItems(Inventory gui, Player player) {
-        // 残高表示
-        double balance = currencyConverter.getBalance(player.getUniqueId());
-        String balanceText = currencyConverter.formatCurrency(balance);
-        
-        ItemStack balanceItem = createGUIItem(
+        // 残高表示（DBから取得できるまでは読み込み中表示）
+        gui.setItem(4, createGUIItem(
             Material.GOLD_INGOT,
             "§6残高照会",
             Arrays.asList(
-                "§f現在の残高: §a" + balanceText,
+                "§f現在の残高: §7読み込み中...",
                 "§7クリックして更新"
             )
-        );
-        gui.setItem(4, balanceItem);
+        ));
+        databaseExecutor.supply(() -> currencyConverter.getBalance(player.getUniqueId()))
+            .thenAccept(balance -> updateBalanceItem(gui, balance));
         
         // 引き出しボタン
         ItemStack withdrawItem = createGUIItem(
@@ -190,6 +208,20 @@ public class BankGUI implements Listener {
         }
     }
     
+    private void updateBalanceItem(Inventory gui, double balance) {
+        String balanceText = currencyConverter.formatCurrency(balance);
+        
+        ItemStack balanceItem = createGUIItem(
+            Material.GOLD_INGOT,
+            "§6残高照会",
+            Arrays.asList(
+                "§f現在の残高: §a" + balanceText,
+                "§7クリックして更新"
+            )
+        );
+        gui.setItem(4, balanceItem);
+    }
+    
     private ItemStack createGUIItem(Material material, String name, List<String> lore) {
         ItemStack item = new ItemStack(material);
         ItemMeta meta = item.getItemMeta();
@@ -275,15 +307,17 @@ public class BankGUI implements Listener {
     }
     
     private void handleBalanceCheck(Player player, BankGUISession session) {
-        double balance = currencyConverter.getBalance(player.getUniqueId());
-        String balanceText = currencyConverter.formatCurrency(balance);
-        
-        player.sendMessage(configManager.getMessage("economy.balance_self", 
-            "amount", balanceText, 
-            "currency", configManager.getCurrencyName()));
-        
-        // GUIアイテムも更新
-        setupBankGUIItems(session.getInventory(), player);
+        databaseExecutor.supply(() -> currencyConverter.getBalance(player.getUniqueId()))
+            .thenAccept(balance -> {
+                String balanceText = currencyConverter.formatCurrency(balance);
+                
+                player.sendMessage(configManager.getMessage("economy.balance_self", 
+                    "amount", balanceText, 
+                    "currency", configManager.getCurrencyName()));
+                
+                // GUIアイテムも更新
+                updateBalanceItem(session.getInventory(), balance);
+            });
     }
     
     private void handleWithdraw(Player player, BankGUISession session, 
@@ -310,44 +344,70 @@ public class BankGUI implements Listener {
                 return;
         }
         
-        double balance = currencyConverter.getBalance(player.getUniqueId());
-        
-        if (balance <= 0) {
-            player.sendMessage(configManager.getMessage("insufficient_balance"));
-            return;
-        }
-        
-        // 全額引き出しまたは残高が引き出し額より少ない場合は残高分を引き出し
-        double amount;
-        if (withdrawAll || balance < requestedAmount) {
-            amount = balance;
-        } else {
-            amount = requestedAmount;
-        }
-        
+        final double withdrawRequest = requestedAmount;
+        final boolean withdrawEntireBalance = withdrawAll;
         double maxWithdraw = configManager.getMaxWithdrawAmount();
-        if (amount > maxWithdraw) {
-            player.sendMessage(configManager.getMessage("economy.exceed_max_withdraw", 
-                "max_amount", currencyConverter.formatCurrency(maxWithdraw)));
-            return;
-        }
         
-        // 引き出し処理
-        if (currencyConverter.subtractBalance(player.getUniqueId(), amount)) {
+        // 残高確認から引き落としまではDBスレッドで同一プレイヤー単位に直列実行
+        databaseExecutor.supply(player.getUniqueId(), () -> {
+            double balance = currencyConverter.getBalance(player.getUniqueId());
+            
+            if (balance <= 0) {
+                return new WithdrawOutcome(WithdrawOutcome.Status.INSUFFICIENT_BALANCE, 0.0, balance);
+            }
+            
+            // 全額引き出しまたは残高が引き出し額より少ない場合は残高分を引き出し
+            double amount;
+            if (withdrawEntireBalance || balance < withdrawRequest) {
+                amount = balance;
+            } else {
+                amount = withdrawRequest;
+            }
+            
+            if (amount > maxWithdraw) {
+                return new WithdrawOutcome(WithdrawOutcome.Status.EXCEEDS_MAX, amount, balance);
+            }
+            
+            // 引き出し処理（残高確認と減算はDAOのロック内で行われ、その間に減っていれば失敗する）
+            if (currencyConverter.subtractBalance(player.getUniqueId(), amount)) {
+                return new WithdrawOutcome(WithdrawOutcome.Status.SUCCESS, amount,
+                    currencyConverter.getBalance(player.getUniqueId()));
+            }
+            double current = currencyConverter.getBalance(player.getUniqueId());
+            if (current < amount) {
+                return new WithdrawOutcome(WithdrawOutcome.Status.INSUFFICIENT_BALANCE, amount, current);
+            }
+            return new WithdrawOutcome(WithdrawOutcome.Status.FAILED, amount, current);
+        }).whenComplete((outcome, error) -> {
+            if (error != null || outcome.status == WithdrawOutcome.Status.FAILED) {
+                player.sendMessage(configManager.getMessage("npc.bank.withdraw_failed"));
+                return;
+            }
+            
+            switch (outcome.status) {
+                case INSUFFICIENT_BALANCE:
+                    player.sendMessage(configManager.getMessage("insufficient_balance"));
+                    return;
+                case EXCEEDS_MAX:
+                    player.sendMessage(configManager.getMessage("economy.exceed_max_withdraw", 
+                        "max_amount", currencyConverter.formatCurrency(maxWithdraw)));
+                    return;
+                default:
+                    break;
+            }
+            
             // 金インゴットではなく豆腐コイン（カスタム金塊）を作成
-            ItemStack tofuCoins = itemManager.createGoldNugget((int) amount);
+            ItemStack tofuCoins = itemManager.createGoldNugget((int) outcome.amount);
             player.getInventory().addItem(tofuCoins);
             
-            String amountText = currencyConverter.formatCurrency(amount);
+            String amountText = currencyConverter.formatCurrency(outcome.amount);
             player.sendMessage(configManager.getMessage("economy.withdraw_success", 
                 "amount", amountText, 
                 "currency", configManager.getCurrencyName()));
             
             // GUIを更新
-            setupBankGUIItems(session.getInventory(), player);
-        } else {
-            player.sendMessage(configManager.getMessage("npc.bank.withdraw_failed"));
-        }
+            updateBalanceItem(session.getInventory(), outcome.remainingBalance);
+        });
     }
     
     private void handleDeposit(Player player, BankGUISession session, 
@@ -406,16 +466,29 @@ public class BankGUI implements Listener {
             }
         }
         
-        // 残高に追加
-        currencyConverter.addBalance(player.getUniqueId(), depositAmount);
-        
-        String amountText = currencyConverter.formatCurrency(depositAmount);
-        player.sendMessage(configManager.getMessage("economy.deposit_success", 
-            "amount", amountText, 
-            "currency", configManager.getCurrencyName()));
-        
-        // GUIを更新
-        setupBankGUIItems(session.getInventory(), player);
+        // 残高に追加（DBスレッド）
+        final int depositedAmount = depositAmount;
+        databaseExecutor.supply(player.getUniqueId(), () -> {
+            if (!currencyConverter.addBalance(player.getUniqueId(), depositedAmount)) {
+                return null;
+            }
+            return currencyConverter.getBalance(player.getUniqueId());
+        }).whenComplete((newBalance, error) -> {
+            if (error != null || newBalance == null) {
+                // 預け入れに失敗した場合は回収した豆腐コインを返却
+                player.getInventory().addItem(itemManager.createGoldNugget(depositedAmount));
+                player.sendMessage(configManager.getMessage("npc.bank.action_error"));
+                return;
+            }
+            
+            String amountText = currencyConverter.formatCurrency(depositedAmount);
+            player.sendMessage(configManager.getMessage("economy.deposit_success", 
+                "amount", amountText, 
+                "currency", configManager.getCurrencyName()));
+            
+            // GUIを更新
+            updateBalanceItem(session.getInventory(), newBalance);
+        });
     }
     
     private void handlePayInfo(Player player) {
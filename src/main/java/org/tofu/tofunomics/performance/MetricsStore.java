@@ -0,0 +1,625 @@
+package org.tofu.tofunomics.performance;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+
+/**
+ * パフォーマンスメトリクスの時系列ストア
+ * メトリクスごとに1秒・1分・1時間の3段階の固定長リングバッファで集計値（最小・最大・合計・件数）を保持する
+ * 1分・1時間の集計は確定するたびに追記専用のバイナリファイルへ書き出し、起動時に読み戻す（SQLiteへは書き込まない）
+ * 1秒の集計はメモリ上のみで保持する
+ *
+ * リングバッファはこのオブジェクトのロックで保護し、ロック中はメモリ上の操作だけを行う。
+ * ファイルへの追記・書き直しは監視スレッドから {@link #flush()} で行い、別のロックで直列化する
+ * （メインスレッドの記録や /tofunomics perf の取得がファイル操作を待たないようにするため）。
+ * メインスレッドからは {@link #submit(String, double, long)} でロックを取らずに渡し、監視スレッドが反映する
+ */
+public class MetricsStore {
+
+    /**
+     * 集計の段階
+     */
+    public enum Tier {
+        SECOND(1000L),
+        MINUTE(60_000L),
+        HOUR(3_600_000L);
+
+        private final long resolution;
+
+        Tier(long resolution) {
+            this.resolution = resolution;
+        }
+
+        public long getResolution() {
+            return resolution;
+        }
+    }
+
+    /**
+     * 1区間分の集計値（不変）
+     */
+    public static final class MetricPoint {
+        private final long timestamp;
+        private final double min;
+        private final double max;
+        private final double sum;
+        private final int count;
+
+        public MetricPoint(long timestamp, double min, double max, double sum, int count) {
+            this.timestamp = timestamp;
+            this.min = min;
+            this.max = max;
+            this.sum = sum;
+            this.count = count;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+        public double getSum() { return sum; }
+        public int getCount() { return count; }
+        public double getAverage() { return count == 0 ? 0.0 : sum / count; }
+    }
+
+    private static final int FILE_MAGIC = 0x544E4D53; // "TNMS"
+    private static final byte FILE_VERSION = 1;
+    private static final byte RECORD_NAME = 0;
+    private static final byte RECORD_BUCKET = 1;
+
+    /**
+     * メインスレッドから渡された未反映の値
+     */
+    private static final class Sample {
+        private final String name;
+        private final double value;
+        private final long timestamp;
+
+        private Sample(String name, double value, long timestamp) {
+            this.name = name;
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * ファイルへ書き出す1レコード（ロック外で書き出すため値を写し取っておく）
+     */
+    private static final class FileRecord {
+        private final int metricId;
+        private final String name;   // 名前レコードの場合のみ
+        private final int tier;
+        private final long start;
+        private final double min;
+        private final double max;
+        private final double sum;
+        private final int count;
+
+        private FileRecord(int metricId, String name) {
+            this(metricId, name, -1, 0L, 0.0, 0.0, 0.0, 0);
+        }
+
+        private FileRecord(int metricId, String name, int tier, long start, double min, double max, double sum, int count) {
+            this.metricId = metricId;
+            this.name = name;
+            this.tier = tier;
+            this.start = start;
+            this.min = min;
+            this.max = max;
+            this.sum = sum;
+            this.count = count;
+        }
+
+        private static FileRecord bucket(MetricSeries metric, Tier tier, RingBuffer buffer, int index) {
+            return new FileRecord(metric.id, null, tier.ordinal(), buffer.starts[index],
+                buffer.mins[index], buffer.maxs[index], buffer.sums[index], buffer.counts[index]);
+        }
+    }
+
+    /**
+     * 1段階分のリングバッファ（配列は生成時に確保し、記録時に割り当てを行わない）
+     */
+    private static final class RingBuffer {
+        private final long resolution;
+        private final long[] starts;
+        private final double[] mins;
+        private final double[] maxs;
+        private final double[] sums;
+        private final int[] counts;
+        private int head = -1;
+        private int size;
+
+        private RingBuffer(long resolution, int capacity) {
+            this.resolution = resolution;
+            this.starts = new long[capacity];
+            this.mins = new double[capacity];
+            this.maxs = new double[capacity];
+            this.sums = new double[capacity];
+            this.counts = new int[capacity];
+        }
+
+        /**
+         * 値を現在の区間へ加算する
+         * @return 区間が切り替わった場合は確定した区間の位置、それ以外は-1
+         */
+        private int add(long timestamp, double value) {
+            long start = timestamp - Math.floorMod(timestamp, resolution);
+            if (size > 0 && start <= starts[head]) {
+                // 時計が戻った場合も現在の区間へ加算する
+                mins[head] = Math.min(mins[head], value);
+                maxs[head] = Math.max(maxs[head], value);
+                sums[head] += value;
+                counts[head]++;
+                return -1;
+            }
+            int closed = head;
+            advance(start, value, value, value, 1);
+            return closed;
+        }
+
+        /**
+         * ファイルから読み戻した区間を入れる（同じ区間は後から書かれた値で置き換える）
+         */
+        private void put(long start, double min, double max, double sum, int count) {
+            if (size > 0 && start < starts[head]) {
+                return;
+            }
+            if (size > 0 && start == starts[head]) {
+                mins[head] = min;
+                maxs[head] = max;
+                sums[head] = sum;
+                counts[head] = count;
+                return;
+            }
+            advance(start, min, max, sum, count);
+        }
+
+        private void advance(long start, double min, double max, double sum, int count) {
+            head = (head + 1) % starts.length;
+            starts[head] = start;
+            mins[head] = min;
+            maxs[head] = max;
+            sums[head] = sum;
+            counts[head] = count;
+            if (size < starts.length) {
+                size++;
+            }
+        }
+
+        private long getSpan() {
+            return resolution * starts.length;
+        }
+
+        /**
+         * 古い順にi番目の位置
+         */
+        private int indexOf(int i) {
+            return Math.floorMod(head - size + 1 + i, starts.length);
+        }
+
+        private MetricPoint pointAt(int index) {
+            return new MetricPoint(starts[index], mins[index], maxs[index], sums[index], counts[index]);
+        }
+
+        private void collect(long from, long to, List<MetricPoint> points) {
+            for (int i = 0; i < size; i++) {
+                int index = indexOf(i);
+                if (starts[index] + resolution > from && starts[index] <= to) {
+                    points.add(pointAt(index));
+                }
+            }
+        }
+    }
+
+    /**
+     * 1メトリクス分の系列
+     */
+    private static final class MetricSeries {
+        private final int id;
+        private final String name;
+        private final RingBuffer[] tiers;
+        private double lastValue;
+        private long lastTimestamp;
+
+        private MetricSeries(int id, String name, int[] capacities) {
+            this.id = id;
+            this.name = name;
+            this.tiers = new RingBuffer[Tier.values().length];
+            for (Tier tier : Tier.values()) {
+                tiers[tier.ordinal()] = new RingBuffer(tier.getResolution(), Math.max(1, capacities[tier.ordinal()]));
+            }
+        }
+    }
+
+    private final File file;
+    private final int[] capacities;
+    private final long maxFileBytes;
+    private final Logger logger;
+
+    // リングバッファ（このオブジェクトのロックで保護）
+    private final Map<String, MetricSeries> series = new HashMap<>();
+    private final List<MetricSeries> seriesById = new ArrayList<>();
+    // 確定してまだファイルへ書き出していないレコード（このオブジェクトのロックで保護）
+    private List<FileRecord> unwritten = new ArrayList<>();
+    private boolean fileEnabled;
+
+    // メインスレッドから渡された未反映の値
+    private final Queue<Sample> submitted = new ConcurrentLinkedQueue<>();
+
+    // ファイル（ioLockで保護）
+    private final Object ioLock = new Object();
+    private DataOutputStream output;
+    private long fileBytes;
+    // 直近の書き直し直後の大きさ（リングバッファの内容だけで上限を超える場合に書き直しを繰り返さないため）
+    private long compactedBytes;
+
+    /**
+     * @param file 1分・1時間の集計を書き出すファイル（nullの場合はメモリ上のみ）
+     * @param maxFileBytes ファイルがこの大きさを超えたらリングバッファの内容だけで書き直す
+     */
+    public MetricsStore(File file, int secondCapacity, int minuteCapacity, int hourCapacity, long maxFileBytes, Logger logger) {
+        this.file = file;
+        this.capacities = new int[] { secondCapacity, minuteCapacity, hourCapacity };
+        this.maxFileBytes = maxFileBytes;
+        this.logger = logger;
+    }
+
+    /**
+     * ファイルを読み戻し、追記用に開く
+     */
+    public void open() {
+        if (file == null) {
+            return;
+        }
+        synchronized (ioLock) {
+            synchronized (this) {
+                if (file.exists()) {
+                    load();
+                }
+                fileEnabled = true;
+                unwritten.clear();
+            }
+            // 読み戻した内容だけで書き直し、前回までの重複や途中で切れた末尾を取り除く
+            compact();
+        }
+    }
+
+    /**
+     * 値を記録する（メモリ上のみ。確定した区間は次の {@link #flush()} でファイルへ書き出す）
+     */
+    public synchronized void record(String name, double value, long timestamp) {
+        MetricSeries metric = getOrCreateSeries(name);
+        metric.lastValue = value;
+        metric.lastTimestamp = timestamp;
+        for (Tier tier : Tier.values()) {
+            RingBuffer buffer = metric.tiers[tier.ordinal()];
+            int closed = buffer.add(timestamp, value);
+            if (closed >= 0 && tier != Tier.SECOND && fileEnabled) {
+                unwritten.add(FileRecord.bucket(metric, tier, buffer, closed));
+            }
+        }
+    }
+
+    /**
+     * 値をロックを取らずに渡す（メインスレッド用。{@link #drainSubmitted()} で反映される）
+     */
+    public void submit(String name, double value, long timestamp) {
+        submitted.offer(new Sample(name, value, timestamp));
+    }
+
+    /**
+     * 渡された値をリングバッファへ反映する（監視スレッドから定期的に呼ぶ）
+     */
+    public void drainSubmitted() {
+        if (submitted.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            Sample sample;
+            while ((sample = submitted.poll()) != null) {
+                record(sample.name, sample.value, sample.timestamp);
+            }
+        }
+    }
+
+    /**
+     * 期間内の集計値を古い順に返す
+     * 期間全体を保持している最も細かい段階を使い、maxPoints件を超える場合は隣り合う区間をまとめる
+     */
+    public synchronized List<MetricPoint> query(String name, long from, long to, int maxPoints) {
+        List<MetricPoint> points = new ArrayList<>();
+        MetricSeries metric = series.get(name);
+        if (metric == null) {
+            return points;
+        }
+        long range = Math.max(0, to - from);
+        RingBuffer buffer = metric.tiers[Tier.HOUR.ordinal()];
+        for (Tier tier : Tier.values()) {
+            if (metric.tiers[tier.ordinal()].getSpan() >= range) {
+                buffer = metric.tiers[tier.ordinal()];
+                break;
+            }
+        }
+        buffer.collect(from, to, points);
+        return downsample(points, maxPoints);
+    }
+
+    /**
+     * 最新の値（未記録ならnull）
+     */
+    public synchronized MetricPoint getLatest(String name) {
+        MetricSeries metric = series.get(name);
+        if (metric == null || metric.lastTimestamp == 0) {
+            return null;
+        }
+        return new MetricPoint(metric.lastTimestamp, metric.lastValue, metric.lastValue, metric.lastValue, 1);
+    }
+
+    public synchronized List<String> getMetricNames() {
+        return new ArrayList<>(new TreeSet<>(series.keySet()));
+    }
+
+    /**
+     * 渡された値を反映し、確定した区間をファイルへ追記する（監視スレッドから呼ぶ）
+     * 上限を超えた場合はリングバッファの内容だけで書き直す
+     */
+    public void flush() {
+        drainSubmitted();
+        synchronized (ioLock) {
+            writeUnwritten();
+            if (output == null) {
+                return;
+            }
+            try {
+                output.flush();
+            } catch (IOException e) {
+                closeOnError(e);
+            }
+        }
+    }
+
+    /**
+     * 未確定の1分・1時間の区間も書き出してファイルを閉じる（次回起動時は同じ区間を置き換えて読み戻す）
+     */
+    public void close() {
+        drainSubmitted();
+        synchronized (ioLock) {
+            synchronized (this) {
+                for (MetricSeries metric : seriesById) {
+                    for (Tier tier : new Tier[] { Tier.MINUTE, Tier.HOUR }) {
+                        RingBuffer buffer = metric.tiers[tier.ordinal()];
+                        if (buffer.size > 0 && fileEnabled) {
+                            unwritten.add(FileRecord.bucket(metric, tier, buffer, buffer.head));
+                        }
+                    }
+                }
+                fileEnabled = false;
+            }
+            writeUnwritten();
+            if (output == null) {
+                return;
+            }
+            try {
+                output.close();
+            } catch (IOException e) {
+                logger.warning("メトリクスファイルを閉じられませんでした: " + e.getMessage());
+            }
+            output = null;
+        }
+    }
+
+    public long getFileSize() {
+        synchronized (ioLock) {
+            return fileBytes;
+        }
+    }
+
+    // ========== 内部処理 ==========
+
+    private MetricSeries getOrCreateSeries(String name) {
+        MetricSeries metric = series.get(name);
+        if (metric == null) {
+            metric = new MetricSeries(seriesById.size(), name, capacities);
+            series.put(name, metric);
+            seriesById.add(metric);
+            if (fileEnabled) {
+                unwritten.add(new FileRecord(metric.id, name));
+            }
+        }
+        return metric;
+    }
+
+    private static List<MetricPoint> downsample(List<MetricPoint> points, int maxPoints) {
+        if (maxPoints <= 0 || points.size() <= maxPoints) {
+            return points;
+        }
+        int groupSize = (points.size() + maxPoints - 1) / maxPoints;
+        List<MetricPoint> merged = new ArrayList<>(maxPoints);
+        for (int i = 0; i < points.size(); i += groupSize) {
+            MetricPoint first = points.get(i);
+            double min = first.getMin();
+            double max = first.getMax();
+            double sum = 0.0;
+            int count = 0;
+            for (int j = i; j < Math.min(i + groupSize, points.size()); j++) {
+                MetricPoint point = points.get(j);
+                min = Math.min(min, point.getMin());
+                max = Math.max(max, point.getMax());
+                sum += point.getSum();
+                count += point.getCount();
+            }
+            merged.add(new MetricPoint(first.getTimestamp(), min, max, sum, count));
+        }
+        return merged;
+    }
+
+    /**
+     * 確定したレコードを取り出して追記する（ioLockを保持して呼ぶ。リングバッファのロックは取り出しの間だけ取る）
+     */
+    private void writeUnwritten() {
+        List<FileRecord> records;
+        synchronized (this) {
+            if (unwritten.isEmpty()) {
+                return;
+            }
+            records = unwritten;
+            unwritten = new ArrayList<>();
+        }
+        if (output == null) {
+            return;
+        }
+        try {
+            int before = output.size();
+            for (FileRecord record : records) {
+                writeRecord(output, record);
+            }
+            fileBytes += output.size() - before;
+        } catch (IOException e) {
+            closeOnError(e);
+            return;
+        }
+        if (fileBytes > maxFileBytes && fileBytes > compactedBytes * 2) {
+            compact();
+        }
+    }
+
+    private void load() {
+        Map<Integer, MetricSeries> idMap = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != FILE_MAGIC || input.readByte() != FILE_VERSION) {
+                logger.warning("メトリクスファイルの形式が異なるため読み込みません: " + file.getName());
+                return;
+            }
+            while (true) {
+                byte type = input.readByte();
+                if (type == RECORD_NAME) {
+                    int id = input.readUnsignedShort();
+                    idMap.put(id, getOrCreateSeries(input.readUTF()));
+                } else if (type == RECORD_BUCKET) {
+                    int tier = input.readByte();
+                    int id = input.readUnsignedShort();
+                    long start = input.readLong();
+                    double min = input.readDouble();
+                    double max = input.readDouble();
+                    double sum = input.readDouble();
+                    int count = input.readInt();
+                    MetricSeries metric = idMap.get(id);
+                    if (metric != null && tier > 0 && tier < Tier.values().length) {
+                        metric.tiers[tier].put(start, min, max, sum, count);
+                    }
+                } else {
+                    logger.warning("メトリクスファイルに不明なレコードがあるため以降を読み飛ばします");
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            // 末尾まで読み込んだ（書き込み途中で停止した場合の不完全なレコードも含む）
+        } catch (IOException e) {
+            logger.warning("メトリクスファイルの読み込みに失敗しました: " + e.getMessage());
+        }
+        for (MetricSeries metric : seriesById) {
+            RingBuffer minute = metric.tiers[Tier.MINUTE.ordinal()];
+            if (minute.size > 0) {
+                int index = minute.head;
+                metric.lastValue = minute.counts[index] == 0 ? 0.0 : minute.sums[index] / minute.counts[index];
+                metric.lastTimestamp = minute.starts[index];
+            }
+        }
+    }
+
+    /**
+     * リングバッファに残っている1分・1時間の区間だけでファイルを書き直す（一時ファイルから置き換える）
+     * ioLockを保持して呼ぶ。リングバッファの内容は写し取りの間だけロックし、書き込みはロック外で行う
+     */
+    private void compact() {
+        List<FileRecord> snapshot = new ArrayList<>();
+        synchronized (this) {
+            for (MetricSeries metric : seriesById) {
+                snapshot.add(new FileRecord(metric.id, metric.name));
+                for (Tier tier : new Tier[] { Tier.MINUTE, Tier.HOUR }) {
+                    RingBuffer buffer = metric.tiers[tier.ordinal()];
+                    for (int i = 0; i < buffer.size; i++) {
+                        snapshot.add(FileRecord.bucket(metric, tier, buffer, buffer.indexOf(i)));
+                    }
+                }
+            }
+        }
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException ignored) {
+                // 書き直すため閉じられなくても続行する
+            }
+            output = null;
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeByte(FILE_VERSION);
+                for (FileRecord record : snapshot) {
+                    writeRecord(out, record);
+                }
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+            fileBytes = file.length();
+            compactedBytes = fileBytes;
+        } catch (IOException e) {
+            logger.warning("メトリクスファイルを書き直せませんでした（以降はメモリ上のみで保持します）: " + e.getMessage());
+            output = null;
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, FileRecord record) throws IOException {
+        if (record.name != null) {
+            out.writeByte(RECORD_NAME);
+            out.writeShort(record.metricId);
+            out.writeUTF(record.name);
+            return;
+        }
+        out.writeByte(RECORD_BUCKET);
+        out.writeByte(record.tier);
+        out.writeShort(record.metricId);
+        out.writeLong(record.start);
+        out.writeDouble(record.min);
+        out.writeDouble(record.max);
+        out.writeDouble(record.sum);
+        out.writeInt(record.count);
+    }
+
+    private void closeOnError(IOException e) {
+        logger.warning("メトリクスファイルへの書き込みに失敗しました（以降はメモリ上のみで保持します）: " + e.getMessage());
+        try {
+            output.close();
+        } catch (IOException ignored) {
+            // 既に書き込めない状態のため無視する
+        }
+        output = null;
+    }
+}
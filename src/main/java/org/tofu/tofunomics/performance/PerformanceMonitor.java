@@ -9,10 +9,11 @@ import org.tofu.tofunomics.cache.CacheManager;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.database.HikariDatabaseManager;
 
+import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.OperatingSystemMXBean;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -23,6 +24,7 @@ import java.util.logging.Logger;
 /**
  * パフォーマンス監視システム
  * CPU、メモリ、TPS、データベース、キャッシュのリアルタイム監視
+ * 収集した値はMetricsStore（リングバッファと専用のバイナリファイル）へ記録し、SQLiteへは書き込まない
  */
 public class PerformanceMonitor {
     
@@ -45,8 +47,8 @@ public class PerformanceMonitor {
     // 監視スケジューラ
     private final ScheduledExecutorService monitorScheduler;
     
-    // 統計データ
-    private final ConcurrentHashMap<String, PerformanceMetric> metrics;
+    // 統計データ（1秒・1分・1時間の時系列）
+    private final MetricsStore metricsStore;
     
     // アラート機能
     private final AlertManager alertManager;
@@ -76,9 +78,6 @@ public class PerformanceMonitor {
         // TPS計算機
         this.tpsCalculator = new TpsCalculator();
         
-        // メトリクス保存
-        this.metrics = new ConcurrentHashMap<>();
-        
         // アラートマネージャ
         this.alertManager = new AlertManager(plugin, configManager);
         
@@ -92,6 +91,19 @@ public class PerformanceMonitor {
         // 設定読み込み
         loadConfiguration();
         
+        // メトリクス保存
+        this.metricsStore = new MetricsStore(
+            new File(plugin.getDataFolder(), "metrics.bin"),
+            configManager.getMetricsSecondSamples(),
+            configManager.getMetricsMinuteSamples(),
+            configManager.getStatisticsRetentionDays() * 24,
+            configManager.getMetricsFileMaxSizeMb() * 1024L * 1024L,
+            logger
+        );
+        if (statisticsEnabled) {
+            metricsStore.open();
+        }
+        
         // 監視開始
         startMonitoring();
     }
@@ -120,10 +132,18 @@ public class PerformanceMonitor {
         // TPS監視を開始（1秒間隔）
         tpsCalculator.startMonitoring();
         
+        // 取得の軽いメトリクス（TPS・メモリ）は1秒ごとに記録
+        monitorScheduler.scheduleAtFixedRate(this::collectFastMetrics, 
+                1, 1, TimeUnit.SECONDS);
+        
         // メトリクス収集タスク（設定間隔で実行）
         monitorScheduler.scheduleAtFixedRate(this::collectMetrics, 
                 10, collectionInterval, TimeUnit.SECONDS);
         
+        // メトリクスファイルへの書き出し（1分ごと）
+        monitorScheduler.scheduleAtFixedRate(metricsStore::flush, 
+                60, 60, TimeUnit.SECONDS);
+        
         // リアルタイム監視タスク（30秒間隔）
         if (realtimeMonitoringEnabled) {
             monitorScheduler.scheduleAtFixedRate(this::performRealtimeChecks, 
@@ -133,6 +153,23 @@ public class PerformanceMonitor {
         logger.info("パフォーマンス監視システムを開始しました。");
     }
     
+    /**
+     * 1秒ごとのメトリクス収集（メインスレッドから渡された値もここで反映する）
+     */
+    private void collectFastMetrics() {
+        try {
+            metricsStore.drainSubmitted();
+            long timestamp = System.currentTimeMillis();
+            addMetric("minecraft.tps", tpsCalculator.getTPS(), timestamp);
+            
+            long usedMemory = memoryBean.getHeapMemoryUsage().getUsed();
+            long maxMemory = memoryBean.getHeapMemoryUsage().getMax();
+            addMetric("system.memory_usage", maxMemory > 0 ? ((double) usedMemory / maxMemory) * 100 : 0, timestamp);
+        } catch (Exception e) {
+            logger.warning("メトリクス収集中にエラーが発生しました: " + e.getMessage());
+        }
+    }
+    
     /**
      * メトリクス収集
      */
@@ -143,8 +180,8 @@ public class PerformanceMonitor {
             // システムメトリクス
             collectSystemMetrics(timestamp);
             
-            // Minecraftメトリクス
-            collectMinecraftMetrics(timestamp);
+            // Minecraftメトリクス（ワールドの参照はメインスレッドで行う）
+            Bukkit.getScheduler().runTask(plugin, () -> collectMinecraftMetrics(timestamp));
             
             // データベースメトリクス
             collectDatabaseMetrics(timestamp);
@@ -155,9 +192,6 @@ public class PerformanceMonitor {
             // バッチ処理メトリクス
             collectBatchMetrics(timestamp);
             
-            // 古いメトリクスを削除（メモリ使用量を制限）
-            cleanupOldMetrics(timestamp);
-            
         } catch (Exception e) {
             logger.warning("メトリクス収集中にエラーが発生しました: " + e.getMessage());
         }
@@ -185,11 +219,9 @@ public class PerformanceMonitor {
             // CPU情報取得失敗時はスキップ
         }
         
-        // メモリ使用率
+        // メモリ使用量（使用率は1秒ごとに記録）
         long usedMemory = memoryBean.getHeapMemoryUsage().getUsed();
         long maxMemory = memoryBean.getHeapMemoryUsage().getMax();
-        double memoryUsage = maxMemory > 0 ? ((double) usedMemory / maxMemory) * 100 : 0;
-        addMetric("system.memory_usage", memoryUsage, timestamp);
         addMetric("system.memory_used", usedMemory / (1024 * 1024), timestamp); // MB
         addMetric("system.memory_max", maxMemory / (1024 * 1024), timestamp); // MB
         
@@ -204,10 +236,6 @@ public class PerformanceMonitor {
      * Minecraftメトリクス収集
      */
     private void collectMinecraftMetrics(long timestamp) {
-        // TPS
-        double tps = tpsCalculator.getTPS();
-        addMetric("minecraft.tps", tps, timestamp);
-        
         // プレイヤー数
         int onlinePlayers = Bukkit.getOnlinePlayers().size();
         addMetric("minecraft.players_online", onlinePlayers, timestamp);
@@ -237,6 +265,7 @@ public class PerformanceMonitor {
             addMetric("database.failed_queries", dbStats.getFailedQueries(), timestamp);
             addMetric("database.average_query_time", dbStats.getAverageQueryTime(), timestamp);
             addMetric("database.success_rate", dbStats.getSuccessRate() * 100, timestamp);
+            addMetric("database.statement_cache_hit_rate", dbStats.getStatementCacheHitRate() * 100, timestamp);
         }
     }
     
@@ -278,7 +307,7 @@ public class PerformanceMonitor {
     private void performRealtimeChecks() {
         try {
             // CPU使用率チェック
-            PerformanceMetric cpuMetric = metrics.get("system.cpu_usage");
+            PerformanceMetric cpuMetric = getLatestMetric("system.cpu_usage");
             if (cpuMetric != null && cpuMetric.getValue() > cpuThreshold) {
                 alertManager.sendAlert(AlertLevel.WARNING, 
                         "CPU使用率が高いです", 
@@ -286,7 +315,7 @@ public class PerformanceMonitor {
             }
             
             // メモリ使用率チェック
-            PerformanceMetric memoryMetric = metrics.get("system.memory_usage");
+            PerformanceMetric memoryMetric = getLatestMetric("system.memory_usage");
             if (memoryMetric != null && memoryMetric.getValue() > memoryThreshold) {
                 alertManager.sendAlert(AlertLevel.WARNING, 
                         "メモリ使用率が高いです", 
@@ -294,7 +323,7 @@ public class PerformanceMonitor {
             }
             
             // TPS低下チェック
-            PerformanceMetric tpsMetric = metrics.get("minecraft.tps");
+            PerformanceMetric tpsMetric = getLatestMetric("minecraft.tps");
             if (tpsMetric != null && tpsMetric.getValue() < tpsThreshold) {
                 alertManager.sendAlert(AlertLevel.CRITICAL, 
                         "TPS低下が発生しています", 
@@ -302,7 +331,7 @@ public class PerformanceMonitor {
             }
             
             // データベース失敗率チェック
-            PerformanceMetric dbSuccessRate = metrics.get("database.success_rate");
+            PerformanceMetric dbSuccessRate = getLatestMetric("database.success_rate");
             if (dbSuccessRate != null && dbSuccessRate.getValue() < 95.0) {
                 alertManager.sendAlert(AlertLevel.WARNING, 
                         "データベースエラー率が高いです", 
@@ -315,20 +344,29 @@ public class PerformanceMonitor {
     }
     
     /**
-     * メトリクス追加
+     * メトリクス追加（メインスレッドからも呼ばれるためロックを取らずに渡し、反映とファイルへの書き出しは監視スレッドで行う）
      */
     private void addMetric(String name, double value, long timestamp) {
-        metrics.put(name, new PerformanceMetric(name, value, timestamp));
+        metricsStore.submit(name, value, timestamp);
     }
     
     /**
-     * 古いメトリクスをクリーンアップ
+     * メトリクスの最新値（未記録ならnull）
      */
-    private void cleanupOldMetrics(long currentTimestamp) {
-        long retentionTime = 7 * 24 * 60 * 60 * 1000; // 7日間
-        long cutoffTime = currentTimestamp - retentionTime;
-        
-        metrics.entrySet().removeIf(entry -> entry.getValue().getTimestamp() < cutoffTime);
+    public PerformanceMetric getLatestMetric(String name) {
+        MetricsStore.MetricPoint latest = metricsStore.getLatest(name);
+        return latest != null ? new PerformanceMetric(name, latest.getAverage(), latest.getTimestamp()) : null;
+    }
+    
+    /**
+     * 期間内のメトリクスを古い順に取得（maxPoints件を超える場合は区間をまとめる）
+     */
+    public List<MetricsStore.MetricPoint> queryMetric(String name, long from, long to, int maxPoints) {
+        return metricsStore.query(name, from, to, maxPoints);
+    }
+    
+    public List<String> getMetricNames() {
+        return metricsStore.getMetricNames();
     }
     
     /**
@@ -336,10 +374,10 @@ public class PerformanceMonitor {
      */
     public PerformanceReport generateReport() {
         return new PerformanceReport(
-            metrics.get("system.cpu_usage"),
-            metrics.get("system.memory_usage"),
-            metrics.get("minecraft.tps"),
-            metrics.get("minecraft.players_online"),
+            getLatestMetric("system.cpu_usage"),
+            getLatestMetric("system.memory_usage"),
+            getLatestMetric("minecraft.tps"),
+            getLatestMetric("minecraft.players_online"),
             databaseManager != null ? databaseManager.getStatistics() : null,
             cacheManager != null ? cacheManager.getStatistics() : null,
             batchProcessor != null ? batchProcessor.getStatistics() : null
@@ -347,17 +385,11 @@ public class PerformanceMonitor {
     }
     
     /**
-     * 統計データをデータベースに永続化
+     * 統計データをメトリクスファイルに書き出す（ゲームデータと書き込みロックを取り合わないようSQLiteは使わない）
      */
     public void persistStatistics() {
-        // バッチ処理を使用して統計データを保存
-        for (PerformanceMetric metric : metrics.values()) {
-            batchProcessor.queueOperation(
-                OptimizedBatchProcessor.BatchOperationType.PERFORMANCE_STATS,
-                "system", // プレイヤーUUIDの代わりにsystemを使用
-                metric.getName(),
-                metric.getValue()
-            );
+        if (!monitorScheduler.isShutdown()) {
+            monitorScheduler.execute(metricsStore::flush);
         }
     }
     
@@ -373,9 +405,6 @@ public class PerformanceMonitor {
      * シャットダウン処理
      */
     public void shutdown() {
-        // 統計データを永続化
-        persistStatistics();
-        
         // TPS計算を停止
         tpsCalculator.stopMonitoring();
         
@@ -389,6 +418,9 @@ public class PerformanceMonitor {
             monitorScheduler.shutdownNow();
         }
         
+        // 未確定の区間も含めて統計データを書き出す
+        metricsStore.close();
+        
         logger.info("パフォーマンス監視システムをシャットダウンしました。");
     }
     
@@ -0,0 +1,225 @@
+package org.tofu.tofunomics.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * メモリ上のキャッシュ・キューの統計を一か所に集める登録簿
+ * 各サブシステムが名前と統計の取得方法を登録し、/tofunomics stats と stats.json への書き出しが同じ値を参照する。
+ * 値は参照されたときにだけ各ソースから読むため、登録によって通常処理のコストは増えない
+ */
+public class StatsRegistry {
+
+    /**
+     * 該当しない・計測していない項目の値
+     */
+    public static final long UNKNOWN = -1L;
+
+    // 推定サイズの計算に使う概算値（64bit JVM・圧縮参照を想定）
+    public static final long MAP_ENTRY_BYTES = 48L;
+    public static final long HASH_MAP_BYTES = 64L;
+    public static final long UUID_BYTES = 32L;
+    public static final long BOXED_NUMBER_BYTES = 16L;
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-z0-9_.]+");
+
+    /**
+     * 統計の取得方法（呼び出し元のスレッドで実行されるため、軽量な読み取りだけを行うこと）
+     */
+    @FunctionalInterface
+    public interface StatsSource {
+        Stats snapshot();
+    }
+
+    private final Map<String, StatsSource> sources = new ConcurrentSkipListMap<>();
+    private final Logger logger;
+
+    public StatsRegistry(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * 統計ソースを登録する（同じ名前で登録し直した場合は置き換える）
+     * @param name "cache.players" のような英小文字・数字・ドット・アンダースコアの名前
+     */
+    public void register(String name, StatsSource source) {
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            throw new IllegalArgumentException("統計名に使えない文字が含まれています: " + name);
+        }
+        sources.put(name, source);
+    }
+
+    public void unregister(String name) {
+        sources.remove(name);
+    }
+
+    /**
+     * 全ソースの現在値を名前順に取得する（取得に失敗したソースは除外する）
+     */
+    public Map<String, Stats> snapshotAll() {
+        Map<String, Stats> snapshots = new LinkedHashMap<>();
+        for (Map.Entry<String, StatsSource> entry : sources.entrySet()) {
+            try {
+                snapshots.put(entry.getKey(), entry.getValue().snapshot());
+            } catch (RuntimeException e) {
+                logger.warning("統計の取得に失敗しました: " + entry.getKey() + " (" + e.getMessage() + ")");
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * 推定サイズの合計（推定できないソースは含まない）
+     */
+    public static long getTotalEstimatedBytes(Map<String, Stats> snapshots) {
+        long total = 0L;
+        for (Stats stats : snapshots.values()) {
+            if (stats.getEstimatedBytes() > 0) {
+                total += stats.getEstimatedBytes();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 値がマップのマップの推定サイズ（内側のキーはenumや共有された文字列で、新たな領域を使わないものとする）
+     * @param keyBytes 外側のキー1つの大きさ
+     * @param innerValueBytes 内側の値1つの大きさ
+     */
+    public static long estimateNestedMapBytes(Map<?, ? extends Map<?, ?>> map, long keyBytes, long innerValueBytes) {
+        long outer = 0L;
+        long inner = 0L;
+        for (Map<?, ?> value : map.values()) {
+            outer++;
+            inner += value.size();
+        }
+        return outer * (MAP_ENTRY_BYTES + keyBytes + HASH_MAP_BYTES) + inner * (MAP_ENTRY_BYTES + innerValueBytes);
+    }
+
+    /**
+     * 全ソースの現在値をJSONで書き出す（一時ファイルへ書いてから置き換える）
+     */
+    public Map<String, Stats> writeDump(File file) throws IOException {
+        Map<String, Stats> snapshots = snapshotAll();
+        Runtime runtime = Runtime.getRuntime();
+
+        StringBuilder json = new StringBuilder(256 + snapshots.size() * 160);
+        json.append("{\n");
+        json.append("  \"generated_at\": ").append(System.currentTimeMillis()).append(",\n");
+        json.append("  \"heap_used_bytes\": ").append(runtime.totalMemory() - runtime.freeMemory()).append(",\n");
+        json.append("  \"heap_max_bytes\": ").append(runtime.maxMemory()).append(",\n");
+        json.append("  \"total_estimated_bytes\": ").append(getTotalEstimatedBytes(snapshots)).append(",\n");
+        json.append("  \"sources\": {");
+        boolean first = true;
+        for (Map.Entry<String, Stats> entry : snapshots.entrySet()) {
+            json.append(first ? "\n" : ",\n");
+            json.append("    \"").append(entry.getKey()).append("\": ");
+            entry.getValue().appendJson(json);
+            first = false;
+        }
+        json.append(first ? "}\n" : "\n  }\n");
+        json.append("}\n");
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("出力先のフォルダを作成できません: " + parent);
+        }
+        File temporary = new File(file.getPath() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(json.toString());
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return snapshots;
+    }
+
+    /**
+     * 1つのキャッシュ・キューの統計値（該当しない項目はUNKNOWN）
+     */
+    public static final class Stats {
+        private final long size;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long estimatedBytes;
+        private final double queueLatencyMillis;
+
+        public Stats(long size, long hits, long misses, long evictions, long estimatedBytes, double queueLatencyMillis) {
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.estimatedBytes = estimatedBytes;
+            this.queueLatencyMillis = queueLatencyMillis;
+        }
+
+        /**
+         * ヒット・ミスを数えるキャッシュ
+         */
+        public static Stats cache(long size, long hits, long misses, long evictions, long estimatedBytes) {
+            return new Stats(size, hits, misses, evictions, estimatedBytes, UNKNOWN);
+        }
+
+        /**
+         * 件数とサイズだけを持つマップ・集合
+         */
+        public static Stats collection(long size, long estimatedBytes) {
+            return new Stats(size, UNKNOWN, UNKNOWN, UNKNOWN, estimatedBytes, UNKNOWN);
+        }
+
+        /**
+         * 処理待ちのキュー（待機時間は投入から処理開始までの平均）
+         */
+        public static Stats queue(long size, long estimatedBytes, double queueLatencyMillis) {
+            return new Stats(size, UNKNOWN, UNKNOWN, UNKNOWN, estimatedBytes, queueLatencyMillis);
+        }
+
+        /**
+         * @return ヒット率（0.0〜1.0、計測していない・アクセスがない場合はUNKNOWN）
+         */
+        public double getHitRate() {
+            if (hits < 0 || misses < 0 || hits + misses == 0) {
+                return UNKNOWN;
+            }
+            return (double) hits / (hits + misses);
+        }
+
+        public long getSize() { return size; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getEstimatedBytes() { return estimatedBytes; }
+        public double getQueueLatencyMillis() { return queueLatencyMillis; }
+
+        private void appendJson(StringBuilder json) {
+            json.append('{');
+            int start = json.length();
+            appendField(json, start, "size", size);
+            appendField(json, start, "hits", hits);
+            appendField(json, start, "misses", misses);
+            appendField(json, start, "evictions", evictions);
+            appendField(json, start, "estimated_bytes", estimatedBytes);
+            if (queueLatencyMillis >= 0) {
+                json.append(json.length() > start ? ", " : "")
+                    .append("\"queue_latency_ms\": ").append(String.format(Locale.ROOT, "%.3f", queueLatencyMillis));
+            }
+            json.append('}');
+        }
+
+        private static void appendField(StringBuilder json, int start, String name, long value) {
+            if (value < 0) {
+                return;
+            }
+            json.append(json.length() > start ? ", " : "").append('"').append(name).append("\": ").append(value);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.models.PlayerSession;
 import org.tofu.tofunomics.scoreboard.ScoreboardManager;
 import org.tofu.tofunomics.inventory.PlayerInventoryManager;
 import org.tofu.tofunomics.rules.RulesManager;
@@ -35,15 +36,21 @@ public class PlayerJoinHandler implements Listener {
     private final ScoreboardManager scoreboardManager;
     private final PlayerInventoryManager inventoryManager;
     private final RulesManager rulesManager;
+    private final PlayerSessionRegistry sessions;
     private final Logger logger;
 
     public PlayerJoinHandler(JavaPlugin plugin, ConfigManager configManager, PlayerDAO playerDAO, ScoreboardManager scoreboardManager, PlayerInventoryManager inventoryManager, RulesManager rulesManager) {
+        this(plugin, configManager, playerDAO, scoreboardManager, inventoryManager, rulesManager, new PlayerSessionRegistry());
+    }
+
+    public PlayerJoinHandler(JavaPlugin plugin, ConfigManager configManager, PlayerDAO playerDAO, ScoreboardManager scoreboardManager, PlayerInventoryManager inventoryManager, RulesManager rulesManager, PlayerSessionRegistry sessions) {
         this.plugin = plugin;
         this.configManager = configManager;
         this.playerDAO = playerDAO;
         this.scoreboardManager = scoreboardManager;
         this.inventoryManager = inventoryManager;
         this.rulesManager = rulesManager;
+        this.sessions = sessions;
         this.logger = plugin.getLogger();
     }
     
@@ -93,6 +100,13 @@ public class PlayerJoinHandler implements Listener {
             welcomeTask.runTaskLater(plugin, 40L); // 2秒後に実行
         }
 
+        // ログイン前にセッションを読み込み済みならDBへ問い合わせずに処理する
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session != null) {
+            handlePlayerSession(player, session);
+            return;
+        }
+
         // 非同期でプレイヤーデータの初期化のみ実行
         PlayerDataInitializationTask task = new PlayerDataInitializationTask(player);
         task.runTaskAsynchronously(plugin);
@@ -187,7 +201,69 @@ public class PlayerJoinHandler implements Listener {
     }
 
     /**
-     * プレイヤーデータの初期化と更新処理
+     * ログイン前に読み込んだセッションによる参加処理（メインスレッド、DBへの問い合わせなし）
+     * players行の作成と最終ログイン時間の更新は読み込み時に済んでいる
+     */
+    private void handlePlayerSession(Player player, PlayerSession session) {
+        if (session.isNewPlayer()) {
+            logger.info("新規プレイヤーを登録しました: " + player.getName());
+            onNewPlayer(player);
+            return;
+        }
+        boolean isReturning = configManager.isWelcomeBackMessageEnabled()
+            && session.isReturning(configManager.getWelcomeBackDays(), System.currentTimeMillis());
+        onExistingPlayer(player, session.hasAgreedToRules(), isReturning);
+        playerDAO.updatePlayerNameAsync(player.getUniqueId(), player.getName()).exceptionally(throwable -> {
+            logger.severe("プレイヤー名更新中にエラー: " + throwable.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * 新規プレイヤーへのルールブック配布と案内
+     */
+    private void onNewPlayer(Player player) {
+        // ルールブックを配布
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            rulesManager.giveRulebook(player);
+            // 未同意リストに追加（行動制限対象）
+            rulesManager.markAsUnagreed(player.getUniqueId());
+            
+            // 2秒後にルールGUIを自動表示
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                rulesManager.getRulesGUI().openRulesGUI(player, 1);
+                player.sendMessage(configManager.getMessage("rules.messages.must_agree"));
+            }, 40L); // 2秒後
+        });
+        
+        // 新規プレイヤーメッセージを表示するフラグを設定
+        scheduleNewPlayerMessages(player);
+    }
+
+    /**
+     * 既存プレイヤーのルール同意確認と復帰メッセージ
+     */
+    private void onExistingPlayer(Player player, boolean hasAgreed, boolean isReturning) {
+        if (!hasAgreed) {
+            // 未同意の場合、制限リストに追加
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                rulesManager.markAsUnagreed(player.getUniqueId());
+                player.sendMessage(configManager.getMessage("rules.messages.must_agree"));
+                
+                // 2秒後にルールGUIを表示
+                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                    rulesManager.getRulesGUI().openRulesGUI(player, 1);
+                }, 40L); // 2秒後
+            });
+        }
+        
+        if (isReturning) {
+            scheduleWelcomeBackMessage(player);
+        }
+    }
+
+    /**
+     * プレイヤーデータの初期化と更新処理（セッションを読み込めなかった場合、非同期スレッドで実行）
      */
     private void handlePlayerData(Player player) {
         try {
@@ -198,43 +274,10 @@ public class PlayerJoinHandler implements Listener {
                 // 新規プレイヤーの場合
                 createNewPlayer(player);
                 logger.info("新規プレイヤーを登録しました: " + player.getName());
-                
-                // ルールブックを配布
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    rulesManager.giveRulebook(player);
-                    // 未同意リストに追加（行動制限対象）
-                    rulesManager.markAsUnagreed(player.getUniqueId());
-                    
-                    // 2秒後にルールGUIを自動表示
-                    Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                        rulesManager.getRulesGUI().openRulesGUI(player, 1);
-                        player.sendMessage(configManager.getMessage("rules.messages.must_agree"));
-                    }, 40L); // 2秒後
-                });
-                
-                // 新規プレイヤーメッセージを表示するフラグを設定
-                scheduleNewPlayerMessages(player);
+                onNewPlayer(player);
             } else {
-                // 既存プレイヤーの場合、ルール同意確認
-                boolean hasAgreed = rulesManager.hasAgreedToRules(player.getUniqueId());
-                if (!hasAgreed) {
-                    // 未同意の場合、制限リストに追加
-                    Bukkit.getScheduler().runTask(plugin, () -> {
-                        rulesManager.markAsUnagreed(player.getUniqueId());
-                        player.sendMessage(configManager.getMessage("rules.messages.must_agree"));
-                        
-                        // 2秒後にルールGUIを表示
-                        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                            rulesManager.getRulesGUI().openRulesGUI(player, 1);
-                        }, 40L); // 2秒後
-                    });
-                }
-                
-                // 復帰プレイヤーかチェック
-                boolean isReturning = checkReturningPlayer(player);
-                if (isReturning) {
-                    scheduleWelcomeBackMessage(player);
-                }
+                // 既存プレイヤーの場合、ルール同意確認と復帰プレイヤーチェック
+                onExistingPlayer(player, rulesManager.hasAgreedToRules(player.getUniqueId()), checkReturningPlayer(player));
                 
                 // 既存プレイヤーの最終ログイン時間とプレイヤー名を更新
                 updateLastLogin(player);
@@ -512,15 +555,11 @@ public class PlayerJoinHandler implements Listener {
             // 新規プレイヤーボーナス付与
             double bonusAmount = configManager.getNewPlayerBonusAmount();
             if (bonusAmount > 0) {
-                try {
-                    org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayer(player.getUniqueId());
-                    if (tofuPlayer != null) {
-                        tofuPlayer.addBalance(bonusAmount);
-                        playerDAO.updatePlayerData(tofuPlayer);
-                    }
-                } catch (Exception e) {
-                    logger.warning("新規プレイヤーボーナス付与中にエラー: " + e.getMessage());
-                }
+                // 行がない場合は付与しない（adjustBalanceがfalseを返す）
+                playerDAO.adjustBalanceAsync(player.getUniqueId(), bonusAmount).exceptionally(throwable -> {
+                    logger.warning("新規プレイヤーボーナス付与中にエラー: " + throwable.getMessage());
+                    return null;
+                });
             }
             
             // 新規プレイヤーメッセージ表示
@@ -0,0 +1,40 @@
+package org.tofu.tofunomics.players;
+
+import org.tofu.tofunomics.models.PlayerSession;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * オンライン中のプレイヤーのセッションを保持するクラス
+ * 登録・破棄はPlayerStateManagerが行い、各機能はここからセッションを参照する。
+ * セッションがない（オフライン、または読み込みに失敗した）プレイヤーは従来通りDAOで問い合わせること
+ */
+public class PlayerSessionRegistry {
+
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @return オンライン中のプレイヤーのセッション（ない場合はnull）
+     */
+    public PlayerSession get(UUID uuid) {
+        return sessions.get(uuid);
+    }
+
+    void register(PlayerSession session) {
+        sessions.put(session.getUuid(), session);
+    }
+
+    void remove(UUID uuid) {
+        sessions.remove(uuid);
+    }
+
+    void clear() {
+        sessions.clear();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
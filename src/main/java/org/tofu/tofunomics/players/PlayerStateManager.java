@@ -0,0 +1,290 @@
+package org.tofu.tofunomics.players;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.tofu.tofunomics.batch.OptimizedBatchProcessor;
+import org.tofu.tofunomics.cache.PlayerStateStore;
+import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.dao.PlayerJobDAO;
+import org.tofu.tofunomics.dao.PlayerSessionDAO;
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.models.PlayerSession;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * プレイヤー状態ストアとセッションの読み込み・書き出しを管理するクラス
+ * ログイン前（AsyncPlayerPreLoginEvent）に状態とセッションをまとめて読み込み、参加時のメインスレッドでDBへ問い合わせない。
+ * 以降の変更は一定間隔でバッチ処理システムへまとめて書き出し、
+ * 退出時はそのプレイヤーの変更を書き出し、書き込みが確定した時点でストアから退避する
+ */
+public class PlayerStateManager implements Listener {
+
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+    // ログイン前に読み込んだまま参加しなかったプレイヤーを破棄するまでの時間
+    private static final long PENDING_LOGIN_TIMEOUT_MILLIS = 60000L;
+
+    private final JavaPlugin plugin;
+    private final ConfigManager configManager;
+    private final PlayerStateStore stateStore;
+    private final PlayerDAO playerDAO;
+    private final PlayerJobDAO playerJobDAO;
+    private final PlayerSessionDAO playerSessionDAO;
+    private final PlayerSessionRegistry sessions;
+    private final DatabaseExecutor databaseExecutor;
+    private final OptimizedBatchProcessor batchProcessor;
+    private final Logger logger;
+
+    // 読み込み対象のプレイヤー（退出後に読み込みが完了して状態が残り続けるのを防ぐ）
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+    // ログイン前に読み込み、まだ参加していないプレイヤー（値は読み込んだ時刻）
+    private final Map<UUID, Long> pendingLogins = new ConcurrentHashMap<>();
+    private BukkitTask flushTask;
+
+    public PlayerStateManager(JavaPlugin plugin, ConfigManager configManager, PlayerStateStore stateStore,
+                              PlayerDAO playerDAO, PlayerJobDAO playerJobDAO, PlayerSessionDAO playerSessionDAO,
+                              PlayerSessionRegistry sessions, DatabaseExecutor databaseExecutor,
+                              OptimizedBatchProcessor batchProcessor) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.stateStore = stateStore;
+        this.playerDAO = playerDAO;
+        this.playerJobDAO = playerJobDAO;
+        this.playerSessionDAO = playerSessionDAO;
+        this.sessions = sessions;
+        this.databaseExecutor = databaseExecutor;
+        this.batchProcessor = batchProcessor;
+        this.logger = plugin.getLogger();
+    }
+
+    /**
+     * 定期書き出しを開始し、既にオンラインのプレイヤー（リロード時）を読み込む
+     */
+    public void start() {
+        long interval = Math.max(1L, configManager.getPlayerStateFlushInterval());
+        flushTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::flushDirty, interval, interval);
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            onlinePlayers.add(player.getUniqueId());
+            loadAsync(player.getUniqueId(), 1);
+        }
+    }
+
+    /**
+     * ログイン前に状態とセッションを読み込む（非同期スレッドで呼ばれるため、ここでDBを待ってよい）
+     * 他のプラグインがログインを拒否した場合は読み込まない
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        UUID uuid = event.getUniqueId();
+        pendingLogins.put(uuid, System.currentTimeMillis());
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            try {
+                load(uuid);
+                return;
+            } catch (SQLException e) {
+                logger.warning("ログイン前のプレイヤー状態の読み込みに失敗しました (" + attempt + "/" + MAX_LOAD_ATTEMPTS + "): "
+                    + uuid + " - " + e.getMessage());
+            }
+        }
+        // 読み込めなかった場合は参加時に再度DBスレッドで読み込む
+        pendingLogins.remove(uuid);
+    }
+
+    /**
+     * ログイン前に読み込んだ後でログインが拒否された場合（BAN・ホワイトリスト・満員など）は破棄する
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            discardPendingLogin(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        onlinePlayers.add(uuid);
+        boolean preloaded = pendingLogins.remove(uuid) != null;
+        if (!preloaded || sessions.get(uuid) == null || !stateStore.isLoaded(uuid)) {
+            loadAsync(uuid, 1);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        onlinePlayers.remove(uuid);
+        sessions.remove(uuid);
+        stateStore.markOffline(uuid);
+
+        // 書き込み待ちがあれば、その書き込みの確定時にストアが退避する
+        queueSnapshot(stateStore.drainDirty(uuid));
+        stateStore.evictIfOfflineClean(uuid);
+        batchProcessor.flush();
+    }
+
+    private void loadAsync(UUID uuid, int attempt) {
+        databaseExecutor.run(uuid, () -> load(uuid)).whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                return;
+            }
+            if (attempt < MAX_LOAD_ATTEMPTS && onlinePlayers.contains(uuid)) {
+                logger.warning("プレイヤー状態の読み込みに失敗したため再試行します (" + attempt + "/" + MAX_LOAD_ATTEMPTS + "): " + uuid);
+                loadAsync(uuid, attempt + 1);
+            } else {
+                // 読み込めなかったプレイヤーはDAOが従来通りDBへ直接読み書きする
+                logger.log(Level.WARNING, "プレイヤー状態の読み込みに失敗しました: " + uuid, throwable);
+            }
+        });
+    }
+
+    /**
+     * DBから状態とセッションを読み込んで登録する（ログイン前の非同期スレッドまたはDBスレッドで実行）
+     * 読み込み中は同じプレイヤーへの書き込みを止め、読み込んだ値が古くならないようにする
+     * players行がなければ初期残高で作成し、あれば最終ログイン日時を更新する
+     */
+    private void load(UUID uuid) throws SQLException {
+        synchronized (stateStore.lockFor(uuid)) {
+            if (!onlinePlayers.contains(uuid) && !pendingLogins.containsKey(uuid)) {
+                return;
+            }
+            PlayerSessionDAO.SessionData data = playerSessionDAO.loadSession(uuid);
+            org.tofu.tofunomics.models.Player player = data.getPlayer();
+            boolean newPlayer = player == null;
+            Timestamp previousLoginAt = null;
+            if (newPlayer) {
+                player = new org.tofu.tofunomics.models.Player(uuid, configManager.getStartingBalance());
+                playerDAO.createPlayer(player);
+            } else {
+                previousLoginAt = player.getUpdatedAt();
+                playerDAO.updateLastLogin(uuid);
+            }
+
+            // 退避前に再ログインした場合はストアに残っている状態を使う
+            if (!stateStore.markOnline(uuid)) {
+                stateStore.load(uuid, player, data.getPlayerJobs());
+                // 以降はストアが正となるため、DAOのキャッシュに残った行は破棄する
+                playerDAO.invalidateCache(uuid);
+                playerJobDAO.invalidateCache(uuid);
+            }
+            sessions.register(new PlayerSession(uuid, newPlayer, previousLoginAt, data.hasAgreedToRules(),
+                data.getJobChange(), data.getActiveRentals()));
+        }
+    }
+
+    /**
+     * 参加しなかったプレイヤーの読み込み結果を破棄する
+     */
+    private void discardPendingLogin(UUID uuid) {
+        if (pendingLogins.remove(uuid) == null || onlinePlayers.contains(uuid)) {
+            return;
+        }
+        sessions.remove(uuid);
+        stateStore.markOffline(uuid);
+        stateStore.evictIfOfflineClean(uuid);
+    }
+
+    /**
+     * 未書き出しの変更をバッチ処理システムへ渡し、書き込み待ちのないオフラインプレイヤーを退避する
+     */
+    public void flushDirty() {
+        long expiredBefore = System.currentTimeMillis() - PENDING_LOGIN_TIMEOUT_MILLIS;
+        for (Map.Entry<UUID, Long> entry : pendingLogins.entrySet()) {
+            if (entry.getValue() < expiredBefore) {
+                discardPendingLogin(entry.getKey());
+            }
+        }
+
+        queueSnapshot(stateStore.drainDirty());
+
+        if (stateStore.getLoadedCount() > onlinePlayers.size()) {
+            stateStore.evictOfflineClean();
+        }
+    }
+
+    /**
+     * 変更をバッチ処理システムへ渡し、書き込み結果をストアへ通知させる
+     * 受け付けなかった・書き込めなかった変更はdirtyに戻り、次回の書き出しで再送される
+     */
+    private void queueSnapshot(PlayerStateStore.DirtySnapshot snapshot) {
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        int deferred = 0;
+        for (org.tofu.tofunomics.models.Player player : snapshot.getPlayers()) {
+            UUID uuid = player.getUuid();
+            if (!batchProcessor.queuePlayerState(uuid.toString(), player.getBalance(), player.getBankBalance(),
+                    written -> stateStore.completePlayerWrite(uuid, written))) {
+                stateStore.completePlayerWrite(uuid, false);
+                deferred++;
+            }
+        }
+        for (PlayerJob playerJob : snapshot.getPlayerJobs()) {
+            UUID uuid = playerJob.getUuid();
+            int jobId = playerJob.getJobId();
+            if (!batchProcessor.queuePlayerJobState(uuid.toString(), jobId, playerJob.getLevel(), playerJob.getExperience(),
+                    written -> stateStore.completePlayerJobWrite(uuid, jobId, written))) {
+                stateStore.completePlayerJobWrite(uuid, jobId, false);
+                deferred++;
+            }
+        }
+        if (deferred > 0) {
+            logger.warning("バッチキューが満杯のため " + deferred + " 件の書き出しを次回に延期しました");
+        }
+    }
+
+    /**
+     * 実行中のDBタスクの完了を待ってから全変更を書き出す（DB接続を閉じる前に呼び出す）
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        databaseExecutor.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+
+        onlinePlayers.clear();
+        pendingLogins.clear();
+        sessions.clear();
+        stateStore.markAllOffline();
+        int dirtyPlayers = stateStore.getDirtyCount();
+        queueSnapshot(stateStore.drainDirty());
+        batchProcessor.shutdown();
+
+        // 以降の書き込みはDAOが直接DBへ行う
+        stateStore.evictOfflineClean();
+        if (stateStore.getLoadedCount() > 0) {
+            logger.severe("書き込みが確定しなかったプレイヤー状態があります: " + stateStore.getLoadedCount() + "人分");
+        }
+        logger.info("プレイヤー状態を書き出しました: " + dirtyPlayers + "人分");
+    }
+
+    public int getLoadedCount() {
+        return stateStore.getLoadedCount();
+    }
+
+    public int getDirtyCount() {
+        return stateStore.getDirtyCount();
+    }
+}
@@ -2,6 +2,7 @@ package org.tofu.tofunomics.quests;
 
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -9,6 +10,7 @@ import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.player.PlayerFishEvent;
 import org.bukkit.inventory.ItemStack;
+import org.tofu.tofunomics.blocks.PlacedBlockTracker;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.jobs.JobManager;
@@ -28,6 +30,8 @@ public class JobQuestManager implements Listener {
     // クエストデータ（実際の実装ではデータベース管理）
     private final Map<String, List<JobQuest>> jobQuests;
     private final Map<String, List<PlayerQuestProgress>> playerQuests;
+    // プレイヤーが設置したブロックの記録（無効な場合はnull）
+    private volatile PlacedBlockTracker placedBlockTracker;
     
     public JobQuestManager(ConfigManager configManager, PlayerDAO playerDAO, JobManager jobManager) {
         this.configManager = configManager;
@@ -136,8 +140,20 @@ public class JobQuestManager implements Listener {
         jobQuests.put("fisherman", fishermanQuests);
     }
     
+    /**
+     * 設置ブロックの記録を設定する（設置したブロックの破壊はクエストを進めない）
+     */
+    public void setPlacedBlockTracker(PlacedBlockTracker placedBlockTracker) {
+        this.placedBlockTracker = placedBlockTracker;
+    }
+    
     @EventHandler
     public void onBlockBreak(BlockBreakEvent event) {
+        PlacedBlockTracker tracker = placedBlockTracker;
+        Block block = event.getBlock();
+        if (tracker != null && tracker.isPlaced(block.getWorld().getName(), block.getX(), block.getY(), block.getZ())) {
+            return;
+        }
         org.bukkit.entity.Player player = event.getPlayer();
         Material blockType = event.getBlock().getType();
         
@@ -231,22 +247,16 @@ public class JobQuestManager implements Listener {
      * クエスト報酬付与
      */
     private void giveQuestRewards(org.bukkit.entity.Player player, JobQuest quest) {
-        String uuid = player.getUniqueId().toString();
-        
         // 経験値報酬（実装は簡略化）
         // jobManager.giveJobExperience(player, quest.getJobName(), quest.getExperienceReward());
         
-        // 金銭報酬
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(uuid);
-            tofuPlayer.setBalance(configManager.getStartingBalance());
-            playerDAO.insertPlayer(tofuPlayer);
-        }
-        
-        tofuPlayer.addBalance(quest.getIncomeReward());
-        playerDAO.updatePlayerData(tofuPlayer);
+        // 金銭報酬（DBスレッドで残高に加算し、行がなければ初期残高で作成）
+        playerDAO.creditBalanceAsync(player.getUniqueId(), quest.getIncomeReward(), configManager.getStartingBalance())
+            .whenComplete((ignored, error) -> {
+                if (error != null) {
+                    player.sendMessage(ChatColor.RED + "クエスト報酬の付与に失敗しました。管理者にお問い合わせください。");
+                }
+            });
     }
     
     /**
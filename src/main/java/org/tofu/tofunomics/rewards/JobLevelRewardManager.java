@@ -186,18 +186,13 @@ public class JobLevelRewardManager {
     }
     
     private void giveMoney(org.bukkit.entity.Player player, double amount) {
-        String uuid = player.getUniqueId().toString();
-        org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(uuid);
-        
-        if (tofuPlayer == null) {
-            tofuPlayer = new org.tofu.tofunomics.models.Player();
-            tofuPlayer.setUuid(uuid);
-            tofuPlayer.setBalance(configManager.getStartingBalance());
-            playerDAO.insertPlayer(tofuPlayer);
-        }
-        
-        tofuPlayer.addBalance(amount);
-        playerDAO.updatePlayerData(tofuPlayer);
+        // DBスレッドで残高に加算し、行がなければ初期残高で作成
+        playerDAO.creditBalanceAsync(player.getUniqueId(), amount, configManager.getStartingBalance())
+            .whenComplete((ignored, error) -> {
+                if (error != null) {
+                    player.sendMessage(ChatColor.RED + "レベル報酬の付与に失敗しました。管理者にお問い合わせください。");
+                }
+            });
     }
     
     private void giveItems(org.bukkit.entity.Player player, List<ItemStack> items) {
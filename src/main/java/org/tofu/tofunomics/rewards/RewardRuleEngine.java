@@ -0,0 +1,43 @@
+package org.tofu.tofunomics.rewards;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.jobs.JobManager;
+
+/**
+ * 職業活動の報酬表を保持し、設定・職業データの再読み込み時に作り直す
+ * 参照側は {@link #getRules()} で取得した表から続けて読むことで、同じ時点の設定で計算できる
+ */
+public class RewardRuleEngine {
+
+    private final JavaPlugin plugin;
+    private final ConfigManager configManager;
+    private final JobManager jobManager;
+    private volatile RewardRules rules = RewardRules.empty();
+
+    public RewardRuleEngine(JavaPlugin plugin, ConfigManager configManager, JobManager jobManager) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.jobManager = jobManager;
+        reload();
+    }
+
+    /**
+     * config.yml の reward_rules と現在の職業データから報酬表を作り直す
+     */
+    public void reload() {
+        RewardRules compiled = RewardRules.compile(
+            plugin.getConfig().getConfigurationSection("reward_rules"),
+            jobManager.getJobRegistry(),
+            configManager
+        );
+        for (String warning : compiled.getWarnings()) {
+            plugin.getLogger().warning("報酬ルールの設定を読み飛ばしました: " + warning);
+        }
+        rules = compiled;
+    }
+
+    public RewardRules getRules() {
+        return rules;
+    }
+}
@@ -0,0 +1,274 @@
+package org.tofu.tofunomics.rewards;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.EntityType;
+import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.jobs.JobRegistry;
+import org.tofu.tofunomics.models.Job;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * config.yml の reward_rules を職業IDとMaterial/EntityTypeの序数で引ける配列へ変換した不変の報酬表
+ * 職業ごとの経験値・収入倍率はコンパイル時に掛け合わせ、レベル補正は活動ごとにレベル別の倍率表として持つ。
+ * イベント処理からの参照はマップ検索やボクシングを伴わない配列の読み取りになる
+ */
+public final class RewardRules {
+
+    /**
+     * 報酬の対象となる活動（キーの種類と設定ファイルのセクション名）
+     */
+    public enum Activity {
+        BLOCK_BREAK("block_break", false),
+        BLOCK_PLACE("block_place", false),
+        BUILDING("building", false),
+        CRAFT("craft", false),
+        CROP_GROWTH("crop_growth", false),
+        ENTITY_KILL("entity_kill", true),
+        TRADE("trade", false);
+
+        private final String configKey;
+        private final boolean entityKeyed;
+
+        Activity(String configKey, boolean entityKeyed) {
+            this.configKey = configKey;
+            this.entityKeyed = entityKeyed;
+        }
+
+        public String getConfigKey() { return configKey; }
+        public boolean isEntityKeyed() { return entityKeyed; }
+
+        private int keyCount() {
+            return entityKeyed ? EntityType.values().length : Material.values().length;
+        }
+    }
+
+    // 全職業に適用するルールのキー
+    private static final String ALL_JOBS = "*";
+    // 未定義のキー全体に適用するルールのキー
+    private static final String DEFAULT_KEY = "default";
+
+    private static final RewardRules EMPTY = new RewardRules();
+
+    private final Table[] tables = new Table[Activity.values().length];
+    private final List<String> warnings = new ArrayList<>();
+
+    /**
+     * 1つの活動の報酬表
+     */
+    private static final class Table {
+        // [職業ID][序数 * 2] に経験値、[職業ID][序数 * 2 + 1] に収入（ルールのない職業はnull）
+        private double[][] rows = new double[0][];
+        // いずれかの職業に報酬がある序数
+        private final BitSet rewarded = new BitSet();
+        // 表示名（設定されていない序数はnull）
+        private String[] names;
+        // レベルを添字とする倍率
+        private double[] levelScale = {1.0};
+    }
+
+    private RewardRules() {
+        for (Activity activity : Activity.values()) {
+            tables[activity.ordinal()] = new Table();
+        }
+    }
+
+    public static RewardRules empty() {
+        return EMPTY;
+    }
+
+    /**
+     * reward_rules セクションを報酬表へ変換する
+     * 存在しない職業・素材・エンティティは読み飛ばし、{@link #getWarnings()} に記録する
+     */
+    public static RewardRules compile(ConfigurationSection section, JobRegistry registry, ConfigManager configManager) {
+        RewardRules rules = new RewardRules();
+        if (section == null) {
+            return rules;
+        }
+
+        int maxJobId = 0;
+        int maxLevel = 1;
+        for (Job job : registry.getAllJobs()) {
+            maxJobId = Math.max(maxJobId, job.getId());
+            maxLevel = Math.max(maxLevel, job.getMaxLevel());
+        }
+
+        for (Activity activity : Activity.values()) {
+            ConfigurationSection activitySection = section.getConfigurationSection(activity.getConfigKey());
+            if (activitySection != null) {
+                rules.compileActivity(activity, activitySection, registry, configManager, maxJobId, maxLevel);
+            }
+        }
+        return rules;
+    }
+
+    private void compileActivity(Activity activity, ConfigurationSection section, JobRegistry registry,
+                                 ConfigManager configManager, int maxJobId, int maxLevel) {
+        Table table = tables[activity.ordinal()];
+        table.rows = new double[maxJobId + 1][];
+        table.names = new String[activity.keyCount()];
+
+        // レベル補正: max(min, base + per_level * level)
+        double base = section.getDouble("level_scaling.base", 1.0);
+        double perLevel = section.getDouble("level_scaling.per_level", 0.0);
+        double min = section.getDouble("level_scaling.min", 0.0);
+        table.levelScale = new double[maxLevel + 1];
+        for (int level = 0; level <= maxLevel; level++) {
+            table.levelScale[level] = Math.max(min, base + perLevel * level);
+        }
+
+        ConfigurationSection jobsSection = section.getConfigurationSection("jobs");
+        if (jobsSection == null) {
+            return;
+        }
+        boolean applyJobMultipliers = section.getBoolean("apply_job_multipliers", true);
+
+        // 全職業向けのルールを先に書き込み、職業別のルールで上書きする
+        ConfigurationSection allJobs = jobsSection.getConfigurationSection(ALL_JOBS);
+        for (Job job : registry.getAllJobs()) {
+            if (job.getId() < 0) {
+                continue;
+            }
+            ConfigurationSection jobSection = jobsSection.getConfigurationSection(job.getName());
+            if (allJobs == null && jobSection == null) {
+                continue;
+            }
+            double expMultiplier = applyJobMultipliers ? configManager.getJobExpMultiplier(job.getName()) : 1.0;
+            double incomeMultiplier = applyJobMultipliers ? configManager.getJobIncomeMultiplier(job.getName()) : 1.0;
+            double[] row = new double[activity.keyCount() * 2];
+            if (allJobs != null) {
+                fillRow(activity, table, row, allJobs, expMultiplier, incomeMultiplier);
+            }
+            if (jobSection != null) {
+                fillRow(activity, table, row, jobSection, expMultiplier, incomeMultiplier);
+            }
+            table.rows[job.getId()] = row;
+            for (int i = 0; i < row.length; i += 2) {
+                if (row[i] != 0.0 || row[i + 1] != 0.0) {
+                    table.rewarded.set(i / 2);
+                }
+            }
+        }
+
+        for (String jobName : jobsSection.getKeys(false)) {
+            if (!ALL_JOBS.equals(jobName) && registry.getByName(jobName) == null) {
+                warnings.add(activity.getConfigKey() + ": 存在しない職業です: " + jobName);
+            }
+        }
+    }
+
+    private void fillRow(Activity activity, Table table, double[] row, ConfigurationSection rules,
+                         double expMultiplier, double incomeMultiplier) {
+        if (rules.contains(DEFAULT_KEY)) {
+            double experience = getExperience(rules, DEFAULT_KEY) * expMultiplier;
+            double income = getIncome(rules, DEFAULT_KEY) * incomeMultiplier;
+            for (int i = 0; i < row.length; i += 2) {
+                row[i] = experience;
+                row[i + 1] = income;
+            }
+        }
+
+        for (String key : rules.getKeys(false)) {
+            if (DEFAULT_KEY.equals(key)) {
+                continue;
+            }
+            int ordinal = resolveOrdinal(activity, key);
+            if (ordinal < 0) {
+                warnings.add(activity.getConfigKey() + ": 存在しない" + (activity.isEntityKeyed() ? "エンティティ" : "素材")
+                    + "です: " + key);
+                continue;
+            }
+            row[ordinal * 2] = getExperience(rules, key) * expMultiplier;
+            row[ordinal * 2 + 1] = getIncome(rules, key) * incomeMultiplier;
+            String name = rules.isConfigurationSection(key) ? rules.getString(key + ".name") : null;
+            if (name != null) {
+                table.names[ordinal] = name;
+            }
+        }
+    }
+
+    /**
+     * 数値だけの指定は経験値として扱う
+     */
+    private static double getExperience(ConfigurationSection rules, String key) {
+        if (rules.isConfigurationSection(key)) {
+            return rules.getDouble(key + ".experience", 0.0);
+        }
+        return rules.getDouble(key, 0.0);
+    }
+
+    private static double getIncome(ConfigurationSection rules, String key) {
+        return rules.isConfigurationSection(key) ? rules.getDouble(key + ".income", 0.0) : 0.0;
+    }
+
+    private static int resolveOrdinal(Activity activity, String key) {
+        String name = key.toUpperCase(Locale.ROOT);
+        try {
+            return activity.isEntityKeyed() ? EntityType.valueOf(name).ordinal() : Material.valueOf(name).ordinal();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * いずれかの職業に報酬が設定されているか（職業を確認する前の絞り込み用）
+     */
+    public boolean isRewarded(Activity activity, int ordinal) {
+        return tables[activity.ordinal()].rewarded.get(ordinal);
+    }
+
+    /**
+     * 指定の職業に報酬が設定されているか
+     */
+    public boolean hasReward(Activity activity, int jobId, int ordinal) {
+        double[] row = row(activity, jobId);
+        return row != null && (row[ordinal * 2] != 0.0 || row[ordinal * 2 + 1] != 0.0);
+    }
+
+    /**
+     * 職業倍率とレベル補正を適用した経験値（報酬がない場合は0）
+     */
+    public double getExperience(Activity activity, int jobId, int ordinal, int level) {
+        double[] row = row(activity, jobId);
+        return row != null ? row[ordinal * 2] * levelScale(activity, level) : 0.0;
+    }
+
+    /**
+     * 職業倍率とレベル補正を適用した収入（報酬がない場合は0）
+     */
+    public double getIncome(Activity activity, int jobId, int ordinal, int level) {
+        double[] row = row(activity, jobId);
+        return row != null ? row[ordinal * 2 + 1] * levelScale(activity, level) : 0.0;
+    }
+
+    /**
+     * 設定された表示名（未設定の場合はnull）
+     */
+    public String getDisplayName(Activity activity, int ordinal) {
+        String[] names = tables[activity.ordinal()].names;
+        return names != null ? names[ordinal] : null;
+    }
+
+    /**
+     * コンパイル時に読み飛ばした設定
+     */
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    private double[] row(Activity activity, int jobId) {
+        double[][] rows = tables[activity.ordinal()].rows;
+        return jobId >= 0 && jobId < rows.length ? rows[jobId] : null;
+    }
+
+    private double levelScale(Activity activity, int level) {
+        double[] scale = tables[activity.ordinal()].levelScale;
+        return scale[Math.max(0, Math.min(level, scale.length - 1))];
+    }
+}
@@ -16,6 +16,8 @@ import org.bukkit.inventory.meta.BookMeta;
 import org.tofu.tofunomics.TofuNomics;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.models.PlayerSession;
+import org.tofu.tofunomics.players.PlayerSessionRegistry;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,15 +33,23 @@ public class RulesManager implements Listener {
     private final TofuNomics plugin;
     private final ConfigManager configManager;
     private final PlayerDAO playerDAO;
+    // オンライン中のプレイヤーの同意状態はセッションから読む
+    private final PlayerSessionRegistry sessions;
     private final RulesGUI rulesGUI;
     
     // 未同意プレイヤーのUUIDを記録（制限対象）
     private final Set<UUID> unagreedPlayers = ConcurrentHashMap.newKeySet();
     
     public RulesManager(TofuNomics plugin, ConfigManager configManager, PlayerDAO playerDAO) {
+        this(plugin, configManager, playerDAO, new PlayerSessionRegistry());
+    }
+    
+    public RulesManager(TofuNomics plugin, ConfigManager configManager, PlayerDAO playerDAO,
+                        PlayerSessionRegistry sessions) {
         this.plugin = plugin;
         this.configManager = configManager;
         this.playerDAO = playerDAO;
+        this.sessions = sessions;
         this.rulesGUI = new RulesGUI(plugin, configManager, this);
     }
     
@@ -98,9 +108,20 @@ public class RulesManager implements Listener {
      * プレイヤーがルールに同意しているか確認
      */
     public boolean hasAgreedToRules(UUID uuid) {
+        PlayerSession session = sessions.get(uuid);
+        if (session != null) {
+            return session.hasAgreedToRules();
+        }
         return playerDAO.hasAgreedToRules(uuid);
     }
     
+    private void updateSession(UUID uuid, boolean agreed) {
+        PlayerSession session = sessions.get(uuid);
+        if (session != null) {
+            session.setRulesAgreed(agreed);
+        }
+    }
+    
     /**
      * プレイヤーをルール未同意リストに追加（行動制限対象）
      */
@@ -116,6 +137,7 @@ public class RulesManager implements Listener {
         
         // データベースに記録
         playerDAO.setRulesAgreed(uuid, true);
+        updateSession(uuid, true);
         
         // 制限リストから削除
         unagreedPlayers.remove(uuid);
@@ -135,6 +157,7 @@ public class RulesManager implements Listener {
         try {
             // データベースの同意状態を FALSE に更新
             playerDAO.setRulesAgreed(uuid, false);
+            updateSession(uuid, false);
             
             // 未同意プレイヤーリストに追加（キャッシュ更新）
             unagreedPlayers.add(uuid);
@@ -3,14 +3,18 @@ package org.tofu.tofunomics.stats;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.dao.PlayerJobDAO;
 import org.tofu.tofunomics.jobs.JobManager;
 import org.tofu.tofunomics.models.PlayerJob;
 import org.tofu.tofunomics.rewards.JobLevelRewardManager;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * 職業別統計・進捗表示システム
@@ -19,14 +23,16 @@ public class JobStatsManager {
     
     private final ConfigManager configManager;
     private final PlayerJobDAO playerJobDAO;
+    private final PlayerDAO playerDAO;
     private final JobManager jobManager;
     private final JobLevelRewardManager rewardManager;
     private final DecimalFormat decimalFormat;
     
-    public JobStatsManager(ConfigManager configManager, PlayerJobDAO playerJobDAO, 
+    public JobStatsManager(ConfigManager configManager, PlayerJobDAO playerJobDAO, PlayerDAO playerDAO,
                           JobManager jobManager, JobLevelRewardManager rewardManager) {
         this.configManager = configManager;
         this.playerJobDAO = playerJobDAO;
+        this.playerDAO = playerDAO;
         this.jobManager = jobManager;
         this.rewardManager = rewardManager;
         this.decimalFormat = new DecimalFormat("#,##0.0");
@@ -273,6 +279,22 @@ public class JobStatsManager {
             return;
         }
         
+        List<UUID> uuids = new ArrayList<>(topPlayers.size());
+        for (PlayerJob playerJob : topPlayers) {
+            uuids.add(playerJob.getUuid());
+        }
+        // 名簿にない名前はDBスレッドで補い、表示はメインスレッドで行う
+        List<PlayerJob> rankedPlayers = topPlayers;
+        playerDAO.resolvePlayerNamesAsync(uuids).whenComplete((playerNames, error) -> {
+            if (error != null) {
+                playerNames = playerDAO.getNameDirectory().resolve(uuids);
+            }
+            sendJobTopRanking(player, jobName, limit, rankedPlayers, playerNames);
+        });
+    }
+    
+    private void sendJobTopRanking(Player player, String jobName, int limit, List<PlayerJob> topPlayers,
+                                   Map<UUID, String> playerNames) {
         String displayName = configManager.getJobDisplayName(jobName);
         player.sendMessage(ChatColor.GOLD + "▬▬▬▬▬ " + displayName + " ランキング TOP " + limit + " ▬▬▬▬▬");
         
@@ -280,7 +302,7 @@ public class JobStatsManager {
             PlayerJob playerJob = topPlayers.get(i);
             int rank = i + 1;
             
-            String playerName = getPlayerNameByUUID(playerJob.getUuid().toString());
+            String playerName = playerNames.getOrDefault(playerJob.getUuid(), "Unknown");
             ChatColor rankColor = getRankColor(rank);
             
             player.sendMessage(String.format("%s%d位 %s%s %sLv.%d (%s経験値)", 
@@ -344,12 +366,4 @@ public class JobStatsManager {
             default: return -1;
         }
     }
-    
-    /**
-     * UUIDからプレイヤー名を取得（簡略実装）
-     */
-    private String getPlayerNameByUUID(String uuid) {
-        // 実際の実装では Bukkit.getOfflinePlayer() を使用
-        return "Player"; // プレースホルダー
-    }
 }
\ No newline at end of file
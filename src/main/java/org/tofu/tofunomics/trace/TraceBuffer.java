@@ -0,0 +1,87 @@
+package org.tofu.tofunomics.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 複数スレッドから追加し、1つのスレッドが取り出す固定長のリングバッファ（ロックを使わない）
+ * 満杯のときは追加した側を待たせず、その要素を破棄して件数だけ数える
+ */
+public class TraceBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    // 次に追加する位置（追加側がCASで確保する）
+    private final AtomicLong head = new AtomicLong();
+    // 次に取り出す位置（取り出し側だけが更新する）
+    private volatile long tail;
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity 保持できる件数（2の累乗に切り上げる）
+     */
+    public TraceBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 要素を追加する
+     * @return 満杯で破棄した場合はfalse
+     */
+    public boolean offer(T element) {
+        long position;
+        do {
+            position = head.get();
+            if (position - tail >= slots.length()) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!head.compareAndSet(position, position + 1));
+        slots.set((int) (position & mask), element);
+        return true;
+    }
+
+    /**
+     * 追加済みの要素を順に取り出す（取り出し側のスレッドからのみ呼ぶ）
+     * 位置を確保しただけでまだ書き込まれていない要素の手前で止まり、次回に取り出す
+     * @return 取り出した件数
+     */
+    public int drain(Consumer<? super T> consumer) {
+        long position = tail;
+        int count = 0;
+        while (true) {
+            int index = (int) (position & mask);
+            T element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.set(index, null);
+            position++;
+            tail = position;
+            count++;
+            consumer.accept(element);
+        }
+        return count;
+    }
+
+    /**
+     * @return 取り出し待ちの件数（確保中の位置を含む概算）
+     */
+    public int size() {
+        return (int) Math.max(0L, head.get() - tail);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return 満杯のために破棄した件数
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,271 @@
+package org.tofu.tofunomics.trace;
+
+import org.tofu.tofunomics.performance.StatsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * サブシステムごとの動作トレース
+ * 呼び出し側は {@link #isEnabled(Category, UUID)} で確認してからメッセージを組み立てるため、
+ * 無効なカテゴリではvolatileの読み取り1回だけで済み、文字列の連結も行わない。
+ * 記録したトレースはリングバッファに入れ、非同期タスクで trace/trace.log へ書き出す（コンソールには出さない）
+ */
+public class Tracer {
+
+    /**
+     * トレースのカテゴリ
+     */
+    public enum Category {
+        EVENTS("events"),
+        JOBS("jobs"),
+        PERMISSIONS("permissions"),
+        CRAFT("craft");
+
+        private final String key;
+
+        Category(String key) {
+            this.key = key;
+        }
+
+        public String getKey() { return key; }
+
+        public static Category fromKey(String key) {
+            for (Category category : values()) {
+                if (category.key.equalsIgnoreCase(key)) {
+                    return category;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 有効なカテゴリと対象プレイヤー（変更のたびに丸ごと差し替える）
+     */
+    private static final class State {
+        private final int enabledMask;
+        // カテゴリの序数を添字とする対象プレイヤー（nullは全員）
+        private final Set<UUID>[] players;
+
+        @SuppressWarnings("unchecked")
+        private State(int enabledMask, Set<UUID>[] players) {
+            this.enabledMask = enabledMask;
+            this.players = players != null ? players : new Set[Category.values().length];
+        }
+    }
+
+    /**
+     * 1件のトレース（書き出し時に整形する）
+     */
+    private static final class Entry {
+        private final long time;
+        private final Category category;
+        private final String subject;
+        private final String message;
+
+        private Entry(long time, Category category, String subject, String message) {
+            this.time = time;
+            this.category = category;
+            this.subject = subject;
+            this.message = message;
+        }
+    }
+
+    private final File logFile;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Logger logger;
+    private final TraceBuffer<Entry> buffer;
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.ROOT);
+    private volatile State state = new State(0, null);
+    private long reportedDropped;
+
+    /**
+     * @param logFile 書き出し先（サイズを超えたら trace.1.log, trace.2.log ... へ退避する）
+     * @param bufferSize 書き出し待ちの上限件数
+     * @param maxFileBytes 1ファイルの上限サイズ
+     * @param maxFiles 退避したファイルを含めて残すファイル数
+     */
+    public Tracer(File logFile, int bufferSize, long maxFileBytes, int maxFiles, Logger logger) {
+        this.logFile = logFile;
+        this.maxFileBytes = Math.max(1024L, maxFileBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.logger = logger;
+        this.buffer = new TraceBuffer<>(bufferSize);
+    }
+
+    // ========== 記録 ==========
+
+    /**
+     * カテゴリが有効で、プレイヤーがトレース対象か
+     * @param player 対象プレイヤー（プレイヤーに関係しない処理はnull、プレイヤー指定のトレースでは対象外になる）
+     */
+    public boolean isEnabled(Category category, UUID player) {
+        State current = state;
+        if ((current.enabledMask & (1 << category.ordinal())) == 0) {
+            return false;
+        }
+        Set<UUID> players = current.players[category.ordinal()];
+        return players == null || (player != null && players.contains(player));
+    }
+
+    /**
+     * トレースを記録する（{@link #isEnabled(Category, UUID)} で確認してから呼ぶ）
+     * @param subject プレイヤー名など、何についてのトレースか
+     */
+    public void trace(Category category, String subject, String message) {
+        buffer.offer(new Entry(System.currentTimeMillis(), category, subject, message));
+    }
+
+    // ========== 切り替え ==========
+
+    /**
+     * カテゴリのトレースを切り替える
+     * プレイヤーを指定しない場合は全員を対象に有効・無効を切り替え、
+     * 指定した場合はそのプレイヤーを対象に加える・外す（全員が対象だった場合はそのプレイヤーだけに絞る）
+     * @return 切り替え後に対象が有効か
+     */
+    public synchronized boolean toggle(Category category, UUID player) {
+        State current = state;
+        boolean enabled = (current.enabledMask & (1 << category.ordinal())) != 0;
+        Set<UUID> players = current.players[category.ordinal()];
+
+        if (player == null) {
+            boolean result = !(enabled && players == null);
+            setCategory(current, category, result, null);
+            return result;
+        }
+        if (!enabled || players == null) {
+            setCategory(current, category, true, Collections.singleton(player));
+            return true;
+        }
+        Set<UUID> updated = new HashSet<>(players);
+        boolean added = updated.add(player);
+        if (!added) {
+            updated.remove(player);
+        }
+        // 最後の対象プレイヤーを外した場合はカテゴリごと無効にする
+        setCategory(current, category, !updated.isEmpty(), Collections.unmodifiableSet(updated));
+        return added;
+    }
+
+    /**
+     * すべてのカテゴリを無効にする
+     */
+    public synchronized void disableAll() {
+        state = new State(0, null);
+    }
+
+    private void setCategory(State current, Category category, boolean enabled, Set<UUID> players) {
+        Set<UUID>[] updated = current.players.clone();
+        updated[category.ordinal()] = enabled ? players : null;
+        int bit = 1 << category.ordinal();
+        state = new State(enabled ? current.enabledMask | bit : current.enabledMask & ~bit, updated);
+    }
+
+    public boolean isCategoryEnabled(Category category) {
+        return (state.enabledMask & (1 << category.ordinal())) != 0;
+    }
+
+    /**
+     * @return カテゴリの対象プレイヤー（全員が対象、または無効の場合は空）
+     */
+    public Set<UUID> getPlayers(Category category) {
+        Set<UUID> players = state.players[category.ordinal()];
+        return players != null ? players : Collections.emptySet();
+    }
+
+    // ========== 書き出し ==========
+
+    /**
+     * 記録済みのトレースをファイルへ書き出す（非同期タスクから定期的に呼ぶ）
+     */
+    public synchronized void flush() {
+        if (buffer.size() == 0 && buffer.getDroppedCount() == reportedDropped) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder(4096);
+        buffer.drain(entry -> appendLine(lines, entry));
+        long dropped = buffer.getDroppedCount();
+        if (dropped != reportedDropped) {
+            lines.append(timeFormat.format(new Date())).append(" [trace] 書き出しが追いつかず ")
+                .append(dropped - reportedDropped).append("件を破棄しました\n");
+            reportedDropped = dropped;
+        }
+        if (lines.length() == 0) {
+            return;
+        }
+
+        try {
+            File parent = logFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("出力先のフォルダを作成できません: " + parent);
+            }
+            if (logFile.length() >= maxFileBytes) {
+                rotate();
+            }
+            try (Writer writer = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(lines.toString());
+            }
+        } catch (IOException e) {
+            logger.warning("トレースの書き出しに失敗しました: " + e.getMessage());
+        }
+    }
+
+    private void appendLine(StringBuilder lines, Entry entry) {
+        lines.append(timeFormat.format(new Date(entry.time)))
+            .append(" [").append(entry.category.getKey()).append("] ");
+        if (entry.subject != null) {
+            lines.append(entry.subject).append(": ");
+        }
+        lines.append(entry.message).append('\n');
+    }
+
+    /**
+     * trace.log を trace.1.log へ、trace.1.log を trace.2.log へ…と退避し、上限を超えた古いファイルを削除する
+     */
+    private void rotate() throws IOException {
+        for (int index = maxFiles - 1; index >= 1; index--) {
+            File source = index == 1 ? logFile : rotatedFile(index - 1);
+            if (source.exists()) {
+                Files.move(source.toPath(), rotatedFile(index).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles == 1) {
+            Files.deleteIfExists(logFile.toPath());
+        }
+    }
+
+    File rotatedFile(int index) {
+        String name = logFile.getName();
+        int dot = name.lastIndexOf('.');
+        String rotated = dot > 0
+            ? name.substring(0, dot) + "." + index + name.substring(dot)
+            : name + "." + index;
+        return new File(logFile.getParentFile(), rotated);
+    }
+
+    public File getLogFile() {
+        return logFile;
+    }
+
+    public void registerStats(StatsRegistry registry) {
+        registry.register("trace.buffer", () -> StatsRegistry.Stats.queue(buffer.size(),
+            buffer.capacity() * 8L + buffer.size() * 96L, StatsRegistry.UNKNOWN));
+    }
+}
@@ -133,11 +133,8 @@ public class TradeChestListener implements Listener {
         // プレイヤーに金額を付与
         if (totalEarnings > 0) {
             try {
-                org.tofu.tofunomics.models.Player tofuPlayer = playerDAO.getPlayerByUUID(player.getUniqueId().toString());
-                if (tofuPlayer != null) {
-                    tofuPlayer.setBalance(tofuPlayer.getBalance() + totalEarnings);
-                    playerDAO.updatePlayer(tofuPlayer);
-                }
+                // 行がない場合は付与しない（adjustBalanceがfalseを返す）
+                playerDAO.adjustBalance(player.getUniqueId(), totalEarnings);
             } catch (Exception e) {
                 player.sendMessage(ChatColor.RED + "残高の更新に失敗しました: " + e.getMessage());
                 return;
@@ -214,6 +211,7 @@ public class TradeChestListener implements Listener {
      */
     private void saveTradeHistory(Player player, TradeChest tradeChest, List<TradeTransaction> transactions) {
         String playerUUID = player.getUniqueId().toString();
+        List<PlayerTradeHistory> histories = new ArrayList<>(transactions.size());
         
         for (TradeTransaction transaction : transactions) {
             PlayerJob playerJob = jobManager.getPlayerJob(player, tradeChest.getJobType());
@@ -229,8 +227,11 @@ public class TradeChestListener implements Listener {
             );
             
             history.setJobBonus(transaction.getResult().getJobBonus());
-            tradeChestManager.saveTradeHistory(history);
+            histories.add(history);
         }
+        
+        // 履歴と日次集計の書き込みはDBスレッドで1トランザクションにまとめて行う
+        tradeChestManager.saveTradeHistoriesAsync(histories);
     }
     
     /**
@@ -9,9 +9,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.ChatColor;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.dao.RowMapper;
+import org.tofu.tofunomics.dao.TradeHistoryDAO;
 import org.tofu.tofunomics.models.TradeChest;
 import org.tofu.tofunomics.models.PlayerTradeHistory;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -27,15 +30,38 @@ import java.util.Map;
  */
 public class TradeChestManager {
     
-    private final Connection connection;
+    private static final RowMapper<TradeChest> TRADE_CHEST_MAPPER = new RowMapper<>(
+        "id, world_name, x, y, z, job_type, active, created_by, created_at",
+        rs -> {
+            TradeChest chest = new TradeChest();
+            chest.setId(rs.getInt(1));
+            chest.setWorldName(rs.getString(2));
+            chest.setX(rs.getInt(3));
+            chest.setY(rs.getInt(4));
+            chest.setZ(rs.getInt(5));
+            chest.setJobType(rs.getString(6));
+            chest.setActive(rs.getBoolean(7));
+            chest.setCreatedBy(rs.getString(8));
+            chest.setCreatedAt(rs.getTimestamp(9));
+            return chest;
+        });
+    
+    private final DataSource dataSource;
     private final ConfigManager configManager;
     private final PlayerDAO playerDAO;
+    private final TradeHistoryDAO tradeHistoryDAO;
     private final Map<String, TradeChest> locationToChestMap;
     
-    public TradeChestManager(Connection connection, ConfigManager configManager, PlayerDAO playerDAO) {
-        this.connection = connection;
+    public TradeChestManager(DataSource dataSource, ConfigManager configManager, PlayerDAO playerDAO) {
+        this(dataSource, configManager, playerDAO, new TradeHistoryDAO(dataSource));
+    }
+    
+    public TradeChestManager(DataSource dataSource, ConfigManager configManager, PlayerDAO playerDAO,
+                             TradeHistoryDAO tradeHistoryDAO) {
+        this.dataSource = dataSource;
         this.configManager = configManager;
         this.playerDAO = playerDAO;
+        this.tradeHistoryDAO = tradeHistoryDAO;
         this.locationToChestMap = new HashMap<>();
         loadTradeChests();
     }
@@ -44,15 +70,16 @@ public class TradeChestManager {
      * データベースから全取引チェストを読み込み
      */
     private void loadTradeChests() {
-        String sql = "SELECT * FROM trade_chests WHERE active = 1";
+        String sql = TRADE_CHEST_MAPPER.selectFrom("trade_chests") + " WHERE active = 1";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             locationToChestMap.clear();
             
             while (rs.next()) {
-                TradeChest chest = createTradeChestFromResultSet(rs);
+                TradeChest chest = TRADE_CHEST_MAPPER.map(rs);
                 String locationKey = createLocationKey(chest.getWorldName(), chest.getX(), chest.getY(), chest.getZ());
                 locationToChestMap.put(locationKey, chest);
             }
@@ -108,7 +135,8 @@ public class TradeChestManager {
     private boolean saveTradeChest(TradeChest tradeChest) {
         String sql = "INSERT INTO trade_chests (world_name, x, y, z, job_type, created_by) VALUES (?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, tradeChest.getWorldName());
             stmt.setInt(2, tradeChest.getX());
             stmt.setInt(3, tradeChest.getY());
@@ -147,7 +175,8 @@ public class TradeChestManager {
         
         String sql = "UPDATE trade_chests SET active = 0 WHERE id = ?";
         
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, tradeChest.getId());
             
             int rowsAffected = stmt.executeUpdate();
@@ -203,30 +232,9 @@ public class TradeChestManager {
      * プレイヤーの取引履歴を保存
      */
     public boolean saveTradeHistory(PlayerTradeHistory history) {
-        String sql = "INSERT INTO player_trade_history " +
-                    "(uuid, trade_chest_id, item_type, item_amount, sale_price, job_bonus, player_job, player_job_level) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, history.getUuid());
-            stmt.setInt(2, history.getTradeChestId());
-            stmt.setString(3, history.getItemType());
-            stmt.setInt(4, history.getItemAmount());
-            stmt.setDouble(5, history.getSalePrice());
-            stmt.setDouble(6, history.getJobBonus());
-            stmt.setString(7, history.getPlayerJob());
-            stmt.setInt(8, history.getPlayerJobLevel());
-            
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        history.setId(generatedKeys.getInt(1));
-                        return true;
-                    }
-                }
-            }
-            
+        try {
+            tradeHistoryDAO.insertTradeHistory(history);
+            return true;
         } catch (SQLException e) {
             System.err.println("取引履歴の保存に失敗しました: " + e.getMessage());
         }
@@ -234,63 +242,37 @@ public class TradeChestManager {
         return false;
     }
     
+    /**
+     * 1回の取引で発生した履歴をまとめて非同期に保存（1トランザクション）
+     */
+    public void saveTradeHistoriesAsync(List<PlayerTradeHistory> histories) {
+        tradeHistoryDAO.insertTradeHistoriesAsync(histories).exceptionally(throwable -> {
+            System.err.println("取引履歴の保存に失敗しました: " + throwable.getMessage());
+            return null;
+        });
+    }
+    
     /**
      * プレイヤーの取引履歴を取得
      */
     public List<PlayerTradeHistory> getPlayerTradeHistory(String uuid, int limit) {
-        String sql = "SELECT * FROM player_trade_history WHERE uuid = ? ORDER BY traded_at DESC LIMIT ?";
-        List<PlayerTradeHistory> histories = new ArrayList<>();
-        
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, uuid);
-            stmt.setInt(2, limit);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    histories.add(createTradeHistoryFromResultSet(rs));
-                }
-            }
-            
+        try {
+            return tradeHistoryDAO.getPlayerTradeHistory(uuid, limit);
         } catch (SQLException e) {
             System.err.println("取引履歴の取得に失敗しました: " + e.getMessage());
         }
         
-        return histories;
+        return new ArrayList<>();
+    }
+    
+    public TradeHistoryDAO getTradeHistoryDAO() {
+        return tradeHistoryDAO;
     }
     
     /**
      * ユーティリティメソッド群
      */
     
-    private TradeChest createTradeChestFromResultSet(ResultSet rs) throws SQLException {
-        TradeChest chest = new TradeChest();
-        chest.setId(rs.getInt("id"));
-        chest.setWorldName(rs.getString("world_name"));
-        chest.setX(rs.getInt("x"));
-        chest.setY(rs.getInt("y"));
-        chest.setZ(rs.getInt("z"));
-        chest.setJobType(rs.getString("job_type"));
-        chest.setActive(rs.getBoolean("active"));
-        chest.setCreatedBy(rs.getString("created_by"));
-        chest.setCreatedAt(rs.getTimestamp("created_at"));
-        return chest;
-    }
-    
-    private PlayerTradeHistory createTradeHistoryFromResultSet(ResultSet rs) throws SQLException {
-        PlayerTradeHistory history = new PlayerTradeHistory();
-        history.setId(rs.getInt("id"));
-        history.setUuid(rs.getString("uuid"));
-        history.setTradeChestId(rs.getInt("trade_chest_id"));
-        history.setItemType(rs.getString("item_type"));
-        history.setItemAmount(rs.getInt("item_amount"));
-        history.setSalePrice(rs.getDouble("sale_price"));
-        history.setJobBonus(rs.getDouble("job_bonus"));
-        history.setPlayerJob(rs.getString("player_job"));
-        history.setPlayerJobLevel(rs.getInt("player_job_level"));
-        history.setTradedAt(rs.getTimestamp("traded_at"));
-        return history;
-    }
-    
     private String createLocationKey(Location location) {
         return createLocationKey(location.getWorld().getName(), 
                                location.getBlockX(), location.getBlockY(), location.getBlockZ());
@@ -4,8 +4,11 @@ import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.jobs.JobManager;
+import org.tofu.tofunomics.models.Job;
 import org.tofu.tofunomics.models.PlayerJob;
 import org.tofu.tofunomics.models.TradeChest;
+import org.tofu.tofunomics.rewards.RewardRuleEngine;
+import org.tofu.tofunomics.rewards.RewardRules;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,143 +21,21 @@ public class TradePriceManager {
     private final ConfigManager configManager;
     private final JobManager jobManager;
     
-    // 基本価格テーブル（職業別）
-    private final Map<String, Map<Material, Double>> jobBasePrices;
+    // 基本価格テーブル（職業別、config.yml の reward_rules.trade）
+    private final RewardRuleEngine rewardRuleEngine;
     
     // 職業別価格ボーナス倍率
     private final Map<String, Map<Material, Double>> jobPriceMultipliers;
     
-    public TradePriceManager(ConfigManager configManager, JobManager jobManager) {
+    public TradePriceManager(ConfigManager configManager, JobManager jobManager, RewardRuleEngine rewardRuleEngine) {
         this.configManager = configManager;
         this.jobManager = jobManager;
-        this.jobBasePrices = new HashMap<>();
+        this.rewardRuleEngine = rewardRuleEngine;
         this.jobPriceMultipliers = new HashMap<>();
         
-        initializePriceTables();
         initializePriceMultipliers();
     }
     
-    /**
-     * 基本価格テーブルを初期化
-     */
-    private void initializePriceTables() {
-        // 鉱夫の買取アイテム
-        Map<Material, Double> minerPrices = new HashMap<>();
-        minerPrices.put(Material.COAL, 2.0);
-        minerPrices.put(Material.IRON_INGOT, 8.0);
-        minerPrices.put(Material.GOLD_INGOT, 15.0);
-        minerPrices.put(Material.DIAMOND, 50.0);
-        minerPrices.put(Material.EMERALD, 40.0);
-        minerPrices.put(Material.LAPIS_LAZULI, 3.0);
-        minerPrices.put(Material.REDSTONE, 2.5);
-        minerPrices.put(Material.QUARTZ, 4.0);
-        minerPrices.put(Material.NETHERITE_INGOT, 200.0);
-        minerPrices.put(Material.STONE, 0.1);
-        minerPrices.put(Material.COBBLESTONE, 0.05);
-        minerPrices.put(Material.OBSIDIAN, 3.0);
-        jobBasePrices.put("miner", minerPrices);
-        
-        // 木こりの買取アイテム
-        Map<Material, Double> woodcutterPrices = new HashMap<>();
-        woodcutterPrices.put(Material.OAK_LOG, 1.5);
-        woodcutterPrices.put(Material.BIRCH_LOG, 1.5);
-        woodcutterPrices.put(Material.SPRUCE_LOG, 1.5);
-        woodcutterPrices.put(Material.JUNGLE_LOG, 2.0);
-        woodcutterPrices.put(Material.ACACIA_LOG, 2.0);
-        woodcutterPrices.put(Material.DARK_OAK_LOG, 2.0);
-        woodcutterPrices.put(Material.WARPED_STEM, 3.0);
-        woodcutterPrices.put(Material.CRIMSON_STEM, 3.0);
-        woodcutterPrices.put(Material.OAK_PLANKS, 0.4);
-        woodcutterPrices.put(Material.STICK, 0.1);
-        jobBasePrices.put("woodcutter", woodcutterPrices);
-        
-        // 農家の買取アイテム
-        Map<Material, Double> farmerPrices = new HashMap<>();
-        farmerPrices.put(Material.WHEAT, 1.0);
-        farmerPrices.put(Material.POTATO, 0.8);
-        farmerPrices.put(Material.CARROT, 0.8);
-        farmerPrices.put(Material.BEETROOT, 1.2);
-        farmerPrices.put(Material.PUMPKIN, 2.5);
-        farmerPrices.put(Material.MELON, 2.0);
-        farmerPrices.put(Material.SUGAR_CANE, 0.8);
-        farmerPrices.put(Material.COCOA_BEANS, 2.0);
-        farmerPrices.put(Material.NETHER_WART, 2.5);
-        farmerPrices.put(Material.APPLE, 1.5);
-        farmerPrices.put(Material.SWEET_BERRIES, 1.0);
-        jobBasePrices.put("farmer", farmerPrices);
-        
-        // 漁師の買取アイテム
-        Map<Material, Double> fishermanPrices = new HashMap<>();
-        fishermanPrices.put(Material.COD, 3.0);
-        fishermanPrices.put(Material.SALMON, 4.0);
-        fishermanPrices.put(Material.TROPICAL_FISH, 6.0);
-        fishermanPrices.put(Material.PUFFERFISH, 8.0);
-        fishermanPrices.put(Material.COOKED_COD, 4.5);
-        fishermanPrices.put(Material.COOKED_SALMON, 6.0);
-        fishermanPrices.put(Material.INK_SAC, 2.0);
-        fishermanPrices.put(Material.PRISMARINE_SHARD, 3.0);
-        fishermanPrices.put(Material.PRISMARINE_CRYSTALS, 5.0);
-        jobBasePrices.put("fisherman", fishermanPrices);
-        
-        // 鍛冶屋の買取アイテム
-        Map<Material, Double> blacksmithPrices = new HashMap<>();
-        blacksmithPrices.put(Material.IRON_SWORD, 12.0);
-        blacksmithPrices.put(Material.IRON_PICKAXE, 15.0);
-        blacksmithPrices.put(Material.IRON_AXE, 15.0);
-        blacksmithPrices.put(Material.IRON_SHOVEL, 8.0);
-        blacksmithPrices.put(Material.IRON_HOE, 10.0);
-        blacksmithPrices.put(Material.DIAMOND_SWORD, 30.0);
-        blacksmithPrices.put(Material.DIAMOND_PICKAXE, 35.0);
-        blacksmithPrices.put(Material.DIAMOND_AXE, 35.0);
-        blacksmithPrices.put(Material.NETHERITE_SWORD, 100.0);
-        blacksmithPrices.put(Material.IRON_HELMET, 20.0);
-        blacksmithPrices.put(Material.IRON_CHESTPLATE, 32.0);
-        blacksmithPrices.put(Material.IRON_LEGGINGS, 28.0);
-        blacksmithPrices.put(Material.IRON_BOOTS, 16.0);
-        jobBasePrices.put("blacksmith", blacksmithPrices);
-        
-        // 錬金術師の買取アイテム
-        Map<Material, Double> alchemistPrices = new HashMap<>();
-        alchemistPrices.put(Material.BLAZE_POWDER, 8.0);
-        alchemistPrices.put(Material.GHAST_TEAR, 20.0);
-        alchemistPrices.put(Material.SPIDER_EYE, 3.0);
-        alchemistPrices.put(Material.FERMENTED_SPIDER_EYE, 5.0);
-        alchemistPrices.put(Material.MAGMA_CREAM, 6.0);
-        alchemistPrices.put(Material.GLISTERING_MELON_SLICE, 4.0);
-        alchemistPrices.put(Material.GOLDEN_CARROT, 3.0);
-        alchemistPrices.put(Material.RABBIT_FOOT, 7.0);
-        alchemistPrices.put(Material.TURTLE_HELMET, 25.0);
-        alchemistPrices.put(Material.PHANTOM_MEMBRANE, 10.0);
-        jobBasePrices.put("alchemist", alchemistPrices);
-        
-        // エンチャンターの買取アイテム
-        Map<Material, Double> enchanterPrices = new HashMap<>();
-        enchanterPrices.put(Material.EXPERIENCE_BOTTLE, 15.0);
-        enchanterPrices.put(Material.ENCHANTED_BOOK, 25.0);
-        enchanterPrices.put(Material.BOOKSHELF, 12.0);
-        enchanterPrices.put(Material.BOOK, 3.0);
-        enchanterPrices.put(Material.PAPER, 0.5);
-        enchanterPrices.put(Material.LEATHER, 2.0);
-        enchanterPrices.put(Material.INK_SAC, 1.5);
-        enchanterPrices.put(Material.LAPIS_LAZULI, 4.0);
-        jobBasePrices.put("enchanter", enchanterPrices);
-        
-        // 建築家の買取アイテム
-        Map<Material, Double> architectPrices = new HashMap<>();
-        architectPrices.put(Material.STONE_BRICKS, 0.8);
-        architectPrices.put(Material.QUARTZ_BLOCK, 2.0);
-        architectPrices.put(Material.PRISMARINE, 3.0);
-        architectPrices.put(Material.PURPUR_BLOCK, 4.0);
-        architectPrices.put(Material.END_STONE_BRICKS, 5.0);
-        architectPrices.put(Material.NETHER_BRICKS, 1.5);
-        architectPrices.put(Material.RED_NETHER_BRICKS, 2.0);
-        architectPrices.put(Material.BLACKSTONE, 1.0);
-        architectPrices.put(Material.POLISHED_BLACKSTONE, 1.5);
-        architectPrices.put(Material.GLASS, 0.3);
-        architectPrices.put(Material.WHITE_STAINED_GLASS, 0.5);
-        jobBasePrices.put("architect", architectPrices);
-    }
-    
     /**
      * 職業別価格倍率を初期化
      */
@@ -219,12 +100,13 @@ public class TradePriceManager {
      * 基本価格を取得
      */
     private double getBasePrice(String jobType, Material itemType) {
-        Map<Material, Double> jobPrices = jobBasePrices.get(jobType);
-        if (jobPrices == null) {
+        Job job = jobManager.getJobByName(jobType);
+        if (job == null) {
             return 0.0;
         }
         
-        return jobPrices.getOrDefault(itemType, 0.0);
+        // 買取価格はレベル補正の対象外（職業ボーナスで別途加算する）
+        return rewardRuleEngine.getRules().getIncome(RewardRules.Activity.TRADE, job.getId(), itemType.ordinal(), 0);
     }
     
     /**
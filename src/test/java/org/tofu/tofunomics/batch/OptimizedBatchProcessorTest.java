@@ -0,0 +1,227 @@
+package org.tofu.tofunomics.batch;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * OptimizedBatchProcessor単体テスト
+ * SQLiteインメモリデータベースで同じ行の操作のまとめ、満杯時の受付拒否と前倒しの書き出し、
+ * 失敗した操作の再試行と、新しい値を受け付けた後の古い値の再試行の破棄を検証
+ */
+public class OptimizedBatchProcessorTest {
+
+    /**
+     * 接続の取得を止める・失敗させることができるDataSource
+     */
+    private static final class ControlledDataSource extends SingleConnectionDataSource {
+        private volatile boolean failing;
+        private volatile CountDownLatch gate;
+
+        ControlledDataSource(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            CountDownLatch current = gate;
+            if (current != null) {
+                try {
+                    current.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing) {
+                throw new SQLException("接続できません");
+            }
+            return super.getConnection();
+        }
+    }
+
+    @Mock
+    private JavaPlugin plugin;
+
+    @Mock
+    private ConfigManager configManager;
+
+    private Connection connection;
+    private ControlledDataSource dataSource;
+    private OptimizedBatchProcessor processor;
+    private final List<String> results = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("OptimizedBatchProcessorTest"));
+        when(configManager.isBatchProcessingEnabled()).thenReturn(true);
+        when(configManager.getBatchSize()).thenReturn(100);
+        when(configManager.getBatchTimeout()).thenReturn(60000);
+
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE players (uuid TEXT PRIMARY KEY, balance REAL, bank_balance REAL, updated_at TIMESTAMP)");
+            statement.execute("CREATE TABLE player_jobs (uuid TEXT, job_id INTEGER, level INTEGER, experience REAL, "
+                + "updated_at TIMESTAMP, PRIMARY KEY (uuid, job_id))");
+            statement.execute("INSERT INTO players (uuid, balance, bank_balance) VALUES ('p1', 0, 0), ('p2', 0, 0), ('p3', 0, 0)");
+            statement.execute("INSERT INTO player_jobs (uuid, job_id, level, experience) VALUES ('p1', 1, 1, 0)");
+        }
+        dataSource = new ControlledDataSource(connection);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (processor != null) {
+            dataSource.failing = false;
+            dataSource.gate = null;
+            processor.shutdown();
+        }
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    private OptimizedBatchProcessor createProcessor(int maxQueueSize, int maxRetries) {
+        when(configManager.getBatchMaxQueueSize()).thenReturn(maxQueueSize);
+        when(configManager.getBatchMaxRetries()).thenReturn(maxRetries);
+        processor = new OptimizedBatchProcessor(plugin, configManager, dataSource);
+        return processor;
+    }
+
+    private OptimizedBatchProcessor.WriteListener record(String name) {
+        return written -> results.add(name + ":" + written);
+    }
+
+    private double balanceOf(String uuid) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT balance FROM players WHERE uuid = ?")) {
+            statement.setString(1, uuid);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                return resultSet.getDouble(1);
+            }
+        }
+    }
+
+    @Test
+    public void testUpdatesToSameRowAreCoalesced() throws Exception {
+        createProcessor(100, 3);
+        assertTrue(processor.queuePlayerState("p1", 10.0, 0.0, record("a")));
+        assertTrue(processor.queuePlayerState("p1", 20.0, 0.0, record("b")));
+        assertTrue(processor.queuePlayerState("p1", 30.0, 5.0, record("c")));
+        assertTrue(processor.queuePlayerJobState("p1", 1, 2, 10.0));
+        assertTrue(processor.queuePlayerJobState("p1", 1, 3, 40.0));
+
+        OptimizedBatchProcessor.BatchStatistics queued = processor.getStatistics();
+        assertEquals("同じ行の操作は1つにまとめるべき", 2, queued.getCurrentQueuedOperations());
+        assertEquals(3, queued.getCoalescedOperations());
+
+        processor.flush().get(5, TimeUnit.SECONDS);
+
+        assertEquals("最新の値を書き込むべき", 30.0, balanceOf("p1"), 0.0);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT level, experience FROM player_jobs WHERE uuid = 'p1'")) {
+            assertTrue(resultSet.next());
+            assertEquals(3, resultSet.getInt(1));
+            assertEquals(40.0, resultSet.getDouble(2), 0.0);
+        }
+        assertEquals(2, processor.getStatistics().getTotalOperationsProcessed());
+        assertEquals("まとめられた操作にも書き込みを通知するべき", 3, results.size());
+        assertTrue(results.stream().allMatch(result -> result.endsWith(":true")));
+    }
+
+    @Test
+    public void testFullQueueRejectsAndFlushesEarly() throws Exception {
+        createProcessor(2, 3);
+        assertTrue(processor.queuePlayerState("p1", 10.0, 0.0));
+        assertTrue(processor.queuePlayerState("p2", 20.0, 0.0));
+        assertTrue("既に積まれている行はまとめるため受け付けるべき", processor.queuePlayerState("p1", 11.0, 0.0));
+        assertFalse("満杯のキューは新しい行を受け付けないべき", processor.queuePlayerState("p3", 30.0, 0.0));
+        assertEquals(1, processor.getStatistics().getRejectedOperations());
+
+        // 次の周期を待たずに書き出しが始まる
+        long deadline = System.currentTimeMillis() + 5000;
+        while (processor.getStatistics().getTotalOperationsProcessed() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, processor.getStatistics().getTotalOperationsProcessed());
+        assertEquals(11.0, balanceOf("p1"), 0.0);
+        assertEquals(20.0, balanceOf("p2"), 0.0);
+        assertTrue("書き出し後は再び受け付けるべき", processor.queuePlayerState("p3", 30.0, 0.0));
+    }
+
+    @Test
+    public void testFailedWriteIsRequeuedAndRetried() throws Exception {
+        createProcessor(100, 3);
+        dataSource.failing = true;
+        processor.queuePlayerState("p1", 10.0, 0.0, record("a"));
+
+        processor.flush().get(5, TimeUnit.SECONDS);
+        assertEquals(1, processor.getStatistics().getRetriedOperations());
+        assertEquals("再試行待ちの操作はキューに戻すべき", 1, processor.getStatistics().getCurrentQueuedOperations());
+        assertTrue("書き込みが確定するまで通知しないべき", results.isEmpty());
+
+        dataSource.failing = false;
+        processor.flush().get(5, TimeUnit.SECONDS);
+        assertEquals(10.0, balanceOf("p1"), 0.0);
+        assertEquals(1, results.size());
+        assertEquals("a:true", results.get(0));
+    }
+
+    @Test
+    public void testWriteIsDroppedAfterMaxRetries() throws Exception {
+        createProcessor(100, 0);
+        dataSource.failing = true;
+        processor.queuePlayerState("p1", 10.0, 0.0, record("a"));
+
+        processor.flush().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, processor.getStatistics().getDroppedOperations());
+        assertEquals(0, processor.getStatistics().getCurrentQueuedOperations());
+        assertEquals("破棄した操作はfalseで通知するべき", 1, results.size());
+        assertEquals("a:false", results.get(0));
+    }
+
+    @Test
+    public void testStaleRetryDoesNotOverwriteNewerValue() throws Exception {
+        createProcessor(100, 3);
+        dataSource.failing = true;
+        dataSource.gate = new CountDownLatch(1);
+        processor.queuePlayerState("p1", 10.0, 0.0, record("old"));
+
+        // 古い値の書き込み中に新しい値を受け付ける
+        CompletableFuture<Void> first = processor.flush();
+        processor.queuePlayerState("p1", 20.0, 0.0, record("new"));
+        CountDownLatch gate = dataSource.gate;
+        dataSource.gate = null;
+        gate.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        dataSource.failing = false;
+        processor.flush().get(5, TimeUnit.SECONDS);
+
+        assertEquals("古い値の再試行で新しい値を上書きしないべき", 20.0, balanceOf("p1"), 0.0);
+        assertTrue(results.contains("old:true"));
+        assertTrue(results.contains("new:true"));
+    }
+}
@@ -0,0 +1,67 @@
+package org.tofu.tofunomics.blocks;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * LongHashSet単体テスト
+ * 0を含む追加・削除、拡張後の検索、削除後も同じ探索列の要素が見つかることを検証
+ */
+public class LongHashSetTest {
+
+    @Test
+    public void testAddContainsRemove() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(0L));
+        assertTrue(set.add(42L));
+        assertFalse("同じ値は追加しないべき", set.add(42L));
+        assertEquals(2, set.size());
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(42L));
+
+        assertTrue(set.remove(0L));
+        assertFalse(set.contains(0L));
+        assertFalse(set.remove(7L));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void testMatchesHashSetUnderRandomOperations() {
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            long value = random.nextInt(2000) - 1000;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (long value = -1000; value < 1000; value++) {
+            assertEquals("削除後も残りの要素を見つけられるべき", expected.contains(value), set.contains(value));
+        }
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        assertEquals(expected.size(), values.length);
+    }
+
+    @Test
+    public void testClear() {
+        LongHashSet set = new LongHashSet(100);
+        for (long i = 0; i < 100; i++) {
+            set.add(i);
+        }
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0L));
+        assertFalse(set.contains(50L));
+    }
+}
@@ -0,0 +1,141 @@
+package org.tofu.tofunomics.blocks;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * PlacedBlockTracker単体テスト
+ * 記録・判定、チャンク解放時の保存と再読み込み、読み込み中の破壊の反映と判定、上限を検証
+ */
+public class PlacedBlockTrackerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // 読み込み結果の反映を手動で進めるためにためておく
+    private final List<Runnable> mainThreadTasks = new ArrayList<>();
+
+    private PlacedBlockTracker createTracker(int maxBlocksPerChunk) {
+        return new PlacedBlockTracker(folder.getRoot(), maxBlocksPerChunk, Runnable::run, mainThreadTasks::add,
+            Logger.getLogger("test"));
+    }
+
+    private void runMainThread() {
+        List<Runnable> tasks = new ArrayList<>(mainThreadTasks);
+        mainThreadTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testMarkAndUnmark() {
+        PlacedBlockTracker tracker = createTracker(100);
+        tracker.onChunkLoad("world", -1, 0);
+        runMainThread();
+
+        tracker.markPlaced("world", -5, -60, 3);
+        assertTrue(tracker.isPlaced("world", -5, -60, 3));
+        assertFalse(tracker.isPlaced("world", -5, -59, 3));
+        assertFalse("別のワールドは別に記録するべき", tracker.isPlaced("world_nether", -5, -60, 3));
+
+        tracker.unmark("world", -5, -60, 3);
+        assertFalse(tracker.isPlaced("world", -5, -60, 3));
+    }
+
+    @Test
+    public void testRegionIsSavedOnUnloadAndReloaded() {
+        PlacedBlockTracker tracker = createTracker(100);
+        tracker.onChunkLoad("world", 0, 0);
+        tracker.onChunkLoad("world", 40, -1);
+        runMainThread();
+        tracker.markPlaced("world", 1, 64, 2);
+        tracker.markPlaced("world", 15, 255, 15);
+        tracker.markPlaced("world", 645, 10, -3);
+
+        tracker.onChunkUnload("world", 0, 0);
+        assertEquals("読み込まれたチャンクのない領域はメモリから外すべき", 1, tracker.getRegionCount());
+        assertFalse(tracker.isPlaced("world", 1, 64, 2));
+        assertTrue(new File(folder.getRoot(), "world/r.0.0.bin").exists());
+
+        tracker.onChunkLoad("world", 0, 0);
+        runMainThread();
+        assertTrue("保存した記録を読み込むべき", tracker.isPlaced("world", 1, 64, 2));
+        assertTrue(tracker.isPlaced("world", 15, 255, 15));
+        assertTrue(tracker.isPlaced("world", 645, 10, -3));
+        assertEquals(3, tracker.getTrackedCount());
+    }
+
+    @Test
+    public void testSaveAllAndRestart() {
+        PlacedBlockTracker tracker = createTracker(100);
+        tracker.onChunkLoad("world", -33, 5);
+        runMainThread();
+        tracker.markPlaced("world", -520, -2, 90);
+        tracker.saveAll();
+        assertEquals(0, tracker.getRegionCount());
+
+        PlacedBlockTracker restarted = createTracker(100);
+        restarted.onChunkLoad("world", -33, 5);
+        runMainThread();
+        assertTrue(restarted.isPlaced("world", -520, -2, 90));
+    }
+
+    @Test
+    public void testChangesWhileLoadingAreMerged() {
+        PlacedBlockTracker tracker = createTracker(100);
+        tracker.onChunkLoad("world", 0, 0);
+        runMainThread();
+        tracker.markPlaced("world", 1, 1, 1);
+        tracker.markPlaced("world", 2, 2, 2);
+        tracker.onChunkUnload("world", 0, 0);
+
+        // 読み込み結果を反映する前に設置・破壊する
+        tracker.onChunkLoad("world", 0, 0);
+        tracker.markPlaced("world", 3, 3, 3);
+        tracker.unmark("world", 1, 1, 1);
+        runMainThread();
+
+        assertFalse("読み込み中に壊したブロックは記録に戻さないべき", tracker.isPlaced("world", 1, 1, 1));
+        assertTrue(tracker.isPlaced("world", 2, 2, 2));
+        assertTrue(tracker.isPlaced("world", 3, 3, 3));
+    }
+
+    @Test
+    public void testBlocksAreTreatedAsPlacedWhileRegionIsLoading() {
+        PlacedBlockTracker tracker = createTracker(100);
+        tracker.onChunkLoad("world", 0, 0);
+        runMainThread();
+        tracker.markPlaced("world", 1, 1, 1);
+        tracker.onChunkUnload("world", 0, 0);
+
+        tracker.onChunkLoad("world", 0, 0);
+        assertTrue("読み込み中は設置済みのブロックを見逃さないべき", tracker.isPlaced("world", 1, 1, 1));
+        assertTrue("読み込み中は記録が分からないため設置済みとして扱うべき", tracker.isPlaced("world", 4, 4, 4));
+        tracker.unmark("world", 4, 4, 4);
+        assertFalse("読み込み中に壊した位置は設置済みとして扱わないべき", tracker.isPlaced("world", 4, 4, 4));
+
+        runMainThread();
+        assertTrue(tracker.isPlaced("world", 1, 1, 1));
+        assertFalse("読み込み後は記録のないブロックを自然のブロックとして扱うべき", tracker.isPlaced("world", 5, 5, 5));
+    }
+
+    @Test
+    public void testMaxBlocksPerChunk() {
+        PlacedBlockTracker tracker = createTracker(2);
+        tracker.onChunkLoad("world", 0, 0);
+        runMainThread();
+        tracker.markPlaced("world", 0, 0, 0);
+        tracker.markPlaced("world", 1, 0, 0);
+        tracker.markPlaced("world", 2, 0, 0);
+
+        assertFalse("上限を超えた設置は記録しないべき", tracker.isPlaced("world", 2, 0, 0));
+        assertEquals(1, tracker.getSkippedPlacements());
+    }
+}
@@ -0,0 +1,176 @@
+package org.tofu.tofunomics.cache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tofu.tofunomics.dao.PlayerDAO;
+import org.tofu.tofunomics.dao.PlayerJobDAO;
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
+import org.tofu.tofunomics.models.Player;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * CacheManagerの事前読み込み（ウォームアップ）テスト
+ * H2インメモリデータベースを使用して、まとめて読み込んだ行がキャッシュから返ることを確認する
+ */
+public class CacheManagerWarmupTest {
+
+    private Connection connection;
+    private PlayerStateStore stateStore;
+    private CacheManager cacheManager;
+    private PlayerDAO playerDAO;
+    private PlayerJobDAO playerJobDAO;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:testdb_cachewarmup;DB_CLOSE_DELAY=-1", "sa", "");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS players (" +
+                    "uuid VARCHAR(36) PRIMARY KEY, " +
+                    "balance DOUBLE NOT NULL DEFAULT 0.0, " +
+                    "bank_balance DOUBLE NOT NULL DEFAULT 0.0, " +
+                    "created_at TIMESTAMP NOT NULL, " +
+                    "updated_at TIMESTAMP NOT NULL" +
+                    ")");
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS player_jobs (" +
+                    "uuid VARCHAR(36) NOT NULL, " +
+                    "job_id INT NOT NULL, " +
+                    "level INT NOT NULL DEFAULT 1, " +
+                    "experience DOUBLE NOT NULL DEFAULT 0.0, " +
+                    "joined_at TIMESTAMP NOT NULL, " +
+                    "updated_at TIMESTAMP NOT NULL, " +
+                    "PRIMARY KEY (uuid, job_id)" +
+                    ")");
+        }
+
+        stateStore = new PlayerStateStore();
+        cacheManager = new CacheManager(300, 60_000L, 300, 60_000L, Logger.getLogger("CacheManagerWarmupTest"));
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(connection);
+        playerDAO = new PlayerDAO(dataSource, DatabaseExecutor.inline(), stateStore, new WealthLeaderboard(), cacheManager);
+        playerJobDAO = new PlayerJobDAO(dataSource, DatabaseExecutor.inline(), stateStore, cacheManager);
+        cacheManager.bindDataAccess(playerDAO, playerJobDAO);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (connection != null && !connection.isClosed()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DROP TABLE IF EXISTS players");
+                statement.executeUpdate("DROP TABLE IF EXISTS player_jobs");
+            }
+            connection.close();
+        }
+    }
+
+    private void insertPlayer(UUID uuid, double balance, long updatedAt) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO players (uuid, balance, bank_balance, created_at, updated_at) VALUES (?, ?, 0.0, ?, ?)")) {
+            statement.setString(1, uuid.toString());
+            statement.setDouble(2, balance);
+            statement.setTimestamp(3, new Timestamp(updatedAt));
+            statement.setTimestamp(4, new Timestamp(updatedAt));
+            statement.executeUpdate();
+        }
+    }
+
+    private void insertPlayerJob(UUID uuid, int jobId, int level) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO player_jobs (uuid, job_id, level, experience, joined_at, updated_at) VALUES (?, ?, ?, 0.0, ?, ?)")) {
+            statement.setString(1, uuid.toString());
+            statement.setInt(2, jobId);
+            statement.setInt(3, level);
+            statement.setTimestamp(4, now);
+            statement.setTimestamp(5, now);
+            statement.executeUpdate();
+        }
+    }
+
+    @Test
+    public void testWarmupLoadsRecentPlayersInChunks() throws SQLException {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            UUID uuid = UUID.randomUUID();
+            uuids.add(uuid);
+            insertPlayer(uuid, i, 1_000_000L + i * 1000L);
+            if (i % 2 == 0) {
+                insertPlayerJob(uuid, 1, i);
+            }
+        }
+
+        // 既定のチャンクサイズ（200人）を超える人数で、2回に分けて読み込まれる
+        List<UUID> recent = playerDAO.getRecentlyActivePlayerUuids(220);
+        assertEquals(220, recent.size());
+        assertEquals("最近更新されたプレイヤーが先頭であるべき", uuids.get(249), recent.get(0));
+
+        CacheManager.WarmupStatus status = cacheManager.warmup(recent);
+
+        assertEquals(CacheManager.WarmupStatus.State.COMPLETED, status.getState());
+        assertEquals(220, status.getProcessedPlayers());
+        assertEquals(220, status.getCachedPlayers());
+        assertEquals(220, status.getCachedPlayerJobs());
+        assertEquals(1.0, status.getProgress(), 0.0001);
+
+        // 事前読み込み後はDBを変更してもキャッシュから返る
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM player_jobs");
+        }
+        assertEquals(249.0, playerDAO.getPlayer(uuids.get(249)).getBalance(), 0.001);
+        assertEquals(248, playerJobDAO.getCurrentPlayerJob(uuids.get(248)).getLevel());
+        assertTrue("職業のないプレイヤーは空リストとしてキャッシュされるべき",
+                cacheManager.getCachedPlayerJobs(uuids.get(249)).isEmpty());
+        assertNull("対象外のプレイヤーはキャッシュされないべき", cacheManager.getCachedPlayer(uuids.get(0)));
+    }
+
+    @Test
+    public void testWarmupSkipsLoadedAndCachedPlayersWithoutEviction() throws SQLException {
+        UUID online = UUID.randomUUID();
+        UUID cached = UUID.randomUUID();
+        UUID offline = UUID.randomUUID();
+        insertPlayer(online, 10.0, 1_000L);
+        insertPlayer(cached, 20.0, 2_000L);
+        insertPlayer(offline, 30.0, 3_000L);
+
+        Player onlinePlayer = new Player(online, 10.0);
+        stateStore.load(online, onlinePlayer, new ArrayList<>());
+        Player cachedPlayer = playerDAO.getPlayer(cached);
+        cachedPlayer.setBalance(99.0);
+        cacheManager.updateCachedPlayer(cachedPlayer);
+
+        CacheManager.WarmupStatus status = cacheManager.warmup(Arrays.asList(online, cached, offline));
+
+        assertEquals("未読み込みかつ未キャッシュのプレイヤーだけ登録されるべき", 1, status.getCachedPlayers());
+        assertNull("読み込み済みのプレイヤーはキャッシュしないべき", cacheManager.getCachedPlayer(online));
+        assertEquals("キャッシュ済みの行は上書きしないべき", 99.0, cacheManager.getCachedPlayer(cached).getBalance(), 0.001);
+        assertEquals(30.0, cacheManager.getCachedPlayer(offline).getBalance(), 0.001);
+
+        SegmentedLruCache<UUID, String> full = new SegmentedLruCache<>(1, 60_000L);
+        full.put(online, "hot");
+        assertFalse("満杯の場合は既存エントリを追い出さないべき", full.offer(offline, "warm"));
+        assertEquals("hot", full.get(online));
+    }
+
+    @Test
+    public void testWarmupWithoutDataAccessDoesNothing() throws SQLException {
+        CacheManager unbound = new CacheManager(10, 60_000L, 10, 60_000L, Logger.getLogger("CacheManagerWarmupTest"));
+        CacheManager.WarmupStatus status = unbound.warmup(Arrays.asList(UUID.randomUUID()));
+
+        assertEquals(CacheManager.WarmupStatus.State.IDLE, status.getState());
+        assertEquals(0, unbound.getStatistics().getPlayerCacheSize());
+    }
+}
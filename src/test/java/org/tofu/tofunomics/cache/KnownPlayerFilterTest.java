@@ -0,0 +1,97 @@
+package org.tofu.tofunomics.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * KnownPlayerFilter単体テスト
+ * 登録済みのUUIDを見逃さないことと、偽陽性率が想定の範囲に収まること、容量超過時の作り直しを確認する
+ */
+public class KnownPlayerFilterTest {
+
+    @Test
+    public void testNoFalseNegativesAndLowFalsePositiveRate() {
+        List<UUID> known = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            known.add(UUID.randomUUID());
+        }
+        KnownPlayerFilter filter = new KnownPlayerFilter();
+        filter.load(known);
+
+        for (UUID uuid : known) {
+            assertTrue("登録済みのUUIDは必ず存在すると判定するべき", filter.mightExist(uuid));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightExist(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        assertTrue("偽陽性率は1%程度であるべき: " + falsePositives, falsePositives < 300);
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    public void testAddsBeforeLoadAreKept() {
+        KnownPlayerFilter filter = new KnownPlayerFilter();
+        UUID addedBeforeLoad = UUID.randomUUID();
+        UUID addedAfterLoad = UUID.randomUUID();
+
+        assertFalse(filter.isLoaded());
+        assertTrue("読み込み前は常にtrueを返すべき", filter.mightExist(UUID.randomUUID()));
+        filter.add(addedBeforeLoad);
+        filter.load(Collections.emptyList());
+        filter.add(addedAfterLoad);
+
+        assertTrue(filter.isLoaded());
+        assertTrue("読み込み前に追加したUUIDも反映されるべき", filter.mightExist(addedBeforeLoad));
+        assertTrue(filter.mightExist(addedAfterLoad));
+        assertEquals(2, filter.size());
+    }
+
+    @Test
+    public void testRebuildWhenSaturatedKeepsAddsDuringReload() {
+        KnownPlayerFilter filter = new KnownPlayerFilter();
+        filter.load(Collections.emptyList());
+        List<UUID> stored = new ArrayList<>();
+        while (!filter.isSaturated()) {
+            UUID uuid = UUID.randomUUID();
+            stored.add(uuid);
+            filter.add(uuid);
+        }
+        long sizeBefore = filter.getSizeInBytes();
+
+        assertTrue("容量を超えたら作り直しを開始するべき", filter.beginRebuildIfSaturated());
+        assertFalse("作り直し中は重ねて開始しないべき", filter.beginRebuildIfSaturated());
+        // 読み直しの結果に含まれないUUID（読み直しの後に作成された行）
+        UUID addedDuringReload = UUID.randomUUID();
+        filter.add(addedDuringReload);
+        filter.load(new ArrayList<>(stored));
+
+        assertFalse(filter.isSaturated());
+        assertTrue("作り直し後はビット配列が大きくなるべき", filter.getSizeInBytes() > sizeBefore);
+        assertTrue("読み直し中に追加したUUIDも反映されるべき", filter.mightExist(addedDuringReload));
+        for (UUID uuid : stored) {
+            assertTrue(filter.mightExist(uuid));
+        }
+    }
+
+    @Test
+    public void testCancelledRebuildCanBeRetried() {
+        KnownPlayerFilter filter = new KnownPlayerFilter();
+        filter.load(Collections.emptyList());
+        while (!filter.isSaturated()) {
+            filter.add(UUID.randomUUID());
+        }
+
+        assertTrue(filter.beginRebuildIfSaturated());
+        filter.cancelRebuild();
+        assertTrue("読み直しに失敗したら次の機会に再び開始するべき", filter.beginRebuildIfSaturated());
+    }
+}
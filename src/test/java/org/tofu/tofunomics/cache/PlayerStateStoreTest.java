@@ -0,0 +1,75 @@
+package org.tofu.tofunomics.cache;
+
+import org.junit.Test;
+import org.tofu.tofunomics.models.Player;
+import org.tofu.tofunomics.models.PlayerJob;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * PlayerStateStore単体テスト
+ * 書き込みが確定するまで退出したプレイヤーを退避しないことと、書き込めなかった変更がdirtyに戻ることを検証
+ */
+public class PlayerStateStoreTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private PlayerStateStore loadedStore() {
+        PlayerStateStore store = new PlayerStateStore();
+        store.load(ALICE, new Player(ALICE, 100.0), Collections.singletonList(new PlayerJob(ALICE, 1)));
+        return store;
+    }
+
+    @Test
+    public void testOfflinePlayerIsKeptUntilWriteIsConfirmed() {
+        PlayerStateStore store = loadedStore();
+        store.setBalance(ALICE, 150.0);
+        store.addExperience(ALICE, 1, 5.0);
+        store.markOffline(ALICE);
+
+        PlayerStateStore.DirtySnapshot snapshot = store.drainDirty(ALICE);
+        assertEquals(1, snapshot.getPlayers().size());
+        assertEquals(1, snapshot.getPlayerJobs().size());
+        assertFalse("書き込み待ちの間は退避しないべき", store.evictIfOfflineClean(ALICE));
+
+        store.completePlayerWrite(ALICE, true);
+        assertTrue("職業の書き込みが残っている間は退避しないべき", store.isLoaded(ALICE));
+
+        store.completePlayerJobWrite(ALICE, 1, true);
+        assertFalse("すべての書き込みが確定したら退避するべき", store.isLoaded(ALICE));
+    }
+
+    @Test
+    public void testFailedWriteRestoresDirtyAndKeepsPlayer() {
+        PlayerStateStore store = loadedStore();
+        store.setBalance(ALICE, 150.0);
+        store.markOffline(ALICE);
+        store.drainDirty(ALICE);
+
+        store.completePlayerWrite(ALICE, false);
+
+        assertTrue("書き込めなかったプレイヤーは退避しないべき", store.isLoaded(ALICE));
+        assertEquals(1, store.getDirtyCount());
+        PlayerStateStore.DirtySnapshot retry = store.drainDirty(ALICE);
+        assertEquals("次回の書き出しで最新値を再送するべき", 150.0, retry.getPlayers().get(0).getBalance(), 0.0);
+    }
+
+    @Test
+    public void testRejoinDuringPendingWriteKeepsInMemoryState() {
+        PlayerStateStore store = loadedStore();
+        store.setBalance(ALICE, 150.0);
+        store.markOffline(ALICE);
+        store.drainDirty(ALICE);
+
+        assertTrue("書き込み待ちの状態に復帰するべき", store.markOnline(ALICE));
+        store.setBalance(ALICE, 200.0);
+        store.completePlayerWrite(ALICE, true);
+
+        assertTrue(store.isLoaded(ALICE));
+        assertEquals(200.0, store.getPlayer(ALICE).getBalance(), 0.0);
+        assertEquals("復帰後の変更はdirtyのまま残るべき", 1, store.getDirtyCount());
+    }
+}
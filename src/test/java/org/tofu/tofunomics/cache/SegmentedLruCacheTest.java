@@ -0,0 +1,72 @@
+package org.tofu.tofunomics.cache;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * SegmentedLruCache単体テスト
+ * 試用領域・保護領域による追い出し順と書き込み後の期限切れを検証
+ */
+public class SegmentedLruCacheTest {
+
+    @Test
+    public void testEntriesReadTwiceSurviveOneTimeScans() {
+        SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>(5, 0L);
+        cache.put("hot", 1);
+        assertEquals(Integer.valueOf(1), cache.get("hot"));
+
+        // 1回しか読まれないエントリを大量に流しても、2回目のアクセスで昇格したエントリは残る
+        for (int i = 0; i < 100; i++) {
+            cache.put("scan" + i, i);
+        }
+        assertEquals(Integer.valueOf(1), cache.get("hot"));
+        assertEquals(5, cache.size());
+        assertNull("試用領域の古いエントリから追い出されるべき", cache.get("scan0"));
+        assertEquals(Integer.valueOf(99), cache.get("scan99"));
+        assertEquals(96, cache.getEvictions());
+    }
+
+    @Test
+    public void testProtectedOverflowIsDemotedToProbation() {
+        SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>(5, 0L);
+        for (int i = 0; i < 5; i++) {
+            cache.put("k" + i, i);
+            cache.get("k" + i);
+        }
+        // 保護領域は4件までのため、最も古いk0は試用領域へ戻され、次の追加で追い出される
+        cache.put("new", 5);
+        assertNull(cache.get("k0"));
+        assertEquals(Integer.valueOf(1), cache.get("k1"));
+        assertEquals(Integer.valueOf(5), cache.get("new"));
+    }
+
+    @Test
+    public void testExpireAfterWriteAndCounters() {
+        AtomicLong now = new AtomicLong(0L);
+        SegmentedLruCache<String, Integer> cache = new SegmentedLruCache<>(10, 1_000L, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertFalse("未登録のキーは置き換えないべき", cache.replace("c", 3));
+
+        now.set(900L);
+        assertTrue(cache.replace("b", 20));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+
+        now.set(1_500L);
+        assertNull("書き込みから期限を過ぎたエントリは返さないべき", cache.get("a"));
+        assertEquals(Integer.valueOf(20), cache.get("b"));
+
+        now.set(2_000L);
+        assertEquals(1, cache.cleanupExpired());
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        cache.put("d", 4);
+        cache.invalidate("d");
+        assertNull(cache.get("d"));
+    }
+}
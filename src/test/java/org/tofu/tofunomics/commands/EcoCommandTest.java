@@ -16,6 +16,7 @@ import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.PlayerDAO;
 import org.tofu.tofunomics.economy.CurrencyConverter;
 
+import java.sql.SQLException;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -68,18 +69,15 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoGiveNewPlayer() {
+    public void testEcoGiveNewPlayer() throws SQLException {
         // 新規プレイヤーに金額を付与するテストケース
         double amount = 1000.0;
 
         try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
 
-            // プレイヤーがデータベースに存在しない
-            when(playerDAO.getPlayerByUUID(targetPlayer.getUniqueId().toString())).thenReturn(null);
-
-            // 新規プレイヤー作成が成功
-            when(playerDAO.insertPlayer(any(org.tofu.tofunomics.models.Player.class))).thenReturn(true);
+            // プレイヤーがデータベースに存在しないため加算できない
+            when(playerDAO.adjustBankBalance(targetPlayer.getUniqueId(), amount)).thenReturn(false);
 
             when(currencyConverter.formatCurrency(amount)).thenReturn("1000");
 
@@ -89,7 +87,7 @@ public class EcoCommandTest {
             assertTrue("コマンドが成功するべき", result);
 
             // 新規プレイヤーが正しい設定で作成されたことを検証
-            verify(playerDAO).insertPlayer(argThat(player -> {
+            verify(playerDAO).createPlayer(argThat(player -> {
                 return player.getBalance() == 0.0 && // 持ち歩き現金は0
                        player.getBankBalance() == amount; // 銀行預金に設定
             }));
@@ -101,21 +99,15 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoGiveExistingPlayer() {
+    public void testEcoGiveExistingPlayer() throws SQLException {
         // 既存プレイヤーに金額を追加するテストケース
         double amount = 500.0;
-        double currentBankBalance = 1000.0;
-
-        org.tofu.tofunomics.models.Player existingPlayer = mock(org.tofu.tofunomics.models.Player.class);
 
         try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
 
-            // 既存プレイヤーが存在
-            when(playerDAO.getPlayerByUUID(targetPlayer.getUniqueId().toString())).thenReturn(existingPlayer);
-
-            // プレイヤー更新が成功
-            when(playerDAO.updatePlayerData(existingPlayer)).thenReturn(true);
+            // 既存プレイヤーの銀行預金への加算が成功
+            when(playerDAO.adjustBankBalance(targetPlayer.getUniqueId(), amount)).thenReturn(true);
 
             when(currencyConverter.formatCurrency(amount)).thenReturn("500");
 
@@ -124,9 +116,10 @@ public class EcoCommandTest {
 
             assertTrue("コマンドが成功するべき", result);
 
-            // 銀行預金に正しく追加されたことを検証
-            verify(existingPlayer).addBankBalance(amount);
-            verify(playerDAO).updatePlayerData(existingPlayer);
+            // 銀行預金に差分で加算され、行を読み直して上書きしないことを検証
+            verify(playerDAO).adjustBankBalance(targetPlayer.getUniqueId(), amount);
+            verify(playerDAO, never()).createPlayer(any());
+            verify(playerDAO, never()).updatePlayer(any());
 
             // 成功メッセージが表示される
             verify(sender).sendMessage(contains("500 G を付与しました"));
@@ -135,10 +128,9 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoTakeFromPlayer() {
+    public void testEcoTakeFromPlayer() throws SQLException {
         // プレイヤーから金額を取り上げるテストケース
         double amount = 300.0;
-        double currentBankBalance = 1000.0;
 
         org.tofu.tofunomics.models.Player existingPlayer = mock(org.tofu.tofunomics.models.Player.class);
 
@@ -146,10 +138,10 @@ public class EcoCommandTest {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
 
             // 既存プレイヤーが存在
-            when(playerDAO.getPlayerByUUID(targetPlayer.getUniqueId().toString())).thenReturn(existingPlayer);
+            when(playerDAO.getPlayer(targetPlayer.getUniqueId())).thenReturn(existingPlayer);
 
-            // プレイヤー更新が成功
-            when(playerDAO.updatePlayerData(existingPlayer)).thenReturn(true);
+            // 銀行預金からの減算が成功
+            when(playerDAO.adjustBankBalance(targetPlayer.getUniqueId(), -amount)).thenReturn(true);
 
             when(currencyConverter.formatCurrency(amount)).thenReturn("300");
 
@@ -158,9 +150,8 @@ public class EcoCommandTest {
 
             assertTrue("コマンドが成功するべき", result);
 
-            // 銀行預金から正しく差し引かれたことを検証
-            verify(existingPlayer).removeBankBalance(amount);
-            verify(playerDAO).updatePlayerData(existingPlayer);
+            // 銀行預金から差分で差し引かれたことを検証
+            verify(playerDAO).adjustBankBalance(targetPlayer.getUniqueId(), -amount);
 
             // 成功メッセージが表示される
             verify(sender).sendMessage(contains("300 G を取り上げました"));
@@ -169,7 +160,7 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoSetNewPlayer() {
+    public void testEcoSetNewPlayer() throws SQLException {
         // 新規プレイヤーの残高を設定するテストケース
         double amount = 2000.0;
 
@@ -177,10 +168,7 @@ public class EcoCommandTest {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
 
             // プレイヤーがデータベースに存在しない
-            when(playerDAO.getPlayerByUUID(targetPlayer.getUniqueId().toString())).thenReturn(null);
-
-            // 新規プレイヤー作成が成功
-            when(playerDAO.insertPlayer(any(org.tofu.tofunomics.models.Player.class))).thenReturn(true);
+            when(playerDAO.getPlayer(targetPlayer.getUniqueId())).thenReturn(null);
 
             when(currencyConverter.formatCurrency(amount)).thenReturn("2000");
 
@@ -190,7 +178,7 @@ public class EcoCommandTest {
             assertTrue("コマンドが成功するべき", result);
 
             // 新規プレイヤーが正しい設定で作成されたことを検証
-            verify(playerDAO).insertPlayer(argThat(player -> {
+            verify(playerDAO).createPlayer(argThat(player -> {
                 return player.getBalance() == 0.0 && // 持ち歩き現金は0
                        player.getBankBalance() == amount; // 銀行預金に設定
             }));
@@ -201,7 +189,7 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoSetExistingPlayer() {
+    public void testEcoSetExistingPlayer() throws SQLException {
         // 既存プレイヤーの残高を設定するテストケース
         double amount = 1500.0;
 
@@ -211,10 +199,7 @@ public class EcoCommandTest {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
 
             // 既存プレイヤーが存在
-            when(playerDAO.getPlayerByUUID(targetPlayer.getUniqueId().toString())).thenReturn(existingPlayer);
-
-            // プレイヤー更新が成功
-            when(playerDAO.updatePlayerData(existingPlayer)).thenReturn(true);
+            when(playerDAO.getPlayer(targetPlayer.getUniqueId())).thenReturn(existingPlayer);
 
             when(currencyConverter.formatCurrency(amount)).thenReturn("1500");
 
@@ -223,9 +208,9 @@ public class EcoCommandTest {
 
             assertTrue("コマンドが成功するべき", result);
 
-            // 銀行預金が正しく設定されたことを検証
-            verify(existingPlayer).setBankBalance(amount);
-            verify(playerDAO).updatePlayerData(existingPlayer);
+            // 銀行預金のみが設定されたことを検証
+            verify(playerDAO).updateBankBalance(targetPlayer.getUniqueId(), amount);
+            verify(playerDAO, never()).updatePlayer(any());
 
             // 成功メッセージが表示される
             verify(sender).sendMessage(contains("1500 G に設定しました"));
@@ -233,13 +218,13 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoTakePlayerNotFound() {
+    public void testEcoTakePlayerNotFound() throws SQLException {
         // プレイヤーが存在しないテストケース
         try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
 
             // プレイヤーがデータベースに存在しない
-            when(playerDAO.getPlayerByUUID(targetPlayer.getUniqueId().toString())).thenReturn(null);
+            when(playerDAO.getPlayer(targetPlayer.getUniqueId())).thenReturn(null);
 
             String[] args = {"take", "TestPlayer", "100"};
             boolean result = ecoCommand.onCommand(sender, command, "eco", args);
@@ -247,7 +232,7 @@ public class EcoCommandTest {
             assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
             // データ更新は実行されない
-            verify(playerDAO, never()).updatePlayerData(any());
+            verify(playerDAO, never()).adjustBankBalance(any(), anyDouble());
 
             // エラーメッセージが表示される
             verify(sender).sendMessage(contains("対象プレイヤーのデータが見つかりません"));
@@ -255,7 +240,29 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoInvalidAmount() {
+    public void testEcoTakeInsufficientBankBalance() throws SQLException {
+        // 銀行預金が足りないテストケース
+        org.tofu.tofunomics.models.Player existingPlayer = mock(org.tofu.tofunomics.models.Player.class);
+
+        try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
+            mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
+
+            when(playerDAO.getPlayer(targetPlayer.getUniqueId())).thenReturn(existingPlayer);
+            when(playerDAO.adjustBankBalance(targetPlayer.getUniqueId(), -100.0)).thenReturn(false);
+
+            String[] args = {"take", "TestPlayer", "100"};
+            boolean result = ecoCommand.onCommand(sender, command, "eco", args);
+
+            assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
+
+            // 成功メッセージではなく不足のメッセージが表示される
+            verify(sender).sendMessage(contains("銀行預金が不足しています"));
+            verify(targetPlayer, never()).sendMessage(anyString());
+        }
+    }
+
+    @Test
+    public void testEcoInvalidAmount() throws SQLException {
         // 無効な金額のテストケース
         try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
@@ -266,8 +273,8 @@ public class EcoCommandTest {
             assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
             // データ更新は実行されない
-            verify(playerDAO, never()).insertPlayer(any());
-            verify(playerDAO, never()).updatePlayerData(any());
+            verify(playerDAO, never()).createPlayer(any());
+            verify(playerDAO, never()).adjustBankBalance(any(), anyDouble());
 
             // エラーメッセージが表示される
             verify(sender).sendMessage(contains("無効な金額"));
@@ -275,7 +282,7 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoNegativeAmount() {
+    public void testEcoNegativeAmount() throws SQLException {
         // 負の金額設定のテストケース（setコマンド用）
         try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestPlayer")).thenReturn(targetPlayer);
@@ -286,8 +293,8 @@ public class EcoCommandTest {
             assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
             // データ更新は実行されない
-            verify(playerDAO, never()).insertPlayer(any());
-            verify(playerDAO, never()).updatePlayerData(any());
+            verify(playerDAO, never()).createPlayer(any());
+            verify(playerDAO, never()).adjustBankBalance(any(), anyDouble());
 
             // エラーメッセージが表示される
             verify(sender).sendMessage(contains("残高は負の値にできません"));
@@ -319,7 +326,7 @@ public class EcoCommandTest {
     }
 
     @Test
-    public void testEcoInvalidArgumentCount() {
+    public void testEcoInvalidArgumentCount() throws SQLException {
         // 引数が不足しているテストケース
         String[] args = {"give", "TestPlayer"}; // 金額が不足
         boolean result = ecoCommand.onCommand(sender, command, "eco", args);
@@ -327,8 +334,8 @@ public class EcoCommandTest {
         assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
         // データ更新は実行されない
-        verify(playerDAO, never()).insertPlayer(any());
-        verify(playerDAO, never()).updatePlayerData(any());
+        verify(playerDAO, never()).createPlayer(any());
+        verify(playerDAO, never()).adjustBankBalance(any(), anyDouble());
 
         // エラーメッセージが表示される
         verify(sender).sendMessage(contains("使用法"));
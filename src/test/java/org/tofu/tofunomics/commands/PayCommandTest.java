@@ -98,11 +98,8 @@ public class PayCommandTest {
             // 送金者は十分な残高を持っている
             when(currencyConverter.canAfford(fromPlayer, totalRequired)).thenReturn(true);
             
-            // 送金処理が成功する（送金額のみ）
-            when(currencyConverter.transfer(fromPlayer, targetPlayer, payAmount)).thenReturn(true);
-            
-            // 手数料差し引きが成功する
-            when(currencyConverter.subtractBalance(fromPlayer.getUniqueId(), expectedFee)).thenReturn(true);
+            // 送金と手数料の徴収が1回の操作で成功する
+            when(currencyConverter.transfer(fromPlayer, targetPlayer, payAmount, expectedFee)).thenReturn(true);
             
             // 金額フォーマット
             when(currencyConverter.formatCurrency(payAmount)).thenReturn("100");
@@ -113,11 +110,11 @@ public class PayCommandTest {
 
             assertTrue("コマンドが成功するべき", result);
 
-            // 送金が正しい金額で実行されたことを検証
-            verify(currencyConverter).transfer(fromPlayer, targetPlayer, payAmount);
+            // 送金額と手数料が同じ操作で処理されたことを検証
+            verify(currencyConverter).transfer(fromPlayer, targetPlayer, payAmount, expectedFee);
             
-            // 手数料が正しく差し引かれたことを検証
-            verify(currencyConverter).subtractBalance(fromPlayer.getUniqueId(), expectedFee);
+            // 手数料を別の操作で差し引かないことを検証
+            verify(currencyConverter, never()).subtractBalance(any(), anyDouble());
 
             // メッセージが送信されたことを検証
             verify(fromPlayer).sendMessage(contains("100G"));
@@ -137,7 +134,7 @@ public class PayCommandTest {
             mockedBukkit.when(() -> Bukkit.getPlayer("TestReceiver")).thenReturn(targetPlayer);
 
             when(currencyConverter.canAfford(fromPlayer, payAmount)).thenReturn(true);
-            when(currencyConverter.transfer(fromPlayer, targetPlayer, payAmount)).thenReturn(true);
+            when(currencyConverter.transfer(fromPlayer, targetPlayer, payAmount, 0.0)).thenReturn(true);
             when(currencyConverter.formatCurrency(payAmount)).thenReturn("100");
 
             String[] args = {"TestReceiver", "100"};
@@ -146,7 +143,7 @@ public class PayCommandTest {
             assertTrue("コマンドが成功するべき", result);
 
             // 送金のみ実行され、手数料差し引きは実行されない
-            verify(currencyConverter).transfer(fromPlayer, targetPlayer, payAmount);
+            verify(currencyConverter).transfer(fromPlayer, targetPlayer, payAmount, 0.0);
             verify(currencyConverter, never()).subtractBalance(eq(fromPlayer.getUniqueId()), anyDouble());
 
             // 手数料メッセージは表示されない
@@ -173,7 +170,7 @@ public class PayCommandTest {
             assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
             // 送金処理は実行されない
-            verify(currencyConverter, never()).transfer(any(), any(), anyDouble());
+            verify(currencyConverter, never()).transfer(any(), any(), anyDouble(), anyDouble());
             verify(currencyConverter, never()).subtractBalance(any(), anyDouble());
 
             // エラーメッセージが表示される
@@ -192,8 +189,8 @@ public class PayCommandTest {
 
             when(currencyConverter.canAfford(fromPlayer, totalRequired)).thenReturn(true);
             
-            // 送金処理が失敗する
-            when(currencyConverter.transfer(fromPlayer, targetPlayer, payAmount)).thenReturn(false);
+            // 送金処理が失敗する（残高は足りたまま）
+            when(currencyConverter.transfer(fromPlayer, targetPlayer, payAmount, 5.0)).thenReturn(false);
 
             String[] args = {"TestReceiver", "100"};
             boolean result = payCommand.onCommand(fromPlayer, command, "pay", args);
@@ -208,6 +205,29 @@ public class PayCommandTest {
         }
     }
 
+    @Test
+    public void testPayCommandBalanceSpentAfterCheck() {
+        // 残高確認の後、送金までの間に残高が減ったテストケース
+        double payAmount = 100.0;
+        double totalRequired = 105.0;
+
+        try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
+            mockedBukkit.when(() -> Bukkit.getPlayer("TestReceiver")).thenReturn(targetPlayer);
+
+            when(currencyConverter.canAfford(fromPlayer, totalRequired)).thenReturn(true, false);
+            when(currencyConverter.transfer(fromPlayer, targetPlayer, payAmount, 5.0)).thenReturn(false);
+
+            String[] args = {"TestReceiver", "100"};
+            boolean result = payCommand.onCommand(fromPlayer, command, "pay", args);
+
+            assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
+
+            // 送金は拒否され、残高不足として通知される
+            verify(fromPlayer).sendMessage(contains("残高が不足しています"));
+            verify(targetPlayer, never()).sendMessage(anyString());
+        }
+    }
+
     @Test
     public void testPayCommandMinimumAmount() {
         // 最低送金額のテストケース
@@ -222,7 +242,7 @@ public class PayCommandTest {
             assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
             // 送金処理は実行されない
-            verify(currencyConverter, never()).transfer(any(), any(), anyDouble());
+            verify(currencyConverter, never()).transfer(any(), any(), anyDouble(), anyDouble());
 
             // エラーメッセージが表示される
             verify(fromPlayer).sendMessage(contains("最低送金額"));
@@ -244,7 +264,7 @@ public class PayCommandTest {
             assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
             // 送金処理は実行されない
-            verify(currencyConverter, never()).transfer(any(), any(), anyDouble());
+            verify(currencyConverter, never()).transfer(any(), any(), anyDouble(), anyDouble());
 
             // エラーメッセージが表示される
             verify(fromPlayer).sendMessage(contains("自分自身には送金できません"));
@@ -261,7 +281,7 @@ public class PayCommandTest {
         assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
         // 送金処理は実行されない
-        verify(currencyConverter, never()).transfer(any(), any(), anyDouble());
+        verify(currencyConverter, never()).transfer(any(), any(), anyDouble(), anyDouble());
 
         // エラーメッセージが表示される
         verify(fromPlayer).sendMessage(contains("使用法"));
@@ -279,7 +299,7 @@ public class PayCommandTest {
             assertTrue("コマンドが成功するべき（エラーハンドリング）", result);
 
             // 送金処理は実行されない
-            verify(currencyConverter, never()).transfer(any(), any(), anyDouble());
+            verify(currencyConverter, never()).transfer(any(), any(), anyDouble(), anyDouble());
 
             // エラーメッセージが表示される
             verify(fromPlayer).sendMessage(contains("無効な金額"));
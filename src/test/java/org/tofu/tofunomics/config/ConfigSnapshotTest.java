@@ -0,0 +1,82 @@
+package org.tofu.tofunomics.config;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.Test;
+
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ConfigSnapshot単体テスト
+ * 設定が無い場合の既定値と、ホットリロード・実行中の変更で読み込み元の設定ごと差し替わることを検証
+ */
+public class ConfigSnapshotTest {
+
+    private JavaPlugin pluginWith(YamlConfiguration config) {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("ConfigSnapshotTest"));
+        when(plugin.getConfig()).thenReturn(config);
+        return plugin;
+    }
+
+    @Test
+    public void testDefaultsWhenKeysAreMissing() {
+        ConfigSnapshot snapshot = ConfigSnapshot.compile(new YamlConfiguration());
+
+        assertEquals("金塊", snapshot.economy().getCurrencyName());
+        assertEquals("G", snapshot.economy().getCurrencySymbol());
+        assertEquals(2, snapshot.economy().getCurrencyDecimalPlaces());
+        assertEquals(10.0, snapshot.economy().getCoinValue(), 0.0);
+        assertEquals(100.0, snapshot.economy().getStartingBalance(), 0.0);
+        assertEquals(10000.0, snapshot.economy().getMaxWithdraw(), 0.0);
+        assertEquals(1, snapshot.jobs().getMaxJobsPerPlayer());
+        assertEquals(86400, snapshot.jobs().getJobChangeCooldown());
+        assertEquals(100, snapshot.jobs().getExperienceBaseMultiplier());
+        assertEquals(2.0, snapshot.jobs().getExperienceExponent(), 0.0);
+        assertTrue(snapshot.npc().isEnabled());
+        assertEquals(1000L, snapshot.npc().getInteractionCooldownMs());
+        assertEquals(5, snapshot.npc().getAccessRange());
+        assertTrue("既定値のリストは空であるべき", snapshot.jobs().getBasicBlocks().isEmpty());
+    }
+
+    @Test
+    public void testHotReloadPublishesConfigWithSnapshot() {
+        YamlConfiguration first = new YamlConfiguration();
+        first.set("economy.currency.coin_value", 20.0);
+        first.set("events.placed_blocks.max_blocks_per_chunk", 100);
+        JavaPlugin plugin = pluginWith(first);
+        ConfigManager configManager = new ConfigManager(plugin);
+        ConfigSnapshot before = configManager.getSnapshot();
+        assertSame(first, before.config());
+
+        YamlConfiguration second = new YamlConfiguration();
+        second.set("economy.currency.coin_value", 30.0);
+        second.set("events.placed_blocks.max_blocks_per_chunk", 200);
+        when(plugin.getConfig()).thenReturn(second);
+        configManager.hotReloadSection("economy");
+
+        ConfigSnapshot after = configManager.getSnapshot();
+        assertSame("読み込み元の設定もスナップショットと一緒に差し替えるべき", second, after.config());
+        assertEquals(30.0, configManager.getCoinValue(), 0.0);
+        assertEquals("型付きにしていない値も新しい設定から読むべき", 200, configManager.getPlacedBlocksMaxPerChunk());
+        assertEquals("古いスナップショットは変わらないべき", 20.0, before.economy().getCoinValue(), 0.0);
+        assertSame(first, before.config());
+    }
+
+    @Test
+    public void testUpdateConfigValueRecompilesSnapshot() {
+        JavaPlugin plugin = pluginWith(new YamlConfiguration());
+        ConfigManager configManager = new ConfigManager(plugin);
+        ConfigSnapshot before = configManager.getSnapshot();
+
+        configManager.setCoinValue(42.0);
+
+        assertNotSame(before, configManager.getSnapshot());
+        assertEquals(42.0, configManager.getSnapshot().economy().getCoinValue(), 0.0);
+        assertEquals(42.0, configManager.getSnapshot().config().getDouble("economy.currency.coin_value"), 0.0);
+        assertEquals("古いスナップショットの型付きの値は変わらないべき", 10.0, before.economy().getCoinValue(), 0.0);
+    }
+}
@@ -0,0 +1,56 @@
+package org.tofu.tofunomics.config;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * MessageTemplate単体テスト
+ * 従来の String.replace による置換と同じ結果になることを確認する
+ */
+public class MessageTemplateTest {
+
+    @Test
+    public void testRenderNamedReplacements() {
+        MessageTemplate template = MessageTemplate.compile("§a%player%さんが%amount%%currency%を送金しました（%player%）");
+
+        assertEquals("§aAliceさんが100.0Gを送金しました（Alice）",
+                template.render("player", "Alice", "amount", 100.0, "currency", "G"));
+        assertEquals(Arrays.asList("player", "amount", "currency"), template.getPlaceholderNames());
+    }
+
+    @Test
+    public void testUnmatchedPlaceholdersAndOddArgumentsAreLeftAsIs() {
+        MessageTemplate template = MessageTemplate.compile("%job% に参加しました（%level%）");
+
+        assertEquals("農家 に参加しました（%level%）", template.render("job", "農家", "unused", 1, "dangling"));
+        assertSame("置換しない場合は元の文字列を返すべき", template.render(), template.render("only_key"));
+    }
+
+    @Test
+    public void testPercentSignsThatAreNotPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("手数料 5% と 10 % を含む %fee% の支払い 100%");
+
+        assertEquals(Arrays.asList("fee"), template.getPlaceholderNames());
+        assertEquals("手数料 5% と 10 % を含む 3.5 の支払い 100%", template.render("fee", 3.5));
+    }
+
+    @Test
+    public void testFormatPositionalArguments() {
+        MessageTemplate template = MessageTemplate.compile("%start%時から%end%時まで（%start%）");
+
+        assertEquals("6時から22時まで（6）", template.format(6, 22));
+        assertEquals("6時から%end%時まで（6）", template.format(6));
+    }
+
+    @Test
+    public void testTemplateWithoutPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("権限がありません。");
+
+        assertFalse(template.hasPlaceholders());
+        assertEquals("権限がありません。", template.render("player", "Alice"));
+        assertEquals("", MessageTemplate.compile("").render("a", "b"));
+    }
+}
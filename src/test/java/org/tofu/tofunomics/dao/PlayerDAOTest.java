@@ -3,6 +3,11 @@ package org.tofu.tofunomics.dao;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.tofu.tofunomics.cache.CacheManager;
+import org.tofu.tofunomics.cache.PlayerStateStore;
+import org.tofu.tofunomics.cache.WealthLeaderboard;
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.Player;
 
 import java.sql.Connection;
@@ -10,8 +15,13 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.logging.Logger;
 
 import static org.junit.Assert.*;
 
@@ -35,6 +45,7 @@ public class PlayerDAOTest {
                 "uuid VARCHAR(36) PRIMARY KEY, " +
                 "balance DOUBLE NOT NULL DEFAULT 0.0, " +
                 "bank_balance DOUBLE NOT NULL DEFAULT 0.0, " +
+                "name VARCHAR(16), " +
                 "created_at TIMESTAMP NOT NULL, " +
                 "updated_at TIMESTAMP NOT NULL" +
                 ")";
@@ -440,4 +451,311 @@ public class PlayerDAOTest {
         assertEquals("銀行預金が更新されるべき", newBankBalance, retrievedPlayer.getBankBalance(), DELTA);
         assertEquals("残高は変更されないべき", 500.0, retrievedPlayer.getBalance(), DELTA);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoadedPlayerUpdatesAreWrittenBehind() throws SQLException {
+        PlayerStateStore stateStore = new PlayerStateStore();
+        PlayerDAO storeBackedDAO = new PlayerDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), stateStore);
+        UUID testUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(testUuid, 0.0, 1000.0));
+        stateStore.load(testUuid, playerDAO.getPlayer(testUuid), Collections.emptyList());
+        
+        storeBackedDAO.updateBankBalance(testUuid, 1500.0);
+        
+        assertEquals("読み込み済みプレイヤーはストアの値を返すべき", 1500.0, storeBackedDAO.getPlayer(testUuid).getBankBalance(), DELTA);
+        assertEquals("書き出し前はDBを更新しないべき", 1000.0, playerDAO.getPlayer(testUuid).getBankBalance(), DELTA);
+        
+        PlayerStateStore.DirtySnapshot snapshot = stateStore.drainDirty();
+        assertEquals("変更されたプレイヤーが書き出し対象になるべき", 1, snapshot.getPlayers().size());
+        assertEquals(1500.0, snapshot.getPlayers().get(0).getBankBalance(), DELTA);
+        assertTrue("取り出し後はdirtyが解除されるべき", stateStore.drainDirty().isEmpty());
+    }
+
+    @Test
+    public void testAdjustBalancesChecksFundsInStoreAndDatabase() throws SQLException {
+        PlayerStateStore stateStore = new PlayerStateStore();
+        PlayerDAO storeBackedDAO = new PlayerDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), stateStore);
+        UUID loadedUuid = UUID.randomUUID();
+        UUID unloadedUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(loadedUuid, 100.0, 500.0));
+        playerDAO.createPlayer(new Player(unloadedUuid, 100.0, 500.0));
+        stateStore.load(loadedUuid, playerDAO.getPlayer(loadedUuid), Collections.emptyList());
+        
+        for (UUID uuid : Arrays.asList(loadedUuid, unloadedUuid)) {
+            assertTrue(storeBackedDAO.adjustBalance(uuid, 50.0));
+            assertFalse("所持金が足りない減算は失敗するべき", storeBackedDAO.adjustBalance(uuid, -200.0));
+            assertTrue(storeBackedDAO.adjustBankBalance(uuid, -500.0));
+            assertFalse("銀行預金が足りない減算は失敗するべき", storeBackedDAO.adjustBankBalance(uuid, -0.01));
+            assertTrue(storeBackedDAO.moveToBank(uuid, 150.0));
+            assertFalse("移す側が足りない移動は失敗するべき", storeBackedDAO.moveToBank(uuid, 1.0));
+            assertTrue(storeBackedDAO.moveToBank(uuid, -40.0));
+            
+            Player player = storeBackedDAO.getPlayer(uuid);
+            assertEquals(40.0, player.getBalance(), DELTA);
+            assertEquals(110.0, player.getBankBalance(), DELTA);
+        }
+        assertFalse("存在しないプレイヤーは失敗するべき", storeBackedDAO.adjustBalance(UUID.randomUUID(), 10.0));
+    }
+
+    @Test
+    public void testConcurrentAdjustmentsAreNotLost() throws Exception {
+        PlayerStateStore stateStore = new PlayerStateStore();
+        PlayerDAO storeBackedDAO = new PlayerDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), stateStore);
+        UUID testUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(testUuid, 0.0, 0.0));
+        stateStore.load(testUuid, playerDAO.getPlayer(testUuid), Collections.emptyList());
+        
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    try {
+                        storeBackedDAO.adjustBalance(testUuid, 1.0);
+                        storeBackedDAO.adjustBankBalance(testUuid, 2.0);
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        Player player = storeBackedDAO.getPlayer(testUuid);
+        assertEquals("並行する加算が失われないべき", 2000.0, player.getBalance(), DELTA);
+        assertEquals(4000.0, player.getBankBalance(), DELTA);
+    }
+
+    @Test
+    public void testCreditBalanceCreatesMissingPlayer() throws SQLException {
+        UUID existingUuid = UUID.randomUUID();
+        UUID missingUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(existingUuid, 10.0, 0.0));
+        
+        playerDAO.creditBalance(existingUuid, 5.0, 100.0);
+        playerDAO.creditBalance(missingUuid, 5.0, 100.0);
+        
+        assertEquals(15.0, playerDAO.getPlayer(existingUuid).getBalance(), DELTA);
+        assertEquals("行がない場合は初期残高に加算して作成するべき", 105.0, playerDAO.getPlayer(missingUuid).getBalance(), DELTA);
+    }
+
+    @Test
+    public void testWithdrawBankBalanceUpTo() throws SQLException {
+        UUID testUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(testUuid, 0.0, 300.0));
+        
+        assertEquals(200.0, playerDAO.withdrawBankBalanceUpTo(testUuid, 200.0), DELTA);
+        assertEquals("預金が足りない場合は全額を引き落とすべき", 100.0, playerDAO.withdrawBankBalanceUpTo(testUuid, 200.0), DELTA);
+        assertEquals(0.0, playerDAO.withdrawBankBalanceUpTo(testUuid, 200.0), DELTA);
+        assertEquals(0.0, playerDAO.getPlayer(testUuid).getBankBalance(), DELTA);
+        assertEquals(0.0, playerDAO.withdrawBankBalanceUpTo(UUID.randomUUID(), 200.0), DELTA);
+    }
+
+    @Test
+    public void testTransferBalanceWithFee() throws SQLException {
+        PlayerStateStore stateStore = new PlayerStateStore();
+        PlayerDAO storeBackedDAO = new PlayerDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), stateStore);
+        UUID fromUuid = UUID.randomUUID();
+        UUID toUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(fromUuid, 0.0, 105.0));
+        playerDAO.createPlayer(new Player(toUuid, 0.0, 0.0));
+        
+        assertFalse("手数料込みで足りない送金は失敗するべき", playerDAO.transferBalance(fromUuid, toUuid, 101.0, 5.05));
+        assertTrue(playerDAO.transferBalance(fromUuid, toUuid, 50.0, 2.5));
+        assertEquals(52.5, playerDAO.getPlayer(fromUuid).getBankBalance(), DELTA);
+        assertEquals("受取人には送金額のみ入金されるべき", 50.0, playerDAO.getPlayer(toUuid).getBankBalance(), DELTA);
+        
+        stateStore.load(fromUuid, playerDAO.getPlayer(fromUuid), Collections.emptyList());
+        assertFalse(storeBackedDAO.transferBalance(fromUuid, toUuid, 50.0, 2.51));
+        assertTrue(storeBackedDAO.transferBalance(fromUuid, toUuid, 50.0, 2.5));
+        assertEquals(0.0, storeBackedDAO.getPlayer(fromUuid).getBankBalance(), DELTA);
+        assertEquals(100.0, playerDAO.getPlayer(toUuid).getBankBalance(), DELTA);
+    }
+
+    @Test
+    public void testTransferBalanceBetweenLoadedAndUnloadedPlayers() throws SQLException {
+        PlayerStateStore stateStore = new PlayerStateStore();
+        PlayerDAO storeBackedDAO = new PlayerDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), stateStore);
+        UUID fromUuid = UUID.randomUUID();
+        UUID toUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(fromUuid, 0.0, 1000.0));
+        playerDAO.createPlayer(new Player(toUuid, 0.0, 100.0));
+        stateStore.load(fromUuid, playerDAO.getPlayer(fromUuid), Collections.emptyList());
+        
+        assertTrue("送金が成功するべき", storeBackedDAO.transferBalance(fromUuid, toUuid, 300.0));
+        assertFalse("残高不足の送金は失敗するべき", storeBackedDAO.transferBalance(fromUuid, toUuid, 5000.0));
+        
+        assertEquals("読み込み済みの送金元はメモリ上で減算されるべき", 700.0, storeBackedDAO.getPlayer(fromUuid).getBankBalance(), DELTA);
+        assertEquals("未読み込みの送金先はDBで加算されるべき", 400.0, playerDAO.getPlayer(toUuid).getBankBalance(), DELTA);
+    }
+
+    @Test
+    public void testWealthLeaderboardIsUpdatedIncrementally() throws SQLException {
+        WealthLeaderboard leaderboard = new WealthLeaderboard();
+        PlayerDAO leaderboardDAO = new PlayerDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(),
+            new PlayerStateStore(), leaderboard);
+        UUID richUuid = UUID.randomUUID();
+        UUID middleUuid = UUID.randomUUID();
+        UUID poorUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(richUuid, 100.0, 900.0));
+        playerDAO.createPlayer(new Player(middleUuid, 500.0, 0.0));
+        leaderboardDAO.loadWealthLeaderboard();
+        leaderboardDAO.createPlayer(new Player(poorUuid, 10.0, 0.0));
+        
+        assertEquals("総資産の多い順の順位を返すべき", 1, leaderboardDAO.getWealthRank(richUuid));
+        assertEquals(3, leaderboardDAO.getWealthRank(poorUuid));
+        
+        leaderboardDAO.updateBankBalance(poorUuid, 2000.0);
+        leaderboardDAO.transferBalance(richUuid, middleUuid, 900.0);
+        
+        List<Player> topPlayers = leaderboardDAO.getTopPlayers(2);
+        assertEquals(2, topPlayers.size());
+        assertEquals("更新後の総資産で並び替えられるべき", poorUuid, topPlayers.get(0).getUuid());
+        assertEquals(middleUuid, topPlayers.get(1).getUuid());
+        assertEquals(1400.0, topPlayers.get(1).getBalance() + topPlayers.get(1).getBankBalance(), DELTA);
+        assertEquals(3, leaderboardDAO.getWealthRank(richUuid));
+        
+        leaderboardDAO.deletePlayer(poorUuid);
+        assertEquals("削除したプレイヤーは順位を持たないべき", 0, leaderboardDAO.getWealthRank(poorUuid));
+        assertEquals(1, leaderboardDAO.getWealthRank(middleUuid));
+        assertEquals("DBの並び順と一致するべき", playerDAO.getTopPlayers(2).get(0).getUuid(), leaderboardDAO.getTopPlayers(2).get(0).getUuid());
+    }
+    
+    @Test
+    public void testCacheIsReadThroughAndInvalidatedOnWrites() throws SQLException {
+        CacheManager cacheManager = new CacheManager(10, 60_000L, 10, 60_000L, Logger.getLogger("PlayerDAOTest"));
+        PlayerDAO cachedDAO = new PlayerDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(),
+            new PlayerStateStore(), new WealthLeaderboard(), cacheManager);
+        UUID uuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(uuid, 100.0));
+        
+        assertEquals(100.0, cachedDAO.getPlayer(uuid).getBalance(), DELTA);
+        assertEquals(100.0, cachedDAO.getPlayer(uuid).getBalance(), DELTA);
+        assertEquals("2回目はキャッシュから返すべき", 1, cacheManager.getStatistics().getPlayerCacheHits());
+        
+        // キャッシュを経由しない書き込みは見えない（DBへ問い合わせていないことの確認）
+        playerDAO.updateBalance(uuid, 200.0);
+        assertEquals(100.0, cachedDAO.getPlayer(uuid).getBalance(), DELTA);
+        
+        cachedDAO.updateBalance(uuid, 300.0);
+        assertEquals("書き込み後はDBの値を返すべき", 300.0, cachedDAO.getPlayer(uuid).getBalance(), DELTA);
+        
+        Player player = cachedDAO.getPlayer(uuid);
+        player.setBankBalance(50.0);
+        assertEquals("返した行を書き換えてもキャッシュは変わらないべき", 0.0, cachedDAO.getPlayer(uuid).getBankBalance(), DELTA);
+        cachedDAO.updatePlayer(player);
+        assertEquals("更新した行でキャッシュを置き換えるべき", 50.0, cachedDAO.getPlayer(uuid).getBankBalance(), DELTA);
+        
+        cachedDAO.deletePlayer(uuid);
+        assertNull(cachedDAO.getPlayer(uuid));
+    }
+
+    @Test
+    public void testKnownPlayerFilterSkipsLookupsForUnknownPlayers() throws SQLException {
+        UUID knownUuid = UUID.randomUUID();
+        UUID unknownUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(knownUuid, 100.0));
+        PlayerDAO filteredDAO = new PlayerDAO(connection);
+        
+        assertTrue("読み込み前は常に存在するかもしれないと判定するべき", filteredDAO.mightExist(unknownUuid));
+        filteredDAO.loadWealthLeaderboard();
+        assertTrue(filteredDAO.mightExist(knownUuid));
+        assertFalse(filteredDAO.mightExist(unknownUuid));
+        
+        // 存在しないと判定したUUIDはDBを読まない（フィルタを経由しない作成は見えない）
+        playerDAO.createPlayer(new Player(unknownUuid, 50.0));
+        assertNull(filteredDAO.getPlayer(unknownUuid));
+        assertFalse(filteredDAO.hasAgreedToRules(unknownUuid));
+        
+        UUID newUuid = UUID.randomUUID();
+        assertEquals("作成した行はフィルタに反映されるべき", 0.0, filteredDAO.getOrCreatePlayer(newUuid).getBalance(), DELTA);
+        assertTrue(filteredDAO.mightExist(newUuid));
+        assertNotNull(filteredDAO.getPlayer(newUuid));
+        assertEquals(100.0, filteredDAO.getPlayer(knownUuid).getBalance(), DELTA);
+    }
+
+    @Test
+    public void testPlayerNamesAreResolvedInBatchFromDirectory() throws SQLException {
+        UUID namedUuid = UUID.randomUUID();
+        UUID renamedUuid = UUID.randomUUID();
+        UUID unnamedUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(namedUuid, 100.0));
+        playerDAO.createPlayer(new Player(renamedUuid, 200.0));
+        playerDAO.createPlayer(new Player(unnamedUuid, 300.0));
+        playerDAO.updatePlayerName(namedUuid, "Alice");
+        playerDAO.updatePlayerName(renamedUuid, "Bob");
+        
+        PlayerDAO directoryDAO = new PlayerDAO(connection);
+        directoryDAO.loadWealthLeaderboard();
+        assertEquals("起動時の読み込みで名前が名簿へ登録されるべき", "Alice", directoryDAO.getNameDirectory().get(namedUuid));
+        
+        directoryDAO.updatePlayerName(renamedUuid, "Bobby");
+        List<UUID> uuids = Arrays.asList(unnamedUuid, renamedUuid, namedUuid);
+        Map<UUID, String> names = directoryDAO.resolvePlayerNames(uuids);
+        assertEquals("名前未記録のプレイヤーは含まないべき", 2, names.size());
+        assertEquals("Bobby", names.get(renamedUuid));
+        assertEquals(Arrays.asList(renamedUuid, namedUuid), new ArrayList<>(names.keySet()));
+        
+        // 名簿にないUUIDはDBからまとめて補う
+        PlayerDAO coldDAO = new PlayerDAO(connection);
+        Map<UUID, String> coldNames = coldDAO.resolvePlayerNames(uuids);
+        assertEquals("Bobby", coldNames.get(renamedUuid));
+        assertEquals("Alice", coldDAO.getNameDirectory().get(namedUuid));
+    }
+    
+    @Test
+    public void testMissingNamesFallBackToLookupAndAreWrittenBack() throws SQLException {
+        UUID cachedUuid = UUID.randomUUID();
+        UUID unknownUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(cachedUuid, 100.0));
+        playerDAO.createPlayer(new Player(unknownUuid, 200.0));
+        
+        List<UUID> lookedUp = new ArrayList<>();
+        PlayerDAO lookupDAO = new PlayerDAO(connection);
+        lookupDAO.loadWealthLeaderboard();
+        lookupDAO.setNameLookup(uuid -> {
+            lookedUp.add(uuid);
+            return uuid.equals(cachedUuid) ? "Carol" : null;
+        });
+        
+        List<UUID> uuids = Arrays.asList(cachedUuid, unknownUuid);
+        Map<UUID, String> names = lookupDAO.resolvePlayerNames(uuids);
+        assertEquals("Carol", names.get(cachedUuid));
+        assertFalse(names.containsKey(unknownUuid));
+        assertEquals(2, lookedUp.size());
+        
+        // 見つからなかった名前は再び問い合わせない
+        lookupDAO.resolvePlayerNames(uuids);
+        assertEquals("見つからなかった名前は記録して再び引かないべき", 2, lookedUp.size());
+        
+        // 引いた名前はplayers.nameへ書き戻される
+        PlayerDAO reloadedDAO = new PlayerDAO(connection);
+        reloadedDAO.loadWealthLeaderboard();
+        assertEquals("Carol", reloadedDAO.getNameDirectory().get(cachedUuid));
+        
+        // 参加して名前が分かれば解決できる
+        lookupDAO.updatePlayerName(unknownUuid, "Dave");
+        assertEquals("Dave", lookupDAO.resolvePlayerNames(uuids).get(unknownUuid));
+    }
+    
+    @Test
+    public void testBackfillFillsUnnamedRows() throws SQLException {
+        UUID namedUuid = UUID.randomUUID();
+        UUID unnamedUuid = UUID.randomUUID();
+        playerDAO.createPlayer(new Player(namedUuid, 100.0));
+        playerDAO.createPlayer(new Player(unnamedUuid, 200.0));
+        playerDAO.updatePlayerName(namedUuid, "Alice");
+        
+        PlayerDAO backfillDAO = new PlayerDAO(connection);
+        backfillDAO.loadWealthLeaderboard();
+        backfillDAO.setNameLookup(uuid -> "Name-" + uuid.toString().substring(0, 4));
+        
+        assertEquals("未記録の行だけを補完するべき", 1, backfillDAO.backfillPlayerNames());
+        assertEquals("Alice", backfillDAO.getNameDirectory().get(namedUuid));
+        assertEquals("Name-" + unnamedUuid.toString().substring(0, 4), backfillDAO.getNameDirectory().get(unnamedUuid));
+        assertEquals("補完済みの行は再び補完しないべき", 0, backfillDAO.backfillPlayerNames());
+    }
+}
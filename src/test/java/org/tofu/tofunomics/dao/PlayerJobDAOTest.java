@@ -1,8 +1,14 @@
 package org.tofu.tofunomics.dao;
 
+import org.bukkit.plugin.java.JavaPlugin;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.tofu.tofunomics.batch.OptimizedBatchProcessor;
+import org.tofu.tofunomics.cache.PlayerStateStore;
+import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
 import org.tofu.tofunomics.models.PlayerJob;
 
 import java.sql.Connection;
@@ -12,8 +18,11 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * フェーズ7 - PlayerJobDAO単体テスト
@@ -597,4 +606,108 @@ public class PlayerJobDAOTest {
             fail("存在しないプレイヤー職業の削除は例外を発生させないべき: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoadedPlayerJobExperienceIsWrittenBehind() throws SQLException {
+        PlayerStateStore stateStore = new PlayerStateStore();
+        PlayerJobDAO storeBackedDAO = new PlayerJobDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), stateStore);
+        UUID testUuid = UUID.randomUUID();
+        playerJobDAO.createPlayerJob(new PlayerJob(testUuid, 1));
+        stateStore.load(testUuid, null, playerJobDAO.getPlayerJobs(testUuid));
+        
+        storeBackedDAO.addExperience(testUuid, 1, 50.0);
+        storeBackedDAO.addExperience(testUuid, 1, 25.0);
+        storeBackedDAO.addExperience(testUuid, 2, 10.0);
+        
+        assertEquals("読み込み済みプレイヤーはストアの値を返すべき", 75.0, storeBackedDAO.getPlayerJob(testUuid, 1).getExperience(), DELTA);
+        assertEquals("書き出し前はDBを更新しないべき", 0.0, playerJobDAO.getPlayerJob(testUuid, 1).getExperience(), DELTA);
+        assertTrue("未就職の職業は即時にDBへ作成されるべき", playerJobDAO.hasPlayerJob(testUuid, 2));
+        assertEquals("作成した職業もストアに反映されるべき", 2, storeBackedDAO.getPlayerJobs(testUuid).size());
+        
+        PlayerStateStore.DirtySnapshot snapshot = stateStore.drainDirty();
+        assertEquals("経験値を加算した職業だけが書き出し対象になるべき", 1, snapshot.getPlayerJobs().size());
+        assertEquals(75.0, snapshot.getPlayerJobs().get(0).getExperience(), DELTA);
+    }
+
+    @Test
+    public void testHasPlayerJobUsesStoreBitsForLoadedPlayers() throws SQLException {
+        PlayerStateStore stateStore = new PlayerStateStore();
+        PlayerJobDAO storeBackedDAO = new PlayerJobDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), stateStore);
+        UUID testUuid = UUID.randomUUID();
+        storeBackedDAO.createPlayerJob(new PlayerJob(testUuid, 3));
+        stateStore.load(testUuid, null, storeBackedDAO.getPlayerJobs(testUuid));
+        
+        // ストアに読み込み済みならDBを読まない（DBを直接変更しても結果は変わらない）
+        playerJobDAO.deleteAllPlayerJobs(testUuid);
+        assertTrue(storeBackedDAO.hasPlayerJob(testUuid, 3));
+        assertFalse("就いていない職業はDBを読まずにfalseを返すべき", storeBackedDAO.hasPlayerJob(testUuid, 1));
+        
+        storeBackedDAO.createPlayerJob(new PlayerJob(testUuid, 1));
+        assertTrue("作成した職業は即時に反映されるべき", storeBackedDAO.hasPlayerJob(testUuid, 1));
+        storeBackedDAO.deletePlayerJob(testUuid, 3);
+        assertFalse("削除した職業は即時に反映されるべき", storeBackedDAO.hasPlayerJob(testUuid, 3));
+        assertNull("未読み込みのプレイヤーはnullを返すべき", stateStore.hasPlayerJob(UUID.randomUUID(), 1));
+    }
+
+    private OptimizedBatchProcessor createBatchProcessor() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("PlayerJobDAOTest"));
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.isBatchProcessingEnabled()).thenReturn(true);
+        when(configManager.getBatchSize()).thenReturn(100);
+        when(configManager.getBatchTimeout()).thenReturn(60000);
+        when(configManager.getBatchMaxQueueSize()).thenReturn(100);
+        when(configManager.getBatchMaxRetries()).thenReturn(3);
+        OptimizedBatchProcessor processor = new OptimizedBatchProcessor(plugin, configManager,
+            new SingleConnectionDataSource(connection));
+        playerJobDAO.setBatchProcessor(processor);
+        return processor;
+    }
+
+    @Test
+    public void testDeletePlayerJobDiscardsQueuedJobState() throws Exception {
+        OptimizedBatchProcessor processor = createBatchProcessor();
+        try {
+            UUID testUuid = UUID.randomUUID();
+            playerJobDAO.createPlayerJob(new PlayerJob(testUuid, 1));
+            // 削除前のレベル・経験値が書き出し待ちのまま残っている
+            processor.queuePlayerJobState(testUuid.toString(), 1, 30, 500.0);
+
+            playerJobDAO.deletePlayerJob(testUuid, 1);
+            playerJobDAO.createPlayerJob(new PlayerJob(testUuid, 1));
+            processor.flush().get(5, TimeUnit.SECONDS);
+
+            PlayerJob recreated = playerJobDAO.getPlayerJob(testUuid, 1);
+            assertEquals("削除前のレベルで就き直した職業を上書きしてはいけない", 1, recreated.getLevel());
+            assertEquals("削除前の経験値で就き直した職業を上書きしてはいけない", 0.0, recreated.getExperience(), DELTA);
+        } finally {
+            processor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeleteAllPlayerJobsDiscardsQueuedJobStates() throws Exception {
+        OptimizedBatchProcessor processor = createBatchProcessor();
+        try {
+            UUID testUuid = UUID.randomUUID();
+            UUID otherUuid = UUID.randomUUID();
+            playerJobDAO.createPlayerJob(new PlayerJob(testUuid, 1));
+            playerJobDAO.createPlayerJob(new PlayerJob(testUuid, 2));
+            playerJobDAO.createPlayerJob(new PlayerJob(otherUuid, 1));
+            processor.queuePlayerJobState(testUuid.toString(), 1, 30, 500.0);
+            processor.queuePlayerJobState(testUuid.toString(), 2, 20, 300.0);
+            processor.queuePlayerJobState(otherUuid.toString(), 1, 10, 100.0);
+
+            playerJobDAO.deleteAllPlayerJobs(testUuid);
+            playerJobDAO.createPlayerJob(new PlayerJob(testUuid, 2));
+            processor.flush().get(5, TimeUnit.SECONDS);
+
+            assertEquals("削除前のレベルで就き直した職業を上書きしてはいけない",
+                1, playerJobDAO.getPlayerJob(testUuid, 2).getLevel());
+            assertEquals("他のプレイヤーの書き出し待ちは破棄しないべき",
+                10, playerJobDAO.getPlayerJob(otherUuid, 1).getLevel());
+        } finally {
+            processor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.tofu.tofunomics.dao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * PlayerSessionDAO単体テスト
+ * H2インメモリデータベースを使用してログイン時の一括読み込みを確認する
+ */
+public class PlayerSessionDAOTest {
+
+    private Connection connection;
+    private PlayerSessionDAO playerSessionDAO;
+
+    @Before
+    public void setUp() throws SQLException {
+        // H2インメモリデータベースの設定
+        connection = DriverManager.getConnection("jdbc:h2:mem:testdb_playersession;DB_CLOSE_DELAY=-1", "sa", "");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS players (" +
+                    "uuid VARCHAR(36) PRIMARY KEY, " +
+                    "balance DOUBLE NOT NULL DEFAULT 0.0, " +
+                    "bank_balance DOUBLE NOT NULL DEFAULT 0.0, " +
+                    "created_at TIMESTAMP NOT NULL, " +
+                    "updated_at TIMESTAMP NOT NULL, " +
+                    "rules_agreed BOOLEAN DEFAULT FALSE" +
+                    ")");
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS player_jobs (" +
+                    "uuid VARCHAR(36) NOT NULL, " +
+                    "job_id INT NOT NULL, " +
+                    "level INT NOT NULL DEFAULT 1, " +
+                    "experience DOUBLE NOT NULL DEFAULT 0.0, " +
+                    "joined_at TIMESTAMP NOT NULL, " +
+                    "updated_at TIMESTAMP NOT NULL, " +
+                    "PRIMARY KEY (uuid, job_id)" +
+                    ")");
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS job_changes (" +
+                    "uuid VARCHAR(36) PRIMARY KEY, " +
+                    "last_change_date VARCHAR(50) NOT NULL, " +
+                    "created_at TIMESTAMP NOT NULL, " +
+                    "updated_at TIMESTAMP NOT NULL" +
+                    ")");
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS housing_rentals (" +
+                    "id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "property_id INT NOT NULL, " +
+                    "tenant_uuid VARCHAR(36) NOT NULL, " +
+                    "rental_period VARCHAR(10) NOT NULL, " +
+                    "rental_days INT NOT NULL, " +
+                    "total_cost DOUBLE NOT NULL, " +
+                    "start_date TIMESTAMP NOT NULL, " +
+                    "end_date TIMESTAMP NOT NULL, " +
+                    "start_tick BIGINT DEFAULT 0, " +
+                    "end_tick BIGINT DEFAULT 0, " +
+                    "status VARCHAR(20) NOT NULL, " +
+                    "auto_renew BOOLEAN DEFAULT FALSE, " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                    ")");
+        }
+
+        playerSessionDAO = new PlayerSessionDAO(connection);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (connection != null && !connection.isClosed()) {
+            // テーブル削除
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("DROP TABLE IF EXISTS players");
+                statement.executeUpdate("DROP TABLE IF EXISTS player_jobs");
+                statement.executeUpdate("DROP TABLE IF EXISTS job_changes");
+                statement.executeUpdate("DROP TABLE IF EXISTS housing_rentals");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testLoadSessionReadsAllTables() throws SQLException {
+        UUID uuid = UUID.randomUUID();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO players (uuid, balance, bank_balance, created_at, updated_at, rules_agreed) VALUES (?, 120.5, 0.0, ?, ?, TRUE)")) {
+            statement.setString(1, uuid.toString());
+            statement.setTimestamp(2, now);
+            statement.setTimestamp(3, now);
+            statement.executeUpdate();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO player_jobs (uuid, job_id, level, experience, joined_at, updated_at) VALUES (?, 3, 7, 42.0, ?, ?)")) {
+            statement.setString(1, uuid.toString());
+            statement.setTimestamp(2, now);
+            statement.setTimestamp(3, now);
+            statement.executeUpdate();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO job_changes (uuid, last_change_date, created_at, updated_at) VALUES (?, '2024-01-15', ?, ?)")) {
+            statement.setString(1, uuid.toString());
+            statement.setTimestamp(2, now);
+            statement.setTimestamp(3, now);
+            statement.executeUpdate();
+        }
+        // 有効な契約1件と終了済みの契約1件
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO housing_rentals (property_id, tenant_uuid, rental_period, rental_days, total_cost, start_date, end_date, status) " +
+                "VALUES (?, ?, 'week', 7, 700.0, ?, ?, ?)")) {
+            statement.setInt(1, 1);
+            statement.setString(2, uuid.toString());
+            statement.setTimestamp(3, now);
+            statement.setTimestamp(4, now);
+            statement.setString(5, "active");
+            statement.executeUpdate();
+            statement.setInt(1, 2);
+            statement.setString(5, "expired");
+            statement.executeUpdate();
+        }
+
+        PlayerSessionDAO.SessionData data = playerSessionDAO.loadSession(uuid);
+
+        assertNotNull("プレイヤー行が読み込まれるべき", data.getPlayer());
+        assertEquals(120.5, data.getPlayer().getBalance(), 0.001);
+        assertTrue("ルール同意状態が読み込まれるべき", data.hasAgreedToRules());
+        assertEquals(1, data.getPlayerJobs().size());
+        assertEquals(7, data.getPlayerJobs().get(0).getLevel());
+        assertNotNull("職業変更記録が読み込まれるべき", data.getJobChange());
+        assertEquals("2024-01-15", data.getJobChange().getLastChangeDate());
+        assertEquals("有効な契約だけが読み込まれるべき", 1, data.getActiveRentals().size());
+        assertEquals(1, data.getActiveRentals().get(0).getPropertyId());
+        assertTrue("トランザクション終了後は自動コミットに戻るべき", connection.getAutoCommit());
+    }
+
+    @Test
+    public void testLoadSessionForUnknownPlayer() throws SQLException {
+        PlayerSessionDAO.SessionData data = playerSessionDAO.loadSession(UUID.randomUUID());
+
+        assertNull("存在しないプレイヤーの行はnullであるべき", data.getPlayer());
+        assertFalse(data.hasAgreedToRules());
+        assertTrue(data.getPlayerJobs().isEmpty());
+        assertNull(data.getJobChange());
+        assertTrue(data.getActiveRentals().isEmpty());
+    }
+}
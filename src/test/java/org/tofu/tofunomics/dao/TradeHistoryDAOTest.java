@@ -0,0 +1,126 @@
+package org.tofu.tofunomics.dao;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.tofu.tofunomics.database.DatabaseExecutor;
+import org.tofu.tofunomics.database.SchemaMigrator;
+import org.tofu.tofunomics.database.SingleConnectionDataSource;
+import org.tofu.tofunomics.models.PlayerTradeHistory;
+import org.tofu.tofunomics.models.TradeSummary;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TradeHistoryDAO単体テスト
+ * SQLiteインメモリデータベースで月別パーティションへの書き込み・日次集計・パーティション削除を検証
+ * （日次集計の加算に ON CONFLICT ... DO UPDATE を使うためSQLiteでテストする）
+ */
+public class TradeHistoryDAOTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    private Connection connection;
+    private TradeHistoryDAO tradeHistoryDAO;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        SchemaMigrator.createTradeRollupTables(connection);
+        tradeHistoryDAO = new TradeHistoryDAO(new SingleConnectionDataSource(connection), DatabaseExecutor.inline(), ZONE);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testHistoriesAreWrittenToMonthlyPartitions() throws SQLException {
+        PlayerTradeHistory january = history("p1", "STONE", 10, 5.0, "2024-01-31T23:00:00");
+        PlayerTradeHistory february = history("p1", "COAL", 2, 4.0, "2024-02-01T01:00:00");
+        tradeHistoryDAO.insertTradeHistories(Arrays.asList(january, february));
+
+        assertEquals(Arrays.asList(YearMonth.of(2024, 2), YearMonth.of(2024, 1)), tradeHistoryDAO.getPartitionMonths());
+        assertTrue("採番したIDが設定されるべき", january.getId() > 0);
+
+        List<PlayerTradeHistory> histories = tradeHistoryDAO.getPlayerTradeHistory("p1", 10);
+        assertEquals(2, histories.size());
+        assertEquals("新しい順に返されるべき", "COAL", histories.get(0).getItemType());
+        assertEquals(february.getTradedAt(), histories.get(0).getTradedAt());
+        assertEquals("STONE", histories.get(1).getItemType());
+
+        assertEquals("件数に達したら古いパーティションを読まないべき", 1, tradeHistoryDAO.getPlayerTradeHistory("p1", 1).size());
+        assertTrue(tradeHistoryDAO.getPlayerTradeHistory("p2", 10).isEmpty());
+    }
+
+    @Test
+    public void testRollupsAccumulateAcrossInserts() throws SQLException {
+        tradeHistoryDAO.insertTradeHistories(Arrays.asList(
+                history("p1", "STONE", 10, 5.0, "2024-01-10T10:00:00"),
+                history("p1", "STONE", 4, 2.0, "2024-01-10T11:00:00")));
+        PlayerTradeHistory bonus = history("p2", "DIAMOND", 1, 100.0, "2024-01-11T10:00:00");
+        bonus.setJobBonus(20.0);
+        tradeHistoryDAO.insertTradeHistory(bonus);
+        tradeHistoryDAO.insertTradeHistory(history("p1", "STONE", 6, 3.0, "2024-01-11T12:00:00"));
+
+        TradeSummary p1 = tradeHistoryDAO.getPlayerSummary("p1", LocalDate.of(2024, 1, 1));
+        assertEquals(3, p1.getTradeCount());
+        assertEquals(20, p1.getItemAmount());
+        assertEquals(10.0, p1.getTotalEarnings(), 0.001);
+
+        TradeSummary p1SinceEleventh = tradeHistoryDAO.getPlayerSummary("p1", LocalDate.of(2024, 1, 11));
+        assertEquals("開始日より前の集計は含まないべき", 1, p1SinceEleventh.getTradeCount());
+
+        assertEquals("取引がなければ件数0の集計を返すべき", 0,
+                tradeHistoryDAO.getPlayerSummary("p3", LocalDate.of(2024, 1, 1)).getTradeCount());
+
+        List<TradeSummary> topItems = tradeHistoryDAO.getTopItems(LocalDate.of(2024, 1, 1), 10);
+        assertEquals(2, topItems.size());
+        assertEquals("DIAMOND", topItems.get(0).getKey());
+        assertEquals(120.0, topItems.get(0).getTotalEarnings(), 0.001);
+        assertEquals("STONE", topItems.get(1).getKey());
+        assertEquals(20, topItems.get(1).getItemAmount());
+    }
+
+    @Test
+    public void testOldPartitionsAreDropped() throws SQLException {
+        tradeHistoryDAO.insertTradeHistories(Arrays.asList(
+                history("p1", "STONE", 1, 1.0, "2023-11-05T10:00:00"),
+                history("p1", "STONE", 1, 1.0, "2023-12-05T10:00:00"),
+                history("p1", "STONE", 1, 1.0, "2024-01-05T10:00:00")));
+
+        assertEquals(2, tradeHistoryDAO.dropPartitionsBefore(YearMonth.of(2024, 1)));
+        assertEquals(Arrays.asList(YearMonth.of(2024, 1)), tradeHistoryDAO.getPartitionMonths());
+        assertEquals(1, tradeHistoryDAO.getPlayerTradeHistory("p1", 10).size());
+        assertEquals("日次集計は履歴の削除後も残るべき", 3,
+                tradeHistoryDAO.getPlayerSummary("p1", LocalDate.of(2023, 1, 1)).getTradeCount());
+
+        // 削除した月へ再び書き込む場合はパーティションを作り直す
+        tradeHistoryDAO.insertTradeHistory(history("p1", "STONE", 1, 1.0, "2023-12-06T10:00:00"));
+        assertEquals(2, tradeHistoryDAO.getPartitionMonths().size());
+
+        assertEquals("プレイヤー別・アイテム別の両方を削除するべき", 6, tradeHistoryDAO.deleteRollupsBefore(LocalDate.of(2024, 1, 1)));
+        assertEquals(1, tradeHistoryDAO.getPlayerSummary("p1", LocalDate.of(2023, 1, 1)).getTradeCount());
+    }
+
+    private static PlayerTradeHistory history(String uuid, String itemType, int amount, double price, String tradedAt) {
+        PlayerTradeHistory history = new PlayerTradeHistory(uuid, 1, itemType, amount, price, "miner", 1);
+        history.setTradedAt(Timestamp.from(LocalDateTime.parse(tradedAt).atZone(ZONE).toInstant()));
+        return history;
+    }
+}
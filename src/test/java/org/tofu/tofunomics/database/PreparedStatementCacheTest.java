@@ -0,0 +1,111 @@
+package org.tofu.tofunomics.database;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * PreparedStatementCache単体テスト
+ * SQLiteインメモリデータベースで文の再利用と返却時の後始末を検証
+ */
+public class PreparedStatementCacheTest {
+
+    private static final String SELECT_BALANCE = "SELECT balance FROM players WHERE uuid = ?";
+
+    private Connection connection;
+    private AtomicLong hits;
+    private AtomicLong misses;
+    private PreparedStatementCache cache;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE players (uuid TEXT PRIMARY KEY, balance REAL NOT NULL DEFAULT 0.0)");
+            statement.executeUpdate("INSERT INTO players (uuid, balance) VALUES ('p1', 100.0), ('p2', 200.0)");
+        }
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        cache = new PreparedStatementCache(connection, 2, hits, misses);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        cache.close();
+        connection.close();
+    }
+
+    @Test
+    public void testStatementIsReusedAfterClose() throws SQLException {
+        assertEquals(100.0, queryBalance("p1"), 0.001);
+        assertEquals("2回目は前回のパラメータが残らないべき", 200.0, queryBalance("p2"), 0.001);
+
+        assertEquals(1, misses.get());
+        assertEquals("同じSQLは再利用されるべき", 1, hits.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testNestedBorrowOfSameSqlUsesSeparateStatement() throws SQLException {
+        try (PreparedStatement outer = cache.prepare(SELECT_BALANCE)) {
+            outer.setString(1, "p1");
+            ResultSet outerResult = outer.executeQuery();
+            assertTrue(outerResult.next());
+
+            assertEquals("借用中の文とは別の文で実行されるべき", 200.0, queryBalance("p2"), 0.001);
+            assertEquals("外側の結果セットは影響を受けないべき", 100.0, outerResult.getDouble(1), 0.001);
+        }
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testClosedHandleCannotBeUsed() throws SQLException {
+        PreparedStatement statement = cache.prepare(SELECT_BALANCE);
+        ResultSet resultSet;
+        statement.setString(1, "p1");
+        resultSet = statement.executeQuery();
+        statement.close();
+
+        assertTrue(statement.isClosed());
+        assertTrue("返却時に結果セットを閉じるべき", resultSet.isClosed());
+        try {
+            statement.setString(1, "p2");
+            fail("返却済みの文は使用できないべき");
+        } catch (SQLException expected) {
+            // 期待どおり
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedStatementIsEvicted() throws SQLException {
+        queryBalance("p1");
+        try (PreparedStatement statement = cache.prepare("SELECT COUNT(*) FROM players")) {
+            statement.executeQuery();
+        }
+        try (PreparedStatement statement = cache.prepare("SELECT uuid FROM players")) {
+            statement.executeQuery();
+        }
+
+        assertEquals("上限を超えて保持しないべき", 2, cache.size());
+        queryBalance("p1");
+        assertEquals("追い出された文は再度準備されるべき", 4, misses.get());
+    }
+
+    private double queryBalance(String uuid) throws SQLException {
+        try (PreparedStatement statement = cache.prepare(SELECT_BALANCE)) {
+            statement.setString(1, uuid);
+            ResultSet resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getDouble(1) : -1;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.tofu.tofunomics.database;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * SchemaMigrator単体テスト
+ * SQLiteインメモリデータベースで旧スキーマからのマイグレーションを検証
+ */
+public class SchemaMigratorTest {
+
+    private Connection connection;
+    private SchemaMigrator migrator;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        migrator = new SchemaMigrator(Logger.getLogger("SchemaMigratorTest"));
+
+        // 旧スキーマ（bank_balance・tickカラムなし、player_jobsの主キーなし）
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE players (uuid TEXT PRIMARY KEY, balance REAL NOT NULL DEFAULT 0.0, " +
+                    "created_at TIMESTAMP, updated_at TIMESTAMP)");
+            statement.executeUpdate("CREATE TABLE jobs (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT UNIQUE NOT NULL, " +
+                    "display_name TEXT NOT NULL, max_level INTEGER NOT NULL DEFAULT 75, base_income REAL NOT NULL DEFAULT 1.0)");
+            statement.executeUpdate("CREATE TABLE player_jobs (uuid TEXT NOT NULL, job_id INTEGER NOT NULL, " +
+                    "level INTEGER NOT NULL DEFAULT 1, experience REAL NOT NULL DEFAULT 0.0)");
+            statement.executeUpdate("CREATE TABLE housing_rentals (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "tenant_uuid TEXT NOT NULL, status TEXT NOT NULL)");
+            statement.executeUpdate("CREATE TABLE player_trade_history (id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "uuid TEXT NOT NULL, trade_chest_id INTEGER NOT NULL, item_type TEXT NOT NULL, " +
+                    "item_amount INTEGER NOT NULL, sale_price REAL NOT NULL, job_bonus REAL DEFAULT 0.0, " +
+                    "player_job TEXT, player_job_level INTEGER DEFAULT 1, traded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+
+            statement.executeUpdate("INSERT INTO players (uuid, balance) VALUES ('p1', 500.0)");
+            statement.executeUpdate("INSERT INTO player_jobs (uuid, job_id, level) VALUES ('p1', 1, 3)");
+            statement.executeUpdate("INSERT INTO player_jobs (uuid, job_id, level) VALUES ('p1', 1, 5)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testMigrateFromLegacySchema() throws SQLException {
+        int applied = migrator.migrate(connection);
+
+        assertEquals("全マイグレーションが適用されるべき", migrator.getMigrations().size(), applied);
+        assertEquals("最新バージョンが記録されるべき", migrator.getLatestVersion(), SchemaMigrator.getCurrentVersion(connection));
+        assertTrue("bank_balanceカラムが追加されるべき", SchemaMigrator.hasColumn(connection, "players", "bank_balance"));
+        assertTrue("end_tickカラムが追加されるべき", SchemaMigrator.hasColumn(connection, "housing_rentals", "end_tick"));
+
+        try (Statement statement = connection.createStatement()) {
+            ResultSet balance = statement.executeQuery("SELECT balance, bank_balance FROM players WHERE uuid = 'p1'");
+            assertTrue(balance.next());
+            assertEquals("所持金は銀行預金へ移行されるべき", 500.0, balance.getDouble("bank_balance"), 0.001);
+            assertEquals(0.0, balance.getDouble("balance"), 0.001);
+
+            ResultSet jobs = statement.executeQuery("SELECT COUNT(*), MAX(level) FROM player_jobs");
+            assertTrue(jobs.next());
+            assertEquals("重複した職業行は1行にまとめられるべき", 1, jobs.getInt(1));
+            assertEquals("最後に書き込まれた行が残るべき", 5, jobs.getInt(2));
+        }
+    }
+
+    @Test
+    public void testMigrationsAreAppliedOnlyOnce() throws SQLException {
+        migrator.migrate(connection);
+
+        assertEquals("適用済みのマイグレーションは再実行されないべき", 0, migrator.migrate(connection));
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM schema_version")) {
+            assertTrue(resultSet.next());
+            assertEquals(migrator.getMigrations().size(), resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    public void testTradeHistoryIsMovedToMonthlyPartitionsWithRollups() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // 旧テーブルの traded_at は CURRENT_TIMESTAMP 形式（UTC）
+            statement.executeUpdate("INSERT INTO player_trade_history (uuid, trade_chest_id, item_type, item_amount, " +
+                    "sale_price, job_bonus, traded_at) VALUES ('p1', 1, 'STONE', 10, 5.0, 1.0, '2024-01-15 12:00:00')");
+            statement.executeUpdate("INSERT INTO player_trade_history (uuid, trade_chest_id, item_type, item_amount, " +
+                    "sale_price, job_bonus, traded_at) VALUES ('p1', 1, 'STONE', 5, 2.5, 0.0, '2024-01-15 12:30:00')");
+            statement.executeUpdate("INSERT INTO player_trade_history (uuid, trade_chest_id, item_type, item_amount, " +
+                    "sale_price, job_bonus, traded_at) VALUES ('p1', 1, 'COAL', 1, 3.0, 0.0, '2024-03-15 12:00:00')");
+        }
+
+        migrator.migrate(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            assertEquals("旧テーブルは空になるべき", 0, count(statement, "SELECT COUNT(*) FROM player_trade_history"));
+            assertEquals(2, count(statement, "SELECT COUNT(*) FROM player_trade_history_202401"));
+            assertEquals(1, count(statement, "SELECT COUNT(*) FROM player_trade_history_202403"));
+            assertEquals("traded_atはエポックミリ秒へ変換されるべき", 1705320000000L,
+                    count(statement, "SELECT MIN(traded_at) FROM player_trade_history_202401"));
+
+            ResultSet rollup = statement.executeQuery("SELECT SUM(trade_count), SUM(item_amount), SUM(sale_total), " +
+                    "SUM(bonus_total) FROM trade_daily_player_stats WHERE uuid = 'p1'");
+            assertTrue(rollup.next());
+            assertEquals("日次集計が作り直されるべき", 3, rollup.getInt(1));
+            assertEquals(16, rollup.getInt(2));
+            assertEquals(10.5, rollup.getDouble(3), 0.001);
+            assertEquals(1.0, rollup.getDouble(4), 0.001);
+            assertEquals(2, count(statement, "SELECT COUNT(*) FROM trade_daily_item_stats"));
+        }
+    }
+
+    private static long count(Statement statement, String query) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(query)) {
+            assertTrue(resultSet.next());
+            return resultSet.getLong(1);
+        }
+    }
+
+    @Test
+    public void testHotQueriesUseIndexes() throws SQLException {
+        migrator.migrate(connection);
+
+        assertUsesIndex("SELECT * FROM players ORDER BY (balance + bank_balance) DESC LIMIT 10", "idx_players_wealth");
+        assertUsesIndex("SELECT * FROM housing_rentals WHERE status = 'active' AND end_tick <= 100", "idx_housing_rentals_status_end_tick");
+        assertUsesIndex("SELECT * FROM player_trade_history WHERE uuid = 'p1' ORDER BY traded_at DESC LIMIT 10",
+                "idx_player_trade_history_uuid_traded_at");
+    }
+
+    private void assertUsesIndex(String query, String indexName) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN QUERY PLAN " + query)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString("detail")).append('\n');
+            }
+        }
+        assertTrue(indexName + " が使われるべき: " + plan, plan.toString().contains(indexName));
+    }
+}
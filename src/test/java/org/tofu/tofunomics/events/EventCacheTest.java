@@ -0,0 +1,67 @@
+package org.tofu.tofunomics.events;
+
+import org.bukkit.entity.Player;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * EventCache単体テスト
+ * イベントタイプごとのクールダウン判定と、参加・退出による時刻配列の作成・破棄を確認する
+ */
+public class EventCacheTest {
+
+    @Mock
+    private Player player;
+
+    private EventCache eventCache;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        eventCache = new EventCache();
+    }
+
+    @Test
+    public void testCooldownIsTrackedPerEventType() {
+        eventCache.registerPlayer(player);
+        assertFalse("未処理のイベントはクールダウン中ではないべき",
+                eventCache.isRecentlyProcessed(player, EventCache.EventType.BLOCK_BREAK, 60_000L));
+
+        eventCache.markAsProcessed(player, EventCache.EventType.BLOCK_BREAK);
+
+        assertTrue(eventCache.isRecentlyProcessed(player, EventCache.EventType.BLOCK_BREAK, 60_000L));
+        assertFalse("別のイベントタイプには影響しないべき",
+                eventCache.isRecentlyProcessed(player, EventCache.EventType.BLOCK_PLACE, 60_000L));
+        assertFalse("クールダウン0ではすぐに処理できるべき",
+                eventCache.isRecentlyProcessed(player, EventCache.EventType.BLOCK_BREAK, 0L));
+        assertEquals(1, eventCache.getCacheSize());
+        assertEquals(1L, eventCache.getTotalProcessedEvents());
+
+        eventCache.clearEventTypeCache(EventCache.EventType.BLOCK_BREAK);
+        assertFalse(eventCache.isRecentlyProcessed(player, EventCache.EventType.BLOCK_BREAK, 60_000L));
+    }
+
+    @Test
+    public void testPlayerSlotsAreDroppedOnQuit() {
+        eventCache.registerPlayer(player);
+        eventCache.markAsProcessed(player, EventCache.EventType.PLAYER_FISH);
+        assertEquals(1, eventCache.getActivePlayerCount());
+
+        eventCache.clearPlayerCache(player);
+
+        assertEquals("退出したプレイヤーの配列は破棄されるべき", 0, eventCache.getActivePlayerCount());
+        assertFalse(eventCache.isRecentlyProcessed(player, EventCache.EventType.PLAYER_FISH, 60_000L));
+
+        // 参加前に発生したイベントも記録できる
+        eventCache.markAsProcessed(player, EventCache.EventType.CRAFT_ITEM);
+        assertTrue(eventCache.isRecentlyProcessed(player, EventCache.EventType.CRAFT_ITEM, 60_000L));
+    }
+}
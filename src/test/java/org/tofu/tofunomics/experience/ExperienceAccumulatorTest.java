@@ -0,0 +1,158 @@
+package org.tofu.tofunomics.experience;
+
+import org.junit.Test;
+import org.tofu.tofunomics.performance.StatsRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * ExperienceAccumulator単体テスト
+ * プレイヤー・職業ごとの合算、反映後の集計のやり直し、退出時の1人分の反映、反映失敗時の戻し、
+ * 統計に公開する集計中のプレイヤー数を検証
+ */
+public class ExperienceAccumulatorTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private final List<String> applied = new ArrayList<>();
+
+    private void record(UUID uuid, int jobId, double experience) {
+        applied.add(uuid.toString().substring(35) + ":" + jobId + ":" + experience);
+    }
+
+    @Test
+    public void testBurstIsAppliedOncePerPlayerAndJob() {
+        ExperienceAccumulator accumulator = new ExperienceAccumulator();
+        for (int i = 0; i < 64; i++) {
+            accumulator.add(ALICE, 1, 0.5);
+        }
+        accumulator.add(ALICE, 2, 3.0);
+        accumulator.add(BOB, 1, 1.5);
+
+        accumulator.drain(this::record);
+
+        assertEquals(Arrays.asList("1:1:32.0", "1:2:3.0", "2:1:1.5"), applied);
+        assertEquals(66, accumulator.getEventCount());
+        assertEquals("プレイヤー・職業ごとに1回だけ反映するべき", 3, accumulator.getAppliedCount());
+        assertEquals(0, accumulator.size());
+    }
+
+    @Test
+    public void testDrainStartsNewWindow() {
+        ExperienceAccumulator accumulator = new ExperienceAccumulator();
+        accumulator.add(ALICE, 1, 2.0);
+        accumulator.drain(this::record);
+        accumulator.add(ALICE, 1, 4.0);
+        accumulator.drain(this::record);
+        accumulator.drain(this::record);
+
+        assertEquals("反映済みの経験値を再度反映しないべき", Arrays.asList("1:1:2.0", "1:1:4.0"), applied);
+    }
+
+    @Test
+    public void testLargeJobIdAndIgnoredValues() {
+        ExperienceAccumulator accumulator = new ExperienceAccumulator();
+        accumulator.add(ALICE, 1, 1.0);
+        accumulator.add(ALICE, 40, 2.0);
+        accumulator.add(ALICE, -1, 5.0);
+        accumulator.add(ALICE, 3, 0.0);
+
+        accumulator.drain(this::record);
+
+        assertEquals("配列を拡張しても合算済みの値を保持するべき", Arrays.asList("1:1:1.0", "1:40:2.0"), applied);
+    }
+
+    @Test
+    public void testDrainSinglePlayerOnQuit() {
+        ExperienceAccumulator accumulator = new ExperienceAccumulator();
+        accumulator.add(ALICE, 1, 1.0);
+        accumulator.add(BOB, 2, 2.0);
+
+        accumulator.drain(ALICE, this::record);
+
+        assertEquals(Arrays.asList("1:1:1.0"), applied);
+        assertEquals("他のプレイヤーの集計は残すべき", 1, accumulator.size());
+        accumulator.drain(this::record);
+        assertEquals(Arrays.asList("1:1:1.0", "2:2:2.0"), applied);
+    }
+
+    @Test
+    public void testFailedApplyKeepsUnappliedExperience() {
+        ExperienceAccumulator accumulator = new ExperienceAccumulator();
+        accumulator.add(ALICE, 1, 1.0);
+        accumulator.add(ALICE, 2, 2.0);
+        accumulator.add(BOB, 1, 3.0);
+
+        try {
+            accumulator.drain((uuid, jobId, experience) -> {
+                if (jobId == 2) {
+                    throw new IllegalStateException("反映できません");
+                }
+                record(uuid, jobId, experience);
+            });
+            fail("反映先の例外は呼び出し元へ伝えるべき");
+        } catch (IllegalStateException expected) {
+            // 反映できなかった分は残る
+        }
+        assertEquals(Arrays.asList("1:1:1.0"), applied);
+        assertEquals(2, accumulator.size());
+
+        accumulator.add(ALICE, 2, 0.5);
+        accumulator.drain(this::record);
+        assertEquals("反映済みの分は再び反映せず、残りを次の期間に反映するべき",
+                Arrays.asList("1:1:1.0", "1:2:2.5", "2:1:3.0"), applied);
+        assertEquals(0, accumulator.size());
+    }
+
+    @Test
+    public void testFailedPlayerDrainKeepsExperience() {
+        ExperienceAccumulator accumulator = new ExperienceAccumulator();
+        accumulator.add(ALICE, 1, 1.0);
+
+        try {
+            accumulator.drain(ALICE, (uuid, jobId, experience) -> {
+                throw new IllegalStateException("反映できません");
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+            // 反映できなかった分は残る
+        }
+        accumulator.drain(ALICE, this::record);
+        assertEquals(Arrays.asList("1:1:1.0"), applied);
+    }
+
+    @Test
+    public void testStatsReportPublishedPendingSize() {
+        ExperienceAccumulator accumulator = new ExperienceAccumulator();
+        StatsRegistry registry = new StatsRegistry(Logger.getLogger("ExperienceAccumulatorTest"));
+        accumulator.registerStats(registry);
+
+        accumulator.add(ALICE, 1, 1.0);
+        accumulator.add(ALICE, 2, 1.0);
+        accumulator.add(BOB, 1, 1.0);
+        assertEquals(2, registry.snapshotAll().get("experience.pending").getSize());
+
+        accumulator.drain(ALICE, this::record);
+        assertEquals(1, registry.snapshotAll().get("experience.pending").getSize());
+
+        try {
+            accumulator.drain((uuid, jobId, experience) -> {
+                throw new IllegalStateException("反映できません");
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+            // 反映できなかった分は残る
+        }
+        assertEquals("戻した分も集計中として公開するべき", 1, registry.snapshotAll().get("experience.pending").getSize());
+
+        accumulator.drain(this::record);
+        assertEquals(0, registry.snapshotAll().get("experience.pending").getSize());
+    }
+}
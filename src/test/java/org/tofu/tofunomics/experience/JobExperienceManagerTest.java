@@ -0,0 +1,155 @@
+package org.tofu.tofunomics.experience;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.Warning;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.SimplePluginManager;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.MockedStatic;
+import org.tofu.tofunomics.blocks.PlacedBlockTracker;
+import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.dao.PlayerJobDAO;
+import org.tofu.tofunomics.jobs.ExperienceManager;
+import org.tofu.tofunomics.jobs.JobManager;
+import org.tofu.tofunomics.models.Job;
+import org.tofu.tofunomics.models.PlayerJob;
+import org.tofu.tofunomics.rewards.RewardRuleEngine;
+import org.tofu.tofunomics.rewards.RewardRules;
+import org.tofu.tofunomics.tools.JobToolManager;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JobExperienceManager単体テスト
+ * プラグインマネージャーに直接登録した場合も、設置したブロックの破壊では経験値を付与しないことを検証
+ */
+public class JobExperienceManagerTest {
+
+    private static final int MINER_ID = 1;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PlayerJobDAO playerJobDAO;
+    private PlacedBlockTracker tracker;
+    private SimplePluginManager pluginManager;
+    private Player player;
+    private World world;
+    private PlayerJob minerJob;
+
+    @Before
+    public void setUp() {
+        UUID uuid = UUID.randomUUID();
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+        world = mock(World.class);
+        when(world.getName()).thenReturn("world");
+
+        Job miner = new Job("miner", "鉱夫", 75, 1.0);
+        miner.setId(MINER_ID);
+        minerJob = new PlayerJob(uuid, MINER_ID);
+        minerJob.setLevel(1);
+
+        JobManager jobManager = mock(JobManager.class);
+        when(jobManager.getPlayerJobs(player)).thenReturn(Collections.singletonList(minerJob));
+        when(jobManager.getJobById(MINER_ID)).thenReturn(miner);
+        when(jobManager.getJobByName("miner")).thenReturn(miner);
+
+        RewardRules rules = mock(RewardRules.class);
+        int coalOre = Material.COAL_ORE.ordinal();
+        when(rules.isRewarded(RewardRules.Activity.BLOCK_BREAK, coalOre)).thenReturn(true);
+        when(rules.hasReward(RewardRules.Activity.BLOCK_BREAK, MINER_ID, coalOre)).thenReturn(true);
+        when(rules.getExperience(RewardRules.Activity.BLOCK_BREAK, MINER_ID, coalOre, 1)).thenReturn(2.0);
+        RewardRuleEngine rewardRuleEngine = mock(RewardRuleEngine.class);
+        when(rewardRuleEngine.getRules()).thenReturn(rules);
+
+        ExperienceManager experienceManager = mock(ExperienceManager.class);
+        when(experienceManager.calculateRequiredExperience(anyInt())).thenReturn(Double.MAX_VALUE);
+
+        playerJobDAO = mock(PlayerJobDAO.class);
+        when(playerJobDAO.getPlayerJob(uuid.toString(), MINER_ID)).thenReturn(minerJob);
+
+        // 集計せずに即時反映する
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getExperienceAccumulationWindow()).thenReturn(0L);
+
+        JobExperienceManager manager = new JobExperienceManager(configManager, playerJobDAO, jobManager,
+            mock(JobToolManager.class), experienceManager, rewardRuleEngine);
+
+        tracker = new PlacedBlockTracker(folder.getRoot(), 100, Runnable::run, Runnable::run,
+            Logger.getLogger("test"));
+        tracker.onChunkLoad("world", 0, 0);
+        manager.setPlacedBlockTracker(tracker);
+
+        // 統合イベントハンドラーを経由しない登録（TofuNomicsのフォールバック）と同じ経路でイベントを流す
+        Server server = mock(Server.class);
+        when(server.isPrimaryThread()).thenReturn(true);
+        when(server.getLogger()).thenReturn(Logger.getLogger("test"));
+        when(server.getWarningState()).thenReturn(Warning.WarningState.DEFAULT);
+        pluginManager = new SimplePluginManager(server, mock(SimpleCommandMap.class));
+        when(server.getPluginManager()).thenReturn(pluginManager);
+
+        Plugin plugin = mock(Plugin.class);
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("test"));
+        when(plugin.getDescription()).thenReturn(
+            new PluginDescriptionFile("TofuNomics", "1.0", "org.tofu.tofunomics.TofuNomics"));
+        when(plugin.getPluginLoader()).thenReturn(new JavaPluginLoader(server));
+        pluginManager.registerEvents(manager, plugin);
+    }
+
+    @After
+    public void tearDown() {
+        HandlerList.unregisterAll();
+    }
+
+    private void breakCoalOre(int x, int y, int z) {
+        Block block = mock(Block.class);
+        when(block.getType()).thenReturn(Material.COAL_ORE);
+        when(block.getWorld()).thenReturn(world);
+        when(block.getX()).thenReturn(x);
+        when(block.getY()).thenReturn(y);
+        when(block.getZ()).thenReturn(z);
+        try (MockedStatic<Bukkit> mockedBukkit = mockStatic(Bukkit.class)) {
+            pluginManager.callEvent(new BlockBreakEvent(block, player));
+        }
+    }
+
+    @Test
+    public void testNaturalBlockGivesExperience() {
+        breakCoalOre(1, 12, 2);
+
+        verify(playerJobDAO).updatePlayerJobData(minerJob);
+        assertEquals(2.0, minerJob.getExperience(), 0.0001);
+    }
+
+    @Test
+    public void testPlacedBlockGivesNoExperience() {
+        tracker.markPlaced("world", 1, 12, 2);
+
+        breakCoalOre(1, 12, 2);
+
+        verify(playerJobDAO, never()).updatePlayerJobData(any());
+        assertEquals("設置したブロックの破壊で経験値を付与してはいけない", 0.0, minerJob.getExperience(), 0.0);
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.tofu.tofunomics.config.ConfigManager;
 import org.tofu.tofunomics.dao.JobDAO;
@@ -15,8 +16,13 @@ import org.tofu.tofunomics.models.PlayerJob;
 import org.tofu.tofunomics.jobs.JobManager.JobJoinResult;
 import org.tofu.tofunomics.jobs.JobManager.JobLeaveResult;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -62,6 +68,36 @@ public class JobManagerTest {
         when(player.getUniqueId()).thenReturn(playerUuid);
     }
 
+    /**
+     * jobsテーブルの内容を差し替えてJobManagerのスナップショットを再構築する
+     */
+    private void registerJobs(Job... jobs) {
+        try {
+            when(jobDAO.getAllJobs()).thenReturn(Arrays.asList(jobs));
+        } catch (SQLException e) {
+            throw new AssertionError(e);
+        }
+        assertTrue(jobManager.reloadJobRegistry());
+    }
+
+    @Test
+    public void testJobLookupsDoNotQueryDatabase() throws SQLException {
+        Job job = new Job("farmer", "農家", 100, 15.0);
+        job.setId(3);
+        registerJobs(job);
+
+        assertEquals(3, jobManager.getJobByName("farmer").getId());
+        assertEquals("farmer", jobManager.getJobById(3).getName());
+        assertEquals(JobType.FARMER, jobManager.getJobRegistry().getType(3));
+        assertTrue(jobManager.isValidJobName("farmer"));
+        assertFalse(jobManager.isValidJobName("nonexistent"));
+
+        // 構築時と再構築時の2回だけ読み込み、参照ではDBへ問い合わせない
+        verify(jobDAO, times(2)).getAllJobs();
+        verify(jobDAO, never()).getJobByName(anyString());
+        verify(jobDAO, never()).getJobById(anyInt());
+    }
+
     @Test
     public void testJoinJobSuccess() {
         String jobName = "farmer";
@@ -69,7 +105,7 @@ public class JobManagerTest {
         job.setId(1);
         
         // モック設定
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(false);
         when(configManager.getMaxJobsPerPlayer()).thenReturn(3);
         when(playerJobDAO.getPlayerJobsByUUID(playerUuidString)).thenReturn(new ArrayList<>());
@@ -81,11 +117,43 @@ public class JobManagerTest {
         verify(playerJobDAO).insertPlayerJob(any(PlayerJob.class));
     }
 
+    @Test
+    public void testCapabilitiesAreRebuiltAfterJoiningJob() throws SQLException {
+        Job job = new Job("miner", "鉱夫", 100, 15.0);
+        job.setId(1);
+        registerJobs(job);
+        Map<String, BitSet> grants = new HashMap<>();
+        grants.put("miner", PlayerCapabilities.toBits(Arrays.asList(Material.IRON_ORE)));
+        jobManager.getCapabilities().define(PlayerCapabilities.Kind.BREAK,
+            PlayerCapabilities.toBits(Arrays.asList(Material.STONE)), grants);
+        
+        PlayerJob minerJob = new PlayerJob();
+        minerJob.setJobId(1);
+        when(playerJobDAO.getPlayerJobs(playerUuid)).thenReturn(new ArrayList<>());
+        when(playerJobDAO.getPlayerJobsByUUID(playerUuidString)).thenReturn(new ArrayList<>());
+        when(configManager.getMaxJobsPerPlayer()).thenReturn(3);
+        when(playerJobDAO.insertPlayerJob(any(PlayerJob.class))).thenReturn(true);
+        
+        PlayerCapabilities capabilities = jobManager.getCapabilities();
+        assertTrue(capabilities.isAllowed(playerUuid, PlayerCapabilities.Kind.BREAK, Material.STONE));
+        assertFalse("無職では専用ブロックを採掘できないべき",
+            capabilities.isAllowed(playerUuid, PlayerCapabilities.Kind.BREAK, Material.IRON_ORE));
+        
+        when(playerJobDAO.getPlayerJobs(playerUuid)).thenReturn(Arrays.asList(minerJob));
+        assertEquals(JobJoinResult.SUCCESS, jobManager.joinJob(player, "miner"));
+        assertTrue("就職後は判定結果を作り直すべき",
+            capabilities.isAllowed(playerUuid, PlayerCapabilities.Kind.BREAK, Material.IRON_ORE));
+        capabilities.isAllowed(playerUuid, PlayerCapabilities.Kind.BREAK, Material.COAL_ORE);
+        
+        // 判定のたびではなく、職業の変更後に1回だけ読み込む
+        verify(playerJobDAO, times(2)).getPlayerJobs(playerUuid);
+    }
+
     @Test
     public void testJoinJobNotFound() {
         String jobName = "nonexistent";
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(null);
+        registerJobs();
         
         JobJoinResult result = jobManager.joinJob(player, jobName);
         
@@ -106,7 +174,7 @@ public class JobManagerTest {
         List<PlayerJob> currentJobs = new ArrayList<>();
         currentJobs.add(existingJob);
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(playerJobDAO.getPlayerJobsByUUID(playerUuidString)).thenReturn(currentJobs);
         when(configManager.getMaxJobsPerPlayer()).thenReturn(2);
         
@@ -130,7 +198,7 @@ public class JobManagerTest {
             existingJobs.add(playerJob);
         }
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(false);
         when(configManager.getMaxJobsPerPlayer()).thenReturn(3);
         when(playerJobDAO.getPlayerJobsByUUID(playerUuidString)).thenReturn(existingJobs);
@@ -153,7 +221,7 @@ public class JobManagerTest {
         List<PlayerJob> existingJobs = new ArrayList<>();
         existingJobs.add(existingJob);
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(false);
         when(configManager.getMaxJobsPerPlayer()).thenReturn(3);
         when(playerJobDAO.getPlayerJobsByUUID(playerUuidString)).thenReturn(existingJobs);
@@ -170,7 +238,7 @@ public class JobManagerTest {
         Job job = new Job(jobName, "農家", 100, 15.0);
         job.setId(1);
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(false);
         when(configManager.getMaxJobsPerPlayer()).thenReturn(3);
         when(playerJobDAO.getPlayerJobsByUUID(playerUuidString)).thenReturn(new ArrayList<>());
@@ -187,7 +255,7 @@ public class JobManagerTest {
         Job job = new Job(jobName, "農家", 100, 15.0);
         job.setId(1);
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(true);
         when(jobChangeDAO.canPlayerChangeJobToday(playerUuidString)).thenReturn(true);
         when(configManager.getMaxJobsPerPlayer()).thenReturn(3);
@@ -211,7 +279,7 @@ public class JobManagerTest {
         playerJob.setJobId(1);
         
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(false);
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(playerJobDAO.getPlayerJob(playerUuidString, 1)).thenReturn(playerJob);
         when(playerJobDAO.deletePlayerJob(playerUuidString, 1)).thenReturn(true);
         
@@ -239,7 +307,7 @@ public class JobManagerTest {
         String jobName = "nonexistent";
         
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(false);
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(null);
+        registerJobs();
         
         JobLeaveResult result = jobManager.leaveJob(player, jobName);
         
@@ -257,7 +325,7 @@ public class JobManagerTest {
         playerJob.setJobId(1);
         
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(false);
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(playerJobDAO.getPlayerJob(playerUuidString, 1)).thenReturn(playerJob);
         when(playerJobDAO.deletePlayerJob(playerUuidString, 1)).thenReturn(false);
         
@@ -300,7 +368,7 @@ public class JobManagerTest {
     }
 
     @Test
-    public void testGetAllJobs() {
+    public void testGetAllJobs() throws SQLException {
         List<Job> expectedJobs = new ArrayList<>();
         Job job1 = new Job("farmer", "農家", 100, 15.0);
         job1.setId(1);
@@ -309,14 +377,14 @@ public class JobManagerTest {
         expectedJobs.add(job1);
         expectedJobs.add(job2);
         
-        when(jobDAO.getAllJobsSafe()).thenReturn(expectedJobs);
+        registerJobs(job1, job2);
         
         List<Job> actualJobs = jobManager.getAllJobs();
         
         assertEquals("全職業リストが正しく取得されるべき", expectedJobs.size(), actualJobs.size());
         assertEquals("1番目の職業名が一致するべき", "farmer", actualJobs.get(0).getName());
         assertEquals("2番目の職業名が一致するべき", "miner", actualJobs.get(1).getName());
-        verify(jobDAO).getAllJobsSafe();
+        verify(jobDAO, times(2)).getAllJobs();
     }
 
     @Test
@@ -352,7 +420,7 @@ public class JobManagerTest {
     }
 
     @Test
-    public void testGetPlayerJob() {
+    public void testGetPlayerJob() throws SQLException {
         String jobName = "farmer";
         Job job = new Job(jobName, "農家", 100, 15.0);
         job.setId(1);
@@ -361,77 +429,75 @@ public class JobManagerTest {
         playerJob.setJobId(1);
         playerJob.setLevel(15);
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
+        registerJobs(job);
         when(playerJobDAO.getPlayerJob(playerUuidString, 1)).thenReturn(playerJob);
         
         PlayerJob result = jobManager.getPlayerJob(player, jobName);
         
         assertNotNull("プレイヤーの職業が取得されるべき", result);
         assertEquals("プレイヤーの職業レベルが正しいべき", 15, result.getLevel());
-        verify(jobDAO).getJobByNameSafe(jobName);
+        verify(jobDAO, never()).getJobByName(anyString());
         verify(playerJobDAO).getPlayerJob(playerUuidString, 1);
     }
 
     @Test
-    public void testGetPlayerJobNotFound() {
+    public void testGetPlayerJobNotFound() throws SQLException {
         String jobName = "nonexistent";
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(null);
+        registerJobs();
         
         PlayerJob result = jobManager.getPlayerJob(player, jobName);
         
         assertNull("存在しない職業はnullを返すべき", result);
-        verify(jobDAO).getJobByNameSafe(jobName);
+        verify(jobDAO, never()).getJobByName(anyString());
     }
 
     @Test
-    public void testHasJob() {
+    public void testHasJob() throws SQLException {
         String jobName = "farmer";
         Job job = new Job(jobName, "農家", 100, 15.0);
         job.setId(1);
         
-        PlayerJob playerJob = new PlayerJob();
-        playerJob.setJobId(1);
-        
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
-        when(playerJobDAO.getPlayerJob(playerUuidString, 1)).thenReturn(playerJob);
+        registerJobs(job);
+        when(playerJobDAO.hasPlayerJob(playerUuidString, 1)).thenReturn(true);
         
         boolean hasJob = jobManager.hasJob(player, jobName);
         
         assertTrue("プレイヤーが職業を持っているべき", hasJob);
-        verify(jobDAO).getJobByNameSafe(jobName);
-        verify(playerJobDAO).getPlayerJob(playerUuidString, 1);
+        verify(jobDAO, never()).getJobByName(anyString());
+        verify(playerJobDAO).hasPlayerJob(playerUuidString, 1);
+        verify(playerJobDAO, never()).getPlayerJob(playerUuidString, 1);
     }
 
     @Test
-    public void testHasJobFalse() {
+    public void testHasJobFalse() throws SQLException {
         String jobName = "farmer";
         Job job = new Job(jobName, "農家", 100, 15.0);
         job.setId(1);
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(job);
-        when(playerJobDAO.getPlayerJob(playerUuidString, 1)).thenReturn(null);
+        registerJobs(job);
+        when(playerJobDAO.hasPlayerJob(playerUuidString, 1)).thenReturn(false);
         
         boolean hasJob = jobManager.hasJob(player, jobName);
         
         assertFalse("プレイヤーが職業を持たないべき", hasJob);
-        verify(jobDAO).getJobByNameSafe(jobName);
-        verify(playerJobDAO).getPlayerJob(playerUuidString, 1);
+        verify(jobDAO, never()).getJobByName(anyString());
+        verify(playerJobDAO).hasPlayerJob(playerUuidString, 1);
     }
 
     @Test
-    public void testGetJobByName() {
+    public void testGetJobByName() throws SQLException {
         String jobName = "farmer";
         Job expectedJob = new Job(jobName, "農家", 100, 15.0);
         expectedJob.setId(1);
         
-        when(jobDAO.getJobByNameSafe(jobName)).thenReturn(expectedJob);
+        registerJobs(expectedJob);
         
         Job actualJob = jobManager.getJobByName(jobName);
         
         assertNotNull("職業が取得されるべき", actualJob);
         assertEquals("職業名が一致するべき", jobName, actualJob.getName());
-        verify(jobDAO).getJobByNameSafe(jobName);
+        verify(jobDAO, never()).getJobByName(anyString());
     }
 
     @Test
@@ -450,7 +516,7 @@ public class JobManagerTest {
             existingJobs.add(job);
         }
         
-        when(jobDAO.getJobByNameSafe(newJobName)).thenReturn(newJob);
+        registerJobs(newJob);
         when(configManager.isDailyJobChangeLimitEnabled()).thenReturn(true);
         when(jobChangeDAO.canPlayerChangeJobToday(playerUuidString)).thenReturn(true);
         when(configManager.getMaxJobsPerPlayer()).thenReturn(3);
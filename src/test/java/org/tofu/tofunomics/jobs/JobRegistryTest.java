@@ -0,0 +1,70 @@
+package org.tofu.tofunomics.jobs;
+
+import org.junit.Test;
+import org.tofu.tofunomics.models.Job;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * JobRegistry単体テスト
+ * 職業ID・職業名・職業タイプからの参照と不変性を確認する
+ */
+public class JobRegistryTest {
+
+    private static Job job(int id, String name, String displayName) {
+        Job job = new Job(name, displayName, 75, 1.0);
+        job.setId(id);
+        return job;
+    }
+
+    @Test
+    public void testLookupsByIdNameAndType() {
+        JobRegistry registry = new JobRegistry(Arrays.asList(
+                job(1, "miner", "鉱夫"),
+                job(3, "farmer", "農家"),
+                job(9, "custom", "独自職業")));
+
+        assertEquals(3, registry.size());
+        assertEquals("miner", registry.getById(1).getName());
+        assertNull("欠番はnullであるべき", registry.getById(2));
+        assertNull(registry.getById(-1));
+        assertNull(registry.getById(100));
+
+        assertEquals(3, registry.getJobId("farmer"));
+        assertEquals(-1, registry.getJobId("nonexistent"));
+        assertNull(registry.getByName(null));
+
+        assertEquals("farmer", registry.getByType(JobType.FARMER).getName());
+        assertNull("jobsテーブルにない職業タイプはnullであるべき", registry.getByType(JobType.ARCHITECT));
+        assertEquals(JobType.MINER, registry.getType(1));
+        assertNull("JobTypeにない職業はnullであるべき", registry.getType(9));
+    }
+
+    @Test
+    public void testSnapshotIsIndependentOfSource() {
+        Job source = job(1, "miner", "鉱夫");
+        JobRegistry registry = new JobRegistry(Collections.singletonList(source));
+
+        source.setDisplayName("変更後");
+
+        assertEquals("読み込み後の変更は反映されないべき", "鉱夫", registry.getById(1).getDisplayName());
+        try {
+            registry.getAllJobs().add(job(2, "farmer", "農家"));
+            fail("職業リストは変更できないべき");
+        } catch (UnsupportedOperationException expected) {
+            // 期待通り
+        }
+    }
+
+    @Test
+    public void testJobTypeFromName() {
+        assertEquals(JobType.FISHERMAN, JobType.fromName("fisherman"));
+        assertEquals(JobType.FISHERMAN, JobType.fromName("Fisherman"));
+        assertNull(JobType.fromName("builder"));
+        assertNull(JobType.fromName(null));
+        assertTrue(JobRegistry.empty().getAllJobs().isEmpty());
+    }
+}
@@ -0,0 +1,147 @@
+package org.tofu.tofunomics.performance;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * MetricsStore単体テスト
+ * 段階ごとの集計、期間指定の取得、メトリクスファイルからの読み戻し、ファイル操作を書き出し時に限ることを検証
+ */
+public class MetricsStoreTest {
+
+    private static final long BASE = 1_700_000_000_000L - 1_700_000_000_000L % 3_600_000L;
+    private static final Logger LOGGER = Logger.getLogger("MetricsStoreTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testQueryUsesFinestTierCoveringRange() {
+        MetricsStore store = new MetricsStore(null, 60, 60, 24, Long.MAX_VALUE, LOGGER);
+        for (int second = 0; second < 180; second++) {
+            store.record("minecraft.tps", second < 120 ? 20.0 : 10.0, BASE + second * 1000L);
+        }
+        long now = BASE + 179_000L;
+
+        List<MetricsStore.MetricPoint> seconds = store.query("minecraft.tps", now - 9_000L, now, 0);
+        assertEquals("1秒単位で取得されるべき", 10, seconds.size());
+        assertEquals(10.0, seconds.get(9).getAverage(), 0.001);
+
+        List<MetricsStore.MetricPoint> minutes = store.query("minecraft.tps", now - 170_000L, now, 0);
+        assertEquals("1秒単位の保持期間を超える範囲は1分単位で取得されるべき", 3, minutes.size());
+        assertEquals(60, minutes.get(0).getCount());
+        assertEquals(20.0, minutes.get(0).getAverage(), 0.001);
+        assertEquals(10.0, minutes.get(2).getMin(), 0.001);
+
+        assertEquals(10.0, store.getLatest("minecraft.tps").getAverage(), 0.001);
+        assertNull(store.getLatest("unknown"));
+    }
+
+    @Test
+    public void testRingBufferKeepsOnlyCapacity() {
+        MetricsStore store = new MetricsStore(null, 5, 5, 5, Long.MAX_VALUE, LOGGER);
+        for (int second = 0; second < 20; second++) {
+            store.record("system.memory_usage", second, BASE + second * 1000L);
+        }
+
+        List<MetricsStore.MetricPoint> points = store.query("system.memory_usage", BASE + 15_000L, BASE + 19_000L, 0);
+        assertEquals(5, points.size());
+        assertEquals(15.0, points.get(0).getAverage(), 0.001);
+        assertTrue("1秒単位は最新5件のみ保持されるべき",
+                store.query("system.memory_usage", BASE, BASE + 4_000L, 0).isEmpty());
+    }
+
+    @Test
+    public void testQueryDownsamplesToMaxPoints() {
+        MetricsStore store = new MetricsStore(null, 100, 10, 10, Long.MAX_VALUE, LOGGER);
+        for (int second = 0; second < 100; second++) {
+            store.record("batch.queued_operations", second, BASE + second * 1000L);
+        }
+
+        List<MetricsStore.MetricPoint> points = store.query("batch.queued_operations", BASE, BASE + 99_000L, 10);
+        assertEquals(10, points.size());
+        assertEquals(10, points.get(0).getCount());
+        assertEquals(0.0, points.get(0).getMin(), 0.001);
+        assertEquals(9.0, points.get(0).getMax(), 0.001);
+        assertEquals(4.5, points.get(0).getAverage(), 0.001);
+    }
+
+    @Test
+    public void testMinuteAndHourTiersArePersisted() throws IOException {
+        File file = new File(folder.getRoot(), "metrics.bin");
+        MetricsStore store = new MetricsStore(file, 60, 120, 24, Long.MAX_VALUE, LOGGER);
+        store.open();
+        for (int minute = 0; minute < 90; minute++) {
+            store.record("database.active_connections", minute, BASE + minute * 60_000L);
+        }
+        store.close();
+
+        MetricsStore reopened = new MetricsStore(file, 60, 120, 24, Long.MAX_VALUE, LOGGER);
+        reopened.open();
+        List<MetricsStore.MetricPoint> minutes = reopened.query("database.active_connections", BASE, BASE + 89 * 60_000L, 0);
+        assertEquals("1分単位の集計が読み戻されるべき", 90, minutes.size());
+        assertEquals(89.0, minutes.get(89).getAverage(), 0.001);
+
+        List<MetricsStore.MetricPoint> hours = reopened.query("database.active_connections", BASE - 24 * 3_600_000L, BASE + 3_600_000L, 0);
+        assertEquals("1時間単位の集計が読み戻されるべき", 2, hours.size());
+        assertEquals(60, hours.get(0).getCount());
+        assertEquals(30, hours.get(1).getCount());
+
+        // 読み戻した後に同じ区間へ記録しても二重に数えない
+        reopened.record("database.active_connections", 100.0, BASE + 90 * 60_000L);
+        reopened.close();
+        MetricsStore third = new MetricsStore(file, 60, 120, 24, Long.MAX_VALUE, LOGGER);
+        third.open();
+        hours = third.query("database.active_connections", BASE - 24 * 3_600_000L, BASE + 3_600_000L, 0);
+        assertEquals(31, hours.get(1).getCount());
+        third.close();
+    }
+
+    @Test
+    public void testFileIsCompactedWhenOverLimit() throws IOException {
+        File file = new File(folder.getRoot(), "metrics.bin");
+        MetricsStore store = new MetricsStore(file, 10, 10, 10, 2_000L, LOGGER);
+        store.open();
+        for (int minute = 0; minute < 500; minute++) {
+            store.record("minecraft.players_online", minute, BASE + minute * 60_000L);
+        }
+        store.flush();
+
+        assertTrue("保持分だけで書き直されるべき: " + store.getFileSize(), store.getFileSize() <= 2 * 2_000L);
+        store.close();
+    }
+
+    @Test
+    public void testSubmittedValuesAreAppliedOnDrain() {
+        MetricsStore store = new MetricsStore(null, 60, 60, 24, Long.MAX_VALUE, LOGGER);
+        store.submit("minecraft.players_online", 5.0, BASE);
+        assertNull("反映前は取得されないべき", store.getLatest("minecraft.players_online"));
+
+        store.drainSubmitted();
+        assertEquals(5.0, store.getLatest("minecraft.players_online").getAverage(), 0.001);
+    }
+
+    @Test
+    public void testRecordDoesNotWriteFileUntilFlush() throws IOException {
+        File file = new File(folder.getRoot(), "metrics.bin");
+        MetricsStore store = new MetricsStore(file, 60, 120, 24, Long.MAX_VALUE, LOGGER);
+        store.open();
+        long opened = store.getFileSize();
+        for (int minute = 0; minute < 10; minute++) {
+            store.record("minecraft.loaded_chunks", minute, BASE + minute * 60_000L);
+        }
+        assertEquals("記録中はファイルに書き込まないべき", opened, store.getFileSize());
+
+        store.flush();
+        assertTrue("確定した区間は書き出し時に追記されるべき", store.getFileSize() > opened);
+        store.close();
+    }
+}
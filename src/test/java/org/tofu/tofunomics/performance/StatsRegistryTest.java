@@ -0,0 +1,87 @@
+package org.tofu.tofunomics.performance;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * StatsRegistry単体テスト
+ * 登録したソースの取得、失敗したソースの除外、JSONへの書き出しを検証
+ */
+public class StatsRegistryTest {
+
+    private static final Logger LOGGER = Logger.getLogger("StatsRegistryTest");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSnapshotsAreReadOnDemandInNameOrder() {
+        StatsRegistry registry = new StatsRegistry(LOGGER);
+        int[] size = {3};
+        registry.register("cache.players", () -> StatsRegistry.Stats.cache(size[0], 30, 10, 2, size[0] * 100L));
+        registry.register("batch.pending_operations", () -> StatsRegistry.Stats.queue(5, StatsRegistry.UNKNOWN, 12.5));
+        registry.register("broken.source", () -> {
+            throw new IllegalStateException("停止済み");
+        });
+
+        size[0] = 4;
+        Map<String, StatsRegistry.Stats> snapshots = registry.snapshotAll();
+
+        assertEquals("取得に失敗したソースは除外し、名前順に並ぶべき",
+                Arrays.asList("batch.pending_operations", "cache.players"), new ArrayList<>(snapshots.keySet()));
+        StatsRegistry.Stats players = snapshots.get("cache.players");
+        assertEquals("登録時ではなく取得時の値を返すべき", 4, players.getSize());
+        assertEquals(0.75, players.getHitRate(), 0.0001);
+        assertEquals(StatsRegistry.UNKNOWN, snapshots.get("batch.pending_operations").getHitRate(), 0.0);
+        assertEquals("推定できないソースは合計に含まないべき", 400L, StatsRegistry.getTotalEstimatedBytes(snapshots));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNamesThatNeedEscaping() {
+        new StatsRegistry(LOGGER).register("cache \"players\"", () -> StatsRegistry.Stats.collection(0, 0));
+    }
+
+    @Test
+    public void testNestedMapEstimateCountsInnerEntries() {
+        Map<String, Map<String, Long>> nested = new HashMap<>();
+        nested.put("a", new HashMap<>());
+        nested.get("a").put("x", 1L);
+        nested.get("a").put("y", 2L);
+        nested.put("b", new HashMap<>());
+
+        long expected = 2 * (StatsRegistry.MAP_ENTRY_BYTES + 10 + StatsRegistry.HASH_MAP_BYTES)
+                + 2 * (StatsRegistry.MAP_ENTRY_BYTES + StatsRegistry.BOXED_NUMBER_BYTES);
+        assertEquals(expected, StatsRegistry.estimateNestedMapBytes(nested, 10, StatsRegistry.BOXED_NUMBER_BYTES));
+    }
+
+    @Test
+    public void testDumpWritesKnownFieldsOnly() throws IOException {
+        StatsRegistry registry = new StatsRegistry(LOGGER);
+        registry.register("cache.players", () -> StatsRegistry.Stats.cache(2, 8, 2, 1, 480));
+        registry.register("database.executor_queue", () ->
+                StatsRegistry.Stats.queue(0, StatsRegistry.UNKNOWN, 1.25));
+        File dumpFile = new File(folder.getRoot(), "stats/stats.json");
+
+        registry.writeDump(dumpFile);
+
+        String json = new String(Files.readAllBytes(dumpFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"cache.players\": {\"size\": 2, \"hits\": 8, \"misses\": 2, \"evictions\": 1, \"estimated_bytes\": 480}"));
+        assertTrue("該当しない項目は出力しないべき",
+                json.contains("\"database.executor_queue\": {\"size\": 0, \"queue_latency_ms\": 1.250}"));
+        assertTrue(json.contains("\"total_estimated_bytes\": 480"));
+        assertFalse("一時ファイルは残さないべき", new File(dumpFile.getPath() + ".tmp").exists());
+    }
+}
@@ -0,0 +1,141 @@
+package org.tofu.tofunomics.rewards;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.EntityType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.tofu.tofunomics.config.ConfigManager;
+import org.tofu.tofunomics.dao.JobDAO;
+import org.tofu.tofunomics.jobs.JobRegistry;
+import org.tofu.tofunomics.models.Job;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * RewardRules単体テスト
+ * reward_rules セクションの変換、職業倍率・レベル補正の適用、不正な設定の読み飛ばしを検証
+ */
+public class RewardRulesTest {
+
+    private static final String RULES_YAML = String.join("\n",
+        "reward_rules:",
+        "  block_break:",
+        "    level_scaling:",
+        "      base: 1.0",
+        "      per_level: -0.01",
+        "      min: 0.1",
+        "    jobs:",
+        "      miner:",
+        "        COAL_ORE: 2.0",
+        "        NOT_A_BLOCK: 1.0",
+        "      unknown_job:",
+        "        STONE: 1.0",
+        "  building:",
+        "    jobs:",
+        "      farmer:",
+        "        default: {experience: 0.1, income: 0.2}",
+        "        BRICKS: {experience: 2.0, income: 4.0, name: \"レンガ\"}",
+        "  entity_kill:",
+        "    level_scaling:",
+        "      base: 1.0",
+        "      per_level: 0.01",
+        "    jobs:",
+        "      \"*\":",
+        "        ZOMBIE: {experience: 2.0, income: 1.5}",
+        "      farmer:",
+        "        ZOMBIE: {experience: 3.0}",
+        "  trade:",
+        "    apply_job_multipliers: false",
+        "    jobs:",
+        "      miner:",
+        "        COAL: {income: 2.0}");
+
+    @Mock
+    private ConfigManager configManager;
+
+    @Mock
+    private JobDAO jobDAO;
+
+    private JobRegistry registry;
+    private RewardRules rules;
+
+    @Before
+    public void setUp() throws SQLException, InvalidConfigurationException {
+        MockitoAnnotations.openMocks(this);
+
+        Job miner = new Job("miner", "鉱夫", 75, 10.0);
+        miner.setId(1);
+        Job farmer = new Job("farmer", "農家", 75, 10.0);
+        farmer.setId(3);
+        when(jobDAO.getAllJobs()).thenReturn(Arrays.asList(miner, farmer));
+        registry = JobRegistry.load(jobDAO);
+
+        when(configManager.getJobExpMultiplier(anyString())).thenReturn(1.0);
+        when(configManager.getJobIncomeMultiplier(anyString())).thenReturn(1.0);
+        when(configManager.getJobExpMultiplier("miner")).thenReturn(2.0);
+        when(configManager.getJobIncomeMultiplier("miner")).thenReturn(3.0);
+
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(RULES_YAML);
+        rules = RewardRules.compile(config.getConfigurationSection("reward_rules"), registry, configManager);
+    }
+
+    @Test
+    public void testJobMultiplierAndLevelScalingArePrecombined() {
+        int coal = Material.COAL_ORE.ordinal();
+
+        assertTrue(rules.isRewarded(RewardRules.Activity.BLOCK_BREAK, coal));
+        assertTrue(rules.hasReward(RewardRules.Activity.BLOCK_BREAK, 1, coal));
+        assertFalse("報酬のない職業には付与しないべき", rules.hasReward(RewardRules.Activity.BLOCK_BREAK, 3, coal));
+        assertEquals(2.0 * 2.0 * 0.9, rules.getExperience(RewardRules.Activity.BLOCK_BREAK, 1, coal, 10), 0.0001);
+        assertEquals("倍率の下限を適用するべき",
+            2.0 * 2.0 * 0.1, rules.getExperience(RewardRules.Activity.BLOCK_BREAK, 1, coal, 95), 0.0001);
+        assertEquals(0.0, rules.getExperience(RewardRules.Activity.BLOCK_BREAK, 99, coal, 10), 0.0);
+        assertFalse(rules.isRewarded(RewardRules.Activity.BLOCK_BREAK, Material.STONE.ordinal()));
+    }
+
+    @Test
+    public void testAllJobsRuleIsOverriddenByJobRule() {
+        int zombie = EntityType.ZOMBIE.ordinal();
+
+        assertEquals(2.0 * 2.0 * 1.1, rules.getExperience(RewardRules.Activity.ENTITY_KILL, 1, zombie, 10), 0.0001);
+        assertEquals(1.5 * 3.0 * 1.1, rules.getIncome(RewardRules.Activity.ENTITY_KILL, 1, zombie, 10), 0.0001);
+        assertEquals("職業別の指定で上書きするべき",
+            3.0 * 1.1, rules.getExperience(RewardRules.Activity.ENTITY_KILL, 3, zombie, 10), 0.0001);
+        assertEquals(0.0, rules.getIncome(RewardRules.Activity.ENTITY_KILL, 3, zombie, 10), 0.0);
+    }
+
+    @Test
+    public void testDefaultEntryAndDisplayNames() {
+        int bricks = Material.BRICKS.ordinal();
+        int dirt = Material.DIRT.ordinal();
+
+        assertEquals(4.0, rules.getIncome(RewardRules.Activity.BUILDING, 3, bricks, 1), 0.0001);
+        assertEquals("未指定の素材はdefaultを使うべき",
+            0.1, rules.getExperience(RewardRules.Activity.BUILDING, 3, dirt, 1), 0.0001);
+        assertEquals("レンガ", rules.getDisplayName(RewardRules.Activity.BUILDING, bricks));
+        assertNull(rules.getDisplayName(RewardRules.Activity.BUILDING, dirt));
+    }
+
+    @Test
+    public void testTradePricesSkipJobMultipliers() {
+        assertEquals(2.0, rules.getIncome(RewardRules.Activity.TRADE, 1, Material.COAL.ordinal(), 0), 0.0001);
+    }
+
+    @Test
+    public void testUnknownNamesAreReportedAndSkipped() {
+        assertEquals(2, rules.getWarnings().size());
+        assertTrue(rules.getWarnings().get(0).contains("NOT_A_BLOCK"));
+        assertTrue(rules.getWarnings().get(1).contains("unknown_job"));
+        assertFalse(RewardRules.compile(null, registry, configManager).isRewarded(
+            RewardRules.Activity.BLOCK_BREAK, Material.COAL_ORE.ordinal()));
+    }
+}
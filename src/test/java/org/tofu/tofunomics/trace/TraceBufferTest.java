@@ -0,0 +1,72 @@
+package org.tofu.tofunomics.trace;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * TraceBuffer単体テスト
+ * 追加順の取り出し、満杯時の破棄、複数スレッドからの追加を検証
+ */
+public class TraceBufferTest {
+
+    @Test
+    public void testDrainInOrderAndDropWhenFull() {
+        TraceBuffer<String> buffer = new TraceBuffer<>(3);
+        assertEquals("2の累乗に切り上げるべき", 4, buffer.capacity());
+
+        for (int i = 0; i < 6; i++) {
+            buffer.offer("e" + i);
+        }
+        List<String> drained = new ArrayList<>();
+        assertEquals(4, buffer.drain(drained::add));
+
+        assertEquals(Arrays.asList("e0", "e1", "e2", "e3"), drained);
+        assertEquals(2, buffer.getDroppedCount());
+        assertTrue("取り出した分だけ再び追加できるべき", buffer.offer("e6"));
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void testConcurrentProducersLoseNothingWithinCapacity() throws InterruptedException {
+        TraceBuffer<Integer> buffer = new TraceBuffer<>(4096);
+        int threads = 4;
+        int perThread = 1000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    buffer.offer(base + i);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        boolean[] seen = new boolean[threads * perThread];
+        int drained = buffer.drain(value -> seen[value] = true);
+
+        assertEquals(threads * perThread, drained);
+        for (boolean value : seen) {
+            assertTrue(value);
+        }
+        assertEquals(0, buffer.getDroppedCount());
+    }
+}
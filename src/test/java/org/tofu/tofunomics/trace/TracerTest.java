@@ -0,0 +1,102 @@
+package org.tofu.tofunomics.trace;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tracer単体テスト
+ * カテゴリ・プレイヤー単位の切り替え、ファイルへの書き出しとローテーションを検証
+ */
+public class TracerTest {
+
+    private static final Logger LOGGER = Logger.getLogger("TracerTest");
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Tracer newTracer(long maxFileBytes) {
+        return new Tracer(new File(folder.getRoot(), "trace/trace.log"), 64, maxFileBytes, 2, LOGGER);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        Tracer tracer = newTracer(4096);
+        for (Tracer.Category category : Tracer.Category.values()) {
+            assertFalse(tracer.isEnabled(category, ALICE));
+        }
+    }
+
+    @Test
+    public void testToggleForAllPlayers() {
+        Tracer tracer = newTracer(4096);
+
+        assertTrue(tracer.toggle(Tracer.Category.EVENTS, null));
+        assertTrue(tracer.isEnabled(Tracer.Category.EVENTS, ALICE));
+        assertTrue("プレイヤーに関係しない処理も対象になるべき", tracer.isEnabled(Tracer.Category.EVENTS, null));
+        assertFalse("他のカテゴリは無効のままであるべき", tracer.isEnabled(Tracer.Category.CRAFT, ALICE));
+
+        assertFalse(tracer.toggle(Tracer.Category.EVENTS, null));
+        assertFalse(tracer.isEnabled(Tracer.Category.EVENTS, ALICE));
+    }
+
+    @Test
+    public void testToggleForSinglePlayer() {
+        Tracer tracer = newTracer(4096);
+
+        assertTrue(tracer.toggle(Tracer.Category.CRAFT, ALICE));
+        assertTrue(tracer.isEnabled(Tracer.Category.CRAFT, ALICE));
+        assertFalse("指定していないプレイヤーは対象外であるべき", tracer.isEnabled(Tracer.Category.CRAFT, BOB));
+        assertFalse(tracer.isEnabled(Tracer.Category.CRAFT, null));
+
+        assertTrue(tracer.toggle(Tracer.Category.CRAFT, BOB));
+        assertEquals(2, tracer.getPlayers(Tracer.Category.CRAFT).size());
+        assertFalse(tracer.toggle(Tracer.Category.CRAFT, ALICE));
+        assertFalse(tracer.isEnabled(Tracer.Category.CRAFT, ALICE));
+        assertFalse(tracer.toggle(Tracer.Category.CRAFT, BOB));
+        assertFalse("最後のプレイヤーを外したらカテゴリごと無効になるべき", tracer.isCategoryEnabled(Tracer.Category.CRAFT));
+
+        tracer.toggle(Tracer.Category.JOBS, null);
+        assertTrue("全員が対象のときにプレイヤーを指定したらそのプレイヤーに絞るべき", tracer.toggle(Tracer.Category.JOBS, ALICE));
+        assertFalse(tracer.isEnabled(Tracer.Category.JOBS, BOB));
+
+        tracer.disableAll();
+        assertFalse(tracer.isEnabled(Tracer.Category.JOBS, ALICE));
+    }
+
+    @Test
+    public void testFlushWritesLinesAndRotates() throws IOException {
+        Tracer tracer = newTracer(1024);
+        File logFile = tracer.getLogFile();
+
+        tracer.trace(Tracer.Category.PERMISSIONS, "Alice", "STONE の破壊を許可");
+        tracer.flush();
+        String written = new String(Files.readAllBytes(logFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(written.endsWith(" [permissions] Alice: STONE の破壊を許可\n"));
+
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 1100; i++) {
+            large.append('x');
+        }
+        tracer.trace(Tracer.Category.EVENTS, null, large.toString());
+        tracer.flush();
+        tracer.trace(Tracer.Category.EVENTS, null, "rotated");
+        tracer.flush();
+
+        assertTrue("上限を超えたファイルは退避するべき", tracer.rotatedFile(1).exists());
+        String current = new String(Files.readAllBytes(logFile.toPath()), StandardCharsets.UTF_8);
+        assertTrue(current.endsWith(" [events] rotated\n"));
+        assertFalse(current.contains("Alice"));
+    }
+}